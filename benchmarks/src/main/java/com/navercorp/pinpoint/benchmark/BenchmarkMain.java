@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Same as {@link org.openjdk.jmh.Main} but always attaches the gc profiler
+ * so that allocation rate (bytes/op) is reported for every release.
+ * <p>
+ * Pass -Dpinpoint.benchmark.prof.gc=false to run without it.
+ */
+public class BenchmarkMain {
+
+    static final String GC_PROFILER_ENABLE = "pinpoint.benchmark.prof.gc";
+
+    public static void main(String[] args) throws Exception {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (isInformationRequest(commandLineOptions)) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        final ChainedOptionsBuilder optionsBuilder = new OptionsBuilder().parent(commandLineOptions);
+        if (isGcProfilerEnabled() && !hasGcProfiler(commandLineOptions)) {
+            optionsBuilder.addProfiler(GCProfiler.class);
+        }
+        new Runner(optionsBuilder.build()).run();
+    }
+
+    private static boolean isInformationRequest(CommandLineOptions options) {
+        return options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats();
+    }
+
+    private static boolean isGcProfilerEnabled() {
+        return Boolean.parseBoolean(System.getProperty(GC_PROFILER_ENABLE, "true"));
+    }
+
+    private static boolean hasGcProfiler(CommandLineOptions options) {
+        for (ProfilerConfig profilerConfig : options.getProfilers()) {
+            final String profiler = profilerConfig.getKlass();
+            if ("gc".equals(profiler) || GCProfiler.class.getName().equals(profiler)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
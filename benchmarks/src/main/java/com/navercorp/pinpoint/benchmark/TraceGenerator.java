@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.profiler.context.Annotation;
+import com.navercorp.pinpoint.profiler.context.DefaultSpanFactory;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanFactory;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTransactionIdEncoder;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.thrift.dto.TIntStringStringValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates traces that look like real web transactions:
+ * deep call stacks, jdbc calls with large sql and bind values, and many method argument annotations.
+ * Output is deterministic for a given seed so that runs of different releases are comparable.
+ *
+ * @see com.navercorp.pinpoint.profiler.context.SpanPostProcessorV2
+ */
+public class TraceGenerator {
+
+    public static final String AGENT_ID = "benchmark-agent";
+    public static final String APPLICATION_NAME = "benchmark-app";
+
+    private static final int MAX_DEPTH = 64;
+    private static final int SQL_EVENT_INTERVAL = 5;
+    private static final short JDBC_SERVICE_TYPE = 2101;
+
+    private final long agentStartTime = 1500000000000L;
+    private final Random random;
+    private final SpanFactory spanFactory;
+    private long transactionSequence;
+
+    public TraceGenerator() {
+        this(7);
+    }
+
+    public TraceGenerator(long seed) {
+        this.random = new Random(seed);
+        DefaultTransactionIdEncoder transactionIdEncoder = new DefaultTransactionIdEncoder(AGENT_ID, agentStartTime);
+        this.spanFactory = new DefaultSpanFactory(APPLICATION_NAME, AGENT_ID, agentStartTime, ServiceType.STAND_ALONE, transactionIdEncoder);
+    }
+
+    public Span createSpan() {
+        final TraceRoot traceRoot = newTraceRoot();
+        final Span span = spanFactory.newSpan(traceRoot);
+        span.setServiceType(ServiceType.STAND_ALONE.getCode());
+        span.setRpc("/api/v1/orders/" + random.nextInt(100000));
+        span.setEndPoint("benchmark-host:8080");
+        span.setRemoteAddr("10.0.0." + random.nextInt(255));
+        span.setApiId(1);
+        span.addAnnotation(new Annotation(AnnotationKey.HTTP_URL.getCode(), span.getRpc()));
+        span.addAnnotation(new Annotation(AnnotationKey.HTTP_PARAM.getCode(), "orderId=" + random.nextInt() + "&page=3&size=50"));
+        span.markAfterTime(span.getStartTime() + 1000 + random.nextInt(1000));
+        return span;
+    }
+
+    /**
+     * @return span events in call order. depth goes up to {@value MAX_DEPTH} and back.
+     */
+    public List<SpanEvent> createSpanEventList(Span span, int spanEventCount) {
+        final TraceRoot traceRoot = span.getTraceRoot();
+        final List<SpanEvent> spanEventList = new ArrayList<SpanEvent>(spanEventCount);
+        int depth = 1;
+        boolean descending = true;
+        for (int sequence = 0; sequence < spanEventCount; sequence++) {
+            final SpanEvent spanEvent = new SpanEvent(traceRoot);
+            spanEvent.setSequence((short) sequence);
+            spanEvent.setDepth(depth);
+            spanEvent.markStartTime();
+
+            if (sequence % SQL_EVENT_INTERVAL == SQL_EVENT_INTERVAL - 1) {
+                fillJdbcEvent(spanEvent);
+            } else {
+                fillMethodEvent(spanEvent);
+            }
+            spanEvent.markAfterTime();
+            spanEventList.add(spanEvent);
+
+            if (descending) {
+                depth++;
+                descending = depth < MAX_DEPTH;
+            } else {
+                depth--;
+                descending = depth <= 1;
+            }
+        }
+        return spanEventList;
+    }
+
+    private void fillMethodEvent(SpanEvent spanEvent) {
+        spanEvent.setServiceType(ServiceType.INTERNAL_METHOD.getCode());
+        spanEvent.setApiId(100 + random.nextInt(5000));
+        spanEvent.addAnnotation(new Annotation(AnnotationKey.ARGS0.getCode(), "com.example.order.OrderRequest@" + Integer.toHexString(random.nextInt())));
+        spanEvent.addAnnotation(new Annotation(AnnotationKey.ARGS1.getCode(), random.nextInt(10000)));
+        spanEvent.addAnnotation(new Annotation(AnnotationKey.RETURN_DATA.getCode(), "SUCCESS"));
+    }
+
+    private void fillJdbcEvent(SpanEvent spanEvent) {
+        spanEvent.setServiceType(JDBC_SERVICE_TYPE);
+        spanEvent.setApiId(10000 + random.nextInt(100));
+        spanEvent.setEndPoint("db-master:3306");
+        spanEvent.setDestinationId("orders");
+        final TIntStringStringValue sqlValue = new TIntStringStringValue(random.nextInt(3000));
+        sqlValue.setStringValue2(createBindValues(40));
+        spanEvent.addAnnotation(new Annotation(AnnotationKey.SQL_ID.getCode(), sqlValue));
+    }
+
+    private String createBindValues(int count) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(random.nextInt(1000000));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return ORM style sql with {@code columnCount} columns, literals and an IN clause.
+     */
+    public String createLargeSql(int columnCount) {
+        final StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("order0_.column_").append(i).append(" AS col_").append(i).append('_');
+        }
+        sql.append(" FROM orders order0_ LEFT OUTER JOIN order_item item1_ ON order0_.id = item1_.order_id");
+        sql.append(" WHERE order0_.status = 'PAID' AND order0_.created_at > '2017-10-01 00:00:00'");
+        sql.append(" AND order0_.user_id IN (");
+        for (int i = 0; i < columnCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(random.nextInt(1000000));
+        }
+        sql.append(") /* order list */ ORDER BY order0_.id DESC LIMIT 50");
+        return sql.toString();
+    }
+
+    private TraceRoot newTraceRoot() {
+        final long sequence = transactionSequence++;
+        final TraceId traceId = new DefaultTraceId(AGENT_ID, agentStartTime, sequence);
+        return new DefaultTraceRoot(traceId, AGENT_ID, agentStartTime + sequence, sequence);
+    }
+}
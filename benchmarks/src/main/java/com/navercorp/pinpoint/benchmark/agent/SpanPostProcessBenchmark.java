@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.agent;
+
+import com.navercorp.pinpoint.benchmark.TraceGenerator;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessorV2;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agent side span path : SpanPostProcessorV2(SpanEventCompressorV2) -> HeaderTBaseSerializer.
+ * A new trace is generated before every invocation because SpanEventCompressorV2 mutates span events.
+ *
+ * @see SpanSerializeBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SpanPostProcessBenchmark {
+
+    private static final int UDP_MAX_PACKET_LENGTH = 65507;
+
+    @Param({"10", "100", "1000"})
+    public int spanEventCount;
+
+    private final SpanPostProcessor spanPostProcessor = new SpanPostProcessorV2();
+
+    private HeaderTBaseSerializer serializer;
+
+    private TraceGenerator traceGenerator;
+
+    private Span span;
+    private List<SpanEvent> spanEventList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.traceGenerator = new TraceGenerator();
+        // same as UdpDataSender except autoExpand. deep traces exceed one udp packet
+        this.serializer = new HeaderTBaseSerializerFactory(false, UDP_MAX_PACKET_LENGTH, true).createSerializer();
+    }
+
+    @Setup(Level.Invocation)
+    public void newTrace() {
+        this.span = traceGenerator.createSpan();
+        this.spanEventList = traceGenerator.createSpanEventList(span, spanEventCount);
+    }
+
+    @Benchmark
+    public Span postProcess() {
+        return spanPostProcessor.postProcess(span, spanEventList);
+    }
+
+    @Benchmark
+    public int postProcessAndSerialize() throws TException {
+        final Span span = spanPostProcessor.postProcess(this.span, spanEventList);
+        serializer.serialize(span);
+        return serializer.getInterBufferSize();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.agent;
+
+import com.navercorp.pinpoint.benchmark.TraceGenerator;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessorV2;
+import com.navercorp.pinpoint.profiler.sender.PartitionedByteBufferLocator;
+import com.navercorp.pinpoint.profiler.sender.SpanStreamSendDataSerializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agent side span path : compressed span -> HeaderTBaseSerializer -> udp packet bytes.
+ *
+ * @see SpanPostProcessBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SpanSerializeBenchmark {
+
+    private static final int UDP_MAX_PACKET_LENGTH = 65507;
+
+    @Param({"10", "100", "1000"})
+    public int spanEventCount;
+
+    private final SpanPostProcessor spanPostProcessor = new SpanPostProcessorV2();
+    private final SpanStreamSendDataSerializer spanStreamSendDataSerializer = new SpanStreamSendDataSerializer();
+
+    private HeaderTBaseSerializer serializer;
+    private HeaderTBaseSerializer chunkSerializer;
+
+    private Span processedSpan;
+
+    @Setup
+    public void setUp() {
+        final TraceGenerator traceGenerator = new TraceGenerator();
+        // same as UdpDataSender except autoExpand. deep traces exceed one udp packet
+        this.serializer = new HeaderTBaseSerializerFactory(false, UDP_MAX_PACKET_LENGTH, true).createSerializer();
+        // same as SpanStreamUdpSender
+        this.chunkSerializer = new HeaderTBaseSerializerFactory(false, 1024 * 16, true).createSerializer();
+
+        this.processedSpan = traceGenerator.createSpan();
+        List<SpanEvent> processedSpanEventList = traceGenerator.createSpanEventList(processedSpan, spanEventCount);
+        spanPostProcessor.postProcess(processedSpan, processedSpanEventList);
+    }
+
+    @Benchmark
+    public int serialize() throws TException {
+        serializer.serialize(processedSpan);
+        return serializer.getInterBufferSize();
+    }
+
+    @Benchmark
+    public PartitionedByteBufferLocator serializeSpanStream() {
+        // SpanStreamUdpSender resets pooled serializers on return
+        chunkSerializer.reset();
+        return spanStreamSendDataSerializer.serializeSpanStream(chunkSerializer, processedSpan);
+    }
+}
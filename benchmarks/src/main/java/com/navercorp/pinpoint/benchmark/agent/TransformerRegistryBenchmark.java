@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.benchmark.agent;
+
+import com.navercorp.pinpoint.bootstrap.config.DefaultProfilerConfig;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.Matcher;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.Matchers;
+import com.navercorp.pinpoint.profiler.instrument.transformer.MatchableTransformerRegistry;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class loading path of the agent : MatchableTransformerRegistry lookup of every class loaded by an application server
+ * at startup. 1% of the classes are in a package of a package based matcher, the others are rejected by the registry.
+ * findTransformerUnmatched is the rejection path alone.
+ * findCandidate and findCandidateWarmDecisionCache match the classes of the matched packages, the latter with the
+ * matcher decisions of a previous JVM start.
+ * buildRegistry is the registration of the plugin matchers at agent startup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TransformerRegistryBenchmark {
+
+    private static final int CLASS_COUNT = 40000;
+    private static final int MATCHED_CLASS_PERCENTAGE = 1;
+
+    private static final String[] PACKAGES = {
+            "java/util/", "java/util/concurrent/", "javax/servlet/http/", "sun/reflect/",
+            "org/springframework/beans/factory/support/", "org/springframework/web/servlet/mvc/",
+            "org/apache/catalina/core/", "org/apache/commons/lang3/", "org/hibernate/engine/spi/",
+            "com/fasterxml/jackson/databind/", "com/google/common/collect/", "com/example/shop/order/",
+            "io/netty/channel/", "net/sf/ehcache/store/"
+    };
+
+    @Param({"1", "16", "128"})
+    public int packageMatcherCount;
+
+    private final DefaultProfilerConfig profilerConfig = new DefaultProfilerConfig(new Properties());
+    private final ClassFileTransformer transformer = new NoopTransformer();
+    private final byte[] unmatchedClassFileBuffer = new byte[0];
+
+    private List<String> matcherPackageNames;
+    private String[] classInternalNames;
+    private byte[][] classFileBuffers;
+    private String[] unmatchedClassInternalNames;
+    private List<String> candidateClassInternalNames;
+    private List<byte[]> candidateClassFileBuffers;
+
+    private MatchableTransformerRegistry registry;
+    private MatchableTransformerRegistry warmRegistry;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.matcherPackageNames = new ArrayList<String>(packageMatcherCount);
+        for (int i = 0; i < packageMatcherCount; i++) {
+            // share the first segments with the application packages
+            final String applicationPackage = PACKAGES[i % PACKAGES.length];
+            matcherPackageNames.add(applicationPackage + "plugin" + i);
+        }
+
+        final Random random = new Random(0);
+        this.classInternalNames = new String[CLASS_COUNT];
+        this.classFileBuffers = new byte[CLASS_COUNT][];
+        this.unmatchedClassInternalNames = new String[CLASS_COUNT];
+        this.candidateClassInternalNames = new ArrayList<String>();
+        this.candidateClassFileBuffers = new ArrayList<byte[]>();
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            unmatchedClassInternalNames[i] = PACKAGES[random.nextInt(PACKAGES.length)] + "Class" + i;
+            if (random.nextInt(100) < MATCHED_CLASS_PERCENTAGE) {
+                final String packageName = matcherPackageNames.get(random.nextInt(packageMatcherCount));
+                classInternalNames[i] = packageName + "/Target" + i;
+                classFileBuffers[i] = newClassFileBuffer(classInternalNames[i]);
+                candidateClassInternalNames.add(classInternalNames[i]);
+                candidateClassFileBuffers.add(classFileBuffers[i]);
+            } else {
+                classInternalNames[i] = PACKAGES[random.nextInt(PACKAGES.length)] + "Class" + i;
+                classFileBuffers[i] = unmatchedClassFileBuffer;
+            }
+        }
+
+        this.registry = buildRegistry();
+        this.warmRegistry = buildWarmRegistry();
+    }
+
+    private MatchableTransformerRegistry buildWarmRegistry() throws IOException {
+        final File decisionCacheFile = File.createTempFile("matcher-decision", ".cache");
+        if (!decisionCacheFile.delete()) {
+            throw new IOException("Failed to delete " + decisionCacheFile);
+        }
+        decisionCacheFile.deleteOnExit();
+        final DefaultProfilerConfig profilerConfig = new DefaultProfilerConfig(new Properties());
+        profilerConfig.getInstrumentMatcherCacheConfig().setDecisionCachePath(decisionCacheFile.getPath());
+
+        // previous JVM start.
+        final MatchableTransformerRegistry coldRegistry = buildRegistry(profilerConfig);
+        coldRegistry.loadDecisionCache();
+        findCandidate(coldRegistry);
+        coldRegistry.saveDecisionCache();
+
+        final MatchableTransformerRegistry warmRegistry = buildRegistry(profilerConfig);
+        warmRegistry.loadDecisionCache();
+        return warmRegistry;
+    }
+
+    // about 3KB, a small application class.
+    private static byte[] newClassFileBuffer(String classInternalName) {
+        final ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC, classInternalName, null, "java/lang/Object", new String[]{"java/io/Serializable"});
+        classWriter.visitAnnotation("Ljavax/annotation/Generated;", true).visitEnd();
+        for (int i = 0; i < 16; i++) {
+            classWriter.visitField(Opcodes.ACC_PRIVATE, "field" + i, "Ljava/lang/String;", null, null).visitEnd();
+            final MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "getField" + i, "()Ljava/lang/String;", null, null);
+            methodVisitor.visitCode();
+            methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+            methodVisitor.visitFieldInsn(Opcodes.GETFIELD, classInternalName, "field" + i, "Ljava/lang/String;");
+            methodVisitor.visitInsn(Opcodes.ARETURN);
+            methodVisitor.visitMaxs(1, 1);
+            methodVisitor.visitEnd();
+        }
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    @Benchmark
+    public MatchableTransformerRegistry buildRegistry() {
+        return buildRegistry(profilerConfig);
+    }
+
+    private MatchableTransformerRegistry buildRegistry(DefaultProfilerConfig profilerConfig) {
+        final MatchableTransformerRegistry registry = new MatchableTransformerRegistry(profilerConfig);
+        for (String packageName : matcherPackageNames) {
+            final Matcher matcher = Matchers.newPackageBasedMatcher(packageName.replace('/', '.'));
+            registry.addTransformer(matcher, transformer);
+        }
+        return registry;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_COUNT)
+    public int findTransformer() {
+        int found = 0;
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            if (registry.findTransformer(null, classInternalNames[i], classFileBuffers[i]) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_COUNT)
+    public int findTransformerUnmatched() {
+        int found = 0;
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            if (registry.findTransformer(null, unmatchedClassInternalNames[i], unmatchedClassFileBuffer) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int findCandidate() {
+        return findCandidate(registry);
+    }
+
+    @Benchmark
+    public int findCandidateWarmDecisionCache() {
+        return findCandidate(warmRegistry);
+    }
+
+    private int findCandidate(MatchableTransformerRegistry registry) {
+        int found = 0;
+        for (int i = 0; i < candidateClassInternalNames.size(); i++) {
+            if (registry.findTransformer(null, candidateClassInternalNames.get(i), candidateClassFileBuffers.get(i)) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static class NoopTransformer implements ClassFileTransformer {
+        @Override
+        public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.collector;
+
+import com.navercorp.pinpoint.benchmark.TraceGenerator;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.distributor.RangeOneByteSimpleHash;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanFactory;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanDecoderV0;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoderV0;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanSerializerV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.TraceRowKeyEncoderV2;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessorV2;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.thrift.TException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collector side span path : udp packet bytes -> TSpan -> SpanBo -> HBase Put,
+ * plus the web side read path (SpanDecoderV0).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SpanIngestBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int spanEventCount;
+
+    private final HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+    private final SpanFactory spanFactory = new SpanFactory();
+    private final SpanEncoder spanEncoder = new SpanEncoderV0();
+    private final SpanDecoder spanDecoder = new SpanDecoderV0();
+    private final SpanSerializerV2 spanSerializer = new SpanSerializerV2(spanEncoder);
+    // same as traceV2Distributor of collector
+    private final RowKeyEncoder<TransactionId> rowKeyEncoder = new TraceRowKeyEncoderV2(new RowKeyDistributorByHashPrefix(new RangeOneByteSimpleHash(32, 40, 256)));
+
+    private byte[] packet;
+    private TSpan tSpan;
+    private SpanBo spanBo;
+
+    private byte[] qualifier;
+    private byte[] columnValue;
+
+    @Setup
+    public void setUp() throws TException {
+        final TraceGenerator traceGenerator = new TraceGenerator();
+        final Span span = traceGenerator.createSpan();
+        final List<SpanEvent> spanEventList = traceGenerator.createSpanEventList(span, spanEventCount);
+        new SpanPostProcessorV2().postProcess(span, spanEventList);
+
+        final HeaderTBaseSerializer serializer = new HeaderTBaseSerializerFactory(false, 1024 * 64, true).createSerializer();
+        final byte[] internalBuffer = serializer.serialize(span);
+        this.packet = Arrays.copyOf(internalBuffer, serializer.getInterBufferSize());
+
+        this.tSpan = (TSpan) deserializer.deserialize(packet);
+        this.spanBo = spanFactory.buildSpanBo(tSpan);
+
+        final SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<SpanBo>(spanBo);
+        this.qualifier = toBytes(spanEncoder.encodeSpanQualifier(encodingContext));
+        this.columnValue = toBytes(spanEncoder.encodeSpanColumnValue(encodingContext));
+    }
+
+    private static byte[] toBytes(ByteBuffer byteBuffer) {
+        final byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public TSpan deserialize() throws TException {
+        return (TSpan) deserializer.deserialize(packet);
+    }
+
+    @Benchmark
+    public SpanBo buildSpanBo() {
+        return spanFactory.buildSpanBo(tSpan);
+    }
+
+    @Benchmark
+    public Put encodePut() {
+        return newPut(spanBo);
+    }
+
+    @Benchmark
+    public Put ingest() throws TException {
+        final TSpan tSpan = (TSpan) deserializer.deserialize(packet);
+        final SpanBo spanBo = spanFactory.buildSpanBo(tSpan);
+        return newPut(spanBo);
+    }
+
+    /**
+     * encodePut() through SpanSerializerV2, which reuses a per thread column value buffer
+     */
+    @Benchmark
+    public Put serializePut() {
+        return serializePut(spanBo);
+    }
+
+    @Benchmark
+    public Put ingestSerialize() throws TException {
+        final TSpan tSpan = (TSpan) deserializer.deserialize(packet);
+        final SpanBo spanBo = spanFactory.buildSpanBo(tSpan);
+        return serializePut(spanBo);
+    }
+
+    @Benchmark
+    public Object decode() {
+        final SpanDecodingContext decodingContext = new SpanDecodingContext();
+        decodingContext.setTransactionId(spanBo.getTransactionId());
+        decodingContext.setCollectorAcceptedTime(spanBo.getCollectorAcceptTime());
+
+        final Buffer qualifierBuffer = new OffsetFixedBuffer(qualifier);
+        final Buffer columnValueBuffer = new OffsetFixedBuffer(columnValue);
+        return spanDecoder.decode(qualifierBuffer, columnValueBuffer, decodingContext);
+    }
+
+    /**
+     * same as HbaseTraceDaoV2.insert() + SpanSerializerV2
+     */
+    private Put newPut(SpanBo spanBo) {
+        final long acceptedTime = spanBo.getCollectorAcceptTime();
+        final byte[] rowKey = rowKeyEncoder.encodeRowKey(spanBo.getTransactionId());
+        final Put put = new Put(rowKey, acceptedTime);
+
+        final SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<SpanBo>(spanBo);
+        final ByteBuffer qualifier = spanEncoder.encodeSpanQualifier(encodingContext);
+        final ByteBuffer columnValue = spanEncoder.encodeSpanColumnValue(encodingContext);
+        put.addColumn(HBaseTables.TRACE_V2_CF_SPAN, qualifier, acceptedTime, columnValue);
+        return put;
+    }
+
+    private Put serializePut(SpanBo spanBo) {
+        final byte[] rowKey = rowKeyEncoder.encodeRowKey(spanBo.getTransactionId());
+        final Put put = new Put(rowKey, spanBo.getCollectorAcceptTime());
+        spanSerializer.serialize(spanBo, put, null);
+        return put;
+    }
+}
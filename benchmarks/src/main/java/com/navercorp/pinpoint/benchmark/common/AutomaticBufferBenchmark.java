@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.common;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutomaticBuffer write pattern of span/stat encoders : varints and prefixed strings with buffer growth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AutomaticBufferBenchmark {
+
+    @Param({"10", "1000"})
+    public int count;
+
+    private long[] values;
+    private String[] strings;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(7);
+        this.values = new long[count];
+        this.strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt(100000);
+            strings[i] = "com.example.order.OrderService.getOrder(" + random.nextInt() + ")";
+        }
+    }
+
+    @Benchmark
+    public byte[] putVarint() {
+        final Buffer buffer = new AutomaticBuffer(64);
+        for (long value : values) {
+            buffer.putVLong(value);
+            buffer.putSVInt((int) -value);
+        }
+        return buffer.getBuffer();
+    }
+
+    @Benchmark
+    public byte[] putPrefixedString() {
+        final Buffer buffer = new AutomaticBuffer(64);
+        for (String string : strings) {
+            buffer.putPrefixedString(string);
+        }
+        return buffer.getBuffer();
+    }
+}
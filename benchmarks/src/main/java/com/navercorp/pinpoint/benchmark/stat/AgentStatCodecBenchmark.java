@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.stat;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.server.bo.JvmGcType;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.JvmGcCodecV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agent stat codec V2 encode (collector) / decode (web).
+ * numValues 6 : one agent stat batch. 720 : one hour of 5 second data points.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AgentStatCodecBenchmark {
+
+    private static final String AGENT_ID = "benchmark-agent";
+    private static final long AGENT_START_TIMESTAMP = 1500000000000L;
+    private static final long COLLECT_INTERVAL = 5000;
+
+    @Param({"6", "720"})
+    public int numValues;
+
+    private final AgentStatDataPointCodec dataPointCodec = new AgentStatDataPointCodec();
+    private final JvmGcCodecV2 jvmGcCodec = new JvmGcCodecV2(dataPointCodec);
+    private final CpuLoadCodecV2 cpuLoadCodec = new CpuLoadCodecV2(dataPointCodec);
+
+    private List<JvmGcBo> jvmGcBos;
+    private List<CpuLoadBo> cpuLoadBos;
+
+    private byte[] encodedJvmGc;
+    private byte[] encodedCpuLoad;
+
+    private long baseTimestamp;
+    private long timestampDelta;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(7);
+        final long initialTimestamp = AGENT_START_TIMESTAMP + COLLECT_INTERVAL;
+        this.baseTimestamp = AgentStatUtils.getBaseTimestamp(initialTimestamp);
+        this.timestampDelta = initialTimestamp - baseTimestamp;
+
+        this.jvmGcBos = createJvmGcBos(random, initialTimestamp);
+        this.cpuLoadBos = createCpuLoadBos(random, initialTimestamp);
+
+        this.encodedJvmGc = encodeJvmGc();
+        this.encodedCpuLoad = encodeCpuLoad();
+    }
+
+    private List<JvmGcBo> createJvmGcBos(Random random, long initialTimestamp) {
+        final List<JvmGcBo> jvmGcBos = new ArrayList<JvmGcBo>(numValues);
+        long gcOldCount = 0;
+        long gcOldTime = 0;
+        for (int i = 0; i < numValues; i++) {
+            final JvmGcBo jvmGcBo = new JvmGcBo();
+            jvmGcBo.setAgentId(AGENT_ID);
+            jvmGcBo.setStartTimestamp(AGENT_START_TIMESTAMP);
+            jvmGcBo.setTimestamp(initialTimestamp + (i * COLLECT_INTERVAL));
+            jvmGcBo.setGcType(JvmGcType.CMS);
+            jvmGcBo.setHeapMax(4L * 1024 * 1024 * 1024);
+            jvmGcBo.setHeapUsed(1024L * 1024 * (512 + random.nextInt(2048)));
+            jvmGcBo.setNonHeapMax(512L * 1024 * 1024);
+            jvmGcBo.setNonHeapUsed(1024L * 1024 * (100 + random.nextInt(50)));
+            if (random.nextInt(10) == 0) {
+                gcOldCount++;
+                gcOldTime += random.nextInt(300);
+            }
+            jvmGcBo.setGcOldCount(gcOldCount);
+            jvmGcBo.setGcOldTime(gcOldTime);
+            jvmGcBos.add(jvmGcBo);
+        }
+        return jvmGcBos;
+    }
+
+    private List<CpuLoadBo> createCpuLoadBos(Random random, long initialTimestamp) {
+        final List<CpuLoadBo> cpuLoadBos = new ArrayList<CpuLoadBo>(numValues);
+        for (int i = 0; i < numValues; i++) {
+            final CpuLoadBo cpuLoadBo = new CpuLoadBo();
+            cpuLoadBo.setAgentId(AGENT_ID);
+            cpuLoadBo.setStartTimestamp(AGENT_START_TIMESTAMP);
+            cpuLoadBo.setTimestamp(initialTimestamp + (i * COLLECT_INTERVAL));
+            cpuLoadBo.setJvmCpuLoad(random.nextDouble() * 0.5);
+            cpuLoadBo.setSystemCpuLoad(0.5 + random.nextDouble() * 0.5);
+            cpuLoadBos.add(cpuLoadBo);
+        }
+        return cpuLoadBos;
+    }
+
+    private AgentStatDecodingContext newDecodingContext() {
+        final AgentStatDecodingContext decodingContext = new AgentStatDecodingContext();
+        decodingContext.setAgentId(AGENT_ID);
+        decodingContext.setBaseTimestamp(baseTimestamp);
+        decodingContext.setTimestampDelta(timestampDelta);
+        return decodingContext;
+    }
+
+    @Benchmark
+    public byte[] encodeJvmGc() {
+        final Buffer valueBuffer = new AutomaticBuffer();
+        jvmGcCodec.encodeValues(valueBuffer, jvmGcBos);
+        return valueBuffer.getBuffer();
+    }
+
+    @Benchmark
+    public List<JvmGcBo> decodeJvmGc() {
+        final Buffer valueBuffer = new FixedBuffer(encodedJvmGc);
+        return jvmGcCodec.decodeValues(valueBuffer, newDecodingContext());
+    }
+
+    @Benchmark
+    public byte[] encodeCpuLoad() {
+        final Buffer valueBuffer = new AutomaticBuffer();
+        cpuLoadCodec.encodeValues(valueBuffer, cpuLoadBos);
+        return valueBuffer.getBuffer();
+    }
+
+    @Benchmark
+    public List<CpuLoadBo> decodeCpuLoad() {
+        final Buffer valueBuffer = new FixedBuffer(encodedCpuLoad);
+        return cpuLoadCodec.decodeValues(valueBuffer, newDecodingContext());
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.benchmark.stat;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.server.bo.JvmGcType;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.JvmGcCodecV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import com.navercorp.pinpoint.web.mapper.RangeTimestampFilter;
+import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.EagerSamplingHandler;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.AgentStatColumnSampler;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.CpuLoadColumnSampler;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.CpuLoadSampler;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Web side decoding of 30 days of agent stats of a single agent : 5 second data points, 6 per cell, as data point
+ * objects (decodeValues) or as primitive columns (decodeColumns). The sample benchmarks add the time window sampling
+ * of the cpu load chart.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class AgentStatColumnDecodeBenchmark {
+
+    private static final String AGENT_ID = "benchmark-agent";
+    private static final long FROM = 1500000000000L - (1500000000000L % HBaseTables.AGENT_STAT_TIMESPAN_MS);
+    private static final long TO = FROM + TimeUnit.DAYS.toMillis(30);
+    private static final long AGENT_START_TIMESTAMP = FROM - TimeUnit.HOURS.toMillis(1);
+    private static final long COLLECT_INTERVAL = 5000;
+    private static final int NUM_VALUES_PER_CELL = 6;
+
+    private final AgentStatDataPointCodec dataPointCodec = new AgentStatDataPointCodec();
+    private final JvmGcCodecV2 jvmGcCodec = new JvmGcCodecV2(dataPointCodec);
+    private final CpuLoadCodecV2 cpuLoadCodec = new CpuLoadCodecV2(dataPointCodec);
+
+    private final CpuLoadSampler cpuLoadSampler = new CpuLoadSampler();
+    private final CpuLoadColumnSampler cpuLoadColumnSampler = new CpuLoadColumnSampler();
+
+    private final Range range = new Range(FROM, TO);
+    private final TimeWindow timeWindow = new TimeWindow(range);
+    private final TimestampFilter filter = new RangeTimestampFilter(range);
+
+    // cells of a row in ascending order of their first timestamp, rows in descending order as read from hbase
+    private List<List<Cell>> jvmGcRows;
+    private List<List<Cell>> cpuLoadRows;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(7);
+        this.jvmGcRows = new ArrayList<List<Cell>>();
+        this.cpuLoadRows = new ArrayList<List<Cell>>();
+
+        long gcOldCount = 0;
+        long gcOldTime = 0;
+        List<JvmGcBo> jvmGcBos = new ArrayList<JvmGcBo>(NUM_VALUES_PER_CELL);
+        List<CpuLoadBo> cpuLoadBos = new ArrayList<CpuLoadBo>(NUM_VALUES_PER_CELL);
+        for (long timestamp = FROM; timestamp < TO; timestamp += COLLECT_INTERVAL) {
+            final JvmGcBo jvmGcBo = new JvmGcBo();
+            jvmGcBo.setAgentId(AGENT_ID);
+            jvmGcBo.setStartTimestamp(AGENT_START_TIMESTAMP);
+            jvmGcBo.setTimestamp(timestamp);
+            jvmGcBo.setGcType(JvmGcType.CMS);
+            jvmGcBo.setHeapMax(4L * 1024 * 1024 * 1024);
+            jvmGcBo.setHeapUsed(1024L * 1024 * (512 + random.nextInt(2048)));
+            jvmGcBo.setNonHeapMax(512L * 1024 * 1024);
+            jvmGcBo.setNonHeapUsed(1024L * 1024 * (100 + random.nextInt(50)));
+            if (random.nextInt(10) == 0) {
+                gcOldCount++;
+                gcOldTime += random.nextInt(300);
+            }
+            jvmGcBo.setGcOldCount(gcOldCount);
+            jvmGcBo.setGcOldTime(gcOldTime);
+            jvmGcBos.add(jvmGcBo);
+
+            final CpuLoadBo cpuLoadBo = new CpuLoadBo();
+            cpuLoadBo.setAgentId(AGENT_ID);
+            cpuLoadBo.setStartTimestamp(AGENT_START_TIMESTAMP);
+            cpuLoadBo.setTimestamp(timestamp);
+            cpuLoadBo.setJvmCpuLoad(random.nextDouble() * 0.5);
+            cpuLoadBo.setSystemCpuLoad(0.5 + random.nextDouble() * 0.5);
+            cpuLoadBos.add(cpuLoadBo);
+
+            if (jvmGcBos.size() == NUM_VALUES_PER_CELL) {
+                final Buffer jvmGcBuffer = new AutomaticBuffer();
+                jvmGcCodec.encodeValues(jvmGcBuffer, jvmGcBos);
+                addCell(jvmGcRows, jvmGcBos.get(0).getTimestamp(), jvmGcBuffer.getBuffer());
+
+                final Buffer cpuLoadBuffer = new AutomaticBuffer();
+                cpuLoadCodec.encodeValues(cpuLoadBuffer, cpuLoadBos);
+                addCell(cpuLoadRows, cpuLoadBos.get(0).getTimestamp(), cpuLoadBuffer.getBuffer());
+
+                jvmGcBos = new ArrayList<JvmGcBo>(NUM_VALUES_PER_CELL);
+                cpuLoadBos = new ArrayList<CpuLoadBo>(NUM_VALUES_PER_CELL);
+            }
+        }
+        Collections.reverse(jvmGcRows);
+        Collections.reverse(cpuLoadRows);
+    }
+
+    private static void addCell(List<List<Cell>> rows, long initialTimestamp, byte[] value) {
+        final long baseTimestamp = AgentStatUtils.getBaseTimestamp(initialTimestamp);
+        List<Cell> row = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        if (row == null || row.get(0).baseTimestamp != baseTimestamp) {
+            row = new ArrayList<Cell>();
+            rows.add(row);
+        }
+        row.add(new Cell(baseTimestamp, initialTimestamp - baseTimestamp, value));
+    }
+
+    @Benchmark
+    public int decodeJvmGc() {
+        int count = 0;
+        for (List<Cell> row : jvmGcRows) {
+            for (Cell cell : row) {
+                count += jvmGcCodec.decodeValues(new FixedBuffer(cell.value), cell.newDecodingContext()).size();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int decodeJvmGcColumns() {
+        int count = 0;
+        for (List<Cell> row : jvmGcRows) {
+            for (Cell cell : row) {
+                count += jvmGcCodec.decodeColumns(new FixedBuffer(cell.value), cell.newDecodingContext()).getSize();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int decodeCpuLoad() {
+        int count = 0;
+        for (List<Cell> row : cpuLoadRows) {
+            for (Cell cell : row) {
+                count += cpuLoadCodec.decodeValues(new FixedBuffer(cell.value), cell.newDecodingContext()).size();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int decodeCpuLoadColumns() {
+        int count = 0;
+        for (List<Cell> row : cpuLoadRows) {
+            for (Cell cell : row) {
+                count += cpuLoadCodec.decodeColumns(new FixedBuffer(cell.value), cell.newDecodingContext()).getSize();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Same as {@link com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatResultExtractor} with {@link AgentStatMapperV2}.
+     */
+    @Benchmark
+    public List<SampledCpuLoad> sampleCpuLoad() {
+        final EagerSamplingHandler<CpuLoadBo, SampledCpuLoad> samplingHandler = new EagerSamplingHandler<CpuLoadBo, SampledCpuLoad>(timeWindow, cpuLoadSampler);
+        for (List<Cell> row : cpuLoadRows) {
+            final List<CpuLoadBo> dataPoints = new ArrayList<CpuLoadBo>();
+            for (Cell cell : row) {
+                for (CpuLoadBo cpuLoadBo : cpuLoadCodec.decodeValues(new FixedBuffer(cell.value), cell.newDecodingContext())) {
+                    if (!filter.filter(cpuLoadBo.getTimestamp())) {
+                        dataPoints.add(cpuLoadBo);
+                    }
+                }
+            }
+            Collections.sort(dataPoints, AgentStatMapperV2.REVERSE_TIMESTAMP_COMPARATOR);
+            for (CpuLoadBo dataPoint : dataPoints) {
+                samplingHandler.addDataPoint(dataPoint);
+            }
+        }
+        return samplingHandler.getSampledDataPoints();
+    }
+
+    /**
+     * Same as {@link com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatColumnResultExtractor}.
+     */
+    @Benchmark
+    public List<SampledCpuLoad> sampleCpuLoadColumns() {
+        final AgentStatColumnSampler.SamplingHandler<SampledCpuLoad> samplingHandler = new AgentStatColumnSampler.SamplingHandler<SampledCpuLoad>(cpuLoadColumnSampler, timeWindow, filter);
+        final List<AgentStatColumns> columnsList = new ArrayList<AgentStatColumns>();
+        for (List<Cell> row : cpuLoadRows) {
+            for (Cell cell : row) {
+                columnsList.add(cpuLoadCodec.decodeColumns(new FixedBuffer(cell.value), cell.newDecodingContext()));
+            }
+            samplingHandler.addColumns(columnsList);
+            columnsList.clear();
+        }
+        return samplingHandler.getSampledDataPoints();
+    }
+
+    private static class Cell {
+        private final long baseTimestamp;
+        private final long timestampDelta;
+        private final byte[] value;
+
+        private Cell(long baseTimestamp, long timestampDelta, byte[] value) {
+            this.baseTimestamp = baseTimestamp;
+            this.timestampDelta = timestampDelta;
+            this.value = value;
+        }
+
+        private AgentStatDecodingContext newDecodingContext() {
+            final AgentStatDecodingContext decodingContext = new AgentStatDecodingContext();
+            decodingContext.setAgentId(AGENT_ID);
+            decodingContext.setBaseTimestamp(baseTimestamp);
+            decodingContext.setTimestampDelta(timestampDelta);
+            return decodingContext;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.scatter.ColumnarScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /getScatterData response : ApplicationTraceIndex cells -> scatter data -> json.
+ * <p>
+ * build* retain the scatter data until the response is written, so their bytes/op (gc profiler)
+ * is the heap a response holds. Strings are copied per dot as the cell decoder does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ScatterDataBenchmark {
+
+    private static final long FROM = 1514782800000L;
+    private static final long TO = FROM + 6 * 60 * 60 * 1000L;
+    // 1000 x 400 pixel chart of 6 hours
+    private static final int X_GROUP_UNIT = (int) ((TO - FROM) / 1000);
+    private static final int Y_GROUP_UNIT = 25;
+    private static final int AGENT_COUNT = 20;
+
+    @Param({"10000", "100000"})
+    public int dotCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OutputStream nullOutputStream = new NullOutputStream();
+
+    private long[] acceptedTimes;
+    private int[] elapsedTimes;
+    private int[] exceptionCodes;
+    private String[] agentIds;
+    private long[] agentStartTimes;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(0);
+        acceptedTimes = new long[dotCount];
+        elapsedTimes = new int[dotCount];
+        exceptionCodes = new int[dotCount];
+        agentIds = new String[dotCount];
+        agentStartTimes = new long[dotCount];
+        for (int i = 0; i < dotCount; i++) {
+            acceptedTimes[i] = FROM + (long) (random.nextDouble() * (TO - FROM));
+            elapsedTimes[i] = (int) Math.min(Math.abs(random.nextGaussian() * 300), 60000);
+            exceptionCodes[i] = random.nextInt(20) == 0 ? 1 : 0;
+            final int agent = random.nextInt(AGENT_COUNT);
+            agentIds[i] = "benchmark-agent-" + agent;
+            agentStartTimes[i] = FROM - agent;
+        }
+    }
+
+    @Benchmark
+    public ScatterData buildScatterData() {
+        final ScatterData scatterData = new ScatterData(FROM, TO, X_GROUP_UNIT, Y_GROUP_UNIT);
+        for (int i = 0; i < dotCount; i++) {
+            final String agentId = new String(agentIds[i]);
+            final TransactionId transactionId = new TransactionId(new String(agentIds[i]), agentStartTimes[i], i);
+            scatterData.addDot(new Dot(transactionId, acceptedTimes[i], elapsedTimes[i], exceptionCodes[i], agentId));
+        }
+        return scatterData;
+    }
+
+    @Benchmark
+    public ColumnarScatterData buildColumnarScatterData() {
+        final ColumnarScatterData scatterData = new ColumnarScatterData(FROM, TO, X_GROUP_UNIT, Y_GROUP_UNIT);
+        for (int i = 0; i < dotCount; i++) {
+            final String agentId = new String(agentIds[i]);
+            scatterData.addDot(acceptedTimes[i], elapsedTimes[i], exceptionCodes[i], agentId, new String(agentIds[i]), agentStartTimes[i], i);
+        }
+        return scatterData;
+    }
+
+    @Benchmark
+    public ScatterData scatterDataResponse() throws IOException {
+        final ScatterData scatterData = buildScatterData();
+        objectMapper.writeValue(nullOutputStream, scatterData);
+        return scatterData;
+    }
+
+    @Benchmark
+    public ColumnarScatterData columnarScatterDataResponse() throws IOException {
+        final ColumnarScatterData scatterData = buildColumnarScatterData();
+        objectMapper.writeValue(nullOutputStream, scatterData);
+        return scatterData;
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+        @Override
+        public void close() {
+            // ObjectMapper closes the stream after each value
+        }
+    }
+}
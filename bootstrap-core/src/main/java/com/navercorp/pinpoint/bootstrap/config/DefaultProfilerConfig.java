@@ -144,6 +144,11 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     // Sampling
     private boolean samplingEnable = true;
     private int samplingRate = 1;
+    private int samplingTracesPerSecond = 0;
+    private boolean samplingTailEnable = false;
+    private long samplingTailSlowThreshold = 1000;
+    private int samplingTailBufferMaxTransactions = 50000;
+    private int samplingTailBufferMaxEvents = 100000;
 
     // span buffering
     private boolean ioBufferingEnable;
@@ -358,6 +363,31 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return samplingRate;
     }
 
+    @Override
+    public int getSamplingTracesPerSecond() {
+        return samplingTracesPerSecond;
+    }
+
+    @Override
+    public boolean isSamplingTailEnable() {
+        return samplingTailEnable;
+    }
+
+    @Override
+    public long getSamplingTailSlowThreshold() {
+        return samplingTailSlowThreshold;
+    }
+
+    @Override
+    public int getSamplingTailBufferMaxTransactions() {
+        return samplingTailBufferMaxTransactions;
+    }
+
+    @Override
+    public int getSamplingTailBufferMaxEvents() {
+        return samplingTailBufferMaxEvents;
+    }
+
     @Override
     public boolean isIoBufferingEnable() {
         return ioBufferingEnable;
@@ -477,6 +507,7 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.instrumentMatcherCacheConfig.setAnnotationCacheEntrySize(readInt("profiler.instrument.matcher.annotation.cache.entry.size", 4));
         this.instrumentMatcherCacheConfig.setSuperCacheSize(readInt("profiler.instrument.matcher.super.cache.size", 4));
         this.instrumentMatcherCacheConfig.setSuperCacheEntrySize(readInt("profiler.instrument.matcher.super.cache.entry.size", 4));
+        this.instrumentMatcherCacheConfig.setDecisionCachePath(readString("profiler.instrument.matcher.decision.cache.path", "", placeHolderResolver));
 
         this.interceptorRegistrySize = readInt("profiler.interceptorregistry.size", 1024 * 8);
 
@@ -530,6 +561,11 @@ public class DefaultProfilerConfig implements ProfilerConfig {
 
         this.samplingEnable = readBoolean("profiler.sampling.enable", true);
         this.samplingRate = readInt("profiler.sampling.rate", 1);
+        this.samplingTracesPerSecond = readInt("profiler.sampling.tracespersecond", 0);
+        this.samplingTailEnable = readBoolean("profiler.sampling.tail.enable", false);
+        this.samplingTailSlowThreshold = readLong("profiler.sampling.tail.slow.threshold", 1000);
+        this.samplingTailBufferMaxTransactions = readInt("profiler.sampling.tail.buffer.maxtransactions", 50000);
+        this.samplingTailBufferMaxEvents = readInt("profiler.sampling.tail.buffer.maxevents", 100000);
 
         // configuration for sampling and IO buffer 
         this.ioBufferingEnable = readBoolean("profiler.io.buffering.enable", true);
@@ -714,6 +750,11 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         sb.append(", maxSqlBindValueSize=").append(maxSqlBindValueSize);
         sb.append(", samplingEnable=").append(samplingEnable);
         sb.append(", samplingRate=").append(samplingRate);
+        sb.append(", samplingTracesPerSecond=").append(samplingTracesPerSecond);
+        sb.append(", samplingTailEnable=").append(samplingTailEnable);
+        sb.append(", samplingTailSlowThreshold=").append(samplingTailSlowThreshold);
+        sb.append(", samplingTailBufferMaxTransactions=").append(samplingTailBufferMaxTransactions);
+        sb.append(", samplingTailBufferMaxEvents=").append(samplingTailBufferMaxEvents);
         sb.append(", ioBufferingEnable=").append(ioBufferingEnable);
         sb.append(", ioBufferingBufferSize=").append(ioBufferingBufferSize);
         sb.append(", profileJvmVendorName='").append(profileJvmVendorName).append('\'');
@@ -26,6 +26,8 @@ public class InstrumentMatcherCacheConfig {
     private int annotationCacheEntrySize = 0;
     private int superCacheSize = 0;
     private int superCacheEntrySize = 0;
+    // file of the matcher decisions kept between JVM starts. disabled if empty.
+    private String decisionCachePath = "";
 
     public int getInterfaceCacheSize() {
         return interfaceCacheSize;
@@ -75,6 +77,14 @@ public class InstrumentMatcherCacheConfig {
         this.superCacheEntrySize = superCacheEntrySize;
     }
 
+    public String getDecisionCachePath() {
+        return decisionCachePath;
+    }
+
+    public void setDecisionCachePath(String decisionCachePath) {
+        this.decisionCachePath = decisionCachePath;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("{");
@@ -84,6 +94,7 @@ public class InstrumentMatcherCacheConfig {
         sb.append(", annotationCacheEntrySize=").append(annotationCacheEntrySize);
         sb.append(", superCacheSize=").append(superCacheSize);
         sb.append(", superCacheEntrySize=").append(superCacheEntrySize);
+        sb.append(", decisionCachePath=").append(decisionCachePath);
         sb.append('}');
         return sb.toString();
     }
@@ -94,6 +94,16 @@ public interface ProfilerConfig {
 
     int getSamplingRate();
 
+    int getSamplingTracesPerSecond();
+
+    boolean isSamplingTailEnable();
+
+    long getSamplingTailSlowThreshold();
+
+    int getSamplingTailBufferMaxTransactions();
+
+    int getSamplingTailBufferMaxEvents();
+
     boolean isIoBufferingEnable();
 
     int getIoBufferingBufferSize();
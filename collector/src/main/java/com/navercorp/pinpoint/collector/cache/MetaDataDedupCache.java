@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.navercorp.pinpoint.thrift.dto.TApiMetaData;
+import com.navercorp.pinpoint.thrift.dto.TSqlMetaData;
+import com.navercorp.pinpoint.thrift.dto.TStringMetaData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the SQL/API/String metadata rows recently written to HBase so that the same row is not put again.
+ * <p>
+ * Entries are keyed by a 128-bit hash of every column of the row, agent id and agent start time included as they are
+ * part of the HBase row key, so a row is only skipped when the write would not change anything. This catches the
+ * metadata an agent sends again over a reconnect and the sends it retries. A restarted agent, another agent of the
+ * same application, or an agent that assigns new ids after evicting its own cache sends different rows, which are
+ * always written. Entries expire after {@code expireSeconds} so that a row lost in HBase (TTL, truncated table)
+ * gets written again eventually.
+ */
+public class MetaDataDedupCache {
+
+    private static final String METRIC_PREFIX = "metadata.dedup";
+
+    private static final byte SQL = 1;
+    private static final byte API = 2;
+    private static final byte STRING = 3;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final HashFunction hashFunction = Hashing.murmur3_128();
+
+    private boolean enable = true;
+
+    private long maxSize = 500000;
+
+    private long expireSeconds = 3600;
+
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry;
+
+    private Cache<HashCode, Boolean> cache;
+
+    private Meter sqlSaved;
+    private Meter apiSaved;
+    private Meter stringSaved;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getExpireSeconds() {
+        return expireSeconds;
+    }
+
+    public void setExpireSeconds(long expireSeconds) {
+        this.expireSeconds = expireSeconds;
+    }
+
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    public void initialize() {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (expireSeconds <= 0) {
+            throw new IllegalArgumentException("expireSeconds must be positive");
+        }
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .build();
+
+        if (metricRegistry == null) {
+            // not reported
+            this.sqlSaved = new Meter();
+            this.apiSaved = new Meter();
+            this.stringSaved = new Meter();
+        } else {
+            this.sqlSaved = metricRegistry.meter(MetricRegistry.name(METRIC_PREFIX, "sql", "saved"));
+            this.apiSaved = metricRegistry.meter(MetricRegistry.name(METRIC_PREFIX, "api", "saved"));
+            this.stringSaved = metricRegistry.meter(MetricRegistry.name(METRIC_PREFIX, "string", "saved"));
+            metricRegistry.register(MetricRegistry.name(METRIC_PREFIX, "size"), new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return cache.size();
+                }
+            });
+        }
+        logger.info("MetaDataDedupCache enable:{} maxSize:{} expireSeconds:{}", enable, maxSize, expireSeconds);
+    }
+
+    /**
+     * @return true if the same row was written recently and the write can be skipped
+     */
+    public boolean isDuplicate(TSqlMetaData sqlMetaData) {
+        return isDuplicate(sqlMetaData, sqlSaved);
+    }
+
+    public boolean isDuplicate(TApiMetaData apiMetaData) {
+        return isDuplicate(apiMetaData, apiSaved);
+    }
+
+    public boolean isDuplicate(TStringMetaData stringMetaData) {
+        return isDuplicate(stringMetaData, stringSaved);
+    }
+
+    private boolean isDuplicate(Object metaData, Meter saved) {
+        if (!enable) {
+            return false;
+        }
+        final HashCode key = hash(metaData);
+        if (cache.getIfPresent(key) == null) {
+            return false;
+        }
+        saved.mark();
+        return true;
+    }
+
+    /**
+     * Must be called only after the row has been written successfully.
+     */
+    public void markWritten(TSqlMetaData sqlMetaData) {
+        markWritten((Object) sqlMetaData);
+    }
+
+    public void markWritten(TApiMetaData apiMetaData) {
+        markWritten((Object) apiMetaData);
+    }
+
+    public void markWritten(TStringMetaData stringMetaData) {
+        markWritten((Object) stringMetaData);
+    }
+
+    private void markWritten(Object metaData) {
+        if (!enable) {
+            return;
+        }
+        cache.put(hash(metaData), Boolean.TRUE);
+    }
+
+    HashCode hash(Object metaData) {
+        final Hasher hasher = hashFunction.newHasher();
+        if (metaData instanceof TSqlMetaData) {
+            final TSqlMetaData sqlMetaData = (TSqlMetaData) metaData;
+            hasher.putByte(SQL);
+            putString(hasher, sqlMetaData.getAgentId());
+            hasher.putLong(sqlMetaData.getAgentStartTime());
+            hasher.putInt(sqlMetaData.getSqlId());
+            putString(hasher, sqlMetaData.getSql());
+        } else if (metaData instanceof TApiMetaData) {
+            final TApiMetaData apiMetaData = (TApiMetaData) metaData;
+            hasher.putByte(API);
+            putString(hasher, apiMetaData.getAgentId());
+            hasher.putLong(apiMetaData.getAgentStartTime());
+            hasher.putInt(apiMetaData.getApiId());
+            putString(hasher, apiMetaData.getApiInfo());
+            hasher.putBoolean(apiMetaData.isSetLine());
+            hasher.putInt(apiMetaData.getLine());
+            hasher.putBoolean(apiMetaData.isSetType());
+            hasher.putInt(apiMetaData.getType());
+        } else if (metaData instanceof TStringMetaData) {
+            final TStringMetaData stringMetaData = (TStringMetaData) metaData;
+            hasher.putByte(STRING);
+            putString(hasher, stringMetaData.getAgentId());
+            hasher.putLong(stringMetaData.getAgentStartTime());
+            hasher.putInt(stringMetaData.getStringId());
+            putString(hasher, stringMetaData.getStringValue());
+        } else {
+            throw new IllegalArgumentException("unsupported metaData:" + metaData);
+        }
+        return hasher.hash();
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+            return;
+        }
+        // length prefix keeps adjacent fields from running into each other
+        hasher.putInt(value.length());
+        hasher.putString(value, StandardCharsets.UTF_8);
+    }
+
+    public long size() {
+        if (cache == null) {
+            return 0;
+        }
+        return cache.size();
+    }
+}
@@ -20,7 +20,6 @@ import com.navercorp.pinpoint.collector.cluster.ClusterPointLocator;
 import com.navercorp.pinpoint.collector.cluster.PinpointServerClusterPoint;
 import com.navercorp.pinpoint.collector.cluster.TargetClusterPoint;
 import com.navercorp.pinpoint.collector.cluster.route.filter.RouteFilter;
-import com.navercorp.pinpoint.rpc.ResponseMessage;
 import com.navercorp.pinpoint.rpc.packet.stream.StreamClosePacket;
 import com.navercorp.pinpoint.rpc.packet.stream.StreamResponsePacket;
 import com.navercorp.pinpoint.rpc.server.PinpointServer;
@@ -42,7 +41,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
+ * Routes stream requests of the web to the agents.
+ * Consumers requesting the same stream (same payload) from the same agent share a single agent stream,
+ * whose data is fanned out to all of them. The agent stream is closed when its last consumer leaves.
+ *
  * @author koo.taejin
  */
 public class StreamRouteHandler extends AbstractRouteHandler<StreamEvent> {
@@ -55,6 +64,10 @@ public class StreamRouteHandler extends AbstractRouteHandler<StreamEvent> {
     private final RouteFilterChain<ResponseEvent> responseFilterChain;
     private final RouteFilterChain<StreamRouteCloseEvent> streamCloseFilterChain;
 
+    private final Object producerLock = new Object();
+    // guarded by producerLock
+    private final Map<ProducerKey, StreamRouteProducer> producerRepository = new HashMap<>();
+
     @Autowired
     @Qualifier("commandHeaderTBaseSerializerFactory")
     private SerializerFactory<HeaderTBaseSerializer> commandSerializerFactory;
@@ -115,10 +128,7 @@ public class StreamRouteHandler extends AbstractRouteHandler<StreamEvent> {
                 ServerStreamChannelContext consumerContext = event.getStreamChannelContext();
                 consumerContext.setAttributeIfAbsent(ATTACHMENT_KEY, routeManager);
 
-                ClientStreamChannelContext producerContext = createStreamChannel((PinpointServerClusterPoint) clusterPoint, event.getDeliveryCommand().getPayload(), routeManager);
-                if (producerContext.getCreateFailPacket() == null) {
-                    routeManager.setProducer(producerContext.getStreamChannel());
-                    producerContext.getStreamChannel().addStateChangeEventHandler(routeManager);
+                if (subscribe((PinpointServerClusterPoint) clusterPoint, event.getDeliveryCommand().getPayload(), routeManager)) {
                     return createResponse(TRouteResult.OK);
                 }
             } else {
@@ -133,9 +143,42 @@ public class StreamRouteHandler extends AbstractRouteHandler<StreamEvent> {
         return createResponse(TRouteResult.UNKNOWN);
     }
     
-    private ClientStreamChannelContext createStreamChannel(PinpointServerClusterPoint clusterPoint, byte[] payload, ClientStreamChannelMessageListener messageListener) {
-        PinpointServer pinpointServer = clusterPoint.getPinpointServer();
-        return pinpointServer.openStream(payload, messageListener);
+    private boolean subscribe(PinpointServerClusterPoint clusterPoint, byte[] payload, StreamRouteManager routeManager) {
+        final ProducerKey producerKey = new ProducerKey(clusterPoint.getPinpointServer(), payload);
+        while (true) {
+            StreamRouteProducer producer;
+            synchronized (producerLock) {
+                producer = producerRepository.get(producerKey);
+                if (producer == null) {
+                    producer = new StreamRouteProducer(producerKey);
+                    producerRepository.put(producerKey, producer);
+                }
+            }
+
+            final SubscribeResult result = producer.subscribe(routeManager);
+            if (result != SubscribeResult.CLOSED) {
+                return result == SubscribeResult.OK;
+            }
+            // closed while subscribing, it is already removed from the repository
+        }
+    }
+
+    private void removeProducer(StreamRouteProducer producer) {
+        synchronized (producerLock) {
+            final ProducerKey producerKey = producer.getProducerKey();
+            if (producerRepository.get(producerKey) == producer) {
+                producerRepository.remove(producerKey);
+            }
+        }
+    }
+
+    /**
+     * @return the number of agent streams currently opened through this handler
+     */
+    public int getProducerCount() {
+        synchronized (producerLock) {
+            return producerRepository.size();
+        }
     }
     
     public void close(ServerStreamChannelContext consumerContext) {
@@ -162,43 +205,137 @@ public class StreamRouteHandler extends AbstractRouteHandler<StreamEvent> {
     }
 
 
-    // fix me : StreamRouteManager will change worker thread pattern. 
-    private class StreamRouteManager implements ClientStreamChannelMessageListener, StreamChannelStateChangeEventHandler<ClientStreamChannel> {
+    private enum SubscribeResult {
+        OK,
+        FAILED,
+        CLOSED
+    }
 
-        private final StreamEvent streamEvent;
-        private final ServerStreamChannel consumer;
+    private static class ProducerKey {
 
-        private ClientStreamChannel producer;
+        private final PinpointServer pinpointServer;
+        private final byte[] payload;
 
-        public StreamRouteManager(StreamEvent streamEvent) {
-            this.streamEvent = streamEvent;
-            this.consumer = streamEvent.getStreamChannelContext().getStreamChannel();
+        private ProducerKey(PinpointServer pinpointServer, byte[] payload) {
+            if (pinpointServer == null) {
+                throw new NullPointerException("pinpointServer must not be null");
+            }
+            if (payload == null) {
+                throw new NullPointerException("payload must not be null");
+            }
+            this.pinpointServer = pinpointServer;
+            this.payload = payload;
         }
 
         @Override
-        public void handleStreamData(ClientStreamChannelContext producerContext, StreamResponsePacket packet) {
-            StreamChannelStateCode stateCode = consumer.getCurrentState();
-            if (StreamChannelStateCode.CONNECTED == stateCode) {
-                TCommandTransferResponse response = createResponse(TRouteResult.OK, packet.getPayload());
-                responseFilterChain.doEvent(new ResponseEvent(streamEvent, -1, response));
-                consumer.sendData(serialize(response));
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            ProducerKey that = (ProducerKey) o;
+
+            if (pinpointServer != that.pinpointServer) return false;
+            return Arrays.equals(payload, that.payload);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(pinpointServer);
+            result = 31 * result + Arrays.hashCode(payload);
+            return result;
+        }
+    }
+
+    // a single agent stream shared by every consumer subscribing to it
+    private class StreamRouteProducer implements ClientStreamChannelMessageListener, StreamChannelStateChangeEventHandler<ClientStreamChannel> {
+
+        private final ProducerKey producerKey;
+        private final List<StreamRouteManager> consumers = new CopyOnWriteArrayList<>();
+
+        // guarded by this
+        private ClientStreamChannel producer;
+        private boolean closed = false;
+
+        private StreamRouteProducer(ProducerKey producerKey) {
+            this.producerKey = producerKey;
+        }
+
+        private ProducerKey getProducerKey() {
+            return producerKey;
+        }
+
+        private synchronized SubscribeResult subscribe(StreamRouteManager consumer) {
+            if (closed) {
+                return SubscribeResult.CLOSED;
+            }
+
+            if (producer == null) {
+                ClientStreamChannelContext producerContext = producerKey.pinpointServer.openStream(producerKey.payload, this);
+                if (producerContext.getCreateFailPacket() != null) {
+                    close0();
+                    return SubscribeResult.FAILED;
+                }
+                this.producer = producerContext.getStreamChannel();
+                producer.addStateChangeEventHandler(this);
             } else {
-                logger.warn("Can not route stream data to consumer.(state:{})", stateCode);
-                if (StreamChannelStateCode.CONNECT_ARRIVED != stateCode) {
-                    close();
+                logger.info("Share StreamChannel. producer:{}, consumerCount:{}", producer, consumers.size() + 1);
+            }
+
+            consumer.setProducer(this);
+            consumers.add(consumer);
+            return SubscribeResult.OK;
+        }
+
+        private void unsubscribe(StreamRouteManager consumer) {
+            final ClientStreamChannel producerToClose;
+            synchronized (this) {
+                if (!consumers.remove(consumer) || !consumers.isEmpty() || closed) {
+                    return;
                 }
+                producerToClose = close0();
             }
+            if (producerToClose != null) {
+                producerToClose.close();
+            }
+        }
+
+        // must be called while holding the lock of this
+        private ClientStreamChannel close0() {
+            this.closed = true;
+            removeProducer(this);
+            return producer;
+        }
+
+        private List<StreamRouteManager> closeAll() {
+            synchronized (this) {
+                if (!closed) {
+                    close0();
+                }
+            }
+            final List<StreamRouteManager> snapshot = Arrays.asList(consumers.toArray(new StreamRouteManager[0]));
+            consumers.clear();
+            return snapshot;
         }
 
         @Override
-        public void handleStreamClose(ClientStreamChannelContext producerContext, StreamClosePacket packet) {
-            ResponseMessage responseMessage = new ResponseMessage();
-            responseMessage.setMessage(packet.getPayload());
+        public void handleStreamData(ClientStreamChannelContext producerContext, StreamResponsePacket packet) {
+            if (consumers.isEmpty()) {
+                return;
+            }
 
-            StreamRouteCloseEvent event = new StreamRouteCloseEvent(streamEvent.getDeliveryCommand(), producerContext, streamEvent.getStreamChannelContext());
-            streamCloseFilterChain.doEvent(event);
+            // serialized once, whatever the number of consumers
+            TCommandTransferResponse response = createResponse(TRouteResult.OK, packet.getPayload());
+            byte[] data = serialize(response);
+            for (StreamRouteManager consumer : consumers) {
+                consumer.route(response, data);
+            }
+        }
 
-            consumer.close();
+        @Override
+        public void handleStreamClose(ClientStreamChannelContext producerContext, StreamClosePacket packet) {
+            for (StreamRouteManager consumer : closeAll()) {
+                consumer.handleProducerClose(producerContext);
+            }
         }
 
         @Override
@@ -208,8 +345,8 @@ public class StreamRouteHandler extends AbstractRouteHandler<StreamEvent> {
             switch (updatedStateCode) {
                 case CLOSED:
                 case ILLEGAL_STATE:
-                    if (consumer != null) {
-                        consumer.close();
+                    for (StreamRouteManager consumer : closeAll()) {
+                        consumer.closeConsumer();
                     }
                     break;
                 default:
@@ -222,22 +359,58 @@ public class StreamRouteHandler extends AbstractRouteHandler<StreamEvent> {
             logger.warn("exceptionCaught message:{}, streamChannel:{}, stateCode:{}", e.getMessage(), streamChannel, updatedStateCode, e);
         }
 
-        public void close() {
+    }
+
+    // fix me : StreamRouteManager will change worker thread pattern.
+    private class StreamRouteManager {
+
+        private final StreamEvent streamEvent;
+        private final ServerStreamChannel consumer;
+
+        private volatile StreamRouteProducer producer;
+
+        public StreamRouteManager(StreamEvent streamEvent) {
+            this.streamEvent = streamEvent;
+            this.consumer = streamEvent.getStreamChannelContext().getStreamChannel();
+        }
+
+        private void route(TCommandTransferResponse response, byte[] data) {
+            StreamChannelStateCode stateCode = consumer.getCurrentState();
+            if (StreamChannelStateCode.CONNECTED == stateCode) {
+                responseFilterChain.doEvent(new ResponseEvent(streamEvent, -1, response));
+                consumer.sendData(data);
+            } else {
+                logger.warn("Can not route stream data to consumer.(state:{})", stateCode);
+                if (StreamChannelStateCode.CONNECT_ARRIVED != stateCode) {
+                    close();
+                }
+            }
+        }
+
+        private void handleProducerClose(ClientStreamChannelContext producerContext) {
+            StreamRouteCloseEvent event = new StreamRouteCloseEvent(streamEvent.getDeliveryCommand(), producerContext, streamEvent.getStreamChannelContext());
+            streamCloseFilterChain.doEvent(event);
+
+            closeConsumer();
+        }
+
+        private void closeConsumer() {
             if (consumer != null) {
                 consumer.close();
             }
+        }
+
+        public void close() {
+            closeConsumer();
 
+            final StreamRouteProducer producer = this.producer;
             if (producer != null) {
-                producer.close();
+                producer.unsubscribe(this);
             }
         }
 
-        public ClientStreamChannel getProducer() {
-            return producer;
-        }
-
-        public void setProducer(ClientStreamChannel sourceStreamChannel) {
-            this.producer = sourceStreamChannel;
+        public void setProducer(StreamRouteProducer producer) {
+            this.producer = producer;
         }
 
     }
@@ -16,6 +16,8 @@
 
 package com.navercorp.pinpoint.collector.dao;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
@@ -37,13 +39,24 @@ public class AutoFlusher {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private static final int CHECK_PER_FLUSH_PERIOD = 10;
+
     private ScheduledExecutorService executor;
 
     private long flushPeriod = 1000;
 
+    private long maxFlushPeriod = 8000;
+
+    private int flushThreshold = 100000;
+
+    private long slowFlushLatency = 500;
+
     @Autowired
     private List<CachedStatisticsDao> cachedStatisticsDaoList;
 
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry;
+
     public long getFlushPeriod() {
         return flushPeriod;
     }
@@ -52,21 +65,102 @@ public class AutoFlusher {
         this.flushPeriod = flushPeriod;
     }
 
-    private static final class Worker implements Runnable {
+    public long getMaxFlushPeriod() {
+        return maxFlushPeriod;
+    }
+
+    public void setMaxFlushPeriod(long maxFlushPeriod) {
+        this.maxFlushPeriod = maxFlushPeriod;
+    }
+
+    public int getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    public void setFlushThreshold(int flushThreshold) {
+        this.flushThreshold = flushThreshold;
+    }
+
+    public long getSlowFlushLatency() {
+        return slowFlushLatency;
+    }
+
+    public void setSlowFlushLatency(long slowFlushLatency) {
+        this.slowFlushLatency = slowFlushLatency;
+    }
+
+    /**
+     * Flushes when the current flush period has elapsed, or early when too many entries are pending.
+     * While HBase is slow the period backs off (up to maxFlushPeriod) so that increments coalesce into
+     * fewer, larger cells instead of piling up more requests on a struggling cluster.
+     */
+    static final class Worker implements Runnable {
         private final Logger logger = LoggerFactory.getLogger(this.getClass());
         private final CachedStatisticsDao dao;
+        private final long flushPeriod;
+        private final long maxFlushPeriod;
+        private final int flushThreshold;
+        private final long slowFlushLatency;
+
+        private volatile long currentFlushPeriod;
+        private long lastFlushTime;
 
-        public Worker(CachedStatisticsDao dao) {
+        Worker(CachedStatisticsDao dao, long flushPeriod, long maxFlushPeriod, int flushThreshold, long slowFlushLatency) {
             this.dao = dao;
+            this.flushPeriod = flushPeriod;
+            this.maxFlushPeriod = Math.max(flushPeriod, maxFlushPeriod);
+            this.flushThreshold = flushThreshold;
+            this.slowFlushLatency = slowFlushLatency;
+            this.currentFlushPeriod = flushPeriod;
+            this.lastFlushTime = System.currentTimeMillis();
         }
 
         @Override
         public void run() {
+            final long startTime = System.currentTimeMillis();
+            if (!isFlushRequired(startTime)) {
+                return;
+            }
             try {
                 dao.flushAll();
             } catch (Throwable th) {
                 logger.error("AutoFlusherWorker failed. Caused:{}", th.getMessage(), th);
             }
+            final long endTime = System.currentTimeMillis();
+            this.lastFlushTime = startTime;
+            adjustFlushPeriod(endTime - startTime);
+        }
+
+        boolean isFlushRequired(long currentTime) {
+            if (currentTime - lastFlushTime >= currentFlushPeriod) {
+                return true;
+            }
+            // no early flush under back-pressure
+            if (isBackPressure()) {
+                return false;
+            }
+            return dao.getPendingSize() >= flushThreshold;
+        }
+
+        void adjustFlushPeriod(long flushLatency) {
+            final long currentFlushPeriod = this.currentFlushPeriod;
+            if (flushLatency >= slowFlushLatency) {
+                final long newFlushPeriod = Math.min(currentFlushPeriod * 2, maxFlushPeriod);
+                if (newFlushPeriod != currentFlushPeriod) {
+                    logger.info("slow flush detected. latency:{}ms, flushPeriod:{}ms -> {}ms", flushLatency, currentFlushPeriod, newFlushPeriod);
+                }
+                this.currentFlushPeriod = newFlushPeriod;
+            } else {
+                this.currentFlushPeriod = Math.max(currentFlushPeriod / 2, flushPeriod);
+            }
+        }
+
+        boolean isBackPressure() {
+            return currentFlushPeriod > flushPeriod;
+        }
+
+        long getCurrentFlushPeriod() {
+            return currentFlushPeriod;
         }
     }
 
@@ -77,12 +171,29 @@ public class AutoFlusher {
 
         ThreadFactory threadFactory = PinpointThreadFactory.createThreadFactory(this.getClass().getSimpleName(), true);
         executor = Executors.newScheduledThreadPool(cachedStatisticsDaoList.size(), threadFactory);
+        // check several times per period for early flush. fixed delay, so a slow flush never queues up another one
+        final long checkPeriod = Math.max(flushPeriod / CHECK_PER_FLUSH_PERIOD, 1);
         for (CachedStatisticsDao dao : cachedStatisticsDaoList) {
-            executor.scheduleAtFixedRate(new Worker(dao), 0L, flushPeriod, TimeUnit.MILLISECONDS);
+            final Worker worker = new Worker(dao, flushPeriod, maxFlushPeriod, flushThreshold, slowFlushLatency);
+            registerMetrics(dao, worker);
+            executor.scheduleWithFixedDelay(worker, 0L, checkPeriod, TimeUnit.MILLISECONDS);
         }
         logger.info("Auto flusher initialized.");
     }
 
+    private void registerMetrics(CachedStatisticsDao dao, final Worker worker) {
+        if (metricRegistry == null) {
+            return;
+        }
+        final String name = MetricRegistry.name("bulk.increment", dao.getClass().getSimpleName(), "flush.period");
+        metricRegistry.register(name, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return worker.getCurrentFlushPeriod();
+            }
+        });
+    }
+
     public void shutdown() {
         logger.info("Shutdown auto flusher.");
         shutdownExecutor();
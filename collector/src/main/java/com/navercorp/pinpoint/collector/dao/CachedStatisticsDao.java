@@ -23,4 +23,9 @@ package com.navercorp.pinpoint.collector.dao;
  */
 public interface CachedStatisticsDao {
     void flushAll();
+
+    /**
+     * @return number of cached entries waiting for the next flush
+     */
+    int getPendingSize();
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.IncrementBatchSplitter;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.RowInfo;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.RowKeyMerge;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.StripedRowInfoCounter;
+import com.navercorp.pinpoint.collector.monitor.BulkIncrementMetrics;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counter, batched flush and metrics shared by the DAOs that accumulate increments in memory
+ * and flush them to HBase periodically.
+ */
+public abstract class AbstractHbaseBulkIncrementDao {
+
+    protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry;
+
+    @Value("#{pinpoint_collector_properties['statistics.flush.batchSize'] ?: 1000}")
+    private int flushBatchSize = IncrementBatchSplitter.DEFAULT_BATCH_SIZE;
+
+    private final StripedRowInfoCounter counter = new StripedRowInfoCounter();
+
+    private IncrementBatchSplitter incrementBatchSplitter;
+
+    private BulkIncrementMetrics bulkIncrementMetrics;
+
+    @PostConstruct
+    public void init() {
+        this.incrementBatchSplitter = new IncrementBatchSplitter(flushBatchSize);
+        this.bulkIncrementMetrics = new BulkIncrementMetrics(metricRegistry, this.getClass().getSimpleName());
+        this.bulkIncrementMetrics.registerGauge("pending", new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return getPendingSize();
+            }
+        });
+    }
+
+    protected void bulkIncrement(byte[] rowKey, byte[] columnName) {
+        this.counter.increment(rowKey, columnName, 1L);
+    }
+
+    protected void flush(HbaseOperations2 hbaseTemplate, TableName tableName, RowKeyMerge rowKeyMerge, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        final Timer.Context flushTime = bulkIncrementMetrics.startFlush();
+        try {
+            final Map<RowInfo, Long> remove = this.counter.remove();
+            bulkIncrementMetrics.updateFlushSize(remove.size());
+
+            final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
+            if (merge.isEmpty()) {
+                return;
+            }
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+            }
+            incrementBatchSplitter.incrementAll(hbaseTemplate, tableName, merge);
+        } finally {
+            flushTime.stop();
+        }
+    }
+
+    public int getPendingSize() {
+        return counter.size();
+    }
+}
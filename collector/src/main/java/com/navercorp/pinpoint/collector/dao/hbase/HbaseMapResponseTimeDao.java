@@ -16,10 +16,8 @@
 
 package com.navercorp.pinpoint.collector.dao.hbase;
 
-import com.google.common.util.concurrent.AtomicLongMap;
 import com.navercorp.pinpoint.collector.dao.MapResponseTimeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
@@ -27,16 +25,10 @@ import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.common.util.TimeSlot;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
-import org.apache.hadoop.hbase.client.Increment;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-import java.util.Map;
-
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
 /**
@@ -47,9 +39,7 @@ import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
  * @author jaehong.kim
  */
 @Repository
-public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
-
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+public class HbaseMapResponseTimeDao extends AbstractHbaseBulkIncrementDao implements MapResponseTimeDao {
 
     @Autowired
     private HbaseOperations2 hbaseTemplate;
@@ -70,8 +60,6 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
 
     private final boolean useBulk;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
-
     public HbaseMapResponseTimeDao() {
         this(true);
     }
@@ -96,18 +84,15 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         // make row key. rowkey is me
         final long acceptedTime = acceptedTimeService.getAcceptedTime();
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
-        final RowKey selfRowKey = new CallRowKey(applicationName, applicationServiceType.getCode(), rowTimeSlot);
+        // encoded directly, no CallRowKey/ResponseColumnName is built per span
+        final byte[] rowKey = ApplicationMapStatisticsUtils.makeRowKey(applicationName, applicationServiceType.getCode(), rowTimeSlot);
 
         final short slotNumber = ApplicationMapStatisticsUtils.getSlotNumber(applicationServiceType, elapsed, isError);
-        final ColumnName selfColumnName = new ResponseColumnName(agentId, slotNumber);
+        final byte[] columnName = ApplicationMapStatisticsUtils.makeColumnName(agentId, slotNumber);
         if (useBulk) {
-            RowInfo rowInfo = new DefaultRowInfo(selfRowKey, selfColumnName);
-            this.counter.incrementAndGet(rowInfo);
+            bulkIncrement(rowKey, columnName);
         } else {
-            final byte[] rowKey = getDistributedKey(selfRowKey.getRowKey());
-            // column name is the name of caller app.
-            byte[] columnName = selfColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(getDistributedKey(rowKey), columnName, 1L);
         }
     }
 
@@ -129,17 +114,7 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         }
 
         // update statistics by rowkey and column for now. need to update it by rowkey later.
-        final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(this.counter);
-
-        final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
-        if (merge.isEmpty()) {
-            return;
-        }
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
-        }
-        hbaseTemplate.increment(MAP_STATISTICS_SELF_VER2, merge);
+        flush(hbaseTemplate, MAP_STATISTICS_SELF_VER2, rowKeyMerge, rowKeyDistributorByHashPrefix);
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
@@ -18,10 +18,8 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
-import com.google.common.util.concurrent.AtomicLongMap;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
@@ -30,16 +28,10 @@ import com.navercorp.pinpoint.common.util.TimeSlot;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.hadoop.hbase.client.Increment;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * Update statistics of callee node
  * 
@@ -47,9 +39,7 @@ import java.util.Map;
  * @author emeroad
  */
 @Repository
-public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
-
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+public class HbaseMapStatisticsCalleeDao extends AbstractHbaseBulkIncrementDao implements MapStatisticsCalleeDao {
 
     @Autowired
     private HbaseOperations2 hbaseTemplate;
@@ -70,8 +60,6 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
     private final boolean useBulk;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
-
     public HbaseMapStatisticsCalleeDao() {
         this(true);
     }
@@ -101,20 +89,17 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         // make row key. rowkey is me
         final long acceptedTime = acceptedTimeService.getAcceptedTime();
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
-        final RowKey calleeRowKey = new CallRowKey(calleeApplicationName, calleeServiceType.getCode(), rowTimeSlot);
+        // encoded directly, no CallRowKey/CallerColumnName is built per span event
+        final byte[] rowKey = ApplicationMapStatisticsUtils.makeRowKey(calleeApplicationName, calleeServiceType.getCode(), rowTimeSlot);
 
         final short callerSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
-        final ColumnName callerColumnName = new CallerColumnName(callerServiceType.getCode(), callerApplicationName, callerHost, callerSlotNumber);
+        // column name is the name of caller app.
+        final byte[] columnName = ApplicationMapStatisticsUtils.makeColumnName(callerServiceType.getCode(), callerApplicationName, callerHost, callerSlotNumber);
 
         if (useBulk) {
-            RowInfo rowInfo = new DefaultRowInfo(calleeRowKey, callerColumnName);
-            counter.incrementAndGet(rowInfo);
+            bulkIncrement(rowKey, columnName);
         } else {
-            final byte[] rowKey = getDistributedKey(calleeRowKey.getRowKey());
-
-            // column name is the name of caller app.
-            byte[] columnName = callerColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(getDistributedKey(rowKey), columnName, 1L);
         }
     }
 
@@ -134,18 +119,7 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
             throw new IllegalStateException();
         }
 
-        final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(this.counter);
-
-        final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
-        if (merge.isEmpty()) {
-            return;
-        }
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
-        }
-        hbaseTemplate.increment(MAP_STATISTICS_CALLER_VER2, merge);
-
+        flush(hbaseTemplate, MAP_STATISTICS_CALLER_VER2, rowKeyMerge, rowKeyDistributorByHashPrefix);
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
@@ -18,10 +18,8 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
-import com.google.common.util.concurrent.AtomicLongMap;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
-import com.navercorp.pinpoint.collector.util.AtomicLongMapUtils;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
@@ -30,16 +28,10 @@ import com.navercorp.pinpoint.common.util.TimeSlot;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.hadoop.hbase.client.Increment;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * Update statistics of caller node
  * 
@@ -47,9 +39,7 @@ import java.util.Map;
  * @author emeroad
  */
 @Repository
-public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
-
-    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+public class HbaseMapStatisticsCallerDao extends AbstractHbaseBulkIncrementDao implements MapStatisticsCallerDao {
 
     @Autowired
     private HbaseOperations2 hbaseTemplate;
@@ -70,8 +60,6 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
 
     private final boolean useBulk;
 
-    private final AtomicLongMap<RowInfo> counter = AtomicLongMap.create();
-
     public HbaseMapStatisticsCallerDao() {
         this(true);
     }
@@ -100,18 +88,16 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         // make row key. rowkey is me
         final long acceptedTime = acceptedTimeService.getAcceptedTime();
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
-        final RowKey callerRowKey = new CallRowKey(callerApplicationName, callerServiceType.getCode(), rowTimeSlot);
+        // encoded directly, no CallRowKey/CalleeColumnName is built per span event
+        final byte[] rowKey = ApplicationMapStatisticsUtils.makeRowKey(callerApplicationName, callerServiceType.getCode(), rowTimeSlot);
 
         final short calleeSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
-        final ColumnName calleeColumnName = new CalleeColumnName(callerAgentid, calleeServiceType.getCode(), calleeApplicationName, calleeHost, calleeSlotNumber);
+        // column name is the name of callee app.
+        final byte[] columnName = CalleeColumnName.makeColumnName(callerAgentid, calleeServiceType.getCode(), calleeApplicationName, calleeHost, calleeSlotNumber);
         if (useBulk) {
-            RowInfo rowInfo = new DefaultRowInfo(callerRowKey, calleeColumnName);
-            this.counter.incrementAndGet(rowInfo);
+            bulkIncrement(rowKey, columnName);
         } else {
-            final byte[] rowKey = getDistributedKey(callerRowKey.getRowKey());
-            // column name is the name of caller app.
-            byte[] columnName = calleeColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(getDistributedKey(rowKey), columnName, 1L);
         }
     }
 
@@ -131,17 +117,7 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
             throw new IllegalStateException();
         }
         // update statistics by rowkey and column for now. need to update it by rowkey later.
-        final Map<RowInfo, Long> remove = AtomicLongMapUtils.remove(this.counter);
-
-        final List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
-        if (merge.isEmpty()) {
-            return;
-        }
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
-        }
-        hbaseTemplate.increment(MAP_STATISTICS_CALLEE_VER2, merge);
+        flush(hbaseTemplate, MAP_STATISTICS_CALLEE_VER2, rowKeyMerge, rowKeyDistributorByHashPrefix);
     }
 
     private byte[] getDistributedKey(byte[] rowKey) {
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.collector.dao.ScatterTileDao;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.RowKeyMerge;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
+import com.navercorp.pinpoint.common.server.util.ScatterTileUtils;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+
+import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
+
+/**
+ * Rolls spans up into scatter chart tiles as they arrive, so that zoomed-out scatter charts can be drawn
+ * without scanning every ApplicationTraceIndex cell.
+ * Disabled unless collector.scatter.tile.enable is set, as the ApplicationScatterTile table has to be created first.
+ */
+@Repository
+public class HbaseScatterTileDao extends AbstractHbaseBulkIncrementDao implements ScatterTileDao {
+
+    @Autowired
+    private HbaseOperations2 hbaseTemplate;
+
+    @Autowired
+    private AcceptedTimeService acceptedTimeService;
+
+    @Autowired
+    @Qualifier("scatterTileMerge")
+    private RowKeyMerge rowKeyMerge;
+
+    @Autowired
+    @Qualifier("scatterTileRowKeyDistributor")
+    private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
+
+    @Value("#{pinpoint_collector_properties['collector.scatter.tile.enable'] ?: false}")
+    private boolean enable = false;
+
+    @PostConstruct
+    @Override
+    public void init() {
+        super.init();
+        logger.info("scatter tile enable:{}", enable);
+    }
+
+    @Override
+    public void insert(TSpan span) {
+        if (span == null) {
+            throw new NullPointerException("span must not be null");
+        }
+        if (!enable) {
+            return;
+        }
+
+        final long acceptedTime = acceptedTimeService.getAcceptedTime();
+        final byte[] rowKey = ScatterTileUtils.makeRowKey(span.getApplicationName(), ScatterTileUtils.getRowTimeSlot(acceptedTime));
+        final byte[] columnName = ScatterTileUtils.makeColumnName(acceptedTime, span.getElapsed(), span.getErr() != 0, span.getAgentId());
+        bulkIncrement(rowKey, columnName);
+    }
+
+    @Override
+    public void flushAll() {
+        if (!enable) {
+            return;
+        }
+        flush(hbaseTemplate, APPLICATION_SCATTER_TILE, rowKeyMerge, rowKeyDistributorByHashPrefix);
+    }
+}
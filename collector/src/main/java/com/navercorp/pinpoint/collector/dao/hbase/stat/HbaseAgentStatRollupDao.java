@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.stat;
+
+import com.navercorp.pinpoint.collector.dao.AgentStatRollupDao;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatRollupHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollups;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps merging the rollups of an open bucket in memory, so that an agent gets a single cell per bucket
+ * instead of one per batch. Changed buckets are rewritten whole on every flush, a bucket is dropped from memory
+ * {@link #CLOSE_DELAY_MILLIS} after its end.
+ * <p>
+ * A bucket still gets more than one cell when its agent moves to another collector or the collector restarts
+ * in the middle of it, or when a batch arrives out of order. The web merges the cells of a bucket when reading.
+ */
+@Repository
+public class HbaseAgentStatRollupDao implements AgentStatRollupDao {
+
+    // agent stat batches are sent every 30 seconds by default
+    static final long CLOSE_DELAY_MILLIS = 2 * 60 * 1000L;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private HbaseOperations2 hbaseTemplate;
+
+    @Autowired
+    private AgentStatRollupHbaseOperationFactory agentStatRollupHbaseOperationFactory;
+
+    private final Object lock = new Object();
+
+    private final Map<BucketKey, AgentStatRollupBo> openRollups = new HashMap<>();
+
+    private final Set<BucketKey> changedBuckets = new LinkedHashSet<>();
+
+    private final List<AgentStatRollupBo> unmergedRollups = new ArrayList<>();
+
+    @Override
+    public void insert(List<AgentStatRollupBo> agentStatRollupBos) {
+        if (CollectionUtils.isEmpty(agentStatRollupBos)) {
+            return;
+        }
+        synchronized (lock) {
+            for (AgentStatRollupBo rollupBo : agentStatRollupBos) {
+                final BucketKey bucketKey = new BucketKey(rollupBo);
+                final AgentStatRollupBo openRollup = openRollups.get(bucketKey);
+                if (openRollup == null) {
+                    openRollups.put(bucketKey, rollupBo);
+                    changedBuckets.add(bucketKey);
+                } else if (AgentStatRollups.merge(openRollup, rollupBo)) {
+                    changedBuckets.add(bucketKey);
+                } else if (rollupBo.getLastTimestamp() < openRollup.getFirstTimestamp()) {
+                    // received out of order, written as a cell of its own
+                    unmergedRollups.add(rollupBo);
+                } else {
+                    logger.debug("duplicated rollup dropped. {}", rollupBo);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flushAll() {
+        final long currentTime = System.currentTimeMillis();
+        final List<Put> rollupPuts;
+        synchronized (lock) {
+            final List<AgentStatRollupBo> rollupBos = new ArrayList<>(unmergedRollups);
+            unmergedRollups.clear();
+            for (BucketKey bucketKey : changedBuckets) {
+                rollupBos.add(openRollups.get(bucketKey));
+            }
+            changedBuckets.clear();
+            // encoded under the lock as later batches keep merging into the open rollups
+            rollupPuts = this.agentStatRollupHbaseOperationFactory.createPuts(rollupBos);
+            removeClosedRollups(currentTime);
+        }
+        if (!rollupPuts.isEmpty()) {
+            List<Put> rejectedPuts = this.hbaseTemplate.asyncPut(HBaseTables.AGENT_STAT_ROLLUP, rollupPuts);
+            if (CollectionUtils.isNotEmpty(rejectedPuts)) {
+                this.hbaseTemplate.put(HBaseTables.AGENT_STAT_ROLLUP, rejectedPuts);
+            }
+        }
+    }
+
+    private void removeClosedRollups(long currentTime) {
+        final Iterator<AgentStatRollupBo> iterator = openRollups.values().iterator();
+        while (iterator.hasNext()) {
+            final AgentStatRollupBo rollupBo = iterator.next();
+            final long bucketEndTime = rollupBo.getTimestamp() + rollupBo.getResolution().getIntervalMs();
+            if (currentTime >= bucketEndTime + CLOSE_DELAY_MILLIS) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public int getPendingSize() {
+        synchronized (lock) {
+            return changedBuckets.size() + unmergedRollups.size();
+        }
+    }
+
+    private static final class BucketKey {
+        private final String agentId;
+        private final AgentStatType agentStatType;
+        private final AgentStatRollupResolution resolution;
+        private final long timestamp;
+        private final long startTimestamp;
+        private final int subTypeCode;
+
+        private BucketKey(AgentStatRollupBo rollupBo) {
+            this.agentId = rollupBo.getAgentId();
+            this.agentStatType = rollupBo.getAgentStatType();
+            this.resolution = rollupBo.getResolution();
+            this.timestamp = rollupBo.getTimestamp();
+            this.startTimestamp = rollupBo.getStartTimestamp();
+            this.subTypeCode = rollupBo.getSubTypeCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            BucketKey that = (BucketKey) o;
+
+            if (timestamp != that.timestamp) return false;
+            if (startTimestamp != that.startTimestamp) return false;
+            if (subTypeCode != that.subTypeCode) return false;
+            if (agentId != null ? !agentId.equals(that.agentId) : that.agentId != null) return false;
+            if (agentStatType != that.agentStatType) return false;
+            return resolution == that.resolution;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = agentId != null ? agentId.hashCode() : 0;
+            result = 31 * result + (agentStatType != null ? agentStatType.hashCode() : 0);
+            result = 31 * result + (resolution != null ? resolution.hashCode() : 0);
+            result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+            result = 31 * result + (int) (startTimestamp ^ (startTimestamp >>> 32));
+            result = 31 * result + subTypeCode;
+            return result;
+        }
+    }
+}
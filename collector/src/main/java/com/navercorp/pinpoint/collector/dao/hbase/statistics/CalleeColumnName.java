@@ -61,6 +61,10 @@ public class CalleeColumnName implements ColumnName {
     }
 
     public byte[] getColumnName() {
+        return makeColumnName(callerAgentId, calleeServiceType, calleeApplicationName, callHost, columnSlotNumber);
+    }
+
+    public static byte[] makeColumnName(String callerAgentId, short calleeServiceType, String calleeApplicationName, String callHost, short columnSlotNumber) {
         final Buffer buffer = new AutomaticBuffer(64);
         buffer.putShort(calleeServiceType);
         buffer.putPrefixedString(calleeApplicationName);
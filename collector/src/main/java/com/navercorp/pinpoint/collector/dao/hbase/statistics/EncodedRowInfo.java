@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import java.util.Arrays;
+
+/**
+ * RowInfo keyed by the already encoded row key and column name bytes.
+ * equals/hashCode only look at the bytes, so instances built from different threads collapse into a single counter.
+ */
+public class EncodedRowInfo implements RowInfo {
+
+    private final byte[] rowKey;
+    private final byte[] columnName;
+    private final int hash;
+
+    // created on first use and kept, RowKeyMerge asks for them again for every entry of a flush
+    private EncodedRowKey row;
+    private EncodedColumnName column;
+
+    public EncodedRowInfo(byte[] rowKey, byte[] columnName) {
+        if (rowKey == null) {
+            throw new NullPointerException("rowKey must not be null");
+        }
+        if (columnName == null) {
+            throw new NullPointerException("columnName must not be null");
+        }
+        this.rowKey = rowKey;
+        this.columnName = columnName;
+        this.hash = 31 * Arrays.hashCode(rowKey) + Arrays.hashCode(columnName);
+    }
+
+    @Override
+    public RowKey getRowKey() {
+        if (row == null) {
+            row = new EncodedRowKey(rowKey);
+        }
+        return row;
+    }
+
+    @Override
+    public ColumnName getColumnName() {
+        // RowKeyMerge writes callCount to the returned instance and keeps it, so it must be the same instance
+        if (column == null) {
+            column = new EncodedColumnName(columnName);
+        }
+        return column;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        EncodedRowInfo that = (EncodedRowInfo) o;
+
+        if (hash != that.hash) return false;
+        if (!Arrays.equals(rowKey, that.rowKey)) return false;
+        return Arrays.equals(columnName, that.columnName);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static class EncodedRowKey implements RowKey {
+        private final byte[] rowKey;
+        private final int hash;
+
+        private EncodedRowKey(byte[] rowKey) {
+            this.rowKey = rowKey;
+            this.hash = Arrays.hashCode(rowKey);
+        }
+
+        @Override
+        public byte[] getRowKey() {
+            return rowKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            EncodedRowKey that = (EncodedRowKey) o;
+            return Arrays.equals(rowKey, that.rowKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "EncodedRowKey{" + Arrays.toString(rowKey) + '}';
+        }
+    }
+
+    private static class EncodedColumnName implements ColumnName {
+        private final byte[] columnName;
+        private long callCount;
+
+        private EncodedColumnName(byte[] columnName) {
+            this.columnName = columnName;
+        }
+
+        @Override
+        public byte[] getColumnName() {
+            return columnName;
+        }
+
+        @Override
+        public long getCallCount() {
+            return callCount;
+        }
+
+        @Override
+        public void setCallCount(long callCount) {
+            this.callCount = callCount;
+        }
+
+        @Override
+        public String toString() {
+            return "EncodedColumnName{" + Arrays.toString(columnName) + ", callCount=" + callCount + '}';
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EncodedRowInfo{" +
+                "rowKey=" + Arrays.toString(rowKey) +
+                ", columnName=" + Arrays.toString(columnName) +
+                '}';
+    }
+}
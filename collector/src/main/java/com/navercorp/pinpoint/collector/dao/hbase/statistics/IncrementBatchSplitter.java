@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits the merged increments of a flush into bounded batches.
+ * Statistics row keys are salted with a one byte prefix by RowKeyDistributorByHashPrefix(RangeOneByteSimpleHash),
+ * and tables are pre-split on that prefix, so grouping by the first byte keeps each batch on a single region
+ * (and therefore a single region server) while one slow region no longer holds back the whole flush.
+ */
+public class IncrementBatchSplitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementBatchSplitter.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final int PREFIX_BUCKET_SIZE = 256;
+
+    private final int batchSize;
+
+    public IncrementBatchSplitter() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public IncrementBatchSplitter(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public List<List<Increment>> split(List<Increment> incrementList) {
+        if (incrementList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (incrementList.size() <= batchSize) {
+            // hot path. small flushes go out in one batch as before
+            return Collections.singletonList(incrementList);
+        }
+
+        @SuppressWarnings("unchecked")
+        final List<Increment>[] buckets = new List[PREFIX_BUCKET_SIZE];
+        for (Increment increment : incrementList) {
+            final int prefix = getPrefix(increment.getRow());
+            List<Increment> bucket = buckets[prefix];
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                buckets[prefix] = bucket;
+            }
+            bucket.add(increment);
+        }
+
+        final List<List<Increment>> batchList = new ArrayList<>();
+        for (List<Increment> bucket : buckets) {
+            if (bucket == null) {
+                continue;
+            }
+            for (int from = 0; from < bucket.size(); from += batchSize) {
+                final int to = Math.min(from + batchSize, bucket.size());
+                batchList.add(bucket.subList(from, to));
+            }
+        }
+        return batchList;
+    }
+
+    /**
+     * Sends the increments batch by batch. A failed batch does not stop the remaining batches, every failure is
+     * logged and the first one is thrown at the end with the later ones suppressed.
+     */
+    public void incrementAll(HbaseOperations2 hbaseTemplate, TableName tableName, List<Increment> incrementList) {
+        if (hbaseTemplate == null) {
+            throw new NullPointerException("hbaseTemplate must not be null");
+        }
+        if (tableName == null) {
+            throw new NullPointerException("tableName must not be null");
+        }
+        RuntimeException exception = null;
+        for (List<Increment> batch : split(incrementList)) {
+            try {
+                hbaseTemplate.increment(tableName, batch);
+            } catch (RuntimeException e) {
+                logger.warn("{} increment failed, dropped {} increments. Caused:{}", tableName, batch.size(), e.getMessage(), e);
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private int getPrefix(byte[] row) {
+        if (row.length == 0) {
+            return 0;
+        }
+        return row[0] & 0xFF;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
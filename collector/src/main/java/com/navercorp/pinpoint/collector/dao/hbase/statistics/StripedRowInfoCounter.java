@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk increment counter for the statistics DAOs.
+ * Each dispatch thread is mapped to one stripe by its thread id, so concurrent updates rarely touch the same lock,
+ * and counts are kept in plain long fields instead of an AtomicLong per entry.
+ * Stripes are swapped out and merged only when {@link #remove()} is called from flushAll().
+ */
+public class StripedRowInfoCounter {
+
+    private static final int DEFAULT_STRIPE_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    // number of distinct row+column entries waiting for the next flush
+    private final AtomicInteger size = new AtomicInteger();
+
+    public StripedRowInfoCounter() {
+        this(DEFAULT_STRIPE_SIZE);
+    }
+
+    public StripedRowInfoCounter(int stripeSize) {
+        if (stripeSize <= 0) {
+            throw new IllegalArgumentException("stripeSize must be greater than 0");
+        }
+        final int length = nextPowerOfTwo(stripeSize);
+        this.stripes = new Stripe[length];
+        for (int i = 0; i < length; i++) {
+            this.stripes[i] = new Stripe(size);
+        }
+        this.mask = length - 1;
+    }
+
+    static int nextPowerOfTwo(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+
+    public void increment(RowKey rowKey, ColumnName columnName) {
+        increment(rowKey.getRowKey(), columnName.getColumnName(), 1L);
+    }
+
+    public void increment(byte[] rowKey, byte[] columnName, long delta) {
+        final RowInfo rowInfo = new EncodedRowInfo(rowKey, columnName);
+        final Stripe stripe = stripes[(int) Thread.currentThread().getId() & mask];
+        stripe.add(rowInfo, delta);
+    }
+
+    /**
+     * Atomically takes the counters of every stripe and returns them merged.
+     */
+    public Map<RowInfo, Long> remove() {
+        final Map<RowInfo, Long> merge = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            final Map<RowInfo, Count> snapshot = stripe.swap();
+            size.addAndGet(-snapshot.size());
+            for (Map.Entry<RowInfo, Count> entry : snapshot.entrySet()) {
+                final long value = entry.getValue().value;
+                final Long old = merge.put(entry.getKey(), value);
+                if (old != null) {
+                    merge.put(entry.getKey(), old + value);
+                }
+            }
+        }
+        return merge;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    int getStripeSize() {
+        return stripes.length;
+    }
+
+    private static final class Count {
+        private long value;
+    }
+
+    private static final class Stripe {
+        private final AtomicInteger size;
+        private Map<RowInfo, Count> counter = new HashMap<>();
+
+        private Stripe(AtomicInteger size) {
+            this.size = size;
+        }
+
+        private synchronized void add(RowInfo rowInfo, long delta) {
+            Count count = counter.get(rowInfo);
+            if (count == null) {
+                count = new Count();
+                counter.put(rowInfo, count);
+                size.incrementAndGet();
+            }
+            count.value += delta;
+        }
+
+        private synchronized Map<RowInfo, Count> swap() {
+            final Map<RowInfo, Count> old = this.counter;
+            if (old.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            this.counter = new HashMap<>(old.size());
+            return old;
+        }
+    }
+}
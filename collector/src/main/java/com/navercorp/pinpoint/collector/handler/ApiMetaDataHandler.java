@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.collector.handler;
 
+import com.navercorp.pinpoint.collector.cache.MetaDataDedupCache;
 import com.navercorp.pinpoint.collector.dao.ApiMetaDataDao;
 import com.navercorp.pinpoint.thrift.dto.TApiMetaData;
 import com.navercorp.pinpoint.thrift.dto.TResult;
@@ -37,6 +38,9 @@ public class ApiMetaDataHandler implements RequestResponseHandler {
     @Autowired
     private ApiMetaDataDao sqlMetaDataDao;
 
+    @Autowired(required = false)
+    private MetaDataDedupCache metaDataDedupCache;
+
     @Override
     public TBase<?, ?> handleRequest(TBase<?, ?> tbase) {
         if (!(tbase instanceof TApiMetaData)) {
@@ -51,8 +55,15 @@ public class ApiMetaDataHandler implements RequestResponseHandler {
             logger.info("Received ApiMetaData={}", apiMetaData);
         }
 
+        if (metaDataDedupCache != null && metaDataDedupCache.isDuplicate(apiMetaData)) {
+            return new TResult(true);
+        }
+
         try {
             sqlMetaDataDao.insert(apiMetaData);
+            if (metaDataDedupCache != null) {
+                metaDataDedupCache.markWritten(apiMetaData);
+            }
         } catch (Exception e) {
             logger.warn("{} handler error. Caused:{}", this.getClass(), e.getMessage(), e);
             TResult result = new TResult(false);
@@ -33,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.navercorp.pinpoint.collector.dao.ApplicationTraceIndexDao;
 import com.navercorp.pinpoint.collector.dao.HostApplicationMapDao;
+import com.navercorp.pinpoint.collector.dao.ScatterTileDao;
 import com.navercorp.pinpoint.thrift.dto.TSpan;
 
 import org.springframework.stereotype.Service;
@@ -52,6 +53,9 @@ public class SpanHandler implements SimpleHandler {
     @Autowired
     private ApplicationTraceIndexDao applicationTraceIndexDao;
 
+    @Autowired
+    private ScatterTileDao scatterTileDao;
+
     @Autowired
     private StatisticsHandler statisticsHandler;
 
@@ -81,6 +85,7 @@ public class SpanHandler implements SimpleHandler {
 
             traceDao.insert(spanBo);
             applicationTraceIndexDao.insert(tSpan);
+            scatterTileDao.insert(tSpan);
 
             // insert statistics info for server map
             insertAcceptorHost(spanBo);
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.collector.handler;
 
+import com.navercorp.pinpoint.collector.cache.MetaDataDedupCache;
 import com.navercorp.pinpoint.collector.dao.SqlMetaDataDao;
 import com.navercorp.pinpoint.thrift.dto.TResult;
 import com.navercorp.pinpoint.thrift.dto.TSqlMetaData;
@@ -34,6 +35,8 @@ public class SqlMetaDataHandler implements RequestResponseHandler {
 //    @Autowired
     private SqlMetaDataDao sqlMetaDataDao;
 
+    private MetaDataDedupCache metaDataDedupCache;
+
     @Override
     public TBase<?, ?> handleRequest(TBase<?, ?> tbase) {
         if (!(tbase instanceof TSqlMetaData)) {
@@ -48,8 +51,15 @@ public class SqlMetaDataHandler implements RequestResponseHandler {
         }
 
 
+        if (metaDataDedupCache != null && metaDataDedupCache.isDuplicate(sqlMetaData)) {
+            return new TResult(true);
+        }
+
         try {
             sqlMetaDataDao.insert(sqlMetaData);
+            if (metaDataDedupCache != null) {
+                metaDataDedupCache.markWritten(sqlMetaData);
+            }
         } catch (Exception e) {
             logger.warn("{} handler error. Caused:{}", this.getClass(), e.getMessage(), e);
             TResult result = new TResult(false);
@@ -62,4 +72,8 @@ public class SqlMetaDataHandler implements RequestResponseHandler {
     public void setSqlMetaDataDao(SqlMetaDataDao sqlMetaDataDao) {
         this.sqlMetaDataDao = sqlMetaDataDao;
     }
+
+    public void setMetaDataDedupCache(MetaDataDedupCache metaDataDedupCache) {
+        this.metaDataDedupCache = metaDataDedupCache;
+    }
 }
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.collector.handler;
 
+import com.navercorp.pinpoint.collector.cache.MetaDataDedupCache;
 import com.navercorp.pinpoint.collector.dao.StringMetaDataDao;
 import com.navercorp.pinpoint.thrift.dto.TResult;
 import com.navercorp.pinpoint.thrift.dto.TStringMetaData;
@@ -37,6 +38,9 @@ public class StringMetaDataHandler implements RequestResponseHandler {
     @Autowired
     private StringMetaDataDao stringMetaDataDao;
 
+    @Autowired(required = false)
+    private MetaDataDedupCache metaDataDedupCache;
+
     @Override
     public TBase<?, ?> handleRequest(TBase<?, ?> tbase) {
         if (!(tbase instanceof TStringMetaData)) {
@@ -50,8 +54,15 @@ public class StringMetaDataHandler implements RequestResponseHandler {
             logger.info("Received StringMetaData={}", stringMetaData);
         }
 
+        if (metaDataDedupCache != null && metaDataDedupCache.isDuplicate(stringMetaData)) {
+            return new TResult(true);
+        }
+
         try {
             stringMetaDataDao.insert(stringMetaData);
+            if (metaDataDedupCache != null) {
+                metaDataDedupCache.markWritten(stringMetaData);
+            }
         } catch (Exception e) {
             logger.warn("{} handler error. Caused:{}", this.getClass(), e.getMessage(), e);
             TResult result = new TResult(false);
@@ -27,6 +27,7 @@ import com.navercorp.pinpoint.common.server.bo.stat.DeadlockBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcDetailedBo;
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
+import com.navercorp.pinpoint.common.server.bo.stat.SamplingBo;
 import com.navercorp.pinpoint.common.server.bo.stat.TransactionBo;
 import com.navercorp.pinpoint.thrift.dto.TAgentStat;
 import com.navercorp.pinpoint.thrift.dto.TDataSource;
@@ -66,6 +67,9 @@ public class AgentStatMapper implements ThriftBoMapper<AgentStatBo, TAgentStat>
     @Autowired
     private DeadlockBoMapper deadlockBoMapper;
 
+    @Autowired
+    private SamplingBoMapper samplingBoMapper;
+
     @Override
     public AgentStatBo map(TAgentStat tAgentStat) {
         if (tAgentStat == null) {
@@ -134,6 +138,12 @@ public class AgentStatMapper implements ThriftBoMapper<AgentStatBo, TAgentStat>
             setBaseData(deadlockBo, agentId, startTimestamp, timestamp);
             agentStatBo.setDeadlockBos(Arrays.asList(deadlockBo));
         }
+        // sampling
+        if (tAgentStat.isSetSampling()) {
+            SamplingBo samplingBo = this.samplingBoMapper.map(tAgentStat.getSampling());
+            setBaseData(samplingBo, agentId, startTimestamp, timestamp);
+            agentStatBo.setSamplingBos(Arrays.asList(samplingBo));
+        }
 
         return agentStatBo;
     }
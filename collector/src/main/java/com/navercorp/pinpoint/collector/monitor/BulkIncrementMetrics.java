@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.monitor;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * flush size, latency and pending queue depth of the bulk increment statistics DAOs.
+ */
+public class BulkIncrementMetrics {
+
+    private static final String BULK_INCREMENT = "bulk.increment";
+
+    private final MetricRegistry registry;
+    private final String name;
+
+    private final Histogram flushSize;
+    private final Timer flushLatency;
+
+    public BulkIncrementMetrics(MetricRegistry registry, String name) {
+        if (name == null) {
+            throw new NullPointerException("name must not be null");
+        }
+        this.registry = registry;
+        this.name = name;
+        if (registry == null) {
+            // not reported. keeps callers free of null checks
+            this.flushSize = new Histogram(new ExponentiallyDecayingReservoir());
+            this.flushLatency = new Timer();
+        } else {
+            this.flushSize = registry.histogram(MetricRegistry.name(BULK_INCREMENT, name, "flush.size"));
+            this.flushLatency = registry.timer(MetricRegistry.name(BULK_INCREMENT, name, "flush.latency"));
+        }
+    }
+
+    public void registerGauge(String metricName, Gauge<?> gauge) {
+        if (registry == null) {
+            return;
+        }
+        registry.register(MetricRegistry.name(BULK_INCREMENT, name, metricName), gauge);
+    }
+
+    public Timer.Context startFlush() {
+        return flushLatency.time();
+    }
+
+    public void updateFlushSize(int size) {
+        flushSize.update(size);
+    }
+
+    public Histogram getFlushSize() {
+        return flushSize;
+    }
+
+    public Timer getFlushLatency() {
+        return flushLatency;
+    }
+}
@@ -18,9 +18,9 @@ package com.navercorp.pinpoint.collector.receiver.udp;
 
 import com.navercorp.pinpoint.collector.receiver.DispatchHandler;
 import com.navercorp.pinpoint.collector.util.PacketUtils;
+import com.navercorp.pinpoint.thrift.io.ChunkHeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.io.ChunkHeaderTBaseDeserializerFactory;
 import com.navercorp.pinpoint.thrift.io.DeserializerFactory;
-import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
-import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 import com.navercorp.pinpoint.thrift.io.ThreadLocalHeaderTBaseDeserializerFactory;
 import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
@@ -42,7 +42,8 @@ public class BaseUDPHandlerFactory<T extends DatagramPacket> implements PacketHa
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final DeserializerFactory<HeaderTBaseDeserializer> deserializerFactory = new ThreadLocalHeaderTBaseDeserializerFactory<>(new HeaderTBaseDeserializerFactory());
+    // reads single messages as well as the datagrams packed by the agent BATCH sender
+    private final DeserializerFactory<ChunkHeaderTBaseDeserializer> deserializerFactory = new ThreadLocalHeaderTBaseDeserializerFactory<>(new ChunkHeaderTBaseDeserializerFactory());
 
     private final DispatchHandler dispatchHandler;
 
@@ -83,17 +84,20 @@ public class BaseUDPHandlerFactory<T extends DatagramPacket> implements PacketHa
                 return;
             }
             
-            final HeaderTBaseDeserializer deserializer = deserializerFactory.createDeserializer();
+            final ChunkHeaderTBaseDeserializer deserializer = deserializerFactory.createDeserializer();
             SocketAddress socketAddress = packet.getSocketAddress();
             TBase<?, ?> tBase = null;
             
             try {
-                tBase = deserializer.deserialize(packet.getData());
-                if (filter.filter(localSocket, tBase, socketAddress) == TBaseFilter.BREAK) {
-                    return;
+                final List<TBase<?, ?>> tBaseList = deserializer.deserialize(packet.getData(), packet.getOffset(), packet.getLength());
+                for (int i = 0; i < tBaseList.size(); i++) {
+                    tBase = tBaseList.get(i);
+                    if (filter.filter(localSocket, tBase, socketAddress) == TBaseFilter.BREAK) {
+                        return;
+                    }
+                    // dispatch signifies business logic execution
+                    dispatchHandler.dispatchSendMessage(tBase);
                 }
-                // dispatch signifies business logic execution
-                dispatchHandler.dispatchSendMessage(tBase);
             } catch (TException e) {
                 if (logger.isWarnEnabled()) {
                     logger.warn("packet serialize error. SendSocketAddress:{} Cause:{}", socketAddress, e.getMessage(), e);
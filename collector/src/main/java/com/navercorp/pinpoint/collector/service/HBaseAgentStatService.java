@@ -24,6 +24,7 @@ import com.navercorp.pinpoint.common.server.bo.stat.DeadlockBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcDetailedBo;
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
+import com.navercorp.pinpoint.common.server.bo.stat.SamplingBo;
 import com.navercorp.pinpoint.common.server.bo.stat.TransactionBo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +63,9 @@ public class HBaseAgentStatService implements AgentStatService {
     @Autowired
     private AgentStatDaoV2<DeadlockBo> deadlockDao;
 
+    @Autowired
+    private AgentStatDaoV2<SamplingBo> samplingDao;
+
     @Override
     public void save(AgentStatBo agentStatBo) {
         final String agentId = agentStatBo.getAgentId();
@@ -74,6 +78,7 @@ public class HBaseAgentStatService implements AgentStatService {
             this.dataSourceListDao.insert(agentId, agentStatBo.getDataSourceListBos());
             this.responseTimeDao.insert(agentId, agentStatBo.getResponseTimeBos());
             this.deadlockDao.insert(agentId, agentStatBo.getDeadlockBos());
+            this.samplingDao.insert(agentId, agentStatBo.getSamplingBos());
         } catch (Exception e) {
             logger.warn("Error inserting AgentStatBo. Caused:{}", e.getMessage(), e);
         }
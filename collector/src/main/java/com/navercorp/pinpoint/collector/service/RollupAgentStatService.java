@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.service;
+
+import com.navercorp.pinpoint.collector.dao.AgentStatRollupDao;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the cpu load and jvm gc statistics of each batch pre-aggregated in every {@link AgentStatRollupResolution},
+ * so that the web can draw long ranges without reading every raw data point.
+ * The dao merges the batches of a bucket so that an agent usually gets a single cell per bucket.
+ */
+@Service("rollupAgentStatService")
+public class RollupAgentStatService implements AgentStatService {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private AgentStatRollupDao agentStatRollupDao;
+
+    @Value("#{pinpoint_collector_properties['collector.stat.rollup.enable'] ?: false}")
+    private boolean enable = false;
+
+    @PostConstruct
+    public void init() {
+        logger.info("agent stat rollup enable:{}", enable);
+    }
+
+    @Override
+    public void save(AgentStatBo agentStatBo) {
+        if (!enable) {
+            return;
+        }
+        try {
+            final List<AgentStatRollupBo> rollupBos = new ArrayList<AgentStatRollupBo>();
+            for (AgentStatRollupResolution resolution : AgentStatRollupResolution.values()) {
+                rollupBos.addAll(AgentStatRollups.rollupCpuLoad(agentStatBo.getCpuLoadBos(), resolution));
+                rollupBos.addAll(AgentStatRollups.rollupJvmGc(agentStatBo.getJvmGcBos(), resolution));
+            }
+            this.agentStatRollupDao.insert(rollupBos);
+        } catch (Exception e) {
+            logger.warn("Error inserting AgentStatRollupBo. Caused:{}", e.getMessage(), e);
+        }
+    }
+}
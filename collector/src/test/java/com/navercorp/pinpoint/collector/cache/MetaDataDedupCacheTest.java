@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import com.navercorp.pinpoint.thrift.dto.TApiMetaData;
+import com.navercorp.pinpoint.thrift.dto.TSqlMetaData;
+import com.navercorp.pinpoint.thrift.dto.TStringMetaData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetaDataDedupCacheTest {
+
+    private MetaDataDedupCache newCache(MetricRegistry registry) {
+        MetaDataDedupCache cache = new MetaDataDedupCache();
+        cache.setMaxSize(100);
+        cache.setMetricRegistry(registry);
+        cache.initialize();
+        return cache;
+    }
+
+    @Test
+    public void duplicateAfterWrite() {
+        MetricRegistry registry = new MetricRegistry();
+        MetaDataDedupCache cache = newCache(registry);
+
+        TSqlMetaData sqlMetaData = new TSqlMetaData("agent", 1L, 10, "select 1");
+        Assert.assertFalse(cache.isDuplicate(sqlMetaData));
+        cache.markWritten(sqlMetaData);
+
+        Assert.assertTrue(cache.isDuplicate(new TSqlMetaData("agent", 1L, 10, "select 1")));
+        Assert.assertEquals(1, registry.meter("metadata.dedup.sql.saved").getCount());
+        Assert.assertEquals(1L, registry.getGauges().get("metadata.dedup.size").getValue());
+    }
+
+    @Test
+    public void anyColumnChangeIsNotDuplicate() {
+        MetaDataDedupCache cache = newCache(null);
+        cache.markWritten(new TSqlMetaData("agent", 1L, 10, "select 1"));
+
+        Assert.assertFalse(cache.isDuplicate(new TSqlMetaData("agent", 2L, 10, "select 1")));
+        Assert.assertFalse(cache.isDuplicate(new TSqlMetaData("agent2", 1L, 10, "select 1")));
+        Assert.assertFalse(cache.isDuplicate(new TSqlMetaData("agent", 1L, 11, "select 1")));
+        Assert.assertFalse(cache.isDuplicate(new TSqlMetaData("agent", 1L, 10, "select 2")));
+        // same columns but a different metadata type
+        Assert.assertFalse(cache.isDuplicate(new TStringMetaData("agent", 1L, 10, "select 1")));
+
+        TApiMetaData apiMetaData = new TApiMetaData("agent", 1L, 10, "api");
+        apiMetaData.setLine(5);
+        cache.markWritten(apiMetaData);
+        TApiMetaData otherLine = new TApiMetaData("agent", 1L, 10, "api");
+        otherLine.setLine(6);
+        Assert.assertFalse(cache.isDuplicate(otherLine));
+        Assert.assertTrue(cache.isDuplicate(apiMetaData.deepCopy()));
+    }
+
+    @Test
+    public void disabled() {
+        MetaDataDedupCache cache = new MetaDataDedupCache();
+        cache.setEnable(false);
+        cache.initialize();
+
+        TStringMetaData stringMetaData = new TStringMetaData("agent", 1L, 10, "value");
+        cache.markWritten(stringMetaData);
+        Assert.assertFalse(cache.isDuplicate(stringMetaData));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void boundedBySize() {
+        MetaDataDedupCache cache = newCache(null);
+        for (int i = 0; i < 1000; i++) {
+            cache.markWritten(new TStringMetaData("agent", 1L, i, "value"));
+        }
+        Assert.assertTrue(cache.size() <= 100);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.cluster.route;
+
+import com.navercorp.pinpoint.collector.cluster.ClusterPointRepository;
+import com.navercorp.pinpoint.collector.cluster.PinpointServerClusterPoint;
+import com.navercorp.pinpoint.collector.cluster.TargetClusterPoint;
+import com.navercorp.pinpoint.rpc.packet.HandshakePropertyType;
+import com.navercorp.pinpoint.rpc.packet.stream.StreamClosePacket;
+import com.navercorp.pinpoint.rpc.packet.stream.StreamCode;
+import com.navercorp.pinpoint.rpc.packet.stream.StreamResponsePacket;
+import com.navercorp.pinpoint.rpc.server.PinpointServer;
+import com.navercorp.pinpoint.rpc.stream.ClientStreamChannel;
+import com.navercorp.pinpoint.rpc.stream.ClientStreamChannelContext;
+import com.navercorp.pinpoint.rpc.stream.ClientStreamChannelMessageListener;
+import com.navercorp.pinpoint.rpc.stream.ServerStreamChannel;
+import com.navercorp.pinpoint.rpc.stream.ServerStreamChannelContext;
+import com.navercorp.pinpoint.rpc.stream.StreamChannelStateCode;
+import com.navercorp.pinpoint.thrift.dto.command.TCmdActiveThreadCount;
+import com.navercorp.pinpoint.thrift.dto.command.TCommandTransfer;
+import com.navercorp.pinpoint.thrift.dto.command.TRouteResult;
+import com.navercorp.pinpoint.thrift.io.CommandHeaderTBaseSerializerFactory;
+import com.navercorp.pinpoint.thrift.io.TCommandType;
+import org.jboss.netty.channel.Channel;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StreamRouteHandlerTest {
+
+    private static final String APPLICATION_NAME = "applicationName";
+    private static final String AGENT_ID = "agentId";
+    private static final long START_TIMESTAMP = 1000L;
+
+    private final List<ClientStreamChannelContext> producerContextList = new ArrayList<>();
+
+    private PinpointServer pinpointServer;
+    private StreamRouteHandler streamRouteHandler;
+
+    @Before
+    public void setUp() {
+        pinpointServer = createPinpointServer();
+
+        ClusterPointRepository<TargetClusterPoint> clusterPointRepository = new ClusterPointRepository<>();
+        clusterPointRepository.addClusterPoint(new PinpointServerClusterPoint(pinpointServer));
+
+        streamRouteHandler = new StreamRouteHandler(clusterPointRepository, new DefaultRouteFilterChain<StreamEvent>(),
+                new DefaultRouteFilterChain<ResponseEvent>(), new DefaultRouteFilterChain<StreamRouteCloseEvent>());
+        ReflectionTestUtils.setField(streamRouteHandler, "commandSerializerFactory", new CommandHeaderTBaseSerializerFactory());
+    }
+
+    @Test
+    public void shareProducerTest() {
+        ServerStreamChannelContext consumerContext1 = createConsumerContext();
+        ServerStreamChannelContext consumerContext2 = createConsumerContext();
+
+        Assert.assertEquals(TRouteResult.OK, streamRouteHandler.onRoute(createStreamEvent(consumerContext1, new byte[] {1})).getRouteResult());
+        Assert.assertEquals(TRouteResult.OK, streamRouteHandler.onRoute(createStreamEvent(consumerContext2, new byte[] {1})).getRouteResult());
+
+        Assert.assertEquals(1, producerContextList.size());
+        Assert.assertEquals(1, streamRouteHandler.getProducerCount());
+
+        ClientStreamChannelContext producerContext = producerContextList.get(0);
+        producerContext.getClientStreamChannelMessageListener().handleStreamData(producerContext, new StreamResponsePacket(1, new byte[] {1, 2, 3}));
+        verify(consumerContext1.getStreamChannel()).sendData(any(byte[].class));
+        verify(consumerContext2.getStreamChannel()).sendData(any(byte[].class));
+
+        streamRouteHandler.close(consumerContext1);
+        verify(producerContext.getStreamChannel(), never()).close();
+        Assert.assertEquals(1, streamRouteHandler.getProducerCount());
+
+        streamRouteHandler.close(consumerContext2);
+        verify(producerContext.getStreamChannel()).close();
+        Assert.assertEquals(0, streamRouteHandler.getProducerCount());
+    }
+
+    @Test
+    public void differentPayloadTest() {
+        Assert.assertEquals(TRouteResult.OK, streamRouteHandler.onRoute(createStreamEvent(createConsumerContext(), new byte[] {1})).getRouteResult());
+        Assert.assertEquals(TRouteResult.OK, streamRouteHandler.onRoute(createStreamEvent(createConsumerContext(), new byte[] {2})).getRouteResult());
+
+        Assert.assertEquals(2, producerContextList.size());
+        Assert.assertEquals(2, streamRouteHandler.getProducerCount());
+    }
+
+    @Test
+    public void producerCloseTest() {
+        ServerStreamChannelContext consumerContext1 = createConsumerContext();
+        ServerStreamChannelContext consumerContext2 = createConsumerContext();
+        streamRouteHandler.onRoute(createStreamEvent(consumerContext1, new byte[] {1}));
+        streamRouteHandler.onRoute(createStreamEvent(consumerContext2, new byte[] {1}));
+
+        ClientStreamChannelContext producerContext = producerContextList.get(0);
+        producerContext.getClientStreamChannelMessageListener().handleStreamClose(producerContext, new StreamClosePacket(1, StreamCode.STATE_CLOSED));
+
+        verify(consumerContext1.getStreamChannel()).close();
+        verify(consumerContext2.getStreamChannel()).close();
+        Assert.assertEquals(0, streamRouteHandler.getProducerCount());
+
+        // a new subscriber opens a new agent stream
+        streamRouteHandler.onRoute(createStreamEvent(createConsumerContext(), new byte[] {1}));
+        Assert.assertEquals(2, producerContextList.size());
+        Assert.assertEquals(1, streamRouteHandler.getProducerCount());
+    }
+
+    @Test
+    public void disconnectedConsumerTest() {
+        ServerStreamChannelContext consumerContext1 = createConsumerContext();
+        ServerStreamChannelContext consumerContext2 = createConsumerContext();
+        streamRouteHandler.onRoute(createStreamEvent(consumerContext1, new byte[] {1}));
+        streamRouteHandler.onRoute(createStreamEvent(consumerContext2, new byte[] {1}));
+
+        when(consumerContext1.getStreamChannel().getCurrentState()).thenReturn(StreamChannelStateCode.CLOSED);
+
+        ClientStreamChannelContext producerContext = producerContextList.get(0);
+        producerContext.getClientStreamChannelMessageListener().handleStreamData(producerContext, new StreamResponsePacket(1, new byte[] {1, 2, 3}));
+        producerContext.getClientStreamChannelMessageListener().handleStreamData(producerContext, new StreamResponsePacket(1, new byte[] {1, 2, 3}));
+
+        verify(consumerContext1.getStreamChannel(), never()).sendData(any(byte[].class));
+        verify(consumerContext2.getStreamChannel(), times(2)).sendData(any(byte[].class));
+        verify(producerContext.getStreamChannel(), never()).close();
+    }
+
+    private PinpointServer createPinpointServer() {
+        Map<Object, Object> properties = new HashMap<>();
+        properties.put(HandshakePropertyType.VERSION.getName(), "1.7.1");
+        properties.put(HandshakePropertyType.APPLICATION_NAME.getName(), APPLICATION_NAME);
+        properties.put(HandshakePropertyType.AGENT_ID.getName(), AGENT_ID);
+        properties.put(HandshakePropertyType.START_TIMESTAMP.getName(), START_TIMESTAMP);
+        properties.put(HandshakePropertyType.SUPPORT_COMMAND_LIST.getName(), Collections.singletonList((int) TCommandType.ACTIVE_THREAD_COUNT.getCode()));
+
+        PinpointServer pinpointServer = mock(PinpointServer.class);
+        when(pinpointServer.getChannelProperties()).thenReturn(properties);
+        when(pinpointServer.openStream(any(byte[].class), any(ClientStreamChannelMessageListener.class))).thenAnswer(new Answer<ClientStreamChannelContext>() {
+            @Override
+            public ClientStreamChannelContext answer(InvocationOnMock invocation) throws Throwable {
+                ClientStreamChannelMessageListener messageListener = (ClientStreamChannelMessageListener) invocation.getArguments()[1];
+                ClientStreamChannelContext producerContext = new ClientStreamChannelContext(mock(ClientStreamChannel.class), messageListener);
+                producerContextList.add(producerContext);
+                return producerContext;
+            }
+        });
+        return pinpointServer;
+    }
+
+    private ServerStreamChannelContext createConsumerContext() {
+        Channel channel = mock(Channel.class);
+        when(channel.getRemoteAddress()).thenReturn(new InetSocketAddress(50505));
+
+        ServerStreamChannel consumer = mock(ServerStreamChannel.class);
+        when(consumer.getChannel()).thenReturn(channel);
+        when(consumer.getCurrentState()).thenReturn(StreamChannelStateCode.CONNECTED);
+        return new ServerStreamChannelContext(consumer);
+    }
+
+    private StreamEvent createStreamEvent(ServerStreamChannelContext consumerContext, byte[] payload) {
+        TCommandTransfer tCommandTransfer = new TCommandTransfer();
+        tCommandTransfer.setApplicationName(APPLICATION_NAME);
+        tCommandTransfer.setAgentId(AGENT_ID);
+        tCommandTransfer.setStartTime(START_TIMESTAMP);
+        tCommandTransfer.setPayload(payload);
+
+        return new StreamEvent(tCommandTransfer, consumerContext, new TCmdActiveThreadCount());
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AutoFlusherTest {
+
+    @Test
+    public void flushPeriod() {
+        CachedStatisticsDao dao = mock(CachedStatisticsDao.class);
+        AutoFlusher.Worker worker = new AutoFlusher.Worker(dao, 1000, 8000, 100, 500);
+
+        final long now = System.currentTimeMillis();
+        Assert.assertFalse(worker.isFlushRequired(now));
+        Assert.assertTrue(worker.isFlushRequired(now + 1000));
+    }
+
+    @Test
+    public void earlyFlush() {
+        CachedStatisticsDao dao = mock(CachedStatisticsDao.class);
+        when(dao.getPendingSize()).thenReturn(100);
+        AutoFlusher.Worker worker = new AutoFlusher.Worker(dao, 60000, 60000, 100, 500);
+
+        worker.run();
+        verify(dao, times(1)).flushAll();
+    }
+
+    @Test
+    public void backPressure() {
+        CachedStatisticsDao dao = mock(CachedStatisticsDao.class);
+        when(dao.getPendingSize()).thenReturn(100);
+        AutoFlusher.Worker worker = new AutoFlusher.Worker(dao, 60000, 240000, 100, 500);
+
+        worker.adjustFlushPeriod(1000);
+        Assert.assertTrue(worker.isBackPressure());
+        Assert.assertEquals(120000, worker.getCurrentFlushPeriod());
+        worker.adjustFlushPeriod(1000);
+        worker.adjustFlushPeriod(1000);
+        Assert.assertEquals(240000, worker.getCurrentFlushPeriod());
+
+        // no early flush while HBase is slow
+        worker.run();
+        verify(dao, never()).flushAll();
+
+        worker.adjustFlushPeriod(10);
+        worker.adjustFlushPeriod(10);
+        Assert.assertFalse(worker.isBackPressure());
+        Assert.assertEquals(60000, worker.getCurrentFlushPeriod());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.stat;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatRollupHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollups;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class HbaseAgentStatRollupDaoTest {
+
+    private static final AgentStatRollupResolution RESOLUTION = AgentStatRollupResolution.ONE_HOUR;
+
+    @Mock
+    private HbaseOperations2 hbaseTemplate;
+
+    @Mock
+    private AgentStatRollupHbaseOperationFactory agentStatRollupHbaseOperationFactory;
+
+    @InjectMocks
+    private HbaseAgentStatRollupDao agentStatRollupDao = new HbaseAgentStatRollupDao();
+
+    private long bucket;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        this.bucket = RESOLUTION.getBucketTimestamp(System.currentTimeMillis());
+    }
+
+    @Test
+    public void mergeBatchesOfBucket() {
+        agentStatRollupDao.insert(rollup(bucket + 5000, bucket + 10000));
+        agentStatRollupDao.insert(rollup(bucket + 15000, bucket + 20000));
+        Assert.assertEquals(1, agentStatRollupDao.getPendingSize());
+
+        agentStatRollupDao.flushAll();
+        List<AgentStatRollupBo> written = captureWritten(1);
+        Assert.assertEquals(1, written.size());
+        Assert.assertEquals(bucket + 5000, written.get(0).getFirstTimestamp());
+        Assert.assertEquals(4, written.get(0).getValues()[AgentStatRollups.CPU_LOAD_JVM].getCount());
+        Assert.assertEquals(0, agentStatRollupDao.getPendingSize());
+
+        // the next batch rewrites the same cell
+        agentStatRollupDao.insert(rollup(bucket + 25000, bucket + 30000));
+        agentStatRollupDao.flushAll();
+        written = captureWritten(2);
+        Assert.assertEquals(1, written.size());
+        Assert.assertEquals(bucket + 5000, written.get(0).getFirstTimestamp());
+        Assert.assertEquals(6, written.get(0).getValues()[AgentStatRollups.CPU_LOAD_JVM].getCount());
+    }
+
+    @Test
+    public void duplicatedAndOutOfOrderBatches() {
+        agentStatRollupDao.insert(rollup(bucket + 15000, bucket + 20000));
+        // duplicated
+        agentStatRollupDao.insert(rollup(bucket + 15000, bucket + 20000));
+        // out of order
+        agentStatRollupDao.insert(rollup(bucket + 5000, bucket + 10000));
+        Assert.assertEquals(2, agentStatRollupDao.getPendingSize());
+
+        agentStatRollupDao.flushAll();
+        List<AgentStatRollupBo> written = captureWritten(1);
+        Assert.assertEquals(2, written.size());
+        Assert.assertEquals(bucket + 5000, written.get(0).getFirstTimestamp());
+        Assert.assertEquals(bucket + 15000, written.get(1).getFirstTimestamp());
+        Assert.assertEquals(2, written.get(1).getValues()[AgentStatRollups.CPU_LOAD_JVM].getCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AgentStatRollupBo> captureWritten(int times) {
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(agentStatRollupHbaseOperationFactory, times(times)).createPuts(captor.capture());
+        return captor.getValue();
+    }
+
+    private List<AgentStatRollupBo> rollup(long... timestamps) {
+        CpuLoadBo[] cpuLoadBos = new CpuLoadBo[timestamps.length];
+        for (int i = 0; i < timestamps.length; i++) {
+            CpuLoadBo cpuLoadBo = new CpuLoadBo();
+            cpuLoadBo.setAgentId("testAgent");
+            cpuLoadBo.setStartTimestamp(bucket);
+            cpuLoadBo.setTimestamp(timestamps[i]);
+            cpuLoadBo.setJvmCpuLoad(0.5);
+            cpuLoadBo.setSystemCpuLoad(0.5);
+            cpuLoadBos[i] = cpuLoadBo;
+        }
+        return AgentStatRollups.rollupCpuLoad(Arrays.asList(cpuLoadBos), RESOLUTION);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Increment;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IncrementBatchSplitterTest {
+
+    @Test
+    public void split_small() {
+        IncrementBatchSplitter splitter = new IncrementBatchSplitter(10);
+        List<Increment> incrementList = createIncrementList(5, 3);
+
+        List<List<Increment>> batchList = splitter.split(incrementList);
+        Assert.assertEquals(1, batchList.size());
+        Assert.assertSame(incrementList, batchList.get(0));
+    }
+
+    @Test
+    public void split_byPrefix() {
+        IncrementBatchSplitter splitter = new IncrementBatchSplitter(4);
+        // 3 prefixes * 10 rows
+        List<Increment> incrementList = createIncrementList(30, 3);
+
+        List<List<Increment>> batchList = splitter.split(incrementList);
+        // 10 rows per prefix -> 4, 4, 2
+        Assert.assertEquals(9, batchList.size());
+
+        int total = 0;
+        for (List<Increment> batch : batchList) {
+            Assert.assertTrue(batch.size() <= 4);
+            final byte prefix = batch.get(0).getRow()[0];
+            for (Increment increment : batch) {
+                Assert.assertEquals(prefix, increment.getRow()[0]);
+            }
+            total += batch.size();
+        }
+        Assert.assertEquals(30, total);
+    }
+
+    @Test
+    public void split_empty() {
+        IncrementBatchSplitter splitter = new IncrementBatchSplitter(4);
+        Assert.assertTrue(splitter.split(new ArrayList<Increment>()).isEmpty());
+    }
+
+    @Test
+    public void incrementAll_failedBatches() {
+        IncrementBatchSplitter splitter = new IncrementBatchSplitter(4);
+        HbaseOperations2 hbaseTemplate = mock(HbaseOperations2.class);
+        RuntimeException first = new RuntimeException("first");
+        RuntimeException second = new RuntimeException("second");
+        when(hbaseTemplate.increment(any(TableName.class), anyList())).thenThrow(first).thenReturn(null).thenThrow(second).thenReturn(null);
+
+        try {
+            splitter.incrementAll(hbaseTemplate, TableName.valueOf("test"), createIncrementList(30, 3));
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertSame(first, e);
+            Assert.assertArrayEquals(new Throwable[] {second}, e.getSuppressed());
+        }
+        // every batch is sent in spite of the failures
+        verify(hbaseTemplate, times(9)).increment(any(TableName.class), anyList());
+    }
+
+    private List<Increment> createIncrementList(int size, int prefixSize) {
+        List<Increment> incrementList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            byte[] row = new byte[] {(byte) (i % prefixSize), (byte) i};
+            incrementList.add(new Increment(row));
+        }
+        return incrementList;
+    }
+}
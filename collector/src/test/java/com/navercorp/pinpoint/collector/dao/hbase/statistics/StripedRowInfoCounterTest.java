@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class StripedRowInfoCounterTest {
+
+    @Test
+    public void nextPowerOfTwo() {
+        Assert.assertEquals(1, StripedRowInfoCounter.nextPowerOfTwo(1));
+        Assert.assertEquals(4, StripedRowInfoCounter.nextPowerOfTwo(3));
+        Assert.assertEquals(8, StripedRowInfoCounter.nextPowerOfTwo(8));
+        Assert.assertEquals(4, new StripedRowInfoCounter(3).getStripeSize());
+    }
+
+    @Test
+    public void increment() {
+        StripedRowInfoCounter counter = new StripedRowInfoCounter(4);
+        counter.increment(new CallRowKey("app", (short) 1000, 0), new ResponseColumnName("agent", (short) 1));
+        counter.increment(new CallRowKey("app", (short) 1000, 0), new ResponseColumnName("agent", (short) 1));
+        counter.increment(new CallRowKey("app", (short) 1000, 0), new ResponseColumnName("agent", (short) 2));
+
+        Assert.assertEquals(2, counter.size());
+
+        Map<RowInfo, Long> remove = counter.remove();
+        Assert.assertEquals(2, remove.size());
+        Assert.assertEquals(0, counter.size());
+
+        RowInfo key = new EncodedRowInfo(new CallRowKey("app", (short) 1000, 0).getRowKey(), new ResponseColumnName("agent", (short) 1).getColumnName());
+        Assert.assertEquals(2L, (long) remove.get(key));
+
+        Assert.assertTrue(counter.remove().isEmpty());
+    }
+
+    @Test
+    public void encodedRowInfo() {
+        RowInfo rowInfo = new EncodedRowInfo(new CallRowKey("app", (short) 1000, 0).getRowKey(), new ResponseColumnName("agent", (short) 1).getColumnName());
+        Assert.assertSame(rowInfo.getRowKey(), rowInfo.getRowKey());
+        Assert.assertSame(rowInfo.getColumnName(), rowInfo.getColumnName());
+
+        byte[] columnName = CalleeColumnName.makeColumnName("agent", (short) 1000, "app", "host", (short) 1);
+        Assert.assertArrayEquals(new CalleeColumnName("agent", (short) 1000, "app", "host", (short) 1).getColumnName(), columnName);
+    }
+
+    @Test
+    public void increment_multiThread() throws InterruptedException {
+        final StripedRowInfoCounter counter = new StripedRowInfoCounter(2);
+        final int threadSize = 8;
+        final int count = 1000;
+        final CountDownLatch latch = new CountDownLatch(threadSize);
+        ExecutorService executor = Executors.newFixedThreadPool(threadSize);
+        for (int i = 0; i < threadSize; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < count; j++) {
+                        counter.increment(new CallRowKey("app", (short) 1000, 0), new ResponseColumnName("agent", (short) (j % 2)));
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        long sum = 0;
+        for (Long value : counter.remove().values()) {
+            sum += value;
+        }
+        Assert.assertEquals(threadSize * count, sum);
+    }
+
+    @Test
+    public void rowKeyMerge() {
+        StripedRowInfoCounter counter = new StripedRowInfoCounter(4);
+        counter.increment(new CallRowKey("app", (short) 1000, 0), new ResponseColumnName("agent", (short) 1));
+        counter.increment(new CallRowKey("app", (short) 1000, 0), new ResponseColumnName("agent", (short) 2));
+        counter.increment(new CallRowKey("app", (short) 1000, 0), new ResponseColumnName("agent", (short) 2));
+        counter.increment(new CallRowKey("app2", (short) 1000, 0), new ResponseColumnName("agent", (short) 1));
+
+        RowKeyMerge rowKeyMerge = new RowKeyMerge(HBaseTables.MAP_STATISTICS_SELF_VER2_CF_COUNTER);
+        List<Increment> incrementList = rowKeyMerge.createBulkIncrement(counter.remove(), null);
+        Assert.assertEquals(2, incrementList.size());
+
+        long total = 0;
+        for (Increment increment : incrementList) {
+            for (List<Cell> cells : increment.getFamilyCellMap().values()) {
+                for (Cell cell : cells) {
+                    total += Bytes.toLong(CellUtil.cloneValue(cell));
+                }
+            }
+        }
+        Assert.assertEquals(4L, total);
+    }
+}
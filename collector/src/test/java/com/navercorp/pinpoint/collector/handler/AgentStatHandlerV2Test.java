@@ -29,6 +29,7 @@ import com.navercorp.pinpoint.common.server.bo.stat.DeadlockBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcDetailedBo;
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
+import com.navercorp.pinpoint.common.server.bo.stat.SamplingBo;
 import com.navercorp.pinpoint.common.server.bo.stat.TransactionBo;
 import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
 import com.navercorp.pinpoint.thrift.dto.TAgentStat;
@@ -38,6 +39,7 @@ import com.navercorp.pinpoint.thrift.dto.TDataSourceList;
 import com.navercorp.pinpoint.thrift.dto.TDeadlock;
 import com.navercorp.pinpoint.thrift.dto.TJvmGc;
 import com.navercorp.pinpoint.thrift.dto.TResponseTime;
+import com.navercorp.pinpoint.thrift.dto.TSampling;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
@@ -86,6 +88,9 @@ public class AgentStatHandlerV2Test {
     @Mock
     private AgentStatDaoV2<DeadlockBo> deadlockDao;
 
+    @Mock
+    private AgentStatDaoV2<SamplingBo> samplingDao;
+
     @InjectMocks
     private HBaseAgentStatService hBaseAgentStatService = new HBaseAgentStatService();
 
@@ -120,6 +125,7 @@ public class AgentStatHandlerV2Test {
         verify(dataSourceDao).insert(mappedAgentStat.getAgentId(), mappedAgentStat.getDataSourceListBos());
         verify(responseTimeDao).insert(mappedAgentStat.getAgentId(), mappedAgentStat.getResponseTimeBos());
         verify(deadlockDao).insert(mappedAgentStat.getAgentId(), mappedAgentStat.getDeadlockBos());
+        verify(samplingDao).insert(mappedAgentStat.getAgentId(), mappedAgentStat.getSamplingBos());
 
     }
 
@@ -143,6 +149,7 @@ public class AgentStatHandlerV2Test {
         verify(dataSourceDao).insert(mappedAgentStat.getAgentId(), mappedAgentStat.getDataSourceListBos());
         verify(responseTimeDao).insert(mappedAgentStat.getAgentId(), mappedAgentStat.getResponseTimeBos());
         verify(deadlockDao).insert(mappedAgentStat.getAgentId(), mappedAgentStat.getDeadlockBos());
+        verify(samplingDao).insert(mappedAgentStat.getAgentId(), mappedAgentStat.getSamplingBos());
     }
 
     @Test
@@ -163,6 +170,7 @@ public class AgentStatHandlerV2Test {
         verifyZeroInteractions(activeTraceDao);
         verifyZeroInteractions(dataSourceDao);
         verifyZeroInteractions(responseTimeDao);
+        verifyZeroInteractions(samplingDao);
     }
 
     @Test
@@ -184,6 +192,7 @@ public class AgentStatHandlerV2Test {
         verifyZeroInteractions(activeTraceDao);
         verifyZeroInteractions(dataSourceDao);
         verifyZeroInteractions(responseTimeDao);
+        verifyZeroInteractions(samplingDao);
     }
 
     @Test(expected=IllegalArgumentException.class)
@@ -217,6 +226,7 @@ public class AgentStatHandlerV2Test {
         agentStat.setDataSourceList(new TDataSourceList());
         agentStat.setResponseTime(new TResponseTime());
         agentStat.setDeadlock(new TDeadlock());
+        agentStat.setSampling(new TSampling());
         return agentStat;
     }
 
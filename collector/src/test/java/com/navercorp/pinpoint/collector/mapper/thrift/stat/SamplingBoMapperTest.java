@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.mapper.thrift.stat;
+
+import com.navercorp.pinpoint.common.server.bo.stat.SamplingBo;
+import com.navercorp.pinpoint.thrift.dto.TSampling;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SamplingBoMapperTest extends ThriftBoMapperTestBase<TSampling, SamplingBo> {
+
+    @Override
+    protected TSampling create() {
+        TSampling sampling = new TSampling();
+        sampling.setTracesPerSecond(getRandomInteger(0, 1000));
+        sampling.setEffectiveRate(getRandomDouble(0, 1));
+        return sampling;
+    }
+
+    @Override
+    protected SamplingBo convert(TSampling original) {
+        SamplingBoMapper mapper = new SamplingBoMapper();
+        return mapper.map(original);
+    }
+
+    @Override
+    protected void verify(TSampling original, SamplingBo mappedStatDataPoint) {
+        Assert.assertEquals("tracesPerSecond", original.getTracesPerSecond(), mappedStatDataPoint.getTracesPerSecond());
+        Assert.assertEquals("effectiveRate", original.getEffectiveRate(), mappedStatDataPoint.getEffectiveRate(), 0);
+    }
+
+    @Test
+    public void effectiveRateNotSet() {
+        TSampling sampling = new TSampling();
+        sampling.setTracesPerSecond(100);
+
+        SamplingBo samplingBo = convert(sampling);
+
+        Assert.assertEquals(100, samplingBo.getTracesPerSecond());
+        Assert.assertEquals(SamplingBo.UNCOLLECTED_VALUE, samplingBo.getEffectiveRate(), 0);
+    }
+
+}
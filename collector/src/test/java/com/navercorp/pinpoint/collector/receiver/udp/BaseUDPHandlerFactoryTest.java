@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.receiver.udp;
+
+import com.navercorp.pinpoint.collector.receiver.DispatchHandler;
+import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+import com.navercorp.pinpoint.thrift.dto.TAgentStat;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer2;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory2;
+import com.navercorp.pinpoint.thrift.io.UnsafeByteArrayOutputStream;
+import org.apache.thrift.TBase;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class BaseUDPHandlerFactoryTest {
+
+    private final HeaderTBaseSerializer2 serializer = new HeaderTBaseSerializerFactory2().createSerializer();
+
+    @Test
+    public void receiveSingleMessage() throws Exception {
+        TAgentInfo agentInfo = new TAgentInfo();
+        agentInfo.setAgentId("agentId");
+
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream();
+        serializer.serialize(agentInfo, out);
+
+        List<TBase> received = receive(out, 1);
+        assertEquals(agentInfo, received.get(0));
+    }
+
+    @Test
+    public void receivePackedMessages() throws Exception {
+        TAgentInfo agentInfo = new TAgentInfo();
+        agentInfo.setAgentId("agentId");
+        TAgentStat agentStat = new TAgentStat();
+        agentStat.setAgentId("agentId");
+
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream();
+        serializer.serializeChunkHeader(out);
+        serializer.serialize(agentInfo, out);
+        serializer.serialize(agentStat, out);
+        serializer.serialize(agentInfo, out);
+
+        List<TBase> received = receive(out, 3);
+        assertEquals(agentInfo, received.get(0));
+        assertEquals(agentStat, received.get(1));
+        assertEquals(agentInfo, received.get(2));
+    }
+
+    private List<TBase> receive(UnsafeByteArrayOutputStream out, int expected) {
+        DispatchHandler dispatchHandler = mock(DispatchHandler.class);
+        BaseUDPHandlerFactory<DatagramPacket> handlerFactory = new BaseUDPHandlerFactory<>(dispatchHandler, TBaseFilter.CONTINUE_FILTER, Collections.<InetAddress>emptyList());
+
+        // received into a larger buffer, as the receiver does
+        byte[] buffer = new byte[1024];
+        System.arraycopy(out.toByteArray(), 0, buffer, 0, out.size());
+        DatagramPacket packet = new DatagramPacket(buffer, 0, out.size(), new InetSocketAddress("127.0.0.1", 9995));
+        handlerFactory.createPacketHandler().receive(null, packet);
+
+        ArgumentCaptor<TBase> captor = ArgumentCaptor.forClass(TBase.class);
+        verify(dispatchHandler, times(expected)).dispatchSendMessage(captor.capture());
+        return captor.getAllValues();
+    }
+}
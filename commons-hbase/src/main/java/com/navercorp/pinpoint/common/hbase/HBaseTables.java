@@ -40,6 +40,12 @@ public final class HBaseTables {
     public static final TableName AGENT_STAT_VER2 = TableName.valueOf("AgentStatV2");
 
     public static final byte[] AGENT_STAT_CF_STATISTICS = Bytes.toBytes("S"); // agent statistics column family
+
+    // pre-aggregated agent statistics, a column family per resolution
+    public static final TableName AGENT_STAT_ROLLUP = TableName.valueOf("AgentStatRollup");
+    public static final byte[] AGENT_STAT_ROLLUP_CF_1M = Bytes.toBytes("M1");
+    public static final byte[] AGENT_STAT_ROLLUP_CF_10M = Bytes.toBytes("M10");
+    public static final byte[] AGENT_STAT_ROLLUP_CF_1H = Bytes.toBytes("H1");
     // FIXME (2014.08) Legacy column for storing serialzied TAgentStat Thrift DTO.
     @Deprecated public static final byte[] AGENT_STAT_CF_STATISTICS_V1 = Bytes.toBytes("V1"); // qualifier
     // FIXME (2015.10) Legacy column for storing serialzied Bos separately.
@@ -117,6 +123,9 @@ public final class HBaseTables {
     public static final TableName MAP_STATISTICS_SELF_VER2 = TableName.valueOf("ApplicationMapStatisticsSelf_Ver2");
     public static final byte[] MAP_STATISTICS_SELF_VER2_CF_COUNTER = Bytes.toBytes("C");
 
+    public static final TableName APPLICATION_SCATTER_TILE = TableName.valueOf("ApplicationScatterTile");
+    public static final byte[] APPLICATION_SCATTER_TILE_CF_COUNTER = Bytes.toBytes("C");
+
     public static final TableName HOST_APPLICATION_MAP_VER2 = TableName.valueOf("HostApplicationMap_Ver2");
     public static final byte[] HOST_APPLICATION_MAP_VER2_CF_MAP = Bytes.toBytes("M");
 
@@ -124,6 +124,12 @@ public interface HbaseOperations2 {
     <T> List<T> findParallel(TableName tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, int limit, final RowMapper<T> action, final LimitEventHandler limitEventHandler, int numParallelThreads);
     <T> T findParallel(TableName tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, final ResultsExtractor<T> action, int numParallelThreads);
 
+    /**
+     * @param ordered {@code false} hands results to the extractor as they arrive instead of in row key order.
+     *                Only for extractors that aggregate regardless of order, never for paging or limited scans.
+     */
+    <T> T findParallel(TableName tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, final ResultsExtractor<T> action, int numParallelThreads, boolean ordered);
+
     Result increment(TableName tableName, final Increment increment);
 
     /**
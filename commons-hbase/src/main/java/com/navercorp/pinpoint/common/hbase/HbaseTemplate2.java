@@ -18,6 +18,8 @@ package com.navercorp.pinpoint.common.hbase;
 
 import com.google.common.collect.Lists;
 import com.navercorp.pinpoint.common.hbase.parallel.ParallelResultScanner;
+import com.navercorp.pinpoint.common.hbase.parallel.ScanMemoryBudget;
+import com.navercorp.pinpoint.common.hbase.parallel.ScanTaskConfig;
 import com.navercorp.pinpoint.common.hbase.parallel.ScanTaskException;
 import com.navercorp.pinpoint.common.util.ExecutorFactory;
 import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
@@ -74,6 +76,9 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
     private boolean enableParallelScan = false;
     private int maxThreads = DEFAULT_MAX_THREADS_FOR_PARALLEL_SCANNER;
     private int maxThreadsPerParallelScan = DEFAULT_MAX_THREADS_PER_PARALLEL_SCAN;
+    private int parallelScanBatchSize = ScanTaskConfig.DEFAULT_SCAN_TASK_BATCH_SIZE;
+    private long parallelScanMemoryBudget = 0;
+    private ScanMemoryBudget scanMemoryBudget = ScanMemoryBudget.UNLIMITED;
 
     private HBaseAsyncOperation asyncOperation = DisabledHBaseAsyncOperation.INSTANCE;
 
@@ -96,6 +101,17 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         this.maxThreadsPerParallelScan = maxThreadsPerParallelScan;
     }
 
+    public void setParallelScanBatchSize(int parallelScanBatchSize) {
+        this.parallelScanBatchSize = parallelScanBatchSize;
+    }
+
+    /**
+     * @param parallelScanMemoryBudget max bytes of results prefetched by all parallel scans, 0 or less for unlimited
+     */
+    public void setParallelScanMemoryBudget(long parallelScanMemoryBudget) {
+        this.parallelScanMemoryBudget = parallelScanMemoryBudget;
+    }
+
     public void setAsyncOperation(HBaseAsyncOperation asyncOperation) {
         if (asyncOperation == null) {
             throw new NullPointerException("asyncOperation");
@@ -115,6 +131,12 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         } else {
             this.executor = ExecutorFactory.newFixedThreadPool(this.maxThreads, 1024, parallelScannerThreadFactory);
         }
+        if (this.parallelScanBatchSize <= 0) {
+            this.parallelScanBatchSize = ScanTaskConfig.DEFAULT_SCAN_TASK_BATCH_SIZE;
+        }
+        if (this.parallelScanMemoryBudget > 0) {
+            this.scanMemoryBudget = new ScanMemoryBudget(this.parallelScanMemoryBudget);
+        }
     }
 
     @Override
@@ -620,7 +642,7 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         } else {
             int numThreadsUsed = numParallelThreads < this.maxThreadsPerParallelScan ? numParallelThreads : this.maxThreadsPerParallelScan;
             final ResultsExtractor<List<T>> resultsExtractor = new RowMapperResultsExtractor<>(action);
-            return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, resultsExtractor, numThreadsUsed);
+            return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, resultsExtractor, numThreadsUsed, true);
         }
     }
 
@@ -632,7 +654,7 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         } else {
             int numThreadsUsed = numParallelThreads < this.maxThreadsPerParallelScan ? numParallelThreads : this.maxThreadsPerParallelScan;
             final ResultsExtractor<List<T>> resultsExtractor = new LimitRowMapperResultsExtractor<>(action, limit);
-            return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, resultsExtractor, numThreadsUsed);
+            return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, resultsExtractor, numThreadsUsed, true);
         }
     }
 
@@ -644,22 +666,27 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         } else {
             int numThreadsUsed = numParallelThreads < this.maxThreadsPerParallelScan ? numParallelThreads : this.maxThreadsPerParallelScan;
             final LimitRowMapperResultsExtractor<T> resultsExtractor = new LimitRowMapperResultsExtractor<>(action, limit, limitEventHandler);
-            return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, resultsExtractor, numThreadsUsed);
+            return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, resultsExtractor, numThreadsUsed, true);
         }
     }
 
     @Override
     public <T> T findParallel(TableName tableName, Scan scan, AbstractRowKeyDistributor rowKeyDistributor, ResultsExtractor<T> action, int numParallelThreads) {
+        return findParallel(tableName, scan, rowKeyDistributor, action, numParallelThreads, true);
+    }
+
+    @Override
+    public <T> T findParallel(TableName tableName, Scan scan, AbstractRowKeyDistributor rowKeyDistributor, ResultsExtractor<T> action, int numParallelThreads, boolean ordered) {
         if (!this.enableParallelScan || numParallelThreads <= 1) {
             // use DistributedScanner if parallel scan is disabled or if called to use a single thread
             return find(tableName, scan, rowKeyDistributor, action);
         } else {
             int numThreadsUsed = numParallelThreads < this.maxThreadsPerParallelScan ? numParallelThreads : this.maxThreadsPerParallelScan;
-            return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, action, numThreadsUsed);
+            return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, action, numThreadsUsed, ordered);
         }
     }
 
-    protected final <T> T executeParallelDistributedScan(TableName tableName, Scan scan, AbstractRowKeyDistributor rowKeyDistributor, ResultsExtractor<T> action, int numParallelThreads) {
+    protected final <T> T executeParallelDistributedScan(TableName tableName, Scan scan, AbstractRowKeyDistributor rowKeyDistributor, ResultsExtractor<T> action, int numParallelThreads, boolean ordered) {
         assertAccessAvailable();
         try {
             StopWatch watch = null;
@@ -667,7 +694,8 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
                 watch = new StopWatch();
                 watch.start();
             }
-            ParallelResultScanner scanner = new ParallelResultScanner(tableName, this, this.executor, scan, rowKeyDistributor, numParallelThreads);
+            ParallelResultScanner scanner = new ParallelResultScanner(tableName, this, this.executor, scan, rowKeyDistributor, numParallelThreads,
+                    this.parallelScanBatchSize, this.scanMemoryBudget, ordered);
             if (debugEnabled) {
                 logger.debug("ParallelDistributedScanner createTime: {}ms", watch.stop());
                 watch.start();
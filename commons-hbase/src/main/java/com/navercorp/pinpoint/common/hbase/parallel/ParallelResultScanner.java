@@ -27,9 +27,15 @@ import org.apache.hadoop.hbase.util.Bytes;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * @author HyunGil Jeong
@@ -38,10 +44,29 @@ public class ParallelResultScanner implements ResultScanner {
 
     private final AbstractRowKeyDistributor keyDistributor;
     private final List<ScanTask> scanTasks;
-    private final Result[] nextResults;
+    private final boolean ordered;
     private Result next = null;
 
+    // ordered : k-way merge of the task heads by original(unsalted) row key
+    private PriorityQueue<ScanHead> mergeQueue;
+
+    // unordered : tasks are drained in the order their batches become ready
+    private final BlockingQueue<ScanTask> readyQueue;
+    private final Set<ScanTask> finishedTasks;
+    private Result[] currentResults = new Result[0];
+    private int currentIndex = 0;
+
     public ParallelResultScanner(TableName tableName, HbaseAccessor hbaseAccessor, ExecutorService executor, Scan originalScan, AbstractRowKeyDistributor keyDistributor, int numParallelThreads) throws IOException {
+        this(tableName, hbaseAccessor, executor, originalScan, keyDistributor, numParallelThreads, ScanTaskConfig.DEFAULT_SCAN_TASK_BATCH_SIZE, ScanMemoryBudget.UNLIMITED, true);
+    }
+
+    /**
+     * @param scanTaskBatchSize number of results each task prefetches and hands over at once
+     * @param memoryBudget bytes of prefetched results shared by every task
+     * @param ordered true to return results sorted by the original row key, false to return them as they arrive
+     */
+    public ParallelResultScanner(TableName tableName, HbaseAccessor hbaseAccessor, ExecutorService executor, Scan originalScan, AbstractRowKeyDistributor keyDistributor, int numParallelThreads,
+                                 int scanTaskBatchSize, ScanMemoryBudget memoryBudget, boolean ordered) throws IOException {
         if (hbaseAccessor == null) {
             throw new NullPointerException("hbaseAccessor must not be null");
         }
@@ -55,12 +80,19 @@ public class ParallelResultScanner implements ResultScanner {
             throw new NullPointerException("originalScan must not be null");
         }
         this.keyDistributor = keyDistributor;
+        this.ordered = ordered;
+        if (ordered) {
+            this.readyQueue = null;
+            this.finishedTasks = null;
+        } else {
+            this.readyQueue = new LinkedBlockingQueue<>();
+            this.finishedTasks = Collections.newSetFromMap(new IdentityHashMap<ScanTask, Boolean>());
+        }
 
-        final ScanTaskConfig scanTaskConfig = new ScanTaskConfig(tableName, hbaseAccessor, keyDistributor, originalScan.getCaching());
+        final ScanTaskConfig scanTaskConfig = new ScanTaskConfig(tableName, hbaseAccessor, keyDistributor, originalScan.getCaching(), scanTaskBatchSize, memoryBudget);
         final Scan[] splitScans = splitScans(originalScan);
 
         this.scanTasks = createScanTasks(scanTaskConfig, splitScans, numParallelThreads);
-        this.nextResults = new Result[scanTasks.size()];
         for (ScanTask scanTask : scanTasks) {
             executor.execute(scanTask);
         }
@@ -79,7 +111,7 @@ public class ParallelResultScanner implements ResultScanner {
         if (splitScans.length <= numParallelThreads) {
             List<ScanTask> scanTasks = new ArrayList<>(splitScans.length);
             for (Scan scan : splitScans) {
-                scanTasks.add(new ScanTask(scanTaskConfig, scan));
+                scanTasks.add(new ScanTask(scanTaskConfig, readyQueue, scan));
             }
             return scanTasks;
         } else {
@@ -94,7 +126,7 @@ public class ParallelResultScanner implements ResultScanner {
             List<ScanTask> scanTasks = new ArrayList<>(numParallelThreads);
             for (List<Scan> scanDistribution : scanDistributions) {
                 Scan[] scansForSingleTask = scanDistribution.toArray(new Scan[scanDistribution.size()]);
-                scanTasks.add(new ScanTask(scanTaskConfig, scansForSingleTask));
+                scanTasks.add(new ScanTask(scanTaskConfig, readyQueue, scansForSingleTask));
             }
             return scanTasks;
         }
@@ -119,35 +151,68 @@ public class ParallelResultScanner implements ResultScanner {
     }
 
     private Result nextInternal() throws IOException {
-        Result result = null;
-        int indexOfResultToUse = -1;
-        for (int i = 0; i < this.scanTasks.size(); i++) {
-            ScanTask scanTask = this.scanTasks.get(i);
-            // fail fast in case of errors
-            checkTask(scanTask);
-            if (nextResults[i] == null) {
-                try {
-                    nextResults[i] = scanTask.getResult();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return null;
-                }
-                if (nextResults[i] == null) {
-                    continue;
-                }
+        try {
+            if (ordered) {
+                return nextOrdered();
+            } else {
+                return nextUnordered();
             }
-            if (result == null || Bytes.compareTo(keyDistributor.getOriginalKey(nextResults[i].getRow()),
-                    keyDistributor.getOriginalKey(result.getRow())) < 0) {
-                result = nextResults[i];
-                indexOfResultToUse = i;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private Result nextOrdered() throws InterruptedException {
+        if (mergeQueue == null) {
+            mergeQueue = new PriorityQueue<>(Math.max(scanTasks.size(), 1));
+            for (ScanTask scanTask : scanTasks) {
+                ScanHead head = new ScanHead(scanTask);
+                if (head.advance()) {
+                    mergeQueue.add(head);
+                }
             }
         }
-        if (indexOfResultToUse >= 0) {
-            nextResults[indexOfResultToUse] = null;
+        final ScanHead head = mergeQueue.poll();
+        if (head == null) {
+            return null;
+        }
+        final Result result = head.result;
+        if (head.advance()) {
+            mergeQueue.add(head);
         }
         return result;
     }
 
+    private Result nextUnordered() throws InterruptedException {
+        while (true) {
+            if (currentIndex < currentResults.length) {
+                final Result result = currentResults[currentIndex];
+                currentResults[currentIndex++] = null;
+                return result;
+            }
+            if (finishedTasks.size() == scanTasks.size()) {
+                return null;
+            }
+            final ScanTask scanTask = readyQueue.take();
+            // fail fast in case of errors
+            checkTask(scanTask);
+            final Result[] results = scanTask.pollResults();
+            if (results == null) {
+                // already consumed by an earlier notification
+                continue;
+            }
+            if (results.length == 0) {
+                // the task may have ended because of an error
+                checkTask(scanTask);
+                finishedTasks.add(scanTask);
+                continue;
+            }
+            this.currentResults = results;
+            this.currentIndex = 0;
+        }
+    }
+
     private void checkTask(ScanTask scanTask) {
         Throwable th = scanTask.getThrowable();
         if (th != null) {
@@ -178,6 +243,35 @@ public class ParallelResultScanner implements ResultScanner {
         }
     }
 
+    private class ScanHead implements Comparable<ScanHead> {
+        private final ScanTask scanTask;
+        private Result result;
+        private byte[] originalKey;
+
+        private ScanHead(ScanTask scanTask) {
+            this.scanTask = scanTask;
+        }
+
+        private boolean advance() throws InterruptedException {
+            // fail fast in case of errors
+            checkTask(scanTask);
+            this.result = scanTask.getResult();
+            if (this.result == null) {
+                // the task may have ended because of an error
+                checkTask(scanTask);
+                this.originalKey = null;
+                return false;
+            }
+            this.originalKey = keyDistributor.getOriginalKey(result.getRow());
+            return true;
+        }
+
+        @Override
+        public int compareTo(ScanHead other) {
+            return Bytes.compareTo(this.originalKey, other.originalKey);
+        }
+    }
+
     @Override
     public Iterator<Result> iterator() {
         // Identical to HTable.ClientScanner implementation
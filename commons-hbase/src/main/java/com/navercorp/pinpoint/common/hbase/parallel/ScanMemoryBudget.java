@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.parallel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the bytes of prefetched scan results held by all scan tasks sharing this budget.
+ * A task whose queue is empty may always go over the budget, otherwise an ordered merge waiting on that task
+ * could deadlock against the other tasks holding the whole budget.
+ */
+public class ScanMemoryBudget {
+
+    public static final ScanMemoryBudget UNLIMITED = new ScanMemoryBudget(Long.MAX_VALUE);
+
+    private static final long WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final long maxBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private long usedBytes;
+
+    public ScanMemoryBudget(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be greater than 0");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public interface Waiter {
+        /**
+         * @return true if the waiter may take the budget regardless of the remaining bytes
+         */
+        boolean canOverflow();
+
+        boolean isCancelled();
+    }
+
+    /**
+     * @return false if cancelled while waiting
+     */
+    public boolean acquire(long bytes, Waiter waiter) throws InterruptedException {
+        if (maxBytes == Long.MAX_VALUE) {
+            return true;
+        }
+        lock.lockInterruptibly();
+        try {
+            while (usedBytes + bytes > maxBytes && !waiter.canOverflow()) {
+                if (waiter.isCancelled()) {
+                    return false;
+                }
+                // timed wait, the waiter's own state is not guarded by this lock
+                released.awaitNanos(WAIT_NANOS);
+            }
+            usedBytes += bytes;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long bytes) {
+        if (maxBytes == Long.MAX_VALUE || bytes == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            usedBytes -= bytes;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getUsedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -26,28 +26,47 @@ import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.client.Table;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 
 /**
+ * Prefetches results of its scans in batches of {@link ScanTaskConfig#getScanTaskBatchSize()}.
+ * Queued batches are charged to the shared {@link ScanMemoryBudget} until the consumer takes them.
+ *
  * @author HyunGil Jeong
  */
 public class ScanTask implements Runnable {
 
-    private static final Result END_RESULT = new Result();
+    private static final Result[] EMPTY_RESULTS = new Result[0];
+    private static final ResultChunk END_CHUNK = new ResultChunk(EMPTY_RESULTS, 0);
 
     private final TableName tableName;
     private final TableFactory tableFactory;
     private final AbstractRowKeyDistributor rowKeyDistributor;
 
     private final Scan[] scans;
-    private final BlockingQueue<Result> resultQueue;
+    private final int batchSize;
+    private final ScanMemoryBudget memoryBudget;
+    private final BlockingQueue<ResultChunk> resultQueue;
+    // notified for every chunk offered, may be null
+    private final BlockingQueue<ScanTask> readyQueue;
 
     private volatile Throwable throwable;
     private volatile boolean isQueueClosed = false;
     private volatile boolean isDone = false;
+    private volatile boolean isClosed = false;
+
+    // consumer side
+    private Result[] currentResults = EMPTY_RESULTS;
+    private int currentIndex = 0;
 
     public ScanTask(ScanTaskConfig scanTaskConfig, Scan... scans) {
+        this(scanTaskConfig, null, scans);
+    }
+
+    public ScanTask(ScanTaskConfig scanTaskConfig, BlockingQueue<ScanTask> readyQueue, Scan... scans) {
         if (scanTaskConfig == null) {
             throw new NullPointerException("scanTaskConfig must not be null");
         }
@@ -61,36 +80,91 @@ public class ScanTask implements Runnable {
         this.tableFactory = scanTaskConfig.getTableFactory();
         this.rowKeyDistributor = scanTaskConfig.getRowKeyDistributor();
         this.scans = scans;
-        this.resultQueue = new ArrayBlockingQueue<>(scanTaskConfig.getScanTaskQueueSize());
+        this.batchSize = scanTaskConfig.getScanTaskBatchSize();
+        this.memoryBudget = scanTaskConfig.getMemoryBudget();
+        this.readyQueue = readyQueue;
+        final int queueSize = Math.max(scanTaskConfig.getScanTaskQueueSize() / batchSize, 2);
+        this.resultQueue = new ArrayBlockingQueue<>(queueSize);
     }
 
     @Override
     public void run() {
         Table table = null;
+        ResultScanner scanner = null;
         try {
             table = tableFactory.getTable(this.tableName);
-            ResultScanner scanner = createResultScanner(table);
-            try {
-                for (Result result : scanner) {
-                    this.resultQueue.put(result);
-                    if (this.isDone) {
-                        break;
-                    }
+            scanner = createResultScanner(table);
+            final ScanMemoryBudget.Waiter waiter = new BudgetWaiter();
+            while (!this.isDone) {
+                final Result[] results = scanner.next(batchSize);
+                if (results == null || results.length == 0) {
+                    break;
                 }
-            } finally {
-                this.isDone = true;
-                this.resultQueue.put(END_RESULT);
-                scanner.close();
+                final long size = sizeOf(results);
+                if (!memoryBudget.acquire(size, waiter)) {
+                    break;
+                }
+                if (this.isClosed) {
+                    memoryBudget.release(size);
+                    break;
+                }
+                offer(new ResultChunk(results, size));
             }
         } catch (Throwable th) {
+            // must be visible before END_CHUNK is, the consumer checks for errors once the queue is closed
             this.throwable = th;
-            this.resultQueue.clear();
-            this.resultQueue.offer(END_RESULT);
         } finally {
-            tableFactory.releaseTable(table);
+            this.isDone = true;
+            try {
+                if (this.isClosed) {
+                    // consumer is gone, give back whatever was queued after close()
+                    releaseQueuedChunks();
+                } else {
+                    offerEnd();
+                }
+                if (scanner != null) {
+                    scanner.close();
+                }
+            } finally {
+                tableFactory.releaseTable(table);
+            }
         }
     }
 
+    private void offerEnd() {
+        try {
+            this.resultQueue.put(END_CHUNK);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (this.throwable == null) {
+                this.throwable = e;
+            }
+            // make room so that the consumer does not wait forever
+            releaseQueuedChunks();
+            this.resultQueue.offer(END_CHUNK);
+        }
+        notifyReady();
+    }
+
+    private void offer(ResultChunk chunk) throws InterruptedException {
+        this.resultQueue.put(chunk);
+        notifyReady();
+    }
+
+    private void notifyReady() {
+        if (readyQueue != null) {
+            readyQueue.offer(this);
+        }
+    }
+
+    private static long sizeOf(Result[] results) {
+        long size = 0;
+        for (Result result : results) {
+            size += Result.getTotalSizeOfCells(result);
+        }
+        return size;
+    }
+
     private ResultScanner createResultScanner(Table table) throws IOException {
         if (scans.length == 1) {
             Scan scan = scans[0];
@@ -104,27 +178,101 @@ public class ScanTask implements Runnable {
         }
     }
 
+    /**
+     * Blocks until the next result is available.
+     * @return null if there are no more results
+     */
     public Result getResult() throws InterruptedException {
+        while (true) {
+            if (currentIndex < currentResults.length) {
+                final Result result = currentResults[currentIndex];
+                currentResults[currentIndex++] = null;
+                return result;
+            }
+            if (this.isQueueClosed) {
+                return null;
+            }
+            final Result[] results = takeChunk(this.resultQueue.take());
+            if (results == null) {
+                return null;
+            }
+            this.currentResults = results;
+            this.currentIndex = 0;
+        }
+    }
+
+    /**
+     * Takes the next prefetched batch without blocking. Must not be mixed with {@link #getResult()}.
+     * @return null if nothing is ready yet, an empty array if there are no more results
+     */
+    public Result[] pollResults() {
         if (this.isQueueClosed) {
+            return EMPTY_RESULTS;
+        }
+        final ResultChunk chunk = this.resultQueue.poll();
+        if (chunk == null) {
             return null;
         }
-        Result take = this.resultQueue.take();
-        if (take == END_RESULT) {
+        final Result[] results = takeChunk(chunk);
+        if (results == null) {
+            return EMPTY_RESULTS;
+        }
+        return results;
+    }
+
+    private Result[] takeChunk(ResultChunk chunk) {
+        if (chunk == END_CHUNK) {
             this.isQueueClosed = true;
             return null;
         }
-        return take;
+        memoryBudget.release(chunk.size);
+        return chunk.results;
+    }
+
+    public boolean isQueueClosed() {
+        return isQueueClosed;
     }
 
     public void close() {
+        this.isClosed = true;
         this.isDone = true;
         // signal threads blocked on resultQueue
-        this.resultQueue.clear();
-        this.resultQueue.add(END_RESULT);
+        releaseQueuedChunks();
+        this.resultQueue.offer(END_CHUNK);
+    }
+
+    private void releaseQueuedChunks() {
+        final List<ResultChunk> chunks = new ArrayList<>();
+        this.resultQueue.drainTo(chunks);
+        for (ResultChunk chunk : chunks) {
+            memoryBudget.release(chunk.size);
+        }
     }
 
     public Throwable getThrowable() {
         return this.throwable;
     }
 
+    private class BudgetWaiter implements ScanMemoryBudget.Waiter {
+        @Override
+        public boolean canOverflow() {
+            // the consumer may be waiting on this task
+            return resultQueue.isEmpty();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return isDone;
+        }
+    }
+
+    private static final class ResultChunk {
+        private final Result[] results;
+        private final long size;
+
+        private ResultChunk(Result[] results, long size) {
+            this.results = results;
+            this.size = size;
+        }
+    }
 }
@@ -35,20 +35,38 @@ public class ScanTaskConfig {
     private final Charset charset;
     private final TableFactory tableFactory;
 
+    public static final int DEFAULT_SCAN_TASK_BATCH_SIZE = 1;
+
     private final AbstractRowKeyDistributor rowKeyDistributor;
     private final int scanTaskQueueSize;
+    private final int scanTaskBatchSize;
+    private final ScanMemoryBudget memoryBudget;
 
     public ScanTaskConfig(TableName tableName, HbaseAccessor hbaseAccessor, AbstractRowKeyDistributor rowKeyDistributor, int scanCaching) {
-        this(tableName, hbaseAccessor.getConfiguration(), hbaseAccessor.getCharset(), hbaseAccessor.getTableFactory(), rowKeyDistributor, scanCaching);
+        this(tableName, hbaseAccessor, rowKeyDistributor, scanCaching, DEFAULT_SCAN_TASK_BATCH_SIZE, ScanMemoryBudget.UNLIMITED);
+    }
+
+    public ScanTaskConfig(TableName tableName, HbaseAccessor hbaseAccessor, AbstractRowKeyDistributor rowKeyDistributor, int scanCaching, int scanTaskBatchSize, ScanMemoryBudget memoryBudget) {
+        this(tableName, hbaseAccessor.getConfiguration(), hbaseAccessor.getCharset(), hbaseAccessor.getTableFactory(), rowKeyDistributor, scanCaching, scanTaskBatchSize, memoryBudget);
     }
 
     public ScanTaskConfig(TableName tableName, Configuration configuration, Charset charset, TableFactory tableFactory, AbstractRowKeyDistributor rowKeyDistributor, int scanCaching) {
+        this(tableName, configuration, charset, tableFactory, rowKeyDistributor, scanCaching, DEFAULT_SCAN_TASK_BATCH_SIZE, ScanMemoryBudget.UNLIMITED);
+    }
+
+    public ScanTaskConfig(TableName tableName, Configuration configuration, Charset charset, TableFactory tableFactory, AbstractRowKeyDistributor rowKeyDistributor, int scanCaching, int scanTaskBatchSize, ScanMemoryBudget memoryBudget) {
         if (tableName == null) {
             throw new NullPointerException("No table specified");
         }
         if (rowKeyDistributor == null) {
             throw new NullPointerException("rowKeyDistributor must not be null");
         }
+        if (scanTaskBatchSize <= 0) {
+            throw new IllegalArgumentException("scanTaskBatchSize must be greater than 0");
+        }
+        if (memoryBudget == null) {
+            throw new NullPointerException("memoryBudget must not be null");
+        }
         this.tableName = tableName;
         this.configuration = configuration;
         this.charset = charset;
@@ -61,6 +79,8 @@ public class ScanTaskConfig {
                     HConstants.HBASE_CLIENT_SCANNER_CACHING,
                     HConstants.DEFAULT_HBASE_CLIENT_SCANNER_CACHING);
         }
+        this.scanTaskBatchSize = scanTaskBatchSize;
+        this.memoryBudget = memoryBudget;
     }
 
     public TableName getTableName() {
@@ -86,4 +106,12 @@ public class ScanTaskConfig {
     public int getScanTaskQueueSize() {
         return scanTaskQueueSize;
     }
+
+    public int getScanTaskBatchSize() {
+        return scanTaskBatchSize;
+    }
+
+    public ScanMemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
 }
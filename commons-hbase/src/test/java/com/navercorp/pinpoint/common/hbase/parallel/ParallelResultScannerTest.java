@@ -0,0 +1,244 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase.parallel;
+
+import com.navercorp.pinpoint.common.hbase.HbaseAccessor;
+import com.navercorp.pinpoint.common.hbase.TableFactory;
+import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.AbstractClientScanner;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ParallelResultScannerTest {
+
+    private static final TableName TABLE_NAME = TableName.valueOf("test");
+    private static final byte[] FAMILY = Bytes.toBytes("F");
+    private static final int ROW_SIZE = 200;
+
+    private final AbstractRowKeyDistributor keyDistributor = new RowKeyDistributorByHashPrefix(new RowKeyDistributorByHashPrefix.OneByteSimpleHash(8));
+
+    private ExecutorService executor;
+    private HbaseAccessor hbaseAccessor;
+    // scanners throw after returning this many rows, -1 to never throw
+    private volatile int failAfterRows = -1;
+
+    @Before
+    public void setUp() throws IOException {
+        executor = Executors.newFixedThreadPool(8);
+
+        final List<Result> rows = new ArrayList<>();
+        for (int i = 0; i < ROW_SIZE; i++) {
+            byte[] originalKey = Bytes.toBytes(String.format("row-%04d", i));
+            byte[] row = keyDistributor.getDistributedKey(originalKey);
+            Cell cell = new KeyValue(row, FAMILY, FAMILY, new byte[128]);
+            rows.add(Result.create(new Cell[] {cell}));
+        }
+
+        Table table = mock(Table.class);
+        when(table.getScanner(any(Scan.class))).thenAnswer(new Answer<ResultScanner>() {
+            @Override
+            public ResultScanner answer(InvocationOnMock invocation) {
+                Scan scan = (Scan) invocation.getArguments()[0];
+                return new ListResultScanner(rows, scan, failAfterRows);
+            }
+        });
+        TableFactory tableFactory = mock(TableFactory.class);
+        when(tableFactory.getTable(any(TableName.class))).thenReturn(table);
+
+        hbaseAccessor = new HbaseAccessor() {
+        };
+        hbaseAccessor.setConfiguration(new Configuration(false));
+        hbaseAccessor.setTableFactory(tableFactory);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void ordered() throws IOException {
+        ParallelResultScanner scanner = newScanner(4, 7, ScanMemoryBudget.UNLIMITED, true);
+        try {
+            byte[] prev = null;
+            int count = 0;
+            for (Result result : scanner) {
+                byte[] originalKey = keyDistributor.getOriginalKey(result.getRow());
+                if (prev != null) {
+                    Assert.assertTrue(Bytes.compareTo(prev, originalKey) < 0);
+                }
+                prev = originalKey;
+                count++;
+            }
+            Assert.assertEquals(ROW_SIZE, count);
+        } finally {
+            scanner.close();
+        }
+    }
+
+    @Test
+    public void unordered() throws IOException {
+        ParallelResultScanner scanner = newScanner(8, 5, ScanMemoryBudget.UNLIMITED, false);
+        try {
+            Set<String> keys = new HashSet<>();
+            for (Result result : scanner) {
+                keys.add(Bytes.toString(keyDistributor.getOriginalKey(result.getRow())));
+            }
+            Assert.assertEquals(ROW_SIZE, keys.size());
+        } finally {
+            scanner.close();
+        }
+    }
+
+    @Test
+    public void memoryBudget() throws IOException {
+        // smaller than a single batch, tasks may only go over the budget while their queue is empty
+        ScanMemoryBudget memoryBudget = new ScanMemoryBudget(256);
+        ParallelResultScanner scanner = newScanner(8, 4, memoryBudget, true);
+        try {
+            int count = 0;
+            Iterator<Result> iterator = scanner.iterator();
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+            Assert.assertEquals(ROW_SIZE, count);
+        } finally {
+            scanner.close();
+        }
+        Assert.assertEquals(0, memoryBudget.getUsedBytes());
+    }
+
+    @Test
+    public void close_releaseBudget() throws IOException, InterruptedException {
+        ScanMemoryBudget memoryBudget = new ScanMemoryBudget(1024 * 1024);
+        ParallelResultScanner scanner = newScanner(8, 4, memoryBudget, false);
+        Assert.assertNotNull(scanner.next());
+        scanner.close();
+
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        Assert.assertEquals(0, memoryBudget.getUsedBytes());
+    }
+
+    @Test(expected = ScanTaskException.class)
+    public void ordered_scanError() throws IOException {
+        failAfterRows = 10;
+        ParallelResultScanner scanner = newScanner(4, 7, ScanMemoryBudget.UNLIMITED, true);
+        try {
+            for (Result result : scanner) {
+                Assert.assertNotNull(result);
+            }
+        } finally {
+            scanner.close();
+        }
+    }
+
+    @Test(expected = ScanTaskException.class)
+    public void unordered_scanError() throws IOException {
+        failAfterRows = 10;
+        ParallelResultScanner scanner = newScanner(8, 7, ScanMemoryBudget.UNLIMITED, false);
+        try {
+            for (Result result : scanner) {
+                Assert.assertNotNull(result);
+            }
+        } finally {
+            scanner.close();
+        }
+    }
+
+    private ParallelResultScanner newScanner(int numParallelThreads, int batchSize, ScanMemoryBudget memoryBudget, boolean ordered) throws IOException {
+        Scan scan = new Scan();
+        scan.setCaching(16);
+        return new ParallelResultScanner(TABLE_NAME, hbaseAccessor, executor, scan, keyDistributor, numParallelThreads, batchSize, memoryBudget, ordered);
+    }
+
+    private static class ListResultScanner extends AbstractClientScanner {
+        private final Iterator<Result> iterator;
+        private final int failAfterRows;
+        private int count = 0;
+
+        private ListResultScanner(List<Result> rows, Scan scan, int failAfterRows) {
+            this.failAfterRows = failAfterRows;
+            List<Result> scanned = new ArrayList<>();
+            for (Result result : rows) {
+                byte[] row = result.getRow();
+                if (Bytes.compareTo(row, scan.getStartRow()) >= 0 && (scan.getStopRow().length == 0 || Bytes.compareTo(row, scan.getStopRow()) < 0)) {
+                    scanned.add(result);
+                }
+            }
+            // scanners return rows sorted by the (salted) row key
+            Collections.sort(scanned, new Comparator<Result>() {
+                @Override
+                public int compare(Result o1, Result o2) {
+                    return Bytes.compareTo(o1.getRow(), o2.getRow());
+                }
+            });
+            this.iterator = scanned.iterator();
+        }
+
+        @Override
+        public Result next() throws IOException {
+            if (failAfterRows >= 0 && count++ == failAfterRows) {
+                throw new IOException("scan failed");
+            }
+            if (iterator.hasNext()) {
+                return iterator.next();
+            }
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean renewLease() {
+            return true;
+        }
+    }
+}
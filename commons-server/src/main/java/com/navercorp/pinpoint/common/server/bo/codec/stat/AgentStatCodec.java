@@ -51,4 +51,15 @@ public interface AgentStatCodec<T> {
 
     }
 
+    /**
+     * {@link CodecDecoder} that also exposes the decoded values as primitive columns, one per field.
+     */
+    interface ColumnCodecDecoder<T> extends CodecDecoder<T> {
+
+        int getColumnCount();
+
+        long[] getColumn(int columnIndex);
+
+    }
+
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+
+/**
+ * Implemented by the {@link AgentStatCodec}s able to decode a cell into {@link AgentStatColumns}.
+ */
+public interface AgentStatColumnCodec {
+
+    byte getVersion();
+
+    /**
+     * @return false if the fields of the data points can not be decoded as columns
+     */
+    boolean isColumnSupported();
+
+    /**
+     * Reads the same bytes as {@link AgentStatCodec#decodeValues(Buffer, AgentStatDecodingContext)}.
+     */
+    AgentStatColumns decodeColumns(Buffer valueBuffer, AgentStatDecodingContext decodingContext);
+
+}
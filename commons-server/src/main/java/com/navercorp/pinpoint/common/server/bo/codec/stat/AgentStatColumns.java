@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat;
+
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+
+/**
+ * Data points of a single agent stat cell decoded into primitive arrays, one array per field, instead of one
+ * {@link com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint} per data point.
+ * The column indexes are defined by the codec that decoded the cell.
+ */
+public class AgentStatColumns {
+
+    private final String agentId;
+    private final int typeCode;
+    private final long[] startTimestamps;
+    private final long[] timestamps;
+    private final long[][] columns;
+
+    public AgentStatColumns(String agentId, long[] startTimestamps, long[] timestamps, long[][] columns) {
+        this(agentId, 0, startTimestamps, timestamps, columns);
+    }
+
+    /**
+     * @param typeCode type shared by every data point of the cell, such as the gc type of jvm gc stats
+     */
+    public AgentStatColumns(String agentId, int typeCode, long[] startTimestamps, long[] timestamps, long[][] columns) {
+        if (startTimestamps == null) {
+            throw new NullPointerException("startTimestamps must not be null");
+        }
+        if (timestamps == null) {
+            throw new NullPointerException("timestamps must not be null");
+        }
+        if (columns == null) {
+            throw new NullPointerException("columns must not be null");
+        }
+        if (startTimestamps.length != timestamps.length) {
+            throw new IllegalArgumentException("startTimestamps and timestamps must have the same size");
+        }
+        for (long[] column : columns) {
+            if (column.length != timestamps.length) {
+                throw new IllegalArgumentException("columns must have the same size as timestamps");
+            }
+        }
+        this.agentId = agentId;
+        this.typeCode = typeCode;
+        this.startTimestamps = startTimestamps;
+        this.timestamps = timestamps;
+        this.columns = columns;
+    }
+
+    public String getAgentId() {
+        return agentId;
+    }
+
+    public int getTypeCode() {
+        return typeCode;
+    }
+
+    public int getSize() {
+        return timestamps.length;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public long[] getStartTimestamps() {
+        return startTimestamps;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public long[] getColumn(int columnIndex) {
+        return columns[columnIndex];
+    }
+
+    /**
+     * @return the column converted back with {@link AgentStatUtils#convertLongToDouble(long)}, for fields encoded
+     * from a double such as cpu loads
+     */
+    public double[] getDoubleColumn(int columnIndex) {
+        final long[] column = columns[columnIndex];
+        final double[] doubleColumn = new double[column.length];
+        for (int i = 0; i < column.length; i++) {
+            doubleColumn[i] = AgentStatUtils.convertLongToDouble(column[i]);
+        }
+        return doubleColumn;
+    }
+
+    @Override
+    public String toString() {
+        return "AgentStatColumns{" +
+                "agentId='" + agentId + '\'' +
+                ", typeCode=" + typeCode +
+                ", size=" + timestamps.length +
+                ", columnCount=" + columns.length +
+                '}';
+    }
+}
@@ -46,4 +46,43 @@ public class AgentStatDecoder<T extends AgentStatDataPoint> {
         }
         throw new IllegalArgumentException("Unknown version : " + version);
     }
+
+    /**
+     * @return true if every codec can decode its values as {@link AgentStatColumns}
+     */
+    public boolean isColumnSupported() {
+        for (AgentStatCodec<T> codec : this.codecs) {
+            if (!(codec instanceof AgentStatColumnCodec)) {
+                return false;
+            }
+            if (!((AgentStatColumnCodec) codec).isColumnSupported()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the value as primitive columns instead of data points.
+     *
+     * @return null if the codec of the value does not support column decoding, the value buffer is left untouched
+     * so that it can still be read by {@link #decodeValue(Buffer, AgentStatDecodingContext)}
+     */
+    public AgentStatColumns decodeColumns(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
+        final int offset = valueBuffer.getOffset();
+        byte version = valueBuffer.readByte();
+        for (AgentStatCodec<T> codec : this.codecs) {
+            if (version == codec.getVersion()) {
+                if (codec instanceof AgentStatColumnCodec) {
+                    final AgentStatColumnCodec columnCodec = (AgentStatColumnCodec) codec;
+                    if (columnCodec.isColumnSupported()) {
+                        return columnCodec.decodeColumns(valueBuffer, decodingContext);
+                    }
+                }
+                valueBuffer.setOffset(offset);
+                return null;
+            }
+        }
+        throw new IllegalArgumentException("Unknown version : " + version);
+    }
 }
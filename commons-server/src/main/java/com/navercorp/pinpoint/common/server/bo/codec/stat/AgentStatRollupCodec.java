@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.RollupValue;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodes the cells of the agent stat rollup table.
+ * <p>
+ * The qualifier is the bucket timestamp followed by the timestamp of the first data point of the rollup,
+ * so that a rollup rewritten with more batches merged in overwrites its own cell.
+ * <pre>
+ * byte    version
+ * vlong   agent start timestamp
+ * vlong   last timestamp - first timestamp
+ * vint    sub type code
+ * vint    value count
+ *   vlong   count, followed by min, max and sum doubles if the count is not 0
+ * vint    counter count
+ *   svlong  first counter
+ *   svlong  last counter
+ * </pre>
+ */
+@Component
+public class AgentStatRollupCodec {
+
+    private static final byte VERSION = 1;
+
+    public byte[] encodeQualifier(AgentStatRollupBo rollupBo) {
+        if (rollupBo == null) {
+            throw new NullPointerException("rollupBo must not be null");
+        }
+        final byte[] qualifier = new byte[BytesUtils.LONG_BYTE_LENGTH * 2];
+        BytesUtils.writeLong(rollupBo.getTimestamp(), qualifier, 0);
+        BytesUtils.writeLong(rollupBo.getFirstTimestamp(), qualifier, BytesUtils.LONG_BYTE_LENGTH);
+        return qualifier;
+    }
+
+    public byte[] encodeValue(AgentStatRollupBo rollupBo) {
+        if (rollupBo == null) {
+            throw new NullPointerException("rollupBo must not be null");
+        }
+        final RollupValue[] values = rollupBo.getValues();
+        final long[] firstCounters = rollupBo.getFirstCounters();
+        final long[] lastCounters = rollupBo.getLastCounters();
+
+        final Buffer buffer = new AutomaticBuffer(32 + values.length * 28 + firstCounters.length * 10);
+        buffer.putByte(VERSION);
+        buffer.putVLong(rollupBo.getStartTimestamp());
+        buffer.putVLong(rollupBo.getLastTimestamp() - rollupBo.getFirstTimestamp());
+        buffer.putVInt(rollupBo.getSubTypeCode());
+        buffer.putVInt(values.length);
+        for (RollupValue value : values) {
+            buffer.putVLong(value.getCount());
+            if (!value.isEmpty()) {
+                buffer.putDouble(value.getMin());
+                buffer.putDouble(value.getMax());
+                buffer.putDouble(value.getSum());
+            }
+        }
+        buffer.putVInt(firstCounters.length);
+        for (int i = 0; i < firstCounters.length; i++) {
+            buffer.putSVLong(firstCounters[i]);
+            buffer.putSVLong(lastCounters[i]);
+        }
+        return buffer.getBuffer();
+    }
+
+    /**
+     * Fills the timestamps and values of the given rollup, the agent id, stat type and resolution are read from the row key.
+     */
+    public void decode(byte[] qualifier, byte[] value, AgentStatRollupBo rollupBo) {
+        if (qualifier == null) {
+            throw new NullPointerException("qualifier must not be null");
+        }
+        if (value == null) {
+            throw new NullPointerException("value must not be null");
+        }
+        if (rollupBo == null) {
+            throw new NullPointerException("rollupBo must not be null");
+        }
+        if (qualifier.length != BytesUtils.LONG_BYTE_LENGTH * 2) {
+            throw new IllegalArgumentException("invalid qualifier length:" + qualifier.length);
+        }
+        rollupBo.setTimestamp(BytesUtils.bytesToLong(qualifier, 0));
+        final long firstTimestamp = BytesUtils.bytesToLong(qualifier, BytesUtils.LONG_BYTE_LENGTH);
+        rollupBo.setFirstTimestamp(firstTimestamp);
+
+        final Buffer buffer = new FixedBuffer(value);
+        final byte version = buffer.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown version : " + version);
+        }
+        rollupBo.setStartTimestamp(buffer.readVLong());
+        rollupBo.setLastTimestamp(firstTimestamp + buffer.readVLong());
+        rollupBo.setSubTypeCode(buffer.readVInt());
+
+        final RollupValue[] values = new RollupValue[buffer.readVInt()];
+        for (int i = 0; i < values.length; i++) {
+            final long count = buffer.readVLong();
+            if (count == 0) {
+                values[i] = new RollupValue();
+            } else {
+                values[i] = new RollupValue(count, buffer.readDouble(), buffer.readDouble(), buffer.readDouble());
+            }
+        }
+        rollupBo.setValues(values);
+
+        final int counterCount = buffer.readVInt();
+        final long[] firstCounters = new long[counterCount];
+        final long[] lastCounters = new long[counterCount];
+        for (int i = 0; i < counterCount; i++) {
+            firstCounters[i] = buffer.readSVLong();
+            lastCounters[i] = buffer.readSVLong();
+        }
+        rollupBo.setCounters(firstCounters, lastCounters);
+    }
+}
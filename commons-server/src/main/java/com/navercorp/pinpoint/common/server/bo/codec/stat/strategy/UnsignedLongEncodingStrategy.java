@@ -65,6 +65,56 @@ public enum UnsignedLongEncodingStrategy implements EncodingStrategy<Long> {
         return this.delegate.decodeValues(buffer, numValues);
     }
 
+    /**
+     * Primitive counterpart of {@link #decodeValues(Buffer, int)}, reads the same bytes without boxing each value.
+     */
+    public long[] decodeLongValues(Buffer buffer, int numValues) {
+        final long[] values = new long[numValues];
+        if (numValues < 1) {
+            return values;
+        }
+        switch (this) {
+            case NONE:
+                for (int i = 0; i < numValues; i++) {
+                    values[i] = buffer.readVLong();
+                }
+                break;
+            case REPEAT_COUNT:
+                int totalCount = 0;
+                while (totalCount < numValues) {
+                    final int count = buffer.readVInt();
+                    final long value = buffer.readVLong();
+                    final int end = Math.min(totalCount + count, numValues);
+                    for (int i = totalCount; i < end; i++) {
+                        values[i] = value;
+                    }
+                    totalCount += count;
+                }
+                break;
+            case DELTA:
+                long previousValue = buffer.readVLong();
+                values[0] = previousValue;
+                for (int i = 1; i < numValues; i++) {
+                    previousValue ^= buffer.readVLong();
+                    values[i] = previousValue;
+                }
+                break;
+            case DELTA_OF_DELTA:
+                long value = buffer.readVLong();
+                long delta = 0;
+                values[0] = value;
+                for (int i = 1; i < numValues; i++) {
+                    delta += buffer.readSVLong();
+                    value += delta;
+                    values[i] = value;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown strategy : " + this);
+        }
+        return values;
+    }
+
     public static UnsignedLongEncodingStrategy getFromCode(int code) {
 
         for (UnsignedLongEncodingStrategy encodingStrategy : UNSIGNED_LONG_ENCODING_STRATEGY) {
@@ -18,6 +18,8 @@ package com.navercorp.pinpoint.common.server.bo.codec.stat.v1;
 
 import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumnCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.CodecFactory;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderDecoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderDecoder;
@@ -32,15 +34,17 @@ import java.util.List;
 /**
  * @author Taejin Koo
  */
-public class AgentStatCodecV1<T extends AgentStatDataPoint> implements AgentStatCodec<T> {
+public class AgentStatCodecV1<T extends AgentStatDataPoint> implements AgentStatCodec<T>, AgentStatColumnCodec {
 
     private static final byte VERSION = 1;
 
     private final CodecFactory<T> codecFactory;
+    private final boolean columnSupported;
 
     public AgentStatCodecV1(final CodecFactory<T> codecFactory) {
         Assert.notNull(codecFactory, "codecFactory must not be null");
         this.codecFactory = codecFactory;
+        this.columnSupported = codecFactory.createCodecDecoder() instanceof ColumnCodecDecoder;
     }
 
     @Override
@@ -96,5 +100,39 @@ public class AgentStatCodecV1<T extends AgentStatDataPoint> implements AgentStat
         return result;
     }
 
+    @Override
+    public boolean isColumnSupported() {
+        return columnSupported;
+    }
+
+    /**
+     * Version 1 does not store start timestamps, they are all 0 as with {@link #decodeValues(Buffer, AgentStatDecodingContext)}.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public AgentStatColumns decodeColumns(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
+        if (!columnSupported) {
+            throw new UnsupportedOperationException("column decoding not supported by " + codecFactory.getClass().getName());
+        }
+        final long initialTimestamp = decodingContext.getBaseTimestamp() + decodingContext.getTimestampDelta();
+
+        int numValues = valueBuffer.readVInt();
+        long[] timestamps = this.codecFactory.getCodec().decodeTimestampArray(initialTimestamp, valueBuffer, numValues);
+
+        final ColumnCodecDecoder<T> codecDecoder = (ColumnCodecDecoder<T>) this.codecFactory.createCodecDecoder();
+
+        // decode headers
+        final byte[] header = valueBuffer.readPrefixedBytes();
+        AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
+
+        codecDecoder.decode(valueBuffer, headerDecoder, numValues);
+
+        final long[][] columns = new long[codecDecoder.getColumnCount()][];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = codecDecoder.getColumn(i);
+        }
+        return new AgentStatColumns(decodingContext.getAgentId(), new long[numValues], timestamps, columns);
+    }
+
 
 }
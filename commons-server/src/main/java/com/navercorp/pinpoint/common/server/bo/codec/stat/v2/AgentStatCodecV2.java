@@ -18,6 +18,8 @@ package com.navercorp.pinpoint.common.server.bo.codec.stat.v2;
 
 import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumnCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.CodecFactory;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderDecoder;
@@ -34,15 +36,17 @@ import java.util.List;
 /**
  * @author Taejin Koo
  */
-public class AgentStatCodecV2<T extends AgentStatDataPoint> implements AgentStatCodec<T> {
+public class AgentStatCodecV2<T extends AgentStatDataPoint> implements AgentStatCodec<T>, AgentStatColumnCodec {
 
     private static final byte VERSION = 2;
 
     private final CodecFactory<T> codecFactory;
+    private final boolean columnSupported;
 
     public AgentStatCodecV2(final CodecFactory<T> codecFactory) {
         Assert.notNull(codecFactory, "codecFactory must not be null");
         this.codecFactory = codecFactory;
+        this.columnSupported = codecFactory.createCodecDecoder() instanceof ColumnCodecDecoder;
     }
 
     @Override
@@ -105,5 +109,37 @@ public class AgentStatCodecV2<T extends AgentStatDataPoint> implements AgentStat
         return result;
     }
 
+    @Override
+    public boolean isColumnSupported() {
+        return columnSupported;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AgentStatColumns decodeColumns(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
+        if (!columnSupported) {
+            throw new UnsupportedOperationException("column decoding not supported by " + codecFactory.getClass().getName());
+        }
+        final long initialTimestamp = decodingContext.getBaseTimestamp() + decodingContext.getTimestampDelta();
+
+        int numValues = valueBuffer.readVInt();
+        final AgentStatDataPointCodec codec = codecFactory.getCodec();
+        long[] startTimestamps = codec.decodeValueArray(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, numValues);
+        long[] timestamps = codec.decodeTimestampArray(initialTimestamp, valueBuffer, numValues);
+
+        ColumnCodecDecoder<T> codecDecoder = (ColumnCodecDecoder<T>) codecFactory.createCodecDecoder();
+
+        // decode headers
+        final byte[] header = valueBuffer.readPrefixedBytes();
+        AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
+
+        codecDecoder.decode(valueBuffer, headerDecoder, numValues);
+
+        final long[][] columns = new long[codecDecoder.getColumnCount()][];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = codecDecoder.getColumn(i);
+        }
+        return new AgentStatColumns(decodingContext.getAgentId(), startTimestamps, timestamps, columns);
+    }
 
 }
@@ -25,21 +25,22 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeader
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
-import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import java.util.List;
-
 /**
  * @author HyunGil Jeong
  */
 @Component("cpuLoadCodecV2")
 public class CpuLoadCodecV2 extends AgentStatCodecV2<CpuLoadBo> {
 
+    public static final int JVM_CPU_LOAD_COLUMN = 0;
+    public static final int SYSTEM_CPU_LOAD_COLUMN = 1;
+    static final int COLUMN_COUNT = 2;
+
     @Autowired
     public CpuLoadCodecV2(AgentStatDataPointCodec codec) {
         super(new CpuLoadCodecFactory(codec));
@@ -106,12 +107,12 @@ public class CpuLoadCodecV2 extends AgentStatCodecV2<CpuLoadBo> {
 
     }
 
-    public static class CpuLoadCodecDecoder implements AgentStatCodec.CodecDecoder<CpuLoadBo> {
+    public static class CpuLoadCodecDecoder implements AgentStatCodec.ColumnCodecDecoder<CpuLoadBo> {
 
         private final AgentStatDataPointCodec codec;
 
-        private List<Long> jvmCpuLoads;
-        private List<Long> systemCpuLoads;
+        private long[] jvmCpuLoads;
+        private long[] systemCpuLoads;
 
         public CpuLoadCodecDecoder(AgentStatDataPointCodec codec) {
             Assert.notNull(codec, "codec must not be null");
@@ -120,21 +121,38 @@ public class CpuLoadCodecV2 extends AgentStatCodecV2<CpuLoadBo> {
 
         @Override
         public void decode(Buffer valueBuffer, AgentStatHeaderDecoder headerDecoder, int valueSize) {
-            EncodingStrategy<Long> jvmCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> systemCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy jvmCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy systemCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
             // decode values
-            this.jvmCpuLoads = this.codec.decodeValues(valueBuffer, jvmCpuLoadEncodingStrategy, valueSize);
-            this.systemCpuLoads = this.codec.decodeValues(valueBuffer, systemCpuLoadEncodingStrategy, valueSize);
+            this.jvmCpuLoads = this.codec.decodeValueArray(valueBuffer, jvmCpuLoadEncodingStrategy, valueSize);
+            this.systemCpuLoads = this.codec.decodeValueArray(valueBuffer, systemCpuLoadEncodingStrategy, valueSize);
         }
 
         @Override
         public CpuLoadBo getValue(int index) {
             CpuLoadBo cpuLoadBo = new CpuLoadBo();
-            cpuLoadBo.setJvmCpuLoad(AgentStatUtils.convertLongToDouble(jvmCpuLoads.get(index)));
-            cpuLoadBo.setSystemCpuLoad(AgentStatUtils.convertLongToDouble(systemCpuLoads.get(index)));
+            cpuLoadBo.setJvmCpuLoad(AgentStatUtils.convertLongToDouble(jvmCpuLoads[index]));
+            cpuLoadBo.setSystemCpuLoad(AgentStatUtils.convertLongToDouble(systemCpuLoads[index]));
             return cpuLoadBo;
         }
 
+        @Override
+        public int getColumnCount() {
+            return COLUMN_COUNT;
+        }
+
+        @Override
+        public long[] getColumn(int columnIndex) {
+            switch (columnIndex) {
+                case JVM_CPU_LOAD_COLUMN:
+                    return jvmCpuLoads;
+                case SYSTEM_CPU_LOAD_COLUMN:
+                    return systemCpuLoads;
+                default:
+                    throw new IllegalArgumentException("Unknown columnIndex : " + columnIndex);
+            }
+        }
+
     }
 
 }
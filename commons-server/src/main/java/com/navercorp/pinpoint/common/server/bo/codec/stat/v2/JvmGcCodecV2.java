@@ -19,6 +19,8 @@ package com.navercorp.pinpoint.common.server.bo.codec.stat.v2;
 import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.server.bo.JvmGcType;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumnCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderDecoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderEncoder;
@@ -26,7 +28,6 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHead
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
-import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import org.apache.commons.collections.CollectionUtils;
@@ -41,7 +42,15 @@ import java.util.List;
  * @author HyunGil Jeong
  */
 @Component("jvmGcCodecV2")
-public class JvmGcCodecV2 implements AgentStatCodec<JvmGcBo> {
+public class JvmGcCodecV2 implements AgentStatCodec<JvmGcBo>, AgentStatColumnCodec {
+
+    public static final int HEAP_USED_COLUMN = 0;
+    public static final int HEAP_MAX_COLUMN = 1;
+    public static final int NON_HEAP_USED_COLUMN = 2;
+    public static final int NON_HEAP_MAX_COLUMN = 3;
+    public static final int GC_OLD_COUNT_COLUMN = 4;
+    public static final int GC_OLD_TIME_COLUMN = 5;
+    static final int COLUMN_COUNT = 6;
 
     private static final byte VERSION = 2;
 
@@ -113,6 +122,37 @@ public class JvmGcCodecV2 implements AgentStatCodec<JvmGcBo> {
         return jvmGcBos;
     }
 
+    @Override
+    public boolean isColumnSupported() {
+        return true;
+    }
+
+    /**
+     * The gc type code is returned as {@link AgentStatColumns#getTypeCode()}.
+     */
+    @Override
+    public AgentStatColumns decodeColumns(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
+        final long initialTimestamp = decodingContext.getBaseTimestamp() + decodingContext.getTimestampDelta();
+
+        final int gcTypeCode = valueBuffer.readVInt();
+        int numValues = valueBuffer.readVInt();
+        long[] startTimestamps = this.codec.decodeValueArray(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, numValues);
+        long[] timestamps = this.codec.decodeTimestampArray(initialTimestamp, valueBuffer, numValues);
+
+        // decode headers
+        final byte[] header = valueBuffer.readPrefixedBytes();
+        AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
+
+        JvmGcCodecDecoder decoder = new JvmGcCodecDecoder(codec);
+        decoder.decode(valueBuffer, headerDecoder, numValues);
+
+        final long[][] columns = new long[COLUMN_COUNT][];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            columns[i] = decoder.getColumn(i);
+        }
+        return new AgentStatColumns(decodingContext.getAgentId(), gcTypeCode, startTimestamps, timestamps, columns);
+    }
+
     public static class JvmGcCodecEncoder implements AgentStatCodec.CodecEncoder<JvmGcBo> {
 
         private final AgentStatDataPointCodec codec;
@@ -166,15 +206,15 @@ public class JvmGcCodecV2 implements AgentStatCodec<JvmGcBo> {
 
     }
 
-    public static class JvmGcCodecDecoder implements AgentStatCodec.CodecDecoder<JvmGcBo> {
+    public static class JvmGcCodecDecoder implements AgentStatCodec.ColumnCodecDecoder<JvmGcBo> {
 
         private final AgentStatDataPointCodec codec;
-        private List<Long> heapUseds;
-        private List<Long> heapMaxes;
-        private List<Long> nonHeapUseds;
-        private List<Long> nonHeapMaxes;
-        private List<Long> gcOldCounts;
-        private List<Long> gcOldTimes;
+        private long[] heapUseds;
+        private long[] heapMaxes;
+        private long[] nonHeapUseds;
+        private long[] nonHeapMaxes;
+        private long[] gcOldCounts;
+        private long[] gcOldTimes;
 
         public JvmGcCodecDecoder(AgentStatDataPointCodec codec) {
             Assert.notNull(codec, "codec must not be null");
@@ -183,33 +223,58 @@ public class JvmGcCodecV2 implements AgentStatCodec<JvmGcBo> {
 
         @Override
         public void decode(Buffer valueBuffer, AgentStatHeaderDecoder headerDecoder, int valueSize) {
-            EncodingStrategy<Long> heapUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> heapMaxEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> nonHeapUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> nonHeapMaxEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> gcOldCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> gcOldTimeEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy heapUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy heapMaxEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy nonHeapUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy nonHeapMaxEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy gcOldCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy gcOldTimeEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
             // decode values
-            this.heapUseds = this.codec.decodeValues(valueBuffer, heapUsedEncodingStrategy, valueSize);
-            this.heapMaxes = this.codec.decodeValues(valueBuffer, heapMaxEncodingStrategy, valueSize);
-            this.nonHeapUseds = this.codec.decodeValues(valueBuffer, nonHeapUsedEncodingStrategy, valueSize);
-            this.nonHeapMaxes = this.codec.decodeValues(valueBuffer, nonHeapMaxEncodingStrategy, valueSize);
-            this.gcOldCounts = this.codec.decodeValues(valueBuffer, gcOldCountEncodingStrategy,  valueSize);
-            this.gcOldTimes = this.codec.decodeValues(valueBuffer, gcOldTimeEncodingStrategy, valueSize);
+            this.heapUseds = this.codec.decodeValueArray(valueBuffer, heapUsedEncodingStrategy, valueSize);
+            this.heapMaxes = this.codec.decodeValueArray(valueBuffer, heapMaxEncodingStrategy, valueSize);
+            this.nonHeapUseds = this.codec.decodeValueArray(valueBuffer, nonHeapUsedEncodingStrategy, valueSize);
+            this.nonHeapMaxes = this.codec.decodeValueArray(valueBuffer, nonHeapMaxEncodingStrategy, valueSize);
+            this.gcOldCounts = this.codec.decodeValueArray(valueBuffer, gcOldCountEncodingStrategy,  valueSize);
+            this.gcOldTimes = this.codec.decodeValueArray(valueBuffer, gcOldTimeEncodingStrategy, valueSize);
         }
 
         @Override
         public JvmGcBo getValue(int index) {
             JvmGcBo jvmGcBo = new JvmGcBo();
-            jvmGcBo.setHeapUsed(heapUseds.get(index));
-            jvmGcBo.setHeapMax(heapMaxes.get(index));
-            jvmGcBo.setNonHeapUsed(nonHeapUseds.get(index));
-            jvmGcBo.setNonHeapMax(nonHeapMaxes.get(index));
-            jvmGcBo.setGcOldCount(gcOldCounts.get(index));
-            jvmGcBo.setGcOldTime(gcOldTimes.get(index));
+            jvmGcBo.setHeapUsed(heapUseds[index]);
+            jvmGcBo.setHeapMax(heapMaxes[index]);
+            jvmGcBo.setNonHeapUsed(nonHeapUseds[index]);
+            jvmGcBo.setNonHeapMax(nonHeapMaxes[index]);
+            jvmGcBo.setGcOldCount(gcOldCounts[index]);
+            jvmGcBo.setGcOldTime(gcOldTimes[index]);
             return jvmGcBo;
         }
 
+        @Override
+        public int getColumnCount() {
+            return COLUMN_COUNT;
+        }
+
+        @Override
+        public long[] getColumn(int columnIndex) {
+            switch (columnIndex) {
+                case HEAP_USED_COLUMN:
+                    return heapUseds;
+                case HEAP_MAX_COLUMN:
+                    return heapMaxes;
+                case NON_HEAP_USED_COLUMN:
+                    return nonHeapUseds;
+                case NON_HEAP_MAX_COLUMN:
+                    return nonHeapMaxes;
+                case GC_OLD_COUNT_COLUMN:
+                    return gcOldCounts;
+                case GC_OLD_TIME_COLUMN:
+                    return gcOldTimes;
+                default:
+                    throw new IllegalArgumentException("Unknown columnIndex : " + columnIndex);
+            }
+        }
+
     }
 
 
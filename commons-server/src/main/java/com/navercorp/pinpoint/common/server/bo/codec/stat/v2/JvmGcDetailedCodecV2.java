@@ -25,21 +25,28 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeader
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
-import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcDetailedBo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import java.util.List;
-
 /**
  * @author HyunGil Jeong
  */
 @Component("jvmGcDetailedCodecV2")
 public class JvmGcDetailedCodecV2 extends AgentStatCodecV2<JvmGcDetailedBo> {
 
+    public static final int GC_NEW_COUNT_COLUMN = 0;
+    public static final int GC_NEW_TIME_COLUMN = 1;
+    public static final int CODE_CACHE_USED_COLUMN = 2;
+    public static final int NEW_GEN_USED_COLUMN = 3;
+    public static final int OLD_GEN_USED_COLUMN = 4;
+    public static final int SURVIVOR_SPACE_USED_COLUMN = 5;
+    public static final int PERM_GEN_USED_COLUMN = 6;
+    public static final int METASPACE_USED_COLUMN = 7;
+    static final int COLUMN_COUNT = 8;
+
     @Autowired
     public JvmGcDetailedCodecV2(AgentStatDataPointCodec codec) {
         super(new DeadlockCodecFactory(codec));
@@ -135,17 +142,17 @@ public class JvmGcDetailedCodecV2 extends AgentStatCodecV2<JvmGcDetailedBo> {
 
     }
 
-    public static class JvmGcDetailedCodecDecoder implements AgentStatCodec.CodecDecoder<JvmGcDetailedBo> {
+    public static class JvmGcDetailedCodecDecoder implements AgentStatCodec.ColumnCodecDecoder<JvmGcDetailedBo> {
 
         private final AgentStatDataPointCodec codec;
-        private List<Long> gcNewCounts;
-        private List<Long> gcNewTimes;
-        private List<Long> codeCacheUseds;
-        private List<Long> newGenUseds;
-        private List<Long> oldGenUseds;
-        private List<Long> survivorSpaceUseds;
-        private List<Long> permGenUseds;
-        private List<Long> metaspaceUseds;
+        private long[] gcNewCounts;
+        private long[] gcNewTimes;
+        private long[] codeCacheUseds;
+        private long[] newGenUseds;
+        private long[] oldGenUseds;
+        private long[] survivorSpaceUseds;
+        private long[] permGenUseds;
+        private long[] metaspaceUseds;
 
         public JvmGcDetailedCodecDecoder(AgentStatDataPointCodec codec) {
             Assert.notNull(codec, "codec must not be null");
@@ -154,39 +161,68 @@ public class JvmGcDetailedCodecV2 extends AgentStatCodecV2<JvmGcDetailedBo> {
 
         @Override
         public void decode(Buffer valueBuffer, AgentStatHeaderDecoder headerDecoder, int valueSize) {
-            EncodingStrategy<Long> gcNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> gcNewTimeEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> codeCacheUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> newGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> oldGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> survivorSpaceUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> permGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> metaspaceUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy gcNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy gcNewTimeEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy codeCacheUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy newGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy oldGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy survivorSpaceUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy permGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy metaspaceUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
             // decode values
-            this.gcNewCounts = this.codec.decodeValues(valueBuffer, gcNewCountEncodingStrategy, valueSize);
-            this.gcNewTimes = this.codec.decodeValues(valueBuffer, gcNewTimeEncodingStrategy, valueSize);
-            this.codeCacheUseds = this.codec.decodeValues(valueBuffer, codeCacheUsedEncodingStrategy, valueSize);
-            this.newGenUseds = this.codec.decodeValues(valueBuffer, newGenUsedEncodingStrategy, valueSize);
-            this.oldGenUseds = this.codec.decodeValues(valueBuffer, oldGenUsedEncodingStrategy, valueSize);
-            this.survivorSpaceUseds = this.codec.decodeValues(valueBuffer, survivorSpaceUsedEncodingStrategy, valueSize);
-            this.permGenUseds = this.codec.decodeValues(valueBuffer, permGenUsedEncodingStrategy, valueSize);
-            this.metaspaceUseds = this.codec.decodeValues(valueBuffer, metaspaceUsedEncodingStrategy, valueSize);
+            this.gcNewCounts = this.codec.decodeValueArray(valueBuffer, gcNewCountEncodingStrategy, valueSize);
+            this.gcNewTimes = this.codec.decodeValueArray(valueBuffer, gcNewTimeEncodingStrategy, valueSize);
+            this.codeCacheUseds = this.codec.decodeValueArray(valueBuffer, codeCacheUsedEncodingStrategy, valueSize);
+            this.newGenUseds = this.codec.decodeValueArray(valueBuffer, newGenUsedEncodingStrategy, valueSize);
+            this.oldGenUseds = this.codec.decodeValueArray(valueBuffer, oldGenUsedEncodingStrategy, valueSize);
+            this.survivorSpaceUseds = this.codec.decodeValueArray(valueBuffer, survivorSpaceUsedEncodingStrategy, valueSize);
+            this.permGenUseds = this.codec.decodeValueArray(valueBuffer, permGenUsedEncodingStrategy, valueSize);
+            this.metaspaceUseds = this.codec.decodeValueArray(valueBuffer, metaspaceUsedEncodingStrategy, valueSize);
         }
 
         @Override
         public JvmGcDetailedBo getValue(int index) {
             JvmGcDetailedBo jvmGcDetailedBo = new JvmGcDetailedBo();
-            jvmGcDetailedBo.setGcNewCount(gcNewCounts.get(index));
-            jvmGcDetailedBo.setGcNewTime(gcNewTimes.get(index));
-            jvmGcDetailedBo.setCodeCacheUsed(AgentStatUtils.convertLongToDouble(codeCacheUseds.get(index)));
-            jvmGcDetailedBo.setNewGenUsed(AgentStatUtils.convertLongToDouble(newGenUseds.get(index)));
-            jvmGcDetailedBo.setOldGenUsed(AgentStatUtils.convertLongToDouble(oldGenUseds.get(index)));
-            jvmGcDetailedBo.setSurvivorSpaceUsed(AgentStatUtils.convertLongToDouble(survivorSpaceUseds.get(index)));
-            jvmGcDetailedBo.setPermGenUsed(AgentStatUtils.convertLongToDouble(permGenUseds.get(index)));
-            jvmGcDetailedBo.setMetaspaceUsed(AgentStatUtils.convertLongToDouble(metaspaceUseds.get(index)));
+            jvmGcDetailedBo.setGcNewCount(gcNewCounts[index]);
+            jvmGcDetailedBo.setGcNewTime(gcNewTimes[index]);
+            jvmGcDetailedBo.setCodeCacheUsed(AgentStatUtils.convertLongToDouble(codeCacheUseds[index]));
+            jvmGcDetailedBo.setNewGenUsed(AgentStatUtils.convertLongToDouble(newGenUseds[index]));
+            jvmGcDetailedBo.setOldGenUsed(AgentStatUtils.convertLongToDouble(oldGenUseds[index]));
+            jvmGcDetailedBo.setSurvivorSpaceUsed(AgentStatUtils.convertLongToDouble(survivorSpaceUseds[index]));
+            jvmGcDetailedBo.setPermGenUsed(AgentStatUtils.convertLongToDouble(permGenUseds[index]));
+            jvmGcDetailedBo.setMetaspaceUsed(AgentStatUtils.convertLongToDouble(metaspaceUseds[index]));
             return jvmGcDetailedBo;
         }
 
+        @Override
+        public int getColumnCount() {
+            return COLUMN_COUNT;
+        }
+
+        @Override
+        public long[] getColumn(int columnIndex) {
+            switch (columnIndex) {
+                case GC_NEW_COUNT_COLUMN:
+                    return gcNewCounts;
+                case GC_NEW_TIME_COLUMN:
+                    return gcNewTimes;
+                case CODE_CACHE_USED_COLUMN:
+                    return codeCacheUseds;
+                case NEW_GEN_USED_COLUMN:
+                    return newGenUseds;
+                case OLD_GEN_USED_COLUMN:
+                    return oldGenUseds;
+                case SURVIVOR_SPACE_USED_COLUMN:
+                    return survivorSpaceUseds;
+                case PERM_GEN_USED_COLUMN:
+                    return permGenUseds;
+                case METASPACE_USED_COLUMN:
+                    return metaspaceUseds;
+                default:
+                    throw new IllegalArgumentException("Unknown columnIndex : " + columnIndex);
+            }
+        }
+
     }
 
 }
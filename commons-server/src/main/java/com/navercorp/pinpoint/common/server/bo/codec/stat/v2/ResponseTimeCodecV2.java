@@ -25,20 +25,20 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeader
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
-import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import java.util.List;
-
 /**
  * @author Taejin Koo
  */
 @Component("responseTimeCodecV2")
 public class ResponseTimeCodecV2 extends AgentStatCodecV2<ResponseTimeBo> {
 
+    public static final int AVG_COLUMN = 0;
+    static final int COLUMN_COUNT = 1;
+
     @Autowired
     public ResponseTimeCodecV2(AgentStatDataPointCodec codec) {
         super(new ResponseTimeFactory(codec));
@@ -100,10 +100,10 @@ public class ResponseTimeCodecV2 extends AgentStatCodecV2<ResponseTimeBo> {
 
     }
 
-    private static class ResponseTimeCodecDecoder implements AgentStatCodec.CodecDecoder<ResponseTimeBo> {
+    private static class ResponseTimeCodecDecoder implements AgentStatCodec.ColumnCodecDecoder<ResponseTimeBo> {
 
         private final AgentStatDataPointCodec codec;
-        private List<Long> avgs;
+        private long[] avgs;
 
         public ResponseTimeCodecDecoder(AgentStatDataPointCodec codec) {
             Assert.notNull(codec, "codec must not be null");
@@ -112,17 +112,32 @@ public class ResponseTimeCodecV2 extends AgentStatCodecV2<ResponseTimeBo> {
 
         @Override
         public void decode(Buffer valueBuffer, AgentStatHeaderDecoder headerDecoder, int valueSize) {
-            EncodingStrategy<Long> avgEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            this.avgs = codec.decodeValues(valueBuffer, avgEncodingStrategy, valueSize);
+            UnsignedLongEncodingStrategy avgEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            this.avgs = codec.decodeValueArray(valueBuffer, avgEncodingStrategy, valueSize);
         }
 
         @Override
         public ResponseTimeBo getValue(int index) {
             ResponseTimeBo responseTimeBo = new ResponseTimeBo();
-            responseTimeBo.setAvg(avgs.get(index));
+            responseTimeBo.setAvg(avgs[index]);
             return responseTimeBo;
         }
 
+        @Override
+        public int getColumnCount() {
+            return COLUMN_COUNT;
+        }
+
+        @Override
+        public long[] getColumn(int columnIndex) {
+            switch (columnIndex) {
+                case AVG_COLUMN:
+                    return avgs;
+                default:
+                    throw new IllegalArgumentException("Unknown columnIndex : " + columnIndex);
+            }
+        }
+
     }
 
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.v2;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.CodecFactory;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderDecoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderEncoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedIntegerEncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.SamplingBo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+@Component("samplingCodecV2")
+public class SamplingCodecV2 extends AgentStatCodecV2<SamplingBo> {
+
+    @Autowired
+    public SamplingCodecV2(AgentStatDataPointCodec codec) {
+        super(new SamplingCodecFactory(codec));
+    }
+
+    private static class SamplingCodecFactory implements CodecFactory<SamplingBo> {
+
+        private final AgentStatDataPointCodec codec;
+
+        private SamplingCodecFactory(AgentStatDataPointCodec codec) {
+            Assert.notNull(codec, "codec must not be null");
+            this.codec = codec;
+        }
+
+        @Override
+        public AgentStatDataPointCodec getCodec() {
+            return codec;
+        }
+
+        @Override
+        public CodecEncoder<SamplingBo> createCodecEncoder() {
+            return new SamplingCodecEncoder(codec);
+        }
+
+        @Override
+        public CodecDecoder<SamplingBo> createCodecDecoder() {
+            return new SamplingCodecDecoder(codec);
+        }
+    }
+
+    private static class SamplingCodecEncoder implements AgentStatCodec.CodecEncoder<SamplingBo> {
+
+        private final AgentStatDataPointCodec codec;
+        private final UnsignedIntegerEncodingStrategy.Analyzer.Builder tracesPerSecondAnalyzerBuilder = new UnsignedIntegerEncodingStrategy.Analyzer.Builder();
+        private final UnsignedLongEncodingStrategy.Analyzer.Builder effectiveRateAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+
+        private SamplingCodecEncoder(AgentStatDataPointCodec codec) {
+            Assert.notNull(codec, "codec must not be null");
+            this.codec = codec;
+        }
+
+        @Override
+        public void addValue(SamplingBo samplingBo) {
+            tracesPerSecondAnalyzerBuilder.addValue(samplingBo.getTracesPerSecond());
+            effectiveRateAnalyzerBuilder.addValue(AgentStatUtils.convertDoubleToLong(samplingBo.getEffectiveRate()));
+        }
+
+        @Override
+        public void encode(Buffer valueBuffer) {
+            StrategyAnalyzer<Integer> tracesPerSecondStrategyAnalyzer = tracesPerSecondAnalyzerBuilder.build();
+            StrategyAnalyzer<Long> effectiveRateStrategyAnalyzer = effectiveRateAnalyzerBuilder.build();
+
+            // encode header
+            AgentStatHeaderEncoder headerEncoder = new BitCountingHeaderEncoder();
+            headerEncoder.addCode(tracesPerSecondStrategyAnalyzer.getBestStrategy().getCode());
+            headerEncoder.addCode(effectiveRateStrategyAnalyzer.getBestStrategy().getCode());
+            final byte[] header = headerEncoder.getHeader();
+            valueBuffer.putPrefixedBytes(header);
+
+            // encode values
+            this.codec.encodeValues(valueBuffer, tracesPerSecondStrategyAnalyzer.getBestStrategy(), tracesPerSecondStrategyAnalyzer.getValues());
+            this.codec.encodeValues(valueBuffer, effectiveRateStrategyAnalyzer.getBestStrategy(), effectiveRateStrategyAnalyzer.getValues());
+        }
+
+    }
+
+    private static class SamplingCodecDecoder implements AgentStatCodec.CodecDecoder<SamplingBo> {
+
+        private final AgentStatDataPointCodec codec;
+
+        private List<Integer> tracesPerSecondList;
+        private List<Long> effectiveRateList;
+
+        private SamplingCodecDecoder(AgentStatDataPointCodec codec) {
+            Assert.notNull(codec, "codec must not be null");
+            this.codec = codec;
+        }
+
+        @Override
+        public void decode(Buffer valueBuffer, AgentStatHeaderDecoder headerDecoder, int valueSize) {
+            EncodingStrategy<Integer> tracesPerSecondEncodingStrategy = UnsignedIntegerEncodingStrategy.getFromCode(headerDecoder.getCode());
+            EncodingStrategy<Long> effectiveRateEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+
+            // decode values
+            this.tracesPerSecondList = codec.decodeValues(valueBuffer, tracesPerSecondEncodingStrategy, valueSize);
+            this.effectiveRateList = codec.decodeValues(valueBuffer, effectiveRateEncodingStrategy, valueSize);
+        }
+
+        @Override
+        public SamplingBo getValue(int index) {
+            SamplingBo samplingBo = new SamplingBo();
+            samplingBo.setTracesPerSecond(tracesPerSecondList.get(index));
+            samplingBo.setEffectiveRate(AgentStatUtils.convertLongToDouble(effectiveRateList.get(index)));
+            return samplingBo;
+        }
+
+    }
+
+}
@@ -25,20 +25,24 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeader
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
-import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.stat.TransactionBo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import java.util.List;
-
 /**
  * @author HyunGil Jeong
  */
 @Component("transactionCodecV2")
 public class TransactionCodecV2 extends AgentStatCodecV2<TransactionBo> {
 
+    public static final int COLLECT_INTERVAL_COLUMN = 0;
+    public static final int SAMPLED_NEW_COUNT_COLUMN = 1;
+    public static final int SAMPLED_CONTINUATION_COUNT_COLUMN = 2;
+    public static final int UNSAMPLED_NEW_COUNT_COLUMN = 3;
+    public static final int UNSAMPLED_CONTINUATION_COUNT_COLUMN = 4;
+    static final int COLUMN_COUNT = 5;
+
     @Autowired
     public TransactionCodecV2(AgentStatDataPointCodec codec) {
         super(new TransactionFactory(codec));
@@ -119,14 +123,14 @@ public class TransactionCodecV2 extends AgentStatCodecV2<TransactionBo> {
 
     }
 
-    public static class TransactionCodecDecoder implements AgentStatCodec.CodecDecoder<TransactionBo> {
+    public static class TransactionCodecDecoder implements AgentStatCodec.ColumnCodecDecoder<TransactionBo> {
 
         private final AgentStatDataPointCodec codec;
-        private List<Long> collectIntervals;
-        private List<Long> sampledNewCounts;
-        private List<Long> sampledContinuationCounts;
-        private List<Long> unsampledNewCounts;
-        private List<Long> unsampledContinuationCounts;
+        private long[] collectIntervals;
+        private long[] sampledNewCounts;
+        private long[] sampledContinuationCounts;
+        private long[] unsampledNewCounts;
+        private long[] unsampledContinuationCounts;
 
         public TransactionCodecDecoder(AgentStatDataPointCodec codec) {
             Assert.notNull(codec, "codec must not be null");
@@ -135,31 +139,54 @@ public class TransactionCodecV2 extends AgentStatCodecV2<TransactionBo> {
 
         @Override
         public void decode(Buffer valueBuffer, AgentStatHeaderDecoder headerDecoder, int valueSize) {
-            EncodingStrategy<Long> collectIntervalEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> sampledNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> sampledContinuationCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> unsampledNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-            EncodingStrategy<Long> unsampledContinuationCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy collectIntervalEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy sampledNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy sampledContinuationCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy unsampledNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+            UnsignedLongEncodingStrategy unsampledContinuationCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
 
             // decode values
-            this.collectIntervals = this.codec.decodeValues(valueBuffer, collectIntervalEncodingStrategy, valueSize);
-            this.sampledNewCounts = this.codec.decodeValues(valueBuffer, sampledNewCountEncodingStrategy, valueSize);
-            this.sampledContinuationCounts = this.codec.decodeValues(valueBuffer, sampledContinuationCountEncodingStrategy, valueSize);
-            this.unsampledNewCounts = this.codec.decodeValues(valueBuffer, unsampledNewCountEncodingStrategy, valueSize);
-            this.unsampledContinuationCounts = this.codec.decodeValues(valueBuffer, unsampledContinuationCountEncodingStrategy, valueSize);
+            this.collectIntervals = this.codec.decodeValueArray(valueBuffer, collectIntervalEncodingStrategy, valueSize);
+            this.sampledNewCounts = this.codec.decodeValueArray(valueBuffer, sampledNewCountEncodingStrategy, valueSize);
+            this.sampledContinuationCounts = this.codec.decodeValueArray(valueBuffer, sampledContinuationCountEncodingStrategy, valueSize);
+            this.unsampledNewCounts = this.codec.decodeValueArray(valueBuffer, unsampledNewCountEncodingStrategy, valueSize);
+            this.unsampledContinuationCounts = this.codec.decodeValueArray(valueBuffer, unsampledContinuationCountEncodingStrategy, valueSize);
         }
 
         @Override
         public TransactionBo getValue(int index) {
             TransactionBo transactionBo = new TransactionBo();
-            transactionBo.setCollectInterval(collectIntervals.get(index));
-            transactionBo.setSampledNewCount(sampledNewCounts.get(index));
-            transactionBo.setSampledContinuationCount(sampledContinuationCounts.get(index));
-            transactionBo.setUnsampledNewCount(unsampledNewCounts.get(index));
-            transactionBo.setUnsampledContinuationCount(unsampledContinuationCounts.get(index));
+            transactionBo.setCollectInterval(collectIntervals[index]);
+            transactionBo.setSampledNewCount(sampledNewCounts[index]);
+            transactionBo.setSampledContinuationCount(sampledContinuationCounts[index]);
+            transactionBo.setUnsampledNewCount(unsampledNewCounts[index]);
+            transactionBo.setUnsampledContinuationCount(unsampledContinuationCounts[index]);
             return transactionBo;
         }
 
+        @Override
+        public int getColumnCount() {
+            return COLUMN_COUNT;
+        }
+
+        @Override
+        public long[] getColumn(int columnIndex) {
+            switch (columnIndex) {
+                case COLLECT_INTERVAL_COLUMN:
+                    return collectIntervals;
+                case SAMPLED_NEW_COUNT_COLUMN:
+                    return sampledNewCounts;
+                case SAMPLED_CONTINUATION_COUNT_COLUMN:
+                    return sampledContinuationCounts;
+                case UNSAMPLED_NEW_COUNT_COLUMN:
+                    return unsampledNewCounts;
+                case UNSAMPLED_CONTINUATION_COUNT_COLUMN:
+                    return unsampledContinuationCounts;
+                default:
+                    throw new IllegalArgumentException("Unknown columnIndex : " + columnIndex);
+            }
+        }
+
     }
 
 }
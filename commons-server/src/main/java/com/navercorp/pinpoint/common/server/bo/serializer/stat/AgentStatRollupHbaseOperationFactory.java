@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.serializer.stat;
+
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatRollupCodec;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Scan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row keys are the same as the agent stat table's, the base timestamp being aligned on the row timespan of the resolution.
+ * Each resolution is stored in its own column family.
+ */
+@Component
+public class AgentStatRollupHbaseOperationFactory {
+
+    private final AgentStatRowKeyEncoder rowKeyEncoder;
+
+    private final AgentStatRowKeyDecoder rowKeyDecoder;
+
+    private final AbstractRowKeyDistributor rowKeyDistributor;
+
+    private final AgentStatRollupCodec codec;
+
+    @Autowired
+    public AgentStatRollupHbaseOperationFactory(
+            AgentStatRowKeyEncoder rowKeyEncoder,
+            AgentStatRowKeyDecoder rowKeyDecoder,
+            @Qualifier("agentStatV2RowKeyDistributor") AbstractRowKeyDistributor rowKeyDistributor,
+            AgentStatRollupCodec codec) {
+        Assert.notNull(rowKeyEncoder, "rowKeyEncoder must not be null");
+        Assert.notNull(rowKeyDecoder, "rowKeyDecoder must not be null");
+        Assert.notNull(rowKeyDistributor, "rowKeyDistributor must not be null");
+        Assert.notNull(codec, "codec must not be null");
+        this.rowKeyEncoder = rowKeyEncoder;
+        this.rowKeyDecoder = rowKeyDecoder;
+        this.rowKeyDistributor = rowKeyDistributor;
+        this.codec = codec;
+    }
+
+    public List<Put> createPuts(List<AgentStatRollupBo> rollupBos) {
+        if (CollectionUtils.isEmpty(rollupBos)) {
+            return Collections.emptyList();
+        }
+        final Map<RowKey, Put> puts = new LinkedHashMap<RowKey, Put>();
+        for (AgentStatRollupBo rollupBo : rollupBos) {
+            final AgentStatRollupResolution resolution = rollupBo.getResolution();
+            final RowKey rowKey = new RowKey(rollupBo.getAgentId(), rollupBo.getAgentStatType(), resolution.getRowBaseTimestamp(rollupBo.getTimestamp()));
+            Put put = puts.get(rowKey);
+            if (put == null) {
+                final AgentStatRowKeyComponent rowKeyComponent = new AgentStatRowKeyComponent(rowKey.agentId, rowKey.agentStatType, rowKey.baseTimestamp);
+                put = new Put(this.rowKeyDistributor.getDistributedKey(this.rowKeyEncoder.encodeRowKey(rowKeyComponent)));
+                puts.put(rowKey, put);
+            }
+            put.addColumn(resolution.getColumnFamily(), codec.encodeQualifier(rollupBo), codec.encodeValue(rollupBo));
+        }
+        return new ArrayList<Put>(puts.values());
+    }
+
+    public Scan createScan(String agentId, AgentStatType agentStatType, AgentStatRollupResolution resolution, long startTimestamp, long endTimestamp) {
+        final long startRowBaseTimestamp = resolution.getRowBaseTimestamp(endTimestamp);
+        final long endRowBaseTimestamp = resolution.getRowBaseTimestamp(startTimestamp) - resolution.getRowTimespanMs();
+        final byte[] startRowKey = this.rowKeyEncoder.encodeRowKey(new AgentStatRowKeyComponent(agentId, agentStatType, startRowBaseTimestamp));
+        final byte[] endRowKey = this.rowKeyEncoder.encodeRowKey(new AgentStatRowKeyComponent(agentId, agentStatType, endRowBaseTimestamp));
+        final Scan scan = new Scan(startRowKey, endRowKey);
+        scan.addFamily(resolution.getColumnFamily());
+        return scan;
+    }
+
+    public AbstractRowKeyDistributor getRowKeyDistributor() {
+        return this.rowKeyDistributor;
+    }
+
+    /**
+     * @return the rollups of the row, for every resolution present in the result
+     */
+    public List<AgentStatRollupBo> decode(Result result) {
+        if (result == null || result.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final byte[] originalRowKey = this.rowKeyDistributor.getOriginalKey(result.getRow());
+        final AgentStatRowKeyComponent rowKeyComponent = this.rowKeyDecoder.decodeRowKey(originalRowKey);
+
+        final List<AgentStatRollupBo> rollupBos = new ArrayList<AgentStatRollupBo>(result.size());
+        for (Cell cell : result.rawCells()) {
+            final AgentStatRollupResolution resolution = findResolution(CellUtil.cloneFamily(cell));
+            if (resolution == null) {
+                continue;
+            }
+            final AgentStatRollupBo rollupBo = new AgentStatRollupBo();
+            rollupBo.setAgentId(rowKeyComponent.getAgentId());
+            rollupBo.setAgentStatType(rowKeyComponent.getAgentStatType());
+            rollupBo.setResolution(resolution);
+            codec.decode(CellUtil.cloneQualifier(cell), CellUtil.cloneValue(cell), rollupBo);
+            rollupBos.add(rollupBo);
+        }
+        return rollupBos;
+    }
+
+    private static AgentStatRollupResolution findResolution(byte[] family) {
+        for (AgentStatRollupResolution resolution : AgentStatRollupResolution.values()) {
+            if (Arrays.equals(resolution.getColumnFamily(), family)) {
+                return resolution;
+            }
+        }
+        return null;
+    }
+
+    private static final class RowKey {
+        private final String agentId;
+        private final AgentStatType agentStatType;
+        private final long baseTimestamp;
+
+        private RowKey(String agentId, AgentStatType agentStatType, long baseTimestamp) {
+            this.agentId = agentId;
+            this.agentStatType = agentStatType;
+            this.baseTimestamp = baseTimestamp;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            RowKey rowKey = (RowKey) o;
+
+            if (baseTimestamp != rowKey.baseTimestamp) return false;
+            if (agentId != null ? !agentId.equals(rowKey.agentId) : rowKey.agentId != null) return false;
+            return agentStatType == rowKey.agentStatType;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = agentId != null ? agentId.hashCode() : 0;
+            result = 31 * result + (agentStatType != null ? agentStatType.hashCode() : 0);
+            result = 31 * result + (int) (baseTimestamp ^ (baseTimestamp >>> 32));
+            return result;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
 
+import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 import com.navercorp.pinpoint.common.server.bo.serializer.HbaseSerializer;
 import com.navercorp.pinpoint.common.server.bo.serializer.SerializationContext;
@@ -20,6 +21,8 @@ public class SpanChunkSerializerV2 implements HbaseSerializer<SpanChunkBo, Put>
     @Autowired
     private SpanEncoder spanEncoder;
 
+    private final ThreadLocalColumnValueBuffer columnValueBuffer = new ThreadLocalColumnValueBuffer();
+
     @Override
     public void serialize(SpanChunkBo spanChunkBo, Put put, SerializationContext context) {
         if (spanChunkBo == null) {
@@ -27,12 +30,16 @@ public class SpanChunkSerializerV2 implements HbaseSerializer<SpanChunkBo, Put>
         }
 
         SpanEncodingContext<SpanChunkBo> encodingContext = new SpanEncodingContext<SpanChunkBo>(spanChunkBo);
+        // safe to reuse, addColumn() copies the value
+        final Buffer buffer = columnValueBuffer.get();
+        encodingContext.setColumnValueBuffer(buffer);
 
         ByteBuffer qualifier = spanEncoder.encodeSpanChunkQualifier(encodingContext);
         ByteBuffer columnValue = spanEncoder.encodeSpanChunkColumnValue(encodingContext);
 
         long acceptedTime = put.getTimeStamp();
         put.addColumn(TRACE_V2_CF_SPAN, qualifier, acceptedTime, columnValue);
+        columnValueBuffer.release(buffer);
 
     }
 
@@ -86,7 +86,7 @@ public class SpanEncoderV0 implements SpanEncoder {
     public ByteBuffer encodeSpanChunkColumnValue(SpanEncodingContext<SpanChunkBo> encodingContext) {
         final SpanChunkBo spanChunkBo = encodingContext.getValue();
 
-        final Buffer buffer = new AutomaticBuffer(256);
+        final Buffer buffer = newColumnValueBuffer(encodingContext);
 
         final byte version = spanChunkBo.getVersion();
         buffer.putByte(version);
@@ -98,6 +98,15 @@ public class SpanEncoderV0 implements SpanEncoder {
         return buffer.wrapByteBuffer();
     }
 
+    private Buffer newColumnValueBuffer(SpanEncodingContext<?> encodingContext) {
+        final Buffer buffer = encodingContext.getColumnValueBuffer();
+        if (buffer == null) {
+            return new AutomaticBuffer(256);
+        }
+        buffer.setOffset(0);
+        return buffer;
+    }
+
     private void writeSpanEventList(Buffer buffer, List<SpanEventBo> spanEventBoList, SpanEncodingContext<?> encodingContext) {
         if (CollectionUtils.isEmpty(spanEventBoList)) {
             buffer.putVInt(0);
@@ -122,7 +131,7 @@ public class SpanEncoderV0 implements SpanEncoder {
 
         final SpanBitFiled bitField = SpanBitFiled.build(span);
 
-        final Buffer buffer = new AutomaticBuffer(256);
+        final Buffer buffer = newColumnValueBuffer(encodingContext);
 
         final byte version = span.getRawVersion();
         buffer.putByte(version);
@@ -359,10 +368,9 @@ public class SpanEncoderV0 implements SpanEncoder {
 
                 Object value = current.getValue();
                 byte valueTypeCode = transcoder.getTypeCode(value);
-                byte[] valueBytes = transcoder.encode(value, valueTypeCode);
 
                 buffer.putByte(valueTypeCode);
-                buffer.putPrefixedBytes(valueBytes);
+                transcoder.encodePrefixed(buffer, value, valueTypeCode);
 //                else {
 //                    writeDeltaAnnotationBo(buffer, prev, current);
 //                }
@@ -385,10 +393,9 @@ public class SpanEncoderV0 implements SpanEncoder {
 
         Object value = current.getValue();
         byte valueTypeCode = transcoder.getTypeCode(value);
-        byte[] valueBytes = transcoder.encode(value, valueTypeCode);
 
         buffer.putByte(valueTypeCode);
-        buffer.putPrefixedBytes(valueBytes);
+        transcoder.encodePrefixed(buffer, value, valueTypeCode);
     }
 
 
@@ -1,5 +1,6 @@
 package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
 
+import com.navercorp.pinpoint.common.buffer.Buffer;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -7,6 +8,8 @@ package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
 public class SpanEncodingContext<T> {
     private T value;
 
+    private Buffer columnValueBuffer;
+
 //    private AnnotationBo prevAnnotationBo;
 
     public SpanEncodingContext(T value) {
@@ -18,6 +21,20 @@ public class SpanEncodingContext<T> {
         return value;
     }
 
+    /**
+     * @return buffer to encode the column value into, or null to allocate a new one
+     */
+    public Buffer getColumnValueBuffer() {
+        return columnValueBuffer;
+    }
+
+    /**
+     * The encoded column value wraps this buffer, so it is only valid until the buffer is reused.
+     */
+    public void setColumnValueBuffer(Buffer columnValueBuffer) {
+        this.columnValueBuffer = columnValueBuffer;
+    }
+
 //    public AnnotationBo getPrevFirstAnnotationBo() {
 //        return prevAnnotationBo;
 //    }
@@ -1,5 +1,6 @@
 package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
 
+import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.serializer.HbaseSerializer;
 import com.navercorp.pinpoint.common.server.bo.serializer.SerializationContext;
@@ -22,20 +23,33 @@ public class SpanSerializerV2 implements HbaseSerializer<SpanBo, Put> {
     @Autowired
     private SpanEncoder spanEncoder;
 
+    private final ThreadLocalColumnValueBuffer columnValueBuffer = new ThreadLocalColumnValueBuffer();
+
     public SpanSerializerV2() {
     }
 
+    public SpanSerializerV2(SpanEncoder spanEncoder) {
+        if (spanEncoder == null) {
+            throw new NullPointerException("spanEncoder must not be null");
+        }
+        this.spanEncoder = spanEncoder;
+    }
+
 
     @Override
     public void serialize(SpanBo spanBo, Put put, SerializationContext context) {
 
         final SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<SpanBo>(spanBo);
+        // safe to reuse, addColumn() copies the value
+        final Buffer buffer = columnValueBuffer.get();
+        encodingContext.setColumnValueBuffer(buffer);
 
         ByteBuffer qualifier = spanEncoder.encodeSpanQualifier(encodingContext);
         ByteBuffer columnValue = spanEncoder.encodeSpanColumnValue(encodingContext);
 
         long acceptedTime = put.getTimeStamp();
         put.addColumn(TRACE_V2_CF_SPAN, qualifier, acceptedTime, columnValue);
+        columnValueBuffer.release(buffer);
     }
 
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+
+/**
+ * Per thread scratch buffer for span column values.
+ * Put.addColumn() copies the value into its KeyValue, so the same buffer can be reused for the next span
+ * instead of growing a new AutomaticBuffer from 256 bytes every time.
+ */
+class ThreadLocalColumnValueBuffer {
+
+    static final int DEFAULT_INITIAL_SIZE = 1024 * 4;
+    // do not pin huge buffers to collector worker threads
+    static final int DEFAULT_MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private final int initialSize;
+    private final int maxRetainedSize;
+
+    private final ThreadLocal<Buffer> local = new ThreadLocal<Buffer>();
+
+    ThreadLocalColumnValueBuffer() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_MAX_RETAINED_SIZE);
+    }
+
+    ThreadLocalColumnValueBuffer(int initialSize, int maxRetainedSize) {
+        if (initialSize <= 0) {
+            throw new IllegalArgumentException("initialSize must be positive");
+        }
+        if (maxRetainedSize < initialSize) {
+            throw new IllegalArgumentException("maxRetainedSize must not be less than initialSize");
+        }
+        this.initialSize = initialSize;
+        this.maxRetainedSize = maxRetainedSize;
+    }
+
+    Buffer get() {
+        Buffer buffer = local.get();
+        if (buffer == null) {
+            buffer = new AutomaticBuffer(initialSize);
+            local.set(buffer);
+        }
+        buffer.setOffset(0);
+        return buffer;
+    }
+
+    void release(Buffer buffer) {
+        if (buffer.getInternalBuffer().length > maxRetainedSize) {
+            local.remove();
+        }
+    }
+}
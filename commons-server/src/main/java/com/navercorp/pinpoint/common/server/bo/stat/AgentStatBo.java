@@ -35,6 +35,7 @@ public class AgentStatBo {
     private List<DataSourceListBo> dataSourceListBos;
     private List<ResponseTimeBo> responseTimeBos;
     private List<DeadlockBo> deadlockBos;
+    private List<SamplingBo> samplingBos;
 
     public long getStartTimestamp() {
         return startTimestamp;
@@ -116,6 +117,14 @@ public class AgentStatBo {
         this.deadlockBos = deadlockBos;
     }
 
+    public List<SamplingBo> getSamplingBos() {
+        return samplingBos;
+    }
+
+    public void setSamplingBos(List<SamplingBo> samplingBos) {
+        this.samplingBos = samplingBos;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("AgentStatBo{");
@@ -128,6 +137,7 @@ public class AgentStatBo {
         sb.append(", dataSourceListBos=").append(dataSourceListBos);
         sb.append(", responseTimeBos=").append(responseTimeBos);
         sb.append(", deadlockBos=").append(deadlockBos);
+        sb.append(", samplingBos=").append(samplingBos);
         sb.append('}');
         return sb.toString();
     }
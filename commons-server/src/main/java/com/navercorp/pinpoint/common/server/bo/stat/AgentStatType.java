@@ -31,7 +31,8 @@ public enum AgentStatType {
     ACTIVE_TRACE((byte) 5, "Active Trace"),
     DATASOURCE((byte) 6, "DataSource"),
     RESPONSE_TIME((byte) 7, "Response Time"),
-    DEADLOCK((byte) 8, "Deadlock");
+    DEADLOCK((byte) 8, "Deadlock"),
+    SAMPLING((byte) 9, "Sampling");
 
     public static final int TYPE_CODE_BYTE_LENGTH = 1;
 
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat;
+
+public class SamplingBo implements AgentStatDataPoint {
+
+    public static final double UNCOLLECTED_VALUE = -1;
+
+    private String agentId;
+    private long startTimestamp;
+    private long timestamp;
+    private int tracesPerSecond = 0;
+    private double effectiveRate = UNCOLLECTED_VALUE;
+
+    @Override
+    public String getAgentId() {
+        return agentId;
+    }
+
+    @Override
+    public void setAgentId(String agentId) {
+        this.agentId = agentId;
+    }
+
+    @Override
+    public long getStartTimestamp() {
+        return startTimestamp;
+    }
+
+    @Override
+    public void setStartTimestamp(long startTimestamp) {
+        this.startTimestamp = startTimestamp;
+    }
+
+    @Override
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public AgentStatType getAgentStatType() {
+        return AgentStatType.SAMPLING;
+    }
+
+    /**
+     * @return configured traces per second budget, 0 if the agent does not sample by budget
+     */
+    public int getTracesPerSecond() {
+        return tracesPerSecond;
+    }
+
+    public void setTracesPerSecond(int tracesPerSecond) {
+        this.tracesPerSecond = tracesPerSecond;
+    }
+
+    /**
+     * @return sampled new transactions over all new transactions in the collect interval,
+     * {@link #UNCOLLECTED_VALUE} if there was no new transaction
+     */
+    public double getEffectiveRate() {
+        return effectiveRate;
+    }
+
+    public void setEffectiveRate(double effectiveRate) {
+        this.effectiveRate = effectiveRate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SamplingBo that = (SamplingBo) o;
+
+        if (startTimestamp != that.startTimestamp) return false;
+        if (timestamp != that.timestamp) return false;
+        if (tracesPerSecond != that.tracesPerSecond) return false;
+        if (Double.compare(that.effectiveRate, effectiveRate) != 0) return false;
+        return agentId != null ? agentId.equals(that.agentId) : that.agentId == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result;
+        long temp;
+        result = agentId != null ? agentId.hashCode() : 0;
+        result = 31 * result + (int) (startTimestamp ^ (startTimestamp >>> 32));
+        result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+        result = 31 * result + tracesPerSecond;
+        temp = Double.doubleToLongBits(effectiveRate);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SamplingBo{");
+        sb.append("agentId='").append(agentId).append('\'');
+        sb.append(", startTimestamp=").append(startTimestamp);
+        sb.append(", timestamp=").append(timestamp);
+        sb.append(", tracesPerSecond=").append(tracesPerSecond);
+        sb.append(", effectiveRate=").append(effectiveRate);
+        sb.append('}');
+        return sb.toString();
+    }
+
+}
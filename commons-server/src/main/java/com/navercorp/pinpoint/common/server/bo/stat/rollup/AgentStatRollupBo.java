@@ -0,0 +1,211 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+
+import java.util.Arrays;
+
+/**
+ * Aggregate of the data points of an agent stat batch falling in the same bucket.
+ * <p>
+ * A bucket may receive several of these, one per batch, told apart by {@code firstTimestamp}.
+ * Gauges (heap used, cpu load...) are kept as {@link RollupValue}s that merge as is.
+ * Cumulative counters (gc old count/time) are kept as their first and last values so that the
+ * increments between consecutive batches can be computed when reading.
+ */
+public class AgentStatRollupBo {
+
+    public static final long UNCOLLECTED_VALUE = -1L;
+
+    private static final RollupValue[] EMPTY_VALUES = new RollupValue[0];
+    private static final long[] EMPTY_COUNTERS = new long[0];
+
+    private String agentId;
+    private AgentStatType agentStatType = AgentStatType.UNKNOWN;
+    private AgentStatRollupResolution resolution;
+    private long timestamp;
+    private long startTimestamp;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private int subTypeCode;
+    private RollupValue[] values = EMPTY_VALUES;
+    private long[] firstCounters = EMPTY_COUNTERS;
+    private long[] lastCounters = EMPTY_COUNTERS;
+
+    public String getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(String agentId) {
+        this.agentId = agentId;
+    }
+
+    public AgentStatType getAgentStatType() {
+        return agentStatType;
+    }
+
+    public void setAgentStatType(AgentStatType agentStatType) {
+        this.agentStatType = agentStatType;
+    }
+
+    public AgentStatRollupResolution getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(AgentStatRollupResolution resolution) {
+        this.resolution = resolution;
+    }
+
+    /**
+     * @return start of the bucket
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return start timestamp of the agent
+     */
+    public long getStartTimestamp() {
+        return startTimestamp;
+    }
+
+    public void setStartTimestamp(long startTimestamp) {
+        this.startTimestamp = startTimestamp;
+    }
+
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public void setFirstTimestamp(long firstTimestamp) {
+        this.firstTimestamp = firstTimestamp;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(long lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    /**
+     * @return type code specific to the stat type, {@link com.navercorp.pinpoint.common.server.bo.JvmGcType} for {@link AgentStatType#JVM_GC}
+     */
+    public int getSubTypeCode() {
+        return subTypeCode;
+    }
+
+    public void setSubTypeCode(int subTypeCode) {
+        this.subTypeCode = subTypeCode;
+    }
+
+    public RollupValue[] getValues() {
+        return values;
+    }
+
+    public void setValues(RollupValue[] values) {
+        if (values == null) {
+            throw new NullPointerException("values must not be null");
+        }
+        this.values = values;
+    }
+
+    public long[] getFirstCounters() {
+        return firstCounters;
+    }
+
+    public long[] getLastCounters() {
+        return lastCounters;
+    }
+
+    /**
+     * @param firstCounters {@link #UNCOLLECTED_VALUE} if not collected in this batch
+     * @param lastCounters {@link #UNCOLLECTED_VALUE} if not collected in this batch
+     */
+    public void setCounters(long[] firstCounters, long[] lastCounters) {
+        if (firstCounters == null) {
+            throw new NullPointerException("firstCounters must not be null");
+        }
+        if (lastCounters == null) {
+            throw new NullPointerException("lastCounters must not be null");
+        }
+        if (firstCounters.length != lastCounters.length) {
+            throw new IllegalArgumentException("firstCounters and lastCounters must have the same length");
+        }
+        this.firstCounters = firstCounters;
+        this.lastCounters = lastCounters;
+    }
+
+    public boolean isCounterCollected(int index) {
+        return firstCounters[index] != UNCOLLECTED_VALUE && lastCounters[index] != UNCOLLECTED_VALUE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AgentStatRollupBo that = (AgentStatRollupBo) o;
+
+        if (timestamp != that.timestamp) return false;
+        if (startTimestamp != that.startTimestamp) return false;
+        if (firstTimestamp != that.firstTimestamp) return false;
+        if (lastTimestamp != that.lastTimestamp) return false;
+        if (subTypeCode != that.subTypeCode) return false;
+        if (agentId != null ? !agentId.equals(that.agentId) : that.agentId != null) return false;
+        if (agentStatType != that.agentStatType) return false;
+        if (resolution != that.resolution) return false;
+        if (!Arrays.equals(values, that.values)) return false;
+        if (!Arrays.equals(firstCounters, that.firstCounters)) return false;
+        return Arrays.equals(lastCounters, that.lastCounters);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = agentId != null ? agentId.hashCode() : 0;
+        result = 31 * result + (agentStatType != null ? agentStatType.hashCode() : 0);
+        result = 31 * result + (resolution != null ? resolution.hashCode() : 0);
+        result = 31 * result + (int) (timestamp ^ (timestamp >>> 32));
+        result = 31 * result + (int) (firstTimestamp ^ (firstTimestamp >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "AgentStatRollupBo{" +
+                "agentId='" + agentId + '\'' +
+                ", agentStatType=" + agentStatType +
+                ", resolution=" + resolution +
+                ", timestamp=" + timestamp +
+                ", startTimestamp=" + startTimestamp +
+                ", firstTimestamp=" + firstTimestamp +
+                ", lastTimestamp=" + lastTimestamp +
+                ", subTypeCode=" + subTypeCode +
+                ", values=" + Arrays.toString(values) +
+                ", firstCounters=" + Arrays.toString(firstCounters) +
+                ", lastCounters=" + Arrays.toString(lastCounters) +
+                '}';
+    }
+}
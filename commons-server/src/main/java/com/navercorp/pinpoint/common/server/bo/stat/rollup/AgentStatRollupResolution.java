@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+
+/**
+ * Resolutions of the pre-aggregated agent statistics, from the finest to the coarsest.
+ * Each resolution is stored in its own column family of {@link HBaseTables#AGENT_STAT_ROLLUP},
+ * a row holding {@code rowTimespanMs} worth of buckets.
+ */
+public enum AgentStatRollupResolution {
+    ONE_MINUTE(60 * 1000L, 6 * 60 * 60 * 1000L, HBaseTables.AGENT_STAT_ROLLUP_CF_1M),
+    TEN_MINUTES(10 * 60 * 1000L, 2 * 24 * 60 * 60 * 1000L, HBaseTables.AGENT_STAT_ROLLUP_CF_10M),
+    ONE_HOUR(60 * 60 * 1000L, 12 * 24 * 60 * 60 * 1000L, HBaseTables.AGENT_STAT_ROLLUP_CF_1H);
+
+    private final long intervalMs;
+    private final long rowTimespanMs;
+    private final byte[] columnFamily;
+
+    AgentStatRollupResolution(long intervalMs, long rowTimespanMs, byte[] columnFamily) {
+        this.intervalMs = intervalMs;
+        this.rowTimespanMs = rowTimespanMs;
+        this.columnFamily = columnFamily;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public long getRowTimespanMs() {
+        return rowTimespanMs;
+    }
+
+    public byte[] getColumnFamily() {
+        return columnFamily;
+    }
+
+    /**
+     * @return start of the bucket the timestamp falls in
+     */
+    public long getBucketTimestamp(long timestamp) {
+        return timestamp - (timestamp % intervalMs);
+    }
+
+    public long getRowBaseTimestamp(long timestamp) {
+        return timestamp - (timestamp % rowTimespanMs);
+    }
+}
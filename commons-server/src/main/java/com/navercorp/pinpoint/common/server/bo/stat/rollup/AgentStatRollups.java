@@ -0,0 +1,243 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds {@link AgentStatRollupBo}s out of the data points of an agent stat batch.
+ */
+public final class AgentStatRollups {
+
+    public static final int CPU_LOAD_JVM = 0;
+    public static final int CPU_LOAD_SYSTEM = 1;
+    public static final int CPU_LOAD_VALUE_SIZE = 2;
+
+    public static final int JVM_GC_HEAP_USED = 0;
+    public static final int JVM_GC_HEAP_MAX = 1;
+    public static final int JVM_GC_NON_HEAP_USED = 2;
+    public static final int JVM_GC_NON_HEAP_MAX = 3;
+    public static final int JVM_GC_VALUE_SIZE = 4;
+
+    public static final int JVM_GC_OLD_COUNT = 0;
+    public static final int JVM_GC_OLD_TIME = 1;
+    public static final int JVM_GC_COUNTER_SIZE = 2;
+
+    private static final Comparator<AgentStatDataPoint> TIMESTAMP_COMPARATOR = new Comparator<AgentStatDataPoint>() {
+        @Override
+        public int compare(AgentStatDataPoint o1, AgentStatDataPoint o2) {
+            final long timestamp1 = o1.getTimestamp();
+            final long timestamp2 = o2.getTimestamp();
+            return (timestamp1 < timestamp2) ? -1 : ((timestamp1 == timestamp2) ? 0 : 1);
+        }
+    };
+
+    private AgentStatRollups() {
+    }
+
+    public static List<AgentStatRollupBo> rollupCpuLoad(List<CpuLoadBo> cpuLoadBos, AgentStatRollupResolution resolution) {
+        if (resolution == null) {
+            throw new NullPointerException("resolution must not be null");
+        }
+        if (cpuLoadBos == null || cpuLoadBos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<CpuLoadBo> sorted = sort(cpuLoadBos);
+
+        final List<AgentStatRollupBo> rollupBos = new ArrayList<AgentStatRollupBo>();
+        AgentStatRollupBo current = null;
+        for (CpuLoadBo cpuLoadBo : sorted) {
+            if (!isSameBucket(current, cpuLoadBo, resolution)) {
+                current = newRollupBo(cpuLoadBo, resolution, CPU_LOAD_VALUE_SIZE, 0);
+                rollupBos.add(current);
+            }
+            current.setLastTimestamp(cpuLoadBo.getTimestamp());
+            final RollupValue[] values = current.getValues();
+            addValue(values[CPU_LOAD_JVM], cpuLoadBo.getJvmCpuLoad(), CpuLoadBo.UNCOLLECTED_VALUE);
+            addValue(values[CPU_LOAD_SYSTEM], cpuLoadBo.getSystemCpuLoad(), CpuLoadBo.UNCOLLECTED_VALUE);
+        }
+        return rollupBos;
+    }
+
+    public static List<AgentStatRollupBo> rollupJvmGc(List<JvmGcBo> jvmGcBos, AgentStatRollupResolution resolution) {
+        if (resolution == null) {
+            throw new NullPointerException("resolution must not be null");
+        }
+        if (jvmGcBos == null || jvmGcBos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<JvmGcBo> sorted = sort(jvmGcBos);
+
+        final List<AgentStatRollupBo> rollupBos = new ArrayList<AgentStatRollupBo>();
+        AgentStatRollupBo current = null;
+        for (JvmGcBo jvmGcBo : sorted) {
+            if (!isSameBucket(current, jvmGcBo, resolution)) {
+                current = newRollupBo(jvmGcBo, resolution, JVM_GC_VALUE_SIZE, JVM_GC_COUNTER_SIZE);
+                current.setSubTypeCode(jvmGcBo.getGcType().getTypeCode());
+                rollupBos.add(current);
+            }
+            current.setLastTimestamp(jvmGcBo.getTimestamp());
+            final RollupValue[] values = current.getValues();
+            addValue(values[JVM_GC_HEAP_USED], jvmGcBo.getHeapUsed(), JvmGcBo.UNCOLLECTED_VALUE);
+            addValue(values[JVM_GC_HEAP_MAX], jvmGcBo.getHeapMax(), JvmGcBo.UNCOLLECTED_VALUE);
+            addValue(values[JVM_GC_NON_HEAP_USED], jvmGcBo.getNonHeapUsed(), JvmGcBo.UNCOLLECTED_VALUE);
+            addValue(values[JVM_GC_NON_HEAP_MAX], jvmGcBo.getNonHeapMax(), JvmGcBo.UNCOLLECTED_VALUE);
+            addCounter(current, JVM_GC_OLD_COUNT, jvmGcBo.getGcOldCount());
+            addCounter(current, JVM_GC_OLD_TIME, jvmGcBo.getGcOldTime());
+        }
+        return rollupBos;
+    }
+
+    /**
+     * Merges a rollup of a later batch into a rollup of the same agent, stat type, resolution and bucket,
+     * so that a bucket is written as a single cell. The {@code firstTimestamp} of the target, and therefore its
+     * qualifier, does not change.
+     *
+     * @return {@code false} if {@code rollupBo} does not start after the target, in which case the target is left as is
+     */
+    public static boolean merge(AgentStatRollupBo target, AgentStatRollupBo rollupBo) {
+        if (target == null) {
+            throw new NullPointerException("target must not be null");
+        }
+        if (rollupBo == null) {
+            throw new NullPointerException("rollupBo must not be null");
+        }
+        if (target.getTimestamp() != rollupBo.getTimestamp() || target.getStartTimestamp() != rollupBo.getStartTimestamp()
+                || target.getSubTypeCode() != rollupBo.getSubTypeCode() || target.getResolution() != rollupBo.getResolution()
+                || target.getValues().length != rollupBo.getValues().length
+                || target.getFirstCounters().length != rollupBo.getFirstCounters().length) {
+            throw new IllegalArgumentException("rollupBo does not belong to the bucket of target");
+        }
+        if (rollupBo.getFirstTimestamp() <= target.getLastTimestamp()) {
+            return false;
+        }
+        target.setLastTimestamp(rollupBo.getLastTimestamp());
+        final RollupValue[] values = target.getValues();
+        for (int i = 0; i < values.length; i++) {
+            values[i].merge(rollupBo.getValues()[i]);
+        }
+        final long[] firstCounters = target.getFirstCounters();
+        final long[] lastCounters = target.getLastCounters();
+        for (int i = 0; i < firstCounters.length; i++) {
+            if (!rollupBo.isCounterCollected(i)) {
+                continue;
+            }
+            if (firstCounters[i] == AgentStatRollupBo.UNCOLLECTED_VALUE) {
+                firstCounters[i] = rollupBo.getFirstCounters()[i];
+            }
+            lastCounters[i] = rollupBo.getLastCounters()[i];
+        }
+        return true;
+    }
+
+    /**
+     * Sums the increments of a cumulative counter over rollups of the same agent sorted by {@code firstTimestamp}.
+     * The increment up to the first rollup is unknown and not counted, a counter going backwards or a new agent
+     * start timestamp means the agent restarted and the counter starts over.
+     *
+     * @return the increment of each rollup, 0 when unknown
+     */
+    public static long[] counterIncrements(List<AgentStatRollupBo> rollupBos, int counterIndex) {
+        final long[] increments = new long[rollupBos.size()];
+        AgentStatRollupBo previous = null;
+        for (int i = 0; i < increments.length; i++) {
+            final AgentStatRollupBo rollupBo = rollupBos.get(i);
+            if (!rollupBo.isCounterCollected(counterIndex)) {
+                continue;
+            }
+            final long first = rollupBo.getFirstCounters()[counterIndex];
+            final long last = rollupBo.getLastCounters()[counterIndex];
+            long increment = Math.max(0, last - first);
+            if (previous != null) {
+                final long previousLast = previous.getLastCounters()[counterIndex];
+                if (previous.getStartTimestamp() != rollupBo.getStartTimestamp() || first < previousLast) {
+                    increment += first;
+                } else {
+                    increment += first - previousLast;
+                }
+            }
+            increments[i] = increment;
+            previous = rollupBo;
+        }
+        return increments;
+    }
+
+    private static <T extends AgentStatDataPoint> List<T> sort(List<T> dataPoints) {
+        final List<T> sorted = new ArrayList<T>(dataPoints);
+        Collections.sort(sorted, TIMESTAMP_COMPARATOR);
+        return sorted;
+    }
+
+    private static boolean isSameBucket(AgentStatRollupBo current, AgentStatDataPoint dataPoint, AgentStatRollupResolution resolution) {
+        if (current == null) {
+            return false;
+        }
+        return current.getTimestamp() == resolution.getBucketTimestamp(dataPoint.getTimestamp())
+                && current.getStartTimestamp() == dataPoint.getStartTimestamp();
+    }
+
+    private static AgentStatRollupBo newRollupBo(AgentStatDataPoint dataPoint, AgentStatRollupResolution resolution, int valueSize, int counterSize) {
+        final AgentStatRollupBo rollupBo = new AgentStatRollupBo();
+        rollupBo.setAgentId(dataPoint.getAgentId());
+        rollupBo.setAgentStatType(dataPoint.getAgentStatType());
+        rollupBo.setResolution(resolution);
+        rollupBo.setTimestamp(resolution.getBucketTimestamp(dataPoint.getTimestamp()));
+        rollupBo.setStartTimestamp(dataPoint.getStartTimestamp());
+        rollupBo.setFirstTimestamp(dataPoint.getTimestamp());
+        rollupBo.setLastTimestamp(dataPoint.getTimestamp());
+
+        final RollupValue[] values = new RollupValue[valueSize];
+        for (int i = 0; i < valueSize; i++) {
+            values[i] = new RollupValue();
+        }
+        rollupBo.setValues(values);
+
+        final long[] firstCounters = new long[counterSize];
+        final long[] lastCounters = new long[counterSize];
+        for (int i = 0; i < counterSize; i++) {
+            firstCounters[i] = AgentStatRollupBo.UNCOLLECTED_VALUE;
+            lastCounters[i] = AgentStatRollupBo.UNCOLLECTED_VALUE;
+        }
+        rollupBo.setCounters(firstCounters, lastCounters);
+        return rollupBo;
+    }
+
+    private static void addValue(RollupValue rollupValue, double value, double uncollectedValue) {
+        if (value != uncollectedValue) {
+            rollupValue.add(value);
+        }
+    }
+
+    private static void addCounter(AgentStatRollupBo rollupBo, int counterIndex, long value) {
+        if (value == JvmGcBo.UNCOLLECTED_VALUE) {
+            return;
+        }
+        if (rollupBo.getFirstCounters()[counterIndex] == AgentStatRollupBo.UNCOLLECTED_VALUE) {
+            rollupBo.getFirstCounters()[counterIndex] = value;
+        }
+        rollupBo.getLastCounters()[counterIndex] = value;
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+/**
+ * count, min, max and sum of the values collected in a bucket.
+ */
+public class RollupValue {
+
+    private long count;
+    private double min;
+    private double max;
+    private double sum;
+
+    public RollupValue() {
+    }
+
+    public RollupValue(long count, double min, double max, double sum) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.sum = sum;
+    }
+
+    public void add(double value) {
+        if (count == 0) {
+            this.min = value;
+            this.max = value;
+        } else {
+            this.min = Math.min(min, value);
+            this.max = Math.max(max, value);
+        }
+        this.sum += value;
+        this.count++;
+    }
+
+    public void merge(RollupValue other) {
+        if (other == null || other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            this.min = other.min;
+            this.max = other.max;
+        } else {
+            this.min = Math.min(min, other.min);
+            this.max = Math.max(max, other.max);
+        }
+        this.sum += other.sum;
+        this.count += other.count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getAvg() {
+        if (count == 0) {
+            return 0;
+        }
+        return sum / count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RollupValue that = (RollupValue) o;
+
+        if (count != that.count) return false;
+        if (Double.compare(that.min, min) != 0) return false;
+        if (Double.compare(that.max, max) != 0) return false;
+        return Double.compare(that.sum, sum) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result;
+        long temp;
+        result = (int) (count ^ (count >>> 32));
+        temp = Double.doubleToLongBits(min);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(max);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(sum);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "RollupValue{" +
+                "count=" + count +
+                ", min=" + min +
+                ", max=" + max +
+                ", sum=" + sum +
+                '}';
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.util;
+
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.TimeUtils;
+
+import static com.navercorp.pinpoint.common.PinpointConstants.AGENT_NAME_MAX_LEN;
+
+/**
+ * Row key and qualifier layout of the pre-aggregated scatter tiles.
+ * <p>
+ * A row holds one minute of one application. Each qualifier is a tile of
+ * (time bucket, elapsed bucket, error flag, agentId) and its cell value is the number of spans that fell into it.
+ * <pre>
+ * rowKey    : applicationName (padded to {@link com.navercorp.pinpoint.common.PinpointConstants#AGENT_NAME_MAX_LEN}) + reversed row time slot
+ * qualifier : time bucket index (1 byte) + elapsed bucket (2 bytes) + error flag (1 byte) + agentId
+ * </pre>
+ * Elapsed times are bucketed log-linearly: exact below {@link #ELAPSED_SUB_BUCKET_COUNT}ms, then
+ * {@link #ELAPSED_SUB_BUCKET_COUNT} buckets per power of two, so a bucket is never wider than about 3% of its value.
+ */
+public final class ScatterTileUtils {
+
+    public static final long ROW_TIME_SLOT = 60 * 1000;
+    public static final long TIME_BUCKET = 5 * 1000;
+
+    private static final int ELAPSED_SUB_BUCKET_BITS = 5;
+    public static final int ELAPSED_SUB_BUCKET_COUNT = 1 << ELAPSED_SUB_BUCKET_BITS;
+
+    private static final int QUALIFIER_HEADER_SIZE = 4;
+
+    private ScatterTileUtils() {
+    }
+
+    public static long getRowTimeSlot(long acceptedTime) {
+        return acceptedTime - (acceptedTime % ROW_TIME_SLOT);
+    }
+
+    public static byte[] makeRowKey(String applicationName, long rowTimeSlot) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        final byte[] applicationNameBytes = BytesUtils.toBytes(applicationName);
+        return RowKeyUtils.concatFixedByteAndLong(applicationNameBytes, AGENT_NAME_MAX_LEN, TimeUtils.reverseTimeMillis(rowTimeSlot));
+    }
+
+    public static long getRowTimeSlot(byte[] rowKey) {
+        if (rowKey == null) {
+            throw new NullPointerException("rowKey must not be null");
+        }
+        return TimeUtils.recoveryTimeMillis(BytesUtils.bytesToLong(rowKey, AGENT_NAME_MAX_LEN));
+    }
+
+    public static byte[] makeColumnName(long acceptedTime, int elapsed, boolean error, String agentId) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        final byte[] agentIdBytes = BytesUtils.toBytes(agentId);
+        final byte[] columnName = new byte[QUALIFIER_HEADER_SIZE + agentIdBytes.length];
+        columnName[0] = (byte) ((acceptedTime % ROW_TIME_SLOT) / TIME_BUCKET);
+        BytesUtils.writeShort((short) getElapsedBucket(elapsed), columnName, 1);
+        columnName[3] = (byte) (error ? 1 : 0);
+        System.arraycopy(agentIdBytes, 0, columnName, QUALIFIER_HEADER_SIZE, agentIdBytes.length);
+        return columnName;
+    }
+
+    /**
+     * @return start time of the tile's time bucket
+     */
+    public static long getTileTime(long rowTimeSlot, byte[] qualifier, int offset) {
+        return rowTimeSlot + qualifier[offset] * TIME_BUCKET;
+    }
+
+    public static int getTileElapsedBucket(byte[] qualifier, int offset) {
+        return BytesUtils.bytesToShort(qualifier, offset + 1);
+    }
+
+    public static boolean isTileError(byte[] qualifier, int offset) {
+        return qualifier[offset + 3] != 0;
+    }
+
+    public static String getTileAgentId(byte[] qualifier, int offset, int length) {
+        return BytesUtils.toString(qualifier, offset + QUALIFIER_HEADER_SIZE, length - QUALIFIER_HEADER_SIZE);
+    }
+
+    public static int getElapsedBucket(int elapsed) {
+        if (elapsed < ELAPSED_SUB_BUCKET_COUNT) {
+            return Math.max(elapsed, 0);
+        }
+        // position of the highest bit, at least ELAPSED_SUB_BUCKET_BITS
+        final int exponent = 31 - Integer.numberOfLeadingZeros(elapsed);
+        final int shift = exponent - ELAPSED_SUB_BUCKET_BITS;
+        final int subBucket = (elapsed >>> shift) - ELAPSED_SUB_BUCKET_COUNT;
+        return ELAPSED_SUB_BUCKET_COUNT + (shift * ELAPSED_SUB_BUCKET_COUNT) + subBucket;
+    }
+
+    public static int getElapsedLowerBound(int elapsedBucket) {
+        if (elapsedBucket < ELAPSED_SUB_BUCKET_COUNT) {
+            return elapsedBucket;
+        }
+        final int shift = (elapsedBucket - ELAPSED_SUB_BUCKET_COUNT) >>> ELAPSED_SUB_BUCKET_BITS;
+        final int subBucket = (elapsedBucket - ELAPSED_SUB_BUCKET_COUNT) & (ELAPSED_SUB_BUCKET_COUNT - 1);
+        return (ELAPSED_SUB_BUCKET_COUNT + subBucket) << shift;
+    }
+
+    public static int getElapsedUpperBound(int elapsedBucket) {
+        if (elapsedBucket < ELAPSED_SUB_BUCKET_COUNT) {
+            return elapsedBucket;
+        }
+        final int shift = (elapsedBucket - ELAPSED_SUB_BUCKET_COUNT) >>> ELAPSED_SUB_BUCKET_BITS;
+        final long upper = ((long) getElapsedLowerBound(elapsedBucket)) + (1L << shift) - 1;
+        return (int) Math.min(upper, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return value used to plot a tile, the middle of its elapsed bucket
+     */
+    public static int getElapsedRepresentative(int elapsedBucket) {
+        final long lower = getElapsedLowerBound(elapsedBucket);
+        final long upper = getElapsedUpperBound(elapsedBucket);
+        return (int) ((lower + upper) >>> 1);
+    }
+}
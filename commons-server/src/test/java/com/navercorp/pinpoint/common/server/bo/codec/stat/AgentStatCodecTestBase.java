@@ -42,6 +42,9 @@ public abstract class AgentStatCodecTestBase<T extends AgentStatDataPoint> {
 
     protected abstract void verify(T expected, T actual);
 
+    protected void verifyColumns(T expected, AgentStatColumns actual, int index) {
+    }
+
     @Test
     public void should_be_encoded_and_decoded_to_same_value() {
         for (int i = 0; i < NUM_TEST_RUNS; i++) {
@@ -72,5 +75,22 @@ public abstract class AgentStatCodecTestBase<T extends AgentStatDataPoint> {
             T actualAgentStat = actualAgentStats.get(i);
             verify(expectedAgentStat, actualAgentStat);
         }
+
+        if (getCodec() instanceof AgentStatColumnCodec) {
+            AgentStatColumnCodec columnCodec = (AgentStatColumnCodec) getCodec();
+            if (columnCodec.isColumnSupported()) {
+                Buffer columnBuffer = new FixedBuffer(encodedValueBuffer.getBuffer());
+                AgentStatColumns actualColumns = columnCodec.decodeColumns(columnBuffer, decodingContext);
+                Assert.assertEquals("read bytes", valueBuffer.getOffset(), columnBuffer.getOffset());
+                Assert.assertEquals(AGENT_ID, actualColumns.getAgentId());
+                Assert.assertEquals(actualAgentStats.size(), actualColumns.getSize());
+                for (int i = 0; i < actualAgentStats.size(); i++) {
+                    T actualAgentStat = actualAgentStats.get(i);
+                    Assert.assertEquals("startTimestamp", actualAgentStat.getStartTimestamp(), actualColumns.getStartTimestamps()[i]);
+                    Assert.assertEquals("timestamp", actualAgentStat.getTimestamp(), actualColumns.getTimestamps()[i]);
+                    verifyColumns(expectedAgentStats.get(i), actualColumns, i);
+                }
+            }
+        }
     }
 }
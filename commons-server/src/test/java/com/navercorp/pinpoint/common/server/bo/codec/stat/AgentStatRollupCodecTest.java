@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat;
+
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.RollupValue;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AgentStatRollupCodecTest {
+
+    private final AgentStatRollupCodec codec = new AgentStatRollupCodec();
+
+    @Test
+    public void encodeDecode() {
+        AgentStatRollupBo expected = new AgentStatRollupBo();
+        expected.setTimestamp(1487149860000L);
+        expected.setStartTimestamp(1487149800000L);
+        expected.setFirstTimestamp(1487149865000L);
+        expected.setLastTimestamp(1487149915000L);
+        expected.setSubTypeCode(4);
+        expected.setValues(new RollupValue[]{new RollupValue(3, 100, 300, 600), new RollupValue()});
+        expected.setCounters(new long[]{10, AgentStatRollupBo.UNCOLLECTED_VALUE}, new long[]{12, AgentStatRollupBo.UNCOLLECTED_VALUE});
+
+        AgentStatRollupBo actual = new AgentStatRollupBo();
+        codec.decode(codec.encodeQualifier(expected), codec.encodeValue(expected), actual);
+
+        assertEquals(expected, actual);
+    }
+}
@@ -26,6 +26,7 @@ import com.navercorp.pinpoint.common.server.bo.stat.DeadlockBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcDetailedBo;
 import com.navercorp.pinpoint.common.server.bo.stat.ResponseTimeBo;
+import com.navercorp.pinpoint.common.server.bo.stat.SamplingBo;
 import com.navercorp.pinpoint.common.server.bo.stat.TransactionBo;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import org.apache.commons.lang3.RandomUtils;
@@ -354,6 +355,33 @@ public class TestAgentStatFactory {
         return dataSourceListBo;
     }
 
+    public static List<SamplingBo> createSamplingBos(String agentId, long startTimestamp, long initialTimestamp) {
+        final int numValues = RandomUtils.nextInt(1, MAX_NUM_TEST_VALUES);
+        return createSamplingBos(agentId, startTimestamp, initialTimestamp, numValues);
+    }
+
+    public static List<SamplingBo> createSamplingBos(String agentId, long startTimestamp, long initialTimestamp, int numValues) {
+        List<SamplingBo> samplingBos = new ArrayList<SamplingBo>(numValues);
+        List<Long> startTimestamps = createStartTimestamps(startTimestamp, numValues);
+        List<Long> timestamps = createTimestamps(initialTimestamp, numValues);
+        List<Integer> tracesPerSecondList = TestAgentStatDataPointFactory.INTEGER.createRandomValues(0, 1000, numValues);
+        for (int i = 0; i < numValues; i++) {
+            SamplingBo samplingBo = new SamplingBo();
+            samplingBo.setAgentId(agentId);
+            samplingBo.setStartTimestamp(startTimestamps.get(i));
+            samplingBo.setTimestamp(timestamps.get(i));
+            samplingBo.setTracesPerSecond(tracesPerSecondList.get(i));
+            // no new transaction in some intervals
+            if (RANDOM.nextInt(10) == 0) {
+                samplingBo.setEffectiveRate(SamplingBo.UNCOLLECTED_VALUE);
+            } else {
+                samplingBo.setEffectiveRate(RANDOM.nextDouble());
+            }
+            samplingBos.add(samplingBo);
+        }
+        return samplingBos;
+    }
+
 
     private static List<Long> createStartTimestamps(long startTimestamp, int numValues) {
         return TestAgentStatDataPointFactory.LONG.createConstantValues(startTimestamp, startTimestamp, numValues);
@@ -16,6 +16,9 @@
 
 package com.navercorp.pinpoint.common.server.bo.codec.stat.strategy;
 
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.TestAgentStatDataPointFactory;
 import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import org.junit.Assert;
@@ -53,6 +56,25 @@ public class UnsignedLongEncodingStrategyTest extends EncodingStrategyTestBase<L
         Assert.assertEquals(actualDeltaOfDeltaEncodedSize, builder.getByteSizeDeltaOfDelta());
     }
 
+    @Override
+    protected void testFor(List<Long> testValues) {
+        super.testFor(testValues);
+        for (UnsignedLongEncodingStrategy encodingStrategy : UnsignedLongEncodingStrategy.values()) {
+            Buffer buffer = new AutomaticBuffer();
+            encodingStrategy.encodeValues(buffer, testValues);
+            byte[] encodedValues = buffer.getBuffer();
+
+            List<Long> expectedValues = encodingStrategy.decodeValues(new FixedBuffer(encodedValues), testValues.size());
+            Buffer longValueBuffer = new FixedBuffer(encodedValues);
+            long[] actualValues = encodingStrategy.decodeLongValues(longValueBuffer, testValues.size());
+            Assert.assertEquals(encodingStrategy.name(), expectedValues.size(), actualValues.length);
+            for (int i = 0; i < actualValues.length; i++) {
+                Assert.assertEquals(encodingStrategy.name(), expectedValues.get(i).longValue(), actualValues[i]);
+            }
+            Assert.assertEquals(encodingStrategy.name(), encodedValues.length, longValueBuffer.getOffset());
+        }
+    }
+
     @Test
     public void test_small_values() {
         long minValue = 10;
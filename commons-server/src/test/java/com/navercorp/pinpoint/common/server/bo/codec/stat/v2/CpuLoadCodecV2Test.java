@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.common.server.bo.codec.stat.v2;
 
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodecTestBase;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.TestAgentStatFactory;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
@@ -60,4 +61,10 @@ public class CpuLoadCodecV2Test extends AgentStatCodecTestBase<CpuLoadBo> {
         Assert.assertEquals("jvmCpuLoad", expected.getJvmCpuLoad(), actual.getJvmCpuLoad(), DOUBLE_COMPARISON_DELTA);
         Assert.assertEquals("systemCpuLoad", expected.getSystemCpuLoad(), actual.getSystemCpuLoad(), DOUBLE_COMPARISON_DELTA);
     }
+
+    @Override
+    protected void verifyColumns(CpuLoadBo expected, AgentStatColumns actual, int index) {
+        Assert.assertEquals("jvmCpuLoad", expected.getJvmCpuLoad(), actual.getDoubleColumn(CpuLoadCodecV2.JVM_CPU_LOAD_COLUMN)[index], DOUBLE_COMPARISON_DELTA);
+        Assert.assertEquals("systemCpuLoad", expected.getSystemCpuLoad(), actual.getDoubleColumn(CpuLoadCodecV2.SYSTEM_CPU_LOAD_COLUMN)[index], DOUBLE_COMPARISON_DELTA);
+    }
 }
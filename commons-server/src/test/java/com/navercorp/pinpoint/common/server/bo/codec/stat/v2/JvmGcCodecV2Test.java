@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.common.server.bo.codec.stat.v2;
 
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodecTestBase;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.TestAgentStatFactory;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import org.junit.Assert;
@@ -61,4 +62,15 @@ public class JvmGcCodecV2Test extends AgentStatCodecTestBase<JvmGcBo> {
         Assert.assertEquals("gcOldCount", expected.getGcOldCount(), actual.getGcOldCount());
         Assert.assertEquals("gcOldTime", expected.getGcOldTime(), actual.getGcOldTime());
     }
+
+    @Override
+    protected void verifyColumns(JvmGcBo expected, AgentStatColumns actual, int index) {
+        Assert.assertEquals("gcType", expected.getGcType().getTypeCode(), actual.getTypeCode());
+        Assert.assertEquals("heapUsed", expected.getHeapUsed(), actual.getColumn(JvmGcCodecV2.HEAP_USED_COLUMN)[index]);
+        Assert.assertEquals("heapMax", expected.getHeapMax(), actual.getColumn(JvmGcCodecV2.HEAP_MAX_COLUMN)[index]);
+        Assert.assertEquals("nonHeapUsed", expected.getNonHeapUsed(), actual.getColumn(JvmGcCodecV2.NON_HEAP_USED_COLUMN)[index]);
+        Assert.assertEquals("nonHeapMax", expected.getNonHeapMax(), actual.getColumn(JvmGcCodecV2.NON_HEAP_MAX_COLUMN)[index]);
+        Assert.assertEquals("gcOldCount", expected.getGcOldCount(), actual.getColumn(JvmGcCodecV2.GC_OLD_COUNT_COLUMN)[index]);
+        Assert.assertEquals("gcOldTime", expected.getGcOldTime(), actual.getColumn(JvmGcCodecV2.GC_OLD_TIME_COLUMN)[index]);
+    }
 }
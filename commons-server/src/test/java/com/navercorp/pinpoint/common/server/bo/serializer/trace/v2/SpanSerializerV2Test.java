@@ -1,9 +1,24 @@
 package com.navercorp.pinpoint.common.server.bo.serializer.trace.v2;
 
+import com.google.common.collect.Lists;
+import com.navercorp.pinpoint.common.server.bo.RandomTSpan;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanFactory;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Put;
+import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static com.navercorp.pinpoint.common.hbase.HBaseTables.TRACE_V2_CF_SPAN;
+
 /**
  * @author Woonduk Kang(emeroad)
  */
@@ -18,8 +33,45 @@ public class SpanSerializerV2Test {
 
     }
 
+    @Test
+    public void serialize_reuseColumnValueBuffer() {
+        final RandomTSpan randomTSpan = new RandomTSpan();
+        final SpanFactory spanFactory = new SpanFactory();
+        final SpanSerializerV2 serializer = new SpanSerializerV2(new SpanEncoderV0());
 
+        final SpanBo first = newSpanBo(randomTSpan, spanFactory, 3);
+        final Put firstPut = new Put(new byte[] {1}, first.getCollectorAcceptTime());
+        serializer.serialize(first, firstPut, null);
+        final byte[] firstValue = getValue(firstPut);
 
+        // overwrites the shared column value buffer
+        final SpanBo second = newSpanBo(randomTSpan, spanFactory, 10);
+        final Put secondPut = new Put(new byte[] {2}, second.getCollectorAcceptTime());
+        serializer.serialize(second, secondPut, null);
 
+        Assert.assertArrayEquals(firstValue, getValue(firstPut));
+
+        final SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<SpanBo>(first);
+        final ByteBuffer expected = new SpanEncoderV0().encodeSpanColumnValue(encodingContext);
+        Assert.assertEquals(expected, ByteBuffer.wrap(firstValue));
+    }
+
+    private SpanBo newSpanBo(RandomTSpan randomTSpan, SpanFactory spanFactory, int spanEventCount) {
+        final TSpan tSpan = randomTSpan.randomTSpan();
+        final List<TSpanEvent> spanEventList = Lists.newArrayList();
+        for (int i = 0; i < spanEventCount; i++) {
+            spanEventList.add(randomTSpan.randomTSpanEvent((short) i));
+        }
+        tSpan.setSpanEventList(spanEventList);
+        final SpanBo spanBo = spanFactory.buildSpanBo(tSpan);
+        spanBo.setCollectorAcceptTime(System.currentTimeMillis());
+        return spanBo;
+    }
+
+    private byte[] getValue(Put put) {
+        final List<Cell> cells = put.getFamilyCellMap().get(TRACE_V2_CF_SPAN);
+        Assert.assertEquals(1, cells.size());
+        return CellUtil.cloneValue(cells.get(0));
+    }
 
-}
\ No newline at end of file
+}
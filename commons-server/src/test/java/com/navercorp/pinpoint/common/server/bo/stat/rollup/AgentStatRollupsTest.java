@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.stat.rollup;
+
+import com.navercorp.pinpoint.common.server.bo.JvmGcType;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AgentStatRollupsTest {
+
+    private static final String AGENT_ID = "testAgent";
+    private static final long START_TIMESTAMP = 1487149800000L;
+    private static final long BUCKET = 1487149860000L;
+
+    @Test
+    public void rollupCpuLoad() {
+        List<CpuLoadBo> cpuLoadBos = new ArrayList<CpuLoadBo>();
+        cpuLoadBos.add(createCpuLoadBo(BUCKET + 65000, 0.5, 0.7));
+        cpuLoadBos.add(createCpuLoadBo(BUCKET + 5000, 0.2, CpuLoadBo.UNCOLLECTED_VALUE));
+        cpuLoadBos.add(createCpuLoadBo(BUCKET + 10000, 0.4, 0.6));
+
+        List<AgentStatRollupBo> rollupBos = AgentStatRollups.rollupCpuLoad(cpuLoadBos, AgentStatRollupResolution.ONE_MINUTE);
+        assertEquals(2, rollupBos.size());
+
+        AgentStatRollupBo first = rollupBos.get(0);
+        assertEquals(AGENT_ID, first.getAgentId());
+        assertEquals(AgentStatType.CPU_LOAD, first.getAgentStatType());
+        assertEquals(BUCKET, first.getTimestamp());
+        assertEquals(BUCKET + 5000, first.getFirstTimestamp());
+        assertEquals(BUCKET + 10000, first.getLastTimestamp());
+        RollupValue jvm = first.getValues()[AgentStatRollups.CPU_LOAD_JVM];
+        assertEquals(2, jvm.getCount());
+        assertEquals(0.2, jvm.getMin(), 0.0001);
+        assertEquals(0.4, jvm.getMax(), 0.0001);
+        assertEquals(0.3, jvm.getAvg(), 0.0001);
+        RollupValue system = first.getValues()[AgentStatRollups.CPU_LOAD_SYSTEM];
+        assertEquals(1, system.getCount());
+        assertEquals(0.6, system.getSum(), 0.0001);
+
+        AgentStatRollupBo second = rollupBos.get(1);
+        assertEquals(BUCKET + 60000, second.getTimestamp());
+        assertEquals(1, second.getValues()[AgentStatRollups.CPU_LOAD_JVM].getCount());
+
+        List<AgentStatRollupBo> hourRollupBos = AgentStatRollups.rollupCpuLoad(cpuLoadBos, AgentStatRollupResolution.ONE_HOUR);
+        assertEquals(1, hourRollupBos.size());
+        assertEquals(3, hourRollupBos.get(0).getValues()[AgentStatRollups.CPU_LOAD_JVM].getCount());
+    }
+
+    @Test
+    public void rollupJvmGc() {
+        List<JvmGcBo> jvmGcBos = new ArrayList<JvmGcBo>();
+        jvmGcBos.add(createJvmGcBo(BUCKET + 5000, 100, 10));
+        jvmGcBos.add(createJvmGcBo(BUCKET + 10000, 300, 12));
+
+        List<AgentStatRollupBo> rollupBos = AgentStatRollups.rollupJvmGc(jvmGcBos, AgentStatRollupResolution.ONE_MINUTE);
+        assertEquals(1, rollupBos.size());
+        AgentStatRollupBo rollupBo = rollupBos.get(0);
+        assertEquals(JvmGcType.G1.getTypeCode(), rollupBo.getSubTypeCode());
+        assertEquals(200, rollupBo.getValues()[AgentStatRollups.JVM_GC_HEAP_USED].getAvg(), 0.0001);
+        assertTrue(rollupBo.getValues()[AgentStatRollups.JVM_GC_NON_HEAP_USED].isEmpty());
+        assertEquals(10, rollupBo.getFirstCounters()[AgentStatRollups.JVM_GC_OLD_COUNT]);
+        assertEquals(12, rollupBo.getLastCounters()[AgentStatRollups.JVM_GC_OLD_COUNT]);
+    }
+
+    @Test
+    public void merge() {
+        List<JvmGcBo> firstBatch = Arrays.asList(createJvmGcBo(BUCKET + 5000, 100, 10), createJvmGcBo(BUCKET + 10000, 300, 12));
+        List<JvmGcBo> secondBatch = Arrays.asList(createJvmGcBo(BUCKET + 15000, 500, 13), createJvmGcBo(BUCKET + 20000, 700, 15));
+
+        AgentStatRollupBo target = AgentStatRollups.rollupJvmGc(firstBatch, AgentStatRollupResolution.ONE_MINUTE).get(0);
+        AgentStatRollupBo rollupBo = AgentStatRollups.rollupJvmGc(secondBatch, AgentStatRollupResolution.ONE_MINUTE).get(0);
+        assertTrue(AgentStatRollups.merge(target, rollupBo));
+
+        assertEquals(BUCKET + 5000, target.getFirstTimestamp());
+        assertEquals(BUCKET + 20000, target.getLastTimestamp());
+        RollupValue heapUsed = target.getValues()[AgentStatRollups.JVM_GC_HEAP_USED];
+        assertEquals(4, heapUsed.getCount());
+        assertEquals(100, heapUsed.getMin(), 0.0001);
+        assertEquals(700, heapUsed.getMax(), 0.0001);
+        assertEquals(10, target.getFirstCounters()[AgentStatRollups.JVM_GC_OLD_COUNT]);
+        assertEquals(15, target.getLastCounters()[AgentStatRollups.JVM_GC_OLD_COUNT]);
+
+        // the same batch received twice
+        assertFalse(AgentStatRollups.merge(target, rollupBo));
+        assertEquals(4, target.getValues()[AgentStatRollups.JVM_GC_HEAP_USED].getCount());
+    }
+
+    @Test
+    public void counterIncrements() {
+        AgentStatRollupBo first = createCounterRollupBo(START_TIMESTAMP, 10, 12);
+        AgentStatRollupBo second = createCounterRollupBo(START_TIMESTAMP, 15, 15);
+        // agent restarted
+        AgentStatRollupBo third = createCounterRollupBo(START_TIMESTAMP + 1, 1, 3);
+
+        long[] increments = AgentStatRollups.counterIncrements(Arrays.asList(first, second, third), AgentStatRollups.JVM_GC_OLD_COUNT);
+        assertArrayEquals(new long[]{2, 3, 3}, increments);
+    }
+
+    private CpuLoadBo createCpuLoadBo(long timestamp, double jvmCpuLoad, double systemCpuLoad) {
+        CpuLoadBo cpuLoadBo = new CpuLoadBo();
+        cpuLoadBo.setAgentId(AGENT_ID);
+        cpuLoadBo.setStartTimestamp(START_TIMESTAMP);
+        cpuLoadBo.setTimestamp(timestamp);
+        cpuLoadBo.setJvmCpuLoad(jvmCpuLoad);
+        cpuLoadBo.setSystemCpuLoad(systemCpuLoad);
+        return cpuLoadBo;
+    }
+
+    private JvmGcBo createJvmGcBo(long timestamp, long heapUsed, long gcOldCount) {
+        JvmGcBo jvmGcBo = new JvmGcBo();
+        jvmGcBo.setAgentId(AGENT_ID);
+        jvmGcBo.setStartTimestamp(START_TIMESTAMP);
+        jvmGcBo.setTimestamp(timestamp);
+        jvmGcBo.setGcType(JvmGcType.G1);
+        jvmGcBo.setHeapUsed(heapUsed);
+        jvmGcBo.setGcOldCount(gcOldCount);
+        return jvmGcBo;
+    }
+
+    private AgentStatRollupBo createCounterRollupBo(long startTimestamp, long first, long last) {
+        AgentStatRollupBo rollupBo = new AgentStatRollupBo();
+        rollupBo.setStartTimestamp(startTimestamp);
+        rollupBo.setCounters(new long[]{first, AgentStatRollupBo.UNCOLLECTED_VALUE}, new long[]{last, AgentStatRollupBo.UNCOLLECTED_VALUE});
+        return rollupBo;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScatterTileUtilsTest {
+
+    @Test
+    public void elapsedBucketContainsValue() {
+        int[] samples = {0, 1, 31, 32, 33, 63, 64, 100, 999, 1000, 1023, 1024, 3000, 65535, 1000000, Integer.MAX_VALUE};
+        for (int elapsed : samples) {
+            int bucket = ScatterTileUtils.getElapsedBucket(elapsed);
+            Assert.assertTrue("bucket fits in a short", bucket <= Short.MAX_VALUE);
+            Assert.assertTrue(elapsed + " >= lower", elapsed >= ScatterTileUtils.getElapsedLowerBound(bucket));
+            Assert.assertTrue(elapsed + " <= upper", elapsed <= ScatterTileUtils.getElapsedUpperBound(bucket));
+        }
+    }
+
+    @Test
+    public void elapsedBucketIsExactForSmallValues() {
+        for (int elapsed = 0; elapsed < ScatterTileUtils.ELAPSED_SUB_BUCKET_COUNT; elapsed++) {
+            int bucket = ScatterTileUtils.getElapsedBucket(elapsed);
+            Assert.assertEquals(elapsed, ScatterTileUtils.getElapsedRepresentative(bucket));
+        }
+        Assert.assertEquals(0, ScatterTileUtils.getElapsedBucket(-1));
+    }
+
+    @Test
+    public void elapsedBucketRelativeError() {
+        int previous = -1;
+        for (int elapsed = 0; elapsed < 200000; elapsed += 7) {
+            int bucket = ScatterTileUtils.getElapsedBucket(elapsed);
+            Assert.assertTrue("monotonic", bucket >= previous);
+            previous = bucket;
+
+            int representative = ScatterTileUtils.getElapsedRepresentative(bucket);
+            Assert.assertTrue(Math.abs(representative - elapsed) <= Math.max(1, elapsed * 0.032));
+        }
+    }
+
+    @Test
+    public void rowKeyAndColumnName() {
+        long acceptedTime = 1514782923456L;
+        long rowTimeSlot = ScatterTileUtils.getRowTimeSlot(acceptedTime);
+        Assert.assertEquals(1514782920000L, rowTimeSlot);
+
+        byte[] rowKey = ScatterTileUtils.makeRowKey("application", rowTimeSlot);
+        Assert.assertEquals(rowTimeSlot, ScatterTileUtils.getRowTimeSlot(rowKey));
+
+        byte[] columnName = ScatterTileUtils.makeColumnName(acceptedTime, 1500, true, "agent-1");
+        Assert.assertEquals(1514782920000L, ScatterTileUtils.getTileTime(rowTimeSlot, columnName, 0));
+        Assert.assertEquals(ScatterTileUtils.getElapsedBucket(1500), ScatterTileUtils.getTileElapsedBucket(columnName, 0));
+        Assert.assertTrue(ScatterTileUtils.isTileError(columnName, 0));
+        Assert.assertEquals("agent-1", ScatterTileUtils.getTileAgentId(columnName, 0, columnName.length));
+
+        byte[] lastBucket = ScatterTileUtils.makeColumnName(rowTimeSlot + ScatterTileUtils.ROW_TIME_SLOT - 1, 10, false, "agent-1");
+        Assert.assertEquals(rowTimeSlot + ScatterTileUtils.ROW_TIME_SLOT - ScatterTileUtils.TIME_BUCKET, ScatterTileUtils.getTileTime(rowTimeSlot, lastBucket, 0));
+        Assert.assertFalse(ScatterTileUtils.isTileError(lastBucket, 0));
+    }
+}
@@ -120,6 +120,16 @@ public class AutomaticBuffer extends FixedBuffer {
 
     @Override
     public void putPrefixedString(final String string) {
+        if (string != null && BytesUtils.isAscii(string)) {
+            // same bytes as UTF-8 encoding, without the intermediate byte[]
+            final int length = string.length();
+            checkExpand(length + BytesUtils.VINT_MAX_SIZE);
+            super.putSVInt(length);
+            for (int i = 0; i < length; i++) {
+                buffer[offset++] = (byte) string.charAt(i);
+            }
+            return;
+        }
         byte[] bytes = BytesUtils.toBytes(string);
         this.putPrefixedBytes(bytes);
     }
@@ -145,6 +145,86 @@ public class AnnotationTranscoder {
         return CODE_TOSTRING;
     }
 
+    /**
+     * Writes the same bytes as buffer.putPrefixedBytes(encode(o, typeCode))
+     * without creating the intermediate byte[] for the common value types.
+     */
+    public void encodePrefixed(Buffer buffer, Object o, byte typeCode) {
+        switch (typeCode) {
+            case CODE_STRING:
+                buffer.putPrefixedString((String) o);
+                return;
+            case CODE_INT: {
+                final int value = (Integer) o;
+                buffer.putSVInt(getSVar32Size(value));
+                buffer.putSVInt(value);
+                return;
+            }
+            case CODE_SHORT: {
+                final int value = (Short) o;
+                buffer.putSVInt(getSVar32Size(value));
+                buffer.putSVInt(value);
+                return;
+            }
+            case CODE_LONG: {
+                final long value = (Long) o;
+                buffer.putSVInt(BytesUtils.computeVar64Size(BytesUtils.longToZigZag(value)));
+                buffer.putSVLong(value);
+                return;
+            }
+            case CODE_BOOLEAN_TRUE:
+            case CODE_BOOLEAN_FALSE:
+                buffer.putSVInt(0);
+                return;
+            case CODE_INT_STRING: {
+                final TIntStringValue value = (TIntStringValue) o;
+                final int stringSize = getPrefixedAsciiSize(value.getStringValue());
+                if (stringSize != -1) {
+                    final int intValue = value.getIntValue();
+                    buffer.putSVInt(getSVar32Size(intValue) + stringSize);
+                    buffer.putSVInt(intValue);
+                    buffer.putPrefixedString(value.getStringValue());
+                    return;
+                }
+                break;
+            }
+            case CODE_INT_STRING_STRING: {
+                final TIntStringStringValue value = (TIntStringStringValue) o;
+                final int stringSize1 = getPrefixedAsciiSize(value.getStringValue1());
+                final int stringSize2 = getPrefixedAsciiSize(value.getStringValue2());
+                if (stringSize1 != -1 && stringSize2 != -1) {
+                    final int intValue = value.getIntValue();
+                    buffer.putSVInt(getSVar32Size(intValue) + stringSize1 + stringSize2);
+                    buffer.putSVInt(intValue);
+                    buffer.putPrefixedString(value.getStringValue1());
+                    buffer.putPrefixedString(value.getStringValue2());
+                    return;
+                }
+                break;
+            }
+        }
+        // non ascii strings need the encoded length first
+        buffer.putPrefixedBytes(encode(o, typeCode));
+    }
+
+    private static int getSVar32Size(int value) {
+        return BytesUtils.computeVar32Size(BytesUtils.intToZigZag(value));
+    }
+
+    /**
+     * @return size of putPrefixedString(value), -1 if value is not ascii
+     */
+    private static int getPrefixedAsciiSize(String value) {
+        if (value == null) {
+            // null is written as putSVInt(-1)
+            return getSVar32Size(-1);
+        }
+        if (!BytesUtils.isAscii(value)) {
+            return -1;
+        }
+        return getSVar32Size(value.length()) + value.length();
+    }
+
     public byte[] encode(Object o, int typeCode) {
         switch (typeCode) {
             case CODE_STRING:
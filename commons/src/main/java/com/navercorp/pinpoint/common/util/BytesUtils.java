@@ -536,6 +536,18 @@ public final class BytesUtils {
     }
 
 
+    /**
+     * @return true if the UTF-8 encoding of value is one byte per char
+     */
+    public static boolean isAscii(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static byte[] toBytes(final String value) {
         if (value == null) {
             return null;
@@ -196,6 +196,32 @@ public class AutomaticBufferTest {
         Assert.assertEquals(1, internalBuffer.length);
     }
 
+    @Test
+    public void testPutPrefixedString_ascii() throws Exception {
+        assertPrefixedString("");
+        assertPrefixedString("test");
+        assertPrefixedString("http://localhost:8080/test?a=1&b=\u007f");
+    }
+
+    @Test
+    public void testPutPrefixedString_nonAscii() throws Exception {
+        assertPrefixedString("\u0080");
+        assertPrefixedString("test\ud55c\uae00");
+        assertPrefixedString("\ud83d\ude00");
+    }
+
+    private void assertPrefixedString(String string) {
+        Buffer buffer = new AutomaticBuffer(1);
+        buffer.putPrefixedString(string);
+
+        Buffer expected = new FixedBuffer(64);
+        expected.putPrefixedString(string);
+        Assert.assertArrayEquals(expected.getBuffer(), buffer.getBuffer());
+
+        Buffer copy = new FixedBuffer(buffer.getBuffer());
+        Assert.assertEquals(string, copy.readPrefixedString());
+    }
+
 
 
     @Test
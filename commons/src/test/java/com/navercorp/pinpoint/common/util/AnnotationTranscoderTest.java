@@ -17,7 +17,10 @@
 package com.navercorp.pinpoint.common.util;
 
 
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.thrift.dto.TIntBooleanIntBooleanValue;
+import com.navercorp.pinpoint.thrift.dto.TIntStringStringValue;
 import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
 
 import com.navercorp.pinpoint.thrift.dto.TLongIntIntByteByteStringValue;
@@ -93,6 +96,69 @@ public class AnnotationTranscoderTest {
         Assert.assertEquals(value, decode);
     }
 
+    @Test
+    public void testEncodePrefixed() {
+        encodePrefixed("test");
+        encodePrefixed("");
+        encodePrefixed("test\ud55c\uae00");
+
+        encodePrefixed(1);
+        encodePrefixed(-1212);
+        encodePrefixed(268435455);
+        encodePrefixed(-268435456);
+
+        encodePrefixed((short) -124);
+        encodePrefixed(Short.MAX_VALUE);
+
+        encodePrefixed(-22342342L);
+        encodePrefixed(Long.MAX_VALUE);
+        encodePrefixed(Long.MIN_VALUE);
+
+        encodePrefixed(true);
+        encodePrefixed(false);
+        encodePrefixed(null);
+
+        encodePrefixed(123.3f);
+        encodePrefixed((byte) -14);
+        encodePrefixed(new Date());
+        encodePrefixed(new byte[]{12, 3, 4});
+
+        encodePrefixed(intStringValue(-1, "test"));
+        encodePrefixed(intStringValue(12, null));
+        encodePrefixed(intStringValue(12, "test\ud55c\uae00"));
+        encodePrefixed(intStringStringValue(99999, "select * from test where id = ?", "1, 2"));
+        encodePrefixed(intStringStringValue(1, null, null));
+        encodePrefixed(intStringStringValue(1, "test", "\ud55c\uae00"));
+    }
+
+    private TIntStringValue intStringValue(int intValue, String stringValue) {
+        TIntStringValue value = new TIntStringValue();
+        value.setIntValue(intValue);
+        value.setStringValue(stringValue);
+        return value;
+    }
+
+    private TIntStringStringValue intStringStringValue(int intValue, String stringValue1, String stringValue2) {
+        TIntStringStringValue value = new TIntStringStringValue();
+        value.setIntValue(intValue);
+        value.setStringValue1(stringValue1);
+        value.setStringValue2(stringValue2);
+        return value;
+    }
+
+    private void encodePrefixed(Object value) {
+        AnnotationTranscoder transcoder = new AnnotationTranscoder();
+        byte typeCode = transcoder.getTypeCode(value);
+
+        Buffer expected = new AutomaticBuffer();
+        expected.putPrefixedBytes(transcoder.encode(value, typeCode));
+
+        Buffer actual = new AutomaticBuffer();
+        transcoder.encodePrefixed(actual, value, typeCode);
+
+        Assert.assertArrayEquals(expected.getBuffer(), actual.getBuffer());
+    }
+
     private void typeUnsupportCode(Object value) {
         AnnotationTranscoder transcoder = new AnnotationTranscoder();
 
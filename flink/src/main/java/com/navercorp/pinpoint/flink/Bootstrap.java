@@ -15,6 +15,8 @@
  */
 package com.navercorp.pinpoint.flink;
 
+import com.navercorp.pinpoint.flink.alarm.AlarmEventSink;
+import com.navercorp.pinpoint.flink.alarm.AlarmRuleProvider;
 import com.navercorp.pinpoint.flink.cluster.FlinkServerRegister;
 import com.navercorp.pinpoint.flink.config.FlinkConfiguration;
 import com.navercorp.pinpoint.flink.dao.hbase.*;
@@ -54,6 +56,8 @@ public class Bootstrap {
     private final ActiveTraceDao activeTraceDao;
     private final ResponseTimeDao responseTimeDao;
     private final DataSourceDao dataSourceDao;
+    private final AlarmRuleProvider alarmRuleProvider;
+    private final AlarmEventSink alarmEventSink;
 
     private Bootstrap() {
         String[] SPRING_CONFIG_XML = new String[]{"applicationContext-flink.xml", "applicationContext-cache.xml"};
@@ -71,6 +75,8 @@ public class Bootstrap {
         activeTraceDao = applicationContext.getBean("activeTraceDao", ActiveTraceDao.class);
         responseTimeDao = applicationContext.getBean("responseTimeDao", ResponseTimeDao.class);
         dataSourceDao = applicationContext.getBean("dataSourceDao", DataSourceDao.class);
+        alarmRuleProvider = applicationContext.getBean("alarmRuleProvider", AlarmRuleProvider.class);
+        alarmEventSink = applicationContext.getBean("alarmEventSink", AlarmEventSink.class);
     }
 
     public static Bootstrap getInstance() {
@@ -109,6 +115,14 @@ public class Bootstrap {
         return dataSourceDao;
     }
 
+    public AlarmRuleProvider getAlarmRuleProvider() {
+        return alarmRuleProvider;
+    }
+
+    public AlarmEventSink getAlarmEventSink() {
+        return alarmEventSink;
+    }
+
     public TbaseFlatMapper getTbaseFlatMapper() {
         return tbaseFlatMapper;
     }
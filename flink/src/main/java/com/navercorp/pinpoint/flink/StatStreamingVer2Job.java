@@ -20,10 +20,15 @@ package com.navercorp.pinpoint.flink;
  */
 
 import com.navercorp.pinpoint.common.server.bo.stat.join.JoinStatBo;
+import com.navercorp.pinpoint.flink.config.FlinkConfiguration;
 import com.navercorp.pinpoint.flink.dao.hbase.StatisticsDao;
+import com.navercorp.pinpoint.flink.function.AgentStatAlarmTimestamp;
+import com.navercorp.pinpoint.flink.function.AlarmEventSinkFunction;
+import com.navercorp.pinpoint.flink.function.ApplicationAlarmWindow;
 import com.navercorp.pinpoint.flink.function.ApplicationStatBoWindow;
 import com.navercorp.pinpoint.flink.function.Timestamp;
 import com.navercorp.pinpoint.flink.function.ApplicationStatBoFliter;
+import com.navercorp.pinpoint.flink.process.AgentStatAlarmFlatMapper;
 import com.navercorp.pinpoint.flink.receiver.TcpSourceFunction;
 import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.streaming.api.TimeCharacteristic;
@@ -70,6 +75,17 @@ public class StatStreamingVer2Job implements Serializable {
             .apply(new ApplicationStatBoWindow());
         applicationStatAggregationData.writeUsingOutputFormat(statisticsDao);
 
+        // 3. evaluate agent stat alarm rules per application window
+        final FlinkConfiguration flinkConfiguration = bootstrap.getFlinkConfiguration();
+        if (flinkConfiguration.isFlinkAlarmEnable()) {
+            rawData.flatMap(new AgentStatAlarmFlatMapper())
+                .assignTimestampsAndWatermarks(new AgentStatAlarmTimestamp())
+                .keyBy(0)
+                .window(TumblingEventTimeWindows.of(Time.milliseconds(flinkConfiguration.getFlinkAlarmWindowSize())))
+                .apply(new ApplicationAlarmWindow())
+                .addSink(new AlarmEventSinkFunction());
+        }
+
         // 1-2. aggregate application stat data
 //        statOperator.filter(new FilterFunction<Tuple3<String, JoinStatBo, Long>>() {
 //            @Override
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.alarm;
+
+import com.navercorp.pinpoint.web.alarm.vo.Rule;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A rule detected on one event time window of an application.
+ */
+public class AlarmEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Rule rule;
+    private final long windowStartTime;
+    private final long windowEndTime;
+    private final ArrayList<String> smsMessages;
+    private final String emailMessage;
+
+    public AlarmEvent(Rule rule, long windowStartTime, long windowEndTime, List<String> smsMessages, String emailMessage) {
+        if (rule == null) {
+            throw new NullPointerException("rule must not be null");
+        }
+        if (smsMessages == null) {
+            throw new NullPointerException("smsMessages must not be null");
+        }
+        this.rule = rule;
+        this.windowStartTime = windowStartTime;
+        this.windowEndTime = windowEndTime;
+        this.smsMessages = new ArrayList<>(smsMessages);
+        this.emailMessage = emailMessage;
+    }
+
+    public Rule getRule() {
+        return rule;
+    }
+
+    public String getApplicationId() {
+        return rule.getApplicationId();
+    }
+
+    public String getCheckerName() {
+        return rule.getCheckerName();
+    }
+
+    public long getWindowStartTime() {
+        return windowStartTime;
+    }
+
+    public long getWindowEndTime() {
+        return windowEndTime;
+    }
+
+    public List<String> getSmsMessages() {
+        return smsMessages;
+    }
+
+    public String getEmailMessage() {
+        return emailMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "AlarmEvent{" +
+                "applicationId='" + rule.getApplicationId() + '\'' +
+                ", checkerName='" + rule.getCheckerName() + '\'' +
+                ", threshold=" + rule.getThreshold() +
+                ", userGroupId='" + rule.getUserGroupId() + '\'' +
+                ", windowStartTime=" + windowStartTime +
+                ", windowEndTime=" + windowEndTime +
+                ", smsMessages=" + smsMessages +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.alarm;
+
+import com.navercorp.pinpoint.web.alarm.vo.Rule;
+
+import java.util.List;
+
+/**
+ * Supplies the alarm rules of an application. It is called once per application window, implementations backed by
+ * a database should cache the rules.
+ */
+public interface AlarmRuleProvider {
+
+    List<Rule> getRules(String applicationId);
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.alarm;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.DataSourceListBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.alarm.CheckerCategory;
+import com.navercorp.pinpoint.web.alarm.DataCollectorFactory.DataCollectorCategory;
+import com.navercorp.pinpoint.web.alarm.checker.AlarmChecker;
+import com.navercorp.pinpoint.web.alarm.collector.AgentStatDataCollector;
+import com.navercorp.pinpoint.web.alarm.collector.DataCollector;
+import com.navercorp.pinpoint.web.alarm.collector.DataSourceDataCollector;
+import com.navercorp.pinpoint.web.alarm.vo.Rule;
+import com.navercorp.pinpoint.web.dao.ApplicationAgentIdDao;
+import com.navercorp.pinpoint.web.dao.stat.AgentStatDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates the alarm rules of an application on the agent stats of one window.
+ * <p>
+ * The checkers of the batch alarm job are reused as they are: their data collectors read the window from
+ * in-memory daos instead of HBase. Only the agent stat based rules can be evaluated this way,
+ * the other rules are left to the batch job.
+ */
+public class ApplicationAlarmEvaluator {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private static final Comparator<AgentStatDataPoint> TIMESTAMP_DESCENDING = new Comparator<AgentStatDataPoint>() {
+        @Override
+        public int compare(AgentStatDataPoint o1, AgentStatDataPoint o2) {
+            return Long.compare(o2.getTimestamp(), o1.getTimestamp());
+        }
+    };
+
+    public static boolean isSupported(Rule rule) {
+        final CheckerCategory checkerCategory;
+        try {
+            checkerCategory = CheckerCategory.getValue(rule.getCheckerName());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return isSupported(checkerCategory.getDataCollectorCategory());
+    }
+
+    private static boolean isSupported(DataCollectorCategory dataCollectorCategory) {
+        return dataCollectorCategory == DataCollectorCategory.AGENT_STAT || dataCollectorCategory == DataCollectorCategory.DATA_SOURCE_STAT;
+    }
+
+    public List<AlarmEvent> evaluate(String applicationId, long windowStartTime, long windowEndTime, Iterable<AgentStatBo> agentStatBos, List<Rule> rules) {
+        if (applicationId == null) {
+            throw new NullPointerException("applicationId must not be null");
+        }
+        if (agentStatBos == null) {
+            throw new NullPointerException("agentStatBos must not be null");
+        }
+        if (rules == null || rules.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final WindowData windowData = new WindowData(applicationId);
+        for (AgentStatBo agentStatBo : agentStatBos) {
+            windowData.add(agentStatBo);
+        }
+        windowData.sort();
+
+        final Application application = new Application(applicationId, ServiceType.UNDEFINED);
+        final long slotInterval = windowEndTime - windowStartTime;
+        final Map<DataCollectorCategory, DataCollector> dataCollectors = new EnumMap<>(DataCollectorCategory.class);
+
+        final List<AlarmEvent> alarmEvents = new ArrayList<>();
+        for (Rule rule : rules) {
+            final CheckerCategory checkerCategory;
+            try {
+                checkerCategory = CheckerCategory.getValue(rule.getCheckerName());
+            } catch (IllegalArgumentException e) {
+                logger.warn("unknown checker. rule:{}", rule);
+                continue;
+            }
+            final DataCollectorCategory dataCollectorCategory = checkerCategory.getDataCollectorCategory();
+            if (!isSupported(dataCollectorCategory)) {
+                logger.debug("{} is not evaluated on the stream. application:{}", checkerCategory, applicationId);
+                continue;
+            }
+
+            DataCollector dataCollector = dataCollectors.get(dataCollectorCategory);
+            if (dataCollector == null) {
+                dataCollector = createDataCollector(dataCollectorCategory, application, windowData, windowEndTime, slotInterval);
+                dataCollectors.put(dataCollectorCategory, dataCollector);
+            }
+
+            final AlarmChecker checker = checkerCategory.createChecker(dataCollector, rule);
+            checker.check();
+            if (checker.isDetected()) {
+                alarmEvents.add(new AlarmEvent(rule, windowStartTime, windowEndTime, checker.getSmsMessage(), checker.getEmailMessage()));
+            }
+        }
+        return alarmEvents;
+    }
+
+    private DataCollector createDataCollector(DataCollectorCategory dataCollectorCategory, Application application, WindowData windowData, long timeSlotEndTime, long slotInterval) {
+        switch (dataCollectorCategory) {
+            case AGENT_STAT:
+                return new AgentStatDataCollector(dataCollectorCategory, application, windowData.jvmGcDao, windowData.cpuLoadDao, windowData, timeSlotEndTime, slotInterval);
+            case DATA_SOURCE_STAT:
+                return new DataSourceDataCollector(dataCollectorCategory, application, windowData.dataSourceDao, windowData, timeSlotEndTime, slotInterval);
+            default:
+                throw new IllegalArgumentException("unsupported dataCollectorCategory:" + dataCollectorCategory);
+        }
+    }
+
+    /**
+     * Agent stats of one application window, exposed through the daos the batch data collectors read from.
+     */
+    private static class WindowData implements ApplicationAgentIdDao {
+
+        private final String applicationId;
+        private final WindowAgentStatDao<JvmGcBo> jvmGcDao = new WindowAgentStatDao<>();
+        private final WindowAgentStatDao<CpuLoadBo> cpuLoadDao = new WindowAgentStatDao<>();
+        private final WindowAgentStatDao<DataSourceListBo> dataSourceDao = new WindowAgentStatDao<>();
+        private final List<String> agentIds = new ArrayList<>();
+
+        private WindowData(String applicationId) {
+            this.applicationId = applicationId;
+        }
+
+        private void add(AgentStatBo agentStatBo) {
+            final String agentId = agentStatBo.getAgentId();
+            if (agentId == null) {
+                return;
+            }
+            if (!agentIds.contains(agentId)) {
+                agentIds.add(agentId);
+            }
+            jvmGcDao.add(agentId, agentStatBo.getJvmGcBos());
+            cpuLoadDao.add(agentId, agentStatBo.getCpuLoadBos());
+            dataSourceDao.add(agentId, agentStatBo.getDataSourceListBos());
+        }
+
+        private void sort() {
+            jvmGcDao.sort();
+            cpuLoadDao.sort();
+            dataSourceDao.sort();
+        }
+
+        @Override
+        public List<String> selectAgentIds(String applicationName) {
+            if (applicationId.equals(applicationName)) {
+                return agentIds;
+            }
+            return Collections.emptyList();
+        }
+    }
+
+    private static class WindowAgentStatDao<T extends AgentStatDataPoint> implements AgentStatDao<T> {
+
+        private final Map<String, List<T>> agentStats = new HashMap<>();
+
+        private void add(String agentId, Collection<T> dataPoints) {
+            if (dataPoints == null || dataPoints.isEmpty()) {
+                return;
+            }
+            List<T> agentDataPoints = agentStats.get(agentId);
+            if (agentDataPoints == null) {
+                agentDataPoints = new ArrayList<>();
+                agentStats.put(agentId, agentDataPoints);
+            }
+            agentDataPoints.addAll(dataPoints);
+        }
+
+        // same order as the HBase scan, the latest first
+        private void sort() {
+            for (List<T> agentDataPoints : agentStats.values()) {
+                Collections.sort(agentDataPoints, TIMESTAMP_DESCENDING);
+            }
+        }
+
+        @Override
+        public List<T> getAgentStatList(String agentId, Range range) {
+            final List<T> agentDataPoints = agentStats.get(agentId);
+            if (agentDataPoints == null) {
+                return Collections.emptyList();
+            }
+            return agentDataPoints;
+        }
+
+        @Override
+        public boolean agentStatExists(String agentId, Range range) {
+            return agentStats.containsKey(agentId);
+        }
+    }
+}
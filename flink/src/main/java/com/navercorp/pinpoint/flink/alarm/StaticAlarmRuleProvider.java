@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.alarm;
+
+import com.navercorp.pinpoint.web.alarm.CheckerCategory;
+import com.navercorp.pinpoint.web.alarm.vo.Rule;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rules read from the {@code flink.alarm.rules} property.
+ * <p>
+ * Rules are separated by {@code ;} and each rule is {@code applicationId,checkerName,threshold[,userGroupId]},
+ * for example {@code app-api,HEAP USAGE RATE,80,ops;app-api,JVM CPU USAGE RATE,90,ops}.
+ */
+public class StaticAlarmRuleProvider implements AlarmRuleProvider {
+
+    private static final String RULE_DELIMITER = ";";
+    private static final String FIELD_DELIMITER = ",";
+
+    private final Map<String, List<Rule>> rules;
+
+    public StaticAlarmRuleProvider(String rules) {
+        this.rules = parse(rules);
+    }
+
+    private static Map<String, List<Rule>> parse(String rules) {
+        if (StringUtils.isBlank(rules)) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, List<Rule>> result = new HashMap<>();
+        for (String ruleText : StringUtils.split(rules, RULE_DELIMITER)) {
+            if (StringUtils.isBlank(ruleText)) {
+                continue;
+            }
+            final Rule rule = parseRule(ruleText);
+            List<Rule> applicationRules = result.get(rule.getApplicationId());
+            if (applicationRules == null) {
+                applicationRules = new ArrayList<>();
+                result.put(rule.getApplicationId(), applicationRules);
+            }
+            applicationRules.add(rule);
+        }
+        return result;
+    }
+
+    private static Rule parseRule(String ruleText) {
+        final String[] fields = StringUtils.split(ruleText, FIELD_DELIMITER);
+        if (fields.length < 3 || fields.length > 4) {
+            throw new IllegalArgumentException("invalid alarm rule : " + ruleText);
+        }
+
+        final String applicationId = fields[0].trim();
+        // fails on an unknown checker name
+        final String checkerName = CheckerCategory.getValue(fields[1].trim()).getName();
+        final int threshold;
+        try {
+            threshold = Integer.parseInt(fields[2].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid threshold of alarm rule : " + ruleText, e);
+        }
+        final String userGroupId = (fields.length == 4) ? fields[3].trim() : null;
+
+        return new Rule(applicationId, null, checkerName, threshold, userGroupId, false, false, null);
+    }
+
+    @Override
+    public List<Rule> getRules(String applicationId) {
+        final List<Rule> applicationRules = rules.get(applicationId);
+        if (applicationRules == null) {
+            return Collections.emptyList();
+        }
+        return applicationRules;
+    }
+}
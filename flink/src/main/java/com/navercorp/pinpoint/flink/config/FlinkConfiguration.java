@@ -36,6 +36,10 @@ public class FlinkConfiguration extends CollectorConfiguration {
 
     private int flinkSourceFunctionParallel;
 
+    private boolean flinkAlarmEnable;
+    private long flinkAlarmWindowSize;
+    private String flinkAlarmRules;
+
     public boolean isFlinkClusterEnable() {
         return flinkClusterEnable;
     }
@@ -60,6 +64,18 @@ public class FlinkConfiguration extends CollectorConfiguration {
         return flinkSourceFunctionParallel;
     }
 
+    public boolean isFlinkAlarmEnable() {
+        return flinkAlarmEnable;
+    }
+
+    public long getFlinkAlarmWindowSize() {
+        return flinkAlarmWindowSize;
+    }
+
+    public String getFlinkAlarmRules() {
+        return flinkAlarmRules;
+    }
+
     public boolean isLocalforFlinkStreamExecutionEnvironment() {
         return "local".equals(flinkStreamExecutionEnvironment) ? true : false;
     }
@@ -77,5 +93,8 @@ public class FlinkConfiguration extends CollectorConfiguration {
         this.flinkClusterTcpPort = readInt(properties,"flink.cluster.tcp.port", 19994);
         this.flinkStreamExecutionEnvironment = readString(properties, "flink.StreamExecutionEnvironment", "server");
         this.flinkSourceFunctionParallel = readInt(properties, "flink.sourceFunction.Parallel", 1);
+        this.flinkAlarmEnable = readBoolean(properties, "flink.alarm.enable");
+        this.flinkAlarmWindowSize = readLong(properties, "flink.alarm.window.size", 60000);
+        this.flinkAlarmRules = readString(properties, "flink.alarm.rules", "");
     }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.streaming.api.functions.timestamps.BoundedOutOfOrdernessTimestampExtractor;
+import org.apache.flink.streaming.api.windowing.time.Time;
+
+/**
+ * Holds the watermark back by the allowed lateness of the stat window, so that an alarm window fires once
+ * with the stats of all agents instead of firing again for every late batch.
+ */
+public class AgentStatAlarmTimestamp extends BoundedOutOfOrdernessTimestampExtractor<Tuple3<String, AgentStatBo, Long>> {
+
+    private static final long serialVersionUID = 1L;
+
+    public AgentStatAlarmTimestamp() {
+        super(Time.milliseconds(ApplicationStatBoWindow.ALLOWED_LATENESS));
+    }
+
+    @Override
+    public long extractTimestamp(Tuple3<String, AgentStatBo, Long> value) {
+        return value.f2;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.flink.Bootstrap;
+import com.navercorp.pinpoint.flink.alarm.AlarmEvent;
+import com.navercorp.pinpoint.flink.alarm.AlarmEventSink;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the detected alarms to the {@link AlarmEventSink} registered in the application context.
+ */
+public class AlarmEventSinkFunction extends RichSinkFunction<AlarmEvent> {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private transient AlarmEventSink alarmEventSink;
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        this.alarmEventSink = Bootstrap.getInstance().getAlarmEventSink();
+    }
+
+    @Override
+    public void invoke(AlarmEvent alarmEvent) throws Exception {
+        try {
+            alarmEventSink.send(alarmEvent);
+        } catch (Exception e) {
+            logger.error("can't send alarm event {}", alarmEvent, e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.function;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.flink.Bootstrap;
+import com.navercorp.pinpoint.flink.alarm.AlarmEvent;
+import com.navercorp.pinpoint.flink.alarm.AlarmRuleProvider;
+import com.navercorp.pinpoint.flink.alarm.ApplicationAlarmEvaluator;
+import com.navercorp.pinpoint.web.alarm.vo.Rule;
+import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.windowing.RichWindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates the alarm rules of an application once per window.
+ */
+public class ApplicationAlarmWindow extends RichWindowFunction<Tuple3<String, AgentStatBo, Long>, AlarmEvent, Tuple, TimeWindow> {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private transient AlarmRuleProvider alarmRuleProvider;
+    private transient ApplicationAlarmEvaluator applicationAlarmEvaluator;
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        this.alarmRuleProvider = Bootstrap.getInstance().getAlarmRuleProvider();
+        this.applicationAlarmEvaluator = new ApplicationAlarmEvaluator();
+    }
+
+    @Override
+    public void apply(Tuple tuple, TimeWindow window, Iterable<Tuple3<String, AgentStatBo, Long>> values, Collector<AlarmEvent> out) throws Exception {
+        final String applicationId = tuple.getField(0);
+        try {
+            final List<Rule> rules = alarmRuleProvider.getRules(applicationId);
+            if (rules.isEmpty()) {
+                return;
+            }
+
+            final List<AgentStatBo> agentStatBoList = new ArrayList<>();
+            for (Tuple3<String, AgentStatBo, Long> value : values) {
+                agentStatBoList.add(value.f1);
+            }
+
+            final List<AlarmEvent> alarmEvents = applicationAlarmEvaluator.evaluate(applicationId, window.getStart(), window.getEnd(), agentStatBoList, rules);
+            for (AlarmEvent alarmEvent : alarmEvents) {
+                out.collect(alarmEvent);
+            }
+        } catch (Exception e) {
+            logger.error("alarm window function error. application:{}", applicationId, e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.mapper.thrift.stat;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.DataSourceBo;
+import com.navercorp.pinpoint.common.server.bo.stat.DataSourceListBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import com.navercorp.pinpoint.flink.mapper.thrift.ThriftBoMapper;
+import com.navercorp.pinpoint.thrift.dto.flink.TFAgentStat;
+import com.navercorp.pinpoint.thrift.dto.flink.TFAgentStatBatch;
+import com.navercorp.pinpoint.thrift.dto.flink.TFCpuLoad;
+import com.navercorp.pinpoint.thrift.dto.flink.TFDataSource;
+import com.navercorp.pinpoint.thrift.dto.flink.TFJvmGc;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maps an agent stat batch to one {@link AgentStatBo} per collected stat, keeping the values the alarm checkers need
+ * (heap usage, jvm cpu load, data source connection usage) so that each stat falls into its own event time window.
+ */
+public class AgentStatBoMapper implements ThriftBoMapper<List<AgentStatBo>, TFAgentStatBatch> {
+
+    @Override
+    public List<AgentStatBo> map(TFAgentStatBatch tFAgentStatBatch) {
+        if (!tFAgentStatBatch.isSetAgentStats()) {
+            return Collections.emptyList();
+        }
+
+        final String agentId = tFAgentStatBatch.getAgentId();
+        if (StringUtils.isEmpty(agentId)) {
+            return Collections.emptyList();
+        }
+
+        final long startTimestamp = tFAgentStatBatch.getStartTimestamp();
+        final List<AgentStatBo> agentStatBoList = new ArrayList<>(tFAgentStatBatch.getAgentStatsSize());
+        for (TFAgentStat tFAgentStat : tFAgentStatBatch.getAgentStats()) {
+            final AgentStatBo agentStatBo = map(agentId, startTimestamp, tFAgentStat);
+            if (agentStatBo != null) {
+                agentStatBoList.add(agentStatBo);
+            }
+        }
+        return agentStatBoList;
+    }
+
+    private AgentStatBo map(String agentId, long startTimestamp, TFAgentStat tFAgentStat) {
+        if (!tFAgentStat.isSetTimestamp()) {
+            return null;
+        }
+        final long timestamp = tFAgentStat.getTimestamp();
+
+        final AgentStatBo agentStatBo = new AgentStatBo();
+        agentStatBo.setAgentId(agentId);
+        agentStatBo.setStartTimestamp(startTimestamp);
+        agentStatBo.setJvmGcBos(mapJvmGcBo(agentId, startTimestamp, timestamp, tFAgentStat));
+        agentStatBo.setCpuLoadBos(mapCpuLoadBo(agentId, startTimestamp, timestamp, tFAgentStat));
+        agentStatBo.setDataSourceListBos(mapDataSourceListBo(agentId, startTimestamp, timestamp, tFAgentStat));
+
+        if (agentStatBo.getJvmGcBos().isEmpty() && agentStatBo.getCpuLoadBos().isEmpty() && agentStatBo.getDataSourceListBos().isEmpty()) {
+            return null;
+        }
+        return agentStatBo;
+    }
+
+    private List<JvmGcBo> mapJvmGcBo(String agentId, long startTimestamp, long timestamp, TFAgentStat tFAgentStat) {
+        if (!tFAgentStat.isSetGc()) {
+            return Collections.emptyList();
+        }
+
+        final TFJvmGc tFJvmGc = tFAgentStat.getGc();
+        final JvmGcBo jvmGcBo = new JvmGcBo();
+        jvmGcBo.setAgentId(agentId);
+        jvmGcBo.setStartTimestamp(startTimestamp);
+        jvmGcBo.setTimestamp(timestamp);
+        jvmGcBo.setHeapUsed(tFJvmGc.getJvmMemoryHeapUsed());
+        jvmGcBo.setHeapMax(tFJvmGc.getJvmMemoryHeapMax());
+        jvmGcBo.setNonHeapUsed(tFJvmGc.getJvmMemoryNonHeapUsed());
+        jvmGcBo.setNonHeapMax(tFJvmGc.getJvmMemoryNonHeapMax());
+        jvmGcBo.setGcOldCount(tFJvmGc.getJvmGcOldCount());
+        jvmGcBo.setGcOldTime(tFJvmGc.getJvmGcOldTime());
+        return Collections.singletonList(jvmGcBo);
+    }
+
+    private List<CpuLoadBo> mapCpuLoadBo(String agentId, long startTimestamp, long timestamp, TFAgentStat tFAgentStat) {
+        if (!tFAgentStat.isSetCpuLoad()) {
+            return Collections.emptyList();
+        }
+
+        final TFCpuLoad tFCpuLoad = tFAgentStat.getCpuLoad();
+        if (!tFCpuLoad.isSetJvmCpuLoad()) {
+            return Collections.emptyList();
+        }
+
+        final CpuLoadBo cpuLoadBo = new CpuLoadBo();
+        cpuLoadBo.setAgentId(agentId);
+        cpuLoadBo.setStartTimestamp(startTimestamp);
+        cpuLoadBo.setTimestamp(timestamp);
+        cpuLoadBo.setJvmCpuLoad(tFCpuLoad.getJvmCpuLoad());
+        if (tFCpuLoad.isSetSystemCpuLoad()) {
+            cpuLoadBo.setSystemCpuLoad(tFCpuLoad.getSystemCpuLoad());
+        }
+        return Collections.singletonList(cpuLoadBo);
+    }
+
+    private List<DataSourceListBo> mapDataSourceListBo(String agentId, long startTimestamp, long timestamp, TFAgentStat tFAgentStat) {
+        if (!tFAgentStat.isSetDataSourceList()) {
+            return Collections.emptyList();
+        }
+
+        final List<TFDataSource> tFDataSourceList = tFAgentStat.getDataSourceList().getDataSourceList();
+        if (tFDataSourceList == null || tFDataSourceList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final DataSourceListBo dataSourceListBo = new DataSourceListBo();
+        dataSourceListBo.setAgentId(agentId);
+        dataSourceListBo.setStartTimestamp(startTimestamp);
+        dataSourceListBo.setTimestamp(timestamp);
+        for (TFDataSource tFDataSource : tFDataSourceList) {
+            final DataSourceBo dataSourceBo = new DataSourceBo();
+            dataSourceBo.setAgentId(agentId);
+            dataSourceBo.setStartTimestamp(startTimestamp);
+            dataSourceBo.setTimestamp(timestamp);
+            dataSourceBo.setId(tFDataSource.getId());
+            if (tFDataSource.isSetServiceTypeCode()) {
+                dataSourceBo.setServiceTypeCode(tFDataSource.getServiceTypeCode());
+            }
+            if (tFDataSource.isSetDatabaseName()) {
+                dataSourceBo.setDatabaseName(tFDataSource.getDatabaseName());
+            }
+            if (tFDataSource.isSetUrl()) {
+                dataSourceBo.setJdbcUrl(tFDataSource.getUrl());
+            }
+            dataSourceBo.setActiveConnectionSize(tFDataSource.getActiveConnectionSize());
+            if (tFDataSource.isSetMaxConnectionSize()) {
+                dataSourceBo.setMaxConnectionSize(tFDataSource.getMaxConnectionSize());
+            }
+            dataSourceListBo.add(dataSourceBo);
+        }
+        return Collections.singletonList(dataSourceListBo);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.process;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.flink.Bootstrap;
+import com.navercorp.pinpoint.flink.alarm.AlarmRuleProvider;
+import com.navercorp.pinpoint.flink.alarm.ApplicationAlarmEvaluator;
+import com.navercorp.pinpoint.flink.mapper.thrift.stat.AgentStatBoMapper;
+import com.navercorp.pinpoint.thrift.dto.flink.TFAgentStatBatch;
+import com.navercorp.pinpoint.web.alarm.vo.Rule;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
+import org.apache.flink.api.java.tuple.Tuple3;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.util.Collector;
+import org.apache.thrift.TBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Emits the agent stats of the applications having a rule which can be evaluated on the stream, keyed by application id.
+ */
+public class AgentStatAlarmFlatMapper extends RichFlatMapFunction<TBase, Tuple3<String, AgentStatBo, Long>> {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private transient AgentStatBoMapper agentStatBoMapper;
+    private transient ApplicationCache applicationCache;
+    private transient AlarmRuleProvider alarmRuleProvider;
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        this.agentStatBoMapper = new AgentStatBoMapper();
+        final Bootstrap bootstrap = Bootstrap.getInstance();
+        this.applicationCache = bootstrap.getApplicationCache();
+        this.alarmRuleProvider = bootstrap.getAlarmRuleProvider();
+    }
+
+    @Override
+    public void flatMap(TBase tBase, Collector<Tuple3<String, AgentStatBo, Long>> out) throws Exception {
+        if (!(tBase instanceof TFAgentStatBatch)) {
+            return;
+        }
+
+        final TFAgentStatBatch tFAgentStatBatch = (TFAgentStatBatch) tBase;
+        final ApplicationCache.ApplicationKey applicationKey = new ApplicationCache.ApplicationKey(tFAgentStatBatch.getAgentId(), tFAgentStatBatch.getStartTimestamp());
+        final String applicationId = applicationCache.findApplicationId(applicationKey);
+        if (applicationId.equals(ApplicationCache.NOT_FOUND_APP_ID)) {
+            return;
+        }
+        if (!hasSupportedRule(applicationId)) {
+            return;
+        }
+
+        final List<AgentStatBo> agentStatBoList;
+        try {
+            agentStatBoList = agentStatBoMapper.map(tFAgentStatBatch);
+        } catch (Exception e) {
+            logger.error("can't create agentStatBo object {}", tFAgentStatBatch, e);
+            return;
+        }
+
+        for (AgentStatBo agentStatBo : agentStatBoList) {
+            out.collect(new Tuple3<>(applicationId, agentStatBo, getTimestamp(agentStatBo)));
+        }
+    }
+
+    private boolean hasSupportedRule(String applicationId) {
+        for (Rule rule : alarmRuleProvider.getRules(applicationId)) {
+            if (ApplicationAlarmEvaluator.isSupported(rule)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long getTimestamp(AgentStatBo agentStatBo) {
+        if (!agentStatBo.getJvmGcBos().isEmpty()) {
+            return agentStatBo.getJvmGcBos().get(0).getTimestamp();
+        }
+        if (!agentStatBo.getCpuLoadBos().isEmpty()) {
+            return agentStatBo.getCpuLoadBos().get(0).getTimestamp();
+        }
+        if (!agentStatBo.getDataSourceListBos().isEmpty()) {
+            return agentStatBo.getDataSourceListBos().get(0).getTimestamp();
+        }
+        return Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.alarm;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.common.server.bo.stat.DataSourceBo;
+import com.navercorp.pinpoint.common.server.bo.stat.DataSourceListBo;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import com.navercorp.pinpoint.web.alarm.vo.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ApplicationAlarmEvaluatorTest {
+
+    private static final String APPLICATION_ID = "testApplication";
+    private static final long WINDOW_START = 1491274080000L;
+    private static final long WINDOW_END = WINDOW_START + 60000;
+
+    @Test
+    public void heapUsageRate() {
+        List<AgentStatBo> agentStatBoList = new ArrayList<>();
+        agentStatBoList.add(createAgentStatBo("agent1", WINDOW_START + 5000, 600, 1000, 0.1));
+        agentStatBoList.add(createAgentStatBo("agent1", WINDOW_START + 10000, 800, 1000, 0.1));
+        agentStatBoList.add(createAgentStatBo("agent2", WINDOW_START + 5000, 100, 1000, 0.1));
+
+        List<Rule> rules = new StaticAlarmRuleProvider(APPLICATION_ID + ",HEAP USAGE RATE,70,group").getRules(APPLICATION_ID);
+        List<AlarmEvent> alarmEvents = new ApplicationAlarmEvaluator().evaluate(APPLICATION_ID, WINDOW_START, WINDOW_END, agentStatBoList, rules);
+
+        assertEquals(1, alarmEvents.size());
+        AlarmEvent alarmEvent = alarmEvents.get(0);
+        assertEquals("HEAP USAGE RATE", alarmEvent.getCheckerName());
+        assertEquals(WINDOW_START, alarmEvent.getWindowStartTime());
+        assertEquals(WINDOW_END, alarmEvent.getWindowEndTime());
+        // only agent1 (70%) is over the threshold
+        assertEquals(1, alarmEvent.getSmsMessages().size());
+        assertTrue(alarmEvent.getSmsMessages().get(0).contains("agent1"));
+    }
+
+    @Test
+    public void jvmCpuUsageRate() {
+        List<AgentStatBo> agentStatBoList = new ArrayList<>();
+        agentStatBoList.add(createAgentStatBo("agent1", WINDOW_START + 5000, 100, 1000, 0.8));
+        agentStatBoList.add(createAgentStatBo("agent1", WINDOW_START + 10000, 100, 1000, 0.6));
+
+        ApplicationAlarmEvaluator evaluator = new ApplicationAlarmEvaluator();
+        List<Rule> detectedRules = new StaticAlarmRuleProvider(APPLICATION_ID + ",JVM CPU USAGE RATE,70").getRules(APPLICATION_ID);
+        assertEquals(1, evaluator.evaluate(APPLICATION_ID, WINDOW_START, WINDOW_END, agentStatBoList, detectedRules).size());
+
+        List<Rule> rules = new StaticAlarmRuleProvider(APPLICATION_ID + ",JVM CPU USAGE RATE,71").getRules(APPLICATION_ID);
+        assertTrue(evaluator.evaluate(APPLICATION_ID, WINDOW_START, WINDOW_END, agentStatBoList, rules).isEmpty());
+    }
+
+    @Test
+    public void dataSourceConnectionUsageRate() {
+        AgentStatBo agentStatBo = createAgentStatBo("agent1", WINDOW_START + 5000, 100, 1000, 0.1);
+        DataSourceListBo dataSourceListBo = new DataSourceListBo();
+        dataSourceListBo.setAgentId("agent1");
+        dataSourceListBo.setTimestamp(WINDOW_START + 5000);
+        DataSourceBo dataSourceBo = new DataSourceBo();
+        dataSourceBo.setId(1);
+        dataSourceBo.setDatabaseName("db");
+        dataSourceBo.setActiveConnectionSize(9);
+        dataSourceBo.setMaxConnectionSize(10);
+        dataSourceListBo.add(dataSourceBo);
+        agentStatBo.setDataSourceListBos(Collections.singletonList(dataSourceListBo));
+
+        List<Rule> rules = new StaticAlarmRuleProvider(APPLICATION_ID + ",DATASOURCE CONNECTION USAGE RATE,80").getRules(APPLICATION_ID);
+        List<AlarmEvent> alarmEvents = new ApplicationAlarmEvaluator().evaluate(APPLICATION_ID, WINDOW_START, WINDOW_END, Collections.singletonList(agentStatBo), rules);
+
+        assertEquals(1, alarmEvents.size());
+        assertTrue(alarmEvents.get(0).getSmsMessages().get(0).contains("db"));
+    }
+
+    @Test
+    public void unsupportedRule() {
+        List<AgentStatBo> agentStatBoList = Collections.singletonList(createAgentStatBo("agent1", WINDOW_START, 900, 1000, 0.9));
+        List<Rule> rules = new StaticAlarmRuleProvider(APPLICATION_ID + ",SLOW COUNT,0;" + APPLICATION_ID + ",DEADLOCK OCCURRENCE,1").getRules(APPLICATION_ID);
+
+        assertFalse(ApplicationAlarmEvaluator.isSupported(rules.get(0)));
+        assertFalse(ApplicationAlarmEvaluator.isSupported(rules.get(1)));
+        assertTrue(new ApplicationAlarmEvaluator().evaluate(APPLICATION_ID, WINDOW_START, WINDOW_END, agentStatBoList, rules).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownCheckerName() {
+        new StaticAlarmRuleProvider(APPLICATION_ID + ",UNKNOWN,10");
+    }
+
+    private AgentStatBo createAgentStatBo(String agentId, long timestamp, long heapUsed, long heapMax, double jvmCpuLoad) {
+        JvmGcBo jvmGcBo = new JvmGcBo();
+        jvmGcBo.setAgentId(agentId);
+        jvmGcBo.setTimestamp(timestamp);
+        jvmGcBo.setHeapUsed(heapUsed);
+        jvmGcBo.setHeapMax(heapMax);
+
+        CpuLoadBo cpuLoadBo = new CpuLoadBo();
+        cpuLoadBo.setAgentId(agentId);
+        cpuLoadBo.setTimestamp(timestamp);
+        cpuLoadBo.setJvmCpuLoad(jvmCpuLoad);
+
+        AgentStatBo agentStatBo = new AgentStatBo();
+        agentStatBo.setAgentId(agentId);
+        agentStatBo.setJvmGcBos(Collections.singletonList(jvmGcBo));
+        agentStatBo.setCpuLoadBos(Collections.singletonList(cpuLoadBo));
+        agentStatBo.setDataSourceListBos(Collections.<DataSourceListBo>emptyList());
+        return agentStatBo;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.flink.mapper.thrift.stat;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatBo;
+import com.navercorp.pinpoint.common.server.bo.stat.DataSourceBo;
+import com.navercorp.pinpoint.thrift.dto.flink.TFAgentStat;
+import com.navercorp.pinpoint.thrift.dto.flink.TFAgentStatBatch;
+import com.navercorp.pinpoint.thrift.dto.flink.TFCpuLoad;
+import com.navercorp.pinpoint.thrift.dto.flink.TFDataSource;
+import com.navercorp.pinpoint.thrift.dto.flink.TFDataSourceList;
+import com.navercorp.pinpoint.thrift.dto.flink.TFJvmGc;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AgentStatBoMapperTest {
+
+    public static final String TEST_AGENT = "testAgent";
+
+    @Test
+    public void mapTest() {
+        final TFAgentStat tFAgentStat1 = new TFAgentStat();
+        tFAgentStat1.setTimestamp(1491274138454L);
+        final TFJvmGc tFJvmGc = new TFJvmGc();
+        tFJvmGc.setJvmMemoryHeapUsed(1000);
+        tFJvmGc.setJvmMemoryHeapMax(4000);
+        tFAgentStat1.setGc(tFJvmGc);
+        final TFCpuLoad tFCpuLoad = new TFCpuLoad();
+        tFCpuLoad.setJvmCpuLoad(0.5);
+        tFAgentStat1.setCpuLoad(tFCpuLoad);
+
+        final TFAgentStat tFAgentStat2 = new TFAgentStat();
+        tFAgentStat2.setTimestamp(1491274143454L);
+        final TFDataSource tFDataSource = new TFDataSource();
+        tFDataSource.setId(1);
+        tFDataSource.setDatabaseName("db");
+        tFDataSource.setActiveConnectionSize(10);
+        tFDataSource.setMaxConnectionSize(20);
+        tFAgentStat2.setDataSourceList(new TFDataSourceList(Collections.singletonList(tFDataSource)));
+
+        final TFAgentStat emptyAgentStat = new TFAgentStat();
+        emptyAgentStat.setTimestamp(1491274148454L);
+
+        final List<TFAgentStat> tFAgentStatList = new ArrayList<>();
+        tFAgentStatList.add(tFAgentStat1);
+        tFAgentStatList.add(tFAgentStat2);
+        tFAgentStatList.add(emptyAgentStat);
+        final TFAgentStatBatch tFAgentStatBatch = new TFAgentStatBatch(TEST_AGENT, 1491274100000L, tFAgentStatList);
+
+        final List<AgentStatBo> agentStatBoList = new AgentStatBoMapper().map(tFAgentStatBatch);
+        assertEquals(2, agentStatBoList.size());
+
+        final AgentStatBo agentStatBo1 = agentStatBoList.get(0);
+        assertEquals(TEST_AGENT, agentStatBo1.getAgentId());
+        assertEquals(1491274100000L, agentStatBo1.getStartTimestamp());
+        assertEquals(1, agentStatBo1.getJvmGcBos().size());
+        assertEquals(1491274138454L, agentStatBo1.getJvmGcBos().get(0).getTimestamp());
+        assertEquals(1000, agentStatBo1.getJvmGcBos().get(0).getHeapUsed());
+        assertEquals(4000, agentStatBo1.getJvmGcBos().get(0).getHeapMax());
+        assertEquals(0.5, agentStatBo1.getCpuLoadBos().get(0).getJvmCpuLoad(), 0.0001);
+        assertTrue(agentStatBo1.getDataSourceListBos().isEmpty());
+
+        final AgentStatBo agentStatBo2 = agentStatBoList.get(1);
+        assertTrue(agentStatBo2.getJvmGcBos().isEmpty());
+        assertTrue(agentStatBo2.getCpuLoadBos().isEmpty());
+        final List<DataSourceBo> dataSourceBoList = agentStatBo2.getDataSourceListBos().get(0).getList();
+        assertEquals(1, dataSourceBoList.size());
+        assertEquals("db", dataSourceBoList.get(0).getDatabaseName());
+        assertEquals(10, dataSourceBoList.get(0).getActiveConnectionSize());
+        assertEquals(20, dataSourceBoList.get(0).getMaxConnectionSize());
+    }
+
+    @Test
+    public void mapEmptyTest() {
+        final TFAgentStatBatch tFAgentStatBatch = new TFAgentStatBatch();
+        tFAgentStatBatch.setAgentId(TEST_AGENT);
+
+        assertTrue(new AgentStatBoMapper().map(tFAgentStatBatch).isEmpty());
+    }
+}
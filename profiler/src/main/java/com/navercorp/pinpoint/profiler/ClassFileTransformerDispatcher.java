@@ -11,4 +11,6 @@ public interface ClassFileTransformerDispatcher extends ClassFileTransformer {
     @Override
     byte[] transform(ClassLoader classLoader, String classInternalName, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classFileBuffer) throws IllegalClassFormatException;
 
+    void close();
+
 }
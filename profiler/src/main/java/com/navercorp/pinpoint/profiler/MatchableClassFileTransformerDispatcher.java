@@ -45,7 +45,7 @@ public class MatchableClassFileTransformerDispatcher implements ClassFileTransfo
     private final ClassLoader agentClassLoader = this.getClass().getClassLoader();
 
     private final BaseClassFileTransformer baseClassFileTransformer;
-    private final TransformerRegistry transformerRegistry;
+    private final MatchableTransformerRegistry transformerRegistry;
     private final DynamicTransformerRegistry dynamicTransformerRegistry;
     private final TransformerRegistry debugTransformerRegistry;
 
@@ -131,7 +131,7 @@ public class MatchableClassFileTransformerDispatcher implements ClassFileTransfo
         return baseClassFileTransformer.transform(classLoader, internalName, classBeingRedefined, protectionDomain, classFileBuffer, transformer);
     }
 
-    private TransformerRegistry createTransformerRegistry(PluginContextLoadResult pluginContexts, final ProfilerConfig profilerConfig) {
+    private MatchableTransformerRegistry createTransformerRegistry(PluginContextLoadResult pluginContexts, final ProfilerConfig profilerConfig) {
         final MatchableTransformerRegistry registry = new MatchableTransformerRegistry(profilerConfig);
         for (ClassFileTransformer transformer : pluginContexts.getClassFileTransformer()) {
             if (transformer instanceof MatchableClassFileTransformer) {
@@ -153,6 +153,12 @@ public class MatchableClassFileTransformerDispatcher implements ClassFileTransfo
             }
         }
 
+        registry.loadDecisionCache();
         return registry;
     }
+
+    @Override
+    public void close() {
+        this.transformerRegistry.saveDecisionCache();
+    }
 }
\ No newline at end of file
@@ -54,6 +54,8 @@ public final class DefaultTrace implements Trace, TraceRootSupport {
 
     private final ActiveTraceHandle activeTraceHandle;
 
+    private final SpanEventFactory spanEventFactory;
+
     private boolean closed = false;
 
     private final DefaultTraceScopePool scopePool = new DefaultTraceScopePool();
@@ -61,6 +63,12 @@ public final class DefaultTrace implements Trace, TraceRootSupport {
 
     public DefaultTrace(Span span, CallStack callStack, Storage storage, AsyncContextFactory asyncContextFactory, boolean sampling,
                         SpanRecorder spanRecorder, WrappedSpanEventRecorder wrappedSpanEventRecorder, ActiveTraceHandle activeTraceHandle) {
+        this(span, callStack, storage, asyncContextFactory, sampling, spanRecorder, wrappedSpanEventRecorder, activeTraceHandle, new DefaultSpanEventFactory());
+    }
+
+    public DefaultTrace(Span span, CallStack callStack, Storage storage, AsyncContextFactory asyncContextFactory, boolean sampling,
+                        SpanRecorder spanRecorder, WrappedSpanEventRecorder wrappedSpanEventRecorder, ActiveTraceHandle activeTraceHandle,
+                        SpanEventFactory spanEventFactory) {
 
         this.span = Assert.requireNonNull(span, "span must not be null");
         this.callStack = Assert.requireNonNull(callStack, "callStack must not be null");
@@ -71,6 +79,7 @@ public final class DefaultTrace implements Trace, TraceRootSupport {
         this.spanRecorder = Assert.requireNonNull(spanRecorder, "spanRecorder must not be null");
         this.wrappedSpanEventRecorder = Assert.requireNonNull(wrappedSpanEventRecorder, "wrappedSpanEventRecorder must not be null");
         this.activeTraceHandle = Assert.requireNonNull(activeTraceHandle, "activeTraceHandle must not be null");
+        this.spanEventFactory = Assert.requireNonNull(spanEventFactory, "spanEventFactory must not be null");
 
         setCurrentThread();
     }
@@ -107,7 +116,7 @@ public final class DefaultTrace implements Trace, TraceRootSupport {
     }
 
     private SpanEvent newSpanEvent(int stackId) {
-        final SpanEvent spanEvent = new SpanEvent(getTraceRoot());
+        final SpanEvent spanEvent = spanEventFactory.newSpanEvent(getTraceRoot());
         spanEvent.markStartTime();
         spanEvent.setStackId(stackId);
         return spanEvent;
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context;
+
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reuses span events after the data sender has serialized them.
+ * <p>
+ * The sender thread resets the span event list of each sent Span/SpanChunk and queues the list as one batch.
+ * Each application thread takes a whole batch into its own arena and hands out its span events without
+ * further synchronization. When no batch is available a new span event is allocated.
+ *
+ * @see SpanEventRecycler
+ */
+public class RecyclingSpanEventFactory implements SpanEventFactory, SpanEventRecycler {
+
+    public static final int DEFAULT_MAX_POOLED_BATCH_SIZE = 512;
+
+    private final BlockingQueue<List<TSpanEvent>> pool;
+
+    private final ThreadLocal<Arena> arenaLocal = new ThreadLocal<Arena>() {
+        @Override
+        protected Arena initialValue() {
+            return new Arena();
+        }
+    };
+
+    private final AtomicLong allocatedCount = new AtomicLong();
+    private final AtomicLong recycledCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+
+    public RecyclingSpanEventFactory() {
+        this(DEFAULT_MAX_POOLED_BATCH_SIZE);
+    }
+
+    public RecyclingSpanEventFactory(int maxPooledBatchSize) {
+        if (maxPooledBatchSize <= 0) {
+            throw new IllegalArgumentException("maxPooledBatchSize must be positive");
+        }
+        this.pool = new ArrayBlockingQueue<List<TSpanEvent>>(maxPooledBatchSize);
+    }
+
+    @Override
+    public SpanEvent newSpanEvent(TraceRoot traceRoot) {
+        final SpanEvent spanEvent = arenaLocal.get().poll();
+        if (spanEvent == null) {
+            allocatedCount.incrementAndGet();
+            return new SpanEvent(traceRoot);
+        }
+        spanEvent.init(traceRoot);
+        return spanEvent;
+    }
+
+    @Override
+    public void recycle(List<TSpanEvent> spanEventList) {
+        if (spanEventList == null || spanEventList.isEmpty()) {
+            return;
+        }
+        final int size = spanEventList.size();
+        for (int i = 0; i < size; i++) {
+            final TSpanEvent spanEvent = spanEventList.get(i);
+            if (spanEvent instanceof SpanEvent) {
+                ((SpanEvent) spanEvent).reset();
+            }
+        }
+        if (pool.offer(spanEventList)) {
+            recycledCount.addAndGet(size);
+        } else {
+            discardedCount.addAndGet(size);
+        }
+    }
+
+    /**
+     * @return number of span events allocated because no recycled one was available
+     */
+    public long getAllocatedCount() {
+        return allocatedCount.get();
+    }
+
+    /**
+     * @return number of span events returned to the pool
+     */
+    public long getRecycledCount() {
+        return recycledCount.get();
+    }
+
+    /**
+     * @return number of span events left to the GC because the pool was full
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    public int getPooledBatchSize() {
+        return pool.size();
+    }
+
+    private class Arena {
+        private List<TSpanEvent> batch;
+        private int index;
+
+        private SpanEvent poll() {
+            while (true) {
+                if (index == 0) {
+                    batch = pool.poll();
+                    if (batch == null) {
+                        return null;
+                    }
+                    index = batch.size();
+                }
+                final TSpanEvent spanEvent = batch.get(--index);
+                if (index == 0) {
+                    // do not keep the drained list alive
+                    batch = null;
+                }
+                if (spanEvent instanceof SpanEvent) {
+                    return (SpanEvent) spanEvent;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RecyclingSpanEventFactory{" +
+                "pooledBatchSize=" + pool.size() +
+                ", allocatedCount=" + allocatedCount +
+                ", recycledCount=" + recycledCount +
+                ", discardedCount=" + discardedCount +
+                '}';
+    }
+}
@@ -20,9 +20,12 @@ import com.navercorp.pinpoint.bootstrap.context.FrameAttachment;
 import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
 
 import com.navercorp.pinpoint.common.util.StringUtils;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
 import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
 import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
 
+import java.util.List;
+
 /**
  * Span represent RPC
  *
@@ -31,7 +34,7 @@ import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
  */
 public class SpanEvent extends TSpanEvent implements FrameAttachment {
 
-    private final TraceRoot traceRoot;
+    private TraceRoot traceRoot;
     private int stackId;
     private boolean timeRecording = true;
     private Object frameObject;
@@ -40,6 +43,9 @@ public class SpanEvent extends TSpanEvent implements FrameAttachment {
 
     private AsyncId asyncIdObject;
 
+    // annotation list kept from the previous use, see RecyclingSpanEventFactory
+    private List<TAnnotation> recycledAnnotations;
+
     public SpanEvent(TraceRoot traceRoot) {
         if (traceRoot == null) {
             throw new NullPointerException("traceRoot must not be null");
@@ -52,9 +58,44 @@ public class SpanEvent extends TSpanEvent implements FrameAttachment {
     }
 
     public void addAnnotation(Annotation annotation) {
+        if (this.recycledAnnotations != null && !isSetAnnotations()) {
+            setAnnotations(this.recycledAnnotations);
+            this.recycledAnnotations = null;
+        }
         this.addToAnnotations(annotation);
     }
 
+    /**
+     * Clears all fields so that the instance can be handed out again by {@link #init(TraceRoot)}.
+     */
+    void reset() {
+        final List<TAnnotation> annotations = getAnnotations();
+        clear();
+        // clear() keeps the isset flags of fields with default values
+        setEndElapsedIsSet(false);
+        setDepthIsSet(false);
+        setNextSpanIdIsSet(false);
+        if (annotations != null) {
+            annotations.clear();
+            this.recycledAnnotations = annotations;
+        }
+
+        this.traceRoot = null;
+        this.stackId = 0;
+        this.timeRecording = true;
+        this.frameObject = null;
+        this.startTime = 0;
+        this.afterTime = 0;
+        this.asyncIdObject = null;
+    }
+
+    void init(TraceRoot traceRoot) {
+        if (traceRoot == null) {
+            throw new NullPointerException("traceRoot must not be null");
+        }
+        this.traceRoot = traceRoot;
+    }
+
     public void setExceptionInfo(int exceptionClassId, String exceptionMessage) {
         final TIntStringValue exceptionInfo = new TIntStringValue(exceptionClassId);
         if (StringUtils.hasLength(exceptionMessage)) {
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context;
+
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+
+import java.util.List;
+
+/**
+ * Takes back span events once their Span/SpanChunk has been serialized.
+ * Must only be called when nothing else refers to the span events anymore.
+ */
+public interface SpanEventRecycler {
+
+    void recycle(List<TSpanEvent> spanEventList);
+
+}
@@ -45,6 +45,8 @@ public class DefaultShared implements Shared {
 
     private volatile int statusCode;
 
+    private volatile int tailSamplingDecision;
+
     @Override
     public void maskErrorCode(int errorCode) {
 //        synchronized (this) {
@@ -122,4 +124,14 @@ public class DefaultShared implements Shared {
     public int getStatusCode() {
         return this.statusCode;
     }
+
+    @Override
+    public void setTailSamplingDecision(int tailSamplingDecision) {
+        this.tailSamplingDecision = tailSamplingDecision;
+    }
+
+    @Override
+    public int getTailSamplingDecision() {
+        return tailSamplingDecision;
+    }
 }
\ No newline at end of file
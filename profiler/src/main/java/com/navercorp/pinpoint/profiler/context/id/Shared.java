@@ -46,4 +46,12 @@ public interface Shared {
     void setStatusCode(int statusCode);
 
     int getStatusCode();
+
+    /**
+     * Tail sampling decision, made when the span of the transaction is stored.
+     * Async traces started after the decision follow it.
+     */
+    void setTailSamplingDecision(int tailSamplingDecision);
+
+    int getTailSamplingDecision();
 }
@@ -45,6 +45,7 @@ import com.navercorp.pinpoint.profiler.context.CallStackFactory;
 import com.navercorp.pinpoint.profiler.context.DefaultSpanFactory;
 import com.navercorp.pinpoint.profiler.context.ServerMetaDataRegistryService;
 import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanEventFactory;
 import com.navercorp.pinpoint.profiler.context.SpanFactory;
 import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
 import com.navercorp.pinpoint.profiler.context.ThreadLocalBinder;
@@ -87,6 +88,7 @@ import com.navercorp.pinpoint.profiler.context.provider.DynamicTransformTriggerP
 import com.navercorp.pinpoint.profiler.context.provider.InstrumentEngineProvider;
 import com.navercorp.pinpoint.profiler.context.provider.JdbcUrlParsingServiceProvider;
 import com.navercorp.pinpoint.profiler.context.provider.JvmInformationProvider;
+import com.navercorp.pinpoint.profiler.context.provider.MetaDataCacheManagerProvider;
 import com.navercorp.pinpoint.profiler.context.provider.ObjectBinderFactoryProvider;
 import com.navercorp.pinpoint.profiler.context.provider.PinpointClientFactoryProvider;
 import com.navercorp.pinpoint.profiler.context.provider.PluginContextLoadResultProvider;
@@ -95,6 +97,7 @@ import com.navercorp.pinpoint.profiler.context.provider.ServerMetaDataHolderProv
 import com.navercorp.pinpoint.profiler.context.provider.ServerMetaDataRegistryServiceProvider;
 import com.navercorp.pinpoint.profiler.context.provider.SpanChunkFactoryProvider;
 import com.navercorp.pinpoint.profiler.context.provider.SpanDataSenderProvider;
+import com.navercorp.pinpoint.profiler.context.provider.SpanEventFactoryProvider;
 import com.navercorp.pinpoint.profiler.context.provider.SpanPostProcessorProvider;
 import com.navercorp.pinpoint.profiler.context.provider.SpanStatClientFactoryProvider;
 import com.navercorp.pinpoint.profiler.context.provider.StatDataSenderProvider;
@@ -127,6 +130,7 @@ import com.navercorp.pinpoint.profiler.interceptor.registry.InterceptorRegistryB
 import com.navercorp.pinpoint.profiler.metadata.ApiMetaDataService;
 import com.navercorp.pinpoint.profiler.metadata.DefaultSqlMetaDataService;
 import com.navercorp.pinpoint.profiler.metadata.DefaultStringMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.MetaDataCacheManager;
 import com.navercorp.pinpoint.profiler.metadata.SqlMetaDataService;
 import com.navercorp.pinpoint.profiler.metadata.StringMetaDataService;
 import com.navercorp.pinpoint.profiler.monitor.AgentStatMonitor;
@@ -140,7 +144,11 @@ import com.navercorp.pinpoint.profiler.monitor.collector.cpu.CpuLoadMetricCollec
 import com.navercorp.pinpoint.profiler.monitor.collector.datasource.DataSourceMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.collector.deadlock.DeadlockMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.collector.jvmgc.JvmGcMetricCollector;
+import com.navercorp.pinpoint.profiler.monitor.collector.metadata.DefaultMetaDataCacheMetricCollector;
+import com.navercorp.pinpoint.profiler.monitor.collector.metadata.MetaDataCacheMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.collector.response.ResponseTimeMetricCollector;
+import com.navercorp.pinpoint.profiler.monitor.collector.sampling.DefaultSamplingMetricCollector;
+import com.navercorp.pinpoint.profiler.monitor.collector.sampling.SamplingMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.collector.transaction.TransactionMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.metric.activethread.ActiveTraceMetric;
 import com.navercorp.pinpoint.profiler.monitor.metric.cpu.CpuLoadMetric;
@@ -150,9 +158,13 @@ import com.navercorp.pinpoint.profiler.monitor.metric.gc.DetailedGarbageCollecto
 import com.navercorp.pinpoint.profiler.monitor.metric.gc.GarbageCollectorMetric;
 import com.navercorp.pinpoint.profiler.monitor.metric.memory.DetailedMemoryMetric;
 import com.navercorp.pinpoint.profiler.monitor.metric.memory.MemoryMetric;
+import com.navercorp.pinpoint.profiler.monitor.metric.metadata.DefaultMetaDataCacheMetric;
+import com.navercorp.pinpoint.profiler.monitor.metric.metadata.MetaDataCacheMetric;
 import com.navercorp.pinpoint.profiler.monitor.metric.response.ResponseTimeCollector;
 import com.navercorp.pinpoint.profiler.monitor.metric.response.ResponseTimeMetric;
 import com.navercorp.pinpoint.profiler.monitor.metric.response.ReuseResponseTimeCollector;
+import com.navercorp.pinpoint.profiler.monitor.metric.sampling.DefaultSamplingMetric;
+import com.navercorp.pinpoint.profiler.monitor.metric.sampling.SamplingMetric;
 import com.navercorp.pinpoint.profiler.monitor.metric.transaction.TransactionMetric;
 import com.navercorp.pinpoint.profiler.objectfactory.ObjectBinderFactory;
 import com.navercorp.pinpoint.profiler.plugin.PluginContextLoadResult;
@@ -264,6 +276,7 @@ public class ApplicationContextModule extends AbstractModule {
         bind(CallStackFactory.class).toProvider(CallStackFactoryProvider.class).in(Scopes.SINGLETON);
 
         bind(SpanFactory.class).to(DefaultSpanFactory.class).in(Scopes.SINGLETON);
+        bind(SpanEventFactory.class).toProvider(SpanEventFactoryProvider.class).in(Scopes.SINGLETON);
         bind(SpanPostProcessor.class).toProvider(SpanPostProcessorProvider.class).in(Scopes.SINGLETON);
         bind(SpanChunkFactory.class).toProvider(SpanChunkFactoryProvider.class).in(Scopes.SINGLETON);
 
@@ -291,6 +304,7 @@ public class ApplicationContextModule extends AbstractModule {
 
     private void bindServiceComponent() {
 
+        bind(MetaDataCacheManager.class).toProvider(MetaDataCacheManagerProvider.class).in(Scopes.SINGLETON);
         bind(StringMetaDataService.class).to(DefaultStringMetaDataService.class).in(Scopes.SINGLETON);
         bind(ApiMetaDataService.class).toProvider(ApiMetaDataServiceProvider.class).in(Scopes.SINGLETON);
         bind(SqlMetaDataService.class).to(DefaultSqlMetaDataService.class).in(Scopes.SINGLETON);
@@ -330,6 +344,12 @@ public class ApplicationContextModule extends AbstractModule {
         bind(DeadlockMetric.class).toProvider(DeadlockMetricProvider.class).in(Scopes.SINGLETON);
         bind(DeadlockMetricCollector.class).toProvider(DeadlockMetricCollectorProvider.class).in(Scopes.SINGLETON);
 
+        bind(MetaDataCacheMetric.class).to(DefaultMetaDataCacheMetric.class).in(Scopes.SINGLETON);
+        bind(MetaDataCacheMetricCollector.class).to(DefaultMetaDataCacheMetricCollector.class).in(Scopes.SINGLETON);
+
+        bind(SamplingMetric.class).to(DefaultSamplingMetric.class).in(Scopes.SINGLETON);
+        bind(SamplingMetricCollector.class).to(DefaultSamplingMetricCollector.class).in(Scopes.SINGLETON);
+
         bind(new TypeLiteral<AgentStatMetricCollector<TAgentStat>>() {})
                 .annotatedWith(Names.named("AgentStatCollector"))
                 .to(AgentStatCollector.class).in(Scopes.SINGLETON);
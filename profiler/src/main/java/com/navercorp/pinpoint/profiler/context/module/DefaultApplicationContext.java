@@ -213,6 +213,7 @@ public class DefaultApplicationContext implements ApplicationContext {
         this.agentInfoSender.stop();
         this.agentStatMonitor.stop();
         this.deadlockMonitor.stop();
+        this.classFileDispatcher.close();
 
         // Need to process stop
         this.spanDataSender.stop();
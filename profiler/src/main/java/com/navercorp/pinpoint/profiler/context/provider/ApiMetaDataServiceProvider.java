@@ -22,6 +22,7 @@ import com.navercorp.pinpoint.profiler.context.module.AgentId;
 import com.navercorp.pinpoint.profiler.context.module.AgentStartTime;
 import com.navercorp.pinpoint.profiler.metadata.DefaultApiMetaDataService;
 import com.navercorp.pinpoint.profiler.metadata.ApiMetaDataService;
+import com.navercorp.pinpoint.profiler.metadata.MetaDataCacheManager;
 import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
 
 /**
@@ -31,20 +32,26 @@ public class ApiMetaDataServiceProvider implements Provider<ApiMetaDataService>
     private final String agentId;
     private final long agentStartTime;
     private final Provider<EnhancedDataSender> enhancedDataSenderProvider;
+    private final MetaDataCacheManager metaDataCacheManager;
 
     @Inject
-    public ApiMetaDataServiceProvider(@AgentId String agentId, @AgentStartTime long agentStartTime, Provider<EnhancedDataSender> enhancedDataSenderProvider) {
+    public ApiMetaDataServiceProvider(@AgentId String agentId, @AgentStartTime long agentStartTime, Provider<EnhancedDataSender> enhancedDataSenderProvider,
+                                      MetaDataCacheManager metaDataCacheManager) {
         if (enhancedDataSenderProvider == null) {
             throw new NullPointerException("enhancedDataSenderProvider must not be null");
         }
+        if (metaDataCacheManager == null) {
+            throw new NullPointerException("metaDataCacheManager must not be null");
+        }
         this.agentId = agentId;
         this.agentStartTime = agentStartTime;
         this.enhancedDataSenderProvider = enhancedDataSenderProvider;
+        this.metaDataCacheManager = metaDataCacheManager;
     }
 
     @Override
     public ApiMetaDataService get() {
         final EnhancedDataSender enhancedDataSender = this.enhancedDataSenderProvider.get();
-        return new DefaultApiMetaDataService(agentId, agentStartTime, enhancedDataSender);
+        return new DefaultApiMetaDataService(agentId, agentStartTime, enhancedDataSender, metaDataCacheManager.getApiCache());
     }
 }
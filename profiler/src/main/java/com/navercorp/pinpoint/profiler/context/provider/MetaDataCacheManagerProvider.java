@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.profiler.metadata.MetaDataCacheManager;
+
+/**
+ * Sizes the metadata caches in bytes.
+ * The SQL cache defaults to 1KB per entry of {@code profiler.jdbc.sqlcachesize}.
+ */
+public class MetaDataCacheManagerProvider implements Provider<MetaDataCacheManager> {
+
+    static final String SQL_CACHE_MAX_BYTES = "profiler.metadata.sql.cache.maxbytes";
+    static final String API_CACHE_MAX_BYTES = "profiler.metadata.api.cache.maxbytes";
+    static final String STRING_CACHE_MAX_BYTES = "profiler.metadata.string.cache.maxbytes";
+
+    static final long SQL_ENTRY_BYTES = 1024;
+    static final long DEFAULT_API_CACHE_MAX_BYTES = 1024 * 1024;
+    static final long DEFAULT_STRING_CACHE_MAX_BYTES = 512 * 1024;
+
+    private final long sqlCacheMaxBytes;
+    private final long apiCacheMaxBytes;
+    private final long stringCacheMaxBytes;
+
+    @Inject
+    public MetaDataCacheManagerProvider(ProfilerConfig profilerConfig) {
+        Assert.requireNonNull(profilerConfig, "profilerConfig must not be null");
+
+        this.sqlCacheMaxBytes = profilerConfig.readLong(SQL_CACHE_MAX_BYTES, profilerConfig.getJdbcSqlCacheSize() * SQL_ENTRY_BYTES);
+        this.apiCacheMaxBytes = profilerConfig.readLong(API_CACHE_MAX_BYTES, DEFAULT_API_CACHE_MAX_BYTES);
+        this.stringCacheMaxBytes = profilerConfig.readLong(STRING_CACHE_MAX_BYTES, DEFAULT_STRING_CACHE_MAX_BYTES);
+    }
+
+    @Override
+    public MetaDataCacheManager get() {
+        return new MetaDataCacheManager(sqlCacheMaxBytes, apiCacheMaxBytes, stringCacheMaxBytes);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MetaDataCacheManagerProvider{");
+        sb.append("sqlCacheMaxBytes=").append(sqlCacheMaxBytes);
+        sb.append(", apiCacheMaxBytes=").append(apiCacheMaxBytes);
+        sb.append(", stringCacheMaxBytes=").append(stringCacheMaxBytes);
+        sb.append('}');
+        return sb.toString();
+    }
+}
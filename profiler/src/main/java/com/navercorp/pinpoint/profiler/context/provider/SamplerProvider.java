@@ -21,6 +21,7 @@ import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
 import com.navercorp.pinpoint.profiler.sampler.SamplerFactory;
+import com.navercorp.pinpoint.profiler.sampler.TailSampler;
 
 /**
  * @author Woonduk Kang(emeroad)
@@ -38,8 +39,13 @@ public class SamplerProvider implements Provider<Sampler> {
     public Sampler get() {
         boolean samplingEnable = profilerConfig.isSamplingEnable();
         int samplingRate = profilerConfig.getSamplingRate();
+        int samplingTracesPerSecond = profilerConfig.getSamplingTracesPerSecond();
 
         SamplerFactory samplerFactory = new SamplerFactory();
-        return samplerFactory.createSampler(samplingEnable, samplingRate);
+        Sampler sampler = samplerFactory.createSampler(samplingEnable, samplingRate, samplingTracesPerSecond);
+        if (samplingEnable && profilerConfig.isSamplingTailEnable()) {
+            return new TailSampler(sampler, profilerConfig.getSamplingTailSlowThreshold());
+        }
+        return sampler;
     }
 }
@@ -19,10 +19,17 @@ package com.navercorp.pinpoint.profiler.context.provider;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.profiler.context.SpanEventFactory;
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
 import com.navercorp.pinpoint.profiler.context.module.SpanStatClientFactory;
+import com.navercorp.pinpoint.profiler.sender.BatchUDPDataSender;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
+import com.navercorp.pinpoint.profiler.sender.NioUDPDataSender;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSenderFactory;
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueConfig;
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueType;
+import com.navercorp.pinpoint.profiler.sender.queue.WaitStrategyType;
 import com.navercorp.pinpoint.rpc.client.PinpointClientFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +45,12 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
 
     private static final String UDP_EXECUTOR_NAME = "Pinpoint-UdpSpanDataExecutor";
 
+    static final String SPAN_QUEUE_TYPE = "profiler.spandatasender.write.queue.type";
+    static final String SPAN_QUEUE_WAIT_STRATEGY = "profiler.spandatasender.write.queue.waitstrategy";
+    static final String SPAN_QUEUE_DRAIN_SIZE = "profiler.spandatasender.write.queue.drain.size";
+    static final String SPAN_BATCH_FLUSH_TIMEOUT = "profiler.spandatasender.batch.flush.timeout";
+    static final String SPAN_BATCH_PACKET_SIZE = "profiler.spandatasender.batch.packet.size";
+
     private final Provider<PinpointClientFactory> clientFactoryProvider;
 
     private final String ip;
@@ -47,9 +60,14 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
     private final int sendBufferSize;
     private final String ioType;
     private final String transportType;
+    private final AsyncQueueConfig queueConfig;
+    private final int batchFlushTimeout;
+    private final int batchPacketSize;
+    private final SpanEventFactory spanEventFactory;
 
     @Inject
-    public SpanDataSenderProvider(ProfilerConfig profilerConfig, @SpanStatClientFactory Provider<PinpointClientFactory> clientFactoryProvider) {
+    public SpanDataSenderProvider(ProfilerConfig profilerConfig, @SpanStatClientFactory Provider<PinpointClientFactory> clientFactoryProvider,
+                                  SpanEventFactory spanEventFactory) {
         if (profilerConfig == null) {
             throw new NullPointerException("profilerConfig must not be null");
         }
@@ -58,6 +76,7 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
         }
 
         this.clientFactoryProvider = clientFactoryProvider;
+        this.spanEventFactory = spanEventFactory;
 
         this.ip = profilerConfig.getCollectorSpanServerIp();
         this.port = profilerConfig.getCollectorSpanServerPort();
@@ -66,6 +85,12 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
         this.sendBufferSize = profilerConfig.getSpanDataSenderSocketSendBufferSize();
         this.ioType = profilerConfig.getSpanDataSenderSocketType();
         this.transportType = profilerConfig.getSpanDataSenderTransportType();
+        this.queueConfig = AsyncQueueConfig.of(
+                profilerConfig.readString(SPAN_QUEUE_TYPE, AsyncQueueType.LINKED.name()),
+                profilerConfig.readString(SPAN_QUEUE_WAIT_STRATEGY, WaitStrategyType.BLOCKING.name()),
+                profilerConfig.readInt(SPAN_QUEUE_DRAIN_SIZE, AsyncQueueConfig.DEFAULT_MAX_DRAIN_SIZE));
+        this.batchFlushTimeout = profilerConfig.readInt(SPAN_BATCH_FLUSH_TIMEOUT, BatchUDPDataSender.DEFAULT_FLUSH_TIMEOUT);
+        this.batchPacketSize = profilerConfig.readInt(SPAN_BATCH_PACKET_SIZE, NioUDPDataSender.UDP_MAX_PACKET_LENGTH);
     }
 
     @Override
@@ -79,7 +104,13 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
             InetSocketAddress address = new InetSocketAddress(ip, port);
             return new TcpDataSender("SpanDataSender", address, pinpointClientFactory);
         } else {
-            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize);
+            // TcpDataSender keeps messages for retry, so SpanEvents are recycled with UDP only
+            SpanEventRecycler spanEventRecycler = null;
+            if (spanEventFactory instanceof SpanEventRecycler) {
+                spanEventRecycler = (SpanEventRecycler) spanEventFactory;
+            }
+            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize, queueConfig, spanEventRecycler,
+                    batchFlushTimeout, batchPacketSize);
             return factory.create(ioType);
         }
     }
@@ -94,6 +125,10 @@ public class SpanDataSenderProvider  implements Provider<DataSender> {
         sb.append(", sendBufferSize=").append(sendBufferSize);
         sb.append(", ioType='").append(ioType).append('\'');
         sb.append(", transportType='").append(transportType).append('\'');
+        sb.append(", queueConfig=").append(queueConfig);
+        sb.append(", batchFlushTimeout=").append(batchFlushTimeout);
+        sb.append(", batchPacketSize=").append(batchPacketSize);
+        sb.append(", spanEventFactory=").append(spanEventFactory);
         sb.append('}');
         return sb.toString();
     }
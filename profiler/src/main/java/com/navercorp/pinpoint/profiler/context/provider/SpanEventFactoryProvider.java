@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.common.util.Assert;
+import com.navercorp.pinpoint.profiler.context.DefaultSpanEventFactory;
+import com.navercorp.pinpoint.profiler.context.RecyclingSpanEventFactory;
+import com.navercorp.pinpoint.profiler.context.SpanEventFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selects the {@link SpanEventFactory} implementation.
+ * SpanEvent recycling is disabled by default and only takes effect with the UDP span data sender.
+ */
+public class SpanEventFactoryProvider implements Provider<SpanEventFactory> {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    static final String SPAN_EVENT_RECYCLE_ENABLE = "profiler.spanevent.recycle.enable";
+    static final String SPAN_EVENT_RECYCLE_POOL_SIZE = "profiler.spanevent.recycle.pool.size";
+
+    private final boolean recycleEnable;
+    private final int poolSize;
+
+    @Inject
+    public SpanEventFactoryProvider(ProfilerConfig profilerConfig) {
+        Assert.requireNonNull(profilerConfig, "profilerConfig must not be null");
+
+        this.recycleEnable = profilerConfig.readBoolean(SPAN_EVENT_RECYCLE_ENABLE, false);
+        this.poolSize = profilerConfig.readInt(SPAN_EVENT_RECYCLE_POOL_SIZE, RecyclingSpanEventFactory.DEFAULT_MAX_POOLED_BATCH_SIZE);
+    }
+
+    @Override
+    public SpanEventFactory get() {
+        if (recycleEnable) {
+            logger.info("SpanEvent recycling enabled. poolSize:{}", poolSize);
+            return new RecyclingSpanEventFactory(poolSize);
+        }
+        return new DefaultSpanEventFactory();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SpanEventFactoryProvider{");
+        sb.append("recycleEnable=").append(recycleEnable);
+        sb.append(", poolSize=").append(poolSize);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -20,9 +20,14 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.profiler.context.module.SpanStatClientFactory;
+import com.navercorp.pinpoint.profiler.sender.BatchUDPDataSender;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
+import com.navercorp.pinpoint.profiler.sender.NioUDPDataSender;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSenderFactory;
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueConfig;
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueType;
+import com.navercorp.pinpoint.profiler.sender.queue.WaitStrategyType;
 import com.navercorp.pinpoint.rpc.client.PinpointClientFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +43,12 @@ public class StatDataSenderProvider implements Provider<DataSender> {
 
     private static final String UDP_EXECUTOR_NAME = "Pinpoint-UdpStatDataExecutor";
 
+    static final String STAT_QUEUE_TYPE = "profiler.statdatasender.write.queue.type";
+    static final String STAT_QUEUE_WAIT_STRATEGY = "profiler.statdatasender.write.queue.waitstrategy";
+    static final String STAT_QUEUE_DRAIN_SIZE = "profiler.statdatasender.write.queue.drain.size";
+    static final String STAT_BATCH_FLUSH_TIMEOUT = "profiler.statdatasender.batch.flush.timeout";
+    static final String STAT_BATCH_PACKET_SIZE = "profiler.statdatasender.batch.packet.size";
+
     private final Provider<PinpointClientFactory> clientFactoryProvider;
 
     private final String ip;
@@ -47,6 +58,9 @@ public class StatDataSenderProvider implements Provider<DataSender> {
     private final int sendBufferSize;
     private final String ioType;
     private final String transportType;
+    private final AsyncQueueConfig queueConfig;
+    private final int batchFlushTimeout;
+    private final int batchPacketSize;
 
     @Inject
     public StatDataSenderProvider(ProfilerConfig profilerConfig, @SpanStatClientFactory Provider<PinpointClientFactory> clientFactoryProvider) {
@@ -66,6 +80,12 @@ public class StatDataSenderProvider implements Provider<DataSender> {
         this.sendBufferSize = profilerConfig.getStatDataSenderSocketSendBufferSize();
         this.ioType = profilerConfig.getStatDataSenderSocketType();
         this.transportType = profilerConfig.getStatDataSenderTransportType();
+        this.queueConfig = AsyncQueueConfig.of(
+                profilerConfig.readString(STAT_QUEUE_TYPE, AsyncQueueType.LINKED.name()),
+                profilerConfig.readString(STAT_QUEUE_WAIT_STRATEGY, WaitStrategyType.BLOCKING.name()),
+                profilerConfig.readInt(STAT_QUEUE_DRAIN_SIZE, AsyncQueueConfig.DEFAULT_MAX_DRAIN_SIZE));
+        this.batchFlushTimeout = profilerConfig.readInt(STAT_BATCH_FLUSH_TIMEOUT, BatchUDPDataSender.DEFAULT_FLUSH_TIMEOUT);
+        this.batchPacketSize = profilerConfig.readInt(STAT_BATCH_PACKET_SIZE, NioUDPDataSender.UDP_MAX_PACKET_LENGTH);
     }
 
     @Override
@@ -79,7 +99,8 @@ public class StatDataSenderProvider implements Provider<DataSender> {
             InetSocketAddress address = new InetSocketAddress(ip, port);
             return new TcpDataSender("StatDataSender", address, pinpointClientFactory);
         } else {
-            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize);
+            UdpDataSenderFactory factory = new UdpDataSenderFactory(ip, port, UDP_EXECUTOR_NAME, writeQueueSize, timeout, sendBufferSize, queueConfig, null,
+                    batchFlushTimeout, batchPacketSize);
             return factory.create(ioType);
         }
     }
@@ -94,6 +115,9 @@ public class StatDataSenderProvider implements Provider<DataSender> {
         sb.append(", sendBufferSize=").append(sendBufferSize);
         sb.append(", ioType='").append(ioType).append('\'');
         sb.append(", transportType='").append(transportType).append('\'');
+        sb.append(", queueConfig=").append(queueConfig);
+        sb.append(", batchFlushTimeout=").append(batchFlushTimeout);
+        sb.append(", batchPacketSize=").append(batchPacketSize);
         sb.append('}');
         return sb.toString();
     }
@@ -19,14 +19,17 @@ package com.navercorp.pinpoint.profiler.context.provider;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
 import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
 import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
 import com.navercorp.pinpoint.profiler.context.module.SpanDataSender;
 import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.SpanStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
+import com.navercorp.pinpoint.profiler.context.storage.TailSamplingStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.TraceLogDelegateStorage;
 import com.navercorp.pinpoint.profiler.context.storage.TraceLogDelegateStorageFactory;
+import com.navercorp.pinpoint.profiler.sampler.TailSampler;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,9 +43,11 @@ public class StorageFactoryProvider implements Provider<StorageFactory> {
     private final DataSender spanDataSender;
     private final SpanPostProcessor spanPostProcessor;
     private final SpanChunkFactory spanChunkFactory;
+    private final Sampler sampler;
 
     @Inject
-    public StorageFactoryProvider(ProfilerConfig profilerConfig, @SpanDataSender DataSender spanDataSender, SpanPostProcessor spanPostProcessor, SpanChunkFactory spanChunkFactory) {
+    public StorageFactoryProvider(ProfilerConfig profilerConfig, @SpanDataSender DataSender spanDataSender, SpanPostProcessor spanPostProcessor, SpanChunkFactory spanChunkFactory,
+                                  Sampler sampler) {
         if (profilerConfig == null) {
             throw new NullPointerException("profilerConfig must not be null");
         }
@@ -52,11 +57,15 @@ public class StorageFactoryProvider implements Provider<StorageFactory> {
         if (spanChunkFactory == null) {
             throw new NullPointerException("spanChunkFactory must not be null");
         }
+        if (sampler == null) {
+            throw new NullPointerException("sampler must not be null");
+        }
 
         this.profilerConfig = profilerConfig;
         this.spanDataSender = spanDataSender;
         this.spanPostProcessor = spanPostProcessor;
         this.spanChunkFactory = spanChunkFactory;
+        this.sampler = sampler;
     }
 
     @Override
@@ -69,6 +78,14 @@ public class StorageFactoryProvider implements Provider<StorageFactory> {
     }
 
     private StorageFactory newStorageFactory() {
+        if (sampler instanceof TailSampler) {
+            // span chunks are held until the transaction is decided, so buffering can't be disabled
+            int ioBufferingBufferSize = this.profilerConfig.getIoBufferingBufferSize();
+            int maxTransactions = this.profilerConfig.getSamplingTailBufferMaxTransactions();
+            int maxEvents = this.profilerConfig.getSamplingTailBufferMaxEvents();
+            return new TailSamplingStorageFactory(ioBufferingBufferSize, this.spanDataSender, this.spanPostProcessor, this.spanChunkFactory,
+                    (TailSampler) sampler, maxTransactions, maxEvents);
+        }
         if (profilerConfig.isIoBufferingEnable()) {
             int ioBufferingBufferSize = this.profilerConfig.getIoBufferingBufferSize();
             return new BufferedStorageFactory(ioBufferingBufferSize, this.spanDataSender, this.spanPostProcessor, this.spanChunkFactory);
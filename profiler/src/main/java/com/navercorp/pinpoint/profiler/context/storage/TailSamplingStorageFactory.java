@@ -0,0 +1,374 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunk;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
+import com.navercorp.pinpoint.profiler.context.id.Shared;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.sampler.TailSampler;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import org.apache.thrift.TBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tail sampling : every transaction is recorded into a {@link BufferedStorage} whose span chunks are held in memory
+ * until the span is stored. The {@link TailSampler} then decides whether the transaction is sent,
+ * so the dropped transactions are never serialized.
+ * <p>
+ * Memory is bounded twice:
+ * <ul>
+ *     <li>a transaction is evicted once {@code maxTransactions} newer transactions have started</li>
+ *     <li>a span chunk that would exceed {@code maxEvents} buffered span events evicts the oldest transactions holding span events</li>
+ * </ul>
+ * An evicted transaction that is already slow is kept right away and its chunks are sent.
+ * Otherwise its chunks, including the ones of async traces started later, are dropped,
+ * and it is decided on its span alone, which is sent without them if kept.
+ */
+public class TailSamplingStorageFactory implements StorageFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TailSamplingStorageFactory.class);
+
+    static final int UNDECIDED = 0;
+    static final int KEPT = 1;
+    static final int DISCARDED = 2;
+    static final int EVICTED = 3;
+
+    private static final DataSender DISCARD_DATA_SENDER = new DataSender() {
+        @Override
+        public boolean send(TBase<?, ?> data) {
+            return false;
+        }
+
+        @Override
+        public void stop() {
+        }
+    };
+
+    private final int ioBufferingBufferSize;
+    private final DataSender dataSender;
+    private final SpanPostProcessor spanPostProcessor;
+    private final SpanChunkFactory spanChunkFactory;
+    private final TailSampler tailSampler;
+    private final int maxEvents;
+
+    private final ConcurrentMap<TraceRoot, TraceBuffer> traceBuffers = new ConcurrentHashMap<TraceRoot, TraceBuffer>();
+    // transactions in start order, a new transaction replaces the one started maxTransactions before
+    private final AtomicReferenceArray<TraceBuffer> evictionRing;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger bufferedEvents = new AtomicInteger();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    public TailSamplingStorageFactory(int ioBufferingBufferSize, DataSender dataSender, SpanPostProcessor spanPostProcessor, SpanChunkFactory spanChunkFactory,
+                                      TailSampler tailSampler, int maxTransactions, int maxEvents) {
+        if (dataSender == null) {
+            throw new NullPointerException("dataSender must not be null");
+        }
+        if (spanPostProcessor == null) {
+            throw new NullPointerException("spanPostProcessor must not be null");
+        }
+        if (spanChunkFactory == null) {
+            throw new NullPointerException("spanChunkFactory must not be null");
+        }
+        if (tailSampler == null) {
+            throw new NullPointerException("tailSampler must not be null");
+        }
+        if (maxTransactions <= 0) {
+            throw new IllegalArgumentException("maxTransactions must be positive");
+        }
+        if (maxEvents <= 0) {
+            throw new IllegalArgumentException("maxEvents must be positive");
+        }
+        this.ioBufferingBufferSize = ioBufferingBufferSize;
+        this.dataSender = dataSender;
+        this.spanPostProcessor = spanPostProcessor;
+        this.spanChunkFactory = spanChunkFactory;
+        this.tailSampler = tailSampler;
+        this.evictionRing = new AtomicReferenceArray<TraceBuffer>(maxTransactions);
+        this.maxEvents = maxEvents;
+    }
+
+    @Override
+    public Storage createStorage(TraceRoot traceRoot) {
+        final DataSender traceDataSender = getTraceDataSender(traceRoot);
+        return new BufferedStorage(traceRoot, traceDataSender, spanPostProcessor, spanChunkFactory, ioBufferingBufferSize);
+    }
+
+    private DataSender getTraceDataSender(TraceRoot traceRoot) {
+        // async traces of the transaction share its buffer
+        final TraceBuffer traceBuffer = traceBuffers.get(traceRoot);
+        if (traceBuffer != null) {
+            return traceBuffer;
+        }
+        final Shared shared = traceRoot.getShared();
+        if (shared.getTailSamplingDecision() != UNDECIDED) {
+            return getDecidedDataSender(traceRoot, shared.getTailSamplingDecision());
+        }
+
+        final TraceBuffer newTraceBuffer = new TraceBuffer(traceRoot, UNDECIDED);
+        final TraceBuffer oldTraceBuffer = traceBuffers.putIfAbsent(traceRoot, newTraceBuffer);
+        if (oldTraceBuffer != null) {
+            return oldTraceBuffer;
+        }
+        // the decision is published before its buffer is removed, so a buffer put after that sees it
+        if (shared.getTailSamplingDecision() != UNDECIDED) {
+            traceBuffers.remove(traceRoot, newTraceBuffer);
+            return getDecidedDataSender(traceRoot, shared.getTailSamplingDecision());
+        }
+
+        final int index = (int) (sequence.getAndIncrement() % evictionRing.length());
+        final TraceBuffer evicted = evictionRing.getAndSet(index, newTraceBuffer);
+        if (evicted != null) {
+            evicted.evict();
+        }
+        return newTraceBuffer;
+    }
+
+    private DataSender getDecidedDataSender(TraceRoot traceRoot, int decision) {
+        if (decision == KEPT) {
+            return dataSender;
+        }
+        if (decision == EVICTED) {
+            // drops the span chunks of the evicted transaction until its span decides it
+            return new TraceBuffer(traceRoot, EVICTED);
+        }
+        return DISCARD_DATA_SENDER;
+    }
+
+    private TraceBuffer findOldestBufferedTrace() {
+        final int length = evictionRing.length();
+        // the slot the next transaction replaces holds the oldest one
+        final long next = sequence.get();
+        for (int i = 0; i < length; i++) {
+            final TraceBuffer traceBuffer = evictionRing.get((int) ((next + i) % length));
+            if (traceBuffer != null && traceBuffer.hasBufferedEvents()) {
+                return traceBuffer;
+            }
+        }
+        return null;
+    }
+
+    int getBufferedTransactions() {
+        return traceBuffers.size();
+    }
+
+    int getBufferedEvents() {
+        return bufferedEvents.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    private static boolean hasException(List<TSpanEvent> spanEventList) {
+        if (spanEventList == null) {
+            return false;
+        }
+        for (TSpanEvent spanEvent : spanEventList) {
+            if (spanEvent.isSetExceptionInfo()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isError(Span span) {
+        return span.getErrCode() != 0 || span.isSetExceptionInfo() || hasException(span.getSpanEventList());
+    }
+
+    /**
+     * Span chunks of an undecided transaction. The span of the transaction decides it.
+     */
+    private class TraceBuffer implements DataSender {
+
+        private final TraceRoot traceRoot;
+
+        // guarded by this
+        private int state;
+        private List<SpanChunk> spanChunks;
+        private int eventCount;
+        private boolean error;
+
+        private TraceBuffer(TraceRoot traceRoot, int state) {
+            this.traceRoot = traceRoot;
+            this.state = state;
+        }
+
+        @Override
+        public boolean send(TBase<?, ?> data) {
+            if (data instanceof SpanChunk) {
+                return buffer((SpanChunk) data);
+            }
+            if (data instanceof Span) {
+                return decide((Span) data);
+            }
+            return dataSender.send(data);
+        }
+
+        private boolean buffer(SpanChunk spanChunk) {
+            final List<TSpanEvent> spanEventList = spanChunk.getSpanEventList();
+            final int size = spanEventList == null ? 0 : spanEventList.size();
+            // other transactions are evicted outside of this lock, two buffers never wait for each other
+            final boolean reserved = isUndecided() && reserve(size);
+            return add(spanChunk, size, reserved);
+        }
+
+        private boolean reserve(int size) {
+            while (bufferedEvents.addAndGet(size) > maxEvents) {
+                bufferedEvents.addAndGet(-size);
+                final TraceBuffer oldest = findOldestBufferedTrace();
+                if (oldest == null || oldest == this) {
+                    evict();
+                    return false;
+                }
+                oldest.evict();
+            }
+            return true;
+        }
+
+        private synchronized boolean add(SpanChunk spanChunk, int size, boolean reserved) {
+            if (state != UNDECIDED) {
+                if (reserved) {
+                    bufferedEvents.addAndGet(-size);
+                }
+                if (state == KEPT) {
+                    return dataSender.send(spanChunk);
+                }
+                return false;
+            }
+            if (!reserved) {
+                return false;
+            }
+
+            final List<TSpanEvent> spanEventList = spanChunk.getSpanEventList();
+            if (spanChunks == null) {
+                spanChunks = new ArrayList<SpanChunk>();
+            }
+            spanChunks.add(spanChunk);
+            eventCount += size;
+            error |= hasException(spanEventList);
+            return true;
+        }
+
+        private synchronized boolean isUndecided() {
+            return state == UNDECIDED;
+        }
+
+        private synchronized boolean hasBufferedEvents() {
+            return state == UNDECIDED && eventCount > 0;
+        }
+
+        private synchronized boolean decide(Span span) {
+            if (state == KEPT) {
+                return dataSender.send(span);
+            }
+            if (state == DISCARDED) {
+                return false;
+            }
+
+            // an evicted transaction is decided on its span alone
+            final boolean kept = tailSampler.isKept(span.getElapsed(), error || isError(span), isNewTransaction());
+            final List<SpanChunk> bufferedSpanChunks = release();
+            state = kept ? KEPT : DISCARDED;
+            publish();
+            if (!kept) {
+                return false;
+            }
+            if (bufferedSpanChunks != null) {
+                for (SpanChunk spanChunk : bufferedSpanChunks) {
+                    dataSender.send(spanChunk);
+                }
+            }
+            return dataSender.send(span);
+        }
+
+        private synchronized void evict() {
+            if (state != UNDECIDED) {
+                return;
+            }
+            evictedCount.incrementAndGet();
+
+            final int droppedEvents = eventCount;
+            final List<SpanChunk> bufferedSpanChunks = release();
+            final long elapsed = System.currentTimeMillis() - traceRoot.getTraceStartTime();
+            if (tailSampler.isKeptOnEviction(elapsed, isNewTransaction())) {
+                state = KEPT;
+                publish();
+                if (bufferedSpanChunks != null) {
+                    for (SpanChunk spanChunk : bufferedSpanChunks) {
+                        dataSender.send(spanChunk);
+                    }
+                }
+            } else {
+                // async traces started later see the eviction and drop their span chunks as well
+                state = EVICTED;
+                publish();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("evict transaction {}, dropped {} span events", traceRoot, droppedEvents);
+                }
+            }
+        }
+
+        private boolean isNewTransaction() {
+            // a transaction continued from an upstream agent has a parent span
+            return traceRoot.getTraceId().isRoot();
+        }
+
+        private List<SpanChunk> release() {
+            final List<SpanChunk> bufferedSpanChunks = this.spanChunks;
+            if (eventCount > 0) {
+                bufferedEvents.addAndGet(-eventCount);
+            }
+            this.spanChunks = null;
+            this.eventCount = 0;
+            return bufferedSpanChunks;
+        }
+
+        private void publish() {
+            traceRoot.getShared().setTailSamplingDecision(state);
+            traceBuffers.remove(traceRoot, this);
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TailSamplingStorageFactory{" +
+                "ioBufferingBufferSize=" + ioBufferingBufferSize +
+                ", dataSender=" + dataSender +
+                ", tailSampler=" + tailSampler +
+                ", maxTransactions=" + evictionRing.length() +
+                ", maxEvents=" + maxEvents +
+                '}';
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Path compressed prefix trie of internal names(e.g. com/navercorp/pinpoint). Finds every prefix of a class internal name
+ * in a single walk of the name, comparing whole edge labels, so a class that no prefix matches is rejected after
+ * a few comparisons, whatever the number of prefixes.
+ * <p>
+ * No concurrent issue because only one thread put entries to the trie and lookups are started AFTER the trie is completely built.
+ */
+class InternalNamePrefixTrie<V> {
+
+    private final Node<V> root = new Node<V>();
+    private int size = 0;
+
+    public void put(final String prefix, final V value) {
+        if (prefix == null) {
+            throw new NullPointerException("prefix must not be null");
+        }
+        if (value == null) {
+            throw new NullPointerException("value must not be null");
+        }
+
+        Node<V> node = this.root;
+        int offset = 0;
+        while (offset < prefix.length()) {
+            final int index = node.indexOf(prefix.charAt(offset));
+            if (index < 0) {
+                node = node.addChild(-(index + 1), prefix.substring(offset));
+                break;
+            }
+
+            final String label = node.labels[index];
+            final int common = commonPrefixLength(label, prefix, offset);
+            if (common < label.length()) {
+                node.splitChild(index, common);
+            }
+            node = node.children[index];
+            offset += common;
+        }
+
+        if (node.addValue(value)) {
+            this.size++;
+        }
+    }
+
+    private static int commonPrefixLength(final String label, final String prefix, final int offset) {
+        final int length = Math.min(label.length(), prefix.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == prefix.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return values of every prefix of the given name, shorter prefix first. empty list if no prefix matches.
+     */
+    public List<V> findAll(final String internalName) {
+        List<V> result = null;
+        Node<V> node = this.root;
+        int offset = 0;
+        while (true) {
+            if (node.values != null) {
+                if (result == null) {
+                    result = new ArrayList<V>(node.values.size());
+                }
+                result.addAll(node.values);
+            }
+            if (offset >= internalName.length()) {
+                break;
+            }
+
+            final int index = node.indexOf(internalName.charAt(offset));
+            if (index < 0) {
+                break;
+            }
+            final String label = node.labels[index];
+            if (!internalName.startsWith(label, offset)) {
+                break;
+            }
+            node = node.children[index];
+            offset += label.length();
+        }
+
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static class Node<V> {
+        private static final char[] EMPTY_FIRST_CHARS = new char[0];
+
+        // sorted first char of the edge labels.
+        private char[] firstChars = EMPTY_FIRST_CHARS;
+        private String[] labels;
+        private Node<V>[] children;
+        // insertion order.
+        private List<V> values;
+
+        private int indexOf(final char firstChar) {
+            return Arrays.binarySearch(this.firstChars, firstChar);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node<V> addChild(final int index, final String label) {
+            final int length = this.firstChars.length;
+            final char[] newFirstChars = new char[length + 1];
+            final String[] newLabels = new String[length + 1];
+            final Node<V>[] newChildren = new Node[length + 1];
+            System.arraycopy(this.firstChars, 0, newFirstChars, 0, index);
+            System.arraycopy(this.firstChars, index, newFirstChars, index + 1, length - index);
+            if (length > 0) {
+                System.arraycopy(this.labels, 0, newLabels, 0, index);
+                System.arraycopy(this.labels, index, newLabels, index + 1, length - index);
+                System.arraycopy(this.children, 0, newChildren, 0, index);
+                System.arraycopy(this.children, index, newChildren, index + 1, length - index);
+            }
+
+            final Node<V> child = new Node<V>();
+            newFirstChars[index] = label.charAt(0);
+            newLabels[index] = label;
+            newChildren[index] = child;
+
+            this.firstChars = newFirstChars;
+            this.labels = newLabels;
+            this.children = newChildren;
+            return child;
+        }
+
+        // insert a node at the given position of the edge label.
+        private void splitChild(final int index, final int position) {
+            final String label = this.labels[index];
+            final Node<V> middle = new Node<V>();
+            middle.addChild(0, label.substring(position)).copyFrom(this.children[index]);
+
+            this.labels[index] = label.substring(0, position);
+            this.children[index] = middle;
+        }
+
+        private void copyFrom(final Node<V> node) {
+            this.firstChars = node.firstChars;
+            this.labels = node.labels;
+            this.children = node.children;
+            this.values = node.values;
+        }
+
+        private boolean addValue(final V value) {
+            if (this.values == null) {
+                this.values = new ArrayList<V>(2);
+            } else if (this.values.contains(value)) {
+                return false;
+            }
+            return this.values.add(value);
+        }
+    }
+}
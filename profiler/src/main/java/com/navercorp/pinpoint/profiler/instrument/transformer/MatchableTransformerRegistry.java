@@ -19,22 +19,29 @@ import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.BasedMatcher;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.Matcher;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.MatcherType;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.AnnotationInternalNameMatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.ClassInternalNameMatcherOperand;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.InterfaceInternalNameMatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.MatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.PackageInternalNameMatcherOperand;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.SuperClassInternalNameMatcherOperand;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operator.MatcherOperator;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.StringUtils;
 import com.navercorp.pinpoint.profiler.instrument.classreading.InternalClassMetadata;
 import com.navercorp.pinpoint.profiler.instrument.classreading.InternalClassMetadataReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.lang.instrument.ClassFileTransformer;
-import java.util.Comparator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -50,21 +57,20 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
     // class matcher operand.
     private final Map<String, IndexValue> classNameBasedIndex = new HashMap<String, IndexValue>(64);
     // package matcher operand.
-    private final Map<String, Set<IndexValue>> packageNameBasedIndex;
+    private final InternalNamePrefixTrie<IndexValue> packageNameBasedIndex = new InternalNamePrefixTrie<IndexValue>();
+
+    // registration order.
+    private final List<IndexValue> indexValues = new ArrayList<IndexValue>();
 
     private final TransformerMatcherExecutionPlanner executionPlanner = new TransformerMatcherExecutionPlanner();
     private final TransformerMatcher transformerMatcher;
 
-    public MatchableTransformerRegistry(final ProfilerConfig profilerConfig) {
-        // sorted by package name length.
-        this.packageNameBasedIndex = new TreeMap<String, Set<IndexValue>>(new Comparator<String>() {
-            @Override
-            public int compare(String key1, String key2) {
-                return key1.length() - key2.length();
-            }
-        });
+    private final String decisionCachePath;
+    private volatile MatcherDecisionCache decisionCache;
 
+    public MatchableTransformerRegistry(final ProfilerConfig profilerConfig) {
         this.transformerMatcher = new DefaultTransformerMatcher(profilerConfig.getInstrumentMatcherCacheConfig());
+        this.decisionCachePath = profilerConfig.getInstrumentMatcherCacheConfig().getDecisionCachePath();
     }
 
     @Override
@@ -80,73 +86,92 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
             return transformer;
         }
 
-        ClassMetadataWrapper classMetadataWrapper = new ClassMetadataWrapper(classFileBuffer, classMetadata);
         // find class name based.
-        if (!this.classNameBasedIndex.isEmpty()) {
-            transformer = findClassBasedTransformer(classLoader, classInternalName, classMetadataWrapper);
-            if (transformer != null) {
-                return transformer;
-            }
+        final IndexValue classIndexValue = findClassIndexValue(classInternalName);
+        if (classIndexValue != null && classIndexValue.operand instanceof ClassInternalNameMatcherOperand) {
+            // single operand.
+            return classIndexValue.transformer;
         }
 
-        // find package name based.
-        if (!this.packageNameBasedIndex.isEmpty()) {
-            transformer = findPackageBasedTransformer(classLoader, classInternalName, classMetadataWrapper);
-            if (transformer != null) {
-                return transformer;
-            }
+        // find package name based. shorter package first.
+        final List<IndexValue> packageIndexValues = findPackageIndexValues(classInternalName);
+        if (classIndexValue == null && packageIndexValues.isEmpty()) {
+            // not found. class bytes are not read.
+            return null;
         }
 
-        // not found.
-        return null;
-    }
+        // find decision of the previous JVM.
+        final MatcherDecisionCache decisionCache = this.decisionCache;
+        long classFileHash = 0;
+        if (decisionCache != null && classFileBuffer != null) {
+            classFileHash = MatcherDecisionCache.hash(classFileBuffer);
+            final Integer decision = decisionCache.get(classInternalName, classFileHash);
+            if (decision != null && decision < this.indexValues.size()) {
+                if (decision == MatcherDecisionCache.NOT_MATCHED) {
+                    return null;
+                }
+                return this.indexValues.get(decision).transformer;
+            }
+        }
 
-    private ClassFileTransformer findClassBasedTransformer(final ClassLoader classLoader, final String classInternalName, final ClassMetadataWrapper classMetadataWrapper) {
-        IndexValue indexValue = this.classNameBasedIndex.get(classInternalName);
-        if (indexValue != null) {
-            if (indexValue.operand instanceof ClassInternalNameMatcherOperand) {
-                // single operand.
-                return indexValue.transformer;
+        final ClassMetadataWrapper classMetadataWrapper = new ClassMetadataWrapper(classFileBuffer, classMetadata);
+        IndexValue matched = null;
+        boolean cacheable = true;
+        if (classIndexValue != null) {
+            cacheable = classIndexValue.cacheable;
+            if (match(classLoader, classIndexValue, classMetadataWrapper)) {
+                matched = classIndexValue;
             }
+        }
 
-            ClassFileTransformer transformer = match(classLoader, indexValue, classMetadataWrapper);
-            if (transformer != null) {
-                return transformer;
+        if (matched == null) {
+            for (IndexValue value : packageIndexValues) {
+                cacheable &= value.cacheable;
+                if (match(classLoader, value, classMetadataWrapper)) {
+                    matched = value;
+                    break;
+                }
             }
         }
 
-        return null;
+        if (decisionCache != null && classFileBuffer != null && cacheable) {
+            decisionCache.put(classInternalName, classFileHash, matched == null ? MatcherDecisionCache.NOT_MATCHED : matched.index);
+        }
+
+        if (matched == null) {
+            // not found.
+            return null;
+        }
+        return matched.transformer;
     }
 
-    private ClassFileTransformer findPackageBasedTransformer(final ClassLoader classLoader, final String classInternalName, final ClassMetadataWrapper classMetadataWrapper) {
-        for (Map.Entry<String, Set<IndexValue>> entry : this.packageNameBasedIndex.entrySet()) {
-            final String packageInternalName = entry.getKey();
-            if (classInternalName.startsWith(packageInternalName)) {
-                for (IndexValue value : entry.getValue()) {
-                    ClassFileTransformer transformer = match(classLoader, value, classMetadataWrapper);
-                    if (transformer != null) {
-                        return transformer;
-                    }
-                }
-            }
+    private IndexValue findClassIndexValue(final String classInternalName) {
+        if (this.classNameBasedIndex.isEmpty()) {
+            return null;
         }
+        return this.classNameBasedIndex.get(classInternalName);
+    }
 
-        return null;
+    private List<IndexValue> findPackageIndexValues(final String classInternalName) {
+        if (this.packageNameBasedIndex.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return this.packageNameBasedIndex.findAll(classInternalName);
     }
 
-    private ClassFileTransformer match(final ClassLoader classLoader, final IndexValue indexValue, final ClassMetadataWrapper classMetadataWrapper) {
+    private boolean match(final ClassLoader classLoader, final IndexValue indexValue, final ClassMetadataWrapper classMetadataWrapper) {
         final long startTime = System.currentTimeMillis();
         if (transformerMatcher.match(classLoader, indexValue.operand, classMetadataWrapper.get())) {
             long elapsedTime = indexValue.accumulatorTime(startTime);
             if (isDebug) {
                 logger.debug("Matching time elapsed={}ms, accumulator={}ms, operand={}", elapsedTime, indexValue.accumulatorTimeMillis, indexValue.operand);
             }
-            return indexValue.transformer;
+            return true;
         } else {
             indexValue.accumulatorTime(startTime);
         }
 
-        return null;
+        return false;
     }
 
     public void addTransformer(final Matcher matcher, final ClassFileTransformer transformer) {
@@ -168,7 +193,8 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
         }
 
         boolean indexed;
-        final IndexValue indexValue = new IndexValue(condition, transformer);
+        final IndexValue indexValue = new IndexValue(condition, transformer, this.indexValues.size());
+        this.indexValues.add(indexValue);
         for (MatcherOperand operand : indexedMatcherOperands) {
             if (operand instanceof ClassInternalNameMatcherOperand) {
                 ClassInternalNameMatcherOperand classInternalNameMatcherOperand = (ClassInternalNameMatcherOperand) operand;
@@ -179,7 +205,7 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
                 indexed = true;
             } else if (operand instanceof PackageInternalNameMatcherOperand) {
                 PackageInternalNameMatcherOperand packageInternalNameMatcherOperand = (PackageInternalNameMatcherOperand) operand;
-                addIndexData(packageInternalNameMatcherOperand.getPackageInternalName(), indexValue, this.packageNameBasedIndex);
+                this.packageNameBasedIndex.put(packageInternalNameMatcherOperand.getPackageInternalName(), indexValue);
                 indexed = true;
             } else {
                 throw new IllegalArgumentException("invalid matcher or execution planner - unknown operand. condition=" + condition + ", unknown operand=" + operand);
@@ -191,23 +217,84 @@ public class MatchableTransformerRegistry implements TransformerRegistry {
         }
     }
 
-    private void addIndexData(final String key, final IndexValue indexValue, final Map<String, Set<IndexValue>> index) {
-        Set<IndexValue> indexValueSet = index.get(key);
-        if (indexValueSet == null) {
-            indexValueSet = new HashSet<IndexValue>();
-            index.put(key, indexValueSet);
+    /**
+     * Loads the matcher decisions of the previous JVM. Must be called after every transformer is added.
+     */
+    public void loadDecisionCache() {
+        if (StringUtils.isEmpty(this.decisionCachePath)) {
+            return;
+        }
+        final MatcherDecisionCache decisionCache = new MatcherDecisionCache(new File(this.decisionCachePath), fingerprint());
+        decisionCache.load();
+        this.decisionCache = decisionCache;
+    }
+
+    public void saveDecisionCache() {
+        final MatcherDecisionCache decisionCache = this.decisionCache;
+        if (decisionCache != null) {
+            decisionCache.save();
+        }
+    }
+
+    MatcherDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    // decisions are stored as index of the transformer, changed if a matcher is added, removed or reordered.
+    String fingerprint() {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not supported", e);
+        }
+        for (IndexValue indexValue : this.indexValues) {
+            digest.update(BytesUtils.toBytes(String.valueOf(indexValue.operand)));
+            digest.update(BytesUtils.toBytes(indexValue.transformer.getClass().getName()));
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    // true if the matcher reads only the class file, no super class, interface or annotation.
+    static boolean isClassFileOnly(final MatcherOperand operand) {
+        if (operand == null) {
+            return true;
+        }
+        if (operand instanceof MatcherOperator) {
+            final MatcherOperator operator = (MatcherOperator) operand;
+            return isClassFileOnly(operator.getLeftOperand()) && isClassFileOnly(operator.getRightOperand());
+        }
+        if (operand instanceof InterfaceInternalNameMatcherOperand) {
+            return !((InterfaceInternalNameMatcherOperand) operand).isConsiderHierarchy();
+        }
+        if (operand instanceof SuperClassInternalNameMatcherOperand) {
+            return !((SuperClassInternalNameMatcherOperand) operand).isConsiderHierarchy();
+        }
+        if (operand instanceof AnnotationInternalNameMatcherOperand) {
+            return !((AnnotationInternalNameMatcherOperand) operand).isConsiderMetaAnnotation();
         }
-        indexValueSet.add(indexValue);
+        return operand instanceof ClassInternalNameMatcherOperand || operand instanceof PackageInternalNameMatcherOperand;
     }
 
     static class IndexValue {
         private final MatcherOperand operand;
         private final ClassFileTransformer transformer;
+        private final int index;
+        // the decision depends on the class file only.
+        private final boolean cacheable;
         private final AtomicLong accumulatorTimeMillis = new AtomicLong(0);
 
-        public IndexValue(final MatcherOperand operand, final ClassFileTransformer transformer) {
+        public IndexValue(final MatcherOperand operand, final ClassFileTransformer transformer, final int index) {
             this.operand = operand;
             this.transformer = transformer;
+            this.index = index;
+            this.cacheable = isClassFileOnly(operand);
         }
 
         public long accumulatorTime(final long startTimeMillis) {
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import com.navercorp.pinpoint.common.Version;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Matcher decisions of the {@link MatchableTransformerRegistry} kept in a file between JVM starts.
+ * A decision is keyed by the class internal name and a hash of the class file, the file is discarded when the agent version
+ * or the fingerprint of the registered matchers changes.
+ * <p>
+ * Transformed bytecode is not kept : the interceptors it refers to are registered by the transform callbacks of each JVM.
+ *
+ * @see MatchableTransformerRegistry
+ */
+public class MatcherDecisionCache {
+
+    public static final int NOT_MATCHED = -1;
+
+    private static final int MAGIC = 0x50504D44;
+    private static final int FORMAT_VERSION = 1;
+    static final int MAX_ENTRY_SIZE = 1024 * 128;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final File file;
+    private final String fingerprint;
+
+    private final ConcurrentMap<String, Decision> decisions = new ConcurrentHashMap<String, Decision>(1024);
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private volatile boolean modified = false;
+
+    public MatcherDecisionCache(final File file, final String fingerprint) {
+        if (file == null) {
+            throw new NullPointerException("file must not be null");
+        }
+        if (fingerprint == null) {
+            throw new NullPointerException("fingerprint must not be null");
+        }
+        this.file = file;
+        this.fingerprint = fingerprint;
+    }
+
+    // 64 bit in a single pass : crc32 of each half of the class file.
+    public static long hash(final byte[] classFileBuffer) {
+        final int half = classFileBuffer.length >>> 1;
+        final CRC32 crc32 = new CRC32();
+        crc32.update(classFileBuffer, 0, half);
+        final long high = crc32.getValue();
+        crc32.reset();
+        crc32.update(classFileBuffer, half, classFileBuffer.length - half);
+        return (high << 32) | crc32.getValue();
+    }
+
+    /**
+     * @return index of the matched transformer, {@link #NOT_MATCHED} or null if there is no decision for the class file.
+     */
+    public Integer get(final String classInternalName, final long classFileHash) {
+        final Decision decision = decisions.get(classInternalName);
+        if (decision == null || decision.classFileHash != classFileHash) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return decision.transformerIndex;
+    }
+
+    public void put(final String classInternalName, final long classFileHash, final int transformerIndex) {
+        if (decisions.size() >= MAX_ENTRY_SIZE && !decisions.containsKey(classInternalName)) {
+            return;
+        }
+        decisions.put(classInternalName, new Decision(classFileHash, transformerIndex));
+        this.modified = true;
+    }
+
+    public int size() {
+        return decisions.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public void load() {
+        if (!file.isFile()) {
+            logger.info("Matcher decision cache not found. file={}", file);
+            return;
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                logger.info("Matcher decision cache invalidated, unknown format. file={}", file);
+                return;
+            }
+            final String agentVersion = in.readUTF();
+            final String fingerprint = in.readUTF();
+            if (!Version.VERSION.equals(agentVersion) || !this.fingerprint.equals(fingerprint)) {
+                logger.info("Matcher decision cache invalidated. file={}, agentVersion={}", file, agentVersion);
+                return;
+            }
+
+            final int size = Math.min(in.readInt(), MAX_ENTRY_SIZE);
+            for (int i = 0; i < size; i++) {
+                final String classInternalName = in.readUTF();
+                final long classFileHash = in.readLong();
+                final int transformerIndex = in.readInt();
+                decisions.put(classInternalName, new Decision(classFileHash, transformerIndex));
+            }
+            logger.info("Matcher decision cache loaded. file={}, size={}", file, size);
+        } catch (IOException e) {
+            decisions.clear();
+            logger.warn("Failed to load matcher decision cache. file={}", file, e);
+        } finally {
+            close(in);
+        }
+    }
+
+    public void save() {
+        final long hit = hitCount.get();
+        final long miss = missCount.get();
+        final long total = hit + miss;
+        logger.info("Matcher decision cache hit={}, miss={}, hitRate={}%, size={}", hit, miss, total == 0 ? 0 : hit * 100 / total, decisions.size());
+        if (!modified) {
+            return;
+        }
+
+        final File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            logger.warn("Failed to create matcher decision cache directory. directory={}", directory);
+            return;
+        }
+
+        // write to a temporary file and rename, JVMs sharing the file never read a partial file.
+        File tempFile = null;
+        DataOutputStream out = null;
+        try {
+            tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(Version.VERSION);
+            out.writeUTF(fingerprint);
+
+            // entries added while saving are written next time.
+            this.modified = false;
+            final List<Map.Entry<String, Decision>> entries = new ArrayList<Map.Entry<String, Decision>>(decisions.entrySet());
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Decision> entry : entries) {
+                final Decision decision = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeLong(decision.classFileHash);
+                out.writeInt(decision.transformerIndex);
+            }
+            out.close();
+            out = null;
+
+            if (!tempFile.renameTo(file)) {
+                // windows does not replace an existing file.
+                if (!file.delete() || !tempFile.renameTo(file)) {
+                    throw new IOException("rename failed. " + tempFile + " -> " + file);
+                }
+            }
+            tempFile = null;
+            logger.info("Matcher decision cache saved. file={}, size={}", file, entries.size());
+        } catch (IOException e) {
+            this.modified = true;
+            logger.warn("Failed to save matcher decision cache. file={}", file, e);
+        } finally {
+            close(out);
+            if (tempFile != null && !tempFile.delete()) {
+                logger.debug("Failed to delete {}", tempFile);
+            }
+        }
+    }
+
+    private void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignore) {
+                // skip
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MatcherDecisionCache{");
+        sb.append("file=").append(file);
+        sb.append(", size=").append(decisions.size());
+        sb.append(", hitCount=").append(hitCount);
+        sb.append(", missCount=").append(missCount);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static class Decision {
+        private final long classFileHash;
+        private final int transformerIndex;
+
+        private Decision(final long classFileHash, final int transformerIndex) {
+            this.classFileHash = classFileHash;
+            this.transformerIndex = transformerIndex;
+        }
+    }
+}
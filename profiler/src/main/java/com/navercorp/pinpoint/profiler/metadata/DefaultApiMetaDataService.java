@@ -25,22 +25,30 @@ import com.navercorp.pinpoint.thrift.dto.TApiMetaData;
  */
 public class DefaultApiMetaDataService implements ApiMetaDataService {
 
-    private final SimpleCache<String> apiCache = new SimpleCache<String>();
+    private final MetaDataCache<String> apiCache;
 
     private final String agentId;
     private final long agentStartTime;
     private final EnhancedDataSender enhancedDataSender;
 
     public DefaultApiMetaDataService(String agentId, long agentStartTime, EnhancedDataSender enhancedDataSender) {
+        this(agentId, agentStartTime, enhancedDataSender, new SimpleCache<String>());
+    }
+
+    public DefaultApiMetaDataService(String agentId, long agentStartTime, EnhancedDataSender enhancedDataSender, MetaDataCache<String> apiCache) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
         if (enhancedDataSender == null) {
             throw new NullPointerException("enhancedDataSender must not be null");
         }
+        if (apiCache == null) {
+            throw new NullPointerException("apiCache must not be null");
+        }
         this.agentId = agentId;
         this.agentStartTime = agentStartTime;
         this.enhancedDataSender = enhancedDataSender;
+        this.apiCache = apiCache;
     }
 
     @Override
@@ -30,11 +30,18 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
 
     private static final DefaultParsingResult EMPTY_OBJECT = new DefaultParsingResult("");
 
-    private final SimpleCache<String> sqlCache;
+    private final MetaDataCache<String> sqlCache;
     private final SqlParser sqlParser;
 
     public DefaultCachingSqlNormalizer(int cacheSize) {
-        this.sqlCache = new SimpleCache<String>(cacheSize);
+        this(new SimpleCache<String>(cacheSize));
+    }
+
+    public DefaultCachingSqlNormalizer(MetaDataCache<String> sqlCache) {
+        if (sqlCache == null) {
+            throw new NullPointerException("sqlCache must not be null");
+        }
+        this.sqlCache = sqlCache;
         this.sqlParser = new DefaultSqlParser();
     }
 
@@ -17,7 +17,6 @@
 package com.navercorp.pinpoint.profiler.metadata;
 
 import com.google.inject.Inject;
-import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.context.ParsingResult;
 import com.navercorp.pinpoint.profiler.context.module.AgentId;
 import com.navercorp.pinpoint.profiler.context.module.AgentStartTime;
@@ -41,12 +40,16 @@ public class DefaultSqlMetaDataService implements SqlMetaDataService {
     private final EnhancedDataSender enhancedDataSender;
 
     @Inject
-    public DefaultSqlMetaDataService(ProfilerConfig profilerConfig, @AgentId String agentId,
-                                     @AgentStartTime long agentStartTime, EnhancedDataSender enhancedDataSender) {
-        this(agentId, agentStartTime, enhancedDataSender, profilerConfig.getJdbcSqlCacheSize());
+    public DefaultSqlMetaDataService(@AgentId String agentId, @AgentStartTime long agentStartTime,
+                                     EnhancedDataSender enhancedDataSender, MetaDataCacheManager metaDataCacheManager) {
+        this(agentId, agentStartTime, enhancedDataSender, new DefaultCachingSqlNormalizer(metaDataCacheManager.getSqlCache()));
     }
 
     public DefaultSqlMetaDataService(String agentId, long agentStartTime, EnhancedDataSender enhancedDataSender, int jdbcSqlCacheSize) {
+        this(agentId, agentStartTime, enhancedDataSender, new DefaultCachingSqlNormalizer(jdbcSqlCacheSize));
+    }
+
+    private DefaultSqlMetaDataService(String agentId, long agentStartTime, EnhancedDataSender enhancedDataSender, CachingSqlNormalizer cachingSqlNormalizer) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
@@ -56,7 +59,7 @@ public class DefaultSqlMetaDataService implements SqlMetaDataService {
         this.agentId = agentId;
         this.agentStartTime = agentStartTime;
         this.enhancedDataSender = enhancedDataSender;
-        this.cachingSqlNormalizer = new DefaultCachingSqlNormalizer(jdbcSqlCacheSize);
+        this.cachingSqlNormalizer = cachingSqlNormalizer;
     }
 
     @Override
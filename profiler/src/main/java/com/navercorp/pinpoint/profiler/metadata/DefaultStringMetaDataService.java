@@ -27,23 +27,36 @@ import com.navercorp.pinpoint.thrift.dto.TStringMetaData;
  */
 public class DefaultStringMetaDataService implements StringMetaDataService {
 
-    private final SimpleCache<String> stringCache = new SimpleCache<String>();
+    private final MetaDataCache<String> stringCache;
 
     private final String agentId;
     private final long agentStartTime;
     private final EnhancedDataSender enhancedDataSender;
 
+    public DefaultStringMetaDataService(String agentId, long agentStartTime, EnhancedDataSender enhancedDataSender) {
+        this(agentId, agentStartTime, enhancedDataSender, new SimpleCache<String>());
+    }
+
     @Inject
-    public DefaultStringMetaDataService(@AgentId String agentId, @AgentStartTime long agentStartTime, EnhancedDataSender enhancedDataSender) {
+    public DefaultStringMetaDataService(@AgentId String agentId, @AgentStartTime long agentStartTime, EnhancedDataSender enhancedDataSender,
+                                        MetaDataCacheManager metaDataCacheManager) {
+        this(agentId, agentStartTime, enhancedDataSender, metaDataCacheManager.getStringCache());
+    }
+
+    public DefaultStringMetaDataService(String agentId, long agentStartTime, EnhancedDataSender enhancedDataSender, MetaDataCache<String> stringCache) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
         if (enhancedDataSender == null) {
             throw new NullPointerException("enhancedDataSender must not be null");
         }
+        if (stringCache == null) {
+            throw new NullPointerException("stringCache must not be null");
+        }
         this.agentId = agentId;
         this.agentStartTime = agentStartTime;
         this.enhancedDataSender = enhancedDataSender;
+        this.stringCache = stringCache;
     }
 
     @Override
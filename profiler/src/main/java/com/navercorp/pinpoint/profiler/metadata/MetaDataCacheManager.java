@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+/**
+ * Holds the SQL, API and String metadata caches so that their statistics can be reported as agent stats.
+ */
+public class MetaDataCacheManager {
+
+    private final TinyLfuCache<String> sqlCache;
+    private final TinyLfuCache<String> apiCache;
+    private final TinyLfuCache<String> stringCache;
+
+    public MetaDataCacheManager(long sqlCacheMaxBytes, long apiCacheMaxBytes, long stringCacheMaxBytes) {
+        final StringWeigher weigher = new StringWeigher();
+        this.sqlCache = new TinyLfuCache<String>(sqlCacheMaxBytes, weigher);
+        this.apiCache = new TinyLfuCache<String>(apiCacheMaxBytes, weigher);
+        this.stringCache = new TinyLfuCache<String>(stringCacheMaxBytes, weigher);
+    }
+
+    public TinyLfuCache<String> getSqlCache() {
+        return sqlCache;
+    }
+
+    public TinyLfuCache<String> getApiCache() {
+        return apiCache;
+    }
+
+    public TinyLfuCache<String> getStringCache() {
+        return stringCache;
+    }
+
+    @Override
+    public String toString() {
+        return "MetaDataCacheManager{" +
+                "sqlCache=" + sqlCache +
+                ", apiCache=" + apiCache +
+                ", stringCache=" + stringCache +
+                '}';
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+/**
+ * Immutable snapshot of {@link TinyLfuCache} statistics.
+ */
+public class MetaDataCacheStats {
+
+    public static final MetaDataCacheStats EMPTY = new MetaDataCacheStats(0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long weightedSize;
+
+    public MetaDataCacheStats(long hitCount, long missCount, long evictionCount, long weightedSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.weightedSize = weightedSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return approximate heap bytes held by the cache at the time of the snapshot
+     */
+    public long getWeightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * Returns the counts accumulated since {@code previous}. The weighted size is kept as is.
+     */
+    public MetaDataCacheStats minus(MetaDataCacheStats previous) {
+        if (previous == null) {
+            throw new NullPointerException("previous must not be null");
+        }
+        return new MetaDataCacheStats(hitCount - previous.hitCount, missCount - previous.missCount,
+                evictionCount - previous.evictionCount, weightedSize);
+    }
+
+    @Override
+    public String toString() {
+        return "MetaDataCacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                ", weightedSize=" + weightedSize +
+                '}';
+    }
+}
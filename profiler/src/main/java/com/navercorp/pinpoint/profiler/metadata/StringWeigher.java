@@ -0,0 +1,34 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+/**
+ * Estimates the heap size of a String key together with its cache node.
+ */
+public class StringWeigher implements Weigher<String> {
+
+    // String header + char[] header
+    private static final int STRING_OVERHEAD = 40;
+    // cache node + Result + ConcurrentHashMap entry
+    private static final int ENTRY_OVERHEAD = 104;
+
+    @Override
+    public int weigh(String value) {
+        return ENTRY_OVERHEAD + STRING_OVERHEAD + (value.length() << 1);
+    }
+}
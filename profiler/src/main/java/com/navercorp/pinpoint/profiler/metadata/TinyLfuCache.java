@@ -0,0 +1,396 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.navercorp.pinpoint.common.util.BytesUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent metadata cache bounded by the estimated heap size of its entries, with W-TinyLFU eviction.
+ * <p>
+ * New entries enter a small LRU window (1% of the maximum weight). Entries leaving the window compete with
+ * the LRU victim of the main space, and the one seen more often according to a {@link FrequencySketch} stays.
+ * The main space is a segmented LRU: entries hit again while in probation are promoted to the protected segment.
+ * One-off statements therefore no longer push frequently executed statements out of the cache.
+ * <p>
+ * Lookups never block. The eviction policy is updated under a lock; a read that finds the lock busy
+ * skips its policy update.
+ */
+public class TinyLfuCache<T> implements MetaDataCache<T> {
+
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    // used to size the frequency sketch
+    private static final int ESTIMATED_ENTRY_WEIGHT = 256;
+
+    private final ConcurrentMap<T, Node<T>> data;
+    // zero means not exist.
+    private final AtomicInteger idGen;
+    private final Weigher<? super T> weigher;
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // guarded by evictionLock
+    private final FrequencySketch<T> sketch;
+    private final NodeDeque<T> windowDeque = new NodeDeque<T>();
+    private final NodeDeque<T> probationDeque = new NodeDeque<T>();
+    private final NodeDeque<T> protectedDeque = new NodeDeque<T>();
+    private long windowWeight;
+    private long protectedWeight;
+    private int randomSeed = 0x9e3779b9;
+
+    private volatile long weightedSize;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public TinyLfuCache(long maximumWeight, Weigher<? super T> weigher) {
+        this(maximumWeight, weigher, 1);
+    }
+
+    public TinyLfuCache(long maximumWeight, Weigher<? super T> weigher, int startValue) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+        if (weigher == null) {
+            throw new NullPointerException("weigher must not be null");
+        }
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight * WINDOW_PERCENT / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * PROTECTED_PERCENT / 100;
+        this.weigher = weigher;
+        this.idGen = new AtomicInteger(startValue);
+
+        final long expectedSize = Math.max(16, maximumWeight / ESTIMATED_ENTRY_WEIGHT);
+        this.sketch = new FrequencySketch<T>((int) Math.min(expectedSize, Integer.MAX_VALUE));
+        this.data = new ConcurrentHashMap<T, Node<T>>(16, 0.75f, 64);
+    }
+
+    @Override
+    public Result put(T value) {
+        final Node<T> find = this.data.get(value);
+        if (find != null) {
+            hitCount.incrementAndGet();
+            afterRead(find);
+            return find.result;
+        }
+        missCount.incrementAndGet();
+
+        // Use negative values too to reduce data size
+        final int newId = BytesUtils.zigzagToInt(idGen.getAndIncrement());
+        final int weight = weigher.weigh(value);
+        if (weight > maximumWeight) {
+            // never fits, send it every time
+            return new Result(true, newId);
+        }
+
+        final Node<T> node = new Node<T>(value, new Result(false, newId), weight);
+        final Node<T> before = this.data.putIfAbsent(value, node);
+        if (before != null) {
+            afterRead(before);
+            return before.result;
+        }
+        afterWrite(node);
+        return new Result(true, newId);
+    }
+
+    private void afterRead(Node<T> node) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(node.key);
+            onAccess(node);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void afterWrite(Node<T> node) {
+        evictionLock.lock();
+        try {
+            sketch.increment(node.key);
+            node.queue = Node.WINDOW;
+            windowDeque.addLast(node);
+            windowWeight += node.weight;
+            weightedSize += node.weight;
+
+            final int candidates = evictFromWindow();
+            evictFromMain(candidates);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void onAccess(Node<T> node) {
+        switch (node.queue) {
+            case Node.WINDOW:
+                windowDeque.moveToBack(node);
+                break;
+            case Node.PROBATION:
+                probationDeque.remove(node);
+                node.queue = Node.PROTECTED;
+                protectedDeque.addLast(node);
+                protectedWeight += node.weight;
+                demoteFromProtected();
+                break;
+            case Node.PROTECTED:
+                protectedDeque.moveToBack(node);
+                break;
+            default:
+                // not linked yet or already evicted
+                break;
+        }
+    }
+
+    private void demoteFromProtected() {
+        while (protectedWeight > protectedMaximum) {
+            final Node<T> demoted = protectedDeque.peekFirst();
+            if (demoted == null) {
+                return;
+            }
+            protectedDeque.remove(demoted);
+            protectedWeight -= demoted.weight;
+            demoted.queue = Node.PROBATION;
+            probationDeque.addLast(demoted);
+        }
+    }
+
+    /**
+     * Moves entries overflowing the window to the tail of the probation segment.
+     *
+     * @return the number of entries moved, which are the admission candidates
+     */
+    private int evictFromWindow() {
+        int candidates = 0;
+        while (windowWeight > windowMaximum) {
+            final Node<T> node = windowDeque.peekFirst();
+            if (node == null) {
+                break;
+            }
+            windowDeque.remove(node);
+            windowWeight -= node.weight;
+            node.queue = Node.PROBATION;
+            probationDeque.addLast(node);
+            candidates++;
+        }
+        return candidates;
+    }
+
+    /**
+     * Evicts until the maximum weight is satisfied. Candidates are taken from the tail of the probation segment
+     * and victims from its head; the TinyLFU admission decides which of the two is evicted.
+     */
+    private void evictFromMain(int candidates) {
+        Node<T> victim = probationDeque.peekFirst();
+        Node<T> candidate = probationDeque.peekLast();
+        while (weightedSize > maximumWeight) {
+            if (candidates == 0) {
+                candidate = null;
+            }
+            if (victim == null || candidate == null) {
+                final Node<T> node = (victim != null) ? victim : nextVictim();
+                if (node == null) {
+                    return;
+                }
+                victim = node.next;
+                evict(node);
+                continue;
+            }
+            candidates--;
+            if (victim == candidate) {
+                // the last candidate has no victim left to compete with
+                final Node<T> evicted = victim;
+                victim = victim.next;
+                candidate = null;
+                evict(evicted);
+                continue;
+            }
+            if (admit(candidate.key, victim.key)) {
+                final Node<T> evicted = victim;
+                victim = victim.next;
+                candidate = candidate.prev;
+                evict(evicted);
+            } else {
+                final Node<T> evicted = candidate;
+                candidate = candidate.prev;
+                evict(evicted);
+            }
+        }
+    }
+
+    private Node<T> nextVictim() {
+        Node<T> node = probationDeque.peekFirst();
+        if (node != null) {
+            return node;
+        }
+        node = protectedDeque.peekFirst();
+        if (node != null) {
+            return node;
+        }
+        return windowDeque.peekFirst();
+    }
+
+    private boolean admit(T candidateKey, T victimKey) {
+        final int victimFrequency = sketch.frequency(victimKey);
+        final int candidateFrequency = sketch.frequency(candidateKey);
+        if (candidateFrequency > victimFrequency) {
+            return true;
+        }
+        if (candidateFrequency <= 5) {
+            return false;
+        }
+        // admit a warm candidate now and then so that a hot victim can not be used to block admission
+        randomSeed ^= randomSeed << 13;
+        randomSeed ^= randomSeed >>> 17;
+        randomSeed ^= randomSeed << 5;
+        return (randomSeed & 127) == 0;
+    }
+
+    private void evict(Node<T> node) {
+        switch (node.queue) {
+            case Node.WINDOW:
+                windowDeque.remove(node);
+                windowWeight -= node.weight;
+                break;
+            case Node.PROBATION:
+                probationDeque.remove(node);
+                break;
+            case Node.PROTECTED:
+                protectedDeque.remove(node);
+                protectedWeight -= node.weight;
+                break;
+            default:
+                return;
+        }
+        node.queue = Node.NONE;
+        weightedSize -= node.weight;
+        data.remove(node.key, node);
+        evictionCount.incrementAndGet();
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public long getWeightedSize() {
+        return weightedSize;
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public MetaDataCacheStats getStats() {
+        return new MetaDataCacheStats(hitCount.get(), missCount.get(), evictionCount.get(), weightedSize);
+    }
+
+    @Override
+    public String toString() {
+        return "TinyLfuCache{" +
+                "maximumWeight=" + maximumWeight +
+                ", weightedSize=" + weightedSize +
+                ", size=" + data.size() +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+
+    private static final class Node<T> {
+        static final int NONE = 0;
+        static final int WINDOW = 1;
+        static final int PROBATION = 2;
+        static final int PROTECTED = 3;
+
+        private final T key;
+        private final Result result;
+        private final int weight;
+
+        // guarded by evictionLock
+        private int queue = NONE;
+        private Node<T> prev;
+        private Node<T> next;
+
+        private Node(T key, Result result, int weight) {
+            this.key = key;
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Access ordered doubly linked list. The head is the least recently used node.
+     */
+    private static final class NodeDeque<T> {
+        private Node<T> head;
+        private Node<T> tail;
+
+        Node<T> peekFirst() {
+            return head;
+        }
+
+        Node<T> peekLast() {
+            return tail;
+        }
+
+        void addLast(Node<T> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node<T> node) {
+            final Node<T> prev = node.prev;
+            final Node<T> next = node.next;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToBack(Node<T> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+}
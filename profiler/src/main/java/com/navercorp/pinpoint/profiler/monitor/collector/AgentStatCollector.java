@@ -24,7 +24,9 @@ import com.navercorp.pinpoint.profiler.monitor.collector.cpu.CpuLoadMetricCollec
 import com.navercorp.pinpoint.profiler.monitor.collector.datasource.DataSourceMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.collector.deadlock.DeadlockMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.collector.jvmgc.JvmGcMetricCollector;
+import com.navercorp.pinpoint.profiler.monitor.collector.metadata.MetaDataCacheMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.collector.response.ResponseTimeMetricCollector;
+import com.navercorp.pinpoint.profiler.monitor.collector.sampling.SamplingMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.collector.transaction.TransactionMetricCollector;
 import com.navercorp.pinpoint.thrift.dto.TAgentStat;
 
@@ -42,6 +44,8 @@ public class AgentStatCollector implements AgentStatMetricCollector<TAgentStat>
     private final DataSourceMetricCollector dataSourceMetricCollector;
     private final ResponseTimeMetricCollector responseTimeMetricCollector;
     private final DeadlockMetricCollector deadlockMetricCollector;
+    private final MetaDataCacheMetricCollector metaDataCacheMetricCollector;
+    private final SamplingMetricCollector samplingMetricCollector;
 
     @Inject
     public AgentStatCollector(
@@ -53,7 +57,9 @@ public class AgentStatCollector implements AgentStatMetricCollector<TAgentStat>
             ActiveTraceMetricCollector activeTraceMetricCollector,
             DataSourceMetricCollector dataSourceMetricCollector,
             ResponseTimeMetricCollector responseTimeMetricCollector,
-            DeadlockMetricCollector deadlockMetricCollector) {
+            DeadlockMetricCollector deadlockMetricCollector,
+            MetaDataCacheMetricCollector metaDataCacheMetricCollector,
+            SamplingMetricCollector samplingMetricCollector) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
@@ -78,6 +84,12 @@ public class AgentStatCollector implements AgentStatMetricCollector<TAgentStat>
         if (deadlockMetricCollector == null) {
             throw new NullPointerException("deadlockMetricCollector may not be null");
         }
+        if (metaDataCacheMetricCollector == null) {
+            throw new NullPointerException("metaDataCacheMetricCollector must not be null");
+        }
+        if (samplingMetricCollector == null) {
+            throw new NullPointerException("samplingMetricCollector must not be null");
+        }
 
         this.agentId = agentId;
         this.agentStartTimestamp = agentStartTimestamp;
@@ -88,6 +100,8 @@ public class AgentStatCollector implements AgentStatMetricCollector<TAgentStat>
         this.dataSourceMetricCollector = dataSourceMetricCollector;
         this.responseTimeMetricCollector = responseTimeMetricCollector;
         this.deadlockMetricCollector = deadlockMetricCollector;
+        this.metaDataCacheMetricCollector = metaDataCacheMetricCollector;
+        this.samplingMetricCollector = samplingMetricCollector;
     }
 
     @Override
@@ -102,6 +116,8 @@ public class AgentStatCollector implements AgentStatMetricCollector<TAgentStat>
         agentStat.setDataSourceList(dataSourceMetricCollector.collect());
         agentStat.setResponseTime(responseTimeMetricCollector.collect());
         agentStat.setDeadlock(deadlockMetricCollector.collect());
+        metaDataCacheMetricCollector.collect();
+        agentStat.setSampling(samplingMetricCollector.collect());
 
         return agentStat;
     }
@@ -118,6 +134,8 @@ public class AgentStatCollector implements AgentStatMetricCollector<TAgentStat>
         sb.append(", dataSourceMetricCollector=").append(dataSourceMetricCollector);
         sb.append(", responseTimeMetricCollector=").append(responseTimeMetricCollector);
         sb.append(", deadlockMetricCollector=").append(deadlockMetricCollector);
+        sb.append(", metaDataCacheMetricCollector=").append(metaDataCacheMetricCollector);
+        sb.append(", samplingMetricCollector=").append(samplingMetricCollector);
         sb.append('}');
         return sb.toString();
     }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.collector.metadata;
+
+import com.google.inject.Inject;
+import com.navercorp.pinpoint.profiler.monitor.metric.metadata.MetaDataCacheMetric;
+import com.navercorp.pinpoint.profiler.monitor.metric.metadata.MetaDataCacheMetricSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class DefaultMetaDataCacheMetricCollector implements MetaDataCacheMetricCollector {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final MetaDataCacheMetric metaDataCacheMetric;
+
+    @Inject
+    public DefaultMetaDataCacheMetricCollector(MetaDataCacheMetric metaDataCacheMetric) {
+        if (metaDataCacheMetric == null) {
+            throw new NullPointerException("metaDataCacheMetric must not be null");
+        }
+        this.metaDataCacheMetric = metaDataCacheMetric;
+    }
+
+    @Override
+    public void collect() {
+        final MetaDataCacheMetricSnapshot snapshot = metaDataCacheMetric.getSnapshot();
+        // evictions mean a cache is too small for the working set and metadata is being re-sent
+        if (hasEviction(snapshot)) {
+            logger.info("metadata cache evicted entries. {}", snapshot);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("metadata cache {}", snapshot);
+        }
+    }
+
+    private boolean hasEviction(MetaDataCacheMetricSnapshot snapshot) {
+        return snapshot.getSqlCacheStats().getEvictionCount() > 0
+                || snapshot.getApiCacheStats().getEvictionCount() > 0
+                || snapshot.getStringCacheStats().getEvictionCount() > 0;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DefaultMetaDataCacheMetricCollector{");
+        sb.append("metaDataCacheMetric=").append(metaDataCacheMetric);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.collector.sampling;
+
+import com.google.inject.Inject;
+import com.navercorp.pinpoint.profiler.monitor.metric.sampling.SamplingMetric;
+import com.navercorp.pinpoint.profiler.monitor.metric.sampling.SamplingMetricSnapshot;
+import com.navercorp.pinpoint.thrift.dto.TSampling;
+
+public class DefaultSamplingMetricCollector implements SamplingMetricCollector {
+
+    private final SamplingMetric samplingMetric;
+
+    @Inject
+    public DefaultSamplingMetricCollector(SamplingMetric samplingMetric) {
+        if (samplingMetric == null) {
+            throw new NullPointerException("samplingMetric must not be null");
+        }
+        this.samplingMetric = samplingMetric;
+    }
+
+    @Override
+    public TSampling collect() {
+        final SamplingMetricSnapshot snapshot = samplingMetric.getSnapshot();
+        final TSampling sampling = new TSampling();
+        sampling.setTracesPerSecond(snapshot.getTracesPerSecond());
+        final long newCount = snapshot.getSampledNewCount() + snapshot.getUnsampledNewCount();
+        // no new transaction, no rate
+        if (newCount > 0) {
+            sampling.setEffectiveRate(snapshot.getSampledNewCount() / (double) newCount);
+        }
+        return sampling;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DefaultSamplingMetricCollector{");
+        sb.append("samplingMetric=").append(samplingMetric);
+        sb.append('}');
+        return sb.toString();
+    }
+}
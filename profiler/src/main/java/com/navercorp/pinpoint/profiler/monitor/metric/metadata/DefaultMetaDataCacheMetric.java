@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.metric.metadata;
+
+import com.google.inject.Inject;
+import com.navercorp.pinpoint.profiler.metadata.MetaDataCacheManager;
+import com.navercorp.pinpoint.profiler.metadata.MetaDataCacheStats;
+import com.navercorp.pinpoint.profiler.metadata.TinyLfuCache;
+
+/**
+ * Called by the single agent stat collecting thread.
+ */
+public class DefaultMetaDataCacheMetric implements MetaDataCacheMetric {
+
+    private final CacheStatsGauge sqlCacheGauge;
+    private final CacheStatsGauge apiCacheGauge;
+    private final CacheStatsGauge stringCacheGauge;
+
+    @Inject
+    public DefaultMetaDataCacheMetric(MetaDataCacheManager metaDataCacheManager) {
+        if (metaDataCacheManager == null) {
+            throw new NullPointerException("metaDataCacheManager must not be null");
+        }
+        this.sqlCacheGauge = new CacheStatsGauge(metaDataCacheManager.getSqlCache());
+        this.apiCacheGauge = new CacheStatsGauge(metaDataCacheManager.getApiCache());
+        this.stringCacheGauge = new CacheStatsGauge(metaDataCacheManager.getStringCache());
+    }
+
+    @Override
+    public MetaDataCacheMetricSnapshot getSnapshot() {
+        return new MetaDataCacheMetricSnapshot(sqlCacheGauge.getStats(), apiCacheGauge.getStats(), stringCacheGauge.getStats());
+    }
+
+    @Override
+    public String toString() {
+        return "Default MetaDataCacheMetric";
+    }
+
+    private static class CacheStatsGauge {
+        private final TinyLfuCache<?> cache;
+        private MetaDataCacheStats prevStats = MetaDataCacheStats.EMPTY;
+
+        private CacheStatsGauge(TinyLfuCache<?> cache) {
+            this.cache = cache;
+        }
+
+        private MetaDataCacheStats getStats() {
+            final MetaDataCacheStats stats = cache.getStats();
+            final MetaDataCacheStats delta = stats.minus(prevStats);
+            this.prevStats = stats;
+            return delta;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.metric.metadata;
+
+import com.navercorp.pinpoint.profiler.metadata.MetaDataCacheStats;
+
+/**
+ * Hit, miss and eviction counts since the previous snapshot, and the current weighted size of each cache.
+ */
+public class MetaDataCacheMetricSnapshot {
+
+    private final MetaDataCacheStats sqlCacheStats;
+    private final MetaDataCacheStats apiCacheStats;
+    private final MetaDataCacheStats stringCacheStats;
+
+    public MetaDataCacheMetricSnapshot(MetaDataCacheStats sqlCacheStats, MetaDataCacheStats apiCacheStats, MetaDataCacheStats stringCacheStats) {
+        this.sqlCacheStats = sqlCacheStats;
+        this.apiCacheStats = apiCacheStats;
+        this.stringCacheStats = stringCacheStats;
+    }
+
+    public MetaDataCacheStats getSqlCacheStats() {
+        return sqlCacheStats;
+    }
+
+    public MetaDataCacheStats getApiCacheStats() {
+        return apiCacheStats;
+    }
+
+    public MetaDataCacheStats getStringCacheStats() {
+        return stringCacheStats;
+    }
+
+    @Override
+    public String toString() {
+        return "MetaDataCacheMetricSnapshot{" +
+                "sqlCacheStats=" + sqlCacheStats +
+                ", apiCacheStats=" + apiCacheStats +
+                ", stringCacheStats=" + stringCacheStats +
+                '}';
+    }
+}
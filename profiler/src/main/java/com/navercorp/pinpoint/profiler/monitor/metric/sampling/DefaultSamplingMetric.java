@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.metric.sampling;
+
+import com.google.inject.Inject;
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.profiler.context.id.TransactionCounter;
+import com.navercorp.pinpoint.profiler.sampler.RateLimitingSampler;
+import com.navercorp.pinpoint.profiler.sampler.TailSampler;
+
+/**
+ * Reads the new transaction counts the id generator already keeps, so the sampler itself does not count anything.
+ */
+public class DefaultSamplingMetric implements SamplingMetric {
+
+    private final int tracesPerSecond;
+    private final TransactionCounter transactionCounter;
+    // in the tail sampling mode every new transaction is sampled, the decision is taken when it ends
+    private final TailSampler tailSampler;
+
+    private long prevSampledNewCount;
+    private long prevUnsampledNewCount;
+
+    @Inject
+    public DefaultSamplingMetric(Sampler sampler, TransactionCounter transactionCounter) {
+        if (sampler == null) {
+            throw new NullPointerException("sampler must not be null");
+        }
+        if (transactionCounter == null) {
+            throw new NullPointerException("transactionCounter must not be null");
+        }
+        this.tracesPerSecond = getTracesPerSecond(sampler);
+        this.transactionCounter = transactionCounter;
+        this.tailSampler = sampler instanceof TailSampler ? (TailSampler) sampler : null;
+        this.prevSampledNewCount = getSampledNewCount();
+        this.prevUnsampledNewCount = getUnsampledNewCount();
+    }
+
+    private static int getTracesPerSecond(Sampler sampler) {
+        if (sampler instanceof TailSampler) {
+            return getTracesPerSecond(((TailSampler) sampler).getDrawSampler());
+        }
+        if (sampler instanceof RateLimitingSampler) {
+            return ((RateLimitingSampler) sampler).getTracesPerSecond();
+        }
+        return 0;
+    }
+
+    @Override
+    public SamplingMetricSnapshot getSnapshot() {
+        final long sampledNewCount = getSampledNewCount();
+        final long unsampledNewCount = getUnsampledNewCount();
+        final SamplingMetricSnapshot snapshot = new SamplingMetricSnapshot(tracesPerSecond,
+                sampledNewCount - prevSampledNewCount, unsampledNewCount - prevUnsampledNewCount);
+        this.prevSampledNewCount = sampledNewCount;
+        this.prevUnsampledNewCount = unsampledNewCount;
+        return snapshot;
+    }
+
+    private long getSampledNewCount() {
+        if (tailSampler != null) {
+            return tailSampler.getKeptCount();
+        }
+        return transactionCounter.getSampledNewCount();
+    }
+
+    private long getUnsampledNewCount() {
+        if (tailSampler != null) {
+            return tailSampler.getDiscardedCount();
+        }
+        return transactionCounter.getUnSampledNewCount();
+    }
+
+    @Override
+    public String toString() {
+        return "Default SamplingMetric";
+    }
+}
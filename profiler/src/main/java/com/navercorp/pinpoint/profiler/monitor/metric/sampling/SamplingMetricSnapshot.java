@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.metric.sampling;
+
+public class SamplingMetricSnapshot {
+
+    private final int tracesPerSecond;
+    private final long sampledNewCount;
+    private final long unsampledNewCount;
+
+    public SamplingMetricSnapshot(int tracesPerSecond, long sampledNewCount, long unsampledNewCount) {
+        this.tracesPerSecond = tracesPerSecond;
+        this.sampledNewCount = sampledNewCount;
+        this.unsampledNewCount = unsampledNewCount;
+    }
+
+    /**
+     * @return budget of the rate limiting sampler, 0 for the other samplers
+     */
+    public int getTracesPerSecond() {
+        return tracesPerSecond;
+    }
+
+    /**
+     * @return new transactions sampled, or kept when they ended in the tail sampling mode
+     */
+    public long getSampledNewCount() {
+        return sampledNewCount;
+    }
+
+    public long getUnsampledNewCount() {
+        return unsampledNewCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SamplingMetricSnapshot{" +
+                "tracesPerSecond=" + tracesPerSecond +
+                ", sampledNewCount=" + sampledNewCount +
+                ", unsampledNewCount=" + unsampledNewCount +
+                '}';
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.common.util.Clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples new transactions up to a budget of traces per second, so the sampled volume stays flat during traffic
+ * spikes and every transaction is sampled while the traffic is under the budget.
+ * <p>
+ * Token bucket holding one second of budget, kept as the time at which the bucket is full again
+ * (generic cell rate algorithm). A rejected transaction only reads that time, so threads only race for the bucket
+ * while it has tokens left, at most {@code tracesPerSecond} times per second.
+ */
+public class RateLimitingSampler implements Sampler {
+
+    private static final long BUCKET_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Clock NANO_CLOCK = new Clock() {
+        @Override
+        public long getTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private final int tracesPerSecond;
+    private final long tokenNanos;
+    private final Clock nanoClock;
+
+    // every sampled transaction moves it one token later
+    private final AtomicLong fullTime;
+
+    public RateLimitingSampler(int tracesPerSecond) {
+        this(tracesPerSecond, NANO_CLOCK);
+    }
+
+    RateLimitingSampler(int tracesPerSecond, Clock nanoClock) {
+        if (tracesPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid tracesPerSecond " + tracesPerSecond);
+        }
+        if (nanoClock == null) {
+            throw new NullPointerException("nanoClock must not be null");
+        }
+        this.tracesPerSecond = tracesPerSecond;
+        this.tokenNanos = BUCKET_NANOS / tracesPerSecond;
+        this.nanoClock = nanoClock;
+        this.fullTime = new AtomicLong(nanoClock.getTime());
+    }
+
+    @Override
+    public boolean isSampling() {
+        final long now = nanoClock.getTime();
+        while (true) {
+            final long currentFullTime = fullTime.get();
+            // nanoTime may overflow, compare differences only
+            final long nextFullTime = (currentFullTime - now < 0 ? now : currentFullTime) + tokenNanos;
+            if (nextFullTime - now > BUCKET_NANOS) {
+                return false;
+            }
+            if (fullTime.compareAndSet(currentFullTime, nextFullTime)) {
+                return true;
+            }
+        }
+    }
+
+    public int getTracesPerSecond() {
+        return tracesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitingSampler{" +
+                "tracesPerSecond=" + tracesPerSecond +
+                '}';
+    }
+}
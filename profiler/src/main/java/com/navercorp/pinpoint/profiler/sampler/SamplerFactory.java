@@ -31,4 +31,14 @@ public class SamplerFactory {
         }
         return new SamplingRateSampler(samplingRate);
     }
+
+    /**
+     * @param tracesPerSecond budget of sampled new transactions per second, replaces samplingRate if positive
+     */
+    public Sampler createSampler(boolean sampling, int samplingRate, int tracesPerSecond) {
+        if (sampling && tracesPerSecond > 0) {
+            return new RateLimitingSampler(tracesPerSecond);
+        }
+        return createSampler(sampling, samplingRate);
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampler of the tail sampling mode. Every new transaction is recorded, and the storage asks {@link #isKept(long, boolean, boolean)}
+ * once the span is done: slow and erroneous transactions are kept, the others only if they win the draw of the configured sampler.
+ */
+public class TailSampler implements Sampler {
+
+    private final Sampler drawSampler;
+    private final long slowThreshold;
+
+    private final AtomicLong keptCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+
+    /**
+     * @param slowThreshold elapsed time in milliseconds from which a transaction is kept
+     */
+    public TailSampler(Sampler drawSampler, long slowThreshold) {
+        if (drawSampler == null) {
+            throw new NullPointerException("drawSampler must not be null");
+        }
+        if (slowThreshold <= 0) {
+            throw new IllegalArgumentException("Invalid slowThreshold " + slowThreshold);
+        }
+        this.drawSampler = drawSampler;
+        this.slowThreshold = slowThreshold;
+    }
+
+    @Override
+    public boolean isSampling() {
+        return true;
+    }
+
+    public boolean isSlow(long elapsed) {
+        return elapsed >= slowThreshold;
+    }
+
+    /**
+     * Decides a transaction once its span is done.
+     * Only new transactions are counted, the effective sampling rate being the share of the new transactions that are kept.
+     */
+    public boolean isKept(long elapsed, boolean error, boolean newTransaction) {
+        // slow and erroneous transactions do not use the budget of the draw
+        final boolean kept = error || isSlow(elapsed) || drawSampler.isSampling();
+        if (newTransaction) {
+            count(kept);
+        }
+        return kept;
+    }
+
+    /**
+     * Keeps an undecided transaction evicted from the buffer if it is already slow.
+     * A transaction that is not kept here is decided and counted by {@link #isKept(long, boolean, boolean)} once its span is done.
+     */
+    public boolean isKeptOnEviction(long elapsed, boolean newTransaction) {
+        if (!isSlow(elapsed)) {
+            return false;
+        }
+        if (newTransaction) {
+            count(true);
+        }
+        return true;
+    }
+
+    private void count(boolean kept) {
+        if (kept) {
+            keptCount.incrementAndGet();
+        } else {
+            discardedCount.incrementAndGet();
+        }
+    }
+
+    public Sampler getDrawSampler() {
+        return drawSampler;
+    }
+
+    public long getKeptCount() {
+        return keptCount.get();
+    }
+
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "TailSampler{" +
+                "drawSampler=" + drawSampler +
+                ", slowThreshold=" + slowThreshold +
+                '}';
+    }
+}
@@ -22,6 +22,10 @@ import org.apache.thrift.TBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunk;
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueConfig;
 import com.navercorp.pinpoint.rpc.FutureListener;
 import com.navercorp.pinpoint.rpc.ResponseMessage;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
@@ -36,6 +40,8 @@ public abstract class AbstractDataSender implements DataSender {
 
     private Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private volatile SpanEventRecycler spanEventRecycler;
+
     abstract protected void sendPacket(Object dto);
 
     protected void sendPacketN(Collection<Object> messageList) {
@@ -51,13 +57,48 @@ public abstract class AbstractDataSender implements DataSender {
                 sendPacket(dataList[i]);
             } catch (Throwable th) {
                 logger.warn("Unexpected Error. Cause:{}", th.getMessage(), th);
+            } finally {
+                recycle(dataList[i]);
             }
         }
     }
 
+    /**
+     * Returns the SpanEvents of a sent Span/SpanChunk to the given recycler.
+     * Only senders that do not keep the message after {@link #sendPacket(Object)} (e.g. no retry) may use this.
+     */
+    public void setSpanEventRecycler(SpanEventRecycler spanEventRecycler) {
+        this.spanEventRecycler = spanEventRecycler;
+    }
+
+    private void recycle(Object message) {
+        final SpanEventRecycler spanEventRecycler = this.spanEventRecycler;
+        if (spanEventRecycler == null) {
+            return;
+        }
+        try {
+            if (message instanceof Span) {
+                spanEventRecycler.recycle(((Span) message).getSpanEventList());
+            } else if (message instanceof SpanChunk) {
+                spanEventRecycler.recycle(((SpanChunk) message).getSpanEventList());
+            }
+        } catch (Throwable th) {
+            logger.warn("SpanEvent recycle failed. Cause:{}", th.getMessage(), th);
+        }
+    }
+
     protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName) {
-        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName);
-        executor.setListener(new AsyncQueueingExecutorListener<Object>() {
+        return createAsyncQueueingExecutor(queueSize, executorName, AsyncQueueConfig.DEFAULT);
+    }
+
+    protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName, AsyncQueueConfig queueConfig) {
+        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName, queueConfig);
+        executor.setListener(createAsyncQueueingExecutorListener());
+        return executor;
+    }
+
+    protected AsyncQueueingExecutorListener<Object> createAsyncQueueingExecutorListener() {
+        return new AsyncQueueingExecutorListener<Object>() {
             @Override
             public void execute(Collection<Object> messageList) {
                 sendPacketN(messageList);
@@ -65,10 +106,18 @@ public abstract class AbstractDataSender implements DataSender {
 
             @Override
             public void execute(Object message) {
-                sendPacket(message);
+                try {
+                    sendPacket(message);
+                } finally {
+                    recycle(message);
+                }
             }
-        });
-        return executor;
+
+            @Override
+            public void discard(Object message, boolean overflow) {
+                // AsyncQueueingExecutor counts the drops and logs them at most once per interval
+            }
+        };
     }
 
     protected byte[] serialize(HeaderTBaseSerializer serializer, TBase tBase) {
@@ -17,15 +17,17 @@
 package com.navercorp.pinpoint.profiler.sender;
 
 import java.util.Collection;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueue;
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueConfig;
 
 /**
  * @author emeroad
@@ -34,10 +36,12 @@ public class AsyncQueueingExecutor<T> implements Runnable {
 
     private static final AsyncQueueingExecutorListener EMPTY_LISTENER = new EmptyAsyncQueueingExecutorListener();
 
+    private static final long DROP_LOG_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isWarn = logger.isWarnEnabled();
 
-    private final LinkedBlockingQueue<T> queue;
+    private final AsyncQueue<T> queue;
     private final AtomicBoolean isRun = new AtomicBoolean(true);
     private final Thread executeThread;
     private final String executorName;
@@ -46,6 +50,9 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     // Caution. single thread only. this Collection is simpler than ArrayList.
     private final Collection<T> drain;
 
+    private final AtomicLong dropCount = new AtomicLong();
+    private final DropCounter overflowCounter = new DropCounter(DROP_LOG_INTERVAL);
+
     private AsyncQueueingExecutorListener<T> listener = EMPTY_LISTENER;
 
 
@@ -54,13 +61,20 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     }
 
     public AsyncQueueingExecutor(int queueSize, String executorName) {
+        this(queueSize, executorName, AsyncQueueConfig.DEFAULT);
+    }
+
+    public AsyncQueueingExecutor(int queueSize, String executorName, AsyncQueueConfig queueConfig) {
         if (executorName == null) {
             throw new NullPointerException("executorName must not be null");
         }
+        if (queueConfig == null) {
+            throw new NullPointerException("queueConfig must not be null");
+        }
         // BEFORE executeThread start
-        this.maxDrainSize = 10;
+        this.maxDrainSize = queueConfig.getMaxDrainSize();
         this.drain = new UnsafeArrayCollection<T>(maxDrainSize);
-        this.queue = new LinkedBlockingQueue<T>(queueSize);
+        this.queue = queueConfig.createQueue(queueSize);
 
         this.executeThread = this.createExecuteThread(executorName);
         this.executorName = executeThread.getName();
@@ -123,8 +137,12 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     }
 
     protected T takeOne() {
+        return takeOne(1000 * 2, TimeUnit.MILLISECONDS);
+    }
+
+    protected T takeOne(long timeout, TimeUnit unit) {
         try {
-            return queue.poll(1000 * 2, TimeUnit.MILLISECONDS);
+            return queue.poll(timeout, unit);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return null;
@@ -146,13 +164,19 @@ public class AsyncQueueingExecutor<T> implements Runnable {
             if (isWarn) {
                 logger.warn("{} is shutdown. discard data:{}", executorName, data);
             }
+            dropCount.incrementAndGet();
+            this.listener.discard(data, false);
             return false;
         }
         boolean offer = queue.offer(data);
         if (!offer) {
-            if (isWarn) {
-                logger.warn("{} Drop data. queue is full. size:{}", executorName, queue.size());
+            final long dropCount = this.dropCount.incrementAndGet();
+            final long unloggedOverflow = overflowCounter.increment();
+            if (isWarn && unloggedOverflow > 0) {
+                logger.warn("{} Drop data. queue is full. size:{}, dropped since last log:{}, total overflow:{}, total drop:{}",
+                        executorName, queue.size(), unloggedOverflow, overflowCounter.get(), dropCount);
             }
+            this.listener.discard(data, true);
         }
         return offer;
     }
@@ -176,6 +200,20 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         return queue.isEmpty();
     }
 
+    /**
+     * @return number of messages discarded because the queue was full or the executor was stopped
+     */
+    public long getDropCount() {
+        return dropCount.get();
+    }
+
+    /**
+     * @return number of messages discarded because the queue was full
+     */
+    public long getOverflowCount() {
+        return overflowCounter.get();
+    }
+
     public boolean isRun() {
         return isRun.get();
     }
@@ -194,6 +232,12 @@ public class AsyncQueueingExecutor<T> implements Runnable {
             logger.warn("{} stopped incompletely.", executorName);
         }
 
+        final long unloggedOverflow = overflowCounter.drainUnlogged();
+        if (isWarn && unloggedOverflow > 0) {
+            logger.warn("{} Drop data. queue was full. dropped since last log:{}, total overflow:{}, total drop:{}",
+                    executorName, unloggedOverflow, overflowCounter.get(), dropCount.get());
+        }
+
         logger.info("{} stopped.", executorName);
     }
 
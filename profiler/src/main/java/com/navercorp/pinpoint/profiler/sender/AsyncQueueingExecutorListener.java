@@ -26,5 +26,13 @@ public interface AsyncQueueingExecutorListener<T> {
     void execute(Collection<T> messageList);
 
     void execute(T message);
-    
+
+    /**
+     * Called on the caller thread of {@link AsyncQueueingExecutor#execute(Object)} when a message is dropped.
+     *
+     * @param message dropped message
+     * @param overflow true if the queue was full, false if the executor was already stopped
+     */
+    void discard(T message, boolean overflow);
+
 }
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueConfig;
+import com.navercorp.pinpoint.rpc.PinpointSocketException;
+import com.navercorp.pinpoint.rpc.buffer.ByteBufferFactory;
+import com.navercorp.pinpoint.rpc.buffer.ByteBufferFactoryLocator;
+import com.navercorp.pinpoint.rpc.buffer.ByteBufferType;
+import com.navercorp.pinpoint.thrift.io.BufferOverflowException;
+import com.navercorp.pinpoint.thrift.io.ByteBufferOutputStream;
+import com.navercorp.pinpoint.thrift.io.Header;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer2;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory2;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Packs the queued messages into as few datagrams as possible.
+ * <p>
+ * Messages are serialized one after another behind a chunk header in a direct buffer of {@code maxPacketLength} bytes,
+ * which is written to a non-blocking {@link DatagramChannel} when the next message does not fit,
+ * or at the latest {@code flushTimeout} milliseconds after its first message.
+ * A datagram holding a single message is sent without chunk header, as {@link NioUDPDataSender} does.
+ * A message that does not fit in {@code maxPacketLength} bytes behind the chunk header is sent that way on its own,
+ * so any message up to {@link NioUDPDataSender#UDP_MAX_PACKET_LENGTH} is delivered as with {@link NioUDPDataSender}.
+ * The receiver reads the messages with {@link com.navercorp.pinpoint.thrift.io.ChunkHeaderTBaseDeserializer}.
+ *
+ * @see UdpDataSenderType#BATCH
+ */
+public class BatchUDPDataSender extends AbstractDataSender implements DataSender {
+
+    protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    public static final int DEFAULT_FLUSH_TIMEOUT = 10;
+
+    private static final long DROP_LOG_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
+    private final DatagramChannel datagramChannel;
+    private final HeaderTBaseSerializer2 serializer;
+    private final ByteBufferOutputStream byteBufferOutputStream;
+    // created on the first message too large to batch, accessed by the executor thread only
+    private ByteBufferOutputStream singleByteBufferOutputStream;
+    private final int maxPacketLength;
+    private final long flushTimeoutNanos;
+
+    // accessed by the executor thread only
+    private int batchMessageCount = 0;
+    private long flushDeadline;
+
+    private final AtomicLong sendDatagramCount = new AtomicLong();
+    private final AtomicLong sendMessageCount = new AtomicLong();
+    private final DropCounter dropDatagramCounter = new DropCounter(DROP_LOG_INTERVAL);
+    private final AtomicLong dropMessageCount = new AtomicLong();
+
+    private final AsyncQueueingExecutor<Object> executor;
+
+    public BatchUDPDataSender(String host, int port, String threadName, int queueSize) {
+        this(host, port, threadName, queueSize, NioUDPDataSender.SOCKET_TIMEOUT, NioUDPDataSender.SEND_BUFFER_SIZE, AsyncQueueConfig.DEFAULT,
+                DEFAULT_FLUSH_TIMEOUT, NioUDPDataSender.UDP_MAX_PACKET_LENGTH);
+    }
+
+    public BatchUDPDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueConfig queueConfig,
+                              int flushTimeout, int maxPacketLength) {
+        if (host == null) {
+            throw new NullPointerException("host must not be null");
+        }
+        if (threadName == null) {
+            throw new NullPointerException("threadName must not be null");
+        }
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("queueSize");
+        }
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout");
+        }
+        if (sendBufferSize <= 0) {
+            throw new IllegalArgumentException("sendBufferSize");
+        }
+        if (queueConfig == null) {
+            throw new NullPointerException("queueConfig must not be null");
+        }
+        if (flushTimeout <= 0) {
+            throw new IllegalArgumentException("flushTimeout");
+        }
+        if (maxPacketLength <= Header.HEADER_SIZE || maxPacketLength > NioUDPDataSender.UDP_MAX_PACKET_LENGTH) {
+            throw new IllegalArgumentException("maxPacketLength");
+        }
+
+        logger.info("BatchUDPDataSender initialized. host={}, port={}, flushTimeout={}, maxPacketLength={}", host, port, flushTimeout, maxPacketLength);
+        this.datagramChannel = createChannel(host, port, timeout, sendBufferSize);
+
+        HeaderTBaseSerializerFactory2 serializerFactory = new HeaderTBaseSerializerFactory2();
+        this.serializer = serializerFactory.createSerializer();
+
+        ByteBufferFactory bufferFactory = ByteBufferFactoryLocator.getFactory(ByteBufferType.DIRECT);
+        ByteBuffer byteBuffer = bufferFactory.getBuffer(maxPacketLength);
+        this.byteBufferOutputStream = new ByteBufferOutputStream(byteBuffer);
+        this.maxPacketLength = maxPacketLength;
+        this.flushTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(flushTimeout);
+
+        // last, the executor thread starts in the constructor
+        this.executor = new BatchQueueingExecutor(queueSize, threadName, queueConfig);
+        this.executor.setListener(createAsyncQueueingExecutorListener());
+    }
+
+    private DatagramChannel createChannel(String host, int port, int timeout, int sendBufferSize) {
+        DatagramChannel datagramChannel = null;
+        DatagramSocket socket = null;
+        try {
+            datagramChannel = DatagramChannel.open();
+            datagramChannel.configureBlocking(false);
+            socket = datagramChannel.socket();
+            socket.setSoTimeout(timeout);
+            socket.setSendBufferSize(sendBufferSize);
+
+            if (logger.isWarnEnabled()) {
+                final int checkSendBufferSize = socket.getSendBufferSize();
+                if (sendBufferSize != checkSendBufferSize) {
+                    logger.warn("DatagramChannel.setSendBufferSize() error. {}!={}", sendBufferSize, checkSendBufferSize);
+                }
+            }
+
+            InetSocketAddress serverAddress = new InetSocketAddress(host, port);
+            datagramChannel.connect(serverAddress);
+
+            return datagramChannel;
+        } catch (IOException e) {
+            if (socket != null) {
+                socket.close();
+            }
+
+            if (datagramChannel != null) {
+                try {
+                    datagramChannel.close();
+                } catch (IOException ignored) {
+                }
+            }
+
+            throw new IllegalStateException("DatagramChannel create fail. Cause" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean send(TBase<?, ?> data) {
+        return executor.execute(data);
+    }
+
+    @Override
+    public void stop() {
+        try {
+            // the executor thread sends what is left in the buffer before it exits
+            executor.stop();
+            logUnloggedDrop();
+        } finally {
+            try {
+                datagramChannel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            try {
+                byteBufferOutputStream.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            if (singleByteBufferOutputStream != null) {
+                try {
+                    singleByteBufferOutputStream.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    protected void sendPacket(Object message) {
+        if (!(message instanceof TBase)) {
+            logger.warn("sendPacket fail. invalid type:{}", message != null ? message.getClass() : null);
+            return;
+        }
+
+        final TBase<?, ?> dto = (TBase<?, ?>) message;
+        if (!append(dto)) {
+            // an empty batch could not hold it either
+            final boolean retry = batchMessageCount > 0;
+            // does not fit behind the buffered messages
+            flush();
+            if (!retry || !append(dto)) {
+                // larger than a batch, sent on its own
+                sendSingle(dto);
+            }
+        }
+        if (System.nanoTime() - flushDeadline >= 0) {
+            flush();
+        }
+    }
+
+    private boolean append(TBase<?, ?> dto) {
+        if (batchMessageCount == 0) {
+            byteBufferOutputStream.clear();
+            try {
+                serializer.serializeChunkHeader(byteBufferOutputStream);
+            } catch (TException e) {
+                throw new PinpointSocketException("Serialize chunk header failed. Error:" + e.getMessage(), e);
+            }
+            flushDeadline = System.nanoTime() + flushTimeoutNanos;
+        }
+
+        byteBufferOutputStream.mark();
+        try {
+            serializer.serialize(dto, byteBufferOutputStream);
+        } catch (BufferOverflowException e) {
+            byteBufferOutputStream.resetToMarkIndex();
+            return false;
+        } catch (TException e) {
+            byteBufferOutputStream.resetToMarkIndex();
+            throw new PinpointSocketException("Serialize " + dto + " failed. Error:" + e.getMessage(), e);
+        }
+        batchMessageCount++;
+        return true;
+    }
+
+    private void sendSingle(TBase<?, ?> dto) {
+        final ByteBufferOutputStream outputStream = getSingleByteBufferOutputStream();
+        outputStream.clear();
+        try {
+            serializer.serialize(dto, outputStream);
+        } catch (BufferOverflowException e) {
+            throw new PinpointSocketException("packet too large. maxPacketLength:" + NioUDPDataSender.UDP_MAX_PACKET_LENGTH + ", " + dto, e);
+        } catch (TException e) {
+            throw new PinpointSocketException("Serialize " + dto + " failed. Error:" + e.getMessage(), e);
+        }
+        try {
+            write(outputStream.getByteBuffer(), 1);
+        } finally {
+            outputStream.clear();
+        }
+    }
+
+    private ByteBufferOutputStream getSingleByteBufferOutputStream() {
+        if (singleByteBufferOutputStream == null) {
+            ByteBufferFactory bufferFactory = ByteBufferFactoryLocator.getFactory(ByteBufferType.DIRECT);
+            ByteBuffer byteBuffer = bufferFactory.getBuffer(NioUDPDataSender.UDP_MAX_PACKET_LENGTH);
+            this.singleByteBufferOutputStream = new ByteBufferOutputStream(byteBuffer);
+        }
+        return singleByteBufferOutputStream;
+    }
+
+    private void flush() {
+        final int messageCount = batchMessageCount;
+        if (messageCount == 0) {
+            return;
+        }
+        batchMessageCount = 0;
+
+        final ByteBuffer byteBuffer = byteBufferOutputStream.getByteBuffer();
+        if (messageCount == 1) {
+            // plain message, readable by any receiver
+            byteBuffer.position(Header.HEADER_SIZE);
+        }
+        try {
+            write(byteBuffer, messageCount);
+        } finally {
+            byteBufferOutputStream.clear();
+        }
+    }
+
+    private void write(ByteBuffer byteBuffer, int messageCount) {
+        final int bufferSize = byteBuffer.remaining();
+        try {
+            final int writeSize = datagramChannel.write(byteBuffer);
+            if (writeSize == 0) {
+                // socket send buffer is full, a non-blocking channel drops the datagram instead of stalling the executor
+                final long dropMessageCount = this.dropMessageCount.addAndGet(messageCount);
+                final long unloggedDrop = dropDatagramCounter.increment();
+                if (unloggedDrop > 0) {
+                    logger.warn("datagram dropped, send buffer is full. size:{}, messages:{}, dropped since last log:{}, total drop datagrams:{}, total drop messages:{}",
+                            bufferSize, messageCount, unloggedDrop, dropDatagramCounter.get(), dropMessageCount);
+                }
+                return;
+            }
+            sendDatagramCount.incrementAndGet();
+            sendMessageCount.addAndGet(messageCount);
+        } catch (IOException e) {
+            final Thread currentThread = Thread.currentThread();
+            if (currentThread.isInterrupted()) {
+                logger.warn("{} thread interrupted.", currentThread.getName());
+                throw new PinpointSocketException(currentThread.getName() + " thread interrupted.", e);
+            } else {
+                throw new PinpointSocketException("packet send error. size:" + bufferSize + ", messages:" + messageCount, e);
+            }
+        }
+    }
+
+    private void logUnloggedDrop() {
+        final long unloggedDrop = dropDatagramCounter.drainUnlogged();
+        if (unloggedDrop > 0) {
+            logger.warn("datagrams dropped, send buffer was full. dropped since last log:{}, total drop datagrams:{}, total drop messages:{}",
+                    unloggedDrop, dropDatagramCounter.get(), dropMessageCount.get());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable th) {
+            logger.warn("flush failed. Cause:{}", th.getMessage(), th);
+        }
+    }
+
+    public long getSendDatagramCount() {
+        return sendDatagramCount.get();
+    }
+
+    public long getSendMessageCount() {
+        return sendMessageCount.get();
+    }
+
+    public long getDropDatagramCount() {
+        return dropDatagramCounter.get();
+    }
+
+    public long getDropMessageCount() {
+        return dropMessageCount.get();
+    }
+
+    /**
+     * Waits for the next message no longer than the flush deadline of the buffered messages.
+     */
+    private class BatchQueueingExecutor extends AsyncQueueingExecutor<Object> {
+
+        private BatchQueueingExecutor(int queueSize, String executorName, AsyncQueueConfig queueConfig) {
+            super(queueSize, executorName, queueConfig);
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                // last step of the executor thread, so the buffer and the channel are never written by two threads.
+                // An interrupted write closes the channel, clear the interrupt of stop() first
+                Thread.interrupted();
+                flushQuietly();
+            }
+        }
+
+        @Override
+        protected Object takeOne() {
+            final Object message = poll();
+            if (message == null && !isRun()) {
+                // woken up by stop(). An interrupted write closes the channel, clear it so that the queued messages can still be sent
+                Thread.interrupted();
+            }
+            return message;
+        }
+
+        private Object poll() {
+            if (batchMessageCount == 0) {
+                return super.takeOne();
+            }
+            final long timeout = flushDeadline - System.nanoTime();
+            if (timeout > 0) {
+                final Object message = takeOne(timeout, TimeUnit.NANOSECONDS);
+                if (message != null || !isRun()) {
+                    return message;
+                }
+            }
+            flushQuietly();
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BatchUDPDataSender{" +
+                "maxPacketLength=" + maxPacketLength +
+                ", flushTimeoutNanos=" + flushTimeoutNanos +
+                ", sendDatagramCount=" + sendDatagramCount +
+                ", sendMessageCount=" + sendMessageCount +
+                ", dropDatagramCount=" + dropDatagramCounter +
+                ", dropMessageCount=" + dropMessageCount +
+                '}';
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts dropped messages and tells the caller when to log them, at most once per {@code logIntervalMillis}.
+ * The first drop is logged right away, later ones are summed up until the interval has passed.
+ * Drops counted after the last log are returned by {@link #drainUnlogged()}, e.g. on stop.
+ *
+ * @see AsyncQueueingExecutor
+ * @see BatchUDPDataSender
+ */
+public class DropCounter {
+
+    private final long logIntervalMillis;
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong lastLogTime;
+    // guarded by this
+    private long loggedCount;
+
+    public DropCounter(long logIntervalMillis) {
+        if (logIntervalMillis < 0) {
+            throw new IllegalArgumentException("logIntervalMillis");
+        }
+        this.logIntervalMillis = logIntervalMillis;
+        this.lastLogTime = new AtomicLong(System.currentTimeMillis() - logIntervalMillis);
+    }
+
+    /**
+     * @return number of drops to log now, 0 if the last log is more recent than the log interval
+     */
+    public long increment() {
+        final long count = this.count.incrementAndGet();
+        final long lastLogTime = this.lastLogTime.get();
+        final long currentTime = System.currentTimeMillis();
+        if (currentTime - lastLogTime < logIntervalMillis) {
+            return 0;
+        }
+        if (!this.lastLogTime.compareAndSet(lastLogTime, currentTime)) {
+            // another thread logs
+            return 0;
+        }
+        return unlogged(count);
+    }
+
+    /**
+     * @return number of drops not logged yet
+     */
+    public long drainUnlogged() {
+        return unlogged(count.get());
+    }
+
+    private synchronized long unlogged(long count) {
+        if (count <= loggedCount) {
+            return 0;
+        }
+        final long unlogged = count - loggedCount;
+        loggedCount = count;
+        return unlogged;
+    }
+
+    public long get() {
+        return count.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(count.get());
+    }
+}
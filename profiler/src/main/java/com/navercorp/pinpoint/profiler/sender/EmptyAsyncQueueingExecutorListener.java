@@ -43,4 +43,11 @@ public class EmptyAsyncQueueingExecutorListener<T> implements AsyncQueueingExecu
             logger.debug("execute()");
         }
     }
+
+    @Override
+    public void discard(T dto, boolean overflow) {
+        if (isDebug) {
+            logger.debug("discard() overflow:{}", overflow);
+        }
+    }
 }
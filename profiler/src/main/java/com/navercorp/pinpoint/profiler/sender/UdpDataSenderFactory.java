@@ -17,6 +17,9 @@
 
 package com.navercorp.pinpoint.profiler.sender;
 
+import com.navercorp.pinpoint.profiler.context.SpanEventRecycler;
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueConfig;
+
 /**
  * @author Taejin Koo
  */
@@ -30,14 +33,41 @@ public final class UdpDataSenderFactory {
     private final int queueSize;
     private final int timeout;
     private final int sendBufferSize;
+    private final AsyncQueueConfig queueConfig;
+    private final SpanEventRecycler spanEventRecycler;
+    private final int batchFlushTimeout;
+    private final int batchPacketLength;
 
     public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, AsyncQueueConfig.DEFAULT);
+    }
+
+    public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueConfig queueConfig) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, queueConfig, null);
+    }
+
+    public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueConfig queueConfig,
+                                SpanEventRecycler spanEventRecycler) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, queueConfig, spanEventRecycler,
+                BatchUDPDataSender.DEFAULT_FLUSH_TIMEOUT, NioUDPDataSender.UDP_MAX_PACKET_LENGTH);
+    }
+
+    /**
+     * @param batchFlushTimeout milliseconds a message may wait for other messages, {@link UdpDataSenderType#BATCH} only
+     * @param batchPacketLength max datagram size, {@link UdpDataSenderType#BATCH} only
+     */
+    public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueConfig queueConfig,
+                                SpanEventRecycler spanEventRecycler, int batchFlushTimeout, int batchPacketLength) {
         this.host = host;
         this.port = port;
         this.threadName = threadName;
         this.queueSize = queueSize;
         this.timeout = timeout;
         this.sendBufferSize = sendBufferSize;
+        this.queueConfig = queueConfig;
+        this.spanEventRecycler = spanEventRecycler;
+        this.batchFlushTimeout = batchFlushTimeout;
+        this.batchPacketLength = batchPacketLength;
     }
 
     public DataSender create(String typeName) {
@@ -45,13 +75,20 @@ public final class UdpDataSenderFactory {
     }
 
     public DataSender create(UdpDataSenderType type) {
+        final AbstractDataSender dataSender;
         if (type == UdpDataSenderType.NIO) {
-            return new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize);
+            dataSender = new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, queueConfig);
         } else if (type == UdpDataSenderType.OIO) {
-            return new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize);
+            dataSender = new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, queueConfig);
+        } else if (type == UdpDataSenderType.BATCH) {
+            dataSender = new BatchUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, queueConfig, batchFlushTimeout, batchPacketLength);
         } else {
             throw new IllegalArgumentException("Unknown type.");
         }
+        if (spanEventRecycler != null) {
+            dataSender.setSpanEventRecycler(spanEventRecycler);
+        }
+        return dataSender;
     }
 
 }
@@ -23,6 +23,10 @@ package com.navercorp.pinpoint.profiler.sender;
 public enum UdpDataSenderType {
 
     OIO,
-    NIO
+    NIO,
+    /**
+     * NIO, with the queued messages packed into as few datagrams as possible
+     */
+    BATCH
 
 }
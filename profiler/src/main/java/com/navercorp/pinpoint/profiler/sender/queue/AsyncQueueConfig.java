@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+/**
+ * Queue options of {@link com.navercorp.pinpoint.profiler.sender.AsyncQueueingExecutor}.
+ */
+public class AsyncQueueConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncQueueConfig.class);
+
+    public static final int DEFAULT_MAX_DRAIN_SIZE = 10;
+
+    public static final AsyncQueueConfig DEFAULT = new AsyncQueueConfig(AsyncQueueType.LINKED, WaitStrategyType.BLOCKING, DEFAULT_MAX_DRAIN_SIZE);
+
+    private final AsyncQueueType queueType;
+    private final WaitStrategyType waitStrategyType;
+    private final int maxDrainSize;
+
+    public AsyncQueueConfig(AsyncQueueType queueType, WaitStrategyType waitStrategyType, int maxDrainSize) {
+        if (queueType == null) {
+            throw new NullPointerException("queueType must not be null");
+        }
+        if (waitStrategyType == null) {
+            throw new NullPointerException("waitStrategyType must not be null");
+        }
+        if (maxDrainSize <= 0) {
+            throw new IllegalArgumentException("maxDrainSize must be positive");
+        }
+        this.queueType = queueType;
+        this.waitStrategyType = waitStrategyType;
+        this.maxDrainSize = maxDrainSize;
+    }
+
+    /**
+     * Creates the config from agent configuration values, falling back to the {@link #DEFAULT} of a mistyped value.
+     */
+    public static AsyncQueueConfig of(String queueTypeName, String waitStrategyTypeName, int maxDrainSize) {
+        final AsyncQueueType queueType = parse(AsyncQueueType.class, queueTypeName, DEFAULT.queueType);
+        final WaitStrategyType waitStrategyType = parse(WaitStrategyType.class, waitStrategyTypeName, DEFAULT.waitStrategyType);
+        if (maxDrainSize <= 0) {
+            logger.warn("invalid maxDrainSize:{}, using {}", maxDrainSize, DEFAULT_MAX_DRAIN_SIZE);
+            maxDrainSize = DEFAULT_MAX_DRAIN_SIZE;
+        }
+        return new AsyncQueueConfig(queueType, waitStrategyType, maxDrainSize);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> enumType, String name, E defaultValue) {
+        if (name == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(enumType, name.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            logger.warn("unknown {}:{}, using {}", enumType.getSimpleName(), name, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public AsyncQueueType getQueueType() {
+        return queueType;
+    }
+
+    public WaitStrategyType getWaitStrategyType() {
+        return waitStrategyType;
+    }
+
+    public int getMaxDrainSize() {
+        return maxDrainSize;
+    }
+
+    public <T> AsyncQueue<T> createQueue(int queueSize) {
+        if (queueType == AsyncQueueType.RING_BUFFER) {
+            return new RingBufferAsyncQueue<T>(queueSize, waitStrategyType.createWaitStrategy());
+        }
+        return new LinkedBlockingAsyncQueue<T>(queueSize);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AsyncQueueConfig{");
+        sb.append("queueType=").append(queueType);
+        sb.append(", waitStrategyType=").append(waitStrategyType);
+        sb.append(", maxDrainSize=").append(maxDrainSize);
+        sb.append('}');
+        return sb.toString();
+    }
+}
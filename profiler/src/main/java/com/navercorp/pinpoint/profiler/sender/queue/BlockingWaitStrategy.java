@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parks the consumer thread until a producer publishes a message.
+ * Producers only pay for a volatile read unless the consumer is parked.
+ * Caution. supports a single consumer thread only.
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+
+    private volatile Thread waiter;
+
+    @Override
+    public void idle(AsyncQueue<?> queue, int idleCount, long remainNanos) {
+        this.waiter = Thread.currentThread();
+        try {
+            // re-check after publishing the waiter so a concurrent signal() is not lost
+            if (queue.isEmpty()) {
+                LockSupport.parkNanos(this, remainNanos);
+            }
+        } finally {
+            this.waiter = null;
+        }
+    }
+
+    @Override
+    public void signal() {
+        final Thread waiter = this.waiter;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BlockingWaitStrategy";
+    }
+}
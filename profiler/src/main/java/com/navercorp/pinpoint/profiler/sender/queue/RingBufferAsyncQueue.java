@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Preallocated, lock-free multi-producer/single-consumer ring buffer.
+ * Producers claim a slot with a single CAS on the producer index, so
+ * application threads never block on a lock while the consumer drains.
+ * Caution. poll(), drainTo() must be called by a single thread.
+ */
+public class RingBufferAsyncQueue<T> implements AsyncQueue<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<T> buffer;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    private final WaitStrategy waitStrategy;
+
+    public RingBufferAsyncQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy must not be null");
+        }
+        this.capacity = capacity;
+        final int bufferSize = nextPowerOfTwo(capacity);
+        this.mask = bufferSize - 1;
+        this.buffer = new AtomicReferenceArray<T>(bufferSize);
+        this.waitStrategy = waitStrategy;
+    }
+
+    static int nextPowerOfTwo(int value) {
+        if (value > (1 << 30)) {
+            throw new IllegalArgumentException("too large capacity:" + value);
+        }
+        int powerOfTwo = 1;
+        while (powerOfTwo < value) {
+            powerOfTwo <<= 1;
+        }
+        return powerOfTwo;
+    }
+
+    private int offset(long index) {
+        return (int) (index & mask);
+    }
+
+    @Override
+    public boolean offer(T message) {
+        if (message == null) {
+            throw new NullPointerException("message must not be null");
+        }
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+
+        buffer.lazySet(offset(index), message);
+        waitStrategy.signal();
+        return true;
+    }
+
+    T poll() {
+        final long index = consumerIndex.get();
+        final int offset = offset(index);
+        T message = buffer.get(offset);
+        if (message == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            // slot claimed by a producer but not yet published
+            do {
+                message = buffer.get(offset);
+            } while (message == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return message;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        T message = poll();
+        if (message != null) {
+            return message;
+        }
+
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idleCount = 0;
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            final long remainNanos = deadline - System.nanoTime();
+            if (remainNanos <= 0) {
+                return null;
+            }
+            waitStrategy.idle(this, ++idleCount, remainNanos);
+
+            message = poll();
+            if (message != null) {
+                return message;
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> drain, int maxDrainSize) {
+        int drainSize = 0;
+        while (drainSize < maxDrainSize) {
+            final T message = poll();
+            if (message == null) {
+                break;
+            }
+            drain.add(message);
+            drainSize++;
+        }
+        return drainSize;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    @Override
+    public int size() {
+        final long size = producerIndex.get() - consumerIndex.get();
+        if (size <= 0) {
+            return 0;
+        }
+        return (int) Math.min(size, capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RingBufferAsyncQueue{");
+        sb.append("capacity=").append(capacity);
+        sb.append(", size=").append(size());
+        sb.append(", waitStrategy=").append(waitStrategy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+/**
+ * Decides how the consumer thread of a {@link RingBufferAsyncQueue} waits for new messages.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Called by the consumer thread while the queue is empty.
+     *
+     * @param queue queue being waited on
+     * @param idleCount number of consecutive calls since the last message was received
+     * @param remainNanos upper bound of time to wait
+     */
+    void idle(AsyncQueue<?> queue, int idleCount, long remainNanos);
+
+    /**
+     * Called by producer threads after a message is published.
+     */
+    void signal();
+
+}
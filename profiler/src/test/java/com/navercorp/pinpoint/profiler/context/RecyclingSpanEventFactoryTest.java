@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context;
+
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecyclingSpanEventFactoryTest {
+
+    private final TraceRoot traceRoot = newTraceRoot(1);
+
+    @Test
+    public void newSpanEvent_allocateWhenPoolIsEmpty() {
+        RecyclingSpanEventFactory factory = new RecyclingSpanEventFactory();
+
+        SpanEvent spanEvent = factory.newSpanEvent(traceRoot);
+
+        Assert.assertSame(traceRoot, spanEvent.getTraceRoot());
+        Assert.assertEquals(1, factory.getAllocatedCount());
+        Assert.assertEquals(0, factory.getRecycledCount());
+    }
+
+    @Test
+    public void recycle() {
+        RecyclingSpanEventFactory factory = new RecyclingSpanEventFactory();
+        SpanEvent spanEvent1 = factory.newSpanEvent(traceRoot);
+        SpanEvent spanEvent2 = factory.newSpanEvent(traceRoot);
+
+        factory.recycle(newSpanEventList(spanEvent1, spanEvent2));
+        Assert.assertEquals(2, factory.getRecycledCount());
+        Assert.assertEquals(1, factory.getPooledBatchSize());
+
+        TraceRoot nextTraceRoot = newTraceRoot(2);
+        SpanEvent reused1 = factory.newSpanEvent(nextTraceRoot);
+        SpanEvent reused2 = factory.newSpanEvent(nextTraceRoot);
+        Assert.assertSame(spanEvent2, reused1);
+        Assert.assertSame(spanEvent1, reused2);
+        Assert.assertSame(nextTraceRoot, reused1.getTraceRoot());
+        Assert.assertEquals(0, factory.getPooledBatchSize());
+
+        factory.newSpanEvent(nextTraceRoot);
+        Assert.assertEquals(3, factory.getAllocatedCount());
+    }
+
+    @Test
+    public void recycle_resetSpanEvent() {
+        RecyclingSpanEventFactory factory = new RecyclingSpanEventFactory();
+        SpanEvent spanEvent = factory.newSpanEvent(traceRoot);
+        spanEvent.setSequence((short) 3);
+        spanEvent.setDepth(2);
+        spanEvent.setEndElapsed(10);
+        spanEvent.setNextSpanId(100);
+        spanEvent.setApiId(5);
+        spanEvent.setStackId(7);
+        spanEvent.setTimeRecording(false);
+        spanEvent.markStartTime();
+        spanEvent.addAnnotation(new Annotation(1));
+        final List<TAnnotation> annotations = spanEvent.getAnnotations();
+
+        factory.recycle(newSpanEventList(spanEvent));
+
+        SpanEvent reused = factory.newSpanEvent(traceRoot);
+        Assert.assertSame(spanEvent, reused);
+        Assert.assertFalse(reused.isSetSequence());
+        Assert.assertFalse(reused.isSetDepth());
+        Assert.assertFalse(reused.isSetEndElapsed());
+        Assert.assertFalse(reused.isSetNextSpanId());
+        Assert.assertFalse(reused.isSetApiId());
+        Assert.assertFalse(reused.isSetAnnotations());
+        Assert.assertEquals(0, reused.getStartTime());
+        Assert.assertTrue(reused.isTimeRecording());
+        Assert.assertEquals(new SpanEvent(traceRoot), reused);
+
+        reused.addAnnotation(new Annotation(2));
+        Assert.assertSame("annotation list reused", annotations, reused.getAnnotations());
+        Assert.assertEquals(1, reused.getAnnotationsSize());
+    }
+
+    @Test
+    public void recycle_discardWhenPoolIsFull() {
+        RecyclingSpanEventFactory factory = new RecyclingSpanEventFactory(1);
+
+        List<TSpanEvent> batch1 = newSpanEventList(factory.newSpanEvent(traceRoot));
+        List<TSpanEvent> batch2 = newSpanEventList(factory.newSpanEvent(traceRoot), factory.newSpanEvent(traceRoot));
+
+        factory.recycle(batch1);
+        factory.recycle(batch2);
+
+        Assert.assertEquals(1, factory.getRecycledCount());
+        Assert.assertEquals(2, factory.getDiscardedCount());
+        Assert.assertEquals(1, factory.getPooledBatchSize());
+    }
+
+    @Test
+    public void recycle_emptyList() {
+        RecyclingSpanEventFactory factory = new RecyclingSpanEventFactory();
+
+        factory.recycle(new ArrayList<TSpanEvent>());
+        factory.recycle(null);
+
+        Assert.assertEquals(0, factory.getPooledBatchSize());
+    }
+
+    private List<TSpanEvent> newSpanEventList(SpanEvent... spanEvents) {
+        List<TSpanEvent> spanEventList = new ArrayList<TSpanEvent>();
+        for (SpanEvent spanEvent : spanEvents) {
+            spanEventList.add(spanEvent);
+        }
+        return spanEventList;
+    }
+
+    private static TraceRoot newTraceRoot(long transactionId) {
+        DefaultTraceId traceId = new DefaultTraceId("agentId", 0, transactionId);
+        return new DefaultTraceRoot(traceId, "agentId", System.currentTimeMillis(), transactionId);
+    }
+}
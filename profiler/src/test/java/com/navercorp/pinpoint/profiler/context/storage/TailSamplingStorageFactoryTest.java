@@ -0,0 +1,317 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
+import com.navercorp.pinpoint.profiler.context.SpanChunkFactoryV1;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessor;
+import com.navercorp.pinpoint.profiler.context.SpanPostProcessorV1;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.DefaultTransactionIdEncoder;
+import com.navercorp.pinpoint.profiler.context.id.TraceRoot;
+import com.navercorp.pinpoint.profiler.context.id.TransactionIdEncoder;
+import com.navercorp.pinpoint.profiler.sampler.FalseSampler;
+import com.navercorp.pinpoint.profiler.sampler.TailSampler;
+import com.navercorp.pinpoint.profiler.sampler.TrueSampler;
+import com.navercorp.pinpoint.profiler.sender.CountingDataSender;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TailSamplingStorageFactoryTest {
+
+    private static final long SLOW_THRESHOLD = 1000;
+
+    private final String agentId = "agentId";
+    private final long agentStartTime = System.currentTimeMillis();
+    private final SpanPostProcessor spanPostProcessor = new SpanPostProcessorV1();
+
+    private final TransactionIdEncoder encoder = new DefaultTransactionIdEncoder(agentId, agentStartTime);
+
+    private final SpanChunkFactory spanChunkFactory = new SpanChunkFactoryV1("applicationName", agentId, agentStartTime, ServiceType.STAND_ALONE, encoder);
+    private final CountingDataSender countingDataSender = new CountingDataSender();
+
+    private long transactionId = 0;
+
+    @Before
+    public void before() {
+        countingDataSender.stop();
+    }
+
+    private TraceRoot newTraceRoot(long traceStartTime) {
+        final long localTransactionId = ++transactionId;
+        TraceId traceId = new DefaultTraceId(agentId, agentStartTime, localTransactionId);
+        return new DefaultTraceRoot(traceId, agentId, traceStartTime, localTransactionId);
+    }
+
+    private TraceRoot newTraceRoot() {
+        return newTraceRoot(System.currentTimeMillis());
+    }
+
+    private TailSamplingStorageFactory newStorageFactory(Sampler drawSampler, int maxTransactions, int maxEvents) {
+        TailSampler tailSampler = new TailSampler(drawSampler, SLOW_THRESHOLD);
+        return newStorageFactory(tailSampler, maxTransactions, maxEvents);
+    }
+
+    private TailSamplingStorageFactory newStorageFactory(TailSampler tailSampler, int maxTransactions, int maxEvents) {
+        return new TailSamplingStorageFactory(2, countingDataSender, spanPostProcessor, spanChunkFactory, tailSampler, maxTransactions, maxEvents);
+    }
+
+    private void storeEvents(Storage storage, TraceRoot traceRoot, int count) {
+        for (int i = 0; i < count; i++) {
+            storage.store(new SpanEvent(traceRoot));
+        }
+    }
+
+    private Span newSpan(TraceRoot traceRoot, int elapsed) {
+        Span span = new Span(traceRoot);
+        span.markBeforeTime();
+        span.markAfterTime(span.getStartTime() + elapsed);
+        return span;
+    }
+
+    @Test
+    public void discarded() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new FalseSampler(), 10, 100);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+
+        storeEvents(storage, traceRoot, 5);
+        Assert.assertEquals(1, storageFactory.getBufferedTransactions());
+        Assert.assertEquals(4, storageFactory.getBufferedEvents());
+        storage.store(newSpan(traceRoot, 10));
+
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+        Assert.assertEquals(TailSamplingStorageFactory.DISCARDED, traceRoot.getShared().getTailSamplingDecision());
+        Assert.assertEquals(0, storageFactory.getBufferedTransactions());
+        Assert.assertEquals(0, storageFactory.getBufferedEvents());
+    }
+
+    @Test
+    public void keptByDraw() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new TrueSampler(), 10, 100);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+
+        storeEvents(storage, traceRoot, 5);
+        storage.store(newSpan(traceRoot, 10));
+
+        Assert.assertEquals(2, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+        Assert.assertEquals(TailSamplingStorageFactory.KEPT, traceRoot.getShared().getTailSamplingDecision());
+    }
+
+    @Test
+    public void keptOnSlow() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new FalseSampler(), 10, 100);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+
+        storeEvents(storage, traceRoot, 3);
+        storage.store(newSpan(traceRoot, (int) SLOW_THRESHOLD));
+
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+    }
+
+    @Test
+    public void keptOnError() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new FalseSampler(), 10, 100);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+
+        traceRoot.getShared().maskErrorCode(1);
+        storage.store(newSpan(traceRoot, 10));
+
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+    }
+
+    @Test
+    public void keptOnFlushedException() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new FalseSampler(), 10, 100);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+
+        SpanEvent spanEvent = new SpanEvent(traceRoot);
+        spanEvent.setExceptionInfo(1, "exception");
+        storage.store(spanEvent);
+        storeEvents(storage, traceRoot, 1);
+        storage.store(newSpan(traceRoot, 10));
+
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+    }
+
+    @Test
+    public void asyncStorageAfterDecision() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new TrueSampler(), 10, 100);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+        Storage asyncStorage = storageFactory.createStorage(traceRoot);
+        Assert.assertEquals(1, storageFactory.getBufferedTransactions());
+
+        storeEvents(asyncStorage, traceRoot, 2);
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+        storage.store(newSpan(traceRoot, 10));
+        Assert.assertEquals(2, countingDataSender.getTotalCount());
+
+        Storage lateStorage = storageFactory.createStorage(traceRoot);
+        Assert.assertEquals(0, storageFactory.getBufferedTransactions());
+        storeEvents(lateStorage, traceRoot, 2);
+        Assert.assertEquals(3, countingDataSender.getTotalCount());
+    }
+
+    @Test
+    public void maxEvents() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new TrueSampler(), 10, 3);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+
+        storeEvents(storage, traceRoot, 3);
+        Assert.assertEquals(2, storageFactory.getBufferedEvents());
+        storeEvents(storage, traceRoot, 1);
+        Assert.assertEquals(1, storageFactory.getEvictedCount());
+        Assert.assertEquals(TailSamplingStorageFactory.EVICTED, traceRoot.getShared().getTailSamplingDecision());
+        Assert.assertEquals(0, storageFactory.getBufferedEvents());
+        Assert.assertEquals(0, storageFactory.getBufferedTransactions());
+
+        storeEvents(storage, traceRoot, 2);
+        storage.store(newSpan(traceRoot, 10));
+        // evicted span chunks are dropped, the span is decided alone
+        Assert.assertEquals(0, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+    }
+
+    @Test
+    public void maxEventsEvictsOldest() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new TrueSampler(), 10, 3);
+        TraceRoot oldTraceRoot = newTraceRoot();
+        Storage oldStorage = storageFactory.createStorage(oldTraceRoot);
+        storeEvents(oldStorage, oldTraceRoot, 3);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+
+        storeEvents(storage, traceRoot, 3);
+        Assert.assertEquals(1, storageFactory.getEvictedCount());
+        Assert.assertEquals(TailSamplingStorageFactory.EVICTED, oldTraceRoot.getShared().getTailSamplingDecision());
+        Assert.assertEquals(TailSamplingStorageFactory.UNDECIDED, traceRoot.getShared().getTailSamplingDecision());
+        Assert.assertEquals(2, storageFactory.getBufferedEvents());
+
+        storage.store(newSpan(traceRoot, 10));
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+    }
+
+    @Test
+    public void asyncStorageAfterEviction() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new TrueSampler(), 1, 100);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+        storeEvents(storage, traceRoot, 3);
+
+        storageFactory.createStorage(newTraceRoot());
+        Assert.assertEquals(TailSamplingStorageFactory.EVICTED, traceRoot.getShared().getTailSamplingDecision());
+
+        // the async trace follows the eviction instead of buffering for a span it never sees
+        Storage asyncStorage = storageFactory.createStorage(traceRoot);
+        storeEvents(asyncStorage, traceRoot, 3);
+        Assert.assertEquals(1, storageFactory.getBufferedTransactions());
+        Assert.assertEquals(0, storageFactory.getBufferedEvents());
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+
+        storage.store(newSpan(traceRoot, 10));
+        Assert.assertEquals(TailSamplingStorageFactory.KEPT, traceRoot.getShared().getTailSamplingDecision());
+        Assert.assertEquals(0, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+
+        Storage lateStorage = storageFactory.createStorage(traceRoot);
+        storeEvents(lateStorage, traceRoot, 2);
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+    }
+
+    @Test
+    public void maxTransactions() {
+        TailSamplingStorageFactory storageFactory = newStorageFactory(new TrueSampler(), 2, 100);
+        TraceRoot slowTraceRoot = newTraceRoot(System.currentTimeMillis() - SLOW_THRESHOLD);
+        Storage slowStorage = storageFactory.createStorage(slowTraceRoot);
+        storeEvents(slowStorage, slowTraceRoot, 2);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+        storeEvents(storage, traceRoot, 2);
+        Assert.assertEquals(2, storageFactory.getBufferedTransactions());
+
+        // evicts the slow transaction, which is already known to be kept
+        storageFactory.createStorage(newTraceRoot());
+        Assert.assertEquals(TailSamplingStorageFactory.KEPT, slowTraceRoot.getShared().getTailSamplingDecision());
+        Assert.assertEquals(1, countingDataSender.getSpanChunkCounter());
+
+        // evicts the fast transaction, its span chunks are dropped
+        storageFactory.createStorage(newTraceRoot());
+        Assert.assertEquals(TailSamplingStorageFactory.EVICTED, traceRoot.getShared().getTailSamplingDecision());
+        Assert.assertEquals(2, storageFactory.getEvictedCount());
+        Assert.assertEquals(2, storageFactory.getBufferedTransactions());
+        Assert.assertEquals(0, storageFactory.getBufferedEvents());
+
+        storeEvents(slowStorage, slowTraceRoot, 2);
+        Assert.assertEquals(2, countingDataSender.getSpanChunkCounter());
+        storage.store(newSpan(traceRoot, 10));
+        Assert.assertEquals(2, countingDataSender.getSpanChunkCounter());
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+    }
+
+    @Test
+    public void countEvictedSlowTransaction() {
+        TailSampler tailSampler = new TailSampler(new FalseSampler(), SLOW_THRESHOLD);
+        TailSamplingStorageFactory storageFactory = newStorageFactory(tailSampler, 1, 100);
+        TraceRoot slowTraceRoot = newTraceRoot(System.currentTimeMillis() - SLOW_THRESHOLD);
+        Storage slowStorage = storageFactory.createStorage(slowTraceRoot);
+
+        storageFactory.createStorage(newTraceRoot());
+        Assert.assertEquals(TailSamplingStorageFactory.KEPT, slowTraceRoot.getShared().getTailSamplingDecision());
+        Assert.assertEquals(1, tailSampler.getKeptCount());
+
+        // the span of a transaction kept on eviction is not counted twice
+        slowStorage.store(newSpan(slowTraceRoot, (int) SLOW_THRESHOLD));
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+        Assert.assertEquals(1, tailSampler.getKeptCount());
+        Assert.assertEquals(0, tailSampler.getDiscardedCount());
+    }
+
+    @Test
+    public void countNewTransactionsOnly() {
+        TailSampler tailSampler = new TailSampler(new FalseSampler(), SLOW_THRESHOLD);
+        TailSamplingStorageFactory storageFactory = newStorageFactory(tailSampler, 10, 100);
+        TraceId continuedTraceId = new DefaultTraceId(agentId, agentStartTime, ++transactionId, 1L, 2L, (short) 0);
+        TraceRoot continuedTraceRoot = new DefaultTraceRoot(continuedTraceId, agentId, System.currentTimeMillis(), transactionId);
+        Storage continuedStorage = storageFactory.createStorage(continuedTraceRoot);
+        TraceRoot traceRoot = newTraceRoot();
+        Storage storage = storageFactory.createStorage(traceRoot);
+
+        continuedStorage.store(newSpan(continuedTraceRoot, 10));
+        storage.store(newSpan(traceRoot, 10));
+
+        Assert.assertEquals(0, tailSampler.getKeptCount());
+        Assert.assertEquals(1, tailSampler.getDiscardedCount());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class InternalNamePrefixTrieTest {
+
+    @Test
+    public void findAll() {
+        InternalNamePrefixTrie<String> trie = new InternalNamePrefixTrie<String>();
+        assertTrue(trie.isEmpty());
+
+        trie.put("java/util", "util");
+        trie.put("java/lang", "lang");
+        trie.put("java", "java");
+        trie.put("java/util/concurrent", "concurrent");
+        trie.put("java/util/concurrent", "concurrent2");
+        trie.put("java/util", "util");
+        assertEquals(5, trie.size());
+
+        // shorter prefix first.
+        assertEquals(Arrays.asList("java", "util", "concurrent", "concurrent2"), trie.findAll("java/util/concurrent/ConcurrentHashMap"));
+        assertEquals(Arrays.asList("java", "util"), trie.findAll("java/util/ArrayList"));
+        assertEquals(Arrays.asList("java", "lang"), trie.findAll("java/lang/String"));
+        assertEquals(Arrays.asList("java", "lang"), trie.findAll("java/language/Foo"));
+        assertEquals(Collections.singletonList("java"), trie.findAll("javax/servlet/Servlet"));
+        assertEquals(Collections.singletonList("java"), trie.findAll("java"));
+        assertTrue(trie.findAll("jav").isEmpty());
+        assertTrue(trie.findAll("com/navercorp/pinpoint/Foo").isEmpty());
+        assertTrue(trie.findAll("").isEmpty());
+    }
+
+    @Test
+    public void emptyPrefix() {
+        InternalNamePrefixTrie<String> trie = new InternalNamePrefixTrie<String>();
+        trie.put("", "all");
+        trie.put("com", "com");
+
+        assertEquals(Arrays.asList("all", "com"), trie.findAll("com/navercorp/Foo"));
+        assertEquals(Collections.singletonList("all"), trie.findAll("java/lang/String"));
+        assertEquals(Collections.singletonList("all"), trie.findAll(""));
+    }
+
+    @Test
+    public void unorderedInsert() {
+        InternalNamePrefixTrie<Integer> trie = new InternalNamePrefixTrie<Integer>();
+        final String[] prefixes = {"org/d", "org/a", "org/c", "org/b", "org/e", "com/a", "net/a"};
+        for (int i = 0; i < prefixes.length; i++) {
+            trie.put(prefixes[i], i);
+        }
+
+        for (int i = 0; i < prefixes.length; i++) {
+            assertEquals(Collections.singletonList(i), trie.findAll(prefixes[i] + "/Foo"));
+        }
+        assertTrue(trie.findAll("org/f/Foo").isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullPrefix() {
+        new InternalNamePrefixTrie<String>().put(null, "value");
+    }
+}
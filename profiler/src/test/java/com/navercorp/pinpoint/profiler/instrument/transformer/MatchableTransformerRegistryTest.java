@@ -16,18 +16,34 @@
 
 package com.navercorp.pinpoint.profiler.instrument.transformer;
 
+import com.navercorp.pinpoint.bootstrap.config.DefaultProfilerConfig;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.Matchers;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.AnnotationInternalNameMatcherOperand;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.InterfaceInternalNameMatcherOperand;
 import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.MatcherOperand;
+import com.navercorp.pinpoint.bootstrap.instrument.matcher.operand.PackageInternalNameMatcherOperand;
+import com.navercorp.pinpoint.profiler.util.BytecodeUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.Properties;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static org.junit.Assert.*;
+
 
 /**
  * @author jaehong.kim
  */
 public class MatchableTransformerRegistryTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void accumulatorTime() throws Exception {
         IndexValue value = new IndexValue(null, null);
@@ -36,6 +52,121 @@ public class MatchableTransformerRegistryTest {
         value.accumulatorTime(startTime);
     }
 
+    @Test
+    public void findPackageBasedTransformer() {
+        MatchableTransformerRegistry registry = new MatchableTransformerRegistry(new DefaultProfilerConfig(new Properties()));
+        // same package name length.
+        ClassFileTransformer senderTransformer = new MockTransformer();
+        registry.addTransformer(Matchers.newPackageBasedMatcher("com.navercorp.pinpoint.profiler.sender"), senderTransformer);
+        ClassFileTransformer pluginTransformer = new MockTransformer();
+        registry.addTransformer(Matchers.newPackageBasedMatcher("com.navercorp.pinpoint.profiler.plugin"), pluginTransformer);
+
+        assertSame(senderTransformer, findTransformer(registry, "com.navercorp.pinpoint.profiler.sender.AbstractDataSender"));
+        assertSame(pluginTransformer, findTransformer(registry, "com.navercorp.pinpoint.profiler.plugin.ClassFileTransformerLoader"));
+        assertNull(findTransformer(registry, "com.navercorp.pinpoint.profiler.instrument.transformer.MatchableTransformerRegistry"));
+    }
+
+    @Test
+    public void findPackageBasedTransformerWithCondition() {
+        MatchableTransformerRegistry registry = new MatchableTransformerRegistry(new DefaultProfilerConfig(new Properties()));
+        ClassFileTransformer registryTransformer = new MockTransformer();
+        MatcherOperand condition = new InterfaceInternalNameMatcherOperand(TransformerRegistry.class.getName(), false);
+        registry.addTransformer(Matchers.newPackageBasedMatcher("com.navercorp.pinpoint.profiler.instrument", condition), registryTransformer);
+        ClassFileTransformer transformerPackageTransformer = new MockTransformer();
+        registry.addTransformer(Matchers.newPackageBasedMatcher("com.navercorp.pinpoint.profiler.instrument.transformer"), transformerPackageTransformer);
+
+        // shorter package first.
+        assertSame(registryTransformer, findTransformer(registry, MatchableTransformerRegistry.class.getName()));
+        assertSame(transformerPackageTransformer, findTransformer(registry, DefaultTransformerMatcher.class.getName()));
+    }
+
+    @Test
+    public void notFound() {
+        MatchableTransformerRegistry registry = new MatchableTransformerRegistry(new DefaultProfilerConfig(new Properties()));
+        registry.addTransformer(Matchers.newPackageBasedMatcher("com.navercorp.pinpoint.profiler.sender"), new MockTransformer());
+
+        // class bytes are not read.
+        assertNull(registry.findTransformer(null, "com/navercorp/pinpoint/profiler/receiver/ProfilerCommandService", null));
+        assertNull(registry.findTransformer(null, "java/lang/String", null));
+    }
+
+    @Test
+    public void decisionCache() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "matcher.cache");
+        DefaultProfilerConfig profilerConfig = new DefaultProfilerConfig(new Properties());
+        profilerConfig.getInstrumentMatcherCacheConfig().setDecisionCachePath(file.getPath());
+
+        MatchableTransformerRegistry registry = newDecisionCacheRegistry(profilerConfig);
+        registry.loadDecisionCache();
+        assertNotNull(findTransformer(registry, "com.navercorp.pinpoint.profiler.sender.AbstractDataSender"));
+        assertNull(findTransformer(registry, "com.navercorp.pinpoint.profiler.sender.AsyncQueueingExecutor"));
+        // depends on the interfaces of the super class.
+        assertNotNull(findTransformer(registry, "com.navercorp.pinpoint.profiler.sender.TcpDataSender"));
+        registry.saveDecisionCache();
+
+        MatchableTransformerRegistry warmRegistry = newDecisionCacheRegistry(profilerConfig);
+        warmRegistry.loadDecisionCache();
+        MatcherDecisionCache decisionCache = warmRegistry.getDecisionCache();
+        assertEquals(2, decisionCache.size());
+        ClassFileTransformer transformer = findTransformer(warmRegistry, "com.navercorp.pinpoint.profiler.sender.AbstractDataSender");
+        assertNull(findTransformer(warmRegistry, "com.navercorp.pinpoint.profiler.sender.AsyncQueueingExecutor"));
+        assertEquals(2, decisionCache.getHitCount());
+        assertNotNull(findTransformer(warmRegistry, "com.navercorp.pinpoint.profiler.sender.TcpDataSender"));
+        assertEquals(2, decisionCache.getHitCount());
+
+        // the cached decision is the transformer of this registry.
+        assertSame(transformer, warmRegistry.findTransformer(null, "com/navercorp/pinpoint/profiler/sender/AbstractDataSender", BytecodeUtils.getClassFile(null, "com.navercorp.pinpoint.profiler.sender.AbstractDataSender")));
+        assertEquals(3, decisionCache.getHitCount());
+    }
+
+    @Test
+    public void decisionCacheInvalidate() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "matcher.cache");
+        DefaultProfilerConfig profilerConfig = new DefaultProfilerConfig(new Properties());
+        profilerConfig.getInstrumentMatcherCacheConfig().setDecisionCachePath(file.getPath());
+
+        MatchableTransformerRegistry registry = newDecisionCacheRegistry(profilerConfig);
+        registry.loadDecisionCache();
+        findTransformer(registry, "com.navercorp.pinpoint.profiler.sender.AbstractDataSender");
+        registry.saveDecisionCache();
+
+        MatchableTransformerRegistry changedRegistry = newDecisionCacheRegistry(profilerConfig);
+        changedRegistry.addTransformer(Matchers.newPackageBasedMatcher("com.navercorp.pinpoint.profiler.plugin"), new MockTransformer());
+        changedRegistry.loadDecisionCache();
+        assertEquals(0, changedRegistry.getDecisionCache().size());
+    }
+
+    @Test
+    public void isClassFileOnly() {
+        MatcherOperand operand = new PackageInternalNameMatcherOperand("com.test");
+        assertTrue(MatchableTransformerRegistry.isClassFileOnly(operand));
+        assertTrue(MatchableTransformerRegistry.isClassFileOnly(operand.and(new InterfaceInternalNameMatcherOperand("com.test.Foo", false))));
+        assertTrue(MatchableTransformerRegistry.isClassFileOnly(operand.and(new AnnotationInternalNameMatcherOperand("com.test.Bar", false).not())));
+        assertFalse(MatchableTransformerRegistry.isClassFileOnly(operand.and(new InterfaceInternalNameMatcherOperand("com.test.Foo", true))));
+        assertFalse(MatchableTransformerRegistry.isClassFileOnly(operand.or(new AnnotationInternalNameMatcherOperand("com.test.Bar", true).not())));
+    }
+
+    private MatchableTransformerRegistry newDecisionCacheRegistry(DefaultProfilerConfig profilerConfig) {
+        MatchableTransformerRegistry registry = new MatchableTransformerRegistry(profilerConfig);
+        MatcherOperand dataSender = new InterfaceInternalNameMatcherOperand("com.navercorp.pinpoint.profiler.sender.DataSender", false);
+        registry.addTransformer(Matchers.newPackageBasedMatcher("com.navercorp.pinpoint.profiler.sender", dataSender), new MockTransformer());
+        MatcherOperand hierarchy = new InterfaceInternalNameMatcherOperand("com.navercorp.pinpoint.profiler.sender.EnhancedDataSender", true);
+        registry.addTransformer(Matchers.newPackageBasedMatcher("com.navercorp.pinpoint.profiler.sender.T", hierarchy), new MockTransformer());
+        return registry;
+    }
+
+    private ClassFileTransformer findTransformer(MatchableTransformerRegistry registry, String className) {
+        byte[] classFileBuffer = BytecodeUtils.getClassFile(null, className);
+        return registry.findTransformer(null, className.replace('.', '/'), classFileBuffer);
+    }
+
+    private static class MockTransformer implements ClassFileTransformer {
+        @Override
+        public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+            return null;
+        }
+    }
+
 
     class IndexValue {
         final MatcherOperand operand;
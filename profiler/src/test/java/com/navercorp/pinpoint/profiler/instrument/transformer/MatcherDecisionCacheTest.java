@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.instrument.transformer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.*;
+
+public class MatcherDecisionCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void saveAndLoad() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "cache/matcher.cache");
+        long hash = MatcherDecisionCache.hash(new byte[]{1, 2, 3});
+
+        MatcherDecisionCache cache = new MatcherDecisionCache(file, "fingerprint");
+        cache.load();
+        assertNull(cache.get("com/test/Foo", hash));
+        cache.put("com/test/Foo", hash, 3);
+        cache.put("com/test/Bar", hash, MatcherDecisionCache.NOT_MATCHED);
+        cache.save();
+        assertTrue(file.isFile());
+
+        MatcherDecisionCache warmCache = new MatcherDecisionCache(file, "fingerprint");
+        warmCache.load();
+        assertEquals(2, warmCache.size());
+        assertEquals(Integer.valueOf(3), warmCache.get("com/test/Foo", hash));
+        assertEquals(Integer.valueOf(MatcherDecisionCache.NOT_MATCHED), warmCache.get("com/test/Bar", hash));
+        // changed class file.
+        assertNull(warmCache.get("com/test/Foo", MatcherDecisionCache.hash(new byte[]{1, 2, 4})));
+        assertEquals(2, warmCache.getHitCount());
+        assertEquals(1, warmCache.getMissCount());
+    }
+
+    @Test
+    public void invalidate() throws Exception {
+        File file = temporaryFolder.newFile("matcher.cache");
+        MatcherDecisionCache cache = new MatcherDecisionCache(file, "fingerprint");
+        cache.put("com/test/Foo", 1, 0);
+        cache.save();
+
+        MatcherDecisionCache changedMatchers = new MatcherDecisionCache(file, "changed");
+        changedMatchers.load();
+        assertEquals(0, changedMatchers.size());
+        assertNull(changedMatchers.get("com/test/Foo", 1));
+    }
+
+    @Test
+    public void corruptedFile() throws Exception {
+        File file = temporaryFolder.newFile("matcher.cache");
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[]{0x50, 0x50, 0x4D});
+        } finally {
+            out.close();
+        }
+
+        MatcherDecisionCache cache = new MatcherDecisionCache(file, "fingerprint");
+        cache.load();
+        assertEquals(0, cache.size());
+
+        // overwritten.
+        cache.put("com/test/Foo", 1, 0);
+        cache.save();
+        MatcherDecisionCache warmCache = new MatcherDecisionCache(file, "fingerprint");
+        warmCache.load();
+        assertEquals(Integer.valueOf(0), warmCache.get("com/test/Foo", 1));
+    }
+
+    @Test
+    public void maxEntrySize() {
+        MatcherDecisionCache cache = new MatcherDecisionCache(new File("unused"), "fingerprint");
+        for (int i = 0; i < MatcherDecisionCache.MAX_ENTRY_SIZE + 10; i++) {
+            cache.put("com/test/Foo" + i, i, 0);
+        }
+        assertEquals(MatcherDecisionCache.MAX_ENTRY_SIZE, cache.size());
+    }
+}
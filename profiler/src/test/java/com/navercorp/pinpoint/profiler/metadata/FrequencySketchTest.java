@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void increment() {
+        FrequencySketch<String> sketch = new FrequencySketch<String>(512);
+        Assert.assertEquals(0, sketch.frequency("a"));
+
+        sketch.increment("a");
+        sketch.increment("a");
+        sketch.increment("b");
+
+        Assert.assertEquals(2, sketch.frequency("a"));
+        Assert.assertEquals(1, sketch.frequency("b"));
+    }
+
+    @Test
+    public void saturate() {
+        FrequencySketch<String> sketch = new FrequencySketch<String>(512);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("a");
+        }
+        Assert.assertEquals(15, sketch.frequency("a"));
+    }
+
+    @Test
+    public void reset() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<Integer>(64);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(-1);
+        }
+        Assert.assertEquals(10, sketch.frequency(-1));
+
+        // sample size is reached and every counter is halved
+        for (int i = 0; i < 10 * 64; i++) {
+            sketch.increment(i);
+        }
+        Assert.assertTrue(sketch.frequency(-1) <= 5);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TinyLfuCacheTest {
+
+    private static final Weigher<Object> UNIT_WEIGHER = new Weigher<Object>() {
+        @Override
+        public int weigh(Object value) {
+            return 1;
+        }
+    };
+
+    @Test
+    public void put() {
+        TinyLfuCache<String> cache = new TinyLfuCache<String>(1024 * 1024, new StringWeigher());
+        Result test = cache.put("test");
+        Assert.assertEquals(-1, test.getId());
+        Assert.assertTrue(test.isNewValue());
+
+        Result recheck = cache.put("test");
+        Assert.assertEquals(test.getId(), recheck.getId());
+        Assert.assertFalse(recheck.isNewValue());
+
+        Result newValue = cache.put("new");
+        Assert.assertEquals(1, newValue.getId());
+        Assert.assertTrue(newValue.isNewValue());
+
+        MetaDataCacheStats stats = cache.getStats();
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(2, stats.getMissCount());
+        Assert.assertEquals(0, stats.getEvictionCount());
+        Assert.assertEquals(new StringWeigher().weigh("test") + new StringWeigher().weigh("new"), stats.getWeightedSize());
+    }
+
+    @Test
+    public void startKey0() {
+        TinyLfuCache<String> cache = new TinyLfuCache<String>(1024, new StringWeigher(), 0);
+        Result test = cache.put("test");
+        Assert.assertEquals(0, test.getId());
+    }
+
+    @Test
+    public void boundedByWeight() {
+        TinyLfuCache<Integer> cache = new TinyLfuCache<Integer>(100, UNIT_WEIGHER);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i);
+        }
+        Assert.assertEquals(100, cache.getWeightedSize());
+        Assert.assertEquals(100, cache.size());
+        Assert.assertEquals(900, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void tooLargeEntry() {
+        TinyLfuCache<String> cache = new TinyLfuCache<String>(10, new StringWeigher());
+        Result first = cache.put("select * from dual");
+        Result second = cache.put("select * from dual");
+        Assert.assertTrue(first.isNewValue());
+        Assert.assertTrue(second.isNewValue());
+        Assert.assertTrue(first.getId() != second.getId());
+        Assert.assertEquals(0, cache.getWeightedSize());
+    }
+
+    @Test
+    public void frequentEntriesSurviveScan() {
+        TinyLfuCache<Integer> cache = new TinyLfuCache<Integer>(200, UNIT_WEIGHER);
+        final int hotSize = 100;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < hotSize; i++) {
+                cache.put(i);
+            }
+        }
+        // one-off entries
+        for (int i = hotSize; i < 100000; i++) {
+            cache.put(i);
+        }
+
+        int retained = 0;
+        for (int i = 0; i < hotSize; i++) {
+            if (!cache.put(i).isNewValue()) {
+                retained++;
+            }
+        }
+        Assert.assertTrue("retained:" + retained, retained >= hotSize * 9 / 10);
+        Assert.assertTrue(cache.getWeightedSize() <= 200);
+    }
+
+    @Test
+    public void concurrentPut() throws Exception {
+        final TinyLfuCache<Integer> cache = new TinyLfuCache<Integer>(500, UNIT_WEIGHER);
+        final int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < threadCount; t++) {
+                final long seed = t;
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        Random random = new Random(seed);
+                        for (int i = 0; i < 100000; i++) {
+                            // skewed key distribution
+                            int key = random.nextInt(1 + random.nextInt(5000));
+                            Result result = cache.put(key);
+                            if (result.getId() == 0) {
+                                return -1;
+                            }
+                        }
+                        return 0;
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                Assert.assertEquals(Integer.valueOf(0), future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertTrue(cache.getWeightedSize() <= 500);
+        Assert.assertEquals(cache.getWeightedSize(), cache.size());
+        MetaDataCacheStats stats = cache.getStats();
+        Assert.assertEquals(threadCount * 100000, stats.getHitCount() + stats.getMissCount());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.common.util.MockClock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class RateLimitingSamplerTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void burst() {
+        MockClock clock = new MockClock();
+        clock.setTime(ONE_SECOND);
+        RateLimitingSampler sampler = new RateLimitingSampler(10, clock);
+
+        Assert.assertEquals(10, countSampled(sampler, 1000));
+    }
+
+    @Test
+    public void refill() {
+        MockClock clock = new MockClock();
+        clock.setTime(ONE_SECOND);
+        RateLimitingSampler sampler = new RateLimitingSampler(10, clock);
+        Assert.assertEquals(10, countSampled(sampler, 100));
+
+        clock.setTime(ONE_SECOND + ONE_SECOND / 10);
+        Assert.assertEquals(1, countSampled(sampler, 100));
+
+        // an idle bucket does not hold more than one second of budget
+        clock.setTime(ONE_SECOND * 10);
+        Assert.assertEquals(10, countSampled(sampler, 100));
+    }
+
+    @Test
+    public void steadyTraffic() {
+        MockClock clock = new MockClock();
+        clock.setTime(ONE_SECOND);
+        RateLimitingSampler sampler = new RateLimitingSampler(5, clock);
+
+        // 1000 tps for 10 seconds
+        int sampled = 0;
+        for (int i = 0; i < 10000; i++) {
+            clock.setTime(ONE_SECOND + TimeUnit.MILLISECONDS.toNanos(i));
+            if (sampler.isSampling()) {
+                sampled++;
+            }
+        }
+        // initial bucket + 5 per second
+        Assert.assertEquals(5 + 50, sampled, 1);
+    }
+
+    @Test
+    public void lowTraffic() {
+        MockClock clock = new MockClock();
+        RateLimitingSampler sampler = new RateLimitingSampler(5, clock);
+
+        for (int i = 0; i < 100; i++) {
+            clock.setTime(ONE_SECOND * i);
+            Assert.assertTrue(sampler.isSampling());
+        }
+    }
+
+    @Test
+    public void nanoTimeOverflow() {
+        MockClock clock = new MockClock();
+        clock.setTime(Long.MAX_VALUE - ONE_SECOND / 2);
+        RateLimitingSampler sampler = new RateLimitingSampler(10, clock);
+        Assert.assertEquals(10, countSampled(sampler, 100));
+
+        clock.setTime(Long.MAX_VALUE + ONE_SECOND / 2);
+        Assert.assertEquals(10, countSampled(sampler, 100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTracesPerSecond() {
+        new RateLimitingSampler(0);
+    }
+
+    private int countSampled(RateLimitingSampler sampler, int count) {
+        int sampled = 0;
+        for (int i = 0; i < count; i++) {
+            if (sampler.isSampling()) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+}
@@ -42,4 +42,17 @@ public class SamplerFactoryTest {
         boolean sampling = sampler.isSampling();
         Assert.assertFalse(sampling);
     }
+
+    @Test
+    public void createSamplerTracesPerSecond() {
+        SamplerFactory samplerFactory = new SamplerFactory();
+        Sampler sampler = samplerFactory.createSampler(true, 20, 100);
+        Assert.assertTrue(sampler instanceof RateLimitingSampler);
+
+        Sampler disabled = samplerFactory.createSampler(false, 20, 100);
+        Assert.assertFalse(disabled.isSampling());
+
+        Sampler rate = samplerFactory.createSampler(true, 20, 0);
+        Assert.assertTrue(rate instanceof SamplingRateSampler);
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TailSamplerTest {
+
+    @Test
+    public void isKept() {
+        TailSampler sampler = new TailSampler(new FalseSampler(), 1000);
+        Assert.assertTrue(sampler.isSampling());
+
+        Assert.assertFalse(sampler.isKept(999, false, true));
+        Assert.assertTrue(sampler.isKept(1000, false, true));
+        Assert.assertTrue(sampler.isKept(10, true, true));
+
+        Assert.assertEquals(2, sampler.getKeptCount());
+        Assert.assertEquals(1, sampler.getDiscardedCount());
+    }
+
+    @Test
+    public void isKeptByDraw() {
+        TailSampler sampler = new TailSampler(new TrueSampler(), 1000);
+
+        Assert.assertTrue(sampler.isKept(10, false, true));
+        Assert.assertEquals(1, sampler.getKeptCount());
+    }
+
+    @Test
+    public void continuedTransactionIsNotCounted() {
+        TailSampler sampler = new TailSampler(new FalseSampler(), 1000);
+
+        Assert.assertTrue(sampler.isKept(1000, false, false));
+        Assert.assertFalse(sampler.isKept(10, false, false));
+
+        Assert.assertEquals(0, sampler.getKeptCount());
+        Assert.assertEquals(0, sampler.getDiscardedCount());
+    }
+
+    @Test
+    public void isKeptOnEviction() {
+        TailSampler sampler = new TailSampler(new TrueSampler(), 1000);
+
+        Assert.assertFalse(sampler.isKeptOnEviction(999, true));
+        Assert.assertTrue(sampler.isKeptOnEviction(1000, true));
+        Assert.assertTrue(sampler.isKeptOnEviction(1000, false));
+
+        Assert.assertEquals(1, sampler.getKeptCount());
+        Assert.assertEquals(0, sampler.getDiscardedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSlowThreshold() {
+        new TailSampler(new TrueSampler(), 0);
+    }
+}
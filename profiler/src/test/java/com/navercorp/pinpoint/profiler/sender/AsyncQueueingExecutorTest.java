@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueConfig;
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueType;
+import com.navercorp.pinpoint.profiler.sender.queue.WaitStrategyType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncQueueingExecutorTest {
+
+    @Test
+    public void execute_ringBuffer() throws InterruptedException {
+        AsyncQueueConfig queueConfig = new AsyncQueueConfig(AsyncQueueType.RING_BUFFER, WaitStrategyType.BLOCKING, 32);
+        AsyncQueueingExecutor<Integer> executor = new AsyncQueueingExecutor<Integer>(1024, "ringBufferExecutor", queueConfig);
+
+        final int messageCount = 1000;
+        final CountDownLatch latch = new CountDownLatch(messageCount);
+        final AtomicInteger sum = new AtomicInteger();
+        executor.setListener(new AsyncQueueingExecutorListener<Integer>() {
+            @Override
+            public void execute(Collection<Integer> messageList) {
+                // UnsafeArrayCollection does not support iterator()
+                Object[] dataList = messageList.toArray();
+                for (int i = 0; i < messageList.size(); i++) {
+                    execute((Integer) dataList[i]);
+                }
+            }
+
+            @Override
+            public void execute(Integer message) {
+                sum.addAndGet(message);
+                latch.countDown();
+            }
+
+            @Override
+            public void discard(Integer message, boolean overflow) {
+            }
+        });
+        try {
+            int expected = 0;
+            for (int i = 0; i < messageCount; i++) {
+                Assert.assertTrue(executor.execute(i));
+                expected += i;
+            }
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(expected, sum.get());
+            Assert.assertEquals(0, executor.getDropCount());
+        } finally {
+            executor.stop();
+        }
+    }
+
+    @Test
+    public void discard() {
+        AsyncQueueConfig queueConfig = new AsyncQueueConfig(AsyncQueueType.RING_BUFFER, WaitStrategyType.BLOCKING, 10);
+        AsyncQueueingExecutor<Integer> executor = new AsyncQueueingExecutor<Integer>(1, "discardExecutor", queueConfig);
+
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        final AtomicInteger overflowCount = new AtomicInteger();
+        final AtomicInteger stoppedCount = new AtomicInteger();
+        executor.setListener(new AsyncQueueingExecutorListener<Integer>() {
+            @Override
+            public void execute(Collection<Integer> messageList) {
+                await(blockLatch);
+            }
+
+            @Override
+            public void execute(Integer message) {
+                await(blockLatch);
+            }
+
+            @Override
+            public void discard(Integer message, boolean overflow) {
+                if (overflow) {
+                    overflowCount.incrementAndGet();
+                } else {
+                    stoppedCount.incrementAndGet();
+                }
+            }
+        });
+
+        // consumer thread blocks on the first message, the second one fills the queue
+        for (int i = 0; i < 10; i++) {
+            executor.execute(i);
+        }
+        Assert.assertTrue(executor.getOverflowCount() >= 8);
+        Assert.assertEquals(executor.getOverflowCount(), overflowCount.get());
+
+        blockLatch.countDown();
+        executor.stop();
+
+        Assert.assertFalse(executor.execute(100));
+        Assert.assertEquals(1, stoppedCount.get());
+        Assert.assertEquals(executor.getOverflowCount() + 1, executor.getDropCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
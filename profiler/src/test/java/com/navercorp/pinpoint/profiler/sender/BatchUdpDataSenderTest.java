@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.profiler.sender.queue.AsyncQueueConfig;
+import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+import com.navercorp.pinpoint.thrift.io.ChunkHeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.io.ChunkHeaderTBaseDeserializerFactory;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.SocketUtils;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchUdpDataSenderTest {
+
+    private final ChunkHeaderTBaseDeserializer deserializer = ChunkHeaderTBaseDeserializerFactory.DEFAULT_FACTORY.createDeserializer();
+
+    private int port = SocketUtils.findAvailableUdpPort(61112);
+    private DatagramSocket receiver;
+
+    @Before
+    public void setUp() throws SocketException {
+        receiver = new DatagramSocket(port);
+        receiver.setSoTimeout(3000);
+    }
+
+    @After
+    public void setDown() {
+        if (receiver != null) {
+            receiver.close();
+        }
+        port = SocketUtils.findAvailableUdpPort(61112);
+    }
+
+    private BatchUDPDataSender newSender(int flushTimeout, int maxPacketLength) {
+        return new BatchUDPDataSender("localhost", port, "test", 128, 1000, 1024 * 64 * 100, AsyncQueueConfig.DEFAULT, flushTimeout, maxPacketLength);
+    }
+
+    private TAgentInfo newAgentInfo(int i) {
+        TAgentInfo agentInfo = new TAgentInfo();
+        agentInfo.setAgentId("agent" + i);
+        return agentInfo;
+    }
+
+    @Test
+    public void packMessages() throws Exception {
+        BatchUDPDataSender sender = newSender(1000, NioUDPDataSender.UDP_MAX_PACKET_LENGTH);
+        try {
+            for (int i = 0; i < 10; i++) {
+                sender.send(newAgentInfo(i));
+            }
+
+            List<TBase<?, ?>> received = receive(1);
+            Assert.assertEquals(10, received.size());
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(newAgentInfo(i), received.get(i));
+            }
+            awaitSendMessageCount(sender, 10);
+            Assert.assertEquals(1, sender.getSendDatagramCount());
+        } finally {
+            sender.stop();
+        }
+    }
+
+    @Test
+    public void maxPacketLength() throws Exception {
+        BatchUDPDataSender sender = newSender(1000, 100);
+        try {
+            for (int i = 0; i < 10; i++) {
+                sender.send(newAgentInfo(i));
+            }
+
+            List<TBase<?, ?>> received = new ArrayList<TBase<?, ?>>();
+            int datagrams = 0;
+            while (received.size() < 10) {
+                received.addAll(receive(1));
+                datagrams++;
+            }
+            Assert.assertEquals(10, received.size());
+            Assert.assertTrue(datagrams > 1);
+            Assert.assertTrue(datagrams < 10);
+        } finally {
+            sender.stop();
+        }
+    }
+
+    @Test
+    public void oversizedMessage() throws Exception {
+        BatchUDPDataSender sender = newSender(1000, 100);
+        try {
+            TAgentInfo oversized = new TAgentInfo();
+            oversized.setAgentId(newAgentId(500));
+            sender.send(newAgentInfo(0));
+            sender.send(oversized);
+            sender.send(newAgentInfo(2));
+
+            // buffered message, oversized message on its own, last message at the flush timeout
+            List<TBase<?, ?>> received = receive(3);
+            Assert.assertEquals(3, received.size());
+            Assert.assertEquals(newAgentInfo(0), received.get(0));
+            Assert.assertEquals(oversized, received.get(1));
+            Assert.assertEquals(newAgentInfo(2), received.get(2));
+            awaitSendMessageCount(sender, 3);
+        } finally {
+            sender.stop();
+        }
+    }
+
+    private String newAgentId(int length) {
+        StringBuilder agentId = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            agentId.append('a');
+        }
+        return agentId.toString();
+    }
+
+    @Test
+    public void flushOnStop() throws Exception {
+        BatchUDPDataSender sender = newSender(60 * 1000, NioUDPDataSender.UDP_MAX_PACKET_LENGTH);
+        sender.send(newAgentInfo(0));
+        sender.send(newAgentInfo(1));
+        sender.stop();
+
+        Assert.assertEquals(2, receive(1).size());
+    }
+
+    @Test
+    public void singleMessage() throws Exception {
+        BatchUDPDataSender sender = newSender(10, NioUDPDataSender.UDP_MAX_PACKET_LENGTH);
+        try {
+            sender.send(newAgentInfo(0));
+
+            byte[] buffer = new byte[NioUDPDataSender.UDP_MAX_PACKET_LENGTH];
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            receiver.receive(packet);
+            // sent as is, without chunk header
+            TBase<?, ?> tBase = new HeaderTBaseDeserializerFactory().createDeserializer().deserialize(packet.getData());
+            Assert.assertEquals(newAgentInfo(0), tBase);
+        } finally {
+            sender.stop();
+        }
+    }
+
+    private void awaitSendMessageCount(BatchUDPDataSender sender, long expected) throws InterruptedException {
+        // the counters are updated after the datagram is written
+        for (int i = 0; i < 100 && sender.getSendMessageCount() < expected; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(expected, sender.getSendMessageCount());
+    }
+
+    private List<TBase<?, ?>> receive(int datagrams) throws IOException, TException {
+        List<TBase<?, ?>> result = new ArrayList<TBase<?, ?>>();
+        byte[] buffer = new byte[NioUDPDataSender.UDP_MAX_PACKET_LENGTH];
+        for (int i = 0; i < datagrams; i++) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            receiver.receive(packet);
+            result.addAll(deserializer.deserialize(packet.getData(), packet.getOffset(), packet.getLength()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class DropCounterTest {
+
+    @Test
+    public void increment() {
+        DropCounter dropCounter = new DropCounter(TimeUnit.HOURS.toMillis(1));
+
+        Assert.assertEquals(1, dropCounter.increment());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertEquals(0, dropCounter.increment());
+        }
+        Assert.assertEquals(5, dropCounter.get());
+
+        Assert.assertEquals(4, dropCounter.drainUnlogged());
+        Assert.assertEquals(0, dropCounter.drainUnlogged());
+        Assert.assertEquals(5, dropCounter.get());
+    }
+
+    @Test
+    public void increment_noInterval() {
+        DropCounter dropCounter = new DropCounter(0);
+
+        Assert.assertEquals(1, dropCounter.increment());
+        Assert.assertEquals(1, dropCounter.increment());
+        Assert.assertEquals(0, dropCounter.drainUnlogged());
+        Assert.assertEquals(2, dropCounter.get());
+    }
+}
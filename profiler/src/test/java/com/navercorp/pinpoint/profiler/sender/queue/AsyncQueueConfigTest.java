@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Locale;
+
+public class AsyncQueueConfigTest {
+
+    @Test
+    public void of() {
+        AsyncQueueConfig config = AsyncQueueConfig.of(" ring_buffer ", "yielding", 20);
+        Assert.assertEquals(AsyncQueueType.RING_BUFFER, config.getQueueType());
+        Assert.assertEquals(WaitStrategyType.YIELDING, config.getWaitStrategyType());
+        Assert.assertEquals(20, config.getMaxDrainSize());
+    }
+
+    @Test
+    public void of_invalid() {
+        AsyncQueueConfig config = AsyncQueueConfig.of("RINGBUFER", "FAST", 0);
+        Assert.assertEquals(AsyncQueueConfig.DEFAULT.getQueueType(), config.getQueueType());
+        Assert.assertEquals(AsyncQueueConfig.DEFAULT.getWaitStrategyType(), config.getWaitStrategyType());
+        Assert.assertEquals(AsyncQueueConfig.DEFAULT_MAX_DRAIN_SIZE, config.getMaxDrainSize());
+    }
+
+    @Test
+    public void of_turkishLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            AsyncQueueConfig config = AsyncQueueConfig.of("ring_buffer", "busy_spin", 10);
+            Assert.assertEquals(AsyncQueueType.RING_BUFFER, config.getQueueType());
+            Assert.assertEquals(WaitStrategyType.BUSY_SPIN, config.getWaitStrategyType());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class RingBufferAsyncQueueTest {
+
+    @Test
+    public void nextPowerOfTwo() {
+        Assert.assertEquals(1, RingBufferAsyncQueue.nextPowerOfTwo(1));
+        Assert.assertEquals(8, RingBufferAsyncQueue.nextPowerOfTwo(5));
+        Assert.assertEquals(8192, RingBufferAsyncQueue.nextPowerOfTwo(5120));
+    }
+
+    @Test
+    public void offer_full() {
+        RingBufferAsyncQueue<Integer> queue = new RingBufferAsyncQueue<Integer>(3, new BusySpinWaitStrategy());
+        Assert.assertTrue(queue.offer(1));
+        Assert.assertTrue(queue.offer(2));
+        Assert.assertTrue(queue.offer(3));
+        Assert.assertFalse(queue.offer(4));
+        Assert.assertEquals(3, queue.size());
+
+        Assert.assertEquals(Integer.valueOf(1), queue.poll());
+        Assert.assertTrue(queue.offer(5));
+    }
+
+    @Test
+    public void drainTo() {
+        RingBufferAsyncQueue<Integer> queue = new RingBufferAsyncQueue<Integer>(16, new BusySpinWaitStrategy());
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        List<Integer> drain = new ArrayList<Integer>();
+        Assert.assertEquals(3, queue.drainTo(drain, 3));
+        Assert.assertEquals(2, queue.drainTo(drain, 3));
+        Assert.assertEquals(0, queue.drainTo(drain, 3));
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(Integer.valueOf(i), drain.get(i));
+        }
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void poll_timeout() throws InterruptedException {
+        RingBufferAsyncQueue<Integer> queue = new RingBufferAsyncQueue<Integer>(16, new BlockingWaitStrategy());
+        long startTime = System.currentTimeMillis();
+        Assert.assertNull(queue.poll(100, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(System.currentTimeMillis() - startTime >= 90);
+    }
+
+    @Test
+    public void multiProducer_blocking() throws InterruptedException {
+        multiProducer(WaitStrategyType.BLOCKING);
+    }
+
+    @Test
+    public void multiProducer_sleeping() throws InterruptedException {
+        multiProducer(WaitStrategyType.SLEEPING);
+    }
+
+    private void multiProducer(WaitStrategyType waitStrategyType) throws InterruptedException {
+        final int producerCount = 4;
+        final int messageCount = 10000;
+        final RingBufferAsyncQueue<Integer> queue = new RingBufferAsyncQueue<Integer>(64, waitStrategyType.createWaitStrategy());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(producerCount);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            for (int producer = 0; producer < producerCount; producer++) {
+                final int producerId = producer;
+                executorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            startLatch.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        for (int i = 0; i < messageCount; i++) {
+                            final Integer message = producerId * messageCount + i;
+                            while (!queue.offer(message)) {
+                                Thread.yield();
+                            }
+                        }
+                    }
+                });
+            }
+            startLatch.countDown();
+
+            int[] lastSequence = new int[producerCount];
+            Arrays.fill(lastSequence, -1);
+            for (int received = 0; received < producerCount * messageCount; received++) {
+                Integer message = queue.poll(5, TimeUnit.SECONDS);
+                Assert.assertNotNull("message lost", message);
+                int producerId = message / messageCount;
+                int sequence = message % messageCount;
+                // per producer FIFO
+                Assert.assertEquals(lastSequence[producerId] + 1, sequence);
+                lastSequence[producerId] = sequence;
+            }
+            Assert.assertTrue(queue.isEmpty());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
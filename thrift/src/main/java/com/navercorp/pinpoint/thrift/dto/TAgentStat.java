@@ -22,6 +22,7 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
   private static final org.apache.thrift.protocol.TField DATA_SOURCE_LIST_FIELD_DESC = new org.apache.thrift.protocol.TField("dataSourceList", org.apache.thrift.protocol.TType.STRUCT, (short)50);
   private static final org.apache.thrift.protocol.TField RESPONSE_TIME_FIELD_DESC = new org.apache.thrift.protocol.TField("responseTime", org.apache.thrift.protocol.TType.STRUCT, (short)60);
   private static final org.apache.thrift.protocol.TField DEADLOCK_FIELD_DESC = new org.apache.thrift.protocol.TField("deadlock", org.apache.thrift.protocol.TType.STRUCT, (short)70);
+  private static final org.apache.thrift.protocol.TField SAMPLING_FIELD_DESC = new org.apache.thrift.protocol.TField("sampling", org.apache.thrift.protocol.TType.STRUCT, (short)90);
   private static final org.apache.thrift.protocol.TField METADATA_FIELD_DESC = new org.apache.thrift.protocol.TField("metadata", org.apache.thrift.protocol.TType.STRING, (short)200);
 
   private static final org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new TAgentStatStandardSchemeFactory();
@@ -38,6 +39,7 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
   private TDataSourceList dataSourceList; // optional
   private TResponseTime responseTime; // optional
   private TDeadlock deadlock; // optional
+  private TSampling sampling; // optional
   private java.lang.String metadata; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
@@ -53,6 +55,7 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     DATA_SOURCE_LIST((short)50, "dataSourceList"),
     RESPONSE_TIME((short)60, "responseTime"),
     DEADLOCK((short)70, "deadlock"),
+    SAMPLING((short)90, "sampling"),
     METADATA((short)200, "metadata");
 
     private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
@@ -90,6 +93,8 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
           return RESPONSE_TIME;
         case 70: // DEADLOCK
           return DEADLOCK;
+        case 90: // SAMPLING
+          return SAMPLING;
         case 200: // METADATA
           return METADATA;
         default:
@@ -136,7 +141,7 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
   private static final int __TIMESTAMP_ISSET_ID = 1;
   private static final int __COLLECTINTERVAL_ISSET_ID = 2;
   private byte __isset_bitfield = 0;
-  private static final _Fields optionals[] = {_Fields.AGENT_ID,_Fields.START_TIMESTAMP,_Fields.TIMESTAMP,_Fields.COLLECT_INTERVAL,_Fields.GC,_Fields.CPU_LOAD,_Fields.TRANSACTION,_Fields.ACTIVE_TRACE,_Fields.DATA_SOURCE_LIST,_Fields.RESPONSE_TIME,_Fields.DEADLOCK,_Fields.METADATA};
+  private static final _Fields optionals[] = {_Fields.AGENT_ID,_Fields.START_TIMESTAMP,_Fields.TIMESTAMP,_Fields.COLLECT_INTERVAL,_Fields.GC,_Fields.CPU_LOAD,_Fields.TRANSACTION,_Fields.ACTIVE_TRACE,_Fields.DATA_SOURCE_LIST,_Fields.RESPONSE_TIME,_Fields.DEADLOCK,_Fields.SAMPLING,_Fields.METADATA};
   public static final java.util.Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     java.util.Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -162,6 +167,8 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
         new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TResponseTime.class)));
     tmpMap.put(_Fields.DEADLOCK, new org.apache.thrift.meta_data.FieldMetaData("deadlock", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TDeadlock.class)));
+    tmpMap.put(_Fields.SAMPLING, new org.apache.thrift.meta_data.FieldMetaData("sampling", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TSampling.class)));
     tmpMap.put(_Fields.METADATA, new org.apache.thrift.meta_data.FieldMetaData("metadata", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
     metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
@@ -203,6 +210,9 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     if (other.isSetDeadlock()) {
       this.deadlock = new TDeadlock(other.deadlock);
     }
+    if (other.isSetSampling()) {
+      this.sampling = new TSampling(other.sampling);
+    }
     if (other.isSetMetadata()) {
       this.metadata = other.metadata;
     }
@@ -228,6 +238,7 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     this.dataSourceList = null;
     this.responseTime = null;
     this.deadlock = null;
+    this.sampling = null;
     this.metadata = null;
   }
 
@@ -481,6 +492,29 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     }
   }
 
+  public TSampling getSampling() {
+    return this.sampling;
+  }
+
+  public void setSampling(TSampling sampling) {
+    this.sampling = sampling;
+  }
+
+  public void unsetSampling() {
+    this.sampling = null;
+  }
+
+  /** Returns true if field sampling is set (has been assigned a value) and false otherwise */
+  public boolean isSetSampling() {
+    return this.sampling != null;
+  }
+
+  public void setSamplingIsSet(boolean value) {
+    if (!value) {
+      this.sampling = null;
+    }
+  }
+
   public java.lang.String getMetadata() {
     return this.metadata;
   }
@@ -594,6 +628,14 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       }
       break;
 
+    case SAMPLING:
+      if (value == null) {
+        unsetSampling();
+      } else {
+        setSampling((TSampling)value);
+      }
+      break;
+
     case METADATA:
       if (value == null) {
         unsetMetadata();
@@ -640,6 +682,9 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     case DEADLOCK:
       return getDeadlock();
 
+    case SAMPLING:
+      return getSampling();
+
     case METADATA:
       return getMetadata();
 
@@ -676,6 +721,8 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       return isSetResponseTime();
     case DEADLOCK:
       return isSetDeadlock();
+    case SAMPLING:
+      return isSetSampling();
     case METADATA:
       return isSetMetadata();
     }
@@ -796,6 +843,15 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
         return false;
     }
 
+    boolean this_present_sampling = true && this.isSetSampling();
+    boolean that_present_sampling = true && that.isSetSampling();
+    if (this_present_sampling || that_present_sampling) {
+      if (!(this_present_sampling && that_present_sampling))
+        return false;
+      if (!this.sampling.equals(that.sampling))
+        return false;
+    }
+
     boolean this_present_metadata = true && this.isSetMetadata();
     boolean that_present_metadata = true && that.isSetMetadata();
     if (this_present_metadata || that_present_metadata) {
@@ -856,6 +912,10 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     if (isSetDeadlock())
       hashCode = hashCode * 8191 + deadlock.hashCode();
 
+    hashCode = hashCode * 8191 + ((isSetSampling()) ? 131071 : 524287);
+    if (isSetSampling())
+      hashCode = hashCode * 8191 + sampling.hashCode();
+
     hashCode = hashCode * 8191 + ((isSetMetadata()) ? 131071 : 524287);
     if (isSetMetadata())
       hashCode = hashCode * 8191 + metadata.hashCode();
@@ -981,6 +1041,16 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
         return lastComparison;
       }
     }
+    lastComparison = java.lang.Boolean.valueOf(isSetSampling()).compareTo(other.isSetSampling());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetSampling()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.sampling, other.sampling);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     lastComparison = java.lang.Boolean.valueOf(isSetMetadata()).compareTo(other.isSetMetadata());
     if (lastComparison != 0) {
       return lastComparison;
@@ -1108,6 +1178,16 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       }
       first = false;
     }
+    if (isSetSampling()) {
+      if (!first) sb.append(", ");
+      sb.append("sampling:");
+      if (this.sampling == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.sampling);
+      }
+      first = false;
+    }
     if (isSetMetadata()) {
       if (!first) sb.append(", ");
       sb.append("metadata:");
@@ -1143,6 +1223,9 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     if (deadlock != null) {
       deadlock.validate();
     }
+    if (sampling != null) {
+      sampling.validate();
+    }
   }
 
   private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
@@ -1276,6 +1359,15 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 90: // SAMPLING
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+              struct.sampling = new TSampling();
+              struct.sampling.read(iprot);
+              struct.setSamplingIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           case 200: // METADATA
             if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
               struct.metadata = iprot.readString();
@@ -1368,6 +1460,13 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
           oprot.writeFieldEnd();
         }
       }
+      if (struct.sampling != null) {
+        if (struct.isSetSampling()) {
+          oprot.writeFieldBegin(SAMPLING_FIELD_DESC);
+          struct.sampling.write(oprot);
+          oprot.writeFieldEnd();
+        }
+      }
       if (struct.metadata != null) {
         if (struct.isSetMetadata()) {
           oprot.writeFieldBegin(METADATA_FIELD_DESC);
@@ -1426,10 +1525,13 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       if (struct.isSetDeadlock()) {
         optionals.set(10);
       }
-      if (struct.isSetMetadata()) {
+      if (struct.isSetSampling()) {
         optionals.set(11);
       }
-      oprot.writeBitSet(optionals, 12);
+      if (struct.isSetMetadata()) {
+        optionals.set(12);
+      }
+      oprot.writeBitSet(optionals, 13);
       if (struct.isSetAgentId()) {
         oprot.writeString(struct.agentId);
       }
@@ -1463,6 +1565,9 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       if (struct.isSetDeadlock()) {
         struct.deadlock.write(oprot);
       }
+      if (struct.isSetSampling()) {
+        struct.sampling.write(oprot);
+      }
       if (struct.isSetMetadata()) {
         oprot.writeString(struct.metadata);
       }
@@ -1471,7 +1576,7 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, TAgentStat struct) throws org.apache.thrift.TException {
       org.apache.thrift.protocol.TTupleProtocol iprot = (org.apache.thrift.protocol.TTupleProtocol) prot;
-      java.util.BitSet incoming = iprot.readBitSet(12);
+      java.util.BitSet incoming = iprot.readBitSet(13);
       if (incoming.get(0)) {
         struct.agentId = iprot.readString();
         struct.setAgentIdIsSet(true);
@@ -1524,6 +1629,11 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
         struct.setDeadlockIsSet(true);
       }
       if (incoming.get(11)) {
+        struct.sampling = new TSampling();
+        struct.sampling.read(iprot);
+        struct.setSamplingIsSet(true);
+      }
+      if (incoming.get(12)) {
         struct.metadata = iprot.readString();
         struct.setMetadataIsSet(true);
       }
@@ -51,17 +51,18 @@ public class ChunkHeaderTBaseDeserializer {
             if(header == null) {
                 return list;
             }
-            
+            validate(header);
+
             if (locator.isChunkHeader(header.getType())) {
                 TBase<?, ?> base;
                 while ((base = deserialize()) != null) {
                     list.add(base);
                 }
             } else {
-                TBase<?, ?> base = deserialize();
-                if (base != null) {
-                    list.add(base);
-                }
+                // single message without chunk header
+                TBase<?, ?> base = locator.tBaseLookup(header.getType());
+                base.read(protocol);
+                list.add(base);
             }
 
         } finally {
@@ -55,6 +55,18 @@ public class HeaderTBaseSerializer2 {
         }
     }
 
+    /**
+     * Writes the header of a chunk, the messages serialized after it are read as one list by {@link ChunkHeaderTBaseDeserializer}.
+     */
+    public void serializeChunkHeader(OutputStream outputStream) throws TException {
+        tOutputStreamTransport.open(outputStream);
+        try {
+            writeHeader(tBaseLocator.getChunkHeader());
+        } finally {
+            tOutputStreamTransport.close();
+        }
+    }
+
     private void writeHeader(Header header) throws TException {
         protocol.writeByte(header.getSignature());
         protocol.writeByte(header.getVersion());
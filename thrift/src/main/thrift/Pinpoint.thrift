@@ -101,6 +101,11 @@ struct TDeadlock {
     2: optional list<Command.TThreadDump>   deadlockedThreadList;
 }
 
+struct TSampling {
+    1: optional i32     tracesPerSecond
+    2: optional double  effectiveRate
+}
+
 struct TAgentStat {
     1: optional string      agentId
     2: optional i64         startTimestamp
@@ -113,6 +118,7 @@ struct TAgentStat {
     50: optional TDataSourceList dataSourceList
     60: optional TResponseTime responseTime
     70: optional TDeadlock deadlock
+    90: optional TSampling sampling
     200: optional string    metadata
 }
 
@@ -25,6 +25,8 @@ import org.apache.thrift.protocol.TCompactProtocol;
 import org.apache.thrift.protocol.TProtocolFactory;
 import org.junit.Test;
 
+import com.navercorp.pinpoint.thrift.dto.TAgentStat;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
 import com.navercorp.pinpoint.thrift.dto.TSpanChunk;
 import com.navercorp.pinpoint.thrift.io.ChunkHeaderBufferedTBaseSerializer;
 import com.navercorp.pinpoint.thrift.io.ChunkHeaderTBaseDeserializer;
@@ -50,4 +52,37 @@ public class ChunkHeaderTBaseDeserializerTest {
         TSpanChunk result = (TSpanChunk) list.get(0);
         assertEquals(3, result.getSpanEventList().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deserializeSingle() throws Exception {
+        final ChunkHeaderTBaseDeserializer deserializer = new ChunkHeaderTBaseDeserializer(DEFAULT_PROTOCOL_FACTORY, DEFAULT_TBASE_LOCATOR);
+        final HeaderTBaseSerializer2 serializer = new HeaderTBaseSerializer2(DEFAULT_PROTOCOL_FACTORY, DEFAULT_TBASE_LOCATOR);
+
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream();
+        serializer.serialize(new TSpanMockBuilder().build(2, 10), out);
+
+        List<TBase<?, ?>> list = deserializer.deserialize(out.toByteArray(), 0, out.size());
+        assertEquals(1, list.size());
+        assertEquals(2, ((TSpan) list.get(0)).getSpanEventList().size());
+    }
+
+    @Test
+    public void deserializeBatch() throws Exception {
+        final ChunkHeaderTBaseDeserializer deserializer = new ChunkHeaderTBaseDeserializer(DEFAULT_PROTOCOL_FACTORY, DEFAULT_TBASE_LOCATOR);
+        final HeaderTBaseSerializer2 serializer = new HeaderTBaseSerializer2(DEFAULT_PROTOCOL_FACTORY, DEFAULT_TBASE_LOCATOR);
+
+        UnsafeByteArrayOutputStream out = new UnsafeByteArrayOutputStream();
+        serializer.serializeChunkHeader(out);
+        serializer.serialize(new TSpanMockBuilder().build(2, 10), out);
+        TAgentStat agentStat = new TAgentStat();
+        agentStat.setAgentId("agentId");
+        serializer.serialize(agentStat, out);
+        serializer.serialize(new TSpanMockBuilder().buildChunk(3, 10), out);
+
+        List<TBase<?, ?>> list = deserializer.deserialize(out.toByteArray(), 0, out.size());
+        assertEquals(3, list.size());
+        assertEquals(2, ((TSpan) list.get(0)).getSpanEventList().size());
+        assertEquals(agentStat, list.get(1));
+        assertEquals(3, ((TSpanChunk) list.get(2)).getSpanEventList().size());
+    }
+}
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.item.ExecutionContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
 import com.navercorp.pinpoint.web.vo.Application;
@@ -36,10 +37,14 @@ public class AlarmPartitioner implements Partitioner {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     public static final int APP_COUNT = 5;
     public static final String PARTITION_NUMBER = "partition_number";
+    public static final String PARTITION_APP_COUNT = "partition_app_count";
 
     @Autowired
     private ApplicationIndexDao applicationIndexDao;
 
+    @Value("#{batchProps['alarm.partition.appCount'] ?: 5}")
+    private int appCount = APP_COUNT;
+
     public AlarmPartitioner() {
     }
 
@@ -55,6 +60,7 @@ public class AlarmPartitioner implements Partitioner {
         for (int i = 1; i <= partitionCount; i++) {
             ExecutionContext executionContext = new ExecutionContext();
             executionContext.put(PARTITION_NUMBER, i);
+            executionContext.putInt(PARTITION_APP_COUNT, appCount);
             mapContext.put(PARTITION_NUMBER + "_" + i, executionContext);
         }
 
@@ -63,9 +69,9 @@ public class AlarmPartitioner implements Partitioner {
 
     public int calculateGroupCount() {
         List<Application> applicationList = applicationIndexDao.selectAllApplicationNames();
-        int partitionCount = applicationList.size() / APP_COUNT;
+        int partitionCount = applicationList.size() / appCount;
 
-        if (applicationList.size() % APP_COUNT != 0) {
+        if (applicationList.size() % appCount != 0) {
             partitionCount++;
         }
 
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.web.alarm;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -52,6 +53,8 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
     
     private final Queue<AlarmChecker> checkers = new LinkedList<>();
 
+    private final List<DataCollector> dataCollectors = new ArrayList<>();
+
     public AlarmReader() {
     }
     
@@ -70,8 +73,9 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
         List<Application> applicationList = applicationIndexDao.selectAllApplicationNames();
         int appSize = applicationList.size();
         int partitionNumber = (Integer) stepExecution.getExecutionContext().get(AlarmPartitioner.PARTITION_NUMBER);
-        int from = (partitionNumber - 1) * AlarmPartitioner.APP_COUNT;
-        int to = partitionNumber * AlarmPartitioner.APP_COUNT;
+        int appCount = stepExecution.getExecutionContext().getInt(AlarmPartitioner.PARTITION_APP_COUNT, AlarmPartitioner.APP_COUNT);
+        int from = (partitionNumber - 1) * appCount;
+        int to = partitionNumber * appCount;
         
         if (appSize < from) {
             return;
@@ -84,6 +88,10 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
         for(int i = from; i < to; i++) {
             addChecker(applicationList.get(i));
         }
+
+        // read the data of all applications of the partition at once instead of checker by checker
+        dataCollectorFactory.collect(dataCollectors);
+        dataCollectors.clear();
     }
 
     private void addChecker(Application application) {
@@ -98,6 +106,7 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
             if(collector == null) {
                 collector = dataCollectorFactory.createDataCollector(checkerCategory, application, timeSlotEndTime);
                 collectorMap.put(collector.getDataCollectorCategory(), collector);
+                dataCollectors.add(collector);
             }
             
             AlarmChecker checker = checkerCategory.createChecker(collector, rule);
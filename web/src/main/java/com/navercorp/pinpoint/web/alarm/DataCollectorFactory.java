@@ -19,22 +19,44 @@ package com.navercorp.pinpoint.web.alarm;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import com.navercorp.pinpoint.common.server.bo.stat.DataSourceListBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
 import com.navercorp.pinpoint.web.alarm.collector.AgentEventDataCollector;
 import com.navercorp.pinpoint.web.alarm.collector.AgentStatDataCollector;
+import com.navercorp.pinpoint.web.alarm.collector.CachedApplicationAgentIdDao;
+import com.navercorp.pinpoint.web.alarm.collector.CallerStatSlotCache;
 import com.navercorp.pinpoint.web.alarm.collector.DataCollector;
 import com.navercorp.pinpoint.web.alarm.collector.DataSourceDataCollector;
 import com.navercorp.pinpoint.web.alarm.collector.MapStatisticsCallerDataCollector;
 import com.navercorp.pinpoint.web.alarm.collector.ResponseTimeDataCollector;
+import com.navercorp.pinpoint.web.alarm.collector.ResponseTimeSlotCache;
 import com.navercorp.pinpoint.web.dao.AgentEventDao;
+import com.navercorp.pinpoint.web.dao.ApplicationAgentIdDao;
+import com.navercorp.pinpoint.web.dao.MapResponseDao;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.web.dao.hbase.HbaseApplicationIndexDao;
 import com.navercorp.pinpoint.web.dao.hbase.HbaseMapResponseTimeDao;
 import com.navercorp.pinpoint.web.dao.hbase.HbaseMapStatisticsCallerDao;
 import com.navercorp.pinpoint.web.dao.stat.AgentStatDao;
 import com.navercorp.pinpoint.web.vo.Application;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author minwoo.jung
  */
@@ -45,6 +67,8 @@ public class DataCollectorFactory {
 
     public final static long SLOT_INTERVAL_THREE_MIN = 180000;
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     @Autowired
     private HbaseMapResponseTimeDao hbaseMapResponseTimeDao;
 
@@ -69,23 +93,93 @@ public class DataCollectorFactory {
     @Autowired
     private HbaseMapStatisticsCallerDao mapStatisticsCallerDao;
 
+    @Value("#{batchProps['alarm.collector.threads'] ?: 8}")
+    private int collectorThreads;
+
+    @Value("#{batchProps['alarm.collector.slotcache.enable'] ?: true}")
+    private boolean slotCacheEnable;
+
+    @Value("#{batchProps['alarm.collector.slotcache.settleTimeMillis'] ?: 30000}")
+    private long slotCacheSettleTimeMillis;
+
+    private MapResponseDao responseTimeDao;
+
+    private MapStatisticsCallerDao callerStatDao;
+
+    private ApplicationAgentIdDao applicationIndexDao;
+
+    private ExecutorService collectorExecutor;
+
+    @PostConstruct
+    public void init() {
+        if (slotCacheEnable) {
+            // keep the slots of the previous run, the interval between runs is shorter than SLOT_INTERVAL_FIVE_MIN
+            final long retentionMillis = SLOT_INTERVAL_FIVE_MIN * 2;
+            this.responseTimeDao = new ResponseTimeSlotCache(hbaseMapResponseTimeDao, retentionMillis, slotCacheSettleTimeMillis);
+            this.callerStatDao = new CallerStatSlotCache(mapStatisticsCallerDao, retentionMillis, slotCacheSettleTimeMillis);
+        } else {
+            this.responseTimeDao = hbaseMapResponseTimeDao;
+            this.callerStatDao = mapStatisticsCallerDao;
+        }
+        this.applicationIndexDao = new CachedApplicationAgentIdDao(hbaseApplicationIndexDao, TimeUnit.MINUTES.toMillis(1));
+        this.collectorExecutor = Executors.newFixedThreadPool(collectorThreads, new PinpointThreadFactory("Pinpoint-alarm-collector", true));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (collectorExecutor != null) {
+            collectorExecutor.shutdownNow();
+        }
+    }
+
     public DataCollector createDataCollector(CheckerCategory checker, Application application, long timeSlotEndTime) {
         switch (checker.getDataCollectorCategory()) {
             case RESPONSE_TIME:
-                return new ResponseTimeDataCollector(DataCollectorCategory.RESPONSE_TIME, application, hbaseMapResponseTimeDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
+                return new ResponseTimeDataCollector(DataCollectorCategory.RESPONSE_TIME, application, responseTimeDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
             case AGENT_STAT:
-                return new AgentStatDataCollector(DataCollectorCategory.AGENT_STAT, application, jvmGcDao, cpuLoadDao, hbaseApplicationIndexDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
+                return new AgentStatDataCollector(DataCollectorCategory.AGENT_STAT, application, jvmGcDao, cpuLoadDao, applicationIndexDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
             case AGENT_EVENT:
-                return new AgentEventDataCollector(DataCollectorCategory.AGENT_EVENT, application, agentEventDao, hbaseApplicationIndexDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
+                return new AgentEventDataCollector(DataCollectorCategory.AGENT_EVENT, application, agentEventDao, applicationIndexDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
             case CALLER_STAT:
-                return new MapStatisticsCallerDataCollector(DataCollectorCategory.CALLER_STAT, application, mapStatisticsCallerDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
+                return new MapStatisticsCallerDataCollector(DataCollectorCategory.CALLER_STAT, application, callerStatDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
             case DATA_SOURCE_STAT:
-                return new DataSourceDataCollector(DataCollectorCategory.DATA_SOURCE_STAT, application, dataSourceDao, hbaseApplicationIndexDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
+                return new DataSourceDataCollector(DataCollectorCategory.DATA_SOURCE_STAT, application, dataSourceDao, applicationIndexDao, timeSlotEndTime, SLOT_INTERVAL_FIVE_MIN);
         }
 
         throw new IllegalArgumentException("unable to create DataCollector : " + checker.getName());
     }
 
+    /**
+     * Collects the data of the given collectors on the collector thread pool and waits for them.
+     * A collector that failed is collected again by its checker.
+     * Does nothing if the factory has not been initialized; the checkers then collect the data themselves.
+     */
+    public void collect(Collection<DataCollector> dataCollectors) {
+        if (collectorExecutor == null) {
+            return;
+        }
+        final List<Future<Void>> futures = new ArrayList<>(dataCollectors.size());
+        for (final DataCollector dataCollector : dataCollectors) {
+            futures.add(collectorExecutor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    dataCollector.collect();
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.warn("data collect failed. {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
     public enum DataCollectorCategory {
         RESPONSE_TIME,
         AGENT_STAT,
@@ -20,7 +20,7 @@ import com.navercorp.pinpoint.common.server.bo.event.AgentEventBo;
 import com.navercorp.pinpoint.common.server.util.AgentEventType;
 import com.navercorp.pinpoint.web.alarm.DataCollectorFactory;
 import com.navercorp.pinpoint.web.dao.AgentEventDao;
-import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
+import com.navercorp.pinpoint.web.dao.ApplicationAgentIdDao;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 
@@ -37,7 +37,7 @@ public class AgentEventDataCollector extends DataCollector {
 
     private final Application application;
 
-    private final ApplicationIndexDao applicationIndexDao;
+    private final ApplicationAgentIdDao applicationIndexDao;
     private final AgentEventDao agentEventDao;
 
     private final long timeSlotEndTime;
@@ -46,7 +46,7 @@ public class AgentEventDataCollector extends DataCollector {
 
     private final Map<String, Boolean> agentDeadlockEventDetected = new HashMap<>();
 
-    public AgentEventDataCollector(DataCollectorFactory.DataCollectorCategory dataCollectorCategory, Application application, AgentEventDao agentEventDao, ApplicationIndexDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
+    public AgentEventDataCollector(DataCollectorFactory.DataCollectorCategory dataCollectorCategory, Application application, AgentEventDao agentEventDao, ApplicationAgentIdDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
         super(dataCollectorCategory);
         this.application = application;
 
@@ -19,7 +19,7 @@ package com.navercorp.pinpoint.web.alarm.collector;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.web.alarm.DataCollectorFactory.DataCollectorCategory;
-import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
+import com.navercorp.pinpoint.web.dao.ApplicationAgentIdDao;
 import com.navercorp.pinpoint.web.dao.stat.AgentStatDao;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
@@ -37,7 +37,7 @@ public class AgentStatDataCollector extends DataCollector {
     private final Application application;
     private final AgentStatDao<JvmGcBo> jvmGcDao;
     private final AgentStatDao<CpuLoadBo> cpuLoadDao;
-    private final ApplicationIndexDao applicationIndexDao;
+    private final ApplicationAgentIdDao applicationIndexDao;
     private final long timeSlotEndTime;
     private final long slotInterval;
     private final AtomicBoolean init = new AtomicBoolean(false); // need to consider a race condition when checkers start simultaneously.
@@ -46,7 +46,7 @@ public class AgentStatDataCollector extends DataCollector {
     private final Map<String, Long> agentGcCount = new HashMap<>();
     private final Map<String, Long> agentJvmCpuUsageRate = new HashMap<>();
 
-    public AgentStatDataCollector(DataCollectorCategory category, Application application, AgentStatDao<JvmGcBo> jvmGcDao, AgentStatDao<CpuLoadBo> cpuLoadDao, ApplicationIndexDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
+    public AgentStatDataCollector(DataCollectorCategory category, Application application, AgentStatDao<JvmGcBo> jvmGcDao, AgentStatDao<CpuLoadBo> cpuLoadDao, ApplicationAgentIdDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
         super(category);
         this.application = application;
         this.jvmGcDao = jvmGcDao;
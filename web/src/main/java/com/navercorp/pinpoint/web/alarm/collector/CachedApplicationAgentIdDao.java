@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.alarm.collector;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.navercorp.pinpoint.web.dao.ApplicationAgentIdDao;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ApplicationAgentIdDao} remembering the agent ids of an application for a short time, so that the collectors of
+ * one alarm run (agent stat, agent event, data source) share a single lookup per application.
+ */
+public class CachedApplicationAgentIdDao implements ApplicationAgentIdDao {
+
+    private final ApplicationAgentIdDao applicationAgentIdDao;
+
+    private final Cache<String, List<String>> agentIdsCache;
+
+    public CachedApplicationAgentIdDao(ApplicationAgentIdDao applicationAgentIdDao, long expireMillis) {
+        if (applicationAgentIdDao == null) {
+            throw new NullPointerException("applicationAgentIdDao must not be null");
+        }
+        if (expireMillis <= 0) {
+            throw new IllegalArgumentException("expireMillis must be positive");
+        }
+        this.applicationAgentIdDao = applicationAgentIdDao;
+        this.agentIdsCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public List<String> selectAgentIds(String applicationName) {
+        List<String> agentIds = agentIdsCache.getIfPresent(applicationName);
+        if (agentIds == null) {
+            agentIds = applicationAgentIdDao.selectAgentIds(applicationName);
+            if (agentIds != null) {
+                agentIdsCache.put(applicationName, agentIds);
+            }
+        }
+        return agentIds;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.alarm.collector;
+
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.dao.SampledMapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.service.map.LinkDataSlotCache;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.util.TimeWindowOneMinuteSampler;
+import com.navercorp.pinpoint.web.util.TimeWindowSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import java.util.Map;
+
+/**
+ * {@link SampledMapStatisticsCallerDao} reading the caller statistics of an application through a {@link SlotDataCache}.
+ */
+public class CallerStatSlotCache extends SlotDataCache<LinkDataMap> implements SampledMapStatisticsCallerDao {
+
+    private final SampledMapStatisticsCallerDao mapStatisticsCallerDao;
+
+    public CallerStatSlotCache(SampledMapStatisticsCallerDao mapStatisticsCallerDao, long retentionMillis, long settleTimeMillis) {
+        super(retentionMillis, settleTimeMillis);
+        if (mapStatisticsCallerDao == null) {
+            throw new NullPointerException("mapStatisticsCallerDao must not be null");
+        }
+        this.mapStatisticsCallerDao = mapStatisticsCallerDao;
+    }
+
+    @Override
+    public LinkDataMap selectCaller(Application callerApplication, Range range) {
+        return selectCaller(callerApplication, range, TimeWindowDownSampler.SAMPLER);
+    }
+
+    @Override
+    public LinkDataMap selectCaller(Application callerApplication, Range range, TimeWindowSampler timeWindowSampler) {
+        final LinkDataMap linkDataMap = new LinkDataMap(new TimeWindow(range, timeWindowSampler));
+        for (LinkDataMap slotLinkDataMap : selectSlots(callerApplication, range)) {
+            linkDataMap.addLinkDataMap(slotLinkDataMap);
+        }
+        return linkDataMap;
+    }
+
+    @Override
+    protected Map<Long, LinkDataMap> load(Application application, Range range) {
+        final LinkDataMap linkDataMap = mapStatisticsCallerDao.selectCaller(application, range, TimeWindowOneMinuteSampler.SAMPLER);
+        return LinkDataSlotCache.splitBySlot(linkDataMap);
+    }
+}
@@ -22,7 +22,7 @@ import com.navercorp.pinpoint.common.util.CollectionUtils;
 import com.navercorp.pinpoint.rpc.util.ListUtils;
 import com.navercorp.pinpoint.web.alarm.DataCollectorFactory;
 import com.navercorp.pinpoint.web.alarm.vo.DataSourceAlarmVO;
-import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
+import com.navercorp.pinpoint.web.dao.ApplicationAgentIdDao;
 import com.navercorp.pinpoint.web.dao.stat.AgentStatDao;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
@@ -42,7 +42,7 @@ public class DataSourceDataCollector extends DataCollector {
 
     private final AgentStatDao<DataSourceListBo> dataSourceDao;
 
-    private final ApplicationIndexDao applicationIndexDao;
+    private final ApplicationAgentIdDao applicationIndexDao;
     private final long timeSlotEndTime;
     private final long slotInterval;
 
@@ -50,7 +50,7 @@ public class DataSourceDataCollector extends DataCollector {
 
     private final AtomicBoolean init = new AtomicBoolean(false); // need to consider a race condition when checkers start simultaneously.
 
-    public DataSourceDataCollector(DataCollectorFactory.DataCollectorCategory dataCollectorCategory, Application application, AgentStatDao<DataSourceListBo> dataSourceDao, ApplicationIndexDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
+    public DataSourceDataCollector(DataCollectorFactory.DataCollectorCategory dataCollectorCategory, Application application, AgentStatDao<DataSourceListBo> dataSourceDao, ApplicationAgentIdDao applicationIndexDao, long timeSlotEndTime, long slotInterval) {
         super(dataCollectorCategory);
         this.application = application;
 
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.alarm.collector;
+
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.dao.MapResponseDao;
+import com.navercorp.pinpoint.web.util.TimeSlotCacheTemplate;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.ResponseTime;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link MapResponseDao} reading the response times of an application through a {@link SlotDataCache}.
+ */
+public class ResponseTimeSlotCache extends SlotDataCache<ResponseTime> implements MapResponseDao {
+
+    private final MapResponseDao mapResponseDao;
+
+    public ResponseTimeSlotCache(MapResponseDao mapResponseDao, long retentionMillis, long settleTimeMillis) {
+        super(retentionMillis, settleTimeMillis);
+        if (mapResponseDao == null) {
+            throw new NullPointerException("mapResponseDao must not be null");
+        }
+        this.mapResponseDao = mapResponseDao;
+    }
+
+    @Override
+    public List<ResponseTime> selectResponseTime(Application application, Range range) {
+        return selectSlots(application, range);
+    }
+
+    @Override
+    protected Map<Long, ResponseTime> load(Application application, Range range) {
+        final List<ResponseTime> responseTimeList = mapResponseDao.selectResponseTime(application, range);
+        final Map<Long, ResponseTime> slotMap = new HashMap<>();
+        for (ResponseTime responseTime : responseTimeList) {
+            final long slot = TimeSlotCacheTemplate.toSlot(responseTime.getTimeStamp());
+            final ResponseTime slotResponseTime = slotMap.get(slot);
+            if (slotResponseTime == null) {
+                slotMap.put(slot, responseTime);
+                continue;
+            }
+            for (Map.Entry<String, TimeHistogram> entry : responseTime.getAgentHistogram()) {
+                slotResponseTime.addResponseTime(entry.getKey(), entry.getValue());
+            }
+        }
+        return slotMap;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.alarm.collector;
+
+import com.navercorp.pinpoint.web.util.TimeSlotCacheTemplate;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rolling per-application statistics kept one time slot (one minute) at a time between alarm runs.
+ * <p>
+ * The alarm job looks at the last few minutes every few minutes, so most of the slots of a run were already
+ * read by the previous run. Settled slots are kept for {@code retentionMillis}; each run only reads the slots
+ * it has not seen yet and the ones still being written, see {@link TimeSlotCacheTemplate}.
+ *
+ * @param <V> data of one slot
+ */
+public abstract class SlotDataCache<V> {
+
+    private final long retentionMillis;
+
+    private final TimeSlotCacheTemplate timeSlotCacheTemplate;
+
+    // slot -> data, null for a slot without data
+    private final ConcurrentMap<Application, NavigableMap<Long, V>> applicationSlotMap = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastEvictionTime = new AtomicLong();
+
+    protected SlotDataCache(long retentionMillis, long settleTimeMillis) {
+        if (retentionMillis <= 0) {
+            throw new IllegalArgumentException("retentionMillis must be positive");
+        }
+        this.retentionMillis = retentionMillis;
+        this.timeSlotCacheTemplate = new TimeSlotCacheTemplate(settleTimeMillis);
+    }
+
+    /**
+     * @return slot -> data of the slots in the range which have data
+     */
+    protected abstract Map<Long, V> load(Application application, Range range);
+
+    /**
+     * @return data of the slots between the slots of {@code range.from} and {@code range.to}, in time order
+     */
+    protected List<V> selectSlots(Application application, Range range) {
+        return selectSlots(application, range, System.currentTimeMillis());
+    }
+
+    List<V> selectSlots(final Application application, Range range, long currentTimeMillis) {
+        if (application == null) {
+            throw new NullPointerException("application must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        evictApplications(currentTimeMillis);
+
+        NavigableMap<Long, V> slotMap = applicationSlotMap.get(application);
+        if (slotMap == null) {
+            final NavigableMap<Long, V> newSlotMap = new TreeMap<>();
+            slotMap = applicationSlotMap.putIfAbsent(application, newSlotMap);
+            if (slotMap == null) {
+                slotMap = newSlotMap;
+            }
+        }
+
+        final NavigableMap<Long, V> cachedSlotMap = slotMap;
+        synchronized (cachedSlotMap) {
+            cachedSlotMap.headMap(currentTimeMillis - retentionMillis).clear();
+
+            final Map<Long, V> selected = timeSlotCacheTemplate.read(range, currentTimeMillis, new TimeSlotCacheTemplate.SlotCallback<V>() {
+                @Override
+                public boolean getCached(long slot, Map<Long, V> slotData) {
+                    if (!cachedSlotMap.containsKey(slot)) {
+                        return false;
+                    }
+                    final V data = cachedSlotMap.get(slot);
+                    if (data != null) {
+                        slotData.put(slot, data);
+                    }
+                    return true;
+                }
+
+                @Override
+                public Map<Long, V> load(Range range) {
+                    return SlotDataCache.this.load(application, range);
+                }
+
+                @Override
+                public void cache(long slot, V data) {
+                    cachedSlotMap.put(slot, data);
+                }
+            });
+            return new ArrayList<>(selected.values());
+        }
+    }
+
+    private void evictApplications(long currentTimeMillis) {
+        final long lastEviction = lastEvictionTime.get();
+        if (currentTimeMillis - lastEviction < retentionMillis || !lastEvictionTime.compareAndSet(lastEviction, currentTimeMillis)) {
+            return;
+        }
+        final long retentionLimit = currentTimeMillis - retentionMillis;
+        final Iterator<NavigableMap<Long, V>> iterator = applicationSlotMap.values().iterator();
+        while (iterator.hasNext()) {
+            final NavigableMap<Long, V> slotMap = iterator.next();
+            synchronized (slotMap) {
+                if (slotMap.isEmpty() || slotMap.lastKey() < retentionLimit) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public int getApplicationSize() {
+        return applicationSlotMap.size();
+    }
+}
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.calltree.span;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -30,6 +31,7 @@ public class CallTreeIterator implements Iterator<CallTreeNode> {
 
     public CallTreeIterator(final CallTreeNode root) {
         if (root == null) {
+            this.nodes = Collections.emptyList();
             return;
         }
 
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.calltree.span;
+
+import java.util.List;
+
+/**
+ * One page of a call tree selected by {@link CallTreePager}.
+ */
+public class CallTreePage {
+
+    private final CallTreeNode root;
+    private final List<CallTreeNode> nodes;
+    private final List<SpanAlign> spanAlignList;
+    private final List<Integer> collapsedIdList;
+    private final int nodeCount;
+    private final int nextOffset;
+
+    public CallTreePage(CallTreeNode root, List<CallTreeNode> nodes, List<SpanAlign> spanAlignList, List<Integer> collapsedIdList, int nodeCount, int nextOffset) {
+        if (nodes == null) {
+            throw new NullPointerException("nodes must not be null");
+        }
+        if (spanAlignList == null) {
+            throw new NullPointerException("spanAlignList must not be null");
+        }
+        if (collapsedIdList == null) {
+            throw new NullPointerException("collapsedIdList must not be null");
+        }
+        this.root = root;
+        this.nodes = nodes;
+        this.spanAlignList = spanAlignList;
+        this.collapsedIdList = collapsedIdList;
+        this.nodeCount = nodeCount;
+        this.nextOffset = nextOffset;
+    }
+
+    /**
+     * @return the root of the whole call tree, even when it is not part of this page. null if the tree is empty
+     */
+    public CallTreeNode getRoot() {
+        return root;
+    }
+
+    /**
+     * @return nodes of this page in depth-first order
+     */
+    public List<CallTreeNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return all spans of the call tree, including those outside of this page
+     */
+    public List<SpanAlign> getSpanAlignList() {
+        return spanAlignList;
+    }
+
+    /**
+     * @return ids of the nodes in this page whose children were skipped by the collapse depth
+     */
+    public List<Integer> getCollapsedIdList() {
+        return collapsedIdList;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return offset of the next page, or -1 if this is the last page
+     */
+    public int getNextOffset() {
+        return nextOffset;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "CallTreePage{" +
+                "nodes=" + nodes.size() +
+                ", nodeCount=" + nodeCount +
+                ", nextOffset=" + nextOffset +
+                ", collapsedIdList=" + collapsedIdList +
+                '}';
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.calltree.span;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Selects one page of a call tree in depth-first order.
+ * <p>
+ * Every node is numbered by its depth-first index, and {@link SpanAlign#getId()} of node {@code i} is set to {@code i + 1}.
+ * Record ids of the call tree therefore stay the same from page to page, and a node id doubles as the
+ * {@code offset} of the request that continues from that node.
+ * <p>
+ * Nodes deeper than {@code collapseDepth} are skipped and do not count against {@code limit}.
+ * The deepest node kept above a skipped subtree is reported as collapsed.
+ */
+public class CallTreePager {
+
+    public static final int NO_COLLAPSE = -1;
+
+    private final int offset;
+    private final int limit;
+    private final int collapseDepth;
+
+    public CallTreePager(int offset, int limit) {
+        this(offset, limit, NO_COLLAPSE);
+    }
+
+    public CallTreePager(int offset, int limit, int collapseDepth) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("negative offset:" + offset);
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive. limit:" + limit);
+        }
+        if (collapseDepth < NO_COLLAPSE) {
+            throw new IllegalArgumentException("invalid collapseDepth:" + collapseDepth);
+        }
+        this.offset = offset;
+        this.limit = limit;
+        this.collapseDepth = collapseDepth;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getCollapseDepth() {
+        return collapseDepth;
+    }
+
+    public CallTreePage page(CallTreeIterator callTreeIterator) {
+        if (callTreeIterator == null) {
+            throw new NullPointerException("callTreeIterator must not be null");
+        }
+
+        final List<CallTreeNode> nodes = new ArrayList<>(Math.min(limit, 1024));
+        final List<SpanAlign> spanAlignList = new ArrayList<>();
+        final List<Integer> collapsedIdList = new ArrayList<>();
+        CallTreeNode root = null;
+        int nextOffset = -1;
+
+        int index = 0;
+        CallTreeNode lastNode = null;
+        boolean lastNodeCollapsed = false;
+        while (callTreeIterator.hasNext()) {
+            final CallTreeNode node = callTreeIterator.next();
+            if (node == null) {
+                throw new IllegalStateException("CallTree corrupted");
+            }
+            final SpanAlign align = node.getValue();
+            align.setId(index + 1);
+            if (root == null) {
+                root = node;
+            }
+            if (align.isSpan()) {
+                spanAlignList.add(align);
+            }
+
+            if (index >= offset && nextOffset == -1) {
+                if (isCollapsed(align)) {
+                    if (!lastNodeCollapsed && lastNode != null && node.getParent() == lastNode) {
+                        collapsedIdList.add(lastNode.getValue().getId());
+                        lastNodeCollapsed = true;
+                    }
+                } else if (nodes.size() < limit) {
+                    nodes.add(node);
+                    lastNode = node;
+                    lastNodeCollapsed = false;
+                } else {
+                    nextOffset = index;
+                }
+            }
+            index++;
+        }
+        return new CallTreePage(root, nodes, spanAlignList, collapsedIdList, index, nextOffset);
+    }
+
+    private boolean isCollapsed(SpanAlign align) {
+        if (collapseDepth == NO_COLLAPSE) {
+            return false;
+        }
+        return align.getDepth() > collapseDepth;
+    }
+
+    @Override
+    public String toString() {
+        return "CallTreePager{" +
+                "offset=" + offset +
+                ", limit=" + limit +
+                ", collapseDepth=" + collapseDepth +
+                '}';
+    }
+}
@@ -23,6 +23,7 @@ import com.navercorp.pinpoint.common.util.OutputParameterParser;
 import com.navercorp.pinpoint.common.util.SqlParser;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.common.util.TransactionIdUtils;
+import com.navercorp.pinpoint.web.view.TransactionCallStackViewModel;
 import com.navercorp.pinpoint.web.view.TransactionInfoViewModel;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.slf4j.Logger;
@@ -37,10 +38,12 @@ import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.navercorp.pinpoint.web.applicationmap.ApplicationMap;
 import com.navercorp.pinpoint.web.calltree.span.CallTreeIterator;
+import com.navercorp.pinpoint.web.calltree.span.CallTreePager;
 import com.navercorp.pinpoint.web.service.FilteredMapService;
 import com.navercorp.pinpoint.web.service.SpanResult;
 import com.navercorp.pinpoint.web.service.SpanService;
 import com.navercorp.pinpoint.web.service.TransactionInfoService;
+import com.navercorp.pinpoint.web.vo.callstacks.RecordPage;
 import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
 
 /**
@@ -73,6 +76,12 @@ public class BusinessTransactionController {
     @Value("#{pinpointWebProps['log.button.disable.message'] ?: ''}")
     private String disableButtonMessage;
 
+    @Value("#{pinpointWebProps['web.callstack.page.maxLimit'] ?: 10000}")
+    private int callStackPageMaxLimit;
+
+    @Value("#{pinpointWebProps['web.callstack.span.maxCells'] ?: 100000}")
+    private int callStackSpanMaxCells;
+
     private SqlParser sqlParser = new DefaultSqlParser();
     private OutputParameterParser parameterParser = new OutputParameterParser();
 
@@ -106,6 +115,38 @@ public class BusinessTransactionController {
         return result;
     }
 
+    /**
+     * call stack of a selected transaction, one page at a time
+     *
+     * @param offset depth-first index of the first call tree node. the id of a call stack record can be used as the offset
+     * @param limit max number of call tree nodes
+     * @param collapseDepth nodes deeper than this are left out. -1 to include all
+     * @param firstRecordId first id of the exception, annotation and parameter records of the page.
+     *                      pass the {@code nextRecordId} of the previous page to keep record ids unique across pages
+     */
+    @RequestMapping(value = "/transactionCallStack", method = RequestMethod.GET)
+    @ResponseBody
+    public TransactionCallStackViewModel transactionCallStack(@RequestParam("traceId") String traceIdParam,
+                                                              @RequestParam(value = "focusTimestamp", required = false, defaultValue = "0") long focusTimestamp,
+                                                              @RequestParam(value = "agentId", required = false) String agentId,
+                                                              @RequestParam(value = "spanId", required = false, defaultValue = "-1") long spanId,
+                                                              @RequestParam(value = "offset", required = false, defaultValue = "0") int offset,
+                                                              @RequestParam(value = "limit", required = false, defaultValue = "1000") int limit,
+                                                              @RequestParam(value = "collapseDepth", required = false, defaultValue = "-1") int collapseDepth,
+                                                              @RequestParam(value = "firstRecordId", required = false, defaultValue = "0") int firstRecordId) {
+        logger.debug("GET /transactionCallStack params {traceId={}, focusTimestamp={}, agentId={}, spanId={}, offset={}, limit={}, collapseDepth={}, firstRecordId={}}",
+                traceIdParam, focusTimestamp, agentId, spanId, offset, limit, collapseDepth, firstRecordId);
+
+        final TransactionId transactionId = TransactionIdUtils.parseTransactionId(traceIdParam);
+        final CallTreePager pager = new CallTreePager(offset, Math.min(limit, callStackPageMaxLimit), collapseDepth);
+
+        // metadata is resolved for the selected page only, and no more than callStackSpanMaxCells span cells are read
+        final SpanResult spanResult = this.spanService.selectSpanWithoutMetaData(transactionId, focusTimestamp, callStackSpanMaxCells);
+        final RecordPage recordPage = this.transactionInfoService.createRecordPage(spanResult.getCallTree(), focusTimestamp, agentId, spanId, pager, firstRecordId);
+
+        return new TransactionCallStackViewModel(transactionId, recordPage, spanResult.getCompleteTypeString(), spanResult.isTruncated());
+    }
+
     @RequestMapping(value = "/sqlBind", method = RequestMethod.POST)
     @ResponseBody
     public String sqlBind(@RequestParam("sql") String sql,
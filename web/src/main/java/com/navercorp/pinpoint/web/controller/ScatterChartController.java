@@ -22,7 +22,8 @@ import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.common.util.TransactionIdComparator;
 import com.navercorp.pinpoint.web.filter.Filter;
 import com.navercorp.pinpoint.web.filter.FilterBuilder;
-import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ColumnarScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterTileData;
 import com.navercorp.pinpoint.web.service.FilteredMapService;
 import com.navercorp.pinpoint.web.service.ScatterChartService;
 import com.navercorp.pinpoint.web.util.LimitUtils;
@@ -71,6 +72,9 @@ public class ScatterChartController {
     private static final String PREFIX_TIME = "T";
     private static final String PREFIX_RESPONSE_TIME = "R";
 
+    // v2 clients accept pre-aggregated tiles as well as v1 dots
+    private static final int SCATTER_TILE_VERSION = 2;
+
     @Deprecated
     @RequestMapping(value = "/scatterpopup", method = RequestMethod.GET)
     public String scatterPopup(Model model,
@@ -134,6 +138,9 @@ public class ScatterChartController {
      * @param to
      * @param limit           max number of data return. if the requested data exceed this limit, we need additional calls to
      *                        fetch the rest of the data
+     * @param version         1 returns dots. 2 returns pre-aggregated tiles ("scatterTile") when they are enabled and the x group unit
+     *                        is not narrower than a tile, and dots otherwise. selected areas are always read from dots.
+     *                        the bundled scatter chart requests version 2 and reads the dots of a dragged area with version 1.
      * @return
      */
     @RequestMapping(value = "/getScatterData", method = RequestMethod.GET)
@@ -186,8 +193,11 @@ public class ScatterChartController {
 
     private ModelAndView selectScatterData(String applicationName, Range range, int xGroupUnit, int yGroupUnit, int limit, boolean backwardDirection, int version) {
         ModelAndView mv = null;
-        if (version == 1) {
-            final ScatterData scatterData = scatter.selectScatterData(applicationName, range, xGroupUnit, yGroupUnit, limit, backwardDirection);
+        if (version == SCATTER_TILE_VERSION && scatter.isScatterTileAvailable(xGroupUnit)) {
+            final ScatterTileData scatterTileData = scatter.selectScatterTileData(applicationName, range, xGroupUnit, yGroupUnit);
+            mv = createScatterTileData(scatterTileData);
+        } else if (version == 1 || version == SCATTER_TILE_VERSION) {
+            final ColumnarScatterData scatterData = scatter.selectScatterData(applicationName, range, xGroupUnit, yGroupUnit, limit, backwardDirection);
             boolean requestComplete = scatterData.getDotSize() < limit;
 
             mv = createScatterDataV1(scatterData, requestComplete);
@@ -213,8 +223,8 @@ public class ScatterChartController {
         Filter filter = filterBuilder.build(filterText);
 
         ModelAndView mv;
-        if (version == 1) {
-            ScatterData scatterData = scatter.selectScatterData(transactionIdList, applicationName, range, xGroupUnit, yGroupUnit, filter);
+        if (version == 1 || version == SCATTER_TILE_VERSION) {
+            ColumnarScatterData scatterData = scatter.selectScatterData(transactionIdList, applicationName, range, xGroupUnit, yGroupUnit, filter);
             if (logger.isDebugEnabled()) {
                 logger.debug("getScatterData range scan(limited:{}, backwardDirection:{}) from ~ to:{} ~ {}, limited:{}, filterDataSize:{}",
                         limit, backwardDirection, DateUtils.longToDateStr(range.getFrom()), DateUtils.longToDateStr(range.getTo()), DateUtils.longToDateStr(limitedScanResult.getLimitedTime()), transactionIdList.size());
@@ -231,7 +241,7 @@ public class ScatterChartController {
         return mv;
     }
 
-    private ModelAndView createScatterDataV1(ScatterData scatterData, boolean complete) {
+    private ModelAndView createScatterDataV1(ColumnarScatterData scatterData, boolean complete) {
         ModelAndView mv = new ModelAndView();
 
         mv.addObject("resultFrom", scatterData.getOldestAcceptedTime());
@@ -243,4 +253,17 @@ public class ScatterChartController {
         return mv;
     }
 
+    private ModelAndView createScatterTileData(ScatterTileData scatterTileData) {
+        ModelAndView mv = new ModelAndView();
+
+        // tiles cover the whole range in a single response
+        mv.addObject("resultFrom", scatterTileData.getFrom());
+        mv.addObject("resultTo", scatterTileData.getTo());
+
+        mv.addObject("complete", true);
+        mv.addObject("scatterTile", scatterTileData);
+
+        return mv;
+    }
+
 }
@@ -26,11 +26,9 @@ import com.navercorp.pinpoint.web.vo.Application;
  * @author netspider
  * 
  */
-public interface ApplicationIndexDao {
+public interface ApplicationIndexDao extends ApplicationAgentIdDao {
     List<Application> selectAllApplicationNames();
 
-    List<String> selectAgentIds(String applicationName);
-
     void deleteApplicationName(String applicationName);
 
     void deleteAgentIds(Map<String, List<String>> applicationAgentIdMap);
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao;
+
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindowSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+
+/**
+ * {@link MapStatisticsCallerDao} that can also read the histograms of another time window, used by the time slot caches.
+ */
+public interface SampledMapStatisticsCallerDao extends MapStatisticsCallerDao {
+
+    /**
+     * Same as {@link #selectCaller(Application, Range)}, with the time window of the returned histograms chosen by {@code timeWindowSampler}.
+     */
+    LinkDataMap selectCaller(Application callerApplication, Range range, TimeWindowSampler timeWindowSampler);
+
+}
@@ -21,6 +21,7 @@ import java.util.List;
 
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.vo.LimitedSpanResult;
 
 /**
  * @author emeroad
@@ -29,6 +30,12 @@ public interface TraceDao {
 
     List<SpanBo> selectSpan(TransactionId transactionId);
 
+    /**
+     * Same as {@link #selectSpan(TransactionId)}, reading at most {@code maxCells} cells of the transaction
+     * so that the memory used by a very large transaction is bounded.
+     */
+    LimitedSpanResult selectSpan(TransactionId transactionId, int maxCells);
+
     List<List<SpanBo>> selectSpans(List<TransactionId> transactionIdList);
     
     List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList);
@@ -4,6 +4,7 @@ import com.google.common.annotations.Beta;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.dao.TraceDao;
+import com.navercorp.pinpoint.web.vo.LimitedSpanResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +54,26 @@ public class HbaseDualReadDao implements TraceDao {
         return result;
     }
 
+    @Override
+    public LimitedSpanResult selectSpan(TransactionId transactionId, int maxCells) {
+        Throwable masterThrowable = null;
+        LimitedSpanResult result = null;
+        try {
+            result = master.selectSpan(transactionId, maxCells);
+        } catch (Throwable th) {
+            masterThrowable = th;
+        }
+        try {
+            slave.selectSpan(transactionId, maxCells);
+        } catch (Throwable th) {
+            logger.debug("slave error :{}", th.getMessage(), th);
+        }
+
+        rethrowRuntimeException(masterThrowable);
+
+        return result;
+    }
+
 
     @Override
     public List<List<SpanBo>> selectSpans(List<TransactionId> transactionIdList) {
@@ -22,10 +22,11 @@ import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
-import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
+import com.navercorp.pinpoint.web.dao.SampledMapStatisticsCalleeDao;
 import com.navercorp.pinpoint.web.mapper.*;
 import com.navercorp.pinpoint.web.util.TimeWindow;
 import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.util.TimeWindowSampler;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
@@ -43,7 +44,7 @@ import org.springframework.stereotype.Repository;
  * @author emeroad
  */
 @Repository
-public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
+public class HbaseMapStatisticsCalleeDao implements SampledMapStatisticsCalleeDao {
 
     private static final int MAP_STATISTICS_CALLER_VER2_NUM_PARTITIONS = 32;
 
@@ -67,18 +68,27 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
     @Override
     public LinkDataMap selectCallee(Application calleeApplication, Range range) {
+        return selectCallee(calleeApplication, range, TimeWindowDownSampler.SAMPLER);
+    }
+
+    @Override
+    public LinkDataMap selectCallee(Application calleeApplication, Range range, TimeWindowSampler timeWindowSampler) {
         if (calleeApplication == null) {
             throw new NullPointerException("calleeApplication must not be null");
         }
         if (range == null) {
             throw new NullPointerException("range must not be null");
         }
+        if (timeWindowSampler == null) {
+            throw new NullPointerException("timeWindowSampler must not be null");
+        }
 
-        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+        final TimeWindow timeWindow = new TimeWindow(range, timeWindowSampler);
         // find distributed key - ver2.
         final Scan scan = createScan(calleeApplication, range, HBaseTables.MAP_STATISTICS_CALLER_VER2_CF_COUNTER);
         ResultsExtractor<LinkDataMap> resultExtractor = new RowMapReduceResultExtractor<>(mapStatisticsCalleeMapper, new MapStatisticsTimeWindowReducer(timeWindow));
-        LinkDataMap linkDataMap = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_CALLER_VER2, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLER_VER2_NUM_PARTITIONS);
+        // rows are merged regardless of their order
+        LinkDataMap linkDataMap = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_CALLER_VER2, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLER_VER2_NUM_PARTITIONS, false);
         logger.debug("Callee data. {}, {}", linkDataMap, range);
         if (linkDataMap != null && linkDataMap.size() > 0) {
             return linkDataMap;
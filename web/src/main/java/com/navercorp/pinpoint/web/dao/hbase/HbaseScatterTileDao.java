@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.server.util.ScatterTileUtils;
+import com.navercorp.pinpoint.web.dao.ScatterTileDao;
+import com.navercorp.pinpoint.web.mapper.ScatterTileResultsExtractor;
+import com.navercorp.pinpoint.web.scatter.ScatterTileData;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+import org.apache.hadoop.hbase.client.Scan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class HbaseScatterTileDao implements ScatterTileDao {
+
+    private static final int APPLICATION_SCATTER_TILE_NUM_PARTITIONS = 8;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private int scanCacheSize = 40;
+
+    @Autowired
+    private HbaseOperations2 hbaseOperations2;
+
+    @Autowired
+    @Qualifier("scatterTileRowKeyDistributor")
+    private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
+
+    @Override
+    public ScatterTileData selectScatterTileData(String applicationName, Range range, int xGroupUnit, int yGroupUnit) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+
+        final Scan scan = createScan(applicationName, range);
+        final ScatterTileResultsExtractor resultsExtractor = new ScatterTileResultsExtractor(rowKeyDistributorByHashPrefix, range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit);
+        // rows are merged regardless of their order
+        final ScatterTileData scatterTileData = hbaseOperations2.findParallel(HBaseTables.APPLICATION_SCATTER_TILE, scan, rowKeyDistributorByHashPrefix, resultsExtractor, APPLICATION_SCATTER_TILE_NUM_PARTITIONS, false);
+        if (logger.isDebugEnabled()) {
+            logger.debug("selectScatterTileData {} {} tiles:{}, count:{}", applicationName, range, scatterTileData.getTileSize(), scatterTileData.getTotalCount());
+        }
+        return scatterTileData;
+    }
+
+    private Scan createScan(String applicationName, Range range) {
+        // start key is replaced by end key because timestamp has been reversed
+        // the stop row of the slot before 'from' keeps the row of 'from' in the scan
+        final long fromRowTimeSlot = ScatterTileUtils.getRowTimeSlot(range.getFrom());
+        final byte[] startKey = ScatterTileUtils.makeRowKey(applicationName, ScatterTileUtils.getRowTimeSlot(range.getTo()));
+        final byte[] endKey = ScatterTileUtils.makeRowKey(applicationName, fromRowTimeSlot - 1);
+
+        final Scan scan = new Scan();
+        scan.setCaching(this.scanCacheSize);
+        scan.setStartRow(startKey);
+        scan.setStopRow(endKey);
+        scan.addFamily(HBaseTables.APPLICATION_SCATTER_TILE_CF_COUNTER);
+        scan.setId("ApplicationScatterTileScan");
+        return scan;
+    }
+}
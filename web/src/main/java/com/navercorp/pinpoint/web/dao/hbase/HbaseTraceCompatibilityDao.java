@@ -3,6 +3,7 @@ package com.navercorp.pinpoint.web.dao.hbase;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.dao.TraceDao;
+import com.navercorp.pinpoint.web.vo.LimitedSpanResult;
 import org.apache.commons.collections.CollectionUtils;
 
 import java.util.List;
@@ -37,6 +38,16 @@ public class HbaseTraceCompatibilityDao implements TraceDao {
         return slave.selectSpan(transactionId);
     }
 
+    @Override
+    public LimitedSpanResult selectSpan(TransactionId transactionId, int maxCells) {
+        LimitedSpanResult result = this.master.selectSpan(transactionId, maxCells);
+        if (CollectionUtils.isNotEmpty(result.getSpanList())) {
+            return result;
+        }
+
+        return slave.selectSpan(transactionId, maxCells);
+    }
+
 
     @Override
     public List<List<SpanBo>> selectSpans(List<TransactionId> transactionIdList) {
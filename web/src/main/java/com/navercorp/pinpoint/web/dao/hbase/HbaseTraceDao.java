@@ -24,7 +24,9 @@ import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.dao.TraceDao;
+import com.navercorp.pinpoint.web.mapper.CellLimitMapper;
 import com.navercorp.pinpoint.web.mapper.CellTraceMapper;
+import com.navercorp.pinpoint.web.vo.LimitedSpanResult;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.hadoop.hbase.client.Get;
 import org.slf4j.Logger;
@@ -88,6 +90,26 @@ public class HbaseTraceDao implements TraceDao {
         return template2.get(HBaseTables.TRACES, get, spanMapper);
     }
 
+    @Override
+    public LimitedSpanResult selectSpan(TransactionId transactionId, int maxCells) {
+        if (transactionId == null) {
+            throw new NullPointerException("transactionId must not be null");
+        }
+        byte[] transactionIdRowKey = rowKeyDecoder.encodeRowKey(transactionId);
+
+        Get get = new Get(transactionIdRowKey);
+        get.addFamily(HBaseTables.TRACES_CF_SPAN);
+        get.addFamily(HBaseTables.TRACES_CF_ANNOTATION);
+        get.addFamily(HBaseTables.TRACES_CF_TERMINALSPAN);
+        get.setMaxResultsPerColumnFamily(maxCells + 1);
+        final CellLimitMapper<List<SpanBo>> mapper = new CellLimitMapper<>(spanMapper, maxCells);
+        final List<SpanBo> spanList = template2.get(HBaseTables.TRACES, get, mapper);
+        if (mapper.isTruncated()) {
+            logger.info("spans of {} truncated. maxCells:{}", transactionId, maxCells);
+        }
+        return new LimitedSpanResult(spanList, mapper.isTruncated());
+    }
+
 
     @Override
     public List<List<SpanBo>> selectSpans(List<TransactionId> transactionIdList) {
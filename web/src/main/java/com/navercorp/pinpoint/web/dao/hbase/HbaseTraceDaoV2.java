@@ -10,7 +10,9 @@ import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoder;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.dao.TraceDao;
+import com.navercorp.pinpoint.web.mapper.CellLimitMapper;
 import com.navercorp.pinpoint.web.mapper.CellTraceMapper;
+import com.navercorp.pinpoint.web.vo.LimitedSpanResult;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
@@ -77,6 +79,23 @@ public class HbaseTraceDaoV2 implements TraceDao {
         return template2.get(HBaseTables.TRACE_V2, transactionIdRowKey, HBaseTables.TRACE_V2_CF_SPAN, spanMapperV2);
     }
 
+    @Override
+    public LimitedSpanResult selectSpan(TransactionId transactionId, int maxCells) {
+        if (transactionId == null) {
+            throw new NullPointerException("transactionId must not be null");
+        }
+
+        final Get get = createGet(transactionId, HBaseTables.TRACE_V2_CF_SPAN, null);
+        // spans are sorted before span chunks, so span events are left out first
+        get.setMaxResultsPerColumnFamily(maxCells + 1);
+        final CellLimitMapper<List<SpanBo>> mapper = new CellLimitMapper<>(spanMapperV2, maxCells);
+        final List<SpanBo> spanList = template2.get(HBaseTables.TRACE_V2, get, mapper);
+        if (mapper.isTruncated()) {
+            logger.info("spans of {} truncated. maxCells:{}", transactionId, maxCells);
+        }
+        return new LimitedSpanResult(spanList, mapper.isTruncated());
+    }
+
 
     @Override
     public List<List<SpanBo>> selectSpans(List<TransactionId> transactionIdList) {
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase.stat;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatRollupHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.navercorp.pinpoint.web.dao.stat.AgentStatRollupDao;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.apache.hadoop.hbase.client.Scan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class HbaseAgentStatRollupDao implements AgentStatRollupDao {
+
+    private static final int AGENT_STAT_ROLLUP_NUM_PARTITIONS = 32;
+    private static final int SCAN_CACHE_SIZE = 32;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private HbaseOperations2 hbaseOperations2;
+
+    @Autowired
+    private AgentStatRollupHbaseOperationFactory operationFactory;
+
+    @Override
+    public List<AgentStatRollupBo> getAgentStatRollupList(String agentId, AgentStatType agentStatType, AgentStatRollupResolution resolution, Range range) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (agentStatType == null) {
+            throw new NullPointerException("agentStatType must not be null");
+        }
+        if (resolution == null) {
+            throw new NullPointerException("resolution must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+
+        final Scan scan = this.operationFactory.createScan(agentId, agentStatType, resolution, range.getFrom(), range.getTo());
+        scan.setCaching(SCAN_CACHE_SIZE);
+        scan.setId("AgentStatRollup_" + agentStatType);
+
+        final RowMapper<List<AgentStatRollupBo>> rowMapper = (result, rowNum) -> {
+            final List<AgentStatRollupBo> decoded = operationFactory.decode(result);
+            final List<AgentStatRollupBo> filtered = new ArrayList<>(decoded.size());
+            for (AgentStatRollupBo rollupBo : decoded) {
+                if (range.getFrom() <= rollupBo.getTimestamp() && rollupBo.getTimestamp() < range.getTo()) {
+                    filtered.add(rollupBo);
+                }
+            }
+            return filtered;
+        };
+        final List<List<AgentStatRollupBo>> intermediate = hbaseOperations2.findParallel(HBaseTables.AGENT_STAT_ROLLUP, scan, this.operationFactory.getRowKeyDistributor(), rowMapper, AGENT_STAT_ROLLUP_NUM_PARTITIONS);
+        final List<AgentStatRollupBo> merged = new ArrayList<>();
+        for (List<AgentStatRollupBo> each : intermediate) {
+            merged.addAll(each);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("getAgentStatRollupList {} {} {} {} rollups:{}", agentId, agentStatType, resolution, range, merged.size());
+        }
+        return merged;
+    }
+}
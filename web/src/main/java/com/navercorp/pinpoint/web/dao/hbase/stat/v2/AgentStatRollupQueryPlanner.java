@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
+
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Decides whether a sampled agent stat chart can be drawn from the pre-aggregated rollups instead of the raw data points.
+ */
+@Component
+public class AgentStatRollupQueryPlanner {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Value("#{pinpointWebProps['web.stat.rollup.enable'] ?: false}")
+    private boolean enable = false;
+
+    public AgentStatRollupQueryPlanner() {
+    }
+
+    AgentStatRollupQueryPlanner(boolean enable) {
+        this.enable = enable;
+    }
+
+    @PostConstruct
+    public void init() {
+        logger.info("agent stat rollup enable:{}", enable);
+    }
+
+    /**
+     * The slots of the stat charts are multiples of 5 seconds (see {@link com.navercorp.pinpoint.web.util.TimeWindowSlotCentricSampler})
+     * that rarely divide by a bucket interval. A bucket is drawn in the slot its start falls in,
+     * so a bucket crossing a slot edge is counted in the earlier slot only.
+     *
+     * @return the coarsest resolution whose buckets are no larger than a time window slot, null to read the raw data points
+     */
+    public AgentStatRollupResolution getResolution(TimeWindow timeWindow) {
+        if (!enable) {
+            return null;
+        }
+        final long windowSlotSize = timeWindow.getWindowSlotSize();
+        final AgentStatRollupResolution[] resolutions = AgentStatRollupResolution.values();
+        for (int i = resolutions.length - 1; i >= 0; i--) {
+            final AgentStatRollupResolution resolution = resolutions[i];
+            if (resolution.getIntervalMs() <= windowSlotSize) {
+                return resolution;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rollups are only written once enabled in the collector, older ranges must be read from the raw data points.
+     *
+     * @return true if the rollups reach back to the first slot of the time window
+     */
+    public boolean isCovered(TimeWindow timeWindow, List<AgentStatRollupBo> rollupBos) {
+        if (rollupBos.isEmpty()) {
+            return false;
+        }
+        long firstBucketTimestamp = Long.MAX_VALUE;
+        for (AgentStatRollupBo rollupBo : rollupBos) {
+            firstBucketTimestamp = Math.min(firstBucketTimestamp, rollupBo.getTimestamp());
+        }
+        return firstBucketTimestamp < timeWindow.getWindowRange().getFrom() + timeWindow.getWindowSlotSize();
+    }
+}
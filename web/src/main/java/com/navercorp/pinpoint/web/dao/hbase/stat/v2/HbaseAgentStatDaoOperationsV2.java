@@ -24,9 +24,16 @@ import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOpe
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.navercorp.pinpoint.web.dao.stat.AgentStatRollupDao;
 import com.navercorp.pinpoint.web.mapper.RangeTimestampFilter;
 import com.navercorp.pinpoint.web.mapper.TimestampFilter;
 import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatColumnResultExtractor;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.AgentStatColumnSampler;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.AgentStatRollupSampler;
+import com.navercorp.pinpoint.web.util.TimeWindow;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
 import org.apache.hadoop.hbase.client.Scan;
@@ -55,6 +62,12 @@ public class HbaseAgentStatDaoOperationsV2 {
     @Autowired
     private AgentStatHbaseOperationFactory operationFactory;
 
+    @Autowired
+    private AgentStatRollupDao agentStatRollupDao;
+
+    @Autowired
+    private AgentStatRollupQueryPlanner rollupQueryPlanner;
+
     <T extends AgentStatDataPoint> List<T> getAgentStatList(AgentStatType agentStatType, AgentStatMapperV2<T> mapper, String agentId, Range range) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
@@ -111,11 +124,43 @@ public class HbaseAgentStatDaoOperationsV2 {
         return hbaseOperations2.findParallel(HBaseTables.AGENT_STAT_VER2, scan, this.operationFactory.getRowKeyDistributor(), resultExtractor, AGENT_STAT_VER2_NUM_PARTITIONS);
     }
 
+    /**
+     * @return null if the time window can not be drawn from the rollups, the raw data points must be read instead
+     */
+    <S extends SampledAgentStatDataPoint> List<S> getSampledAgentStatRollupList(AgentStatType agentStatType, AgentStatRollupSampler<S> sampler, String agentId, TimeWindow timeWindow, Range range) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (sampler == null) {
+            throw new NullPointerException("sampler must not be null");
+        }
+        final AgentStatRollupResolution resolution = this.rollupQueryPlanner.getResolution(timeWindow);
+        if (resolution == null) {
+            return null;
+        }
+        final List<AgentStatRollupBo> rollupBos = this.agentStatRollupDao.getAgentStatRollupList(agentId, agentStatType, resolution, range);
+        if (!this.rollupQueryPlanner.isCovered(timeWindow, rollupBos)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("rollups do not cover the time window, reading raw data points : agentId={}, {}, {}", agentId, agentStatType, range);
+            }
+            return null;
+        }
+        return sampler.sample(timeWindow, rollupBos);
+    }
+
     <T extends AgentStatDataPoint> AgentStatMapperV2<T> createRowMapper(AgentStatDecoder<T> decoder, Range range) {
         TimestampFilter filter = new RangeTimestampFilter(range);
         return new AgentStatMapperV2<>(this.operationFactory, decoder, filter);
     }
 
+    <T extends AgentStatDataPoint, S extends SampledAgentStatDataPoint> SampledAgentStatColumnResultExtractor<T, S> createColumnResultExtractor(AgentStatDecoder<T> decoder, AgentStatColumnSampler<S> sampler, TimeWindow timeWindow, Range range) {
+        TimestampFilter filter = new RangeTimestampFilter(range);
+        return new SampledAgentStatColumnResultExtractor<>(timeWindow, this.operationFactory, decoder, filter, sampler);
+    }
+
     private Scan createScan(AgentStatType agentStatType, String agentId, Range range) {
         long scanRange = range.getTo() - range.getFrom();
         long expectedNumRows = ((scanRange - 1) / HBaseTables.AGENT_STAT_TIMESPAN_MS) + 1;
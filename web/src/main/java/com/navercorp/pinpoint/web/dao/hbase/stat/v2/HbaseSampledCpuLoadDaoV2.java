@@ -16,11 +16,14 @@
 
 package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
 
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.CpuLoadDecoder;
 import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import com.navercorp.pinpoint.web.dao.stat.SampledCpuLoadDao;
 import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.CpuLoadColumnSampler;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.CpuLoadRollupSampler;
 import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.CpuLoadSampler;
 import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatResultExtractor;
 import com.navercorp.pinpoint.web.util.TimeWindow;
@@ -43,6 +46,12 @@ public class HbaseSampledCpuLoadDaoV2 implements SampledCpuLoadDao {
     @Autowired
     private CpuLoadSampler cpuLoadSampler;
 
+    @Autowired
+    private CpuLoadRollupSampler cpuLoadRollupSampler;
+
+    @Autowired
+    private CpuLoadColumnSampler cpuLoadColumnSampler;
+
     @Autowired
     private HbaseAgentStatDaoOperationsV2 operations;
 
@@ -51,6 +60,14 @@ public class HbaseSampledCpuLoadDaoV2 implements SampledCpuLoadDao {
         long scanFrom = timeWindow.getWindowRange().getFrom();
         long scanTo = timeWindow.getWindowRange().getTo() + timeWindow.getWindowSlotSize();
         Range range = new Range(scanFrom, scanTo);
+        List<SampledCpuLoad> rollupSampled = operations.getSampledAgentStatRollupList(AgentStatType.CPU_LOAD, cpuLoadRollupSampler, agentId, timeWindow, range);
+        if (rollupSampled != null) {
+            return rollupSampled;
+        }
+        if (cpuLoadDecoder.isColumnSupported()) {
+            ResultsExtractor<List<SampledCpuLoad>> columnResultExtractor = operations.createColumnResultExtractor(cpuLoadDecoder, cpuLoadColumnSampler, timeWindow, range);
+            return operations.getSampledAgentStatList(AgentStatType.CPU_LOAD, columnResultExtractor, agentId, range);
+        }
         AgentStatMapperV2<CpuLoadBo> mapper = operations.createRowMapper(cpuLoadDecoder, range);
         SampledAgentStatResultExtractor<CpuLoadBo, SampledCpuLoad> resultExtractor = new SampledAgentStatResultExtractor<>(timeWindow, mapper, cpuLoadSampler);
         return operations.getSampledAgentStatList(AgentStatType.CPU_LOAD, resultExtractor, agentId, range);
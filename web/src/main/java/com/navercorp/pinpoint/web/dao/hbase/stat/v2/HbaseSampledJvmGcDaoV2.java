@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import com.navercorp.pinpoint.web.dao.stat.SampledJvmGcDao;
 import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.JvmGcRollupSampler;
 import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.JvmGcSampler;
 import com.navercorp.pinpoint.web.mapper.stat.SampledAgentStatResultExtractor;
 import com.navercorp.pinpoint.web.util.TimeWindow;
@@ -43,6 +44,9 @@ public class HbaseSampledJvmGcDaoV2 implements SampledJvmGcDao {
     @Autowired
     private JvmGcSampler jvmGcSampler;
 
+    @Autowired
+    private JvmGcRollupSampler jvmGcRollupSampler;
+
     @Autowired
     private HbaseAgentStatDaoOperationsV2 operations;
 
@@ -51,6 +55,10 @@ public class HbaseSampledJvmGcDaoV2 implements SampledJvmGcDao {
         long scanFrom = timeWindow.getWindowRange().getFrom();
         long scanTo = timeWindow.getWindowRange().getTo() + timeWindow.getWindowSlotSize();
         Range range = new Range(scanFrom, scanTo);
+        List<SampledJvmGc> rollupSampled = operations.getSampledAgentStatRollupList(AgentStatType.JVM_GC, jvmGcRollupSampler, agentId, timeWindow, range);
+        if (rollupSampled != null) {
+            return rollupSampled;
+        }
         AgentStatMapperV2<JvmGcBo> mapper = operations.createRowMapper(jvmGcDecoder, range);
         SampledAgentStatResultExtractor<JvmGcBo, SampledJvmGc> resultExtractor = new SampledAgentStatResultExtractor<>(timeWindow, mapper, jvmGcSampler);
         return operations.getSampledAgentStatList(AgentStatType.JVM_GC, resultExtractor, agentId, range);
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.stat;
+
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import java.util.List;
+
+/**
+ * Reads the pre-aggregated agent statistics of {@link com.navercorp.pinpoint.common.hbase.HBaseTables#AGENT_STAT_ROLLUP}.
+ */
+public interface AgentStatRollupDao {
+
+    /**
+     * @return the rollups whose bucket starts within the range, in no particular order
+     */
+    List<AgentStatRollupBo> getAgentStatRollupList(String agentId, AgentStatType agentStatType, AgentStatRollupResolution resolution, Range range);
+}
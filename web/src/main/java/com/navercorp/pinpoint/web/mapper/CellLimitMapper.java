@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.util.Arrays;
+
+/**
+ * Maps only the first {@code maxCells} cells of a row. Holds the state of a single row, so create one per get.
+ * Request {@code maxCells + 1} cells per family to tell a truncated row apart.
+ */
+public class CellLimitMapper<T> implements RowMapper<T> {
+
+    private final RowMapper<T> delegate;
+    private final int maxCells;
+    private boolean truncated = false;
+
+    public CellLimitMapper(RowMapper<T> delegate, int maxCells) {
+        if (delegate == null) {
+            throw new NullPointerException("delegate must not be null");
+        }
+        if (maxCells <= 0) {
+            throw new IllegalArgumentException("maxCells must be positive");
+        }
+        this.delegate = delegate;
+        this.maxCells = maxCells;
+    }
+
+    @Override
+    public T mapRow(Result result, int rowNum) throws Exception {
+        if (result.size() > maxCells) {
+            this.truncated = true;
+            final Cell[] cells = Arrays.copyOf(result.rawCells(), maxCells);
+            return delegate.mapRow(Result.create(cells), rowNum);
+        }
+        return delegate.mapRow(result, rowNum);
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.server.util.ScatterTileUtils;
+import com.navercorp.pinpoint.web.scatter.ScatterTileData;
+import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Folds every ApplicationScatterTile cell of the scan into a single {@link ScatterTileData}.
+ */
+public class ScatterTileResultsExtractor implements ResultsExtractor<ScatterTileData> {
+
+    private final AbstractRowKeyDistributor rowKeyDistributor;
+    private final long from;
+    private final long to;
+    private final int xGroupUnit;
+    private final int yGroupUnit;
+
+    public ScatterTileResultsExtractor(AbstractRowKeyDistributor rowKeyDistributor, long from, long to, int xGroupUnit, int yGroupUnit) {
+        if (rowKeyDistributor == null) {
+            throw new NullPointerException("rowKeyDistributor must not be null");
+        }
+        this.rowKeyDistributor = rowKeyDistributor;
+        this.from = from;
+        this.to = to;
+        this.xGroupUnit = xGroupUnit;
+        this.yGroupUnit = yGroupUnit;
+    }
+
+    @Override
+    public ScatterTileData extractData(ResultScanner results) throws Exception {
+        final ScatterTileData scatterTileData = new ScatterTileData(from, to, xGroupUnit, yGroupUnit);
+        for (Result result : results) {
+            if (result.isEmpty()) {
+                continue;
+            }
+            final byte[] rowKey = rowKeyDistributor.getOriginalKey(result.getRow());
+            final long rowTimeSlot = ScatterTileUtils.getRowTimeSlot(rowKey);
+            for (Cell cell : result.rawCells()) {
+                final byte[] qualifier = cell.getQualifierArray();
+                final int offset = cell.getQualifierOffset();
+
+                final long tileTime = ScatterTileUtils.getTileTime(rowTimeSlot, qualifier, offset);
+                final int elapsedBucket = ScatterTileUtils.getTileElapsedBucket(qualifier, offset);
+                final boolean error = ScatterTileUtils.isTileError(qualifier, offset);
+                final String agentId = ScatterTileUtils.getTileAgentId(qualifier, offset, cell.getQualifierLength());
+                final long count = Bytes.toLong(cell.getValueArray(), cell.getValueOffset());
+
+                scatterTileData.addTile(tileTime, elapsedBucket, error, agentId, count);
+            }
+        }
+        return scatterTileData;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.TimeUtils;
+import com.navercorp.pinpoint.web.scatter.ColumnarScatterData;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+
+/**
+ * Decodes ApplicationTraceIndex cells straight into the columns of a single {@link ColumnarScatterData},
+ * without creating a Dot or TransactionId per cell.
+ * Stops after limit rows, like {@link com.navercorp.pinpoint.common.hbase.LimitRowMapperResultsExtractor}.
+ */
+public class TraceIndexScatterResultsExtractor implements ResultsExtractor<ColumnarScatterData> {
+
+    private final long from;
+    private final long to;
+    private final int xGroupUnit;
+    private final int yGroupUnit;
+    private final int limit;
+
+    public TraceIndexScatterResultsExtractor(long from, long to, int xGroupUnit, int yGroupUnit, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+        this.from = from;
+        this.to = to;
+        this.xGroupUnit = xGroupUnit;
+        this.yGroupUnit = yGroupUnit;
+        this.limit = limit;
+    }
+
+    @Override
+    public ColumnarScatterData extractData(ResultScanner results) throws Exception {
+        final ColumnarScatterData scatterData = new ColumnarScatterData(from, to, xGroupUnit, yGroupUnit);
+        int rowNum = 0;
+        for (Result result : results) {
+            if (!result.isEmpty()) {
+                for (Cell cell : result.rawCells()) {
+                    addDot(scatterData, cell);
+                }
+            }
+            if (++rowNum >= limit) {
+                break;
+            }
+        }
+        return scatterData;
+    }
+
+    private void addDot(ColumnarScatterData scatterData, Cell cell) {
+        final Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+        final int elapsed = valueBuffer.readVInt();
+        final int exceptionCode = valueBuffer.readSVInt();
+        final String agentId = valueBuffer.readPrefixedString();
+
+        final long reverseAcceptedTime = BytesUtils.bytesToLong(cell.getRowArray(), cell.getRowOffset() + HBaseTables.APPLICATION_NAME_MAX_LEN + HBaseTables.APPLICATION_TRACE_INDEX_ROW_DISTRIBUTE_SIZE);
+        final long acceptedTime = TimeUtils.recoveryTimeMillis(reverseAcceptedTime);
+
+        // same layout as TransactionIdMapper.parseVarTransactionId()
+        final Buffer qualifierBuffer = new OffsetFixedBuffer(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+        final String transactionAgentId = qualifierBuffer.readPrefixedString();
+        final long transactionAgentStartTime = qualifierBuffer.readSVLong();
+        final long transactionSequence = qualifierBuffer.readVLong();
+
+        scatterData.addDot(acceptedTime, elapsed, exceptionCode, agentId, transactionAgentId, transactionAgentStartTime, transactionSequence);
+    }
+}
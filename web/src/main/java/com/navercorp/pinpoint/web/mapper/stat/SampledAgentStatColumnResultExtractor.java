@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDecoder;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatHbaseOperationFactory;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatDataPoint;
+import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.sampler.AgentStatColumnSampler;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column counterpart of {@link SampledAgentStatResultExtractor}, the cells are decoded into {@link AgentStatColumns}
+ * and sampled without creating a data point object for each value.
+ */
+public class SampledAgentStatColumnResultExtractor<T extends AgentStatDataPoint, S extends SampledAgentStatDataPoint> implements ResultsExtractor<List<S>> {
+
+    private final TimeWindow timeWindow;
+    private final AgentStatHbaseOperationFactory hbaseOperationFactory;
+    private final AgentStatDecoder<T> decoder;
+    private final TimestampFilter filter;
+    private final AgentStatColumnSampler<S> sampler;
+
+    public SampledAgentStatColumnResultExtractor(TimeWindow timeWindow, AgentStatHbaseOperationFactory hbaseOperationFactory, AgentStatDecoder<T> decoder,
+                                                 TimestampFilter filter, AgentStatColumnSampler<S> sampler) {
+        if (timeWindow.getWindowRangeCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("range yields too many timeslots");
+        }
+        if (!decoder.isColumnSupported()) {
+            throw new IllegalArgumentException("decoder does not support column decoding");
+        }
+        this.timeWindow = timeWindow;
+        this.hbaseOperationFactory = hbaseOperationFactory;
+        this.decoder = decoder;
+        this.filter = filter;
+        this.sampler = sampler;
+    }
+
+    @Override
+    public List<S> extractData(ResultScanner results) throws Exception {
+        final AgentStatColumnSampler.SamplingHandler<S> samplingHandler = new AgentStatColumnSampler.SamplingHandler<>(sampler, timeWindow, filter);
+        final List<AgentStatColumns> columnsList = new ArrayList<>();
+        for (Result result : results) {
+            mapColumns(result, columnsList);
+            samplingHandler.addColumns(columnsList);
+            columnsList.clear();
+        }
+        return samplingHandler.getSampledDataPoints();
+    }
+
+    private void mapColumns(Result result, List<AgentStatColumns> columnsList) {
+        if (result.isEmpty()) {
+            return;
+        }
+        final byte[] distributedRowKey = result.getRow();
+        final String agentId = this.hbaseOperationFactory.getAgentId(distributedRowKey);
+        final long baseTimestamp = this.hbaseOperationFactory.getBaseTimestamp(distributedRowKey);
+
+        for (Cell cell : result.rawCells()) {
+            if (CellUtil.matchingFamily(cell, HBaseTables.AGENT_STAT_CF_STATISTICS)) {
+                Buffer qualifierBuffer = new OffsetFixedBuffer(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+                Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+
+                long timestampDelta = this.decoder.decodeQualifier(qualifierBuffer);
+
+                AgentStatDecodingContext decodingContext = new AgentStatDecodingContext();
+                decodingContext.setAgentId(agentId);
+                decodingContext.setBaseTimestamp(baseTimestamp);
+                decodingContext.setTimestampDelta(timestampDelta);
+                AgentStatColumns columns = this.decoder.decodeColumns(valueBuffer, decodingContext);
+                if (columns == null) {
+                    throw new IllegalStateException("column decoding not supported for agentId:" + agentId);
+                }
+                columnsList.add(columns);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
+import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Samples data points decoded as {@link AgentStatColumns} into time window slots without creating a data point object
+ * for each of them, the counterpart of {@link AgentStatSampler}. As with the data points, a slot holding several jvm life
+ * cycles of an agent is drawn from the latest one, and the values are visited in descending order of their timestamp.
+ */
+public abstract class AgentStatColumnSampler<S extends SampledAgentStatDataPoint> {
+
+    private static final Comparator<AgentStatColumns> REVERSE_FIRST_TIMESTAMP_COMPARATOR = new Comparator<AgentStatColumns>() {
+        @Override
+        public int compare(AgentStatColumns o1, AgentStatColumns o2) {
+            return Long.compare(o2.getTimestamps()[0], o1.getTimestamps()[0]);
+        }
+    };
+
+    /**
+     * @param filter data points of the filtered out timestamps are skipped
+     * @return sampled data points in ascending order of their slot
+     */
+    public List<S> sample(TimeWindow timeWindow, List<AgentStatColumns> columnsList, TimestampFilter filter) {
+        final SamplingHandler<S> samplingHandler = new SamplingHandler<>(this, timeWindow, filter);
+        samplingHandler.addColumns(columnsList);
+        return samplingHandler.getSampledDataPoints();
+    }
+
+    protected abstract Slot<S> newSlot();
+
+    /**
+     * Samples the columns as they are read, row by row in descending order of their timestamp,
+     * so that they do not have to be kept until every row is read.
+     */
+    public static class SamplingHandler<S extends SampledAgentStatDataPoint> {
+
+        private final AgentStatColumnSampler<S> sampler;
+        private final TimeWindow timeWindow;
+        private final TimestampFilter filter;
+
+        private final Map<Long, Slot<S>> slots = new TreeMap<>();
+        private long currentSlotTimestamp = Long.MIN_VALUE;
+        private Slot<S> currentSlot;
+
+        public SamplingHandler(AgentStatColumnSampler<S> sampler, TimeWindow timeWindow, TimestampFilter filter) {
+            if (sampler == null) {
+                throw new NullPointerException("sampler must not be null");
+            }
+            if (timeWindow == null) {
+                throw new NullPointerException("timeWindow must not be null");
+            }
+            if (filter == null) {
+                throw new NullPointerException("filter must not be null");
+            }
+            this.sampler = sampler;
+            this.timeWindow = timeWindow;
+            this.filter = filter;
+        }
+
+        /**
+         * @param columnsList cells of a row, in any order
+         */
+        public void addColumns(List<AgentStatColumns> columnsList) {
+            if (columnsList == null || columnsList.isEmpty()) {
+                return;
+            }
+            final List<AgentStatColumns> sorted = new ArrayList<>(columnsList.size());
+            for (AgentStatColumns columns : columnsList) {
+                if (columns.getSize() > 0) {
+                    sorted.add(columns);
+                }
+            }
+            Collections.sort(sorted, REVERSE_FIRST_TIMESTAMP_COMPARATOR);
+
+            for (AgentStatColumns columns : sorted) {
+                final long[] startTimestamps = columns.getStartTimestamps();
+                final long[] timestamps = columns.getTimestamps();
+                for (int i = timestamps.length - 1; i >= 0; i--) {
+                    final long timestamp = timestamps[i];
+                    if (filter.filter(timestamp)) {
+                        continue;
+                    }
+                    final long slotTimestamp = timeWindow.refineTimestamp(timestamp);
+                    if (currentSlot == null || slotTimestamp != currentSlotTimestamp) {
+                        currentSlot = slots.get(slotTimestamp);
+                        if (currentSlot == null) {
+                            currentSlot = sampler.newSlot();
+                            slots.put(slotTimestamp, currentSlot);
+                        }
+                        currentSlotTimestamp = slotTimestamp;
+                    }
+                    currentSlot.add(startTimestamps[i], columns, i);
+                }
+            }
+        }
+
+        /**
+         * @return sampled data points in ascending order of their slot
+         */
+        public List<S> getSampledDataPoints() {
+            if (slots.isEmpty()) {
+                return Collections.emptyList();
+            }
+            final List<S> sampledPoints = new ArrayList<>(slots.size());
+            for (Map.Entry<Long, Slot<S>> entry : slots.entrySet()) {
+                sampledPoints.add(entry.getValue().sample(entry.getKey()));
+            }
+            return sampledPoints;
+        }
+    }
+
+    /**
+     * Accumulates the values of a single slot.
+     */
+    protected abstract static class Slot<S> {
+
+        private long startTimestamp = Long.MIN_VALUE;
+
+        private void add(long startTimestamp, AgentStatColumns columns, int index) {
+            if (startTimestamp < this.startTimestamp) {
+                return;
+            }
+            if (startTimestamp > this.startTimestamp) {
+                this.startTimestamp = startTimestamp;
+                reset();
+            }
+            addValues(columns, index);
+        }
+
+        /**
+         * Drops the accumulated values, a later jvm life cycle of the agent has been found.
+         */
+        protected abstract void reset();
+
+        protected abstract void addValues(AgentStatColumns columns, int index);
+
+        protected abstract S sample(long timestamp);
+    }
+}
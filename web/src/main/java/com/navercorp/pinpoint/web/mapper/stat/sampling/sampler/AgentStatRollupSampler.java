@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollups;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.RollupValue;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.stat.SampledAgentStatDataPoint;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Samples pre-aggregated rollups into time window slots, the counterpart of {@link AgentStatSampler} for
+ * {@link AgentStatRollupBo}s. As with the raw data points, a slot holding several jvm life cycles of an agent
+ * is drawn from the latest one.
+ * <p>
+ * Each rollup is drawn in the slot its bucket starts in, the buckets sharing a slot are merged.
+ */
+public abstract class AgentStatRollupSampler<S extends SampledAgentStatDataPoint> {
+
+    private static final Comparator<AgentStatRollupBo> FIRST_TIMESTAMP_COMPARATOR = new Comparator<AgentStatRollupBo>() {
+        @Override
+        public int compare(AgentStatRollupBo o1, AgentStatRollupBo o2) {
+            return Long.compare(o1.getFirstTimestamp(), o2.getFirstTimestamp());
+        }
+    };
+
+    /**
+     * @return sampled data points in ascending order of their slot
+     */
+    public List<S> sample(TimeWindow timeWindow, List<AgentStatRollupBo> rollupBos) {
+        if (timeWindow == null) {
+            throw new NullPointerException("timeWindow must not be null");
+        }
+        if (rollupBos == null || rollupBos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<AgentStatRollupBo> sorted = new ArrayList<>(rollupBos);
+        Collections.sort(sorted, FIRST_TIMESTAMP_COMPARATOR);
+
+        final int counterSize = getCounterSize();
+        final long[][] counterIncrements = new long[counterSize][];
+        for (int i = 0; i < counterSize; i++) {
+            counterIncrements[i] = AgentStatRollups.counterIncrements(sorted, i);
+        }
+
+        final Map<Long, Slot> slots = new TreeMap<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            final AgentStatRollupBo rollupBo = sorted.get(i);
+            final long slotTimestamp = timeWindow.refineTimestamp(rollupBo.getTimestamp());
+            Slot slot = slots.get(slotTimestamp);
+            if (slot == null) {
+                slot = new Slot(counterSize);
+                slots.put(slotTimestamp, slot);
+            }
+            slot.add(rollupBo, counterIncrements, i);
+        }
+
+        final List<S> sampledPoints = new ArrayList<>(slots.size());
+        for (Map.Entry<Long, Slot> entry : slots.entrySet()) {
+            final Slot slot = entry.getValue();
+            sampledPoints.add(sampleSlot(entry.getKey(), slot.rollupBos, slot.counterIncrements));
+        }
+        return sampledPoints;
+    }
+
+    /**
+     * @return number of cumulative counters of the rollups
+     */
+    protected int getCounterSize() {
+        return 0;
+    }
+
+    /**
+     * @param rollupBos rollups of the slot, of a single jvm life cycle, in ascending order of their first timestamp
+     * @param counterIncrements increments of each counter, one per rollup
+     */
+    protected abstract S sampleSlot(long timestamp, List<AgentStatRollupBo> rollupBos, List<long[]> counterIncrements);
+
+    protected static RollupValue merge(List<AgentStatRollupBo> rollupBos, int valueIndex) {
+        final RollupValue merged = new RollupValue();
+        for (AgentStatRollupBo rollupBo : rollupBos) {
+            final RollupValue[] values = rollupBo.getValues();
+            if (valueIndex < values.length) {
+                merged.merge(values[valueIndex]);
+            }
+        }
+        return merged;
+    }
+
+    protected static double roundToScale(double value, int numDecimals) {
+        return BigDecimal.valueOf(value).setScale(numDecimals, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static class Slot {
+        private final int counterSize;
+        private final List<AgentStatRollupBo> rollupBos = new ArrayList<>();
+        private final List<long[]> counterIncrements = new ArrayList<>();
+        private long startTimestamp = Long.MIN_VALUE;
+
+        private Slot(int counterSize) {
+            this.counterSize = counterSize;
+        }
+
+        private void add(AgentStatRollupBo rollupBo, long[][] allCounterIncrements, int index) {
+            if (rollupBo.getStartTimestamp() < startTimestamp) {
+                return;
+            }
+            if (rollupBo.getStartTimestamp() > startTimestamp) {
+                startTimestamp = rollupBo.getStartTimestamp();
+                rollupBos.clear();
+                counterIncrements.clear();
+            }
+            rollupBos.add(rollupBo);
+            final long[] increments = new long[counterSize];
+            for (int i = 0; i < counterSize; i++) {
+                increments[i] = allCounterIncrements[i][index];
+            }
+            counterIncrements.add(increments);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
+import com.navercorp.pinpoint.web.vo.stat.chart.agent.AgentStatPoint;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Column counterpart of {@link CpuLoadSampler}, draws the same points.
+ */
+@Component
+public class CpuLoadColumnSampler extends AgentStatColumnSampler<SampledCpuLoad> {
+
+    private static final int NUM_DECIMAL_PLACES = 1;
+
+    @Override
+    protected Slot<SampledCpuLoad> newSlot() {
+        return new CpuLoadSlot();
+    }
+
+    private static class CpuLoadSlot extends Slot<SampledCpuLoad> {
+
+        private final PercentageAccumulator jvmCpuLoad = new PercentageAccumulator();
+        private final PercentageAccumulator systemCpuLoad = new PercentageAccumulator();
+
+        @Override
+        protected void reset() {
+            jvmCpuLoad.reset();
+            systemCpuLoad.reset();
+        }
+
+        @Override
+        protected void addValues(AgentStatColumns columns, int index) {
+            jvmCpuLoad.add(columns.getColumn(CpuLoadCodecV2.JVM_CPU_LOAD_COLUMN)[index]);
+            systemCpuLoad.add(columns.getColumn(CpuLoadCodecV2.SYSTEM_CPU_LOAD_COLUMN)[index]);
+        }
+
+        @Override
+        protected SampledCpuLoad sample(long timestamp) {
+            return new SampledCpuLoad(jvmCpuLoad.createPoint(timestamp), systemCpuLoad.createPoint(timestamp));
+        }
+    }
+
+    /**
+     * Computes min, max, avg and sum the way {@link com.navercorp.pinpoint.web.vo.stat.chart.DownSamplers} does.
+     */
+    private static class PercentageAccumulator {
+
+        private int count;
+        private double min;
+        private double max;
+        private double avg;
+        private double sum;
+
+        private void reset() {
+            count = 0;
+            min = 0;
+            max = 0;
+            avg = 0;
+            sum = 0;
+        }
+
+        private void add(long encodedValue) {
+            final double value = AgentStatUtils.convertLongToDouble(encodedValue);
+            if (value == CpuLoadBo.UNCOLLECTED_VALUE) {
+                return;
+            }
+            final double percentage = value * 100;
+            if (count == 0) {
+                min = percentage;
+                max = percentage;
+            } else {
+                min = Math.min(min, percentage);
+                max = Math.max(max, percentage);
+            }
+            count++;
+            avg += (percentage - avg) / count;
+            sum += percentage;
+        }
+
+        private AgentStatPoint<Double> createPoint(long timestamp) {
+            if (count == 0) {
+                return SampledCpuLoad.UNCOLLECTED_POINT_CREATOR.createUnCollectedPoint(timestamp);
+            }
+            return new AgentStatPoint<>(
+                    timestamp,
+                    roundToScale(min),
+                    roundToScale(max),
+                    roundToScale(avg),
+                    sum);
+        }
+
+        private static double roundToScale(double value) {
+            return BigDecimal.valueOf(value).setScale(NUM_DECIMAL_PLACES, RoundingMode.HALF_UP).doubleValue();
+        }
+    }
+}
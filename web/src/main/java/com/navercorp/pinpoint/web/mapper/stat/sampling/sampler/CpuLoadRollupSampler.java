@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollups;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.RollupValue;
+import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
+import com.navercorp.pinpoint.web.vo.stat.chart.agent.AgentStatPoint;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rollup counterpart of {@link CpuLoadSampler}.
+ */
+@Component
+public class CpuLoadRollupSampler extends AgentStatRollupSampler<SampledCpuLoad> {
+
+    private static final int NUM_DECIMAL_PLACES = 1;
+
+    @Override
+    protected SampledCpuLoad sampleSlot(long timestamp, List<AgentStatRollupBo> rollupBos, List<long[]> counterIncrements) {
+        final AgentStatPoint<Double> jvmCpuLoad = createPoint(timestamp, merge(rollupBos, AgentStatRollups.CPU_LOAD_JVM));
+        final AgentStatPoint<Double> systemCpuLoad = createPoint(timestamp, merge(rollupBos, AgentStatRollups.CPU_LOAD_SYSTEM));
+        return new SampledCpuLoad(jvmCpuLoad, systemCpuLoad);
+    }
+
+    private AgentStatPoint<Double> createPoint(long timestamp, RollupValue value) {
+        if (value.isEmpty()) {
+            return SampledCpuLoad.UNCOLLECTED_POINT_CREATOR.createUnCollectedPoint(timestamp);
+        }
+        return new AgentStatPoint<>(
+                timestamp,
+                roundToScale(value.getMin() * 100, NUM_DECIMAL_PLACES),
+                roundToScale(value.getMax() * 100, NUM_DECIMAL_PLACES),
+                roundToScale(value.getAvg() * 100, NUM_DECIMAL_PLACES),
+                value.getSum() * 100);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.JvmGcType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollups;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.RollupValue;
+import com.navercorp.pinpoint.web.vo.stat.SampledJvmGc;
+import com.navercorp.pinpoint.web.vo.stat.chart.agent.AgentStatPoint;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rollup counterpart of {@link JvmGcSampler}.
+ * <p>
+ * The gc old count and time sums of a slot are exact. Their min, max and avg are taken over the increments of each
+ * rollup instead of each data point.
+ */
+@Component
+public class JvmGcRollupSampler extends AgentStatRollupSampler<SampledJvmGc> {
+
+    @Override
+    protected int getCounterSize() {
+        return AgentStatRollups.JVM_GC_COUNTER_SIZE;
+    }
+
+    @Override
+    protected SampledJvmGc sampleSlot(long timestamp, List<AgentStatRollupBo> rollupBos, List<long[]> counterIncrements) {
+        final AgentStatRollupBo lastRollupBo = rollupBos.get(rollupBos.size() - 1);
+
+        final SampledJvmGc sampledJvmGc = new SampledJvmGc();
+        sampledJvmGc.setJvmGcType(JvmGcType.getTypeByCode(lastRollupBo.getSubTypeCode()));
+        sampledJvmGc.setHeapUsed(createPoint(timestamp, merge(rollupBos, AgentStatRollups.JVM_GC_HEAP_USED)));
+        sampledJvmGc.setHeapMax(createPoint(timestamp, merge(rollupBos, AgentStatRollups.JVM_GC_HEAP_MAX)));
+        sampledJvmGc.setNonHeapUsed(createPoint(timestamp, merge(rollupBos, AgentStatRollups.JVM_GC_NON_HEAP_USED)));
+        sampledJvmGc.setNonHeapMax(createPoint(timestamp, merge(rollupBos, AgentStatRollups.JVM_GC_NON_HEAP_MAX)));
+        sampledJvmGc.setGcOldCount(createCounterPoint(timestamp, rollupBos, counterIncrements, AgentStatRollups.JVM_GC_OLD_COUNT));
+        sampledJvmGc.setGcOldTime(createCounterPoint(timestamp, rollupBos, counterIncrements, AgentStatRollups.JVM_GC_OLD_TIME));
+        return sampledJvmGc;
+    }
+
+    private AgentStatPoint<Long> createPoint(long timestamp, RollupValue value) {
+        if (value.isEmpty()) {
+            return SampledJvmGc.UNCOLLECTED_POINT_CREATOR.createUnCollectedPoint(timestamp);
+        }
+        return new AgentStatPoint<>(
+                timestamp,
+                (long) value.getMin(),
+                (long) value.getMax(),
+                roundToScale(value.getAvg(), 0),
+                (long) value.getSum());
+    }
+
+    private AgentStatPoint<Long> createCounterPoint(long timestamp, List<AgentStatRollupBo> rollupBos, List<long[]> counterIncrements, int counterIndex) {
+        final RollupValue value = new RollupValue();
+        for (int i = 0; i < rollupBos.size(); i++) {
+            if (rollupBos.get(i).isCounterCollected(counterIndex)) {
+                value.add(counterIncrements.get(i)[counterIndex]);
+            }
+        }
+        return createPoint(timestamp, value);
+    }
+}
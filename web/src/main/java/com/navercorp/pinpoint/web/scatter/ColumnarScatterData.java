@@ -0,0 +1,347 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.view.ColumnarScatterDataSerializer;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotAgentInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scatter chart dots stored column by column in primitive arrays.
+ * <p>
+ * Same response as {@link ScatterData} without a {@link Dot}, {@link TransactionId} and agentId String per dot:
+ * the agentId and the transactionId prefix (agentId, agentStartTime) are dictionary encoded,
+ * and dots are grouped when the response is written instead of being kept in per group collections.
+ */
+@JsonSerialize(using = ColumnarScatterDataSerializer.class)
+public class ColumnarScatterData {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private final long from;
+    private final long to;
+    private final int xGroupUnitMillis;
+    private final int yGroupUnitMillis;
+
+    private long[] acceptedTimes;
+    private int[] elapsedTimes;
+    // Dot.getSimpleExceptionCode()
+    private byte[] simpleExceptionCodes;
+    private int[] agentIndexes;
+    private long[] transactionSequences;
+    private int size;
+
+    private final Map<DotAgentInfo, Integer> agentIndexMap = new HashMap<>();
+    private final List<DotAgentInfo> agentInfoList = new ArrayList<>();
+    // consecutive dots usually come from the same agent
+    private String lastAgentId;
+    private String lastTransactionAgentId;
+    private long lastTransactionAgentStartTime;
+    private int lastAgentIndex = -1;
+
+    private long oldestAcceptedTime = Long.MAX_VALUE;
+    private long latestAcceptedTime = Long.MIN_VALUE;
+
+    public ColumnarScatterData(long from, long to, int xGroupUnitMillis, int yGroupUnitMillis) {
+        this(from, to, xGroupUnitMillis, yGroupUnitMillis, DEFAULT_CAPACITY);
+    }
+
+    public ColumnarScatterData(long from, long to, int xGroupUnitMillis, int yGroupUnitMillis, int initialCapacity) {
+        if (from <= 0) {
+            throw new IllegalArgumentException("from value must be higher than 0");
+        }
+        if (from > to) {
+            throw new IllegalArgumentException("from value must be lower or equal to to value");
+        }
+        if (xGroupUnitMillis <= 0) {
+            throw new IllegalArgumentException("xGroupUnitMillis must be positive");
+        }
+        if (yGroupUnitMillis <= 0) {
+            throw new IllegalArgumentException("yGroupUnitMillis must be positive");
+        }
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("negative initialCapacity:" + initialCapacity);
+        }
+
+        this.from = from;
+        this.to = to;
+        this.xGroupUnitMillis = xGroupUnitMillis;
+        this.yGroupUnitMillis = yGroupUnitMillis;
+
+        this.acceptedTimes = new long[initialCapacity];
+        this.elapsedTimes = new int[initialCapacity];
+        this.simpleExceptionCodes = new byte[initialCapacity];
+        this.agentIndexes = new int[initialCapacity];
+        this.transactionSequences = new long[initialCapacity];
+    }
+
+    public void addDot(Dot dot) {
+        if (dot == null) {
+            return;
+        }
+        final TransactionId transactionId = dot.getTransactionId();
+        addDot(dot.getAcceptedTime(), dot.getElapsedTime(), dot.getExceptionCode(), dot.getAgentId(),
+                transactionId.getAgentId(), transactionId.getAgentStartTime(), transactionId.getTransactionSequence());
+    }
+
+    public void addDot(long acceptedTime, int elapsedTime, int exceptionCode, String agentId,
+                       String transactionAgentId, long transactionAgentStartTime, long transactionSequence) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        final int agentIndex = getAgentIndex(agentId, transactionAgentId, transactionAgentStartTime);
+        final byte simpleExceptionCode = (byte) (exceptionCode == Dot.EXCEPTION_NONE ? Dot.SUCCESS_STATE : Dot.FAILED_STATE);
+        add(acceptedTime, elapsedTime, simpleExceptionCode, agentIndex, transactionSequence);
+    }
+
+    private void add(long acceptedTime, int elapsedTime, byte simpleExceptionCode, int agentIndex, long transactionSequence) {
+        ensureCapacity(size + 1);
+
+        acceptedTimes[size] = acceptedTime;
+        elapsedTimes[size] = elapsedTime;
+        simpleExceptionCodes[size] = simpleExceptionCode;
+        agentIndexes[size] = agentIndex;
+        transactionSequences[size] = transactionSequence;
+        size++;
+
+        if (oldestAcceptedTime > acceptedTime) {
+            oldestAcceptedTime = acceptedTime;
+        }
+        if (latestAcceptedTime < acceptedTime) {
+            latestAcceptedTime = acceptedTime;
+        }
+    }
+
+    private int getAgentIndex(String agentId, String transactionAgentId, long transactionAgentStartTime) {
+        if (lastAgentIndex != -1 && transactionAgentStartTime == lastTransactionAgentStartTime
+                && agentId.equals(lastAgentId) && equals(transactionAgentId, lastTransactionAgentId)) {
+            return lastAgentIndex;
+        }
+        final int agentIndex = getAgentIndex(new DotAgentInfo(agentId, transactionAgentId, transactionAgentStartTime));
+
+        this.lastAgentId = agentId;
+        this.lastTransactionAgentId = transactionAgentId;
+        this.lastTransactionAgentStartTime = transactionAgentStartTime;
+        this.lastAgentIndex = agentIndex;
+        return agentIndex;
+    }
+
+    private int getAgentIndex(DotAgentInfo dotAgentInfo) {
+        Integer agentIndex = agentIndexMap.get(dotAgentInfo);
+        if (agentIndex == null) {
+            agentIndex = agentInfoList.size();
+            agentIndexMap.put(dotAgentInfo, agentIndex);
+            agentInfoList.add(dotAgentInfo);
+        }
+        return agentIndex;
+    }
+
+    private static boolean equals(String s1, String s2) {
+        return s1 == null ? s2 == null : s1.equals(s2);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        final int capacity = acceptedTimes.length;
+        if (minCapacity <= capacity) {
+            return;
+        }
+        final int newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1)));
+        acceptedTimes = Arrays.copyOf(acceptedTimes, newCapacity);
+        elapsedTimes = Arrays.copyOf(elapsedTimes, newCapacity);
+        simpleExceptionCodes = Arrays.copyOf(simpleExceptionCodes, newCapacity);
+        agentIndexes = Arrays.copyOf(agentIndexes, newCapacity);
+        transactionSequences = Arrays.copyOf(transactionSequences, newCapacity);
+    }
+
+    public void merge(ColumnarScatterData scatterData) {
+        if (scatterData == null) {
+            return;
+        }
+        final List<DotAgentInfo> agentInfoList = scatterData.agentInfoList;
+        final int[] agentIndexMapping = new int[agentInfoList.size()];
+        for (int i = 0; i < agentIndexMapping.length; i++) {
+            agentIndexMapping[i] = getAgentIndex(agentInfoList.get(i));
+        }
+
+        ensureCapacity(size + scatterData.size);
+        for (int i = 0; i < scatterData.size; i++) {
+            add(scatterData.acceptedTimes[i], scatterData.elapsedTimes[i], scatterData.simpleExceptionCodes[i],
+                    agentIndexMapping[scatterData.agentIndexes[i]], scatterData.transactionSequences[i]);
+        }
+    }
+
+    /**
+     * @return dot indexes ordered by accepted time descending, which is also the order of the x coordinates
+     */
+    public int[] getSortedIndexes() {
+        final int[] indexes = newIndexes();
+        IndexSorter.sort(indexes, new IndexSorter.IndexComparator() {
+            @Override
+            public int compare(int index1, int index2) {
+                final int compare = Long.compare(acceptedTimes[index2], acceptedTimes[index1]);
+                if (compare != 0) {
+                    return compare;
+                }
+                return Integer.compare(index1, index2);
+            }
+        });
+        return indexes;
+    }
+
+    /**
+     * Dots sharing the same x, y coordinates and exception code make up a group, like {@link DotGroup}.
+     * The first dot added to a group is its leader and carries the size of the group.
+     *
+     * @return size of the group for leader dots, 0 for the others
+     */
+    public int[] getGroupSizes() {
+        final long[] xCoordinates = new long[size];
+        final int[] yCoordinates = new int[size];
+        for (int i = 0; i < size; i++) {
+            xCoordinates[i] = getXCoordinates(i);
+            yCoordinates[i] = getYCoordinates(i);
+        }
+
+        final int[] indexes = newIndexes();
+        IndexSorter.sort(indexes, new IndexSorter.IndexComparator() {
+            @Override
+            public int compare(int index1, int index2) {
+                int compare = Long.compare(xCoordinates[index1], xCoordinates[index2]);
+                if (compare != 0) {
+                    return compare;
+                }
+                compare = Integer.compare(yCoordinates[index1], yCoordinates[index2]);
+                if (compare != 0) {
+                    return compare;
+                }
+                compare = Byte.compare(simpleExceptionCodes[index1], simpleExceptionCodes[index2]);
+                if (compare != 0) {
+                    return compare;
+                }
+                return Integer.compare(index1, index2);
+            }
+        });
+
+        final int[] groupSizes = new int[size];
+        int groupStart = 0;
+        for (int i = 1; i <= size; i++) {
+            if (i == size || !sameGroup(indexes[groupStart], indexes[i], xCoordinates, yCoordinates)) {
+                groupSizes[indexes[groupStart]] = i - groupStart;
+                groupStart = i;
+            }
+        }
+        return groupSizes;
+    }
+
+    private boolean sameGroup(int index1, int index2, long[] xCoordinates, int[] yCoordinates) {
+        return xCoordinates[index1] == xCoordinates[index2]
+                && yCoordinates[index1] == yCoordinates[index2]
+                && simpleExceptionCodes[index1] == simpleExceptionCodes[index2];
+    }
+
+    private int[] newIndexes() {
+        final int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        return indexes;
+    }
+
+    private long getXCoordinates(int index) {
+        final long acceptedTimeDiff = acceptedTimes[index] - from;
+        final long x = acceptedTimeDiff - (acceptedTimeDiff % xGroupUnitMillis);
+        return Math.max(x, 0L);
+    }
+
+    private int getYCoordinates(int index) {
+        final int elapsedTime = elapsedTimes[index];
+        return elapsedTime - (elapsedTime % yGroupUnitMillis);
+    }
+
+    public long getAcceptedTime(int index) {
+        return acceptedTimes[index];
+    }
+
+    public int getElapsedTime(int index) {
+        return elapsedTimes[index];
+    }
+
+    public int getSimpleExceptionCode(int index) {
+        return simpleExceptionCodes[index];
+    }
+
+    public int getAgentIndex(int index) {
+        return agentIndexes[index];
+    }
+
+    public long getTransactionSequence(int index) {
+        return transactionSequences[index];
+    }
+
+    /**
+     * @return dictionary of agentId and transactionId prefix, in the order of the agent indexes
+     */
+    public List<DotAgentInfo> getAgentInfoList() {
+        return agentInfoList;
+    }
+
+    public int getDotSize() {
+        return size;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public long getOldestAcceptedTime() {
+        if (oldestAcceptedTime == Long.MAX_VALUE) {
+            return -1;
+        }
+        return oldestAcceptedTime;
+    }
+
+    public long getLatestAcceptedTime() {
+        if (latestAcceptedTime == Long.MIN_VALUE) {
+            return -1;
+        }
+        return latestAcceptedTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarScatterData{" +
+                "from=" + from +
+                ", to=" + to +
+                ", xGroupUnitMillis=" + xGroupUnitMillis +
+                ", yGroupUnitMillis=" + yGroupUnitMillis +
+                ", size=" + size +
+                ", agentSize=" + agentInfoList.size() +
+                '}';
+    }
+}
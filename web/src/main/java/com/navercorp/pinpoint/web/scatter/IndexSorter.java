@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+/**
+ * Sorts an int[] of indexes into column arrays without boxing them.
+ */
+final class IndexSorter {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    interface IndexComparator {
+        int compare(int index1, int index2);
+    }
+
+    private IndexSorter() {
+    }
+
+    static void sort(int[] indexes, IndexComparator comparator) {
+        if (indexes == null) {
+            throw new NullPointerException("indexes must not be null");
+        }
+        if (comparator == null) {
+            throw new NullPointerException("comparator must not be null");
+        }
+        quickSort(indexes, 0, indexes.length - 1, comparator);
+    }
+
+    private static void quickSort(int[] indexes, int low, int high, IndexComparator comparator) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            final int pivot = medianOfThree(indexes, low, low + ((high - low) >>> 1), high, comparator);
+            int left = low;
+            int right = high;
+            while (left <= right) {
+                while (comparator.compare(indexes[left], pivot) < 0) {
+                    left++;
+                }
+                while (comparator.compare(indexes[right], pivot) > 0) {
+                    right--;
+                }
+                if (left <= right) {
+                    swap(indexes, left++, right--);
+                }
+            }
+            // recurse into the smaller partition to bound the stack depth
+            if (right - low < high - left) {
+                quickSort(indexes, low, right, comparator);
+                low = left;
+            } else {
+                quickSort(indexes, left, high, comparator);
+                high = right;
+            }
+        }
+        insertionSort(indexes, low, high, comparator);
+    }
+
+    private static int medianOfThree(int[] indexes, int a, int b, int c, IndexComparator comparator) {
+        final int ia = indexes[a];
+        final int ib = indexes[b];
+        final int ic = indexes[c];
+        if (comparator.compare(ia, ib) < 0) {
+            if (comparator.compare(ib, ic) < 0) {
+                return ib;
+            }
+            return comparator.compare(ia, ic) < 0 ? ic : ia;
+        }
+        if (comparator.compare(ia, ic) < 0) {
+            return ia;
+        }
+        return comparator.compare(ib, ic) < 0 ? ic : ib;
+    }
+
+    private static void insertionSort(int[] indexes, int low, int high, IndexComparator comparator) {
+        for (int i = low + 1; i <= high; i++) {
+            final int value = indexes[i];
+            int j = i - 1;
+            while (j >= low && comparator.compare(indexes[j], value) > 0) {
+                indexes[j + 1] = indexes[j];
+                j--;
+            }
+            indexes[j + 1] = value;
+        }
+    }
+
+    private static void swap(int[] indexes, int i, int j) {
+        final int temp = indexes[i];
+        indexes[i] = indexes[j];
+        indexes[j] = temp;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+/**
+ * Number of spans that fell into one cell of the scatter chart grid.
+ */
+public class ScatterTile {
+
+    private final long x;
+    private final int y;
+    private final int agentIndex;
+    private final boolean error;
+
+    private long count;
+
+    public ScatterTile(long x, int y, int agentIndex, boolean error) {
+        this.x = x;
+        this.y = y;
+        this.agentIndex = agentIndex;
+        this.error = error;
+    }
+
+    void increment(long count) {
+        this.count += count;
+    }
+
+    public long getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getAgentIndex() {
+        return agentIndex;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ScatterTile that = (ScatterTile) o;
+
+        if (x != that.x) return false;
+        if (y != that.y) return false;
+        if (agentIndex != that.agentIndex) return false;
+        return error == that.error;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (x ^ (x >>> 32));
+        result = 31 * result + y;
+        result = 31 * result + agentIndex;
+        result = 31 * result + (error ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterTile{" +
+                "x=" + x +
+                ", y=" + y +
+                ", agentIndex=" + agentIndex +
+                ", error=" + error +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.navercorp.pinpoint.common.server.util.ScatterTileUtils;
+import com.navercorp.pinpoint.web.view.ScatterTileDataSerializer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scatter chart drawn from pre-aggregated tiles instead of individual dots.
+ * Tiles are folded into the requested x/y group units the same way {@link ScatterData} groups dots,
+ * with the tile's elapsed bucket plotted at the middle of the bucket.
+ */
+@JsonSerialize(using = ScatterTileDataSerializer.class)
+public class ScatterTileData {
+
+    private final long from;
+    private final long to;
+    private final int xGroupUnitMillis;
+    private final int yGroupUnitMillis;
+
+    private final Map<String, Integer> agentIndexMap = new LinkedHashMap<>();
+    private final Map<ScatterTile, ScatterTile> tileMap = new HashMap<>();
+
+    private long totalCount;
+
+    public ScatterTileData(long from, long to, int xGroupUnitMillis, int yGroupUnitMillis) {
+        if (from <= 0) {
+            throw new IllegalArgumentException("from value must be higher than 0");
+        }
+        if (from > to) {
+            throw new IllegalArgumentException("from value must be lower or equal to to value");
+        }
+        if (xGroupUnitMillis <= 0) {
+            throw new IllegalArgumentException("xGroupUnitMillis must be positive");
+        }
+        if (yGroupUnitMillis <= 0) {
+            throw new IllegalArgumentException("yGroupUnitMillis must be positive");
+        }
+
+        this.from = from;
+        this.to = to;
+        this.xGroupUnitMillis = xGroupUnitMillis;
+        this.yGroupUnitMillis = yGroupUnitMillis;
+    }
+
+    /**
+     * @param tileTime      start time of the tile's time bucket
+     * @param elapsedBucket see {@link ScatterTileUtils#getElapsedBucket(int)}
+     */
+    public void addTile(long tileTime, int elapsedBucket, boolean error, String agentId, long count) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (tileTime + ScatterTileUtils.TIME_BUCKET <= from || tileTime > to) {
+            return;
+        }
+
+        long timeDiff = tileTime - from;
+        long x = timeDiff - (timeDiff % xGroupUnitMillis);
+        if (x < 0) {
+            x = 0L;
+        }
+        final int elapsed = ScatterTileUtils.getElapsedRepresentative(elapsedBucket);
+        final int y = elapsed - (elapsed % yGroupUnitMillis);
+
+        final ScatterTile key = new ScatterTile(x, y, getAgentIndex(agentId), error);
+        ScatterTile tile = tileMap.get(key);
+        if (tile == null) {
+            tile = key;
+            tileMap.put(key, tile);
+        }
+        tile.increment(count);
+        totalCount += count;
+    }
+
+    private int getAgentIndex(String agentId) {
+        Integer index = agentIndexMap.get(agentId);
+        if (index == null) {
+            index = agentIndexMap.size();
+            agentIndexMap.put(agentId, index);
+        }
+        return index;
+    }
+
+    public List<String> getAgentIdList() {
+        return new ArrayList<>(agentIndexMap.keySet());
+    }
+
+    /**
+     * @return tiles ordered by x descending, like {@link ScatterData#getSortedScatterDataMap()}
+     */
+    public List<ScatterTile> getSortedTileList() {
+        final List<ScatterTile> tileList = new ArrayList<>(tileMap.values());
+        Collections.sort(tileList, new Comparator<ScatterTile>() {
+            @Override
+            public int compare(ScatterTile o1, ScatterTile o2) {
+                final int compare = Long.compare(o2.getX(), o1.getX());
+                if (compare != 0) {
+                    return compare;
+                }
+                return Integer.compare(o1.getY(), o2.getY());
+            }
+        });
+        return tileList;
+    }
+
+    public int getTileSize() {
+        return tileMap.size();
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public int getXGroupUnitMillis() {
+        return xGroupUnitMillis;
+    }
+
+    public int getYGroupUnitMillis() {
+        return yGroupUnitMillis;
+    }
+}
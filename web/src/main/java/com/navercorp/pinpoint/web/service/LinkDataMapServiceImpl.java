@@ -17,13 +17,17 @@
 package com.navercorp.pinpoint.web.service;
 
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
-import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
-import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.dao.SampledMapStatisticsCalleeDao;
+import com.navercorp.pinpoint.web.dao.SampledMapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.service.map.LinkDataSlotCache;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+
 /**
  * @author HyunGil Jeong
  */
@@ -31,18 +35,42 @@ import org.springframework.stereotype.Service;
 public class LinkDataMapServiceImpl implements LinkDataMapService {
 
     @Autowired
-    private MapStatisticsCallerDao mapStatisticsCallerDao;
+    private SampledMapStatisticsCallerDao mapStatisticsCallerDao;
 
     @Autowired
-    private MapStatisticsCalleeDao mapStatisticsCalleeDao;
+    private SampledMapStatisticsCalleeDao mapStatisticsCalleeDao;
+
+    @Value("#{pinpointWebProps['web.servermap.cache.enable'] ?: false}")
+    private boolean cacheEnable;
+
+    @Value("#{pinpointWebProps['web.servermap.cache.maxWeight'] ?: 1000000}")
+    private long cacheMaxWeight;
+
+    @Value("#{pinpointWebProps['web.servermap.cache.settleTimeMillis'] ?: 30000}")
+    private long cacheSettleTimeMillis;
+
+    private LinkDataSlotCache linkDataSlotCache;
+
+    @PostConstruct
+    public void init() {
+        if (cacheEnable) {
+            this.linkDataSlotCache = new LinkDataSlotCache(mapStatisticsCallerDao, mapStatisticsCalleeDao, cacheMaxWeight, cacheSettleTimeMillis);
+        }
+    }
 
     @Override
     public LinkDataMap selectCallerLinkDataMap(Application application, Range range) {
+        if (linkDataSlotCache != null) {
+            return linkDataSlotCache.selectCaller(application, range);
+        }
         return mapStatisticsCallerDao.selectCaller(application, range);
     }
 
     @Override
     public LinkDataMap selectCalleeLinkDataMap(Application application, Range range) {
+        if (linkDataSlotCache != null) {
+            return linkDataSlotCache.selectCallee(application, range);
+        }
         return mapStatisticsCalleeDao.selectCallee(application, range);
     }
 }
@@ -26,13 +26,19 @@ import com.navercorp.pinpoint.web.calltree.span.SpanAligner2;
 public class SpanResult {
     private int completeType;
     private CallTreeIterator callTreeIterator;
+    private boolean truncated;
 
     public SpanResult(int completeType, CallTreeIterator callTreeIterator) {
+        this(completeType, callTreeIterator, false);
+    }
+
+    public SpanResult(int completeType, CallTreeIterator callTreeIterator, boolean truncated) {
         if (callTreeIterator == null) {
             throw new NullPointerException("spanAlignList must not be null");
         }
         this.completeType = completeType;
         this.callTreeIterator = callTreeIterator;
+        this.truncated = truncated;
     }
 
     public int getCompleteType() {
@@ -43,6 +49,13 @@ public class SpanResult {
         return callTreeIterator;
     }
 
+    /**
+     * @return true if the spans were read with a cell limit and some of them were left out
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
     public String getCompleteTypeString() {
         switch (completeType) {
             case SpanAligner2.BEST_MATCH:
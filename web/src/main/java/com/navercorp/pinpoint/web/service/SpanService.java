@@ -17,10 +17,22 @@
 package com.navercorp.pinpoint.web.service;
 
 import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
+
+import java.util.List;
 
 /**
  * @author emeroad
  */
 public interface SpanService {
     SpanResult selectSpan(TransactionId transactionId, long selectedSpanHint);
+
+    /**
+     * Same as {@link #selectSpan(TransactionId, long)} but leaves the SQL/API/String metadata ids unresolved.
+     * Resolve them with {@link #populateMetaData(List)} for the part of the call tree that is actually shown.
+     * At most {@code maxCells} span cells are read, see {@link SpanResult#isTruncated()}.
+     */
+    SpanResult selectSpanWithoutMetaData(TransactionId transactionId, long selectedSpanHint, int maxCells);
+
+    void populateMetaData(List<SpanAlign> spanAlignList);
 }
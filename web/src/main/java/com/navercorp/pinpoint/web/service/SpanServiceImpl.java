@@ -43,6 +43,7 @@ import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
 import com.navercorp.pinpoint.web.dao.TraceDao;
 import com.navercorp.pinpoint.web.security.MetaDataFilter;
 import com.navercorp.pinpoint.web.security.MetaDataFilter.MetaData;
+import com.navercorp.pinpoint.web.vo.LimitedSpanResult;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -91,22 +92,39 @@ public class SpanServiceImpl implements SpanService {
         }
 
         final List<SpanBo> spans = traceDao.selectSpan(transactionId);
-        if (CollectionUtils.isEmpty(spans)) {
-            return new SpanResult(SpanAligner2.FAIL_MATCH, new CallTreeIterator(null));
-        }
-
-        final SpanResult result = order(spans, selectedSpanHint);
+        final SpanResult result = order(spans, selectedSpanHint, false);
         final CallTreeIterator callTreeIterator = result.getCallTree();
+        if (callTreeIterator.isEmpty()) {
+            return result;
+        }
         final List<SpanAlign> values = callTreeIterator.values();
-        
-        transitionDynamicApiId(values);
-        transitionSqlId(values);
-        transitionCachedString(values);
-        transitionException(values);
+
+        populateMetaData(values);
         // TODO need to at least show the row data when root span is not found. 
         return result;
     }
 
+    @Override
+    public SpanResult selectSpanWithoutMetaData(TransactionId transactionId, long selectedSpanHint, int maxCells) {
+        if (transactionId == null) {
+            throw new NullPointerException("transactionId must not be null");
+        }
+
+        final LimitedSpanResult limitedSpanResult = traceDao.selectSpan(transactionId, maxCells);
+        return order(limitedSpanResult.getSpanList(), selectedSpanHint, limitedSpanResult.isTruncated());
+    }
+
+    @Override
+    public void populateMetaData(List<SpanAlign> spanAlignList) {
+        if (spanAlignList == null) {
+            throw new NullPointerException("spanAlignList must not be null");
+        }
+        transitionDynamicApiId(spanAlignList);
+        transitionSqlId(spanAlignList);
+        transitionCachedString(spanAlignList);
+        transitionException(spanAlignList);
+    }
+
 
 
     private void transitionAnnotation(List<SpanAlign> spans, AnnotationReplacementCallback annotationReplacementCallback) {
@@ -401,11 +419,14 @@ public class SpanServiceImpl implements SpanService {
         void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList);
     }
 
-    private SpanResult order(List<SpanBo> spans, long selectedSpanHint) {
+    private SpanResult order(List<SpanBo> spans, long selectedSpanHint, boolean truncated) {
+        if (CollectionUtils.isEmpty(spans)) {
+            return new SpanResult(SpanAligner2.FAIL_MATCH, new CallTreeIterator(null));
+        }
         SpanAligner2 spanAligner = new SpanAligner2(spans, selectedSpanHint);
         final CallTree callTree = spanAligner.sort();
 
-        return new SpanResult(spanAligner.getMatchType(), callTree.iterator());
+        return new SpanResult(spanAligner.getMatchType(), callTree.iterator(), truncated);
     }
 
 }
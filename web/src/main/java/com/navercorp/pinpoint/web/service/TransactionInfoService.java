@@ -20,9 +20,11 @@ import java.util.List;
 
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.calltree.span.CallTreeIterator;
+import com.navercorp.pinpoint.web.calltree.span.CallTreePager;
 import com.navercorp.pinpoint.web.filter.Filter;
 import com.navercorp.pinpoint.web.vo.BusinessTransactions;
 import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.callstacks.RecordPage;
 import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
 
 /**
@@ -31,5 +33,14 @@ import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
 public interface TransactionInfoService {
     RecordSet createRecordSet(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId);
 
+    /**
+     * Creates one page of the call stack. Records are created lazily and metadata is resolved for the page only,
+     * so that transactions with a very large number of span events can be browsed.
+     * The call tree should be selected with {@link SpanService#selectSpanWithoutMetaData}.
+     *
+     * @param firstRecordId first id of the records that are not call tree nodes. ids below the call tree ids are moved after them
+     */
+    RecordPage createRecordPage(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId, CallTreePager pager, int firstRecordId);
+
     BusinessTransactions selectBusinessTransactions(List<TransactionId> traceIds, String applicationName, Range range, Filter filter);
 }
@@ -16,8 +16,12 @@
 
 package com.navercorp.pinpoint.web.service;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
@@ -30,6 +34,8 @@ import com.navercorp.pinpoint.common.trace.LoggingInfo;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.calltree.span.CallTreeIterator;
 import com.navercorp.pinpoint.web.calltree.span.CallTreeNode;
+import com.navercorp.pinpoint.web.calltree.span.CallTreePage;
+import com.navercorp.pinpoint.web.calltree.span.CallTreePager;
 import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
 import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
 import com.navercorp.pinpoint.web.dao.TraceDao;
@@ -40,6 +46,7 @@ import com.navercorp.pinpoint.web.vo.BusinessTransactions;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.callstacks.Record;
 import com.navercorp.pinpoint.web.vo.callstacks.RecordFactory;
+import com.navercorp.pinpoint.web.vo.callstacks.RecordPage;
 import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -74,6 +81,9 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
     @Autowired(required=false)
     private MetaDataFilter metaDataFilter;
 
+    @Autowired
+    private SpanService spanService;
+
     // Temporarily disabled Because We need to solve authentication problem inter system.
     // @Value("#{pinpointWebProps['log.enable'] ?: false}")
     // private boolean logLinkEnable;
@@ -173,6 +183,54 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
         return recordSet;
     }
 
+    @Override
+    public RecordPage createRecordPage(CallTreeIterator callTreeIterator, long focusTimestamp, String agentId, long spanId, CallTreePager pager, int firstRecordId) {
+        if (callTreeIterator == null) {
+            throw new NullPointerException("callTreeIterator must not be null");
+        }
+        if (pager == null) {
+            throw new NullPointerException("pager must not be null");
+        }
+
+        final CallTreePage page = pager.page(callTreeIterator);
+        final List<SpanAlign> spanAlignList = page.getSpanAlignList();
+
+        final RecordSet recordSet = new RecordSet();
+        final SpanAlign viewPointSpanAlign = findViewPoint(spanAlignList, focusTimestamp, agentId, spanId);
+        if (viewPointSpanAlign != null) {
+            recordSet.setAgentId(viewPointSpanAlign.getAgentId());
+            recordSet.setApplicationId(viewPointSpanAlign.getApplicationId());
+
+            final String applicationName = getRpcArgument(viewPointSpanAlign);
+            recordSet.setApplicationName(applicationName);
+            recordSet.setBeginTimestamp(viewPointSpanAlign.getStartTime());
+        }
+
+        final CallTreeNode root = page.getRoot();
+        if (root == null) {
+            recordSet.setStartTime(0);
+            recordSet.setEndTime(0);
+        } else {
+            recordSet.setStartTime(root.getValue().getStartTime());
+            recordSet.setEndTime(root.getValue().getLastTime());
+        }
+        recordSet.setLoggingTransactionInfo(findIsLoggingTransactionInfo(spanAlignList));
+
+        // metadata is resolved for this page only
+        final List<CallTreeNode> nodes = page.getNodes();
+        final List<SpanAlign> pageSpanAlignList = new ArrayList<>(nodes.size());
+        for (CallTreeNode node : nodes) {
+            pageSpanAlignList.add(node.getValue());
+        }
+        spanService.populateMetaData(pageSpanAlignList);
+
+        // the ids of the other records continue from the previous page, call tree ids are never reused
+        final int startId = Math.max(firstRecordId, page.getNodeCount() + 1);
+        final RecordFactory factory = new RecordFactory(annotationKeyMatcherService, registry, annotationKeyRegistryService, true, startId);
+        final Iterator<Record> recordIterator = new RecordIterator(nodes, factory, viewPointSpanAlign);
+        return new RecordPage(recordSet, recordIterator, factory, pager.getOffset(), page.getNextOffset(), page.getNodeCount(), page.getCollapsedIdList());
+    }
+
     private boolean findIsLoggingTransactionInfo(List<SpanAlign> spanAlignList) {
         for (SpanAlign spanAlign : spanAlignList) {
             if (spanAlign.isSpan()) {
@@ -186,24 +244,25 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
     }
 
     private void markFocusRecord(List<Record> recordList, final SpanAlign viewPointTimeSpanAlign) {
-        final String agentId = viewPointTimeSpanAlign.getAgentId();
         for (Record record : recordList) {
-            if (viewPointTimeSpanAlign.getSpanId() == record.getSpanId() && record.getBegin() == viewPointTimeSpanAlign.getStartTime()) {
-                if (agentId == null) {
-                    if (record.getAgent() == null) {
-                        record.setFocused(true);
-                        break;
-                    }
-                } else {
-                    if (record.getAgent() != null && agentId.equals(record.getAgent())) {
-                        record.setFocused(true);
-                        break;
-                    }
-                }
+            if (isFocusRecord(record, viewPointTimeSpanAlign)) {
+                record.setFocused(true);
+                break;
             }
         }
     }
 
+    private boolean isFocusRecord(Record record, final SpanAlign viewPointTimeSpanAlign) {
+        if (viewPointTimeSpanAlign.getSpanId() != record.getSpanId() || record.getBegin() != viewPointTimeSpanAlign.getStartTime()) {
+            return false;
+        }
+        final String agentId = viewPointTimeSpanAlign.getAgentId();
+        if (agentId == null) {
+            return record.getAgent() == null;
+        }
+        return record.getAgent() != null && agentId.equals(record.getAgent());
+    }
+
     // private void addlogLink(RecordSet recordSet) {
     // List<Record> records = recordSet.getRecordList();
     // List<TransactionInfo> transactionInfoes = new LinkedList<TransactionInfo>();
@@ -347,45 +406,94 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
                     logger.warn("Corrupt CallTree found : {}", callTreeIterator.toString());
                     throw new IllegalStateException("CallTree corrupted");
                 }
-                final SpanAlign align = node.getValue();
-
-                if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.API)) {
-                    if (align.isSpan()) {
-                        Record record = metaDataFilter.createRecord(node, factory);
-                        recordList.add(record);
-                    }
-                    continue;
-                }
+                populateNodeRecord(node, factory, recordList);
+            }
 
-                if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.PARAM)) {
-                    metaDataFilter.replaceAnnotationBo(align, MetaData.PARAM);
-                }
+            return recordList;
+        }
 
-                final Record record = factory.get(node);
-                recordList.add(record);
+        private void populateNodeRecord(final CallTreeNode node, final RecordFactory factory, final Collection<Record> records) {
+            final SpanAlign align = node.getValue();
 
-                // add exception record.
-                if (align.hasException()) {
-                    final Record exceptionRecord = factory.getException(record.getTab() + 1, record.getId(), align);
-                    if(exceptionRecord != null) {
-                        recordList.add(exceptionRecord);
-                    }
+            if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.API)) {
+                if (align.isSpan()) {
+                    Record record = metaDataFilter.createRecord(node, factory);
+                    records.add(record);
                 }
+                return;
+            }
+
+            if (metaDataFilter != null && metaDataFilter.filter(align, MetaData.PARAM)) {
+                metaDataFilter.replaceAnnotationBo(align, MetaData.PARAM);
+            }
+
+            final Record record = factory.get(node);
+            records.add(record);
 
-                // add annotation record.
-                if (!align.getAnnotationBoList().isEmpty()) {
-                    final List<Record> annotations = factory.getAnnotations(record.getTab() + 1, record.getId(), align);
-                    recordList.addAll(annotations);
+            // add exception record.
+            if (align.hasException()) {
+                final Record exceptionRecord = factory.getException(record.getTab() + 1, record.getId(), align);
+                if(exceptionRecord != null) {
+                    records.add(exceptionRecord);
                 }
+            }
+
+            // add annotation record.
+            if (!align.getAnnotationBoList().isEmpty()) {
+                final List<Record> annotations = factory.getAnnotations(record.getTab() + 1, record.getId(), align);
+                records.addAll(annotations);
+            }
+
+            // add remote record.(span only)
+            if (align.getRemoteAddr() != null) {
+                final Record remoteAddressRecord = factory.getParameter(record.getTab() + 1, record.getId(), "REMOTE_ADDRESS", align.getRemoteAddr());
+                records.add(remoteAddressRecord);
+            }
+        }
+    }
 
-                // add remote record.(span only)
-                if (align.getRemoteAddr() != null) {
-                    final Record remoteAddressRecord = factory.getParameter(record.getTab() + 1, record.getId(), "REMOTE_ADDRESS", align.getRemoteAddr());
-                    recordList.add(remoteAddressRecord);
+    /**
+     * Creates the records of one call tree node at a time, while the records are being written out.
+     */
+    private class RecordIterator implements Iterator<Record> {
+        private final Iterator<CallTreeNode> nodes;
+        private final RecordFactory factory;
+        private final SpanAlignPopulate spanAlignPopulate = new SpanAlignPopulate();
+        private final ArrayDeque<Record> buffer = new ArrayDeque<>();
+        private SpanAlign viewPointSpanAlign;
+
+        private RecordIterator(List<CallTreeNode> nodes, RecordFactory factory, SpanAlign viewPointSpanAlign) {
+            this.nodes = nodes.iterator();
+            this.factory = factory;
+            this.viewPointSpanAlign = viewPointSpanAlign;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (buffer.isEmpty() && nodes.hasNext()) {
+                final CallTreeNode node = nodes.next();
+                spanAlignPopulate.populateNodeRecord(node, factory, buffer);
+                final Record record = buffer.peekFirst();
+                if (viewPointSpanAlign != null && record != null && isFocusRecord(record, viewPointSpanAlign)) {
+                    record.setFocused(true);
+                    // only the first match is focused
+                    viewPointSpanAlign = null;
                 }
             }
+            return !buffer.isEmpty();
+        }
 
-            return recordList;
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.pollFirst();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
         }
     }
 }
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.service.map;
 
 import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import com.navercorp.pinpoint.web.security.ServerMapDataFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,7 +27,10 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PreDestroy;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author HyunGil Jeong
@@ -40,26 +44,56 @@ public class ApplicationsMapCreatorFactory {
 
     private final ExecutorService executorService;
 
+    private final ForkJoinPool forkJoinPool;
+
+    private final int forkJoinMaxRequests;
+
+    private final long forkJoinTimeoutMillis;
+
+    public ApplicationsMapCreatorFactory(String mode, int threadCount) {
+        this(mode, threadCount, 10000, 60000);
+    }
+
     @Autowired
     public ApplicationsMapCreatorFactory(
             @Value("#{pinpointWebProps['web.servermap.creator.mode'] ?: 'serial'}") String mode,
-            @Value("#{pinpointWebProps['web.servermap.creator.parallel.maxthreads'] ?: '16'}") int threadCount) {
+            @Value("#{pinpointWebProps['web.servermap.creator.parallel.maxthreads'] ?: '16'}") int threadCount,
+            @Value("#{pinpointWebProps['web.servermap.creator.forkjoin.maxrequests'] ?: '10000'}") int forkJoinMaxRequests,
+            @Value("#{pinpointWebProps['web.servermap.creator.forkjoin.timeoutmillis'] ?: '60000'}") long forkJoinTimeoutMillis) {
         logger.info("ApplicationsMapCreatorFactory mode : {}", mode);
         this.mode = mode;
         if (this.mode.equalsIgnoreCase("parallel")) {
             this.executorService = Executors.newFixedThreadPool(threadCount, new PinpointThreadFactory("Pinpoint-parallel-link-selector", true));
+            this.forkJoinPool = null;
+        } else if (this.mode.equalsIgnoreCase("forkjoin")) {
+            // asyncMode : forked tasks are run in FIFO order, which finds the shortest depth of an application first
+            this.forkJoinPool = new ForkJoinPool(threadCount, new LinkSelectorThreadFactory("Pinpoint-forkjoin-link-selector"), null, true);
+            this.executorService = forkJoinPool;
         } else {
             this.executorService = null;
+            this.forkJoinPool = null;
         }
+        this.forkJoinMaxRequests = forkJoinMaxRequests;
+        this.forkJoinTimeoutMillis = forkJoinTimeoutMillis;
     }
 
     public ApplicationsMapCreator create(ApplicationMapCreator applicationMapCreator) {
-        if (mode.equalsIgnoreCase("parallel")) {
+        if (executorService != null) {
             return new ParallelApplicationsMapCreator(applicationMapCreator, executorService);
         }
         return new SerialApplicationsMapCreator(applicationMapCreator);
     }
 
+    /**
+     * @return bidirectional link selector searching every application as soon as it is found, or {@code null} if not in forkjoin mode
+     */
+    public LinkSelector createForkJoinLinkSelector(ApplicationMapCreator applicationMapCreator, VirtualLinkHandler virtualLinkHandler, ServerMapDataFilter serverMapDataFilter) {
+        if (forkJoinPool == null) {
+            return null;
+        }
+        return new ForkJoinLinkSelector(applicationMapCreator, virtualLinkHandler, serverMapDataFilter, forkJoinPool, forkJoinMaxRequests, forkJoinTimeoutMillis);
+    }
+
     @PreDestroy
     public void preDestroy() {
         if (executorService != null) {
@@ -71,4 +105,21 @@ public class ApplicationsMapCreatorFactory {
             }
         }
     }
+
+    private static class LinkSelectorThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final String threadName;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private LinkSelectorThreadFactory(String threadName) {
+            this.threadName = threadName;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadName + "(" + threadNumber.getAndIncrement() + ")");
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.map;
+
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
+import com.navercorp.pinpoint.web.security.ServerMapDataFilter;
+import com.navercorp.pinpoint.web.service.SearchDepth;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bidirectional link search without a barrier between depths.
+ * <p>
+ * Every discovered application is searched by its own fork-join task, forked as soon as the application is found,
+ * so a hub application with hundreds of links no longer holds back the other applications of its depth.
+ * An application is searched at the shortest depth it has been found at so far. When a shorter path is found later,
+ * the links already read are expanded again at the new depth, so the selected links are the same as
+ * {@link BidirectionalLinkSelector}'s. Caller/callee link data of an application is still read only once,
+ * as {@link LinkVisitChecker} is shared by all tasks.
+ * <p>
+ * A search stops early once it has used {@code maxRequests} link data requests or after {@code timeoutMillis},
+ * and returns the links found so far. Tasks not yet started at the timeout are cancelled, tasks still reading
+ * link data have their results discarded, and only the visits of returned results are handed to
+ * {@link VirtualLinkHandler}. Link data is read on the pool's workers, so the parallelism of the shared pool
+ * bounds the link data requests of every search. A failing task fails the whole search.
+ */
+public class ForkJoinLinkSelector implements LinkSelector {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ApplicationMapCreator applicationMapCreator;
+
+    private final VirtualLinkHandler virtualLinkHandler;
+
+    private final ServerMapDataFilter serverMapDataFilter;
+
+    private final ForkJoinPool forkJoinPool;
+
+    private final int maxRequests;
+
+    private final long timeoutMillis;
+
+    private final LinkVisitChecker linkVisitChecker = new LinkVisitChecker();
+
+    ForkJoinLinkSelector(
+            ApplicationMapCreator applicationMapCreator,
+            VirtualLinkHandler virtualLinkHandler,
+            ServerMapDataFilter serverMapDataFilter,
+            ForkJoinPool forkJoinPool,
+            int maxRequests,
+            long timeoutMillis) {
+        if (applicationMapCreator == null) {
+            throw new NullPointerException("applicationMapCreator must not be null");
+        }
+        if (virtualLinkHandler == null) {
+            throw new NullPointerException("virtualLinkHandler must not be null");
+        }
+        if (forkJoinPool == null) {
+            throw new NullPointerException("forkJoinPool must not be null");
+        }
+        if (maxRequests <= 0) {
+            throw new IllegalArgumentException("maxRequests must be positive");
+        }
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("timeoutMillis must be positive");
+        }
+        this.applicationMapCreator = applicationMapCreator;
+        this.virtualLinkHandler = virtualLinkHandler;
+        this.serverMapDataFilter = serverMapDataFilter;
+        this.forkJoinPool = forkJoinPool;
+        this.maxRequests = maxRequests;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public LinkDataDuplexMap select(List<Application> sourceApplications, Range range, int callerSearchDepth, int calleeSearchDepth) {
+        logger.debug("Creating link data map for {}", sourceApplications);
+        final Search search = new Search(range, new SearchDepth(callerSearchDepth), new SearchDepth(calleeSearchDepth));
+
+        logger.info("fork-join search start. callerDepth:{}, calleeDepth:{}, nodes:{}", callerSearchDepth, calleeSearchDepth, sourceApplications);
+        for (Application application : filterApplications(sourceApplications)) {
+            search.discover(application, 0);
+        }
+        search.await();
+        final List<LinkDataDuplexMap> searchResults = search.close();
+        final Throwable failure = search.failure;
+        if (failure != null) {
+            throw new RuntimeException("link search failed. nodes:" + sourceApplications, failure);
+        }
+        logger.info("fork-join search end. applications:{}, requests:{}", search.states.size(), maxRequests - search.remainingRequests.get());
+
+        LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
+        for (LinkDataDuplexMap searchResult : searchResults) {
+            linkDataDuplexMap.addLinkDataDuplexMap(searchResult);
+        }
+        return virtualLinkHandler.processVirtualLinks(linkDataDuplexMap, linkVisitChecker, range);
+    }
+
+    private List<Application> filterApplications(List<Application> applications) {
+        if (serverMapDataFilter == null) {
+            return applications;
+        }
+        List<Application> filteredApplications = new ArrayList<>();
+        for (Application application : applications) {
+            if (!serverMapDataFilter.filter(application)) {
+                filteredApplications.add(application);
+            }
+        }
+        return filteredApplications;
+    }
+
+    private class Search {
+
+        private final Range range;
+        private final SearchDepth[] callerDepths;
+        private final SearchDepth[] calleeDepths;
+
+        private final ConcurrentMap<Application, SearchState> states = new ConcurrentHashMap<>();
+        // visits of every task, including those whose results are discarded
+        private final LinkVisitChecker searchVisitChecker = new LinkVisitChecker();
+        private final AtomicInteger remainingRequests = new AtomicInteger(maxRequests);
+
+        private final Object resultLock = new Object();
+        // guarded by resultLock
+        private final List<LinkDataDuplexMap> searchResults = new ArrayList<>();
+        // guarded by resultLock
+        private boolean closed = false;
+
+        // one for the thread discovering the source applications
+        private final AtomicInteger pendingTasks = new AtomicInteger(1);
+        private final CountDownLatch completeLatch = new CountDownLatch(1);
+        private final Set<SearchTask> forkedTasks = Collections.newSetFromMap(new ConcurrentHashMap<SearchTask, Boolean>());
+        private volatile boolean stopped = false;
+        private volatile Throwable failure;
+
+        private Search(Range range, SearchDepth callerDepth, SearchDepth calleeDepth) {
+            this.range = range;
+            // nothing is searched at or beyond the deeper of the two limits
+            final int maxDepth = Math.max(callerDepth.getLimit(), calleeDepth.getLimit());
+            this.callerDepths = new SearchDepth[maxDepth];
+            this.calleeDepths = new SearchDepth[maxDepth];
+            for (int depth = 0; depth < maxDepth; depth++) {
+                callerDepths[depth] = callerDepth;
+                calleeDepths[depth] = calleeDepth;
+                callerDepth = callerDepth.nextDepth();
+                calleeDepth = calleeDepth.nextDepth();
+            }
+        }
+
+        private void discover(Application application, int depth) {
+            if (stopped || depth >= callerDepths.length) {
+                return;
+            }
+            SearchState state = states.get(application);
+            if (state == null) {
+                final SearchState newState = new SearchState();
+                state = states.putIfAbsent(application, newState);
+                if (state == null) {
+                    state = newState;
+                }
+            }
+            if (!state.updateDepth(depth)) {
+                return;
+            }
+            pendingTasks.incrementAndGet();
+            final SearchTask task = new SearchTask(this, application, state, depth);
+            forkedTasks.add(task);
+            if (ForkJoinTask.getPool() == forkJoinPool) {
+                task.fork();
+            } else {
+                forkJoinPool.execute(task);
+            }
+        }
+
+        private void search(Application application, SearchState state, int depth) {
+            final List<Application> nextApplications;
+            synchronized (state) {
+                if (stopped || state.depth.get() < depth) {
+                    // found again at a shorter depth, the newer task takes over
+                    return;
+                }
+                final SearchDepth callerDepth = callerDepths[depth];
+                final SearchDepth calleeDepth = calleeDepths[depth];
+                int requests = 0;
+                final boolean callerVisited = searchVisitChecker.isVisitedCaller(application);
+                final boolean calleeVisited = searchVisitChecker.isVisitedCallee(application);
+                if (!callerDepth.isDepthOverflow() && !callerVisited) {
+                    requests++;
+                }
+                if (!calleeDepth.isDepthOverflow() && !calleeVisited) {
+                    requests++;
+                }
+                if (requests > 0 && remainingRequests.addAndGet(-requests) < 0) {
+                    logger.warn("link data request budget exhausted. maxRequests:{}, applications:{}", maxRequests, states.size());
+                    stopped = true;
+                    return;
+                }
+
+                final LinkSelectContext linkSelectContext = new LinkSelectContext(range, callerDepth, calleeDepth, searchVisitChecker);
+                final LinkDataDuplexMap searchResult = applicationMapCreator.createMap(application, linkSelectContext);
+                // tasks of an application run one at a time, so the visits of this application are this task's
+                final boolean callerSearched = !callerVisited && searchVisitChecker.isVisitedCaller(application);
+                final boolean calleeSearched = !calleeVisited && searchVisitChecker.isVisitedCallee(application);
+                if (!addResult(application, searchResult, callerSearched, calleeSearched)) {
+                    return;
+                }
+                state.nextApplications.addAll(linkSelectContext.getNextApplications());
+                nextApplications = new ArrayList<>(state.nextApplications);
+            }
+            for (Application nextApplication : filterApplications(nextApplications)) {
+                discover(nextApplication, depth + 1);
+            }
+        }
+
+        private boolean addResult(Application application, LinkDataDuplexMap searchResult, boolean callerSearched, boolean calleeSearched) {
+            synchronized (resultLock) {
+                if (closed) {
+                    // timed out, the links found so far are already being processed
+                    return false;
+                }
+                if (searchResult.size() > 0) {
+                    searchResults.add(searchResult);
+                }
+                if (callerSearched) {
+                    linkVisitChecker.visitCaller(application);
+                }
+                if (calleeSearched) {
+                    linkVisitChecker.visitCallee(application);
+                }
+                return true;
+            }
+        }
+
+        private List<LinkDataDuplexMap> close() {
+            final List<LinkDataDuplexMap> results;
+            synchronized (resultLock) {
+                stopped = true;
+                closed = true;
+                results = new ArrayList<>(searchResults);
+            }
+            // tasks still reading link data finish on their own, their results are discarded by addResult
+            for (SearchTask task : forkedTasks) {
+                task.cancel(false);
+            }
+            return results;
+        }
+
+        private void fail(Application application, Throwable th) {
+            logger.error("Error selecting link of {}", application, th);
+            if (failure == null) {
+                failure = th;
+            }
+            stopped = true;
+        }
+
+        private void complete(SearchTask task) {
+            forkedTasks.remove(task);
+            complete();
+        }
+
+        private void complete() {
+            if (pendingTasks.decrementAndGet() == 0) {
+                completeLatch.countDown();
+            }
+        }
+
+        private void await() {
+            complete();
+            try {
+                if (!completeLatch.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    logger.warn("link search timed out. timeoutMillis:{}, applications:{}", timeoutMillis, states.size());
+                    stopped = true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopped = true;
+            }
+        }
+    }
+
+    private static class SearchState {
+        // shortest depth found so far
+        private final AtomicInteger depth = new AtomicInteger(Integer.MAX_VALUE);
+        // guarded by this
+        private final Set<Application> nextApplications = new HashSet<>();
+
+        private boolean updateDepth(int newDepth) {
+            while (true) {
+                final int current = depth.get();
+                if (newDepth >= current) {
+                    return false;
+                }
+                if (depth.compareAndSet(current, newDepth)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private class SearchTask extends RecursiveAction {
+
+        private final Search search;
+        private final Application application;
+        private final SearchState state;
+        private final int depth;
+
+        private SearchTask(Search search, Application application, SearchState state, int depth) {
+            this.search = search;
+            this.application = application;
+            this.state = state;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                search.search(application, state, depth);
+            } catch (Exception e) {
+                search.fail(application, e);
+            } finally {
+                search.complete(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.map;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkCallData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkCallDataMap;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.dao.SampledMapStatisticsCalleeDao;
+import com.navercorp.pinpoint.web.dao.SampledMapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.util.TimeSlotCacheTemplate;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.util.TimeWindowOneMinuteSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches the caller/callee link data of an application one statistics time slot (one minute) at a time.
+ * <p>
+ * Slots found in the cache are merged as they are, and each run of consecutive missing slots is read from HBase
+ * with a single scan, see {@link TimeSlotCacheTemplate}.
+ * <p>
+ * The link data of an application does not depend on the search depth of the map, so an entry is shared by
+ * every map that contains the application. Entries are evicted in LRU order once the number of cached
+ * histograms exceeds {@code maximumWeight}.
+ */
+public class LinkDataSlotCache {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final SampledMapStatisticsCallerDao mapStatisticsCallerDao;
+    private final SampledMapStatisticsCalleeDao mapStatisticsCalleeDao;
+
+    private final TimeSlotCacheTemplate timeSlotCacheTemplate;
+
+    private final Cache<SlotKey, LinkDataMap> cache;
+
+    public LinkDataSlotCache(SampledMapStatisticsCallerDao mapStatisticsCallerDao, SampledMapStatisticsCalleeDao mapStatisticsCalleeDao, long maximumWeight, long settleTimeMillis) {
+        if (mapStatisticsCallerDao == null) {
+            throw new NullPointerException("mapStatisticsCallerDao must not be null");
+        }
+        if (mapStatisticsCalleeDao == null) {
+            throw new NullPointerException("mapStatisticsCalleeDao must not be null");
+        }
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+        this.mapStatisticsCallerDao = mapStatisticsCallerDao;
+        this.mapStatisticsCalleeDao = mapStatisticsCalleeDao;
+        this.timeSlotCacheTemplate = new TimeSlotCacheTemplate(settleTimeMillis);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher(new LinkDataMapWeigher())
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .build();
+    }
+
+    public LinkDataMap selectCaller(Application application, Range range) {
+        return select(Direction.CALLER, application, range, System.currentTimeMillis());
+    }
+
+    public LinkDataMap selectCallee(Application application, Range range) {
+        return select(Direction.CALLEE, application, range, System.currentTimeMillis());
+    }
+
+    LinkDataMap select(final Direction direction, final Application application, Range range, long currentTimeMillis) {
+        if (application == null) {
+            throw new NullPointerException("application must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        final SlotCallback slotCallback = new SlotCallback(direction, application);
+        final Map<Long, LinkDataMap> slotData = timeSlotCacheTemplate.read(range, currentTimeMillis, slotCallback);
+
+        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+        final LinkDataMap result = new LinkDataMap(timeWindow);
+        for (LinkDataMap slotLinkDataMap : slotData.values()) {
+            result.addLinkDataMap(slotLinkDataMap);
+        }
+
+        if (logger.isDebugEnabled()) {
+            final long slotCount = (TimeSlotCacheTemplate.toSlot(range.getTo()) - TimeSlotCacheTemplate.toSlot(range.getFrom())) / TimeSlotCacheTemplate.SLOT_SIZE + 1;
+            logger.debug("{} link data {}, cached slots:{}/{}", direction, application, slotCallback.hitCount, slotCount);
+        }
+        return result;
+    }
+
+    public static Map<Long, LinkDataMap> splitBySlot(LinkDataMap linkDataMap) {
+        final Map<Long, LinkDataMap> slotMap = new HashMap<>();
+        for (LinkData linkData : linkDataMap.getLinkDataList()) {
+            for (LinkCallData linkCallData : linkData.getLinkCallDataMap().getLinkDataList()) {
+                for (TimeHistogram timeHistogram : linkCallData.getTimeHistogram()) {
+                    final long slot = TimeSlotCacheTemplate.toSlot(timeHistogram.getTimeStamp());
+                    LinkDataMap slotLinkDataMap = slotMap.get(slot);
+                    if (slotLinkDataMap == null) {
+                        slotLinkDataMap = new LinkDataMap();
+                        slotMap.put(slot, slotLinkDataMap);
+                    }
+                    final LinkData slotLinkData = new LinkData(linkData.getFromApplication(), linkData.getToApplication());
+                    slotLinkData.getLinkCallDataMap().addCallData(linkCallData.getSource(), linkCallData.getSourceServiceType(),
+                            linkCallData.getTarget(), linkCallData.getTargetServiceType(), Collections.singletonList(timeHistogram));
+                    slotLinkDataMap.addLinkData(slotLinkData);
+                }
+            }
+        }
+        return slotMap;
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    enum Direction {
+        CALLER,
+        CALLEE
+    }
+
+    private class SlotCallback implements TimeSlotCacheTemplate.SlotCallback<LinkDataMap> {
+        private final Direction direction;
+        private final Application application;
+        private int hitCount;
+
+        private SlotCallback(Direction direction, Application application) {
+            this.direction = direction;
+            this.application = application;
+        }
+
+        @Override
+        public boolean getCached(long slot, Map<Long, LinkDataMap> slotData) {
+            final LinkDataMap cached = cache.getIfPresent(new SlotKey(direction, application, slot));
+            if (cached == null) {
+                return false;
+            }
+            hitCount++;
+            slotData.put(slot, cached);
+            return true;
+        }
+
+        @Override
+        public Map<Long, LinkDataMap> load(Range range) {
+            final LinkDataMap linkDataMap;
+            if (direction == Direction.CALLER) {
+                linkDataMap = mapStatisticsCallerDao.selectCaller(application, range, TimeWindowOneMinuteSampler.SAMPLER);
+            } else {
+                linkDataMap = mapStatisticsCalleeDao.selectCallee(application, range, TimeWindowOneMinuteSampler.SAMPLER);
+            }
+            return splitBySlot(linkDataMap);
+        }
+
+        @Override
+        public void cache(long slot, LinkDataMap slotLinkDataMap) {
+            if (slotLinkDataMap == null) {
+                // remember empty slots as well
+                slotLinkDataMap = new LinkDataMap();
+            }
+            cache.put(new SlotKey(direction, application, slot), slotLinkDataMap);
+        }
+    }
+
+    private static class LinkDataMapWeigher implements Weigher<SlotKey, LinkDataMap> {
+        @Override
+        public int weigh(SlotKey key, LinkDataMap linkDataMap) {
+            int weight = 1;
+            for (LinkData linkData : linkDataMap.getLinkDataList()) {
+                final LinkCallDataMap linkCallDataMap = linkData.getLinkCallDataMap();
+                for (LinkCallData linkCallData : linkCallDataMap.getLinkDataList()) {
+                    weight += linkCallData.getTimeHistogram().size();
+                }
+            }
+            return weight;
+        }
+    }
+
+    private static final class SlotKey {
+        private final Direction direction;
+        private final Application application;
+        private final long slot;
+
+        private SlotKey(Direction direction, Application application, long slot) {
+            this.direction = direction;
+            this.application = application;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SlotKey slotKey = (SlotKey) o;
+
+            if (slot != slotKey.slot) return false;
+            if (direction != slotKey.direction) return false;
+            return application.equals(slotKey.application);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = direction.hashCode();
+            result = 31 * result + application.hashCode();
+            result = 31 * result + (int) (slot ^ (slot >>> 32));
+            return result;
+        }
+    }
+}
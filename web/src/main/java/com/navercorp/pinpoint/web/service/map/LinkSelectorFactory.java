@@ -76,6 +76,13 @@ public class LinkSelectorFactory {
 
         ApplicationMapCreator applicationMapCreator = new DefaultApplicationMapCreator(linkDataMapService, callerLinkDataMapProcessors, calleeLinkDataMapProcessors);
 
+        if (LinkSelectorType.BIDIRECTIONAL == linkSelectorType) {
+            LinkSelector forkJoinLinkSelector = applicationsMapCreatorFactory.createForkJoinLinkSelector(applicationMapCreator, virtualLinkHandler, serverMapDataFilter);
+            if (forkJoinLinkSelector != null) {
+                return forkJoinLinkSelector;
+            }
+        }
+
         ApplicationsMapCreator applicationsMapCreator = applicationsMapCreatorFactory.create(applicationMapCreator);
 
         if (LinkSelectorType.UNIDIRECTIONAL == linkSelectorType) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.util;
+
+import com.navercorp.pinpoint.web.vo.Range;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a range of statistics one time slot (one minute) at a time through a cache.
+ * <p>
+ * Cached slots are taken as they are, and each run of consecutive missing slots is loaded with a single call
+ * whose result is split back into slots. Only slots that ended more than {@code settleTimeMillis} ago are put
+ * into the cache, so the slots still being written by the collector are loaded again on every read.
+ */
+public class TimeSlotCacheTemplate {
+
+    public static final long SLOT_SIZE = TimeUnit.MINUTES.toMillis(1);
+
+    private final long settleTimeMillis;
+
+    public TimeSlotCacheTemplate(long settleTimeMillis) {
+        if (settleTimeMillis < 0) {
+            throw new IllegalArgumentException("settleTimeMillis must not be negative");
+        }
+        this.settleTimeMillis = settleTimeMillis;
+    }
+
+    public static long toSlot(long timestamp) {
+        return (timestamp / SLOT_SIZE) * SLOT_SIZE;
+    }
+
+    /**
+     * @return slot -> data of the slots between the slots of {@code range.from} and {@code range.to} which have data
+     */
+    public <V> NavigableMap<Long, V> read(Range range, long currentTimeMillis, SlotCallback<V> slotCallback) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (slotCallback == null) {
+            throw new NullPointerException("slotCallback must not be null");
+        }
+        final long fromSlot = toSlot(range.getFrom());
+        final long toSlot = toSlot(range.getTo());
+        final long settledSlotLimit = currentTimeMillis - settleTimeMillis;
+
+        final NavigableMap<Long, V> slotData = new TreeMap<>();
+        long missingFrom = -1;
+        for (long slot = fromSlot; slot <= toSlot; slot += SLOT_SIZE) {
+            if (!slotCallback.getCached(slot, slotData)) {
+                if (missingFrom == -1) {
+                    missingFrom = slot;
+                }
+                continue;
+            }
+            if (missingFrom != -1) {
+                load(missingFrom, slot - SLOT_SIZE, settledSlotLimit, slotCallback, slotData);
+                missingFrom = -1;
+            }
+        }
+        if (missingFrom != -1) {
+            load(missingFrom, toSlot, settledSlotLimit, slotCallback, slotData);
+        }
+        return slotData;
+    }
+
+    private <V> void load(long fromSlot, long toSlot, long settledSlotLimit, SlotCallback<V> slotCallback, Map<Long, V> slotData) {
+        final Map<Long, V> loaded = slotCallback.load(new Range(fromSlot, toSlot));
+        for (long slot = fromSlot; slot <= toSlot; slot += SLOT_SIZE) {
+            final V data = loaded.get(slot);
+            if (data != null) {
+                slotData.put(slot, data);
+            }
+            // the collector may still be writing the slots after the limit
+            if (slot + SLOT_SIZE <= settledSlotLimit) {
+                slotCallback.cache(slot, data);
+            }
+        }
+    }
+
+    public interface SlotCallback<V> {
+
+        /**
+         * Puts the data of the slot into {@code slotData} if the slot is cached and has data.
+         *
+         * @return false if the slot is not cached
+         */
+        boolean getCached(long slot, Map<Long, V> slotData);
+
+        /**
+         * @return slot -> data of the slots in the range which have data
+         */
+        Map<Long, V> load(Range range);
+
+        /**
+         * @param data null for a slot without data
+         */
+        void cache(long slot, V data);
+    }
+}
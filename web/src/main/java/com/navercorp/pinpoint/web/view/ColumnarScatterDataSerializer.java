@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.navercorp.pinpoint.web.scatter.ColumnarScatterData;
+import com.navercorp.pinpoint.web.vo.scatter.DotAgentInfo;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the same json as {@link ScatterDataSerializer}, streaming the dots straight from the columns.
+ */
+public class ColumnarScatterDataSerializer extends JsonSerializer<ColumnarScatterData> {
+
+    @Override
+    public void serialize(ColumnarScatterData value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeStartObject();
+
+        writeScatterAgentMetaData(value.getAgentInfoList(), jgen);
+        writeScatterData(value, jgen);
+
+        jgen.writeEndObject();
+    }
+
+    private void writeScatterAgentMetaData(List<DotAgentInfo> agentInfoList, JsonGenerator jgen) throws IOException {
+        jgen.writeObjectFieldStart("metadata");
+        for (int i = 0; i < agentInfoList.size(); i++) {
+            final DotAgentInfo agentInfo = agentInfoList.get(i);
+            jgen.writeArrayFieldStart(String.valueOf(toAgentId(i)));
+            jgen.writeString(agentInfo.getAgentId());
+            jgen.writeString(agentInfo.getTransactionAgentId());
+            jgen.writeNumber(agentInfo.getTransactionAgentStartTime());
+            jgen.writeEndArray();
+        }
+        jgen.writeEndObject();
+    }
+
+    private void writeScatterData(ColumnarScatterData scatterData, JsonGenerator jgen) throws IOException {
+        final int[] groupSizes = scatterData.getGroupSizes();
+        final int[] sortedIndexes = scatterData.getSortedIndexes();
+        final long from = scatterData.getFrom();
+
+        jgen.writeArrayFieldStart("dotList");
+        for (int index : sortedIndexes) {
+            jgen.writeStartArray();
+            jgen.writeNumber(scatterData.getAcceptedTime(index) - from);
+            jgen.writeNumber(scatterData.getElapsedTime(index));
+            jgen.writeNumber(toAgentId(scatterData.getAgentIndex(index)));
+            jgen.writeNumber(scatterData.getTransactionSequence(index));
+            jgen.writeNumber(scatterData.getSimpleExceptionCode(index));
+            jgen.writeNumber(groupSizes[index]);
+            jgen.writeEndArray();
+        }
+        jgen.writeEndArray();
+    }
+
+    // ids of ScatterAgentMetaData start from 1
+    private int toAgentId(int agentIndex) {
+        return agentIndex + 1;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.navercorp.pinpoint.web.scatter.ScatterTile;
+import com.navercorp.pinpoint.web.scatter.ScatterTileData;
+
+import java.io.IOException;
+
+/**
+ * tileList entry : [x, y, agentIndex, error(0|1), count]
+ */
+public class ScatterTileDataSerializer extends JsonSerializer<ScatterTileData> {
+
+    @Override
+    public void serialize(ScatterTileData value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeStartObject();
+
+        jgen.writeNumberField("xGroupUnit", value.getXGroupUnitMillis());
+        jgen.writeNumberField("yGroupUnit", value.getYGroupUnitMillis());
+        jgen.writeNumberField("totalCount", value.getTotalCount());
+        jgen.writeObjectField("agentList", value.getAgentIdList());
+
+        jgen.writeArrayFieldStart("tileList");
+        for (ScatterTile tile : value.getSortedTileList()) {
+            jgen.writeStartArray();
+            jgen.writeNumber(tile.getX());
+            jgen.writeNumber(tile.getY());
+            jgen.writeNumber(tile.getAgentIndex());
+            jgen.writeNumber(tile.isError() ? 1 : 0);
+            jgen.writeNumber(tile.getCount());
+            jgen.writeEndArray();
+        }
+        jgen.writeEndArray();
+
+        jgen.writeEndObject();
+    }
+}
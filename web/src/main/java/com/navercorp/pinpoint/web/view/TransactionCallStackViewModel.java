@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.common.util.TransactionIdUtils;
+import com.navercorp.pinpoint.web.vo.callstacks.Record;
+import com.navercorp.pinpoint.web.vo.callstacks.RecordPage;
+import com.navercorp.pinpoint.web.vo.callstacks.RecordSet;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a call stack. {@code callStack} is written out while the records are being created,
+ * so {@code nextRecordId} is written after it.
+ */
+@JsonPropertyOrder({"applicationName", "transactionId", "agentId", "applicationId", "callStackStart", "callStackEnd", "completeState", "truncated",
+        "loggingTransactionInfo", "offset", "nextOffset", "nodeCount", "collapsedIds", "callStackIndex", "callStack", "nextRecordId"})
+public class TransactionCallStackViewModel {
+
+    private final TransactionId transactionId;
+    private final RecordPage recordPage;
+    private final RecordSet recordSet;
+    private final String completeState;
+    private final boolean truncated;
+
+    public TransactionCallStackViewModel(TransactionId transactionId, RecordPage recordPage, String completeState, boolean truncated) {
+        if (transactionId == null) {
+            throw new NullPointerException("transactionId must not be null");
+        }
+        if (recordPage == null) {
+            throw new NullPointerException("recordPage must not be null");
+        }
+        this.transactionId = transactionId;
+        this.recordPage = recordPage;
+        this.recordSet = recordPage.getRecordSet();
+        this.completeState = completeState;
+        this.truncated = truncated;
+    }
+
+    @JsonProperty("applicationName")
+    public String getApplicationName() {
+        return recordSet.getApplicationName();
+    }
+
+    @JsonProperty("transactionId")
+    public String getTransactionId() {
+        return TransactionIdUtils.formatString(transactionId);
+    }
+
+    @JsonProperty("agentId")
+    public String getAgentId() {
+        return recordSet.getAgentId();
+    }
+
+    @JsonProperty("applicationId")
+    public String getApplicationId() {
+        return recordSet.getApplicationId();
+    }
+
+    @JsonProperty("callStackStart")
+    public long getCallStackStart() {
+        return recordSet.getStartTime();
+    }
+
+    @JsonProperty("callStackEnd")
+    public long getCallStackEnd() {
+        return recordSet.getEndTime();
+    }
+
+    @JsonProperty("completeState")
+    public String getCompleteState() {
+        return completeState;
+    }
+
+    @JsonProperty("truncated")
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @JsonProperty("loggingTransactionInfo")
+    public boolean isLoggingTransactionInfo() {
+        return recordSet.isLoggingTransactionInfo();
+    }
+
+    @JsonProperty("offset")
+    public int getOffset() {
+        return recordPage.getOffset();
+    }
+
+    @JsonProperty("nextOffset")
+    public int getNextOffset() {
+        return recordPage.getNextOffset();
+    }
+
+    @JsonProperty("nodeCount")
+    public int getNodeCount() {
+        return recordPage.getNodeCount();
+    }
+
+    @JsonProperty("collapsedIds")
+    public List<Integer> getCollapsedIds() {
+        return recordPage.getCollapsedIdList();
+    }
+
+    @JsonProperty("callStackIndex")
+    public Map<String, Integer> getCallStackIndex() {
+        return TransactionInfoViewModel.newCallStackIndex();
+    }
+
+    @JsonProperty("callStack")
+    public Iterator<TransactionInfoViewModel.CallStack> getCallStack() {
+        final long elapsed = recordSet.getEndTime() - recordSet.getStartTime();
+        final long barRatio = elapsed > 0 ? 100 / elapsed : 0;
+        final Iterator<Record> recordIterator = recordPage.getRecordIterator();
+        return new Iterator<TransactionInfoViewModel.CallStack>() {
+            @Override
+            public boolean hasNext() {
+                return recordIterator.hasNext();
+            }
+
+            @Override
+            public TransactionInfoViewModel.CallStack next() {
+                return new TransactionInfoViewModel.CallStack(recordIterator.next(), barRatio);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        };
+    }
+
+    @JsonProperty("nextRecordId")
+    public int getNextRecordId() {
+        return recordPage.getNextRecordId();
+    }
+}
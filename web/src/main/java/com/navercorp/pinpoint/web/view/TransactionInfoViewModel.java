@@ -131,6 +131,10 @@ public class TransactionInfoViewModel {
 
     @JsonProperty("callStackIndex")
     public Map<String, Integer> getCallStackIndex() {
+        return newCallStackIndex();
+    }
+
+    static Map<String, Integer> newCallStackIndex() {
         final Map<String, Integer> index = new HashMap<String, Integer>();
         for (int i = 0; i < CallStack.INDEX.length; i++) {
             index.put(CallStack.INDEX[i], i);
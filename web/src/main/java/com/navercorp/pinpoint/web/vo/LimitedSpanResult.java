@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo;
+
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+
+import java.util.List;
+
+/**
+ * Spans of a transaction read with a cell limit.
+ */
+public class LimitedSpanResult {
+
+    private final List<SpanBo> spanList;
+    private final boolean truncated;
+
+    public LimitedSpanResult(List<SpanBo> spanList, boolean truncated) {
+        this.spanList = spanList;
+        this.truncated = truncated;
+    }
+
+    public List<SpanBo> getSpanList() {
+        return spanList;
+    }
+
+    /**
+     * @return true if spans or span events beyond the cell limit were left out
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public String toString() {
+        return "LimitedSpanResult{" +
+                "spanSize=" + (spanList == null ? 0 : spanList.size()) +
+                ", truncated=" + truncated +
+                '}';
+    }
+}
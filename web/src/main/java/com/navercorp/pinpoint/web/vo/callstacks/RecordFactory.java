@@ -47,7 +47,9 @@ public class RecordFactory {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     // spans with id = 0 are regarded as root - start at 1
-    private int idGen = 1;
+    private int idGen;
+    // ids of call tree nodes were set in advance. see CallTreePager
+    private final boolean nodeIdAssigned;
     private AnnotationKeyMatcherService annotationKeyMatcherService;
     private ServiceTypeRegistryService registry;
     private AnnotationKeyRegistryService annotationKeyRegistryService;
@@ -55,6 +57,20 @@ public class RecordFactory {
     private final AnnotationRecordFormatter annotationRecordFormatter;
 
     public RecordFactory(final AnnotationKeyMatcherService annotationKeyMatcherService, final ServiceTypeRegistryService registry, final AnnotationKeyRegistryService annotationKeyRegistryService) {
+        this(annotationKeyMatcherService, registry, annotationKeyRegistryService, false, 1);
+    }
+
+    /**
+     * @param nodeIdAssigned if true, records of call tree nodes keep the id already set in {@link SpanAlign#getId()}
+     * @param startId first id of the records created with a new id
+     */
+    public RecordFactory(final AnnotationKeyMatcherService annotationKeyMatcherService, final ServiceTypeRegistryService registry, final AnnotationKeyRegistryService annotationKeyRegistryService,
+                         final boolean nodeIdAssigned, final int startId) {
+        if (startId <= 0) {
+            throw new IllegalArgumentException("startId must be positive");
+        }
+        this.nodeIdAssigned = nodeIdAssigned;
+        this.idGen = startId;
         this.annotationKeyMatcherService = annotationKeyMatcherService;
         this.registry = registry;
         this.annotationKeyRegistryService = annotationKeyRegistryService;
@@ -63,7 +79,7 @@ public class RecordFactory {
 
     public Record get(final CallTreeNode node) {
         final SpanAlign align = node.getValue();
-        align.setId(getNextId());
+        assignNodeId(align);
 
         final int parentId = getParentId(node);
         Api api = getApi(align);
@@ -143,7 +159,7 @@ public class RecordFactory {
 
     public Record getFilteredRecord(final CallTreeNode node, String apiTitle) {
         final SpanAlign align = node.getValue();
-        align.setId(getNextId());
+        assignNodeId(align);
 
         final int parentId = getParentId(node);
 //        Api api = getApi(align);
@@ -265,10 +281,23 @@ public class RecordFactory {
         return annotationKeyRegistryService.findAnnotationKey(key);
     }
 
+    private void assignNodeId(final SpanAlign align) {
+        if (!nodeIdAssigned) {
+            align.setId(getNextId());
+        }
+    }
+
     private int getNextId() {
         return idGen++;
     }
 
+    /**
+     * @return id of the next record created with a new id
+     */
+    public int peekNextId() {
+        return idGen;
+    }
+
     private static class Api {
         private String title = "";
         private String className = "";
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.callstacks;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * One page of the call stack of a transaction.
+ * <p>
+ * Records are created while they are iterated, so only the records being written out are kept in memory.
+ * {@link #getRecordIterator()} can be iterated only once.
+ * <p>
+ * Ids of call tree records are the depth-first index of the node + 1 and are the same on every page.
+ * Ids of exception, annotation and parameter records start at the requested first id, and never below the last call tree id + 1.
+ * Passing {@link #getNextRecordId()} as the first id of the next request keeps them unique across pages.
+ */
+public class RecordPage {
+
+    private final RecordSet recordSet;
+    private final Iterator<Record> recordIterator;
+    private final RecordFactory recordFactory;
+
+    private final int offset;
+    private final int nextOffset;
+    private final int nodeCount;
+    private final List<Integer> collapsedIdList;
+
+    public RecordPage(RecordSet recordSet, Iterator<Record> recordIterator, RecordFactory recordFactory, int offset, int nextOffset, int nodeCount, List<Integer> collapsedIdList) {
+        if (recordSet == null) {
+            throw new NullPointerException("recordSet must not be null");
+        }
+        if (recordIterator == null) {
+            throw new NullPointerException("recordIterator must not be null");
+        }
+        if (recordFactory == null) {
+            throw new NullPointerException("recordFactory must not be null");
+        }
+        if (collapsedIdList == null) {
+            throw new NullPointerException("collapsedIdList must not be null");
+        }
+        this.recordSet = recordSet;
+        this.recordIterator = recordIterator;
+        this.recordFactory = recordFactory;
+        this.offset = offset;
+        this.nextOffset = nextOffset;
+        this.nodeCount = nodeCount;
+        this.collapsedIdList = collapsedIdList;
+    }
+
+    /**
+     * @return transaction level information. the record list is not set
+     */
+    public RecordSet getRecordSet() {
+        return recordSet;
+    }
+
+    public Iterator<Record> getRecordIterator() {
+        return recordIterator;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return offset of the next page, or -1 if this is the last page
+     */
+    public int getNextOffset() {
+        return nextOffset;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public List<Integer> getCollapsedIdList() {
+        return collapsedIdList;
+    }
+
+    /**
+     * @return first free record id after this page. final only once the records were iterated
+     */
+    public int getNextRecordId() {
+        return recordFactory.peekNextId();
+    }
+}
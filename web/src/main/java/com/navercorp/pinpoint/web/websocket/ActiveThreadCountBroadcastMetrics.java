@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.websocket;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out counters of the active thread count broadcast. A frame is encoded once per application
+ * and sent to every subscribed session, so sent bytes over encoded bytes is the fan-out ratio.
+ */
+public class ActiveThreadCountBroadcastMetrics {
+
+    public enum FrameType {
+        TEXT,
+        BINARY_FULL,
+        BINARY_DELTA
+    }
+
+    private final Counter[] counters;
+
+    public ActiveThreadCountBroadcastMetrics() {
+        final FrameType[] frameTypes = FrameType.values();
+        this.counters = new Counter[frameTypes.length];
+        for (FrameType frameType : frameTypes) {
+            counters[frameType.ordinal()] = new Counter();
+        }
+    }
+
+    public void encoded(FrameType frameType, int bytes) {
+        final Counter counter = counters[frameType.ordinal()];
+        counter.encodedFrames.increment();
+        counter.encodedBytes.add(bytes);
+    }
+
+    public void sent(FrameType frameType, int bytes) {
+        final Counter counter = counters[frameType.ordinal()];
+        counter.sentMessages.increment();
+        counter.sentBytes.add(bytes);
+    }
+
+    public long getEncodedFrames(FrameType frameType) {
+        return counters[frameType.ordinal()].encodedFrames.sum();
+    }
+
+    public long getEncodedBytes(FrameType frameType) {
+        return counters[frameType.ordinal()].encodedBytes.sum();
+    }
+
+    public long getSentMessages(FrameType frameType) {
+        return counters[frameType.ordinal()].sentMessages.sum();
+    }
+
+    public long getSentBytes(FrameType frameType) {
+        return counters[frameType.ordinal()].sentBytes.sum();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ActiveThreadCountBroadcastMetrics{");
+        for (FrameType frameType : FrameType.values()) {
+            if (frameType.ordinal() > 0) {
+                sb.append(", ");
+            }
+            sb.append(frameType).append("={encodedFrames=").append(getEncodedFrames(frameType));
+            sb.append(", encodedBytes=").append(getEncodedBytes(frameType));
+            sb.append(", sentMessages=").append(getSentMessages(frameType));
+            sb.append(", sentBytes=").append(getSentBytes(frameType)).append('}');
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static class Counter {
+        private final LongAdder encodedFrames = new LongAdder();
+        private final LongAdder encodedBytes = new LongAdder();
+        private final LongAdder sentMessages = new LongAdder();
+        private final LongAdder sentBytes = new LongAdder();
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.websocket;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.web.vo.AgentActiveThreadCount;
+
+import java.util.List;
+
+/**
+ * Encodes the active thread counts of an application for the binary sub protocol
+ * ({@link ActiveThreadCountHandler#BINARY_SUB_PROTOCOL}).
+ * <p>
+ * Every frame starts with a header:
+ * <pre>
+ * byte    version (1)
+ * byte    type (1: full, 2: delta)
+ * vint    sequence
+ * vlong   timestamp
+ * </pre>
+ * A full frame carries every agent, sorted by agent id:
+ * <pre>
+ * prefixedString  applicationName
+ * vint            agent count
+ *   prefixedString  agentId
+ *   svint           code
+ *   prefixedString  message
+ *   vint            slot count, followed by a vint per slot
+ * </pre>
+ * A delta frame applies to the frame of the previous sequence and has the same agents in the same order.
+ * Only the agents whose state changed are written:
+ * <pre>
+ * vint            changed agent count
+ *   vint            index gap (index - previous changed index - 1)
+ *   svint           code
+ *   prefixedString  message, only if the code changed
+ *   vint            slot count, followed by an svint per slot : count - previous count (0 if the slot is new)
+ * </pre>
+ * A frame is a key frame, sent as full frame to every session, when it is the first one, when the agents changed,
+ * or every {@code keyFrameInterval} frames. Not thread safe, the aggregator encodes under its lock.
+ */
+public class ActiveThreadCountFrameEncoder {
+
+    static final byte VERSION = 1;
+    static final byte TYPE_FULL = 1;
+    static final byte TYPE_DELTA = 2;
+
+    private static final int DEFAULT_KEY_FRAME_INTERVAL = 60;
+    private static final int[] EMPTY_COUNTS = new int[0];
+
+    private final String applicationName;
+    private final int keyFrameInterval;
+
+    private int sequence = 0;
+    private int framesSinceKeyFrame = 0;
+
+    // state of the previous frame
+    private String[] agentIds;
+    private short[] codes;
+    private int[][] counts;
+
+    public ActiveThreadCountFrameEncoder(String applicationName) {
+        this(applicationName, DEFAULT_KEY_FRAME_INTERVAL);
+    }
+
+    public ActiveThreadCountFrameEncoder(String applicationName, int keyFrameInterval) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (keyFrameInterval <= 0) {
+            throw new IllegalArgumentException("keyFrameInterval must be positive");
+        }
+        this.applicationName = applicationName;
+        this.keyFrameInterval = keyFrameInterval;
+    }
+
+    /**
+     * Forgets the previous frame, the next frame will be a key frame.
+     */
+    public void reset() {
+        this.agentIds = null;
+        this.codes = null;
+        this.counts = null;
+    }
+
+    /**
+     * @param activeThreadCounts sorted by agent id
+     */
+    public Frame encode(long timestamp, List<AgentActiveThreadCount> activeThreadCounts) {
+        if (activeThreadCounts == null) {
+            throw new NullPointerException("activeThreadCounts must not be null");
+        }
+
+        final int frameSequence = ++sequence;
+        final boolean keyFrame = agentIds == null || framesSinceKeyFrame + 1 >= keyFrameInterval || !sameAgents(activeThreadCounts);
+
+        byte[] delta = null;
+        if (keyFrame) {
+            framesSinceKeyFrame = 0;
+        } else {
+            framesSinceKeyFrame++;
+            delta = encodeDelta(frameSequence, timestamp, activeThreadCounts);
+        }
+        updateState(activeThreadCounts);
+        return new Frame(applicationName, frameSequence, timestamp, activeThreadCounts, delta);
+    }
+
+    private boolean sameAgents(List<AgentActiveThreadCount> activeThreadCounts) {
+        if (agentIds.length != activeThreadCounts.size()) {
+            return false;
+        }
+        for (int i = 0; i < agentIds.length; i++) {
+            if (!agentIds[i].equals(activeThreadCounts.get(i).getAgentId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] encodeDelta(int frameSequence, long timestamp, List<AgentActiveThreadCount> activeThreadCounts) {
+        final boolean[] changed = new boolean[agentIds.length];
+        int changedCount = 0;
+        for (int i = 0; i < agentIds.length; i++) {
+            final AgentActiveThreadCount activeThreadCount = activeThreadCounts.get(i);
+            if (codes[i] != activeThreadCount.getCode() || !equalsCounts(counts[i], activeThreadCount.getActiveThreadCountList())) {
+                changed[i] = true;
+                changedCount++;
+            }
+        }
+
+        final Buffer buffer = new AutomaticBuffer(changedCount * 8 + 24);
+        putHeader(buffer, TYPE_DELTA, frameSequence, timestamp);
+        buffer.putVInt(changedCount);
+        int lastIndex = -1;
+        for (int i = 0; i < changed.length; i++) {
+            if (!changed[i]) {
+                continue;
+            }
+            buffer.putVInt(i - lastIndex - 1);
+            lastIndex = i;
+
+            final AgentActiveThreadCount activeThreadCount = activeThreadCounts.get(i);
+            buffer.putSVInt(activeThreadCount.getCode());
+            if (codes[i] != activeThreadCount.getCode()) {
+                buffer.putPrefixedString(activeThreadCount.getCodeMessage());
+            }
+            final int[] previousCounts = counts[i];
+            final List<Integer> currentCounts = activeThreadCount.getActiveThreadCountList();
+            buffer.putVInt(currentCounts.size());
+            for (int slot = 0; slot < currentCounts.size(); slot++) {
+                final int previous = slot < previousCounts.length ? previousCounts[slot] : 0;
+                buffer.putSVInt(currentCounts.get(slot) - previous);
+            }
+        }
+        return buffer.getBuffer();
+    }
+
+    private static boolean equalsCounts(int[] previousCounts, List<Integer> currentCounts) {
+        if (previousCounts.length != currentCounts.size()) {
+            return false;
+        }
+        for (int i = 0; i < previousCounts.length; i++) {
+            if (previousCounts[i] != currentCounts.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void updateState(List<AgentActiveThreadCount> activeThreadCounts) {
+        final int size = activeThreadCounts.size();
+        final String[] newAgentIds = new String[size];
+        final short[] newCodes = new short[size];
+        final int[][] newCounts = new int[size][];
+        for (int i = 0; i < size; i++) {
+            final AgentActiveThreadCount activeThreadCount = activeThreadCounts.get(i);
+            newAgentIds[i] = activeThreadCount.getAgentId();
+            newCodes[i] = activeThreadCount.getCode();
+            newCounts[i] = toArray(activeThreadCount.getActiveThreadCountList());
+        }
+        this.agentIds = newAgentIds;
+        this.codes = newCodes;
+        this.counts = newCounts;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        if (list == null || list.isEmpty()) {
+            return EMPTY_COUNTS;
+        }
+        final int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    private static void putHeader(Buffer buffer, byte type, int frameSequence, long timestamp) {
+        buffer.putByte(VERSION);
+        buffer.putByte(type);
+        buffer.putVInt(frameSequence);
+        buffer.putVLong(timestamp);
+    }
+
+    static byte[] encodeFull(String applicationName, int frameSequence, long timestamp, List<AgentActiveThreadCount> activeThreadCounts) {
+        final Buffer buffer = new AutomaticBuffer(activeThreadCounts.size() * 32 + 64);
+        putHeader(buffer, TYPE_FULL, frameSequence, timestamp);
+        buffer.putPrefixedString(applicationName);
+        buffer.putVInt(activeThreadCounts.size());
+        for (AgentActiveThreadCount activeThreadCount : activeThreadCounts) {
+            buffer.putPrefixedString(activeThreadCount.getAgentId());
+            buffer.putSVInt(activeThreadCount.getCode());
+            buffer.putPrefixedString(activeThreadCount.getCodeMessage());
+            final List<Integer> counts = activeThreadCount.getActiveThreadCountList();
+            buffer.putVInt(counts.size());
+            for (Integer count : counts) {
+                buffer.putVInt(count);
+            }
+        }
+        return buffer.getBuffer();
+    }
+
+    public static class Frame {
+
+        private final String applicationName;
+        private final int sequence;
+        private final long timestamp;
+        private final List<AgentActiveThreadCount> activeThreadCounts;
+        private final byte[] delta;
+        private byte[] full;
+
+        private Frame(String applicationName, int sequence, long timestamp, List<AgentActiveThreadCount> activeThreadCounts, byte[] delta) {
+            this.applicationName = applicationName;
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.activeThreadCounts = activeThreadCounts;
+            this.delta = delta;
+        }
+
+        public int getSequence() {
+            return sequence;
+        }
+
+        public boolean isKeyFrame() {
+            return delta == null;
+        }
+
+        /**
+         * @return null for a key frame
+         */
+        public byte[] getDelta() {
+            return delta;
+        }
+
+        /**
+         * Encoded on first use, only sessions that just subscribed need it between key frames.
+         */
+        public byte[] getFull() {
+            if (full == null) {
+                full = encodeFull(applicationName, sequence, timestamp, activeThreadCounts);
+            }
+            return full;
+        }
+    }
+}
@@ -33,12 +33,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Timer;
@@ -47,12 +49,17 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * Clients negotiating {@link #BINARY_SUB_PROTOCOL} receive the active thread counts as
+ * {@link ActiveThreadCountFrameEncoder binary delta frames}, requests and pings stay json text messages.
+ *
  * @author Taejin Koo
  */
-public class ActiveThreadCountHandler extends TextWebSocketHandler implements PinpointWebSocketHandler {
+public class ActiveThreadCountHandler extends TextWebSocketHandler implements PinpointWebSocketHandler, SubProtocolCapable {
 
     public static final String APPLICATION_NAME_KEY = "applicationName";
 
+    public static final String BINARY_SUB_PROTOCOL = "pinpoint.activethread.delta.v1";
+
     static final String API_ACTIVE_THREAD_COUNT = "activeThreadCount";
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
@@ -62,6 +69,7 @@ public class ActiveThreadCountHandler extends TextWebSocketHandler implements Pi
     private final List<WebSocketSession> sessionRepository = new CopyOnWriteArrayList<>();
     private final Map<String, PinpointWebSocketResponseAggregator> aggregatorRepository = new ConcurrentHashMap<>();
     private final PinpointWebSocketMessageConverter messageConverter = new PinpointWebSocketMessageConverter();
+    private final ActiveThreadCountBroadcastMetrics broadcastMetrics = new ActiveThreadCountBroadcastMetrics();
 
     private static final String DEFAULT_REQUEST_MAPPING = "/agent/activeThread";
     private final String requestMapping;
@@ -102,6 +110,19 @@ public class ActiveThreadCountHandler extends TextWebSocketHandler implements Pi
         this.healthCheckDelay = healthCheckDelay;
     }
 
+    @Override
+    public List<String> getSubProtocols() {
+        return Collections.singletonList(BINARY_SUB_PROTOCOL);
+    }
+
+    static boolean isBinarySession(WebSocketSession webSocketSession) {
+        return BINARY_SUB_PROTOCOL.equals(webSocketSession.getAcceptedProtocol());
+    }
+
+    public ActiveThreadCountBroadcastMetrics getBroadcastMetrics() {
+        return broadcastMetrics;
+    }
+
     @Override
     public void start() {
         PinpointThreadFactory flushThreadFactory = new PinpointThreadFactory(ClassUtils.simpleClassName(this) + "-Flush-Thread", true);
@@ -272,7 +293,7 @@ public class ActiveThreadCountHandler extends TextWebSocketHandler implements Pi
 
         PinpointWebSocketResponseAggregator responseAggregator = aggregatorRepository.get(applicationName);
         if (responseAggregator == null) {
-            responseAggregator = new ActiveThreadCountResponseAggregator(applicationName, agentService, reactiveTimer);
+            responseAggregator = new ActiveThreadCountResponseAggregator(applicationName, agentService, reactiveTimer, broadcastMetrics);
             responseAggregator.start();
             aggregatorRepository.put(applicationName, responseAggregator);
         }
@@ -357,7 +378,7 @@ public class ActiveThreadCountHandler extends TextWebSocketHandler implements Pi
         @Override
         public void run() {
             try {
-                logger.info("HealthCheckTimerTask started.");
+                logger.info("HealthCheckTimerTask started. {}", broadcastMetrics);
 
                 // check session state.
                 List<WebSocketSession> snapshot = filterHealthCheckSuccess(sessionRepository);
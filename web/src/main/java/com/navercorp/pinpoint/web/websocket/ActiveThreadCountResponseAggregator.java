@@ -26,12 +26,15 @@ import com.navercorp.pinpoint.web.vo.AgentStatus;
 import com.navercorp.pinpoint.web.websocket.message.PinpointWebSocketMessageConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Timer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -62,6 +65,12 @@ public class ActiveThreadCountResponseAggregator implements PinpointWebSocketRes
 
     private final Object aggregatorLock = new Object();
     private final PinpointWebSocketMessageConverter messageConverter;
+    // guarded by aggregatorLock
+    private final ActiveThreadCountFrameEncoder frameEncoder;
+    private final ActiveThreadCountBroadcastMetrics broadcastMetrics;
+    // binary sessions waiting for a full frame, new ones and those a frame could not be sent to
+    private final Set<WebSocketSession> fullFrameRequiredSessions = ConcurrentHashMap.newKeySet();
+    private final OrderedWebSocketFlushRunnable.FailureCallback flushFailureCallback = this::onFlushFailure;
 
     private final AtomicInteger flushCount = new AtomicInteger(0);
 
@@ -71,12 +80,21 @@ public class ActiveThreadCountResponseAggregator implements PinpointWebSocketRes
     private Map<String, AgentActiveThreadCount> activeThreadCountMap = new HashMap<>();
 
     public ActiveThreadCountResponseAggregator(String applicationName, AgentService agentService, Timer timer) {
+        this(applicationName, agentService, timer, new ActiveThreadCountBroadcastMetrics());
+    }
+
+    public ActiveThreadCountResponseAggregator(String applicationName, AgentService agentService, Timer timer, ActiveThreadCountBroadcastMetrics broadcastMetrics) {
+        if (broadcastMetrics == null) {
+            throw new NullPointerException("broadcastMetrics must not be null");
+        }
         this.applicationName = applicationName;
         this.agentService = agentService;
 
         this.timer = timer;
 
         this.messageConverter = new PinpointWebSocketMessageConverter();
+        this.frameEncoder = new ActiveThreadCountFrameEncoder(applicationName);
+        this.broadcastMetrics = broadcastMetrics;
     }
 
     @Override
@@ -128,6 +146,9 @@ public class ActiveThreadCountResponseAggregator implements PinpointWebSocketRes
                 }
             }
 
+            if (ActiveThreadCountHandler.isBinarySession(webSocketSession)) {
+                fullFrameRequiredSessions.add(webSocketSession);
+            }
             boolean added = webSocketSessions.add(webSocketSession);
             if (added && webSocketSessions.size() == 1) {
                 workerActiveManager.startAgentCheckJob();
@@ -150,6 +171,7 @@ public class ActiveThreadCountResponseAggregator implements PinpointWebSocketRes
             }
 
             boolean removed = webSocketSessions.remove(webSocketSession);
+            fullFrameRequiredSessions.remove(webSocketSession);
             if (removed && webSocketSessions.isEmpty()) {
                 for (ActiveThreadCountWorker activeThreadCountWorker : activeThreadCountWorkerRepository.values()) {
                     activeThreadCountWorker.stop();
@@ -220,6 +242,7 @@ public class ActiveThreadCountResponseAggregator implements PinpointWebSocketRes
             return;
         }
 
+        final long timeStamp = System.currentTimeMillis();
         AgentActiveThreadCountList response = new AgentActiveThreadCountList();
         synchronized (aggregatorLock) {
             for (ActiveThreadCountWorker activeThreadCountWorker : activeThreadCountWorkerRepository.values()) {
@@ -235,18 +258,85 @@ public class ActiveThreadCountResponseAggregator implements PinpointWebSocketRes
             activeThreadCountMap = new HashMap<>(activeThreadCountWorkerRepository.size());
         }
 
-        TextMessage webSocketTextMessage = createWebSocketTextMessage(response);
-        if (webSocketTextMessage != null) {
+        boolean hasTextSession = false;
+        boolean hasBinarySession = false;
+        for (WebSocketSession webSocketSession : webSocketSessions) {
+            if (ActiveThreadCountHandler.isBinarySession(webSocketSession)) {
+                hasBinarySession = true;
+            } else {
+                hasTextSession = true;
+            }
+        }
+
+        // encoded once and shared by all sessions, json only when a session needs it
+        TextMessage webSocketTextMessage = null;
+        if (hasTextSession) {
+            webSocketTextMessage = createWebSocketTextMessage(response, timeStamp);
+            if (webSocketTextMessage != null) {
+                broadcastMetrics.encoded(ActiveThreadCountBroadcastMetrics.FrameType.TEXT, webSocketTextMessage.getPayloadLength());
+            }
+        }
+        ActiveThreadCountFrameEncoder.Frame frame = null;
+        synchronized (aggregatorLock) {
+            if (hasBinarySession) {
+                frame = frameEncoder.encode(timeStamp, response.getAgentActiveThreadRepository());
+                if (!frame.isKeyFrame()) {
+                    broadcastMetrics.encoded(ActiveThreadCountBroadcastMetrics.FrameType.BINARY_DELTA, frame.getDelta().length);
+                }
+            } else {
+                // nobody received this snapshot, deltas can not be applied to it
+                frameEncoder.reset();
+            }
+        }
+
+        boolean fullFrameEncoded = false;
+        for (WebSocketSession webSocketSession : webSocketSessions) {
+            if (webSocketSession == null) {
+                logger.warn("failed caused webSocketSession is null. applicationName:{}", applicationName);
+                continue;
+            }
+
+            final WebSocketMessage<?> webSocketMessage;
+            if (ActiveThreadCountHandler.isBinarySession(webSocketSession)) {
+                if (frame == null) {
+                    // subscribed during this flush
+                    continue;
+                }
+                final boolean fullFrameRequired = fullFrameRequiredSessions.remove(webSocketSession);
+                final byte[] payload;
+                if (frame.isKeyFrame() || fullFrameRequired) {
+                    payload = frame.getFull();
+                    if (!fullFrameEncoded) {
+                        fullFrameEncoded = true;
+                        broadcastMetrics.encoded(ActiveThreadCountBroadcastMetrics.FrameType.BINARY_FULL, payload.length);
+                    }
+                    broadcastMetrics.sent(ActiveThreadCountBroadcastMetrics.FrameType.BINARY_FULL, payload.length);
+                } else {
+                    payload = frame.getDelta();
+                    broadcastMetrics.sent(ActiveThreadCountBroadcastMetrics.FrameType.BINARY_DELTA, payload.length);
+                }
+                // the payload buffer is consumed while sending, only the byte array is shared
+                webSocketMessage = new BinaryMessage(payload);
+            } else {
+                if (webSocketTextMessage == null) {
+                    continue;
+                }
+                webSocketMessage = webSocketTextMessage;
+                broadcastMetrics.sent(ActiveThreadCountBroadcastMetrics.FrameType.TEXT, webSocketTextMessage.getPayloadLength());
+            }
+
             if (executor == null) {
-                flush0(webSocketTextMessage);
+                if (!flush0(webSocketSession, webSocketMessage)) {
+                    onFlushFailure(webSocketSession, webSocketMessage);
+                }
             } else {
-                flushAsync0(webSocketTextMessage, executor);
+                executor.execute(new OrderedWebSocketFlushRunnable(webSocketSession, webSocketMessage, flushFailureCallback));
             }
         }
     }
 
-    private TextMessage createWebSocketTextMessage(AgentActiveThreadCountList activeThreadCountList) {
-        Map resultMap = createResultMap(activeThreadCountList, System.currentTimeMillis());
+    private TextMessage createWebSocketTextMessage(AgentActiveThreadCountList activeThreadCountList, long timeStamp) {
+        Map resultMap = createResultMap(activeThreadCountList, timeStamp);
         try {
             String response = messageConverter.getResponseTextMessage(ActiveThreadCountHandler.API_ACTIVE_THREAD_COUNT, resultMap);
             TextMessage responseTextMessage = new TextMessage(response);
@@ -257,24 +347,24 @@ public class ActiveThreadCountResponseAggregator implements PinpointWebSocketRes
         return null;
     }
 
-    private void flush0(TextMessage webSocketMessage) {
-        for (WebSocketSession webSocketSession : webSocketSessions) {
-            try {
-                logger.debug("flush webSocketSession:{}, response:{}", webSocketSession, webSocketMessage);
-                webSocketSession.sendMessage(webSocketMessage);
-            } catch (Exception e) {
-                logger.warn("failed while flushing message to webSocket. session:{}, message:{}, error:{}", webSocketSession, webSocketMessage, e.getMessage(), e);
-            }
+    private boolean flush0(WebSocketSession webSocketSession, WebSocketMessage<?> webSocketMessage) {
+        try {
+            logger.debug("flush webSocketSession:{}, response:{}", webSocketSession, webSocketMessage);
+            webSocketSession.sendMessage(webSocketMessage);
+            return true;
+        } catch (Exception e) {
+            logger.warn("failed while flushing message to webSocket. session:{}, message:{}, error:{}", webSocketSession, webSocketMessage, e.getMessage(), e);
+            return false;
         }
     }
 
-    private void flushAsync0(TextMessage webSocketMessage, Executor executor) {
-        for (WebSocketSession webSocketSession : webSocketSessions) {
-            if (webSocketSession == null) {
-                logger.warn("failed caused webSocketSession is null. applicationName:{}", applicationName);
-                continue;
-            }
-            executor.execute(new OrderedWebSocketFlushRunnable(webSocketSession, webSocketMessage));
+    private void onFlushFailure(WebSocketSession webSocketSession, WebSocketMessage<?> webSocketMessage) {
+        if (!(webSocketMessage instanceof BinaryMessage)) {
+            return;
+        }
+        // the client missed a frame, later deltas would be applied to the wrong snapshot
+        if (webSocketSessions.contains(webSocketSession)) {
+            fullFrameRequiredSessions.add(webSocketSession);
         }
     }
 
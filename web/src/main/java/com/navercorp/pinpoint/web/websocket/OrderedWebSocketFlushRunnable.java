@@ -21,7 +21,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.socket.CloseStatus;
-import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 /**
@@ -33,15 +33,25 @@ public class OrderedWebSocketFlushRunnable implements Runnable, SimpleOrderedThr
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderedWebSocketFlushRunnable.class);
 
     private final WebSocketSession webSocketSession;
-    private final TextMessage webSocketMessage;
+    private final WebSocketMessage<?> webSocketMessage;
 
     private final boolean sessionCloseOnError;
 
-    public OrderedWebSocketFlushRunnable(WebSocketSession webSocketSession, TextMessage webSocketMessage) {
+    private final FailureCallback failureCallback;
+
+    public OrderedWebSocketFlushRunnable(WebSocketSession webSocketSession, WebSocketMessage<?> webSocketMessage) {
         this(webSocketSession, webSocketMessage, false);
     }
 
-    public OrderedWebSocketFlushRunnable(WebSocketSession webSocketSession, TextMessage webSocketMessage, boolean sessionCloseOnError) {
+    public OrderedWebSocketFlushRunnable(WebSocketSession webSocketSession, WebSocketMessage<?> webSocketMessage, FailureCallback failureCallback) {
+        this(webSocketSession, webSocketMessage, false, failureCallback);
+    }
+
+    public OrderedWebSocketFlushRunnable(WebSocketSession webSocketSession, WebSocketMessage<?> webSocketMessage, boolean sessionCloseOnError) {
+        this(webSocketSession, webSocketMessage, sessionCloseOnError, null);
+    }
+
+    private OrderedWebSocketFlushRunnable(WebSocketSession webSocketSession, WebSocketMessage<?> webSocketMessage, boolean sessionCloseOnError, FailureCallback failureCallback) {
         if (webSocketSession == null) {
             throw new NullPointerException("webSocketSession null.");
         }
@@ -53,6 +63,7 @@ public class OrderedWebSocketFlushRunnable implements Runnable, SimpleOrderedThr
         this.webSocketSession = webSocketSession;
         this.webSocketMessage = webSocketMessage;
         this.sessionCloseOnError = sessionCloseOnError;
+        this.failureCallback = failureCallback;
     }
 
     @Override
@@ -74,6 +85,9 @@ public class OrderedWebSocketFlushRunnable implements Runnable, SimpleOrderedThr
             if (sessionCloseOnError) {
                 closeSession(webSocketSession);
             }
+            if (failureCallback != null) {
+                failureCallback.onFailure(webSocketSession, webSocketMessage);
+            }
         }
     }
 
@@ -85,4 +99,11 @@ public class OrderedWebSocketFlushRunnable implements Runnable, SimpleOrderedThr
         }
     }
 
+    /**
+     * Called from the flush thread when the message could not be sent.
+     */
+    public interface FailureCallback {
+        void onFailure(WebSocketSession webSocketSession, WebSocketMessage<?> webSocketMessage);
+    }
+
 }
@@ -9,13 +9,38 @@
 		this._to = oData.to;
 		this._resultFrom = oData.complete ? oData.from : oData.resultFrom;
 		this._resultTo = oData.complete ? oData.to : oData.resultTo;
-		this._oAgentMetaInfo = oData.scatter.metadata;
-		this._aAllData = oData.scatter.dotList;
+		this._bTile = typeof oData.scatterTile !== "undefined";
+		if ( this._bTile ) {
+			this._initTileData( oData.scatterTile );
+		} else {
+			this._oAgentMetaInfo = oData.scatter.metadata;
+			this._aAllData = oData.scatter.dotList;
+		}
 		this._bLoadComplete = oData.complete;
 
 		this._oAgentData = {};
 		this._oCountOfType = {};
 	};
+	// tiles are held like dots without transaction : [ x, y, agent, -1, type, groupCount, count ]
+	DataBlock.prototype._initTileData = function( oScatterTile ) {
+		var self = this;
+		this._xGroupUnit = oScatterTile.xGroupUnit;
+		this._yGroupUnit = oScatterTile.yGroupUnit;
+		this._maxCount = 0;
+		this._oAgentMetaInfo = {};
+		$.each( oScatterTile.agentList, function( index, agentId ) {
+			self._oAgentMetaInfo[ ( index + 1 ) + "" ] = [ agentId, agentId, 0 ];
+		});
+		this._aAllData = [];
+		$.each( oScatterTile.tileList, function( index, aTile ) {
+			self._maxCount = Math.max( aTile[4], self._maxCount );
+			self._aAllData.push( [ aTile[0], aTile[1], aTile[2] + 1, -1, aTile[3] === 1 ? 0 : 1, 1, aTile[4] ] );
+		});
+		// newest first like the dot list
+		this._aAllData.sort(function( a, b ) {
+			return b[0] - a[0];
+		});
+	};
 	DataBlock.prototype._splitDataByAgent = function( oPropertyIndex, oTypeInfo ) {
 		var self = this;
 		this._oPropertyIndex = oPropertyIndex;
@@ -37,7 +62,7 @@
 			maxY = Math.max( aValue[1], maxY );
 			aValue[0] += self._from;
 			self._oAgentData[ agentName ].push( aValue );
-			self._oCountOfType[agentName][ oTypeInfo[aValue[oPropertyIndex.type] + "" ][0] ]++;
+			self._oCountOfType[agentName][ oTypeInfo[aValue[oPropertyIndex.type] + "" ][0] ] += self._getCount( aValue );
 
 		});
 		this._minX = this._bLoadComplete ? this._from : this._resultFrom;
@@ -45,6 +70,9 @@
 		this._minY = minY;
 		this._maxY = maxY;
 	};
+	DataBlock.prototype._getCount = function( aValue ) {
+		return this._bTile ? aValue[ this._oPropertyIndex.count ] : 1;
+	};
 	DataBlock.prototype._getAgentName = function( key ) {
 		return this._oAgentMetaInfo[ key ][0];
 	};
@@ -97,7 +125,7 @@
 			if ( agentName === this._getAgentName( aValue[ metaIndex ] + "" ) ) {
 				if (type === this._oTypeInfo[ aValue[ typeIndex ] + "" ][0]) {
 					if ( aValue[ xIndex ] <= maxX ) {
-						sum++;
+						sum += this._getCount( aValue );
 					}
 				}
 			}
@@ -118,6 +146,18 @@
 			"max": this._maxX
 		};
 	};
+	DataBlock.prototype.isTile = function() {
+		return this._bTile;
+	};
+	DataBlock.prototype.getTileSize = function() {
+		return {
+			"x": this._xGroupUnit,
+			"y": this._yGroupUnit
+		};
+	};
+	DataBlock.prototype.getMaxCount = function() {
+		return this._maxCount;
+	};
 	DataBlock.prototype.isEmpty = function() {
 		return this._aAllData.length === 0;
 	};
@@ -28,7 +28,8 @@
 				"filter": this._filter || "",
 				"application": this._application,
 				"xGroupUnit": widthOfPixel,
-				"yGroupUnit": heightOfPixel
+				"yGroupUnit": heightOfPixel,
+				"v": this.option( "version" ) || 1
 			},
 			"headers": { "accept": "application/json" },
 			"dataType": "json"
@@ -45,6 +46,42 @@
 			cbComplete();
 		});
 	};
+	// loads the dots of [ from, to ] page by page, the tiles drawn by loadData do not carry transactions
+	DataLoadManager.prototype.loadSelectedData = function( from, to, cbSuccess, cbFail, widthOfPixel, heightOfPixel, aResultData ) {
+		var self = this;
+		aResultData = aResultData || [];
+
+		this._oSelectAjax = $.ajax({
+			"url": this.getUrl(),
+			"data": {
+				"to": to,
+				"from": from,
+				"limit": this.option( "fetchLimit" ),
+				"filter": this._filter || "",
+				"application": this._application,
+				"xGroupUnit": widthOfPixel,
+				"yGroupUnit": heightOfPixel,
+				"v": 1
+			},
+			"headers": { "accept": "application/json" },
+			"dataType": "json"
+		}).done(function( oResultData ) {
+			if ( oResultData.exception ) {
+				cbFail();
+			} else {
+				aResultData.push( oResultData );
+				if ( oResultData.complete ) {
+					cbSuccess( aResultData );
+				} else {
+					self.loadSelectedData( from, oResultData.resultFrom - 1, cbSuccess, cbFail, widthOfPixel, heightOfPixel, aResultData );
+				}
+			}
+		}).fail(function( jqXHR, textStatus ) {
+			if ( textStatus !== "abort" ) {
+				cbFail();
+			}
+		});
+	};
 	DataLoadManager.prototype.loadRealtimeData = function( callbackRealtimeSuccess, callbackRealtimeFail, widthOfPixel, heightOfPixel ) {
 		var self = this;
 		var oFromTo = this._oSCManager.getX();
@@ -133,6 +170,9 @@
 		if ( this._oRealtimeAjax ) {
 			this._oRealtimeAjax.abort();
 		}
+		if ( this._oSelectAjax ) {
+			this._oSelectAjax.abort();
+		}
 	};
 	DataLoadManager.prototype.setTimeManager = function( oSCManager ) {
 		this._oSCManager = oSCManager;
@@ -426,6 +426,32 @@
 		this._oScrollCtx[key][ctxIndex].globalAlpha = 0.3 + ( 0.1 * aBubbleData[oPropertyIndex.groupCount] );
 		this._oScrollCtx[key][ctxIndex].fill();
 	};
+	RendererManager.prototype.drawTile = function( key, color, aTileData, oTileSize, maxCount ) {
+		var oPropertyIndex = this.option( "propertyIndex" );
+		var oRangeY = this._oSCManager.getY();
+
+		var x = ( aTileData[oPropertyIndex.x] - this._oSCManager.getStartX() ) * this._oSCManager.getPixelPerTime();
+		var width = Math.max( oTileSize.x * this._oSCManager.getPixelPerTime(), 1 );
+		var yBottom = this._oSCManager.parseYDataToYChart( BigScatterChart2.Util.getBoundaryValue( oRangeY, aTileData[oPropertyIndex.y] ), false );
+		var yTop = this._oSCManager.parseYDataToYChart( BigScatterChart2.Util.getBoundaryValue( oRangeY, aTileData[oPropertyIndex.y] + oTileSize.y ), false );
+		var count = aTileData[oPropertyIndex.count];
+
+		var canvasWidth = this._oSCManager.getCanvasWidth();
+		var ctxIndex = this._oScrollIndexOrder[0];
+		var zeroLeft = parseInt( this._oElScrollCanvas[key][ctxIndex].css( "left" ) );
+		var currentMaxX = zeroLeft + canvasWidth;
+		if ( x > currentMaxX ) {
+			ctxIndex = this._oScrollIndexOrder[1];
+			x -= currentMaxX;
+		} else {
+			x -= zeroLeft;
+		}
+
+		// darker tile for more transactions, log scaled so a few hot tiles do not wash out the rest
+		this._oScrollCtx[key][ctxIndex].fillStyle = color;
+		this._oScrollCtx[key][ctxIndex].globalAlpha = 0.2 + ( 0.8 * Math.log( count + 1 ) / Math.log( Math.max( maxCount, 1 ) + 1 ) );
+		this._oScrollCtx[key][ctxIndex].fillRect( x, Math.min( yTop, yBottom ), width, Math.max( Math.abs( yBottom - yTop ), 1 ) );
+	};
 	RendererManager.prototype.moveChart = function( moveXValue, aniTime ) {
 		var self = this;
 		var canvasWidth = this._oSCManager.getCanvasWidth();
@@ -91,6 +91,7 @@
 	};
 	BigScatterChart2.prototype._initVariables = function() {
 		this._aBubbles = [];
+		this._aSelectedBubbles = [];
 		this._oSCManager = new BigScatterChart2.SizeCoordinateManager( this.option() );
 		this._bPause = false;
 		this._bDestroied = false;
@@ -208,6 +209,7 @@
 	BigScatterChart2.prototype.clear = function() {
 		this._oRendererManager.clear();
 		this._aBubbles = [];
+		this._aSelectedBubbles = [];
 		this._oBubbleTypeManager.showTypeCount( this._getSumCountByType() );
 		this._oDragManager.hide();
 		this._oMessage.show( this.option( "noDataStr" ) );
@@ -217,13 +219,18 @@
 		var oTypeInfo = this.option("typeInfo");
 		var oPropertyIndex = this.option( "propertyIndex" );
 		var sPrefix = this.option("sPrefix");
+		var bTile = oDataBlock.isTile();
 		$.each(self._aAgentList, function (index, agentName) {
 			for (var i = 0, nLen = oDataBlock.countByAgent( agentName ); i < nLen && !self._bDestroied; i++) {
 				var aAgentBubbleData = oDataBlock.getDataByAgent(agentName, i);
 				var groupCount = aAgentBubbleData[oPropertyIndex.groupCount];
 				if ( groupCount !== 0 ) {
 					var aBubbleType = oTypeInfo[aAgentBubbleData[oPropertyIndex.type]];
-					self._oRendererManager.drawBubble( BigScatterChart2.Util.makeKey( agentName, sPrefix, aBubbleType[0] ), aBubbleType[1], aAgentBubbleData );
+					if ( bTile ) {
+						self._oRendererManager.drawTile( BigScatterChart2.Util.makeKey( agentName, sPrefix, aBubbleType[0] ), aBubbleType[1], aAgentBubbleData, oDataBlock.getTileSize(), oDataBlock.getMaxCount() );
+					} else {
+						self._oRendererManager.drawBubble( BigScatterChart2.Util.makeKey( agentName, sPrefix, aBubbleType[0] ), aBubbleType[1], aAgentBubbleData );
+					}
 				}
 			}
 
@@ -285,9 +292,10 @@
 
 		var oRangeY = this._oSCManager.getY();
 		var aVisibleType = visibleType.split(",");
+		var aDotBubbles = this._getDotBubbles();
 
-		for (var i = 0, nLen = this._aBubbles.length; i < nLen; i++) {
-			var oDataBlock = this._aBubbles[i];
+		for (var i = 0, nLen = aDotBubbles.length; i < nLen; i++) {
+			var oDataBlock = aDotBubbles[i];
 			for (var j = 0, nLen2 = oDataBlock.count() ; j < nLen2; j++ ) {
 				var aBubbleData = oDataBlock.getData( j );
 				var agentName = oDataBlock.getAgentName( aBubbleData );
@@ -318,9 +326,10 @@
 
 		fromY = parseInt(fromY, 10);
 		toY = parseInt(toY, 10);
+		var aDotBubbles = this._getDotBubbles();
 
-		for (var i = 0, nLen = this._aBubbles.length; i < nLen; i++) {
-			var oDataBlock = this._aBubbles[i];
+		for (var i = 0, nLen = aDotBubbles.length; i < nLen; i++) {
+			var oDataBlock = aDotBubbles[i];
 			for (var j = 0, nLen2 = oDataBlock.count() ; j < nLen2; j++ ) {
 				var aBubbleData = oDataBlock.getData( j );
 				var agentName = oDataBlock.getAgentName( aBubbleData );
@@ -341,6 +350,47 @@
 		}
 		return aData;
 	};
+	BigScatterChart2.prototype._hasTile = function() {
+		for (var i = 0, nLen = this._aBubbles.length; i < nLen; i++) {
+			if ( this._aBubbles[i].isTile() ) {
+				return true;
+			}
+		}
+		return false;
+	};
+	BigScatterChart2.prototype._getDotBubbles = function() {
+		return this._hasTile() ? this._aSelectedBubbles : this._aBubbles;
+	};
+	// tiles do not carry transactions, so the dots of the selected time range are loaded before they are read
+	BigScatterChart2.prototype._loadSelectedBubbles = function( fromX, toX, cbLoaded ) {
+		var self = this;
+		if ( this._hasTile() === false ) {
+			cbLoaded();
+			return;
+		}
+		this._aSelectedBubbles = [];
+		this._oDataLoadManager.loadSelectedData( parseInt( fromX, 10 ), parseInt( toX, 10 ), function( aResultData ) {
+			self._aSelectedBubbles = $.map( aResultData, function( oResultData ) {
+				return self.createDataBlock( oResultData );
+			});
+			cbLoaded();
+		}, function() {
+			cbLoaded();
+		}, this._oSCManager.getXOfPixel(), this._oSCManager.getYOfPixel() );
+	};
+	BigScatterChart2.prototype.loadDataByXY = function( fromX, toX, fromY, toY, selectedAgent, visibleType, cbLoaded ) {
+		var self = this;
+		this._loadSelectedBubbles( fromX, toX, function() {
+			cbLoaded( self.getDataByXY( fromX, toX, fromY, toY, selectedAgent, visibleType ) );
+		});
+	};
+	BigScatterChart2.prototype.loadDataByRange = function( type, fromY, toY, selectedAgent, visibleType, cbLoaded ) {
+		var self = this;
+		var oRangeX = this._oSCManager.getX();
+		this._loadSelectedBubbles( oRangeX.min, oRangeX.max, function() {
+			cbLoaded( self.getDataByRange( type, fromY, toY, selectedAgent, visibleType ) );
+		});
+	};
 	BigScatterChart2.prototype.hasDataByXY = function( fromX, toX, fromY, toY ) {
 		var oTypeInfo = this.option( "typeInfo" );
 		var oPropertyIndex = this.option( "propertyIndex" );
@@ -360,9 +410,16 @@
 				var agentName = oDataBlock.getAgentName( aBubbleData );
 				if ( this._currentAgent === this._AGENT_ALL || this._currentAgent === agentName  ) {
 					var bubbleX = aBubbleData[oPropertyIndex.x];
+					var bubbleY = aBubbleData[oPropertyIndex.y];
 					var bubbleType = oTypeInfo[aBubbleData[oPropertyIndex.type]][0];
-					if ( BigScatterChart2.Util.isInRange( fromX, toX, bubbleX ) && BigScatterChart2.Util.indexOf( aVisibleType, bubbleType ) >= 0) {
-						var bubbleY = aBubbleData[oPropertyIndex.y];
+					if ( oDataBlock.isTile() ) {
+						var oTileSize = oDataBlock.getTileSize();
+						if ( bubbleX <= toX && fromX < bubbleX + oTileSize.x && BigScatterChart2.Util.indexOf( aVisibleType, bubbleType ) >= 0 ) {
+							if ( bubbleY <= toY && fromY < bubbleY + oTileSize.y || toY === oRangeY.max && toY < bubbleY ) {
+								return true;
+							}
+						}
+					} else if ( BigScatterChart2.Util.isInRange( fromX, toX, bubbleX ) && BigScatterChart2.Util.indexOf( aVisibleType, bubbleType ) >= 0) {
 						if ( BigScatterChart2.Util.isInRange( fromY, toY, bubbleY ) || toY === oRangeY.max && toY < bubbleY ) {
 							return true;
 						}
@@ -501,6 +558,7 @@
 		this._bPause = false;
 		if ( this.option( "realtime" ) ) {
 			this._aBubbles = [];
+			this._aSelectedBubbles = [];
 			this._oSCManager.setX( from, to, true );
 			this._oDataLoadManager.reset();
 			this._oDataLoadManager.setRealtimeFrom( to );
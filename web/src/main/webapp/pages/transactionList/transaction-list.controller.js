@@ -46,8 +46,12 @@
 					if(!hasScatterByApplicationName(htTransactionInfo.applicationName)) {
 						alertAndMove(helpContentService.transactionList.openError.noData.replace(/\{\{application\}\}/, htTransactionInfo.applicationName ) );
 					} else {
-						htTransactionData = getDataByTransactionInfo(htTransactionInfo);
-						initAndLoad( bHasTransactionInfo );
+						loadDataByTransactionInfo(htTransactionInfo, function( aTransactionData ) {
+							$timeout(function () {
+								htTransactionData = aTransactionData;
+								initAndLoad( bHasTransactionInfo );
+							});
+						});
 					}
 				} else {
 					if ( bHasTransactionInfo === false ) {
@@ -146,12 +150,12 @@
 			function hasScatterByApplicationName(applicationName) {
 				return angular.isDefined($window.opener.htoScatter[applicationName]);
 			}
-			function getDataByTransactionInfo(t) {
+			function loadDataByTransactionInfo(t, cbLoaded) {
 				var oScatter = $window.opener.htoScatter[t.applicationName];
 				if ( t.type ) {
-					return oScatter.getDataByRange( t.type, t.min, t.max, t.agent, t.include );
+					oScatter.loadDataByRange( t.type, t.min, t.max, t.agent, t.include, cbLoaded );
 				} else {
-					return oScatter.getDataByXY( t.nXFrom, t.nXTo, t.nYFrom, t.nYTo, t.agent, t.include );
+					oScatter.loadDataByXY( t.nXFrom, t.nXTo, t.nYFrom, t.nYTo, t.agent, t.include, cbLoaded );
 				}
 
 			}
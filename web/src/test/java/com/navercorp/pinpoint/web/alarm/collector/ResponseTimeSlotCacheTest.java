@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.alarm.collector;
+
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.dao.MapResponseDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.ResponseTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.navercorp.pinpoint.web.util.TimeSlotCacheTemplate.SLOT_SIZE;
+
+public class ResponseTimeSlotCacheTest {
+
+    private static final long RETENTION = TimeUnit.MINUTES.toMillis(10);
+    private static final long SETTLE_TIME = TimeUnit.SECONDS.toMillis(30);
+
+    private static final long BASE_TIME = TimeUnit.DAYS.toMillis(17000);
+
+    private final Application application = new Application("test", ServiceType.STAND_ALONE);
+
+    @Test
+    public void readOnlyNewSlots() {
+        RecordingDao dao = new RecordingDao();
+        ResponseTimeSlotCache cache = new ResponseTimeSlotCache(dao, RETENTION, SETTLE_TIME);
+
+        // first run : 5 minutes
+        long now = BASE_TIME + TimeUnit.MINUTES.toMillis(5) + SETTLE_TIME;
+        List<ResponseTime> first = cache.selectSlots(application, new Range(now - TimeUnit.MINUTES.toMillis(5), now), now);
+        Assert.assertEquals(6, first.size());
+        Assert.assertEquals(1, dao.ranges.size());
+
+        // next run 3 minutes later : only the minutes not seen yet and the open one
+        now += TimeUnit.MINUTES.toMillis(3);
+        List<ResponseTime> second = cache.selectSlots(application, new Range(now - TimeUnit.MINUTES.toMillis(5), now), now);
+        Assert.assertEquals(6, second.size());
+        Assert.assertEquals(2, dao.ranges.size());
+        Assert.assertEquals(new Range(BASE_TIME + TimeUnit.MINUTES.toMillis(5), BASE_TIME + TimeUnit.MINUTES.toMillis(8)), dao.ranges.get(1));
+
+        long expectedTime = BASE_TIME + TimeUnit.MINUTES.toMillis(3);
+        for (ResponseTime responseTime : second) {
+            Assert.assertEquals(expectedTime, responseTime.getTimeStamp());
+            expectedTime += SLOT_SIZE;
+        }
+    }
+
+    @Test
+    public void emptySlotsAreCached() {
+        RecordingDao dao = new RecordingDao();
+        dao.empty = true;
+        ResponseTimeSlotCache cache = new ResponseTimeSlotCache(dao, RETENTION, SETTLE_TIME);
+
+        final long now = BASE_TIME + TimeUnit.MINUTES.toMillis(10);
+        final Range range = new Range(BASE_TIME, BASE_TIME + TimeUnit.MINUTES.toMillis(4));
+        Assert.assertTrue(cache.selectSlots(application, range, now).isEmpty());
+        Assert.assertTrue(cache.selectSlots(application, range, now).isEmpty());
+        Assert.assertEquals(1, dao.ranges.size());
+    }
+
+    @Test
+    public void retention() {
+        RecordingDao dao = new RecordingDao();
+        ResponseTimeSlotCache cache = new ResponseTimeSlotCache(dao, RETENTION, SETTLE_TIME);
+
+        final Range range = new Range(BASE_TIME, BASE_TIME + TimeUnit.MINUTES.toMillis(4));
+        cache.selectSlots(application, range, BASE_TIME + TimeUnit.MINUTES.toMillis(10));
+        cache.selectSlots(application, range, BASE_TIME + TimeUnit.MINUTES.toMillis(30));
+        Assert.assertEquals(2, dao.ranges.size());
+    }
+
+    private static class RecordingDao implements MapResponseDao {
+
+        private final List<Range> ranges = new ArrayList<>();
+        private boolean empty = false;
+
+        @Override
+        public List<ResponseTime> selectResponseTime(Application application, Range range) {
+            ranges.add(range);
+            List<ResponseTime> responseTimeList = new ArrayList<>();
+            if (empty) {
+                return responseTimeList;
+            }
+            final long to = (range.getTo() / SLOT_SIZE) * SLOT_SIZE;
+            for (long slot = (range.getFrom() / SLOT_SIZE) * SLOT_SIZE; slot <= to; slot += SLOT_SIZE) {
+                ResponseTime responseTime = new ResponseTime(application.getName(), application.getServiceType(), slot);
+                responseTime.addResponseTime("agent", 100, false);
+                responseTimeList.add(responseTime);
+            }
+            return responseTimeList;
+        }
+    }
+}
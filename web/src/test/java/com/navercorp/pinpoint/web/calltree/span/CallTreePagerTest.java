@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.calltree.span;
+
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CallTreePagerTest {
+
+    /**
+     * <pre>
+     * root(1)
+     *   event(2)
+     *     event(3)
+     *       event(4)
+     *   event(5)
+     *     event(6)
+     * </pre>
+     */
+    private CallTreeIterator newCallTree() {
+        final SpanBo span = new SpanBo();
+        final SpanCallTree callTree = new SpanCallTree(new SpanAlign(span));
+        callTree.add(1, newSpanEvent(span, 0));
+        callTree.add(2, newSpanEvent(span, 1));
+        callTree.add(3, newSpanEvent(span, 2));
+        callTree.add(1, newSpanEvent(span, 3));
+        callTree.add(2, newSpanEvent(span, 4));
+        return callTree.iterator();
+    }
+
+    private SpanAlign newSpanEvent(SpanBo span, int sequence) {
+        final SpanEventBo event = new SpanEventBo();
+        event.setSequence((short) sequence);
+        event.setAsyncId(-1);
+        event.setNextAsyncId(-1);
+        return new SpanAlign(span, event);
+    }
+
+    @Test
+    public void page() {
+        final CallTreePage first = new CallTreePager(0, 2).page(newCallTree());
+        Assert.assertEquals(Arrays.asList(1, 2), ids(first));
+        Assert.assertEquals(2, first.getNextOffset());
+        Assert.assertEquals(6, first.getNodeCount());
+        Assert.assertEquals(1, first.getSpanAlignList().size());
+        Assert.assertNotNull(first.getRoot());
+
+        final CallTreePage last = new CallTreePager(first.getNextOffset(), 10).page(newCallTree());
+        Assert.assertEquals(Arrays.asList(3, 4, 5, 6), ids(last));
+        Assert.assertEquals(-1, last.getNextOffset());
+        Assert.assertTrue(last.getCollapsedIdList().isEmpty());
+    }
+
+    @Test
+    public void parentOutsideOfPage() {
+        final CallTreePage page = new CallTreePager(3, 1).page(newCallTree());
+        final CallTreeNode node = page.getNodes().get(0);
+        Assert.assertEquals(4, node.getValue().getId());
+        // ids of nodes outside of the page are assigned as well
+        Assert.assertEquals(3, node.getParent().getValue().getId());
+    }
+
+    @Test
+    public void collapse() {
+        final CallTreePage page = new CallTreePager(0, 10, 1).page(newCallTree());
+        Assert.assertEquals(Arrays.asList(1, 2, 5), ids(page));
+        Assert.assertEquals(Arrays.asList(2, 5), page.getCollapsedIdList());
+        Assert.assertEquals(-1, page.getNextOffset());
+        Assert.assertEquals(6, page.getNodeCount());
+    }
+
+    @Test
+    public void collapse_limit() {
+        final CallTreePage page = new CallTreePager(0, 2, 1).page(newCallTree());
+        Assert.assertEquals(Arrays.asList(1, 2), ids(page));
+        Assert.assertEquals(Arrays.asList(2), page.getCollapsedIdList());
+        Assert.assertEquals(4, page.getNextOffset());
+    }
+
+    @Test
+    public void empty() {
+        final CallTreePage page = new CallTreePager(0, 10).page(new CallTreeIterator(null));
+        Assert.assertTrue(page.isEmpty());
+        Assert.assertNull(page.getRoot());
+        Assert.assertEquals(0, page.getNodeCount());
+        Assert.assertEquals(-1, page.getNextOffset());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLimit() {
+        new CallTreePager(0, 0);
+    }
+
+    private List<Integer> ids(CallTreePage page) {
+        final List<Integer> ids = new ArrayList<>();
+        for (CallTreeNode node : page.getNodes()) {
+            ids.add(node.getValue().getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase.stat.v2;
+
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowSlotCentricSampler;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AgentStatRollupQueryPlannerTest {
+
+    private static final long TO = 1487149800000L;
+
+    @Test
+    public void getResolution() {
+        AgentStatRollupQueryPlanner planner = new AgentStatRollupQueryPlanner(true);
+
+        // 18 second slots
+        assertNull(planner.getResolution(timeWindow(TimeUnit.HOURS.toMillis(1))));
+        // 108 second slots
+        assertEquals(AgentStatRollupResolution.ONE_MINUTE, planner.getResolution(timeWindow(TimeUnit.HOURS.toMillis(6))));
+        // 432 second slots
+        assertEquals(AgentStatRollupResolution.ONE_MINUTE, planner.getResolution(timeWindow(TimeUnit.DAYS.toMillis(1))));
+        // 3024 second slots
+        assertEquals(AgentStatRollupResolution.TEN_MINUTES, planner.getResolution(timeWindow(TimeUnit.DAYS.toMillis(7))));
+        // 12960 second slots
+        assertEquals(AgentStatRollupResolution.ONE_HOUR, planner.getResolution(timeWindow(TimeUnit.DAYS.toMillis(30))));
+    }
+
+    @Test
+    public void disabled() {
+        AgentStatRollupQueryPlanner planner = new AgentStatRollupQueryPlanner(false);
+
+        assertNull(planner.getResolution(timeWindow(TimeUnit.DAYS.toMillis(7))));
+    }
+
+    @Test
+    public void isCovered() {
+        AgentStatRollupQueryPlanner planner = new AgentStatRollupQueryPlanner(true);
+        TimeWindow timeWindow = timeWindow(TimeUnit.HOURS.toMillis(12));
+        long from = timeWindow.getWindowRange().getFrom();
+
+        assertFalse(planner.isCovered(timeWindow, Collections.<AgentStatRollupBo>emptyList()));
+        assertTrue(planner.isCovered(timeWindow, Collections.singletonList(rollupBo(from))));
+        assertFalse(planner.isCovered(timeWindow, Collections.singletonList(rollupBo(from + timeWindow.getWindowSlotSize()))));
+    }
+
+    private TimeWindow timeWindow(long range) {
+        return new TimeWindow(new Range(TO - range, TO), new TimeWindowSlotCentricSampler());
+    }
+
+    private AgentStatRollupBo rollupBo(long timestamp) {
+        AgentStatRollupBo rollupBo = new AgentStatRollupBo();
+        rollupBo.setTimestamp(timestamp);
+        return rollupBo;
+    }
+}
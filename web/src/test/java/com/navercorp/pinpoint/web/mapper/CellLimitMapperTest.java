@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CellLimitMapperTest {
+
+    private static final byte[] ROW = Bytes.toBytes("row");
+    private static final byte[] FAMILY = Bytes.toBytes("S");
+
+    private final RowMapper<Integer> cellCountMapper = new RowMapper<Integer>() {
+        @Override
+        public Integer mapRow(Result result, int rowNum) {
+            return result.size();
+        }
+    };
+
+    @Test
+    public void underLimit() throws Exception {
+        CellLimitMapper<Integer> mapper = new CellLimitMapper<>(cellCountMapper, 3);
+        Assert.assertEquals(3, (int) mapper.mapRow(createResult(3), 0));
+        Assert.assertFalse(mapper.isTruncated());
+    }
+
+    @Test
+    public void overLimit() throws Exception {
+        CellLimitMapper<Integer> mapper = new CellLimitMapper<>(cellCountMapper, 3);
+        Assert.assertEquals(3, (int) mapper.mapRow(createResult(4), 0));
+        Assert.assertTrue(mapper.isTruncated());
+    }
+
+    private Result createResult(int cellCount) {
+        Cell[] cells = new Cell[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cells[i] = new KeyValue(ROW, FAMILY, Bytes.toBytes(i), new byte[8]);
+        }
+        return Result.create(cells);
+    }
+}
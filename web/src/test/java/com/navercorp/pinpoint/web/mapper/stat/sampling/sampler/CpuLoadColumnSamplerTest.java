@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatColumns;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.v2.CpuLoadCodecV2;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import com.navercorp.pinpoint.web.mapper.RangeTimestampFilter;
+import com.navercorp.pinpoint.web.mapper.TimestampFilter;
+import com.navercorp.pinpoint.web.mapper.stat.AgentStatMapperV2;
+import com.navercorp.pinpoint.web.mapper.stat.sampling.EagerSamplingHandler;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
+import com.navercorp.pinpoint.web.vo.stat.chart.agent.AgentStatPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class CpuLoadColumnSamplerTest {
+
+    private static final String AGENT_ID = "testAgent";
+    private static final long START_TIMESTAMP = 1487140000000L;
+    private static final long RESTART_TIMESTAMP = START_TIMESTAMP + 7 * 60 * 1000L;
+    private static final long FROM = 1487149800000L;
+    private static final long TO = FROM + 60 * 60 * 1000L;
+    private static final long COLLECT_INTERVAL = 5000L;
+    private static final int NUM_VALUES_PER_CELL = 6;
+
+    private final AgentStatDataPointCodec dataPointCodec = new AgentStatDataPointCodec();
+    private final CpuLoadCodecV2 cpuLoadCodec = new CpuLoadCodecV2(dataPointCodec);
+
+    @Test
+    public void sample_should_draw_same_points_as_data_point_sampler() {
+        final Range range = new Range(FROM, TO);
+        final TimeWindow timeWindow = new TimeWindow(range);
+        final TimestampFilter filter = new RangeTimestampFilter(range);
+
+        final Random random = new Random(31);
+        final List<CpuLoadBo> cpuLoadBos = new ArrayList<>();
+        final List<AgentStatColumns> columnsList = new ArrayList<>();
+        // the agent restarts after 30 minutes, the overlapping slot is drawn from the new jvm
+        addCells(random, START_TIMESTAMP, FROM - 60000, FROM + 30 * 60 * 1000L, cpuLoadBos, columnsList);
+        addCells(random, RESTART_TIMESTAMP, FROM + 30 * 60 * 1000L - 2000, TO + 60000, cpuLoadBos, columnsList);
+        Collections.shuffle(columnsList, random);
+
+        final List<SampledCpuLoad> expected = sampleDataPoints(timeWindow, filter, cpuLoadBos);
+        final List<SampledCpuLoad> actual = new CpuLoadColumnSampler().sample(timeWindow, columnsList, filter);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertPoint(expected.get(i).getJvmCpuLoad(), actual.get(i).getJvmCpuLoad());
+            assertPoint(expected.get(i).getSystemCpuLoad(), actual.get(i).getSystemCpuLoad());
+        }
+    }
+
+    @Test
+    public void sample_uncollected() {
+        final Range range = new Range(FROM, TO);
+        final TimeWindow timeWindow = new TimeWindow(range);
+
+        final CpuLoadBo cpuLoadBo = createCpuLoadBo(START_TIMESTAMP, FROM, CpuLoadBo.UNCOLLECTED_VALUE, 0.5);
+        final List<AgentStatColumns> columnsList = Collections.singletonList(encodeAndDecodeColumns(Collections.singletonList(cpuLoadBo)));
+
+        final List<SampledCpuLoad> sampledCpuLoads = new CpuLoadColumnSampler().sample(timeWindow, columnsList, new RangeTimestampFilter(range));
+        assertEquals(1, sampledCpuLoads.size());
+        assertEquals(SampledCpuLoad.UNCOLLECTED_PERCENTAGE, sampledCpuLoads.get(0).getJvmCpuLoad().getMaxYVal());
+        assertEquals(50D, sampledCpuLoads.get(0).getSystemCpuLoad().getMaxYVal(), 0);
+    }
+
+    private void addCells(Random random, long startTimestamp, long from, long to, List<CpuLoadBo> cpuLoadBos, List<AgentStatColumns> columnsList) {
+        List<CpuLoadBo> cell = new ArrayList<>(NUM_VALUES_PER_CELL);
+        for (long timestamp = from; timestamp < to; timestamp += COLLECT_INTERVAL) {
+            final double jvmCpuLoad = random.nextInt(10) == 0 ? CpuLoadBo.UNCOLLECTED_VALUE : random.nextDouble();
+            final CpuLoadBo cpuLoadBo = createCpuLoadBo(startTimestamp, timestamp, jvmCpuLoad, random.nextDouble());
+            cpuLoadBos.add(cpuLoadBo);
+            cell.add(cpuLoadBo);
+            if (cell.size() == NUM_VALUES_PER_CELL) {
+                columnsList.add(encodeAndDecodeColumns(cell));
+                cell = new ArrayList<>(NUM_VALUES_PER_CELL);
+            }
+        }
+        if (!cell.isEmpty()) {
+            columnsList.add(encodeAndDecodeColumns(cell));
+        }
+    }
+
+    private CpuLoadBo createCpuLoadBo(long startTimestamp, long timestamp, double jvmCpuLoad, double systemCpuLoad) {
+        final CpuLoadBo cpuLoadBo = new CpuLoadBo();
+        cpuLoadBo.setAgentId(AGENT_ID);
+        cpuLoadBo.setStartTimestamp(startTimestamp);
+        cpuLoadBo.setTimestamp(timestamp);
+        cpuLoadBo.setJvmCpuLoad(jvmCpuLoad);
+        cpuLoadBo.setSystemCpuLoad(systemCpuLoad);
+        return cpuLoadBo;
+    }
+
+    private AgentStatColumns encodeAndDecodeColumns(List<CpuLoadBo> cpuLoadBos) {
+        final Buffer encodedBuffer = new AutomaticBuffer();
+        cpuLoadCodec.encodeValues(encodedBuffer, cpuLoadBos);
+
+        final long initialTimestamp = cpuLoadBos.get(0).getTimestamp();
+        final long baseTimestamp = AgentStatUtils.getBaseTimestamp(initialTimestamp);
+        final AgentStatDecodingContext decodingContext = new AgentStatDecodingContext();
+        decodingContext.setAgentId(AGENT_ID);
+        decodingContext.setBaseTimestamp(baseTimestamp);
+        decodingContext.setTimestampDelta(initialTimestamp - baseTimestamp);
+        return cpuLoadCodec.decodeColumns(new FixedBuffer(encodedBuffer.getBuffer()), decodingContext);
+    }
+
+    private List<SampledCpuLoad> sampleDataPoints(TimeWindow timeWindow, TimestampFilter filter, List<CpuLoadBo> cpuLoadBos) {
+        final List<CpuLoadBo> dataPoints = new ArrayList<>();
+        for (CpuLoadBo cpuLoadBo : cpuLoadBos) {
+            if (!filter.filter(cpuLoadBo.getTimestamp())) {
+                // same values as read back from hbase
+                final long jvmCpuLoad = AgentStatUtils.convertDoubleToLong(cpuLoadBo.getJvmCpuLoad());
+                final long systemCpuLoad = AgentStatUtils.convertDoubleToLong(cpuLoadBo.getSystemCpuLoad());
+                dataPoints.add(createCpuLoadBo(cpuLoadBo.getStartTimestamp(), cpuLoadBo.getTimestamp(),
+                        AgentStatUtils.convertLongToDouble(jvmCpuLoad), AgentStatUtils.convertLongToDouble(systemCpuLoad)));
+            }
+        }
+        Collections.sort(dataPoints, AgentStatMapperV2.REVERSE_TIMESTAMP_COMPARATOR);
+        final EagerSamplingHandler<CpuLoadBo, SampledCpuLoad> samplingHandler = new EagerSamplingHandler<>(timeWindow, new CpuLoadSampler());
+        for (CpuLoadBo dataPoint : dataPoints) {
+            samplingHandler.addDataPoint(dataPoint);
+        }
+        return samplingHandler.getSampledDataPoints();
+    }
+
+    private void assertPoint(AgentStatPoint<Double> expected, AgentStatPoint<Double> actual) {
+        assertEquals(expected.getXVal(), actual.getXVal());
+        assertEquals(expected.getMinYVal(), actual.getMinYVal());
+        assertEquals(expected.getMaxYVal(), actual.getMaxYVal());
+        assertEquals(expected.getAvgYVal(), actual.getAvgYVal());
+        assertEquals(expected.getSumYVal(), actual.getSumYVal());
+    }
+}
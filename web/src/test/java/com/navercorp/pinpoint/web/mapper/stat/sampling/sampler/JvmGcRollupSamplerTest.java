@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper.stat.sampling.sampler;
+
+import com.navercorp.pinpoint.common.server.bo.JvmGcType;
+import com.navercorp.pinpoint.common.server.bo.stat.AgentStatType;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollupResolution;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.AgentStatRollups;
+import com.navercorp.pinpoint.common.server.bo.stat.rollup.RollupValue;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowSlotCentricSampler;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.stat.SampledJvmGc;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class JvmGcRollupSamplerTest {
+
+    private static final long START_TIMESTAMP = 1487140000000L;
+    private static final long RESTART_TIMESTAMP = START_TIMESTAMP + 1000;
+    // 5 minutes slots
+    private static final long SLOT = 1487149800000L;
+    private static final long SLOT_SIZE = 5 * 60 * 1000L;
+
+    @Test
+    public void sample() {
+        TimeWindow timeWindow = new TimeWindow(new Range(SLOT, SLOT + 3 * 60 * 60 * 1000L));
+        assertEquals(SLOT_SIZE, timeWindow.getWindowSlotSize());
+
+        List<AgentStatRollupBo> rollupBos = Arrays.asList(
+                createRollupBo(START_TIMESTAMP, SLOT + 60000, new RollupValue(1, 200, 200, 200), 15, 15),
+                createRollupBo(START_TIMESTAMP, SLOT, new RollupValue(2, 100, 300, 400), 10, 12),
+                createRollupBo(START_TIMESTAMP, SLOT + SLOT_SIZE, new RollupValue(1, 500, 500, 500), 20, 21),
+                createRollupBo(RESTART_TIMESTAMP, SLOT + SLOT_SIZE + 60000, new RollupValue(1, 50, 50, 50), 1, 2));
+
+        List<SampledJvmGc> sampledJvmGcs = new JvmGcRollupSampler().sample(timeWindow, rollupBos);
+        assertEquals(2, sampledJvmGcs.size());
+
+        SampledJvmGc first = sampledJvmGcs.get(0);
+        assertEquals(JvmGcType.G1, first.getJvmGcType());
+        assertEquals(SLOT, first.getHeapUsed().getXVal());
+        assertEquals(100L, (long) first.getHeapUsed().getMinYVal());
+        assertEquals(300L, (long) first.getHeapUsed().getMaxYVal());
+        assertEquals(200D, first.getHeapUsed().getAvgYVal(), 0);
+        assertEquals(600L, (long) first.getHeapUsed().getSumYVal());
+        // 12 - 10, then 15 - 12
+        assertEquals(5L, (long) first.getGcOldCount().getSumYVal());
+        assertEquals(2L, (long) first.getGcOldCount().getMinYVal());
+        assertEquals(3L, (long) first.getGcOldCount().getMaxYVal());
+
+        // only the latest jvm life cycle is drawn, its counter starting over from 0
+        SampledJvmGc second = sampledJvmGcs.get(1);
+        assertEquals(SLOT + SLOT_SIZE, second.getHeapUsed().getXVal());
+        assertEquals(50L, (long) second.getHeapUsed().getMaxYVal());
+        assertEquals(2L, (long) second.getGcOldCount().getSumYVal());
+        assertEquals(SampledJvmGc.UNCOLLECTED_VALUE, second.getNonHeapUsed().getMaxYVal());
+    }
+
+    @Test
+    public void sampleBucketsCrossingSlots() {
+        TimeWindow timeWindow = new TimeWindow(new Range(SLOT - TimeUnit.DAYS.toMillis(7), SLOT), new TimeWindowSlotCentricSampler());
+        final long slotSize = timeWindow.getWindowSlotSize();
+        final long slot = timeWindow.refineTimestamp(SLOT - TimeUnit.DAYS.toMillis(1));
+        // starts in the slot and ends in the next one
+        final long edgeBucket = AgentStatRollupResolution.TEN_MINUTES.getBucketTimestamp(slot + slotSize - 1);
+        final long firstBucket = AgentStatRollupResolution.TEN_MINUTES.getBucketTimestamp(edgeBucket - 1);
+        final long nextBucket = edgeBucket + AgentStatRollupResolution.TEN_MINUTES.getIntervalMs();
+
+        List<AgentStatRollupBo> rollupBos = Arrays.asList(
+                createRollupBo(START_TIMESTAMP, firstBucket, new RollupValue(1, 100, 100, 100), 10, 10),
+                createRollupBo(START_TIMESTAMP, edgeBucket, new RollupValue(1, 200, 200, 200), 10, 10),
+                createRollupBo(START_TIMESTAMP, nextBucket, new RollupValue(1, 300, 300, 300), 10, 10));
+
+        List<SampledJvmGc> sampledJvmGcs = new JvmGcRollupSampler().sample(timeWindow, rollupBos);
+        assertEquals(2, sampledJvmGcs.size());
+
+        SampledJvmGc first = sampledJvmGcs.get(0);
+        assertEquals(slot, first.getHeapUsed().getXVal());
+        assertEquals(300L, (long) first.getHeapUsed().getSumYVal());
+
+        SampledJvmGc second = sampledJvmGcs.get(1);
+        assertEquals(slot + slotSize, second.getHeapUsed().getXVal());
+        assertEquals(300L, (long) second.getHeapUsed().getSumYVal());
+    }
+
+    private AgentStatRollupBo createRollupBo(long startTimestamp, long timestamp, RollupValue heapUsed, long firstGcOldCount, long lastGcOldCount) {
+        AgentStatRollupBo rollupBo = new AgentStatRollupBo();
+        rollupBo.setAgentId("testAgent");
+        rollupBo.setAgentStatType(AgentStatType.JVM_GC);
+        rollupBo.setResolution(AgentStatRollupResolution.ONE_MINUTE);
+        rollupBo.setStartTimestamp(startTimestamp);
+        rollupBo.setTimestamp(timestamp);
+        rollupBo.setFirstTimestamp(timestamp + 5000);
+        rollupBo.setLastTimestamp(timestamp + 10000);
+        rollupBo.setSubTypeCode(JvmGcType.G1.getTypeCode());
+        rollupBo.setValues(new RollupValue[]{heapUsed, new RollupValue(), new RollupValue(), new RollupValue()});
+        rollupBo.setCounters(new long[]{firstGcOldCount, 0}, new long[]{lastGcOldCount, 0});
+        return rollupBo;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ColumnarScatterDataTest {
+
+    private static final long FROM = 1514782800000L;
+    private static final long TO = FROM + 60 * 1000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void sameJsonAsScatterData() throws Exception {
+        List<Dot> dotList = createDotList(1000, new Random(1));
+
+        ScatterData scatterData = new ScatterData(FROM, TO, 1000, 100);
+        ColumnarScatterData columnarScatterData = new ColumnarScatterData(FROM, TO, 1000, 100, 0);
+        for (Dot dot : dotList) {
+            scatterData.addDot(dot);
+            columnarScatterData.addDot(dot);
+        }
+
+        JsonNode expected = mapper.readTree(mapper.writeValueAsString(scatterData));
+        JsonNode actual = mapper.readTree(mapper.writeValueAsString(columnarScatterData));
+        Assert.assertEquals(expected, actual);
+
+        Assert.assertEquals(scatterData.getDotSize(), columnarScatterData.getDotSize());
+        Assert.assertEquals(scatterData.getOldestAcceptedTime(), columnarScatterData.getOldestAcceptedTime());
+        Assert.assertEquals(scatterData.getLatestAcceptedTime(), columnarScatterData.getLatestAcceptedTime());
+    }
+
+    @Test
+    public void merge() throws Exception {
+        List<Dot> dotList = createDotList(500, new Random(2));
+
+        ScatterData scatterData = new ScatterData(FROM, TO, 500, 50);
+        ColumnarScatterData merged = new ColumnarScatterData(FROM, TO, 500, 50);
+        for (int i = 0; i < dotList.size(); i += 50) {
+            ColumnarScatterData part = new ColumnarScatterData(FROM, TO, 500, 50);
+            for (Dot dot : dotList.subList(i, i + 50)) {
+                scatterData.addDot(dot);
+                part.addDot(dot);
+            }
+            merged.merge(part);
+        }
+
+        Assert.assertEquals(dotList.size(), merged.getDotSize());
+        JsonNode expected = mapper.readTree(mapper.writeValueAsString(scatterData));
+        JsonNode actual = mapper.readTree(mapper.writeValueAsString(merged));
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void agentDictionary() {
+        ColumnarScatterData scatterData = new ColumnarScatterData(FROM, TO, 1000, 100);
+        scatterData.addDot(FROM, 10, 0, "agent1", "agent1", 1L, 1);
+        scatterData.addDot(FROM, 10, 0, "agent2", "agent1", 1L, 2);
+        scatterData.addDot(FROM, 10, 0, "agent1", "agent1", 1L, 3);
+        scatterData.addDot(FROM, 10, 0, "agent1", "agent1", 2L, 4);
+
+        Assert.assertEquals(3, scatterData.getAgentInfoList().size());
+        Assert.assertEquals(0, scatterData.getAgentIndex(0));
+        Assert.assertEquals(1, scatterData.getAgentIndex(1));
+        Assert.assertEquals(0, scatterData.getAgentIndex(2));
+        Assert.assertEquals(2, scatterData.getAgentIndex(3));
+    }
+
+    @Test
+    public void groupSizes() {
+        ColumnarScatterData scatterData = new ColumnarScatterData(FROM, TO, 1000, 100);
+        scatterData.addDot(FROM + 10, 10, 0, "agent", "agent", 1L, 1);
+        scatterData.addDot(FROM + 20, 20, 0, "agent", "agent", 1L, 2);
+        scatterData.addDot(FROM + 30, 30, 1, "agent", "agent", 1L, 3);
+        scatterData.addDot(FROM + 1010, 10, 0, "agent", "agent", 1L, 4);
+
+        int[] groupSizes = scatterData.getGroupSizes();
+        Assert.assertArrayEquals(new int[]{2, 0, 1, 1}, groupSizes);
+
+        int[] sortedIndexes = scatterData.getSortedIndexes();
+        Assert.assertArrayEquals(new int[]{3, 2, 1, 0}, sortedIndexes);
+    }
+
+    private List<Dot> createDotList(int size, Random random) {
+        List<Dot> dotList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // distinct accepted times keep the order of dots deterministic
+            long acceptedTime = FROM + (i * 37L) % (TO - FROM);
+            int elapsed = random.nextInt(300);
+            int exceptionCode = random.nextInt(4) == 0 ? 1 : 0;
+            TransactionId transactionId = new TransactionId("agent", 1L, i);
+            dotList.add(new Dot(transactionId, acceptedTime, elapsed, exceptionCode, "agent"));
+        }
+        return dotList;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class IndexSorterTest {
+
+    @Test
+    public void sort() {
+        Random random = new Random(3);
+        for (int size : new int[]{0, 1, 2, 15, 16, 17, 1000, 100000}) {
+            final long[] values = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = random.nextInt(size / 4 + 1);
+            }
+            int[] indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = i;
+            }
+
+            IndexSorter.sort(indexes, new IndexSorter.IndexComparator() {
+                @Override
+                public int compare(int index1, int index2) {
+                    int compare = Long.compare(values[index1], values[index2]);
+                    if (compare != 0) {
+                        return compare;
+                    }
+                    return Integer.compare(index1, index2);
+                }
+            });
+
+            long[] expected = values.clone();
+            Arrays.sort(expected);
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals(expected[i], values[indexes[i]]);
+                if (i > 0 && values[indexes[i]] == values[indexes[i - 1]]) {
+                    Assert.assertTrue(indexes[i] > indexes[i - 1]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.navercorp.pinpoint.common.server.util.ScatterTileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ScatterTileDataTest {
+
+    @Test
+    public void foldTilesIntoGroups() {
+        long from = 1514782800000L;
+        long to = from + 60 * 60 * 1000;
+        ScatterTileData scatterTileData = new ScatterTileData(from, to, 20000, 100);
+
+        // same 20s group, same 100ms group
+        scatterTileData.addTile(from, ScatterTileUtils.getElapsedBucket(10), false, "agent1", 3);
+        scatterTileData.addTile(from + 15000, ScatterTileUtils.getElapsedBucket(20), false, "agent1", 2);
+        // other agent, error
+        scatterTileData.addTile(from, ScatterTileUtils.getElapsedBucket(10), false, "agent2", 1);
+        scatterTileData.addTile(from, ScatterTileUtils.getElapsedBucket(10), true, "agent1", 4);
+        // next x group
+        scatterTileData.addTile(from + 20000, ScatterTileUtils.getElapsedBucket(1500), false, "agent1", 5);
+
+        Assert.assertEquals(15, scatterTileData.getTotalCount());
+        Assert.assertEquals(4, scatterTileData.getTileSize());
+
+        List<String> agentIdList = scatterTileData.getAgentIdList();
+        Assert.assertEquals("agent1", agentIdList.get(0));
+        Assert.assertEquals("agent2", agentIdList.get(1));
+
+        List<ScatterTile> tileList = scatterTileData.getSortedTileList();
+        ScatterTile latest = tileList.get(0);
+        Assert.assertEquals(20000, latest.getX());
+        Assert.assertEquals(1500, latest.getY(), 100);
+        Assert.assertEquals(5, latest.getCount());
+
+        ScatterTile merged = tileList.get(1);
+        Assert.assertEquals(0, merged.getX());
+        Assert.assertEquals(0, merged.getY());
+        Assert.assertEquals(0, merged.getAgentIndex());
+        Assert.assertEquals(5, merged.getCount());
+    }
+
+    @Test
+    public void skipTilesOutOfRange() {
+        long from = 1514782800000L;
+        long to = from + 60 * 1000;
+        ScatterTileData scatterTileData = new ScatterTileData(from, to, 10000, 10);
+
+        scatterTileData.addTile(from - ScatterTileUtils.TIME_BUCKET, 0, false, "agent", 1);
+        scatterTileData.addTile(to + 1, 0, false, "agent", 1);
+        Assert.assertEquals(0, scatterTileData.getTileSize());
+
+        // overlaps 'from'
+        scatterTileData.addTile(from - 1000, 0, false, "agent", 1);
+        Assert.assertEquals(1, scatterTileData.getTileSize());
+        Assert.assertEquals(0, scatterTileData.getSortedTileList().get(0).getX());
+    }
+}
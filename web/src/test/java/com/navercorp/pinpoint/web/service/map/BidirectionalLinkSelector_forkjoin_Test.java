@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.map;
+
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BidirectionalLinkSelector_forkjoin_Test extends BidirectionalLinkSelectorTestBase {
+
+    @Override
+    protected ApplicationsMapCreatorFactory createApplicationsMapCreatorFactory() {
+        return new ApplicationsMapCreatorFactory("forkjoin", 16);
+    }
+
+    @Test
+    public void requestBudget() {
+        // APP_A -> APP_B -> APP_C
+        final Application APP_A = new Application("APP_A", ServiceType.TEST_STAND_ALONE);
+        final Application APP_B = new Application("APP_B", ServiceType.TEST_STAND_ALONE);
+        final Application APP_C = new Application("APP_C", ServiceType.TEST_STAND_ALONE);
+        final short slotTime = ServiceType.TEST_STAND_ALONE.getHistogramSchema().getNormalSlot().getSlotTime();
+
+        LinkDataMap linkDataMap_A_B = new LinkDataMap();
+        linkDataMap_A_B.addLinkData(APP_A, "agentA", APP_B, "agentB", 1000, slotTime, 10);
+        LinkDataMap linkDataMap_B_C = new LinkDataMap();
+        linkDataMap_B_C.addLinkData(APP_B, "agentB", APP_C, "agentC", 1000, slotTime, 20);
+
+        when(linkDataMapService.selectCallerLinkDataMap(eq(APP_A), any(Range.class))).thenReturn(linkDataMap_A_B);
+        when(linkDataMapService.selectCallerLinkDataMap(eq(APP_B), any(Range.class))).thenReturn(linkDataMap_B_C);
+        when(linkDataMapService.selectCallerLinkDataMap(eq(APP_C), any(Range.class))).thenReturn(newEmptyLinkDataMap());
+        when(linkDataMapService.selectCalleeLinkDataMap(any(Application.class), any(Range.class))).thenReturn(newEmptyLinkDataMap());
+        when(hostApplicationMapDao.findAcceptApplicationName(any(Application.class), any(Range.class))).thenReturn(new HashSet<>());
+
+        // caller and callee of APP_A only
+        ApplicationsMapCreatorFactory applicationsMapCreatorFactory = new ApplicationsMapCreatorFactory("forkjoin", 4, 2, 60000);
+        LinkSelectorFactory linkSelectorFactory = new LinkSelectorFactory(linkDataMapService, applicationsMapCreatorFactory, hostApplicationMapDao);
+        LinkSelector linkSelector = linkSelectorFactory.createLinkSelector(LinkSelectorType.BIDIRECTIONAL);
+        LinkDataDuplexMap linkData = linkSelector.select(Collections.singletonList(APP_A), range, 2, 2);
+
+        Assert.assertEquals(10, linkData.getTotalCount());
+        verify(linkDataMapService, times(0)).selectCallerLinkDataMap(eq(APP_B), any(Range.class));
+        applicationsMapCreatorFactory.preDestroy();
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        // APP_A -> APP_B -> APP_C, APP_B times out
+        final Application APP_A = new Application("APP_A", ServiceType.TEST_STAND_ALONE);
+        final Application APP_B = new Application("APP_B", ServiceType.TEST_STAND_ALONE);
+        final Application APP_C = new Application("APP_C", ServiceType.TEST_STAND_ALONE);
+        final short slotTime = ServiceType.TEST_STAND_ALONE.getHistogramSchema().getNormalSlot().getSlotTime();
+
+        LinkDataMap linkDataMap_A_B = new LinkDataMap();
+        linkDataMap_A_B.addLinkData(APP_A, "agentA", APP_B, "agentB", 1000, slotTime, 10);
+        LinkDataMap linkDataMap_B_C = new LinkDataMap();
+        linkDataMap_B_C.addLinkData(APP_B, "agentB", APP_C, "agentC", 1000, slotTime, 20);
+
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final CountDownLatch completeLatch = new CountDownLatch(1);
+        when(linkDataMapService.selectCallerLinkDataMap(eq(APP_A), any(Range.class))).thenReturn(linkDataMap_A_B);
+        when(linkDataMapService.selectCallerLinkDataMap(eq(APP_B), any(Range.class))).thenAnswer(invocation -> {
+            releaseLatch.await();
+            completeLatch.countDown();
+            return linkDataMap_B_C;
+        });
+        when(linkDataMapService.selectCallerLinkDataMap(eq(APP_C), any(Range.class))).thenReturn(newEmptyLinkDataMap());
+        when(linkDataMapService.selectCalleeLinkDataMap(any(Application.class), any(Range.class))).thenReturn(newEmptyLinkDataMap());
+        when(hostApplicationMapDao.findAcceptApplicationName(any(Application.class), any(Range.class))).thenReturn(new HashSet<>());
+
+        ApplicationsMapCreatorFactory applicationsMapCreatorFactory = new ApplicationsMapCreatorFactory("forkjoin", 4, 100, 200);
+        LinkSelectorFactory linkSelectorFactory = new LinkSelectorFactory(linkDataMapService, applicationsMapCreatorFactory, hostApplicationMapDao);
+        LinkSelector linkSelector = linkSelectorFactory.createLinkSelector(LinkSelectorType.BIDIRECTIONAL);
+        LinkDataDuplexMap linkData = linkSelector.select(Collections.singletonList(APP_A), range, 2, 2);
+        Assert.assertEquals(10, linkData.getTotalCount());
+
+        releaseLatch.countDown();
+        Assert.assertTrue(completeLatch.await(3000, TimeUnit.MILLISECONDS));
+        // results of the timed out task are not added afterwards
+        Assert.assertEquals(10, linkData.getTotalCount());
+        applicationsMapCreatorFactory.preDestroy();
+    }
+
+    @Test
+    public void maxThreads() {
+        // APP_A -> APP_B0 ... APP_B7, link data of at most 2 applications is read at a time
+        final Application APP_A = new Application("APP_A", ServiceType.TEST_STAND_ALONE);
+        final short slotTime = ServiceType.TEST_STAND_ALONE.getHistogramSchema().getNormalSlot().getSlotTime();
+
+        LinkDataMap linkDataMap_A_B = new LinkDataMap();
+        for (int i = 0; i < 8; i++) {
+            linkDataMap_A_B.addLinkData(APP_A, "agentA", new Application("APP_B" + i, ServiceType.TEST_STAND_ALONE), "agentB" + i, 1000, slotTime, 1);
+        }
+        final AtomicInteger concurrentRequests = new AtomicInteger();
+        final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+        when(linkDataMapService.selectCallerLinkDataMap(any(Application.class), any(Range.class))).thenAnswer(invocation -> {
+            final int current = concurrentRequests.incrementAndGet();
+            maxConcurrentRequests.accumulateAndGet(current, Math::max);
+            Thread.sleep(50);
+            concurrentRequests.decrementAndGet();
+            if (APP_A.equals(invocation.getArgument(0))) {
+                return linkDataMap_A_B;
+            }
+            return newEmptyLinkDataMap();
+        });
+        when(linkDataMapService.selectCalleeLinkDataMap(any(Application.class), any(Range.class))).thenReturn(newEmptyLinkDataMap());
+        when(hostApplicationMapDao.findAcceptApplicationName(any(Application.class), any(Range.class))).thenReturn(new HashSet<>());
+
+        ApplicationsMapCreatorFactory applicationsMapCreatorFactory = new ApplicationsMapCreatorFactory("forkjoin", 2, 100, 60000);
+        LinkSelectorFactory linkSelectorFactory = new LinkSelectorFactory(linkDataMapService, applicationsMapCreatorFactory, hostApplicationMapDao);
+        LinkSelector linkSelector = linkSelectorFactory.createLinkSelector(LinkSelectorType.BIDIRECTIONAL);
+        LinkDataDuplexMap linkData = linkSelector.select(Collections.singletonList(APP_A), range, 2, 2);
+
+        Assert.assertEquals(8, linkData.getTotalCount());
+        Assert.assertTrue(maxConcurrentRequests.get() <= 2);
+        applicationsMapCreatorFactory.preDestroy();
+    }
+
+    @Test
+    public void failure() {
+        // APP_A -> APP_B, reading APP_B fails
+        final Application APP_A = new Application("APP_A", ServiceType.TEST_STAND_ALONE);
+        final Application APP_B = new Application("APP_B", ServiceType.TEST_STAND_ALONE);
+        final short slotTime = ServiceType.TEST_STAND_ALONE.getHistogramSchema().getNormalSlot().getSlotTime();
+
+        LinkDataMap linkDataMap_A_B = new LinkDataMap();
+        linkDataMap_A_B.addLinkData(APP_A, "agentA", APP_B, "agentB", 1000, slotTime, 10);
+        final RuntimeException error = new IllegalStateException("hbase error");
+        when(linkDataMapService.selectCallerLinkDataMap(eq(APP_A), any(Range.class))).thenReturn(linkDataMap_A_B);
+        when(linkDataMapService.selectCallerLinkDataMap(eq(APP_B), any(Range.class))).thenThrow(error);
+        when(linkDataMapService.selectCalleeLinkDataMap(any(Application.class), any(Range.class))).thenReturn(newEmptyLinkDataMap());
+        when(hostApplicationMapDao.findAcceptApplicationName(any(Application.class), any(Range.class))).thenReturn(new HashSet<>());
+
+        ApplicationsMapCreatorFactory applicationsMapCreatorFactory = new ApplicationsMapCreatorFactory("forkjoin", 4, 100, 60000);
+        LinkSelectorFactory linkSelectorFactory = new LinkSelectorFactory(linkDataMapService, applicationsMapCreatorFactory, hostApplicationMapDao);
+        LinkSelector linkSelector = linkSelectorFactory.createLinkSelector(LinkSelectorType.BIDIRECTIONAL);
+        try {
+            linkSelector.select(Collections.singletonList(APP_A), range, 2, 2);
+            Assert.fail("partial link data returned");
+        } catch (RuntimeException e) {
+            Assert.assertSame(error, e.getCause());
+        } finally {
+            applicationsMapCreatorFactory.preDestroy();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.map;
+
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.dao.SampledMapStatisticsCalleeDao;
+import com.navercorp.pinpoint.web.dao.SampledMapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.util.TimeWindowSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.navercorp.pinpoint.web.util.TimeSlotCacheTemplate.SLOT_SIZE;
+
+public class LinkDataSlotCacheTest {
+
+    private static final long SETTLE_TIME = TimeUnit.SECONDS.toMillis(30);
+
+    private static final long BASE_TIME = TimeUnit.DAYS.toMillis(17000);
+
+    private final Application application = new Application("test", ServiceType.STAND_ALONE);
+
+    @Test
+    public void selectCaller() {
+        RecordingDao dao = new RecordingDao();
+        LinkDataSlotCache cache = new LinkDataSlotCache(dao, dao, 10000, SETTLE_TIME);
+
+        // 60 minutes, the last one is still open
+        final Range range = new Range(BASE_TIME, BASE_TIME + TimeUnit.MINUTES.toMillis(59));
+        final long now = range.getTo() + SETTLE_TIME + 1000;
+
+        LinkDataMap first = cache.select(LinkDataSlotCache.Direction.CALLER, application, range, now);
+        Assert.assertEquals(60, first.getTotalCount());
+        Assert.assertEquals(1, dao.ranges.size());
+        Assert.assertEquals(59, cache.size());
+
+        LinkDataMap second = cache.select(LinkDataSlotCache.Direction.CALLER, application, range, now);
+        Assert.assertEquals(60, second.getTotalCount());
+        Assert.assertEquals(2, dao.ranges.size());
+        // only the open slot is scanned again
+        Assert.assertEquals(new Range(range.getTo(), range.getTo()), dao.ranges.get(1));
+        assertSameTimeWindow(range, second);
+
+        Assert.assertEquals(0, dao.calleeCount);
+    }
+
+    @Test
+    public void moveRange() {
+        RecordingDao dao = new RecordingDao();
+        LinkDataSlotCache cache = new LinkDataSlotCache(dao, dao, 10000, SETTLE_TIME);
+
+        final Range range = new Range(BASE_TIME, BASE_TIME + TimeUnit.MINUTES.toMillis(9));
+        cache.select(LinkDataSlotCache.Direction.CALLEE, application, range, BASE_TIME + TimeUnit.HOURS.toMillis(1));
+        Assert.assertEquals(1, dao.ranges.size());
+
+        final Range movedRange = new Range(range.getFrom() + SLOT_SIZE, range.getTo() + 2 * SLOT_SIZE);
+        LinkDataMap moved = cache.select(LinkDataSlotCache.Direction.CALLEE, application, movedRange, BASE_TIME + TimeUnit.HOURS.toMillis(1));
+        Assert.assertEquals(11, moved.getTotalCount());
+        Assert.assertEquals(2, dao.ranges.size());
+        Assert.assertEquals(new Range(range.getTo() + SLOT_SIZE, range.getTo() + 2 * SLOT_SIZE), dao.ranges.get(1));
+    }
+
+    @Test
+    public void missingSlotsInTheMiddle() {
+        RecordingDao dao = new RecordingDao();
+        LinkDataSlotCache cache = new LinkDataSlotCache(dao, dao, 10000, SETTLE_TIME);
+        final long now = BASE_TIME + TimeUnit.HOURS.toMillis(1);
+
+        cache.select(LinkDataSlotCache.Direction.CALLER, application, new Range(BASE_TIME, BASE_TIME + SLOT_SIZE), now);
+        cache.select(LinkDataSlotCache.Direction.CALLER, application, new Range(BASE_TIME + 4 * SLOT_SIZE, BASE_TIME + 5 * SLOT_SIZE), now);
+        dao.ranges.clear();
+
+        LinkDataMap linkDataMap = cache.select(LinkDataSlotCache.Direction.CALLER, application, new Range(BASE_TIME, BASE_TIME + 5 * SLOT_SIZE), now);
+        Assert.assertEquals(6, linkDataMap.getTotalCount());
+        Assert.assertEquals(1, dao.ranges.size());
+        Assert.assertEquals(new Range(BASE_TIME + 2 * SLOT_SIZE, BASE_TIME + 3 * SLOT_SIZE), dao.ranges.get(0));
+    }
+
+    @Test
+    public void splitBySlot() {
+        RecordingDao dao = new RecordingDao();
+        LinkDataMap linkDataMap = dao.selectCaller(application, new Range(BASE_TIME, BASE_TIME + 2 * SLOT_SIZE), TimeWindowDownSampler.SAMPLER);
+
+        Map<Long, LinkDataMap> slotMap = LinkDataSlotCache.splitBySlot(linkDataMap);
+        Assert.assertEquals(3, slotMap.size());
+        for (LinkDataMap slotLinkDataMap : slotMap.values()) {
+            Assert.assertEquals(1, slotLinkDataMap.size());
+            Assert.assertEquals(1, slotLinkDataMap.getTotalCount());
+        }
+    }
+
+    private void assertSameTimeWindow(Range range, LinkDataMap linkDataMap) {
+        TimeWindow expected = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+        Assert.assertEquals(expected.getWindowSlotSize(), linkDataMap.getTimeWindow().getWindowSlotSize());
+    }
+
+    /**
+     * one call per minute, scanned like the hbase dao: every slot between the slots of range.from and range.to
+     */
+    private static class RecordingDao implements SampledMapStatisticsCallerDao, SampledMapStatisticsCalleeDao {
+
+        private final Application toApplication = new Application("to", ServiceType.STAND_ALONE);
+        private final List<Range> ranges = new ArrayList<>();
+        private int calleeCount;
+
+        @Override
+        public LinkDataMap selectCaller(Application callerApplication, Range range) {
+            return selectCaller(callerApplication, range, TimeWindowDownSampler.SAMPLER);
+        }
+
+        @Override
+        public LinkDataMap selectCaller(Application callerApplication, Range range, TimeWindowSampler timeWindowSampler) {
+            ranges.add(range);
+            LinkDataMap linkDataMap = new LinkDataMap(new TimeWindow(range, timeWindowSampler));
+            final long to = (range.getTo() / SLOT_SIZE) * SLOT_SIZE;
+            for (long slot = (range.getFrom() / SLOT_SIZE) * SLOT_SIZE; slot <= to; slot += SLOT_SIZE) {
+                linkDataMap.addLinkData(callerApplication, "agent", toApplication, "to", slot, (short) 100, 1);
+            }
+            return linkDataMap;
+        }
+
+        @Override
+        public LinkDataMap selectCallee(Application calleeApplication, Range range) {
+            return selectCallee(calleeApplication, range, TimeWindowDownSampler.SAMPLER);
+        }
+
+        @Override
+        public LinkDataMap selectCallee(Application calleeApplication, Range range, TimeWindowSampler timeWindowSampler) {
+            calleeCount++;
+            return selectCaller(calleeApplication, range, timeWindowSampler);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.websocket;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.thrift.dto.command.TCmdActiveThreadCountRes;
+import com.navercorp.pinpoint.web.vo.AgentActiveThreadCount;
+import com.navercorp.pinpoint.web.vo.AgentActiveThreadCountFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ActiveThreadCountFrameEncoderTest {
+
+    private static final String APPLICATION_NAME = "applicationName";
+
+    @Test
+    public void fullFrameTest() {
+        ActiveThreadCountFrameEncoder encoder = new ActiveThreadCountFrameEncoder(APPLICATION_NAME);
+        ActiveThreadCountFrameEncoder.Frame frame = encoder.encode(1000L, Arrays.asList(create("agent1", 1, 2, 3, 4), createFail("agent2", "timeout")));
+
+        Assert.assertTrue(frame.isKeyFrame());
+        Assert.assertNull(frame.getDelta());
+
+        Buffer buffer = new FixedBuffer(frame.getFull());
+        assertHeader(buffer, ActiveThreadCountFrameEncoder.TYPE_FULL, 1, 1000L);
+        Assert.assertEquals(APPLICATION_NAME, buffer.readPrefixedString());
+        Assert.assertEquals(2, buffer.readVInt());
+
+        Assert.assertEquals("agent1", buffer.readPrefixedString());
+        Assert.assertEquals(0, buffer.readSVInt());
+        buffer.readPrefixedString();
+        Assert.assertEquals(4, buffer.readVInt());
+        for (int expected = 1; expected <= 4; expected++) {
+            Assert.assertEquals(expected, buffer.readVInt());
+        }
+
+        AgentActiveThreadCount fail = createFail("agent2", "timeout");
+        Assert.assertEquals("agent2", buffer.readPrefixedString());
+        Assert.assertEquals(fail.getCode(), buffer.readSVInt());
+        Assert.assertEquals(fail.getCodeMessage(), buffer.readPrefixedString());
+        Assert.assertEquals(fail.getActiveThreadCountList().size(), buffer.readVInt());
+    }
+
+    @Test
+    public void deltaFrameTest() {
+        ActiveThreadCountFrameEncoder encoder = new ActiveThreadCountFrameEncoder(APPLICATION_NAME);
+        encoder.encode(1000L, Arrays.asList(create("agent1", 1, 2, 3, 4), create("agent2", 0, 0, 0, 0), create("agent3", 5, 5, 5, 5)));
+        ActiveThreadCountFrameEncoder.Frame frame = encoder.encode(2000L, Arrays.asList(create("agent1", 1, 2, 3, 4), create("agent2", 0, 0, 0, 0), create("agent3", 5, 3, 5, 7)));
+
+        Assert.assertFalse(frame.isKeyFrame());
+        Assert.assertEquals(2, frame.getSequence());
+
+        Buffer buffer = new FixedBuffer(frame.getDelta());
+        assertHeader(buffer, ActiveThreadCountFrameEncoder.TYPE_DELTA, 2, 2000L);
+        // only agent3 changed
+        Assert.assertEquals(1, buffer.readVInt());
+        Assert.assertEquals(2, buffer.readVInt());
+        Assert.assertEquals(0, buffer.readSVInt());
+        Assert.assertEquals(4, buffer.readVInt());
+        Assert.assertEquals(0, buffer.readSVInt());
+        Assert.assertEquals(-2, buffer.readSVInt());
+        Assert.assertEquals(0, buffer.readSVInt());
+        Assert.assertEquals(2, buffer.readSVInt());
+
+        Assert.assertTrue(frame.getDelta().length < frame.getFull().length);
+        Assert.assertEquals(ActiveThreadCountFrameEncoder.TYPE_FULL, frame.getFull()[1]);
+    }
+
+    @Test
+    public void deltaFrameCodeChangedTest() {
+        ActiveThreadCountFrameEncoder encoder = new ActiveThreadCountFrameEncoder(APPLICATION_NAME);
+        encoder.encode(1000L, Arrays.asList(create("agent1", 1, 2, 3, 4), create("agent2", 1, 1, 1, 1)));
+        ActiveThreadCountFrameEncoder.Frame frame = encoder.encode(2000L, Arrays.asList(createFail("agent1", "timeout"), create("agent2", 1, 1, 1, 1)));
+
+        AgentActiveThreadCount fail = createFail("agent1", "timeout");
+        Buffer buffer = new FixedBuffer(frame.getDelta());
+        assertHeader(buffer, ActiveThreadCountFrameEncoder.TYPE_DELTA, 2, 2000L);
+        Assert.assertEquals(1, buffer.readVInt());
+        Assert.assertEquals(0, buffer.readVInt());
+        Assert.assertEquals(fail.getCode(), buffer.readSVInt());
+        Assert.assertEquals(fail.getCodeMessage(), buffer.readPrefixedString());
+        Assert.assertEquals(fail.getActiveThreadCountList().size(), buffer.readVInt());
+    }
+
+    @Test
+    public void keyFrameTest() {
+        ActiveThreadCountFrameEncoder encoder = new ActiveThreadCountFrameEncoder(APPLICATION_NAME, 3);
+        List<AgentActiveThreadCount> agents = Arrays.asList(create("agent1", 1, 2, 3, 4));
+
+        Assert.assertTrue(encoder.encode(1000L, agents).isKeyFrame());
+        Assert.assertFalse(encoder.encode(2000L, agents).isKeyFrame());
+        Assert.assertFalse(encoder.encode(3000L, agents).isKeyFrame());
+        // interval
+        Assert.assertTrue(encoder.encode(4000L, agents).isKeyFrame());
+
+        // agent added
+        Assert.assertTrue(encoder.encode(5000L, Arrays.asList(create("agent1", 1, 2, 3, 4), create("agent2", 1, 2, 3, 4))).isKeyFrame());
+        Assert.assertFalse(encoder.encode(6000L, Arrays.asList(create("agent1", 1, 2, 3, 4), create("agent2", 1, 2, 3, 4))).isKeyFrame());
+
+        encoder.reset();
+        Assert.assertTrue(encoder.encode(7000L, agents).isKeyFrame());
+    }
+
+    private void assertHeader(Buffer buffer, byte type, int sequence, long timestamp) {
+        Assert.assertEquals(ActiveThreadCountFrameEncoder.VERSION, buffer.readByte());
+        Assert.assertEquals(type, buffer.readByte());
+        Assert.assertEquals(sequence, buffer.readVInt());
+        Assert.assertEquals(timestamp, buffer.readVLong());
+    }
+
+    private AgentActiveThreadCount create(String agentId, Integer... counts) {
+        AgentActiveThreadCountFactory factory = new AgentActiveThreadCountFactory();
+        factory.setAgentId(agentId);
+        TCmdActiveThreadCountRes response = new TCmdActiveThreadCountRes();
+        response.setActiveThreadCount(Arrays.asList(counts));
+        return factory.create(response);
+    }
+
+    private AgentActiveThreadCount createFail(String agentId, String message) {
+        AgentActiveThreadCountFactory factory = new AgentActiveThreadCountFactory();
+        factory.setAgentId(agentId);
+        return factory.createFail(message);
+    }
+}
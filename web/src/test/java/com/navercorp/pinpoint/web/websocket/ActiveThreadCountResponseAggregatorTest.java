@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.websocket;
+
+import com.navercorp.pinpoint.web.service.AgentService;
+import com.navercorp.pinpoint.web.vo.AgentInfo;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Timer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ActiveThreadCountResponseAggregatorTest {
+
+    private static final String APPLICATION_NAME = "applicationName";
+
+    private Timer timer;
+
+    private ActiveThreadCountResponseAggregator aggregator;
+
+    @Before
+    public void setUp() {
+        AgentService agentService = mock(AgentService.class);
+        when(agentService.getRecentAgentInfoList(APPLICATION_NAME)).thenReturn(Collections.<AgentInfo>emptyList());
+        this.timer = new Timer(true);
+        this.aggregator = new ActiveThreadCountResponseAggregator(APPLICATION_NAME, agentService, timer);
+        this.aggregator.start();
+    }
+
+    @After
+    public void tearDown() {
+        aggregator.stop();
+        timer.cancel();
+    }
+
+    @Test
+    public void fullFrameAfterFailedSend() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session");
+        when(session.getAcceptedProtocol()).thenReturn(ActiveThreadCountHandler.BINARY_SUB_PROTOCOL);
+        doNothing().doThrow(new IOException("test")).doNothing().doNothing().when(session).sendMessage(any(WebSocketMessage.class));
+        aggregator.addWebSocketSession(session);
+
+        // full, delta failed, full, delta
+        for (int i = 0; i < 4; i++) {
+            aggregator.flush();
+        }
+
+        ArgumentCaptor<BinaryMessage> captor = ArgumentCaptor.forClass(BinaryMessage.class);
+        verify(session, times(4)).sendMessage(captor.capture());
+        List<BinaryMessage> messages = captor.getAllValues();
+        Assert.assertEquals(ActiveThreadCountFrameEncoder.TYPE_FULL, getType(messages.get(0)));
+        Assert.assertEquals(ActiveThreadCountFrameEncoder.TYPE_DELTA, getType(messages.get(1)));
+        Assert.assertEquals(ActiveThreadCountFrameEncoder.TYPE_FULL, getType(messages.get(2)));
+        Assert.assertEquals(ActiveThreadCountFrameEncoder.TYPE_DELTA, getType(messages.get(3)));
+    }
+
+    private byte getType(BinaryMessage message) {
+        // version, type
+        return message.getPayload().get(1);
+    }
+}